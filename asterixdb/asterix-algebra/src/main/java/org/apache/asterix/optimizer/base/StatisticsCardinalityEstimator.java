@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.base;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.config.DatasetConfig.IndexType;
+import org.apache.asterix.common.storage.IStatisticsManager;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions.ComparisonKind;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.algebricks.core.algebra.properties.ICardinalityEstimator;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+
+/**
+ * Estimates cardinalities using the statistics that the node controllers report for the LSM indexes of datasets.
+ * The statistics of the primary index give the number of records of a dataset and the number of distinct values of
+ * its primary keys. The statistics of a secondary BTree index give the number of distinct values of its first key.
+ */
+public class StatisticsCardinalityEstimator implements ICardinalityEstimator {
+
+    private static final double EQUALITY_SELECTIVITY = 0.1;
+    private static final double RANGE_SELECTIVITY = 1.0 / 3.0;
+    private static final double DEFAULT_SELECTIVITY = 0.5;
+
+    public static final StatisticsCardinalityEstimator INSTANCE = new StatisticsCardinalityEstimator();
+
+    private StatisticsCardinalityEstimator() {
+    }
+
+    @Override
+    public long getCardinality(ILogicalOperator op, IOptimizationContext context) throws AlgebricksException {
+        switch (op.getOperatorTag()) {
+            case DATASOURCESCAN:
+                Dataset dataset = getDataset(op);
+                ComponentStatistics statistics =
+                        dataset == null ? null : getStatistics(dataset, dataset.getDatasetName(), context);
+                if (statistics == null) {
+                    return UNKNOWN;
+                }
+                return Math.max(statistics.getNumTuples() - statistics.getNumAntimatterTuples(), 0);
+            case ASSIGN:
+            case PROJECT:
+                return getCardinality(op.getInputs().get(0).getValue(), context);
+            case SELECT:
+                ILogicalOperator input = op.getInputs().get(0).getValue();
+                long inputCardinality = getCardinality(input, context);
+                if (inputCardinality < 0) {
+                    return UNKNOWN;
+                }
+                double selectivity =
+                        getSelectivity(((SelectOperator) op).getCondition().getValue(), input, context);
+                return (long) Math.ceil(inputCardinality * selectivity);
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    @Override
+    public long getDistinctValues(LogicalVariable var, ILogicalOperator op, IOptimizationContext context)
+            throws AlgebricksException {
+        Dataset dataset = findSourceDataset(op);
+        if (dataset == null) {
+            return UNKNOWN;
+        }
+        ComponentStatistics statistics;
+        int field;
+        int keyIndex = getPrimaryKeyIndex(var, op);
+        if (keyIndex >= 0) {
+            statistics = getStatistics(dataset, dataset.getDatasetName(), context);
+            field = keyIndex;
+        } else {
+            Index index = findSecondaryIndex(dataset, getFieldName(var, op), context);
+            statistics = index == null ? null : getStatistics(dataset, index.getIndexName(), context);
+            field = 0;
+        }
+        if (statistics == null || field >= statistics.getNumFields()) {
+            return UNKNOWN;
+        }
+        long distinctValues = statistics.getDistinctValues(field);
+        long cardinality = getCardinality(op, context);
+        return cardinality < 0 ? distinctValues : Math.min(distinctValues, Math.max(cardinality, 1));
+    }
+
+    @Override
+    public boolean isIndexProbeKey(LogicalVariable var, ILogicalOperator op, IOptimizationContext context)
+            throws AlgebricksException {
+        Dataset dataset = findSourceDataset(op);
+        if (dataset == null) {
+            return false;
+        }
+        if (getPrimaryKeyIndex(var, op) >= 0) {
+            return dataset.getPrimaryKeys().size() == 1;
+        }
+        return findSecondaryIndex(dataset, getFieldName(var, op), context) != null;
+    }
+
+    @Override
+    public int getNumPartitions(IOptimizationContext context) throws AlgebricksException {
+        String[] locations = ((MetadataProvider) context.getMetadataProvider()).getClusterLocations().getLocations();
+        return locations.length;
+    }
+
+    private double getSelectivity(ILogicalExpression condition, ILogicalOperator input, IOptimizationContext context)
+            throws AlgebricksException {
+        if (condition.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return DEFAULT_SELECTIVITY;
+        }
+        AbstractFunctionCallExpression fexp = (AbstractFunctionCallExpression) condition;
+        FunctionIdentifier fi = fexp.getFunctionIdentifier();
+        if (fi.equals(AlgebricksBuiltinFunctions.AND)) {
+            double selectivity = 1.0;
+            for (Mutable<ILogicalExpression> arg : fexp.getArguments()) {
+                selectivity *= getSelectivity(arg.getValue(), input, context);
+            }
+            return selectivity;
+        }
+        ComparisonKind kind = AlgebricksBuiltinFunctions.getComparisonType(fi);
+        if (kind == null || kind == ComparisonKind.NEQ) {
+            return DEFAULT_SELECTIVITY;
+        }
+        if (kind != ComparisonKind.EQ) {
+            return RANGE_SELECTIVITY;
+        }
+        ILogicalExpression arg0 = fexp.getArguments().get(0).getValue();
+        ILogicalExpression arg1 = fexp.getArguments().get(1).getValue();
+        ILogicalExpression varExpr = arg0.getExpressionTag() == LogicalExpressionTag.VARIABLE ? arg0 : arg1;
+        ILogicalExpression constExpr = varExpr == arg0 ? arg1 : arg0;
+        if (varExpr.getExpressionTag() != LogicalExpressionTag.VARIABLE
+                || constExpr.getExpressionTag() != LogicalExpressionTag.CONSTANT) {
+            return EQUALITY_SELECTIVITY;
+        }
+        long distinctValues =
+                getDistinctValues(((VariableReferenceExpression) varExpr).getVariableReference(), input, context);
+        return distinctValues > 0 ? 1.0 / distinctValues : EQUALITY_SELECTIVITY;
+    }
+
+    private static ComponentStatistics getStatistics(Dataset dataset, String indexName, IOptimizationContext context) {
+        IStatisticsManager statisticsManager = ((MetadataProvider) context.getMetadataProvider())
+                .getApplicationContext().getStatisticsManager();
+        return statisticsManager.getStatistics(dataset.getDatasetId(), indexName);
+    }
+
+    private static Dataset getDataset(ILogicalOperator op) {
+        DataSourceScanOperator scan = (DataSourceScanOperator) op;
+        if (!(scan.getDataSource() instanceof DatasetDataSource)) {
+            return null;
+        }
+        Dataset dataset = ((DatasetDataSource) scan.getDataSource()).getDataset();
+        return dataset.getDatasetType() == DatasetType.INTERNAL ? dataset : null;
+    }
+
+    /**
+     * @return the scanned dataset if {@code op} is a chain of assigns, selects and projects on top of a scan
+     */
+    private static Dataset findSourceDataset(ILogicalOperator op) {
+        DataSourceScanOperator scan = findScan(op);
+        return scan == null ? null : getDataset(scan);
+    }
+
+    private static DataSourceScanOperator findScan(ILogicalOperator op) {
+        ILogicalOperator current = op;
+        while (true) {
+            switch (current.getOperatorTag()) {
+                case DATASOURCESCAN:
+                    return (DataSourceScanOperator) current;
+                case ASSIGN:
+                case SELECT:
+                case PROJECT:
+                    current = current.getInputs().get(0).getValue();
+                    break;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static int getPrimaryKeyIndex(LogicalVariable var, ILogicalOperator op) {
+        DataSourceScanOperator scan = findScan(op);
+        DatasetDataSource dataSource = (DatasetDataSource) scan.getDataSource();
+        return dataSource.getPrimaryKeyVariables(scan.getVariables()).indexOf(var);
+    }
+
+    /**
+     * @return the name of the top-level field of the scanned record that {@code var} is assigned to, or null
+     */
+    private static String getFieldName(LogicalVariable var, ILogicalOperator op) throws AlgebricksException {
+        ILogicalOperator current = op;
+        while (current.getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+            if (current.getOperatorTag() == LogicalOperatorTag.ASSIGN) {
+                AssignOperator assign = (AssignOperator) current;
+                int varIndex = assign.getVariables().indexOf(var);
+                if (varIndex >= 0) {
+                    return getFieldName(assign.getExpressions().get(varIndex).getValue(), findScan(current));
+                }
+            }
+            current = current.getInputs().get(0).getValue();
+        }
+        return null;
+    }
+
+    private static String getFieldName(ILogicalExpression expr, DataSourceScanOperator scan) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression fexp = (AbstractFunctionCallExpression) expr;
+        ILogicalExpression recordExpr = fexp.getArguments().get(0).getValue();
+        DatasetDataSource dataSource = (DatasetDataSource) scan.getDataSource();
+        if (recordExpr.getExpressionTag() != LogicalExpressionTag.VARIABLE
+                || !((VariableReferenceExpression) recordExpr).getVariableReference()
+                        .equals(dataSource.getDataRecordVariable(scan.getVariables()))) {
+            return null;
+        }
+        FunctionIdentifier fi = fexp.getFunctionIdentifier();
+        if (fi.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME)) {
+            return ConstantExpressionUtil.getStringArgument(fexp, 1);
+        } else if (fi.equals(BuiltinFunctions.FIELD_ACCESS_BY_INDEX)) {
+            Integer fieldIndex = ConstantExpressionUtil.getIntArgument(fexp, 1);
+            IAType itemType = dataSource.getItemType();
+            if (fieldIndex != null && itemType instanceof ARecordType
+                    && fieldIndex < ((ARecordType) itemType).getFieldNames().length) {
+                return ((ARecordType) itemType).getFieldNames()[fieldIndex];
+            }
+        }
+        return null;
+    }
+
+    private static Index findSecondaryIndex(Dataset dataset, String fieldName, IOptimizationContext context)
+            throws AlgebricksException {
+        if (fieldName == null) {
+            return null;
+        }
+        List<String> keyFieldName = Collections.singletonList(fieldName);
+        List<Index> indexes = ((MetadataProvider) context.getMetadataProvider())
+                .getDatasetIndexes(dataset.getDataverseName(), dataset.getDatasetName());
+        for (Index index : indexes) {
+            if (!index.isPrimaryIndex() && index.getIndexType() == IndexType.BTREE && !index.getKeyFieldNames()
+                    .isEmpty() && index.getKeyFieldNames().get(0).equals(keyFieldName)) {
+                return index;
+            }
+        }
+        return null;
+    }
+}
@@ -36,6 +36,7 @@ import org.apache.asterix.metadata.declared.MetadataProvider;
 import org.apache.asterix.metadata.entities.Dataset;
 import org.apache.asterix.metadata.entities.Index;
 import org.apache.asterix.metadata.entities.InternalDatasetDetails;
+import org.apache.asterix.metadata.utils.IndexUtil;
 import org.apache.asterix.om.base.AInt32;
 import org.apache.asterix.om.base.AOrderedList;
 import org.apache.asterix.om.base.AString;
@@ -301,6 +302,14 @@ public class IntroduceSecondaryIndexInsertDeleteRule implements IAlgebraicRewrit
                 // and index type is keyword or n-gram.
                 if (index.getIndexType() != IndexType.BTREE && primaryIndexModificationOp.isBulkload()) {
                     // Note: Bulk load case, we don't need to take care of it for upsert operation
+                    if (IndexUtil.hasTermStatistics(dataset, index)) {
+                        // The tokenizer of a bulk load writes the propagated keys before the tokens, which a term
+                        // frequency and a document length could not follow.
+                        throw new CompilationException(ErrorCode.COMPILATION_ERROR, sourceLoc,
+                                "Cannot load dataset " + datasetName + " with the full-text index "
+                                        + index.getIndexName()
+                                        + " that keeps term statistics. Create the index after the load.");
+                    }
                     // Check whether the index is length-partitioned or not.
                     // If partitioned, [input variables to TokenizeOperator,
                     // token, number of token] pairs will be generated and
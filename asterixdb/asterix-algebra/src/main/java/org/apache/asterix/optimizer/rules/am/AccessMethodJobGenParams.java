@@ -98,6 +98,10 @@ public class AccessMethodJobGenParams {
         return retainInput;
     }
 
+    public void setRetainInput(boolean retainInput) {
+        this.retainInput = retainInput;
+    }
+
     public boolean getRequiresBroadcast() {
         return requiresBroadcast;
     }
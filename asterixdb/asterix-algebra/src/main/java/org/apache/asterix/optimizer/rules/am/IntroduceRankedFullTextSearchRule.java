@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.am;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.metadata.utils.IndexUtil;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.LimitOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ProjectOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+
+/**
+ * If the results of a full-text search that uses an index with term statistics are ordered by their descending
+ * ftscore() on the field and search predicate of the ftcontains() call and then limited, the inverted-index search
+ * ranks the documents itself and outputs only the best-scored ones of each partition, together with their scores.
+ * The global ORDER and LIMIT operators stay in place to pick the best-scored documents of all partitions.
+ * =================
+ * matching pattern:
+ * limit <- (assign | project)* <- order (desc ftscore($f, $q)) <- (assign | project)* <- select (ftcontains($f, $q))
+ * <- (assign | project)* <- unnest-map (primary index search) <- order (primary keys)
+ * <- unnest-map (inverted index search)
+ * =
+ * producing pattern:
+ * limit <- (assign | project)* <- order (desc $score) <- (assign | project)* <- select (ftcontains($f, $q))
+ * <- (assign | project)* <- unnest-map (primary index search, retaining its input) <- order (primary keys)
+ * <- unnest-map (ranked inverted index search of the limit + offset best documents, producing $score)
+ *
+ * Any other SELECT between the search and the ORDER would filter documents after they have been cut, so the rule
+ * doesn't apply in its presence.
+ */
+public class IntroduceRankedFullTextSearchRule implements IAlgebraicRewriteRule {
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        return false;
+    }
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.LIMIT) {
+            return false;
+        }
+        if (context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        context.addToDontApplySet(this, op);
+
+        long topK = getTopK((LimitOperator) op);
+        if (topK <= 0 || topK > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        // Collects the operators between the LIMIT and the primary-index search: the ORDER, the SELECT of the
+        // ftcontains() call below it, and assigns and projects.
+        List<ILogicalOperator> ops = new ArrayList<>();
+        OrderOperator orderOp = null;
+        SelectOperator selectOp = null;
+        ILogicalOperator currentOp = op.getInputs().get(0).getValue();
+        while (currentOp.getOperatorTag() != LogicalOperatorTag.UNNEST_MAP) {
+            switch (currentOp.getOperatorTag()) {
+                case ASSIGN:
+                case PROJECT:
+                    break;
+                case ORDER:
+                    if (orderOp != null) {
+                        return false;
+                    }
+                    orderOp = (OrderOperator) currentOp;
+                    break;
+                case SELECT:
+                    if (orderOp == null || selectOp != null) {
+                        return false;
+                    }
+                    selectOp = (SelectOperator) currentOp;
+                    break;
+                default:
+                    return false;
+            }
+            ops.add(currentOp);
+            currentOp = currentOp.getInputs().get(0).getValue();
+        }
+        if (orderOp == null || selectOp == null) {
+            return false;
+        }
+        List<Pair<IOrder, Mutable<ILogicalExpression>>> orderExprs = orderOp.getOrderExpressions();
+        if (orderExprs.size() != 1 || orderExprs.get(0).first.getKind() != OrderKind.DESC) {
+            return false;
+        }
+
+        // The searches must be the ones of the primary index and of a full-text index with term statistics.
+        UnnestMapOperator primaryUnnestMapOp = (UnnestMapOperator) currentOp;
+        ILogicalOperator primaryKeyOrderOp = primaryUnnestMapOp.getInputs().get(0).getValue();
+        if (primaryKeyOrderOp.getOperatorTag() != LogicalOperatorTag.ORDER) {
+            return false;
+        }
+        ILogicalOperator secondaryOp = primaryKeyOrderOp.getInputs().get(0).getValue();
+        if (secondaryOp.getOperatorTag() != LogicalOperatorTag.UNNEST_MAP) {
+            return false;
+        }
+        UnnestMapOperator secondaryUnnestMapOp = (UnnestMapOperator) secondaryOp;
+        AbstractFunctionCallExpression primarySearchFunc = getIndexSearchFunc(primaryUnnestMapOp);
+        AbstractFunctionCallExpression secondarySearchFunc = getIndexSearchFunc(secondaryUnnestMapOp);
+        if (primarySearchFunc == null || secondarySearchFunc == null || primaryUnnestMapOp.propagatesInput()
+                || secondaryUnnestMapOp.propagatesInput()) {
+            return false;
+        }
+        BTreeJobGenParams primaryJobGenParams = new BTreeJobGenParams();
+        primaryJobGenParams.readFromFuncArgs(primarySearchFunc.getArguments());
+        if (!primaryJobGenParams.isPrimaryIndex()) {
+            return false;
+        }
+        InvertedIndexJobGenParams secondaryJobGenParams = new InvertedIndexJobGenParams();
+        secondaryJobGenParams.readFromFuncArgs(secondarySearchFunc.getArguments());
+        if (!secondaryJobGenParams.getIsFullTextSearch() || secondaryJobGenParams.getTopK() > 0
+                || !secondaryJobGenParams.getDatasetName().equals(primaryJobGenParams.getDatasetName())
+                || !secondaryJobGenParams.getDataverseName().equals(primaryJobGenParams.getDataverseName())) {
+            return false;
+        }
+        MetadataProvider metadataProvider = (MetadataProvider) context.getMetadataProvider();
+        Dataset dataset = metadataProvider.findDataset(secondaryJobGenParams.getDataverseName(),
+                secondaryJobGenParams.getDatasetName());
+        Index index = metadataProvider.getIndex(secondaryJobGenParams.getDataverseName(),
+                secondaryJobGenParams.getDatasetName(), secondaryJobGenParams.getIndexName());
+        if (dataset == null || index == null || !IndexUtil.hasTermStatistics(dataset, index)) {
+            return false;
+        }
+
+        // The ORDER must order by the ftscore() of the field and search predicate of the ftcontains() call.
+        ILogicalExpression ftcontainsExpr = selectOp.getCondition().getValue();
+        if (ftcontainsExpr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return false;
+        }
+        FunctionIdentifier ftcontainsFuncId = ((AbstractFunctionCallExpression) ftcontainsExpr).getFunctionIdentifier();
+        if (ftcontainsFuncId != BuiltinFunctions.FULLTEXT_CONTAINS
+                && ftcontainsFuncId != BuiltinFunctions.FULLTEXT_CONTAINS_WO_OPTION) {
+            return false;
+        }
+        Map<LogicalVariable, ILogicalExpression> assignedExprs = new HashMap<>();
+        for (ILogicalOperator assignOp : ops) {
+            if (assignOp.getOperatorTag() == LogicalOperatorTag.ASSIGN) {
+                List<LogicalVariable> assignedVars = ((AssignOperator) assignOp).getVariables();
+                for (int i = 0; i < assignedVars.size(); i++) {
+                    assignedExprs.put(assignedVars.get(i),
+                            ((AssignOperator) assignOp).getExpressions().get(i).getValue());
+                }
+            }
+        }
+        List<ILogicalExpression> searchArgs = new ArrayList<>();
+        for (int i = 0; i < BuiltinFunctions.FULLTEXT_SCORE.getArity(); i++) {
+            searchArgs.add(inlineVariables(
+                    ((AbstractFunctionCallExpression) ftcontainsExpr).getArguments().get(i).getValue(), assignedExprs));
+        }
+        if (!isScoreExpr(inlineVariables(orderExprs.get(0).second.getValue(), assignedExprs), searchArgs)) {
+            return false;
+        }
+
+        // The inverted-index search produces the scores of its topK documents.
+        LogicalVariable scoreVar = context.newVar();
+        secondaryUnnestMapOp.getVariables().add(scoreVar);
+        secondaryUnnestMapOp.getVariableTypes().add(BuiltinType.ADOUBLE);
+        secondaryJobGenParams.setTopK((int) topK);
+        secondarySearchFunc.getArguments().clear();
+        secondaryJobGenParams.writeToFuncArgs(secondarySearchFunc.getArguments());
+        // The primary-index search keeps the scores.
+        primaryUnnestMapOp.setPropagatesInput(true);
+        primaryJobGenParams.setRetainInput(true);
+        primarySearchFunc.getArguments().clear();
+        primaryJobGenParams.writeToFuncArgs(primarySearchFunc.getArguments());
+        // The scores replace the ftscore() calls, and the projects below the calls keep them.
+        boolean isScoreUsed = false;
+        for (ILogicalOperator scoreOp : ops) {
+            switch (scoreOp.getOperatorTag()) {
+                case ASSIGN:
+                    for (Mutable<ILogicalExpression> exprRef : ((AssignOperator) scoreOp).getExpressions()) {
+                        isScoreUsed |= replaceScoreExprs(exprRef, scoreVar, searchArgs, assignedExprs);
+                    }
+                    break;
+                case ORDER:
+                    isScoreUsed |= replaceScoreExprs(orderExprs.get(0).second, scoreVar, searchArgs, assignedExprs);
+                    break;
+                case PROJECT:
+                    if (isScoreUsed) {
+                        ((ProjectOperator) scoreOp).getVariables().add(scoreVar);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        OperatorPropertiesUtil.typeOpRec(opRef, context);
+        return true;
+    }
+
+    private static long getTopK(LimitOperator limitOp) {
+        if (limitOp.getMaxObjects().getValue().getExpressionTag() != LogicalExpressionTag.CONSTANT) {
+            return -1;
+        }
+        long topK = AccessMethodUtils.getInt64Constant(limitOp.getMaxObjects());
+        if (limitOp.getOffset().getValue() != null) {
+            if (limitOp.getOffset().getValue().getExpressionTag() != LogicalExpressionTag.CONSTANT) {
+                return -1;
+            }
+            topK += AccessMethodUtils.getInt64Constant(limitOp.getOffset());
+        }
+        return topK;
+    }
+
+    private static AbstractFunctionCallExpression getIndexSearchFunc(UnnestMapOperator unnestMapOp) {
+        ILogicalExpression unnestExpr = unnestMapOp.getExpressionRef().getValue();
+        if (unnestExpr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression unnestFuncExpr = (AbstractFunctionCallExpression) unnestExpr;
+        return unnestFuncExpr.getFunctionIdentifier() == BuiltinFunctions.INDEX_SEARCH ? unnestFuncExpr : null;
+    }
+
+    private static boolean isScoreExpr(ILogicalExpression expr, List<ILogicalExpression> searchArgs) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return false;
+        }
+        AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) expr;
+        if (funcExpr.getFunctionIdentifier() != BuiltinFunctions.FULLTEXT_SCORE) {
+            return false;
+        }
+        for (int i = 0; i < searchArgs.size(); i++) {
+            if (!funcExpr.getArguments().get(i).getValue().equals(searchArgs.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the ftscore() calls of the search in the given expression with the score variable.
+     *
+     * @return true if a call has been replaced
+     */
+    private static boolean replaceScoreExprs(Mutable<ILogicalExpression> exprRef, LogicalVariable scoreVar,
+            List<ILogicalExpression> searchArgs, Map<LogicalVariable, ILogicalExpression> assignedExprs) {
+        ILogicalExpression expr = exprRef.getValue();
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return false;
+        }
+        if (isScoreExpr(inlineVariables(expr, assignedExprs), searchArgs)) {
+            VariableReferenceExpression scoreVarRef = new VariableReferenceExpression(scoreVar);
+            scoreVarRef.setSourceLocation(expr.getSourceLocation());
+            exprRef.setValue(scoreVarRef);
+            return true;
+        }
+        boolean isReplaced = false;
+        for (Mutable<ILogicalExpression> argRef : ((AbstractFunctionCallExpression) expr).getArguments()) {
+            isReplaced |= replaceScoreExprs(argRef, scoreVar, searchArgs, assignedExprs);
+        }
+        return isReplaced;
+    }
+
+    /**
+     * @return a copy of the given expression in which the variables are replaced with the expressions assigned to
+     *         them
+     */
+    private static ILogicalExpression inlineVariables(ILogicalExpression expr,
+            Map<LogicalVariable, ILogicalExpression> assignedExprs) {
+        switch (expr.getExpressionTag()) {
+            case VARIABLE:
+                ILogicalExpression assignedExpr =
+                        assignedExprs.get(((VariableReferenceExpression) expr).getVariableReference());
+                return assignedExpr != null ? inlineVariables(assignedExpr, assignedExprs) : expr;
+            case FUNCTION_CALL:
+                AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) expr.cloneExpression();
+                for (Mutable<ILogicalExpression> argRef : funcExpr.getArguments()) {
+                    argRef.setValue(inlineVariables(argRef.getValue(), assignedExprs));
+                }
+                return funcExpr;
+            default:
+                return expr;
+        }
+    }
+}
@@ -47,11 +47,14 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
     // if a query predicate contains a phrase, we need to generate an exception.
     // The following variable serves this purpose. i.e. Checks whether the query is a full-text search query or not.
     protected boolean isFullTextSearchQuery = false;
+    // The number of the best-scored documents of a ranked full-text search, 0 if the search is not ranked.
+    protected int topK = 0;
     protected static final int SEARCH_MODIFIER_INDEX = 0;
     protected static final int SIM_THRESHOLD_INDEX = 1;
     protected static final int SEARCH_KEY_TYPE_INDEX = 2;
     protected static final int IS_FULLTEXT_SEARCH_INDEX = 3;
-    protected static final int KEY_VAR_INDEX = 4;
+    protected static final int TOP_K_INDEX = 4;
+    protected static final int KEY_VAR_INDEX = 5;
 
     public InvertedIndexJobGenParams() {
     }
@@ -69,6 +72,10 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
         this.isFullTextSearchQuery = isFullTextSearchQuery;
     }
 
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
     public void setSimilarityThreshold(IAlgebricksConstantValue similarityThreshold) {
         this.similarityThreshold = similarityThreshold;
     }
@@ -95,6 +102,8 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
         // Write full-text search information.
         funcArgs.add(
                 new MutableObject<ILogicalExpression>(AccessMethodUtils.createBooleanConstant(isFullTextSearchQuery)));
+        // Write the number of the best-scored documents of a ranked search.
+        funcArgs.add(new MutableObject<ILogicalExpression>(AccessMethodUtils.createInt32Constant(topK)));
         // Write key var list.
         writeVarList(keyVarList, funcArgs);
         // Write non-key var list.
@@ -117,6 +126,8 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
         searchKeyType = ATypeTag.values()[typeTagOrdinal];
         // Read full-text search information.
         isFullTextSearchQuery = AccessMethodUtils.getBooleanConstant(funcArgs.get(index + IS_FULLTEXT_SEARCH_INDEX));
+        // Read the number of the best-scored documents of a ranked search.
+        topK = AccessMethodUtils.getInt32Constant(funcArgs.get(index + TOP_K_INDEX));
         // Read key var list.
         keyVarList = new ArrayList<>();
         readVarList(funcArgs, index + KEY_VAR_INDEX, keyVarList);
@@ -133,6 +144,10 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
         return isFullTextSearchQuery;
     }
 
+    public int getTopK() {
+        return topK;
+    }
+
     public IAlgebricksConstantValue getSimilarityThreshold() {
         return similarityThreshold;
     }
@@ -28,6 +28,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ExchangeOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.DelegateOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ForwardOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.GroupByOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.IntersectOperator;
@@ -49,6 +50,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.TokenizeOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnionAllOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.visitors.IQueryOperatorVisitor;
 
 /**
@@ -189,6 +191,11 @@ class SubplanSpecialFlatteningCheckVisitor implements IQueryOperatorVisitor<Bool
         return false;
     }
 
+    @Override
+    public Boolean visitWindowOperator(WindowOperator op, Void arg) throws AlgebricksException {
+        return visitCardinalityReduceOperator(op);
+    }
+
     @Override
     public Boolean visitUnnestOperator(UnnestOperator op, Void arg) throws AlgebricksException {
         return visitInputs(op);
@@ -224,6 +231,11 @@ class SubplanSpecialFlatteningCheckVisitor implements IQueryOperatorVisitor<Bool
         return visitInputs(op);
     }
 
+    @Override
+    public Boolean visitForwardOperator(ForwardOperator op, Void arg) throws AlgebricksException {
+        return visitInputs(op);
+    }
+
     @Override
     public Boolean visitTokenizeOperator(TokenizeOperator op, Void arg) throws AlgebricksException {
         return visitInputs(op);
@@ -62,4 +62,9 @@ public interface IRequestParameters {
      * @return Statement parameters
      */
     Map<String, IAObject> getStatementParameters();
+
+    /**
+     * @return the text of the request statements, if available. Otherwise null.
+     */
+    String getStatement();
 }
@@ -78,6 +78,7 @@ public interface IStatementExecutor {
         private long count;
         private long size;
         private long processedObjects;
+        private String jobProfile;
 
         public long getCount() {
             return count;
@@ -102,6 +103,17 @@ public interface IStatementExecutor {
         public void setProcessedObjects(long processedObjects) {
             this.processedObjects = processedObjects;
         }
+
+        /**
+         * @return the runtime profile of the last job, as JSON, or null if the job was not profiled
+         */
+        public String getJobProfile() {
+            return jobProfile;
+        }
+
+        public void setJobProfile(String jobProfile) {
+            this.jobProfile = jobProfile;
+        }
     }
 
     /**
@@ -48,7 +48,8 @@ public class SessionConfig implements Serializable {
         ADM,
         CSV,
         CLEAN_JSON,
-        LOSSLESS_JSON
+        LOSSLESS_JSON,
+        ARROW
     };
 
     /**
@@ -97,6 +98,11 @@ public class SessionConfig implements Serializable {
      */
     public static final String OOB_OPTIMIZED_LOGICAL_PLAN = "oob-optimized-logical-plan";
 
+    /**
+     * Produce out-of-band output for the runtime profile of the Hyracks Job.
+     */
+    public static final String OOB_PROFILE = "oob-profile";
+
     /**
      * Format flag: print only physical ops (for optimizer tests).
      */
@@ -28,6 +28,7 @@ import java.util.Map;
 import org.apache.asterix.algebra.base.ILangExpressionToPlanTranslator;
 import org.apache.asterix.common.exceptions.CompilationException;
 import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.common.functions.FunctionConstants;
 import org.apache.asterix.common.functions.FunctionSignature;
 import org.apache.asterix.lang.common.base.Clause.ClauseType;
 import org.apache.asterix.lang.common.base.Expression;
@@ -35,6 +36,7 @@ import org.apache.asterix.lang.common.base.Expression.Kind;
 import org.apache.asterix.lang.common.base.ILangExpression;
 import org.apache.asterix.lang.common.clause.GroupbyClause;
 import org.apache.asterix.lang.common.clause.LetClause;
+import org.apache.asterix.lang.common.clause.OrderbyClause;
 import org.apache.asterix.lang.common.expression.CallExpr;
 import org.apache.asterix.lang.common.expression.FieldBinding;
 import org.apache.asterix.lang.common.expression.GbyVariableExpressionPair;
@@ -60,10 +62,12 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.optype.JoinType;
 import org.apache.asterix.lang.sqlpp.optype.SetOpType;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationInput;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
+import org.apache.asterix.lang.sqlpp.util.FunctionMapUtil;
 import org.apache.asterix.lang.sqlpp.util.SqlppVariableUtil;
 import org.apache.asterix.lang.sqlpp.visitor.base.ISqlppVisitor;
 import org.apache.asterix.metadata.declared.MetadataProvider;
@@ -84,13 +88,16 @@ import org.apache.hyracks.algebricks.common.utils.Pair;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalPlan;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
 import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.AggregateFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.StatefulFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.UnnestingFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractBinaryJoinOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractUnnestNonMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractUnnestOperator;
@@ -100,11 +107,15 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.LeftOuterUnnestOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.NestedTupleSourceOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ProjectOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.SubplanOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.plan.ALogicalPlanImpl;
+import org.apache.hyracks.algebricks.core.algebra.properties.UnpartitionedPropertyComputer;
 import org.apache.hyracks.api.exceptions.SourceLocation;
 
 /**
@@ -118,6 +129,7 @@ import org.apache.hyracks.api.exceptions.SourceLocation;
 class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTranslator implements ILangExpressionToPlanTranslator,
         ISqlppVisitor<Pair<ILogicalOperator, LogicalVariable>, Mutable<ILogicalOperator>> {
     private static final String ERR_MSG = "Translator should never enter this method!";
+    private static final String SQL_AGGREGATE_PREFIX = "sql-";
     private Deque<Mutable<ILogicalOperator>> uncorrelatedLeftBranchStack = new ArrayDeque<>();
     private final Map<VarIdentifier, IAObject> externalVars;
 
@@ -629,6 +641,129 @@ class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTranslator imp
         return new Pair<>(finalAssignOp, resultVar);
     }
 
+
+    @Override
+    public Pair<ILogicalOperator, LogicalVariable> visit(WindowExpression winExpr, Mutable<ILogicalOperator> tupSource)
+            throws CompilationException {
+        SourceLocation sourceLoc = winExpr.getSourceLocation();
+        Mutable<ILogicalOperator> currentOpRef = tupSource;
+
+        // The window operator partitions and sorts on variables, so key expressions are assigned first.
+        List<Mutable<ILogicalExpression>> partitionExprs = new ArrayList<>();
+        for (Expression partitionExpr : winExpr.getPartitionList()) {
+            Pair<LogicalVariable, Mutable<ILogicalOperator>> p = translateWindowKey(partitionExpr, currentOpRef);
+            partitionExprs.add(new MutableObject<>(createVariableReference(p.first, partitionExpr)));
+            currentOpRef = p.second;
+        }
+        List<Pair<IOrder, Mutable<ILogicalExpression>>> orderExprs = new ArrayList<>();
+        List<Mutable<ILogicalExpression>> orderVarRefs = new ArrayList<>();
+        List<Expression> orderbyList = winExpr.getOrderbyList();
+        for (int i = 0; i < orderbyList.size(); i++) {
+            Expression orderExpr = orderbyList.get(i);
+            Pair<LogicalVariable, Mutable<ILogicalOperator>> p = translateWindowKey(orderExpr, currentOpRef);
+            IOrder order = winExpr.getOrderbyModifierList().get(i) == OrderbyClause.OrderModifier.ASC
+                    ? OrderOperator.ASC_ORDER : OrderOperator.DESC_ORDER;
+            orderExprs.add(new Pair<>(order, new MutableObject<>(createVariableReference(p.first, orderExpr))));
+            orderVarRefs.add(new MutableObject<>(createVariableReference(p.first, orderExpr)));
+            currentOpRef = p.second;
+        }
+
+        List<Mutable<ILogicalExpression>> args = new ArrayList<>();
+        for (Expression argExpr : winExpr.getExprList()) {
+            Pair<ILogicalExpression, Mutable<ILogicalOperator>> p = langExprToAlgExpression(argExpr, currentOpRef);
+            args.add(new MutableObject<>(p.first));
+            currentOpRef = p.second;
+        }
+        AbstractFunctionCallExpression winFuncExpr =
+                createWindowFunctionCall(winExpr.getFunctionSignature(), args, orderVarRefs, sourceLoc);
+
+        LogicalVariable winVar = context.newVar();
+        WindowOperator winOp = new WindowOperator(partitionExprs, orderExprs, winExpr.isRangeFrame(),
+                toWindowFrameOffset(winExpr.getFrameStartOffset()), toWindowFrameOffset(winExpr.getFrameEndOffset()),
+                mkSingletonArrayList(winVar), mkSingletonArrayList(new MutableObject<>(winFuncExpr)));
+        winOp.getInputs().add(currentOpRef);
+        winOp.setSourceLocation(sourceLoc);
+
+        // Exposes the window function result through an assign, like any other expression that needs no nesting.
+        LogicalVariable resultVar = context.newVar();
+        AssignOperator assignOp = new AssignOperator(resultVar,
+                new MutableObject<>(createVariableReference(winVar, winExpr)));
+        assignOp.getInputs().add(new MutableObject<>(winOp));
+        assignOp.setSourceLocation(sourceLoc);
+        return new Pair<>(assignOp, resultVar);
+    }
+
+    private Pair<LogicalVariable, Mutable<ILogicalOperator>> translateWindowKey(Expression keyExpr,
+            Mutable<ILogicalOperator> opRef) throws CompilationException {
+        Pair<ILogicalExpression, Mutable<ILogicalOperator>> p = langExprToAlgExpression(keyExpr, opRef);
+        if (p.first.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            return new Pair<>(((VariableReferenceExpression) p.first).getVariableReference(), p.second);
+        }
+        LogicalVariable keyVar = context.newVar();
+        AssignOperator assignOp = new AssignOperator(keyVar, new MutableObject<>(p.first));
+        assignOp.getInputs().add(p.second);
+        assignOp.setSourceLocation(keyExpr.getSourceLocation());
+        return new Pair<>(keyVar, new MutableObject<>(assignOp));
+    }
+
+    private static VariableReferenceExpression createVariableReference(LogicalVariable var, Expression langExpr) {
+        VariableReferenceExpression varRef = new VariableReferenceExpression(var);
+        varRef.setSourceLocation(langExpr.getSourceLocation());
+        return varRef;
+    }
+
+    private AbstractFunctionCallExpression createWindowFunctionCall(FunctionSignature signature,
+            List<Mutable<ILogicalExpression>> args, List<Mutable<ILogicalExpression>> orderVarRefs,
+            SourceLocation sourceLoc) throws CompilationException {
+        String name = signature.getName().toLowerCase();
+        AbstractFunctionCallExpression f;
+        if (FunctionMapUtil.isSql92AggregateFunction(signature)) {
+            // Window aggregates follow SQL semantics, i.e., they ignore nulls and missings.
+            FunctionIdentifier scalarFi = new FunctionIdentifier(FunctionConstants.ASTERIX_NS,
+                    SQL_AGGREGATE_PREFIX + name, signature.getArity());
+            FunctionIdentifier aggFi = BuiltinFunctions.getAggregateFunction(scalarFi);
+            if (aggFi == null) {
+                throw new CompilationException(ErrorCode.COMPILATION_ERROR, sourceLoc,
+                        signature.getName() + " cannot be used as a window function");
+            }
+            f = BuiltinFunctions.makeAggregateFunctionExpression(aggFi, args);
+        } else if (name.equals(BuiltinFunctions.ROW_NUMBER.getName())) {
+            checkNoWindowFunctionArguments(signature, args, sourceLoc);
+            f = new StatefulFunctionCallExpression(FunctionUtil.getFunctionInfo(BuiltinFunctions.ROW_NUMBER),
+                    UnpartitionedPropertyComputer.INSTANCE);
+        } else if (name.equals(BuiltinFunctions.RANK.getName())
+                || name.equals(BuiltinFunctions.DENSE_RANK.getName())) {
+            checkNoWindowFunctionArguments(signature, args, sourceLoc);
+            // Ranking functions compare the ORDER BY keys of consecutive rows to find peers.
+            FunctionIdentifier fi =
+                    name.equals(BuiltinFunctions.RANK.getName()) ? BuiltinFunctions.RANK : BuiltinFunctions.DENSE_RANK;
+            f = new StatefulFunctionCallExpression(FunctionUtil.getFunctionInfo(fi),
+                    UnpartitionedPropertyComputer.INSTANCE, orderVarRefs);
+        } else {
+            throw new CompilationException(ErrorCode.COMPILATION_ERROR, sourceLoc,
+                    signature.getName() + " is not a window function");
+        }
+        f.setSourceLocation(sourceLoc);
+        return f;
+    }
+
+    private static void checkNoWindowFunctionArguments(FunctionSignature signature,
+            List<Mutable<ILogicalExpression>> args, SourceLocation sourceLoc) throws CompilationException {
+        if (!args.isEmpty()) {
+            throw new CompilationException(ErrorCode.COMPILATION_ERROR, sourceLoc,
+                    signature.getName() + " does not take arguments");
+        }
+    }
+
+    private static int toWindowFrameOffset(int offset) {
+        if (offset == WindowExpression.UNBOUNDED_PRECEDING) {
+            return WindowOperator.UNBOUNDED_PRECEDING;
+        } else if (offset == WindowExpression.UNBOUNDED_FOLLOWING) {
+            return WindowOperator.UNBOUNDED_FOLLOWING;
+        }
+        return offset;
+    }
+
     @Override
     protected ILogicalExpression translateVariableRef(VariableExpr varExpr) throws CompilationException {
         VarIdentifier varId = varExpr.getVar();
@@ -639,12 +774,16 @@ class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTranslator imp
                 throw new CompilationException(ErrorCode.COMPILATION_ILLEGAL_STATE, sourceLoc, varId.toString());
             }
 
+            IAType valueType = value.getType();
+            if (metadataProvider.isBindParametersAtRuntime()) {
+                return translateRuntimeParameterRef(varId, valueType, sourceLoc);
+            }
+
             ILogicalExpression resultExpr;
             ConstantExpression constExpr = new ConstantExpression(new AsterixConstantValue(value));
             constExpr.setSourceLocation(sourceLoc);
             resultExpr = constExpr;
 
-            IAType valueType = value.getType();
             if (valueType.getTypeTag().isDerivedType()) {
                 ScalarFunctionCallExpression castExpr =
                         new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(BuiltinFunctions.CAST_TYPE));
@@ -661,6 +800,26 @@ class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTranslator imp
         return super.translateVariableRef(varExpr);
     }
 
+    /**
+     * Translates a reference to a statement parameter into an expression that reads the parameter value from the job
+     * parameters, and types it with the type of the value that the statement is compiled for.
+     */
+    private ILogicalExpression translateRuntimeParameterRef(VarIdentifier varId, IAType valueType,
+            SourceLocation sourceLoc) throws CompilationException {
+        ConstantExpression nameExpr =
+                new ConstantExpression(new AsterixConstantValue(new AString(varId.getValue())));
+        nameExpr.setSourceLocation(sourceLoc);
+        ScalarFunctionCallExpression paramExpr = new ScalarFunctionCallExpression(
+                FunctionUtil.getFunctionInfo(BuiltinFunctions.GET_JOB_PARAMETER), new MutableObject<>(nameExpr));
+        paramExpr.setSourceLocation(sourceLoc);
+        ScalarFunctionCallExpression castExpr =
+                new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(BuiltinFunctions.CAST_TYPE));
+        castExpr.setSourceLocation(sourceLoc);
+        castExpr.getArguments().add(new MutableObject<>(paramExpr));
+        TypeCastUtils.setRequiredAndInputTypes(castExpr, valueType, BuiltinType.ANY);
+        return castExpr;
+    }
+
     private Pair<ILogicalOperator, LogicalVariable> produceSelectPlan(boolean isSubquery,
             Mutable<ILogicalOperator> returnOpRef, LogicalVariable resVar) {
         if (isSubquery) {
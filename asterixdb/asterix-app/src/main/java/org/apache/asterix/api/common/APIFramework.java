@@ -109,6 +109,7 @@ import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.api.job.resource.IClusterCapacity;
+import org.apache.hyracks.api.job.resource.WorkloadClass;
 import org.apache.hyracks.control.common.config.OptionTypes;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -126,17 +127,21 @@ public class APIFramework {
     private static final int MIN_FRAME_LIMIT_FOR_JOIN = 5;
     // one for query, two for intermediate results, one for final result, and one for reading an inverted list
     private static final int MIN_FRAME_LIMIT_FOR_TEXTSEARCH = 5;
+    // one for appending a partition, one for spilling it, and two for reading it back
+    private static final int MIN_FRAME_LIMIT_FOR_WINDOW = 5;
     private static final ObjectWriter OBJECT_WRITER = new ObjectMapper().writerWithDefaultPrettyPrinter();
 
     // A white list of supported configurable parameters.
     private static final Set<String> CONFIGURABLE_PARAMETER_NAMES =
             ImmutableSet.of(CompilerProperties.COMPILER_JOINMEMORY_KEY, CompilerProperties.COMPILER_GROUPMEMORY_KEY,
                     CompilerProperties.COMPILER_SORTMEMORY_KEY, CompilerProperties.COMPILER_TEXTSEARCHMEMORY_KEY,
-                    CompilerProperties.COMPILER_PARALLELISM_KEY, FunctionUtil.IMPORT_PRIVATE_FUNCTIONS,
+                    CompilerProperties.COMPILER_WINDOWMEMORY_KEY, CompilerProperties.COMPILER_PARALLELISM_KEY,
+                    CompilerProperties.COMPILER_SORT_PARALLEL_KEY, CompilerProperties.COMPILER_SORT_SAMPLES_KEY,
+                    CompilerProperties.COMPILER_SORTMERGEJOIN_KEY, FunctionUtil.IMPORT_PRIVATE_FUNCTIONS,
                     FuzzyUtils.SIM_FUNCTION_PROP_NAME, FuzzyUtils.SIM_THRESHOLD_PROP_NAME,
                     StartFeedStatement.WAIT_FOR_COMPLETION, FeedActivityDetails.FEED_POLICY_NAME,
                     FeedActivityDetails.COLLECT_LOCATIONS, "inline_with", "hash_merge", "output-record-type",
-                    AbstractIntroduceAccessMethodRule.NO_INDEX_ONLY_PLAN_OPTION);
+                    AbstractIntroduceAccessMethodRule.NO_INDEX_ONLY_PLAN_OPTION, WorkloadClass.JOB_PROPERTY);
 
     private final IRewriterFactory rewriterFactory;
     private final IAstPrintVisitorFactory astPrintVisitorFactory;
@@ -220,6 +225,8 @@ public class APIFramework {
         Map<String, String> querySpecificConfig = validateConfig(metadataProvider.getConfig(), sourceLoc);
         final PhysicalOptimizationConfig physOptConf =
                 getPhysicalOptimizationConfig(compilerProperties, querySpecificConfig, sourceLoc);
+        final WorkloadClass workloadClass =
+                getWorkloadClass(querySpecificConfig.get(WorkloadClass.JOB_PROPERTY), sourceLoc);
 
         HeuristicCompilerFactoryBuilder builder =
                 new HeuristicCompilerFactoryBuilder(OptimizationContextFactory.INSTANCE);
@@ -289,6 +296,9 @@ public class APIFramework {
         JobEventListenerFactory jobEventListenerFactory =
                 new JobEventListenerFactory(txnId, metadataProvider.isWriteTransaction());
         JobSpecification spec = compiler.createJob(metadataProvider.getApplicationContext(), jobEventListenerFactory);
+        if (workloadClass != null) {
+            spec.setProperty(WorkloadClass.JOB_PROPERTY, workloadClass);
+        }
 
         if (isQuery) {
             // Sets a required capacity, only for read-only queries.
@@ -322,12 +332,24 @@ public class APIFramework {
         int textSearchFrameLimit = getFrameLimit(CompilerProperties.COMPILER_TEXTSEARCHMEMORY_KEY,
                 querySpecificConfig.get(CompilerProperties.COMPILER_TEXTSEARCHMEMORY_KEY),
                 compilerProperties.getTextSearchMemorySize(), frameSize, MIN_FRAME_LIMIT_FOR_TEXTSEARCH, sourceLoc);
+        int windowFrameLimit = getFrameLimit(CompilerProperties.COMPILER_WINDOWMEMORY_KEY,
+                querySpecificConfig.get(CompilerProperties.COMPILER_WINDOWMEMORY_KEY),
+                compilerProperties.getWindowMemorySize(), frameSize, MIN_FRAME_LIMIT_FOR_WINDOW, sourceLoc);
         final PhysicalOptimizationConfig physOptConf = OptimizationConfUtil.getPhysicalOptimizationConfig();
         physOptConf.setFrameSize(frameSize);
         physOptConf.setMaxFramesExternalSort(sortFrameLimit);
         physOptConf.setMaxFramesExternalGroupBy(groupFrameLimit);
         physOptConf.setMaxFramesForJoin(joinFrameLimit);
         physOptConf.setMaxFramesForTextSearch(textSearchFrameLimit);
+        physOptConf.setMaxFramesForWindow(windowFrameLimit);
+        String sortParallel = querySpecificConfig.get(CompilerProperties.COMPILER_SORT_PARALLEL_KEY);
+        physOptConf.setSortParallel(
+                sortParallel == null ? compilerProperties.getSortParallel() : OptionTypes.BOOLEAN.parse(sortParallel));
+        physOptConf.setSortSamples(getSortSamples(querySpecificConfig.get(CompilerProperties.COMPILER_SORT_SAMPLES_KEY),
+                compilerProperties.getSortSamples(), sourceLoc));
+        String sortMergeJoin = querySpecificConfig.get(CompilerProperties.COMPILER_SORTMERGEJOIN_KEY);
+        physOptConf.setSortMergeJoin(sortMergeJoin == null ? compilerProperties.getSortMergeJoin()
+                : OptionTypes.BOOLEAN.parse(sortMergeJoin));
 
         return physOptConf;
     }
@@ -343,6 +365,9 @@ public class APIFramework {
                 return format.getADMPrinterFactoryProvider();
             case CLEAN_JSON:
                 return format.getCleanJSONPrinterFactoryProvider();
+            case ARROW:
+                // the columnar encoding is produced from the serialized values when the results are printed
+                return format.getSelfDescribingPrinterFactoryProvider();
             default:
                 throw new AlgebricksException("Unexpected OutputFormat: " + outputFormat);
         }
@@ -481,6 +506,33 @@ public class APIFramework {
         return parameter == null ? parallelismInConfiguration : integerIPropertyInterpreter.parse(parameter);
     }
 
+    // Gets the workload class that the job of a query is labeled with.
+    private static WorkloadClass getWorkloadClass(String parameter, SourceLocation sourceLoc)
+            throws AlgebricksException {
+        try {
+            return parameter == null ? null : WorkloadClass.parse(parameter);
+        } catch (IllegalArgumentException e) {
+            throw AsterixException.create(ErrorCode.COMPILATION_ERROR, sourceLoc,
+                    "Invalid query parameter " + WorkloadClass.JOB_PROPERTY + " -- " + e.getMessage());
+        }
+    }
+
+    // Gets the number of samples per partition for a parallel sort.
+    private static int getSortSamples(String parameter, int samplesInConfiguration, SourceLocation sourceLoc)
+            throws AlgebricksException {
+        int samples;
+        try {
+            samples = parameter == null ? samplesInConfiguration : OptionTypes.INTEGER.parse(parameter);
+        } catch (IllegalArgumentException e) {
+            throw AsterixException.create(ErrorCode.COMPILATION_ERROR, sourceLoc, e.getMessage());
+        }
+        if (samples < 1) {
+            throw AsterixException.create(ErrorCode.COMPILATION_ERROR, sourceLoc, "Invalid query parameter "
+                    + CompilerProperties.COMPILER_SORT_SAMPLES_KEY + " -- value has to be greater than or equal to 1");
+        }
+        return samples;
+    }
+
     // Validates if the query contains unsupported query parameters.
     private static Map<String, String> validateConfig(Map<String, String> config, SourceLocation sourceLoc)
             throws AlgebricksException {
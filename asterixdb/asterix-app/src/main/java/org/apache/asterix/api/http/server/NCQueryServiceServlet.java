@@ -134,6 +134,7 @@ public class NCQueryServiceServlet extends QueryServiceServlet {
         } else {
             sessionOutput.out().append(responseMsg.getResult());
         }
+        stats.setJobProfile(responseMsg.getStats().getJobProfile());
         printExecutionPlans(sessionOutput, responseMsg.getExecutionPlans());
     }
 
@@ -63,6 +63,7 @@ import org.apache.asterix.translator.SessionOutput;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.api.application.IServiceContext;
 import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.resource.WorkloadClass;
 import org.apache.hyracks.control.common.controllers.CCConfig;
 import org.apache.hyracks.http.api.IServletRequest;
 import org.apache.hyracks.http.api.IServletResponse;
@@ -154,7 +155,9 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
         LOGICAL_PLAN("logical-plan"),
         OPTIMIZED_LOGICAL_PLAN("optimized-logical-plan"),
         JOB("job"),
-        SIGNATURE("signature");
+        SIGNATURE("signature"),
+        PROFILE("profile"),
+        WORKLOAD_CLASS("workload-class");
 
         private final String str;
 
@@ -219,6 +222,8 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
         boolean optimizedLogicalPlan;
         boolean job;
         boolean signature;
+        boolean profile;
+        String workloadClass;
 
         @Override
         public String toString() {
@@ -241,6 +246,8 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
                 on.put("optimizedLogicalPlan", optimizedLogicalPlan);
                 on.put("job", job);
                 on.put("signature", signature);
+                on.put("profile", profile);
+                on.put("workloadClass", workloadClass);
                 if (statementParams != null) {
                     for (Map.Entry<String, JsonNode> statementParam : statementParams.entrySet()) {
                         on.set('$' + statementParam.getKey(), statementParam.getValue());
@@ -324,6 +331,10 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
             if (format.equals(HttpUtil.ContentType.APPLICATION_ADM)) {
                 return SessionConfig.OutputFormat.ADM;
             }
+            if (format.equals(HttpUtil.ContentType.APPLICATION_ARROW_STREAM)
+                    || format.equals(HttpUtil.ContentType.ARROW)) {
+                return SessionConfig.OutputFormat.ARROW;
+            }
             if (isJsonFormat(format)) {
                 return Boolean.parseBoolean(getParameterValue(format, Attribute.LOSSLESS.str()))
                         ? SessionConfig.OutputFormat.LOSSLESS_JSON : SessionConfig.OutputFormat.CLEAN_JSON;
@@ -349,6 +360,7 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
         sessionConfig.set(SessionConfig.OOB_LOGICAL_PLAN, param.logicalPlan);
         sessionConfig.set(SessionConfig.OOB_OPTIMIZED_LOGICAL_PLAN, param.optimizedLogicalPlan);
         sessionConfig.set(SessionConfig.OOB_HYRACKS_JOB, param.job);
+        sessionConfig.set(SessionConfig.OOB_PROFILE, param.profile);
         sessionConfig.set(SessionConfig.FORMAT_INDENT_JSON, param.pretty);
         sessionConfig.set(SessionConfig.FORMAT_QUOTE_RECORD,
                 format != SessionConfig.OutputFormat.CLEAN_JSON && format != SessionConfig.OutputFormat.LOSSLESS_JSON);
@@ -384,11 +396,26 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
                         + (sessionConfig.is(SessionConfig.FORMAT_CSV_HEADER) ? "present" : "absent");
                 ResultUtil.printField(pw, ResultFields.TYPE.str(), contentType);
                 break;
+            case ARROW:
+                // the results are Arrow IPC streams, each one base64 encoded into a JSON string
+                ResultUtil.printField(pw, ResultFields.TYPE.str(),
+                        HttpUtil.ContentType.APPLICATION_ARROW_STREAM + "; encoding=base64");
+                break;
             default:
                 break;
         }
     }
 
+    private static void printProfile(PrintWriter pw, Stats stats) {
+        if (stats.getJobProfile() != null) {
+            pw.print("\t\"");
+            pw.print(ResultFields.PROFILE.str());
+            pw.print("\": ");
+            pw.print(stats.getJobProfile());
+            pw.print(",\n");
+        }
+    }
+
     private static void printMetrics(PrintWriter pw, long elapsedTime, long executionTime, long resultCount,
             long resultSize, long processedObjects, long errorCount) {
         boolean hasErrors = errorCount != 0;
@@ -480,6 +507,8 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
                 param.optimizedLogicalPlan = getOptBoolean(jsonRequest, Parameter.OPTIMIZED_LOGICAL_PLAN.str(), false);
                 param.job = getOptBoolean(jsonRequest, Parameter.JOB.str(), false);
                 param.signature = getOptBoolean(jsonRequest, Parameter.SIGNATURE.str(), true);
+                param.profile = getOptBoolean(jsonRequest, Parameter.PROFILE.str(), false);
+                param.workloadClass = getOptText(jsonRequest, Parameter.WORKLOAD_CLASS.str());
                 param.statementParams =
                         getOptStatementParameters(jsonRequest, jsonRequest.fieldNames(), JsonNode::get, v -> v);
             } catch (JsonParseException | JsonMappingException e) {
@@ -498,6 +527,8 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
             param.timeout = request.getParameter(Parameter.TIMEOUT.str());
             param.maxResultReads = request.getParameter(Parameter.MAX_RESULT_READS.str());
             param.planFormat = request.getParameter(Parameter.PLAN_FORMAT.str());
+            param.profile = Boolean.parseBoolean(request.getParameter(Parameter.PROFILE.str()));
+            param.workloadClass = request.getParameter(Parameter.WORKLOAD_CLASS.str());
             try {
                 param.statementParams = getOptStatementParameters(request, request.getParameterNames().iterator(),
                         IServletRequest::getParameter, OBJECT_MAPPER::readTree);
@@ -583,6 +614,11 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
             if (optionalParamProvider != null) {
                 optionalParams = optionalParamProvider.apply(request);
             }
+            if (param.workloadClass != null) {
+                // the workload class is validated and attached to the jobs of the request by the compiler
+                optionalParams = optionalParams == null ? new HashMap<>() : new HashMap<>(optionalParams);
+                optionalParams.put(WorkloadClass.JOB_PROPERTY, param.workloadClass);
+            }
             Map<String, byte[]> statementParams =
                     org.apache.asterix.app.translator.RequestParameters.serializeParameterValues(param.statementParams);
             // CORS
@@ -595,6 +631,7 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
             if (ResultDelivery.IMMEDIATE == delivery || ResultDelivery.DEFERRED == delivery) {
                 ResultUtil.printStatus(sessionOutput, execution.getResultStatus());
             }
+            printProfile(sessionOutput.out(), stats);
             errorCount = 0;
         } catch (Exception | TokenMgrError | org.apache.asterix.aqlplus.parser.TokenMgrError e) {
             handleExecuteStatementException(e, execution, param);
@@ -634,7 +671,7 @@ public class QueryServiceServlet extends AbstractQueryApiServlet {
                 org.apache.asterix.app.translator.RequestParameters.deserializeParameterValues(statementParameters);
         IRequestParameters requestParameters =
                 new org.apache.asterix.app.translator.RequestParameters(getHyracksDataset(), resultProperties, stats,
-                        null, param.clientContextID, optionalParameters, stmtParams);
+                        null, param.clientContextID, optionalParameters, stmtParams, statementsText);
         translator.compileAndExecute(getHyracksClientConnection(), queryCtx, requestParameters);
         execution.end();
         printExecutionPlans(sessionOutput, translator.getExecutionPlans());
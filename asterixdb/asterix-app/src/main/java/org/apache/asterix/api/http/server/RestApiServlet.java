@@ -101,6 +101,8 @@ public abstract class RestApiServlet extends AbstractServlet {
                 format = OutputFormat.CSV;
             } else if ("ADM".equals(output)) {
                 format = OutputFormat.ADM;
+            } else if ("ARROW".equals(output)) {
+                format = OutputFormat.ARROW;
             }
         } else {
             // Second check the Accept: HTTP header.
@@ -108,6 +110,8 @@ public abstract class RestApiServlet extends AbstractServlet {
                 format = OutputFormat.ADM;
             } else if (accept.contains("text/csv")) {
                 format = OutputFormat.CSV;
+            } else if (accept.contains(HttpUtil.ContentType.APPLICATION_ARROW_STREAM)) {
+                format = OutputFormat.ARROW;
             }
         }
         PlanFormat planFormat =
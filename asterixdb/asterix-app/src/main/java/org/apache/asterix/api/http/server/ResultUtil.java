@@ -82,6 +82,14 @@ public class ResultUtil {
         new ResultPrinter(appCtx, output, stats, recordType).print(resultReader);
     }
 
+    /**
+     * Prints the result of a job that is still running, see {@link ResultPrinter#stream(ResultReader)}.
+     */
+    public static void streamResults(IApplicationContext appCtx, ResultReader resultReader, SessionOutput output,
+            Stats stats, ARecordType recordType) throws HyracksDataException {
+        new ResultPrinter(appCtx, output, stats, recordType).stream(resultReader);
+    }
+
     public static void printResults(IApplicationContext appCtx, String record, SessionOutput output, Stats stats,
             ARecordType recordType) throws HyracksDataException {
         new ResultPrinter(appCtx, output, stats, recordType).print(record);
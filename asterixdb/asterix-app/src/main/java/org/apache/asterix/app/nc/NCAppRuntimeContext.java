@@ -28,6 +28,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.stream.Collectors;
 
 import org.apache.asterix.active.ActiveManager;
@@ -58,6 +59,7 @@ import org.apache.asterix.common.replication.IReplicationChannel;
 import org.apache.asterix.common.replication.IReplicationManager;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
 import org.apache.asterix.common.storage.IReplicaManager;
+import org.apache.asterix.common.storage.IStatisticsReporter;
 import org.apache.asterix.common.transactions.IRecoveryManager;
 import org.apache.asterix.common.transactions.IRecoveryManager.SystemState;
 import org.apache.asterix.common.transactions.IRecoveryManagerFactory;
@@ -71,6 +73,7 @@ import org.apache.asterix.metadata.api.IMetadataNode;
 import org.apache.asterix.metadata.bootstrap.MetadataBootstrap;
 import org.apache.asterix.replication.management.ReplicationChannel;
 import org.apache.asterix.replication.management.ReplicationManager;
+import org.apache.asterix.runtime.message.ReportStatisticsMessage;
 import org.apache.asterix.runtime.transaction.GlobalResourceIdFactoryProvider;
 import org.apache.asterix.runtime.utils.NoOpCoordinationService;
 import org.apache.asterix.transaction.management.resource.PersistentLocalResourceRepository;
@@ -81,6 +84,7 @@ import org.apache.hyracks.api.client.HyracksConnection;
 import org.apache.hyracks.api.client.IHyracksClientConnection;
 import org.apache.hyracks.api.control.CcId;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IBufferCacheCounters;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
@@ -89,6 +93,7 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.AsynchronousScheduler;
 import org.apache.hyracks.storage.am.lsm.common.impls.PrefixMergePolicyFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.PrioritizedScheduler;
 import org.apache.hyracks.storage.common.ILocalResourceRepository;
 import org.apache.hyracks.storage.common.buffercache.BufferCache;
 import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
@@ -98,6 +103,9 @@ import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICacheMemoryAllocator;
 import org.apache.hyracks.storage.common.buffercache.IPageCleanerPolicy;
 import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.IPageWriteThrottle;
+import org.apache.hyracks.storage.common.buffercache.TokenBucketPageWriteThrottle;
+import org.apache.hyracks.storage.common.buffercache.TwoQueueClockPageReplacementStrategy;
 import org.apache.hyracks.storage.common.file.FileMapManager;
 import org.apache.hyracks.storage.common.file.ILocalResourceRepositoryFactory;
 import org.apache.hyracks.storage.common.file.IResourceIdFactory;
@@ -141,6 +149,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
     private IHyracksClientConnection hcc;
     private IIndexCheckpointManagerProvider indexCheckpointManagerProvider;
     private IReplicaManager replicaManager;
+    private final IStatisticsReporter statisticsReporter;
 
     public NCAppRuntimeContext(INCServiceContext ncServiceContext, List<AsterixExtension> extensions,
             IPropertiesFactory propertiesFactory) throws AsterixException, InstantiationException,
@@ -166,6 +175,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         ncExtensionManager = new NCExtensionManager(allExtensions);
         componentProvider = new StorageComponentProvider();
         resourceIdFactory = new GlobalResourceIdFactoryProvider(ncServiceContext).createResourceIdFactory();
+        statisticsReporter = ReportStatisticsMessage.createReporter(ncServiceContext);
     }
 
     @Override
@@ -175,9 +185,8 @@ public class NCAppRuntimeContext implements INcApplicationContext {
                 MaintainedThreadNameExecutorService.newCachedThreadPool(getServiceContext().getThreadFactory());
         ICacheMemoryAllocator allocator = new HeapBufferAllocator();
         IPageCleanerPolicy pcp = new DelayPageCleanerPolicy(600000);
-        IPageReplacementStrategy prs = new ClockPageReplacementStrategy(allocator,
-                storageProperties.getBufferCachePageSize(), storageProperties.getBufferCacheNumPages());
-        lsmIOScheduler = new AsynchronousScheduler(getServiceContext().getThreadFactory(), HaltCallback.INSTANCE);
+        IPageReplacementStrategy prs = createPageReplacementStrategy(allocator);
+        lsmIOScheduler = createIoScheduler();
         metadataMergePolicyFactory = new PrefixMergePolicyFactory();
         indexCheckpointManagerProvider = new IndexCheckpointManagerProvider(ioManager);
         ILocalResourceRepositoryFactory persistentLocalResourceRepositoryFactory =
@@ -236,6 +245,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
          */
         ILifeCycleComponentManager lccm = getServiceContext().getLifeCycleComponentManager();
         lccm.register((ILifeCycleComponent) bufferCache);
+        getServiceContext().setBufferCacheCounters((IBufferCacheCounters) bufferCache);
         /*
          * LogManager must be stopped after RecoveryManager, DatasetLifeCycleManager, and ReplicationManager
          * to process any logs that might be generated during stopping these components
@@ -258,6 +268,38 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         lccm.register(txnSubsystem.getCheckpointManager());
     }
 
+    private IPageReplacementStrategy createPageReplacementStrategy(ICacheMemoryAllocator allocator) {
+        String policy = storageProperties.getBufferCacheReplacementPolicy();
+        int pageSize = storageProperties.getBufferCachePageSize();
+        int numPages = storageProperties.getBufferCacheNumPages();
+        switch (policy) {
+            case StorageProperties.BUFFER_CACHE_REPLACEMENT_POLICY_CLOCK:
+                return new ClockPageReplacementStrategy(allocator, pageSize, numPages);
+            case StorageProperties.BUFFER_CACHE_REPLACEMENT_POLICY_2Q:
+                return new TwoQueueClockPageReplacementStrategy(allocator, pageSize, numPages);
+            default:
+                throw new IllegalStateException("Unknown buffer cache replacement policy: " + policy);
+        }
+    }
+
+    private ILSMIOOperationScheduler createIoScheduler() {
+        String scheduler = storageProperties.getIoScheduler();
+        ThreadFactory threadFactory = getServiceContext().getThreadFactory();
+        switch (scheduler) {
+            case StorageProperties.IO_SCHEDULER_ASYNC:
+                return new AsynchronousScheduler(threadFactory, HaltCallback.INSTANCE);
+            case StorageProperties.IO_SCHEDULER_PRIORITIZED:
+                long mergeWriteRate = storageProperties.getIoMergeWriteRate();
+                IPageWriteThrottle mergeThrottle = mergeWriteRate > 0 ? new TokenBucketPageWriteThrottle(mergeWriteRate,
+                        Math.max(mergeWriteRate, storageProperties.getBufferCachePageSize())) : null;
+                return new PrioritizedScheduler(threadFactory, HaltCallback.INSTANCE,
+                        storageProperties.getIoMaxRunningOperations(), storageProperties.getIoMaxRunningMerges(),
+                        mergeThrottle);
+            default:
+                throw new IllegalStateException("Unknown IO scheduler: " + scheduler);
+        }
+    }
+
     @Override
     public boolean isShuttingdown() {
         return isShuttingdown;
@@ -489,6 +531,11 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         return replicaManager;
     }
 
+    @Override
+    public IStatisticsReporter getStatisticsReporter() {
+        return statisticsReporter;
+    }
+
     @Override
     public IIndexCheckpointManagerProvider getIndexCheckpointManagerProvider() {
         return indexCheckpointManagerProvider;
@@ -35,15 +35,17 @@ public class OperatorResourcesComputer {
     private final long joinMemorySize;
     private final long sortMemorySize;
     private final long textSearchMemorySize;
+    private final long windowMemorySize;
     private final long frameSize;
 
     public OperatorResourcesComputer(int numComputationPartitions, int sortFrameLimit, int groupFrameLimit,
-            int joinFrameLimit, int textSearchFrameLimit, long frameSize) {
+            int joinFrameLimit, int textSearchFrameLimit, int windowFrameLimit, long frameSize) {
         this.numComputationPartitions = numComputationPartitions;
         this.groupByMemorySize = groupFrameLimit * frameSize;
         this.joinMemorySize = joinFrameLimit * frameSize;
         this.sortMemorySize = sortFrameLimit * frameSize;
         this.textSearchMemorySize = textSearchFrameLimit * frameSize;
+        this.windowMemorySize = windowFrameLimit * frameSize;
         this.frameSize = frameSize;
     }
 
@@ -65,6 +67,7 @@ public class OperatorResourcesComputer {
             case EMPTYTUPLESOURCE:
             case DELEGATE_OPERATOR:
             case EXTERNAL_LOOKUP:
+            case FORWARD:
             case LIMIT:
             case MATERIALIZE:
             case NESTEDTUPLESOURCE:
@@ -102,6 +105,8 @@ public class OperatorResourcesComputer {
                 return getOperatorRequiredMemory(operator, groupByMemorySize);
             case ORDER:
                 return getOperatorRequiredMemory(operator, sortMemorySize);
+            case WINDOW:
+                return getOperatorRequiredMemory(operator, windowMemorySize);
             case INNERJOIN:
             case LEFTOUTERJOIN:
                 return getOperatorRequiredMemory(operator, joinMemorySize);
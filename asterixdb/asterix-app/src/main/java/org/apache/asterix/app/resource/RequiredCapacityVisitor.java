@@ -36,6 +36,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistributeResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ExchangeOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ForwardOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.GroupByOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.IndexInsertDeleteUpsertOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
@@ -60,6 +61,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.TokenizeOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnionAllOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalOperatorVisitor;
@@ -75,18 +77,20 @@ public class RequiredCapacityVisitor implements ILogicalOperatorVisitor<Void, Vo
     private final long groupByMemorySize;
     private final long joinMemorySize;
     private final long sortMemorySize;
+    private final long windowMemorySize;
     private final long frameSize;
     private final IClusterCapacity clusterCapacity;
     private final Set<ILogicalOperator> visitedOperators = new HashSet<>();
     private long stageMemorySoFar = 0L;
 
     public RequiredCapacityVisitor(int numComputationPartitions, int sortFrameLimit, int groupFrameLimit,
-            int joinFrameLimit, int frameSize, IClusterCapacity clusterCapacity) {
+            int joinFrameLimit, int windowFrameLimit, int frameSize, IClusterCapacity clusterCapacity) {
         this.numComputationPartitions = numComputationPartitions;
         this.frameSize = frameSize;
         this.groupByMemorySize = groupFrameLimit * (long) frameSize;
         this.joinMemorySize = joinFrameLimit * (long) frameSize;
         this.sortMemorySize = sortFrameLimit * (long) frameSize;
+        this.windowMemorySize = windowFrameLimit * (long) frameSize;
         this.clusterCapacity = clusterCapacity;
         this.clusterCapacity.setAggregatedCores(1); // At least one core is needed.
     }
@@ -225,6 +229,12 @@ public class RequiredCapacityVisitor implements ILogicalOperatorVisitor<Void, Vo
         return null;
     }
 
+    @Override
+    public Void visitWindowOperator(WindowOperator op, Void arg) throws AlgebricksException {
+        calculateMemoryUsageForBlockingOperators(op, windowMemorySize);
+        return null;
+    }
+
     @Override
     public Void visitUnnestOperator(UnnestOperator op, Void arg) throws AlgebricksException {
         visitInternal(op, true);
@@ -267,6 +277,13 @@ public class RequiredCapacityVisitor implements ILogicalOperatorVisitor<Void, Vo
         return null;
     }
 
+    @Override
+    public Void visitForwardOperator(ForwardOperator op, Void arg) throws AlgebricksException {
+        // The forward operator materializes its input while the range map is being computed.
+        visitInternal(op, true);
+        return null;
+    }
+
     @Override
     public Void visitWriteOperator(WriteOperator op, Void arg) throws AlgebricksException {
         visitInternal(op, true);
@@ -0,0 +1,562 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.result;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.app.result.ArrowStreamEncoder.FieldType;
+import org.apache.asterix.app.result.ArrowStreamEncoder.Output;
+import org.apache.asterix.dataflow.data.nontagged.serde.ABooleanSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.ADateSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.ADateTimeSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.ADoubleSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AFloatSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt16SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt32SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt64SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.ATimeSerializerDeserializer;
+import org.apache.asterix.om.pointables.ARecordVisitablePointable;
+import org.apache.asterix.om.pointables.PointableAllocator;
+import org.apache.asterix.om.pointables.base.DefaultOpenFieldType;
+import org.apache.asterix.om.pointables.base.IVisitablePointable;
+import org.apache.asterix.om.pointables.printer.json.clean.APrintVisitor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.EnumDeserializer;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.data.std.util.ByteArrayAccessibleOutputStream;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+
+/**
+ * Converts a sequence of self-describing serialized ADM values (see
+ * {@link org.apache.asterix.formats.nontagged.SelfDescribingPrinterFactoryProvider}) into Apache Arrow IPC streams.
+ * <p>
+ * Values are collected into batches. Objects become rows with one column per field, any other value becomes a row
+ * with a single column named {@value #VALUE_COLUMN}. The type of a column is derived from the values of the first
+ * batch that contains it: integers are widened to int64, mixed numbers to float64, strings, binaries, dates, times
+ * and datetimes keep their type and everything else (nested values, mixed types, spatial types, ...) is rendered as
+ * JSON text. Following batches are appended to the same stream as long as their values fit into its schema. When they
+ * do not, the stream is ended and a new one with a new schema is started, so a heterogeneous result can turn into
+ * several streams.
+ */
+public class ArrowResultWriter {
+
+    public static final String VALUE_COLUMN = "value";
+    private static final int MAX_BATCH_ROWS = 64 * 1024;
+    // of serialized ADM
+    private static final int MAX_BATCH_BYTES = 8 * 1024 * 1024;
+
+    private static final long INT_TAGS = mask(ATypeTag.TINYINT, ATypeTag.SMALLINT, ATypeTag.INTEGER, ATypeTag.BIGINT);
+    private static final long NUMERIC_TAGS = INT_TAGS | mask(ATypeTag.FLOAT, ATypeTag.DOUBLE);
+    // the types to try, in order, for the values of a column
+    private static final FieldType[] INFERRED_TYPES = { FieldType.BOOL, FieldType.INT64, FieldType.FLOAT64,
+            FieldType.UTF8, FieldType.BINARY, FieldType.DATE, FieldType.TIME, FieldType.TIMESTAMP, FieldType.JSON };
+
+    /**
+     * Supplies the output for each Arrow stream. The writer closes the output at the end of the stream.
+     */
+    @FunctionalInterface
+    public interface IStreamProvider {
+        OutputStream open() throws IOException;
+    }
+
+    private enum Mode {
+        // only null or missing values so far
+        UNKNOWN,
+        OBJECT,
+        VALUE
+    }
+
+    private final IStreamProvider streamProvider;
+    private final ARecordVisitablePointable record =
+            new ARecordVisitablePointable(DefaultOpenFieldType.NESTED_OPEN_RECORD_TYPE);
+    private final List<Column> columns = new ArrayList<>();
+    private final Map<String, Column> columnsByName = new HashMap<>();
+    private final Column valueColumn = new Column(VALUE_COLUMN, null);
+    private final StringBuilder stringBuilder = new StringBuilder();
+    private final Output varData = new Output();
+
+    private final PointableAllocator allocator = new PointableAllocator();
+    private final APrintVisitor jsonVisitor = new APrintVisitor();
+    private final ByteArrayAccessibleOutputStream jsonBytes = new ByteArrayAccessibleOutputStream();
+    private final Pair<PrintStream, ATypeTag> jsonArg;
+
+    // the current batch
+    private Mode mode = Mode.UNKNOWN;
+    private int rows;
+    private int bytes;
+
+    // the current stream
+    private OutputStream stream;
+    private ArrowStreamEncoder encoder;
+    private Mode streamMode;
+    private String[] streamNames;
+    private FieldType[] streamTypes;
+
+    public ArrowResultWriter(IStreamProvider streamProvider) {
+        this.streamProvider = streamProvider;
+        try {
+            jsonArg = new Pair<>(new PrintStream(jsonBytes, false, UTF_8.name()), null);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void append(byte[] b, int s, int l) throws HyracksDataException {
+        final byte tag = b[s];
+        final Mode rowMode =
+                isUnknown(tag) ? Mode.UNKNOWN : tag == ATypeTag.SERIALIZED_RECORD_TYPE_TAG ? Mode.OBJECT : Mode.VALUE;
+        if (rowMode != Mode.UNKNOWN && rowMode != mode) {
+            if (mode != Mode.UNKNOWN) {
+                flush();
+            }
+            mode = rowMode;
+        }
+        if (rowMode == Mode.OBJECT) {
+            appendFields(b, s, l);
+        } else if (rowMode == Mode.VALUE) {
+            valueColumn.add(rows, b, s, l);
+        }
+        rows++;
+        bytes += l;
+        if (rows >= MAX_BATCH_ROWS || bytes >= MAX_BATCH_BYTES) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the pending values and ends the current stream. Nothing is written if there were no values at all.
+     */
+    public void close() throws HyracksDataException {
+        flush();
+        if (encoder != null) {
+            endStream();
+        }
+    }
+
+    private void appendFields(byte[] b, int s, int l) {
+        record.set(b, s, l);
+        final List<IVisitablePointable> fieldNames = record.getFieldNames();
+        final List<IVisitablePointable> fieldValues = record.getFieldValues();
+        for (int i = 0; i < fieldNames.size(); i++) {
+            final IVisitablePointable name = fieldNames.get(i);
+            final IVisitablePointable value = fieldValues.get(i);
+            // fields usually come in the same order for all objects
+            Column column = i < columns.size() ? columns.get(i) : null;
+            if (column == null || !column.hasName(name.getByteArray(), name.getStartOffset(), name.getLength())) {
+                column = getColumn(name);
+            }
+            column.seen = true;
+            if (!isUnknown(value.getByteArray()[value.getStartOffset()])) {
+                column.add(rows, value.getByteArray(), value.getStartOffset(), value.getLength());
+            }
+        }
+    }
+
+    private Column getColumn(IVisitablePointable name) {
+        stringBuilder.setLength(0);
+        final String fieldName =
+                UTF8StringUtil.toString(stringBuilder, name.getByteArray(), name.getStartOffset() + 1).toString();
+        Column column = columnsByName.get(fieldName);
+        if (column == null) {
+            final int start = name.getStartOffset();
+            column = new Column(fieldName, Arrays.copyOfRange(name.getByteArray(), start, start + name.getLength()));
+            columns.add(column);
+            columnsByName.put(fieldName, column);
+        }
+        return column;
+    }
+
+    private void flush() throws HyracksDataException {
+        if (rows == 0) {
+            return;
+        }
+        try {
+            final Mode batchMode = mode != Mode.UNKNOWN ? mode : encoder != null ? streamMode : Mode.VALUE;
+            final List<Column> batchColumns = new ArrayList<>();
+            if (batchMode == Mode.OBJECT) {
+                for (Column column : columns) {
+                    if (column.seen) {
+                        batchColumns.add(column);
+                    }
+                }
+            } else {
+                batchColumns.add(valueColumn);
+            }
+            if (encoder == null || !fitsStream(batchMode, batchColumns)) {
+                if (encoder != null) {
+                    endStream();
+                }
+                startStream(batchMode, batchColumns);
+            }
+            encoder.startBatch(rows);
+            for (int i = 0; i < streamNames.length; i++) {
+                Column column = streamMode == Mode.OBJECT ? columnsByName.get(streamNames[i]) : valueColumn;
+                writeColumn(column != null && column.seen ? column : null, streamTypes[i]);
+            }
+            encoder.writeBatch();
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        for (Column column : columns) {
+            column.reset();
+        }
+        valueColumn.reset();
+        mode = Mode.UNKNOWN;
+        rows = 0;
+        bytes = 0;
+    }
+
+    private boolean fitsStream(Mode batchMode, List<Column> batchColumns) {
+        if (mode == Mode.UNKNOWN) {
+            // all rows are null, whatever the schema is
+            return true;
+        }
+        if (batchMode != streamMode) {
+            return false;
+        }
+        for (Column column : batchColumns) {
+            int i = streamMode == Mode.OBJECT ? Arrays.asList(streamNames).indexOf(column.name) : 0;
+            if (i < 0 ? column.tags != 0 : !accepts(streamTypes[i], column.tags)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void startStream(Mode batchMode, List<Column> batchColumns) throws IOException {
+        streamMode = batchMode;
+        streamNames = new String[batchColumns.size()];
+        streamTypes = new FieldType[batchColumns.size()];
+        for (int i = 0; i < streamNames.length; i++) {
+            streamNames[i] = batchColumns.get(i).name;
+            streamTypes[i] = inferType(batchColumns.get(i).tags);
+        }
+        stream = streamProvider.open();
+        encoder = new ArrowStreamEncoder(stream);
+        encoder.writeSchema(streamNames, streamTypes);
+    }
+
+    private void endStream() throws HyracksDataException {
+        try {
+            encoder.writeEnd();
+            stream.close();
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        } finally {
+            encoder = null;
+            stream = null;
+        }
+    }
+
+    private void writeColumn(Column column, FieldType type) throws HyracksDataException {
+        if (column != null) {
+            column.fill(rows);
+        }
+        int nullCount = 0;
+        for (int r = 0; r < rows; r++) {
+            if (!hasValue(column, r)) {
+                nullCount++;
+            }
+        }
+        encoder.addFieldNode(rows, nullCount);
+        final Output body = encoder.body();
+        int start = body.position();
+        if (nullCount > 0) {
+            writeBitmap(body, column, null);
+        }
+        encoder.endBuffer(start);
+        start = body.position();
+        switch (type) {
+            case BOOL:
+                writeBitmap(body, column, type);
+                break;
+            case INT64:
+            case TIMESTAMP:
+                for (int r = 0; r < rows; r++) {
+                    body.putLong(hasValue(column, r) ? getLong(column.bytes(), column.start(r)) : 0);
+                }
+                break;
+            case FLOAT64:
+                for (int r = 0; r < rows; r++) {
+                    body.putDouble(hasValue(column, r) ? getDouble(column.bytes(), column.start(r)) : 0);
+                }
+                break;
+            case DATE:
+            case TIME:
+                for (int r = 0; r < rows; r++) {
+                    body.putInt(hasValue(column, r) ? (int) getLong(column.bytes(), column.start(r)) : 0);
+                }
+                break;
+            case UTF8:
+            case BINARY:
+            case JSON:
+                // offsets first, then the data
+                varData.reset();
+                body.putInt(0);
+                for (int r = 0; r < rows; r++) {
+                    if (hasValue(column, r)) {
+                        writeVarData(column.bytes(), column.start(r), column.end(r), type);
+                    }
+                    body.putInt(varData.position());
+                }
+                encoder.endBuffer(start);
+                start = body.position();
+                body.put(varData.bytes(), 0, varData.position());
+                break;
+            default:
+                throw new IllegalStateException(String.valueOf(type));
+        }
+        encoder.endBuffer(start);
+    }
+
+    /**
+     * Writes the validity bitmap of the column if {@code type} is null and the values of a boolean column otherwise.
+     */
+    private void writeBitmap(Output body, Column column, FieldType type) {
+        for (int r = 0; r < rows; r += 8) {
+            int bits = 0;
+            for (int i = 0; i < 8 && r + i < rows; i++) {
+                if (hasValue(column, r + i) && (type == null
+                        || ABooleanSerializerDeserializer.getBoolean(column.bytes(), column.start(r + i) + 1))) {
+                    bits |= 1 << i;
+                }
+            }
+            body.putByte(bits);
+        }
+    }
+
+    private void writeVarData(byte[] b, int s, int e, FieldType type) throws HyracksDataException {
+        switch (type) {
+            case UTF8:
+                final int utfLength = UTF8StringUtil.getUTFLength(b, s + 1);
+                final int start = s + 1 + UTF8StringUtil.getNumBytesToStoreLength(utfLength);
+                if (isStandardUTF8(b, start, start + utfLength)) {
+                    varData.put(b, start, utfLength);
+                } else {
+                    stringBuilder.setLength(0);
+                    byte[] utf8 = UTF8StringUtil.toString(stringBuilder, b, s + 1).toString().getBytes(UTF_8);
+                    varData.put(utf8, 0, utf8.length);
+                }
+                break;
+            case BINARY:
+                final int length = ByteArrayPointable.getContentLength(b, s + 1);
+                varData.put(b, s + 1 + ByteArrayPointable.getNumberBytesToStoreMeta(length), length);
+                break;
+            default:
+                final ATypeTag tag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(b[s]);
+                allocator.reset();
+                final IVisitablePointable value = allocator.allocateFieldValue(tag, b, s + 1);
+                value.set(b, s, e - s);
+                jsonBytes.reset();
+                jsonArg.second = tag;
+                value.accept(jsonVisitor, jsonArg);
+                jsonArg.first.flush();
+                varData.put(jsonBytes.getByteArray(), 0, jsonBytes.size());
+                break;
+        }
+    }
+
+    /**
+     * ADM strings use modified UTF-8, which encodes U+0000 as 0xC0 0x80 and supplementary characters as surrogate
+     * pairs (0xED ...). Strings without these lead bytes can be copied as they are.
+     */
+    private static boolean isStandardUTF8(byte[] b, int s, int e) {
+        for (int i = s; i < e; i++) {
+            if (b[i] == (byte) 0xC0 || b[i] == (byte) 0xED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long getLong(byte[] b, int s) {
+        switch (EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(b[s])) {
+            case TINYINT:
+                return b[s + 1];
+            case SMALLINT:
+                return AInt16SerializerDeserializer.getShort(b, s + 1);
+            case INTEGER:
+                return AInt32SerializerDeserializer.getInt(b, s + 1);
+            case DATE:
+                return ADateSerializerDeserializer.getChronon(b, s + 1);
+            case TIME:
+                return ATimeSerializerDeserializer.getChronon(b, s + 1);
+            case DATETIME:
+                return ADateTimeSerializerDeserializer.getChronon(b, s + 1);
+            default:
+                return AInt64SerializerDeserializer.getLong(b, s + 1);
+        }
+    }
+
+    private static double getDouble(byte[] b, int s) {
+        if (b[s] == ATypeTag.SERIALIZED_DOUBLE_TYPE_TAG) {
+            return ADoubleSerializerDeserializer.getDouble(b, s + 1);
+        } else if (b[s] == ATypeTag.SERIALIZED_FLOAT_TYPE_TAG) {
+            return AFloatSerializerDeserializer.getFloat(b, s + 1);
+        }
+        return getLong(b, s);
+    }
+
+    private static FieldType inferType(long tags) {
+        if (tags != 0) {
+            for (FieldType type : INFERRED_TYPES) {
+                if (accepts(type, tags)) {
+                    return type;
+                }
+            }
+        }
+        // only null values, nothing to go by
+        return FieldType.JSON;
+    }
+
+    private static boolean accepts(FieldType type, long tags) {
+        return (tags & ~acceptedTags(type)) == 0;
+    }
+
+    private static long acceptedTags(FieldType type) {
+        switch (type) {
+            case BOOL:
+                return mask(ATypeTag.BOOLEAN);
+            case INT64:
+                return INT_TAGS;
+            case FLOAT64:
+                return NUMERIC_TAGS;
+            case UTF8:
+                return mask(ATypeTag.STRING);
+            case BINARY:
+                return mask(ATypeTag.BINARY);
+            case DATE:
+                return mask(ATypeTag.DATE);
+            case TIME:
+                return mask(ATypeTag.TIME);
+            case TIMESTAMP:
+                return mask(ATypeTag.DATETIME);
+            default:
+                return -1L;
+        }
+    }
+
+    private static long mask(ATypeTag... tags) {
+        long mask = 0;
+        for (ATypeTag tag : tags) {
+            mask |= 1L << tag.serialize();
+        }
+        return mask;
+    }
+
+    private static boolean hasValue(Column column, int row) {
+        return column != null && !column.isNull(row);
+    }
+
+    private static boolean isUnknown(byte tag) {
+        return tag == ATypeTag.SERIALIZED_NULL_TYPE_TAG || tag == ATypeTag.SERIALIZED_MISSING_TYPE_TAG;
+    }
+
+    /**
+     * The serialized values of one column of the current batch. A row without a value is null.
+     */
+    private static final class Column {
+        private final String name;
+        // the serialized name, including its type tag
+        private final byte[] nameBytes;
+        private final ByteArrayAccessibleOutputStream data = new ByteArrayAccessibleOutputStream();
+        // ends[r] is the end offset of the value of row r in data
+        private int[] ends = new int[64];
+        private int count;
+        private long tags;
+        private boolean seen;
+
+        private Column(String name, byte[] nameBytes) {
+            this.name = name;
+            this.nameBytes = nameBytes;
+        }
+
+        private boolean hasName(byte[] b, int s, int l) {
+            if (nameBytes == null || nameBytes.length != l) {
+                return false;
+            }
+            for (int i = 0; i < l; i++) {
+                if (nameBytes[i] != b[s + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(int row, byte[] b, int s, int l) {
+            fill(row);
+            ensureCapacity(count + 1);
+            data.write(b, s, l);
+            ends[count++] = data.size();
+            tags |= 1L << b[s];
+            seen = true;
+        }
+
+        /**
+         * Makes the rows up to {@code rows} that have no value yet null.
+         */
+        private void fill(int rows) {
+            ensureCapacity(rows);
+            while (count < rows) {
+                ends[count++] = data.size();
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > ends.length) {
+                ends = Arrays.copyOf(ends, Math.max(capacity, ends.length * 2));
+            }
+        }
+
+        private byte[] bytes() {
+            return data.getByteArray();
+        }
+
+        private int start(int row) {
+            return row == 0 ? 0 : ends[row - 1];
+        }
+
+        private int end(int row) {
+            return ends[row];
+        }
+
+        private boolean isNull(int row) {
+            return end(row) == start(row);
+        }
+
+        private void reset() {
+            data.reset();
+            count = 0;
+            tags = 0;
+            seen = false;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.result;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes an Apache Arrow IPC stream: a schema message, any number of record batch messages and the end-of-stream
+ * marker. The message headers are flatbuffers which are laid out here directly, front to back, so that no Arrow or
+ * flatbuffers library is needed for the handful of tables that a stream of flat columns uses. Record batch bodies are
+ * written by the caller into {@link #body()}, one buffer at a time (see {@link #endBuffer(int)}).
+ */
+final class ArrowStreamEncoder {
+
+    /**
+     * The column types that the encoder can describe in a schema.
+     */
+    enum FieldType {
+        BOOL,
+        INT64,
+        FLOAT64,
+        UTF8,
+        BINARY,
+        DATE,
+        TIME,
+        TIMESTAMP,
+        // UTF8 holding JSON text, tagged with the canonical arrow.json extension type
+        JSON
+    }
+
+    private static final int CONTINUATION = 0xFFFFFFFF;
+    private static final int ALIGNMENT = 8;
+    // Schema.fbs and Message.fbs
+    private static final short METADATA_VERSION_V5 = 4;
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte HEADER_RECORD_BATCH = 3;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_FLOATING_POINT = 3;
+    private static final byte TYPE_BINARY = 4;
+    private static final byte TYPE_UTF8 = 5;
+    private static final byte TYPE_BOOL = 6;
+    private static final byte TYPE_DATE = 8;
+    private static final byte TYPE_TIME = 9;
+    private static final byte TYPE_TIMESTAMP = 10;
+    private static final short PRECISION_DOUBLE = 2;
+    private static final short DATE_UNIT_DAY = 0;
+    private static final short TIME_UNIT_MILLISECOND = 1;
+    private static final String EXTENSION_NAME_KEY = "ARROW:extension:name";
+    private static final String EXTENSION_METADATA_KEY = "ARROW:extension:metadata";
+    private static final String JSON_EXTENSION_NAME = "arrow.json";
+
+    private final OutputStream out;
+    private final Output metadata = new Output();
+    private final Output body = new Output();
+    // (length, null count) per field and (offset, length) per buffer of the current record batch
+    private final Output nodes = new Output();
+    private final Output buffers = new Output();
+    private int batchLength;
+
+    ArrowStreamEncoder(OutputStream out) {
+        this.out = out;
+    }
+
+    void writeSchema(String[] names, FieldType[] types) throws IOException {
+        List<Table> fields = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            fields.add(field(names[i], types[i]));
+        }
+        Table schema = new Table().ref(1, fields);
+        writeMessage(HEADER_SCHEMA, schema, 0);
+    }
+
+    void startBatch(int length) {
+        batchLength = length;
+        body.reset();
+        nodes.reset();
+        buffers.reset();
+    }
+
+    void addFieldNode(int length, int nullCount) {
+        nodes.putLong(length);
+        nodes.putLong(nullCount);
+    }
+
+    Output body() {
+        return body;
+    }
+
+    /**
+     * Registers the bytes written to the body since {@code start} as the next buffer of the current batch.
+     */
+    void endBuffer(int start) {
+        buffers.putLong(start);
+        buffers.putLong(body.position() - start);
+        body.align(ALIGNMENT);
+    }
+
+    void writeBatch() throws IOException {
+        Table batch = new Table().scalar(0, 8, batchLength).ref(1, nodes.toLongs()).ref(2, buffers.toLongs());
+        writeMessage(HEADER_RECORD_BATCH, batch, body.position());
+        body.writeTo(out);
+    }
+
+    void writeEnd() throws IOException {
+        metadata.reset();
+        metadata.putInt(CONTINUATION);
+        metadata.putInt(0);
+        metadata.writeTo(out);
+        out.flush();
+    }
+
+    private void writeMessage(byte headerType, Table header, int bodyLength) throws IOException {
+        Table message = new Table().scalar(0, 2, METADATA_VERSION_V5).scalar(1, 1, headerType).ref(2, header).scalar(3,
+                8, bodyLength);
+        metadata.reset();
+        metadata.putInt(CONTINUATION);
+        metadata.putInt(0);
+        // the flatbuffer starts with the offset of its root table
+        int root = metadata.position();
+        metadata.putInt(0);
+        metadata.putIntAt(root, writeTable(message) - root);
+        metadata.align(ALIGNMENT);
+        metadata.putIntAt(4, metadata.position() - root);
+        metadata.writeTo(out);
+    }
+
+    private static Table field(String name, FieldType type) {
+        Table field = new Table().ref(0, name).scalar(1, 1, 1).ref(5, Collections.emptyList());
+        switch (type) {
+            case BOOL:
+                return field.scalar(2, 1, TYPE_BOOL).ref(3, new Table());
+            case INT64:
+                return field.scalar(2, 1, TYPE_INT).ref(3, new Table().scalar(0, 4, 64).scalar(1, 1, 1));
+            case FLOAT64:
+                return field.scalar(2, 1, TYPE_FLOATING_POINT).ref(3, new Table().scalar(0, 2, PRECISION_DOUBLE));
+            case UTF8:
+                return field.scalar(2, 1, TYPE_UTF8).ref(3, new Table());
+            case BINARY:
+                return field.scalar(2, 1, TYPE_BINARY).ref(3, new Table());
+            case DATE:
+                return field.scalar(2, 1, TYPE_DATE).ref(3, new Table().scalar(0, 2, DATE_UNIT_DAY));
+            case TIME:
+                return field.scalar(2, 1, TYPE_TIME).ref(3,
+                        new Table().scalar(0, 2, TIME_UNIT_MILLISECOND).scalar(1, 4, 32));
+            case TIMESTAMP:
+                return field.scalar(2, 1, TYPE_TIMESTAMP).ref(3, new Table().scalar(0, 2, TIME_UNIT_MILLISECOND));
+            case JSON:
+                List<Table> metadata = Arrays.asList(new Table().ref(0, EXTENSION_NAME_KEY).ref(1, JSON_EXTENSION_NAME),
+                        new Table().ref(0, EXTENSION_METADATA_KEY).ref(1, ""));
+                return field.scalar(2, 1, TYPE_UTF8).ref(3, new Table()).ref(6, metadata);
+            default:
+                throw new IllegalArgumentException(String.valueOf(type));
+        }
+    }
+
+    /**
+     * Writes the vtable and the inline part of a table, followed by everything that the table refers to, and
+     * returns the position of the table. Tables are placed at positions that are 4 modulo 8 so that the fields which
+     * follow the vtable offset can be laid out in order of decreasing size without padding.
+     */
+    private int writeTable(Table table) {
+        List<Slot> slots = new ArrayList<>(table.slots);
+        slots.sort(Comparator.comparingInt((Slot s) -> s.size).reversed());
+        int numFields = 0;
+        int size = 4;
+        for (Slot slot : slots) {
+            while ((4 + size) % slot.size != 0) {
+                size++;
+            }
+            slot.offset = size;
+            size += slot.size;
+            numFields = Math.max(numFields, slot.id + 1);
+        }
+        metadata.align(2);
+        int vtable = metadata.position();
+        metadata.putShort(4 + 2 * numFields);
+        metadata.putShort(size);
+        for (int id = 0; id < numFields; id++) {
+            metadata.putShort(table.offsetOf(id));
+        }
+        while (metadata.position() % ALIGNMENT != 4) {
+            metadata.putByte(0);
+        }
+        int start = metadata.position();
+        metadata.putInt(start - vtable);
+        metadata.pad(size - 4);
+        for (Slot slot : slots) {
+            int at = start + slot.offset;
+            if (slot.ref == null) {
+                metadata.putAt(at, slot.size, slot.value);
+            }
+        }
+        for (Slot slot : slots) {
+            if (slot.ref != null) {
+                int at = start + slot.offset;
+                metadata.putIntAt(at, writeObject(slot.ref) - at);
+            }
+        }
+        return start;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int writeObject(Object object) {
+        if (object instanceof Table) {
+            return writeTable((Table) object);
+        }
+        metadata.align(4);
+        if (object instanceof String) {
+            byte[] bytes = ((String) object).getBytes(UTF_8);
+            int start = metadata.position();
+            metadata.putInt(bytes.length);
+            metadata.put(bytes, 0, bytes.length);
+            metadata.putByte(0);
+            return start;
+        }
+        if (object instanceof long[]) {
+            // a vector of structs made of two longs, the elements have to be 8 byte aligned
+            long[] values = (long[]) object;
+            if (metadata.position() % ALIGNMENT == 0) {
+                metadata.putInt(0);
+            }
+            int start = metadata.position();
+            metadata.putInt(values.length / 2);
+            for (long value : values) {
+                metadata.putLong(value);
+            }
+            return start;
+        }
+        List<Table> tables = (List<Table>) object;
+        int start = metadata.position();
+        metadata.putInt(tables.size());
+        metadata.pad(4 * tables.size());
+        for (int i = 0; i < tables.size(); i++) {
+            int at = start + 4 + 4 * i;
+            metadata.putIntAt(at, writeTable(tables.get(i)) - at);
+        }
+        return start;
+    }
+
+    private static final class Slot {
+        private final int id;
+        private final int size;
+        private final long value;
+        private final Object ref;
+        private int offset;
+
+        private Slot(int id, int size, long value, Object ref) {
+            this.id = id;
+            this.size = size;
+            this.value = value;
+            this.ref = ref;
+        }
+    }
+
+    /**
+     * A flatbuffer table under construction. Fields are either scalars or references to a table, a string, a vector
+     * of tables or a vector of (long, long) structs.
+     */
+    private static final class Table {
+        private final List<Slot> slots = new ArrayList<>();
+
+        private Table scalar(int id, int size, long value) {
+            slots.add(new Slot(id, size, value, null));
+            return this;
+        }
+
+        private Table ref(int id, Object ref) {
+            slots.add(new Slot(id, 4, 0, ref));
+            return this;
+        }
+
+        private int offsetOf(int id) {
+            for (Slot slot : slots) {
+                if (slot.id == id) {
+                    return slot.offset;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * A growable little endian byte buffer.
+     */
+    static final class Output {
+        private byte[] bytes = new byte[1024];
+        private int position;
+
+        int position() {
+            return position;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        void reset() {
+            position = 0;
+        }
+
+        void putByte(int value) {
+            ensure(1);
+            bytes[position++] = (byte) value;
+        }
+
+        void putShort(int value) {
+            ensure(2);
+            putAt(position, 2, value);
+            position += 2;
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            putAt(position, 4, value);
+            position += 4;
+        }
+
+        void putLong(long value) {
+            ensure(8);
+            putAt(position, 8, value);
+            position += 8;
+        }
+
+        void putDouble(double value) {
+            putLong(Double.doubleToRawLongBits(value));
+        }
+
+        void put(byte[] src, int offset, int length) {
+            ensure(length);
+            System.arraycopy(src, offset, bytes, position, length);
+            position += length;
+        }
+
+        void putIntAt(int at, int value) {
+            putAt(at, 4, value);
+        }
+
+        void putAt(int at, int size, long value) {
+            for (int i = 0; i < size; i++) {
+                bytes[at + i] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        /**
+         * Appends {@code length} zero bytes.
+         */
+        void pad(int length) {
+            ensure(length);
+            Arrays.fill(bytes, position, position + length, (byte) 0);
+            position += length;
+        }
+
+        void align(int alignment) {
+            int remainder = position % alignment;
+            if (remainder != 0) {
+                pad(alignment - remainder);
+            }
+        }
+
+        long[] toLongs() {
+            long[] values = new long[position / 8];
+            for (int i = 0; i < values.length; i++) {
+                long value = 0;
+                for (int j = 7; j >= 0; j--) {
+                    value = (value << 8) | (bytes[8 * i + j] & 0xFF);
+                }
+                values[i] = value;
+            }
+            return values;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, position);
+        }
+
+        private void ensure(int length) {
+            if (position + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+            }
+        }
+    }
+}
@@ -21,8 +21,11 @@ package org.apache.asterix.app.result;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
+import java.util.Base64;
 
 import org.apache.asterix.api.http.server.ResultUtil;
 import org.apache.asterix.common.api.IApplicationContext;
@@ -53,6 +56,7 @@ public class ResultPrinter {
     private final SessionConfig conf;
     private final Stats stats;
     private final ARecordType recordType;
+    private final int streamingThreshold;
 
     private boolean indentJSON;
     private boolean quoteRecord;
@@ -65,6 +69,10 @@ public class ResultPrinter {
     private ObjectMapper om;
     private ObjectWriter ow;
 
+    // the output of a streamed result that is held back until it is large enough to be sent
+    private StringWriter heldOutput;
+    private PrintWriter heldWriter;
+
     public ResultPrinter(IApplicationContext appCtx, SessionOutput output, Stats stats, ARecordType recordType) {
         this.output = output;
         this.conf = output.config();
@@ -73,6 +81,7 @@ public class ResultPrinter {
         this.indentJSON = conf.is(SessionConfig.FORMAT_INDENT_JSON);
         this.quoteRecord = conf.is(SessionConfig.FORMAT_QUOTE_RECORD);
         this.resultDisplayFrameMgr = new FrameManager(appCtx.getCompilerProperties().getFrameSize());
+        this.streamingThreshold = appCtx.getCompilerProperties().getFrameSize();
         if (indentJSON) {
             this.om = new ObjectMapper();
             DefaultPrettyPrinter.Indenter i = new DefaultPrettyPrinter.Indenter() {
@@ -116,18 +125,18 @@ public class ResultPrinter {
         // If we're outputting CSV with a header, the HTML header was already
         // output by displayCSVHeader(), so skip it here
         if (conf.is(SessionConfig.FORMAT_HTML)) {
-            output.out().println("<h4>Results:</h4>");
-            output.out().println("<pre class=\"result-content\">");
+            out().println("<h4>Results:</h4>");
+            out().println("<pre class=\"result-content\">");
         }
 
         try {
-            output.resultPrefix(new AlgebricksAppendable(output.out()));
+            output.resultPrefix(new AlgebricksAppendable(out()));
         } catch (AlgebricksException e) {
             throw HyracksDataException.create(e);
         }
 
         if (conf.is(SessionConfig.FORMAT_WRAPPER_ARRAY)) {
-            output.out().print("[ ");
+            out().print("[ ");
             wrapArray = true;
         }
 
@@ -138,29 +147,29 @@ public class ResultPrinter {
             if (quoteRecord) {
                 StringWriter sw = new StringWriter();
                 appendCSVHeader(sw, recordType);
-                output.out().print(JSONUtil.quoteAndEscape(sw.toString()));
-                output.out().print("\n");
+                out().print(JSONUtil.quoteAndEscape(sw.toString()));
+                out().print("\n");
                 notFirst = true;
             } else {
-                appendCSVHeader(output.out(), recordType);
+                appendCSVHeader(out(), recordType);
             }
         }
     }
 
     private void printPostfix() throws HyracksDataException {
-        output.out().flush();
+        out().flush();
         if (wrapArray) {
-            output.out().println(" ]");
+            out().println(" ]");
         }
         try {
-            output.resultPostfix(new AlgebricksAppendable(output.out()));
+            output.resultPostfix(new AlgebricksAppendable(out()));
         } catch (AlgebricksException e) {
             throw HyracksDataException.create(e);
         }
         if (conf.is(SessionConfig.FORMAT_HTML)) {
-            output.out().println("</pre>");
+            out().println("</pre>");
         }
-        output.out().flush();
+        out().flush();
     }
 
     private void displayRecord(String result) throws HyracksDataException {
@@ -184,12 +193,53 @@ public class ResultPrinter {
         if (conf.is(SessionConfig.FORMAT_HTML)) {
             record = ResultUtil.escapeHTML(record);
         }
-        output.out().print(record);
+        out().print(record);
         stats.setCount(stats.getCount() + 1);
         // TODO(tillw) fix this approximation
         stats.setSize(stats.getSize() + record.length());
     }
 
+    /**
+     * Starts the next binary stream of the result. The stream is printed as one base64 encoded (and possibly quoted)
+     * record.
+     */
+    private OutputStream openStream() {
+        if (notFirst) {
+            out().print(wrapArray ? ", " : "\n");
+        }
+        notFirst = true;
+        if (quoteRecord) {
+            out().print('"');
+        }
+        return Base64.getEncoder().wrap(new OutputStream() {
+            private final char[] chars = new char[1024];
+
+            @Override
+            public void write(int b) {
+                out().write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // base64 is ASCII
+                for (int i = 0; i < len; i += chars.length) {
+                    int n = Math.min(chars.length, len - i);
+                    for (int j = 0; j < n; j++) {
+                        chars[j] = (char) b[off + i + j];
+                    }
+                    out().write(chars, 0, n);
+                }
+            }
+
+            @Override
+            public void close() {
+                if (quoteRecord) {
+                    out().print('"');
+                }
+            }
+        });
+    }
+
     public void print(String record) throws HyracksDataException {
         printPrefix();
         // TODO(tillw) evil hack
@@ -201,32 +251,98 @@ public class ResultPrinter {
     public void print(ResultReader resultReader) throws HyracksDataException {
         printPrefix();
         try {
-            final IFrameTupleAccessor fta = resultReader.getFrameTupleAccessor();
-            final IFrame frame = new VSizeFrame(resultDisplayFrameMgr);
-
-            while (resultReader.read(frame) > 0) {
-                final ByteBuffer frameBuffer = frame.getBuffer();
-                final byte[] frameBytes = frameBuffer.array();
-                fta.reset(frameBuffer);
-                final int last = fta.getTupleCount();
-                for (int tIndex = 0; tIndex < last; tIndex++) {
-                    final int start = fta.getTupleStartOffset(tIndex);
-                    int length = fta.getTupleEndOffset(tIndex) - start;
-                    if (conf.fmt() == SessionConfig.OutputFormat.CSV
-                            && ((length > 0) && (frameBytes[start + length - 1] == '\n'))) {
-                        length--;
-                    }
-                    String result = new String(frameBytes, start, length, UTF_8);
-                    if (wrapArray && notFirst) {
-                        output.out().print(", ");
-                    }
-                    notFirst = true;
-                    displayRecord(result);
-                }
-                frameBuffer.clear();
-            }
+            printFrames(resultReader, false);
         } finally {
             printPostfix();
         }
     }
+
+    /**
+     * Prints the result of a job while the job is running. The output is held back until it reaches the size of a
+     * frame, so a job that fails early does not leave a partial result in the response. Larger results are sent to the
+     * client as they are read, and a job that fails after that has already sent a part of its result.
+     */
+    public void stream(ResultReader resultReader) throws HyracksDataException {
+        heldOutput = new StringWriter();
+        heldWriter = new PrintWriter(heldOutput);
+        boolean printed = false;
+        try {
+            printPrefix();
+            printFrames(resultReader, true);
+            printed = true;
+        } finally {
+            if (heldWriter == null || printed) {
+                printPostfix();
+            }
+            if (heldWriter != null) {
+                if (printed) {
+                    releaseHeldOutput();
+                } else {
+                    // nothing has been sent, drop the partial result so that the response only reports the failure
+                    heldWriter = null;
+                    heldOutput = null;
+                }
+            }
+        }
+    }
+
+    private void printFrames(ResultReader resultReader, boolean streaming) throws HyracksDataException {
+        final IFrameTupleAccessor fta = resultReader.getFrameTupleAccessor();
+        final IFrame frame = new VSizeFrame(resultDisplayFrameMgr);
+        final ArrowResultWriter arrowWriter =
+                conf.fmt() == SessionConfig.OutputFormat.ARROW ? new ArrowResultWriter(this::openStream) : null;
+
+        while (resultReader.read(frame) > 0) {
+            final ByteBuffer frameBuffer = frame.getBuffer();
+            final byte[] frameBytes = frameBuffer.array();
+            fta.reset(frameBuffer);
+            final int last = fta.getTupleCount();
+            for (int tIndex = 0; tIndex < last; tIndex++) {
+                final int start = fta.getTupleStartOffset(tIndex);
+                int length = fta.getTupleEndOffset(tIndex) - start;
+                if (arrowWriter != null) {
+                    arrowWriter.append(frameBytes, start, length);
+                    stats.setCount(stats.getCount() + 1);
+                    stats.setSize(stats.getSize() + length);
+                    continue;
+                }
+                if (conf.fmt() == SessionConfig.OutputFormat.CSV
+                        && ((length > 0) && (frameBytes[start + length - 1] == '\n'))) {
+                    length--;
+                }
+                String result = new String(frameBytes, start, length, UTF_8);
+                if (wrapArray && notFirst) {
+                    out().print(", ");
+                }
+                notFirst = true;
+                displayRecord(result);
+            }
+            frameBuffer.clear();
+            if (streaming) {
+                if (heldWriter != null && heldOutput.getBuffer().length() >= streamingThreshold) {
+                    // stop buffering the response and start sending the result
+                    output.release();
+                    releaseHeldOutput();
+                } else if (heldWriter == null && output.out().checkError()) {
+                    // the writer flushes every frame, and fails once the client has closed the connection
+                    throw new HyracksDataException("Failed to send the result, the client closed the connection");
+                }
+            }
+        }
+        if (arrowWriter != null) {
+            arrowWriter.close();
+        }
+    }
+
+    private PrintWriter out() {
+        return heldWriter != null ? heldWriter : output.out();
+    }
+
+    private void releaseHeldOutput() {
+        heldWriter.flush();
+        output.out().write(heldOutput.toString());
+        output.out().flush();
+        heldWriter = null;
+        heldOutput = null;
+    }
 }
@@ -0,0 +1,420 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.translator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.asterix.common.api.IQueryPlanCache;
+import org.apache.asterix.common.metadata.IMetadataLock;
+import org.apache.asterix.common.metadata.LockList;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.lang.common.struct.VarIdentifier;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.job.listener.JobEventListenerFactory;
+import org.apache.asterix.translator.IStatementExecutor.ResultDelivery;
+import org.apache.asterix.translator.SessionConfig.OutputFormat;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.api.client.IHyracksClientConnection;
+import org.apache.hyracks.api.config.IOption;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataset.ResultSetId;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A bounded cache of compiled query jobs. A cached job is deployed to the cluster once and reads the statement
+ * parameters from its job parameters, so that repeated executions of a statement, with the same or with different
+ * parameter values, skip parsing, rewriting, optimization and job generation.
+ * <p>
+ * A statement is cached on its second execution so that ad-hoc statements do not pay for a job deployment. Entries
+ * are evicted in least-recently-used order, and all of them are invalidated when the metadata version changes or when
+ * nodes join or leave the cluster. An entry is undeployed once it is evicted and no running execution uses it.
+ * Statements that cannot be cached, e.g. because they read external datasets, are remembered until the metadata
+ * changes so that they are not compiled for caching again.
+ */
+public class QueryPlanCache implements IQueryPlanCache {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final IHyracksClientConnection hcc;
+    private final int capacity;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Key> candidates;
+    private final Set<Key> uncacheable;
+    private long metadataVersion = -1;
+    private long clusterEpoch = 0;
+    private long validClusterEpoch = 0;
+
+    public QueryPlanCache(IHyracksClientConnection hcc, int capacity) {
+        this.hcc = hcc;
+        this.capacity = capacity;
+        this.candidates = Collections.newSetFromMap(new LinkedHashMap<Key, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                return size() > QueryPlanCache.this.capacity;
+            }
+        });
+        this.uncacheable = Collections.newSetFromMap(new LinkedHashMap<Key, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                return size() > QueryPlanCache.this.capacity;
+            }
+        });
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Looks up the cached job of a statement. The returned entry is pinned and must be released by
+     * {@link #release(Entry)} once its execution is over.
+     *
+     * @param key
+     *            the cache key of the statement
+     * @param currentMetadataVersion
+     *            the current metadata version
+     * @return the cached entry, or null if the statement is not cached
+     */
+    public Entry get(Key key, long currentMetadataVersion) {
+        List<Entry> toUndeploy = new ArrayList<>();
+        Entry entry;
+        synchronized (this) {
+            validate(currentMetadataVersion, toUndeploy);
+            entry = entries.get(key);
+            if (entry != null) {
+                entry.pins++;
+            }
+        }
+        undeploy(toUndeploy);
+        return entry;
+    }
+
+    /**
+     * @return true if a pinned entry is still valid for the given metadata version. This check is done after the
+     *         metadata locks of the entry have been acquired.
+     */
+    public synchronized boolean isCurrent(Entry entry, long currentMetadataVersion) {
+        return entry.metadataVersion == currentMetadataVersion && entry.clusterEpoch == clusterEpoch;
+    }
+
+    /**
+     * Records an execution of a statement that is not cached.
+     *
+     * @return true if the statement was executed before and should be compiled for caching.
+     */
+    public synchronized boolean admit(Key key) {
+        return !uncacheable.contains(key) && !candidates.add(key);
+    }
+
+    /**
+     * Records that a statement cannot be cached, so that its next executions are compiled as usual.
+     */
+    public synchronized void markUncacheable(Key key) {
+        candidates.remove(key);
+        uncacheable.add(key);
+    }
+
+    /**
+     * @return the current cluster epoch, to be captured before a statement is compiled for caching.
+     */
+    public synchronized long getClusterEpoch() {
+        return clusterEpoch;
+    }
+
+    /**
+     * Adds the job of a statement to the cache. The entry is pinned and must be released by {@link #release(Entry)}
+     * once its execution is over. An entry that was compiled against stale metadata or cluster state is not cached,
+     * and its job is undeployed when it is released.
+     */
+    public void put(Key key, Entry entry) {
+        List<Entry> toUndeploy = new ArrayList<>();
+        synchronized (this) {
+            entry.pins++;
+            validate(entry.metadataVersion, toUndeploy);
+            if (entry.metadataVersion != metadataVersion || entry.clusterEpoch != clusterEpoch) {
+                entry.evicted = true;
+            } else {
+                Entry replaced = entries.put(key, entry);
+                if (replaced != null) {
+                    evict(replaced, toUndeploy);
+                }
+                Iterator<Entry> it = entries.values().iterator();
+                while (entries.size() > capacity && it.hasNext()) {
+                    Entry eldest = it.next();
+                    it.remove();
+                    evict(eldest, toUndeploy);
+                }
+            }
+        }
+        undeploy(toUndeploy);
+    }
+
+    /**
+     * Unpins an entry after its execution is over.
+     */
+    public void release(Entry entry) {
+        boolean undeploy;
+        synchronized (this) {
+            entry.pins--;
+            undeploy = entry.evicted && entry.pins == 0;
+        }
+        if (undeploy) {
+            undeploy(Collections.singletonList(entry));
+        }
+    }
+
+    @Override
+    public synchronized void notifyNodeJoin(String nodeId, Map<IOption, Object> ncConfiguration) {
+        // the new node does not have the deployed jobs and the compiled jobs do not use it
+        clusterEpoch++;
+    }
+
+    @Override
+    public synchronized void notifyNodeFailure(Collection<String> deadNodeIds) {
+        clusterEpoch++;
+    }
+
+    private void validate(long currentMetadataVersion, List<Entry> toUndeploy) {
+        if (currentMetadataVersion > metadataVersion || clusterEpoch != validClusterEpoch) {
+            for (Entry entry : entries.values()) {
+                evict(entry, toUndeploy);
+            }
+            entries.clear();
+            uncacheable.clear();
+            metadataVersion = Math.max(metadataVersion, currentMetadataVersion);
+            validClusterEpoch = clusterEpoch;
+        }
+    }
+
+    private static void evict(Entry entry, List<Entry> toUndeploy) {
+        entry.evicted = true;
+        if (entry.pins == 0) {
+            toUndeploy.add(entry);
+        }
+    }
+
+    private void undeploy(List<Entry> toUndeploy) {
+        for (Entry entry : toUndeploy) {
+            try {
+                hcc.undeployJobSpec(entry.deployedJobSpecId);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to undeploy cached query job {}", entry.deployedJobSpecId, e);
+            }
+        }
+    }
+
+    /**
+     * Creates the job parameters of an execution of a cached job: the transaction id of the execution and the
+     * serialized value of each statement parameter.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<byte[], byte[]> createJobParameters(TxnId txnId, Map<VarIdentifier, IAObject> externalVars)
+            throws HyracksDataException {
+        Map<byte[], byte[]> jobParameters = new HashMap<>();
+        jobParameters.put(JobEventListenerFactory.TRANSACTION_ID_PARAMETER_NAME,
+                String.valueOf(txnId.getId()).getBytes());
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        for (Map.Entry<VarIdentifier, IAObject> var : externalVars.entrySet()) {
+            bos.reset();
+            serde.serialize(var.getValue(), dos);
+            jobParameters.put(UTF8StringUtil.writeStringToBytes(var.getKey().getValue()), bos.toByteArray());
+        }
+        return jobParameters;
+    }
+
+    /**
+     * Identifies a query statement of a request. Everything that the statement compilation depends on, apart from the
+     * metadata and the cluster state, is either part of the request text or part of the key. The comments and the
+     * layout of the request text, apart from hints, are not part of the key, so that statements that differ only in
+     * their comments (e.g. comments that show the parameter values of an execution) share their cached job.
+     */
+    public static final class Key {
+        private final String statementsText;
+        private final ResultSetId resultSetId;
+        private final ResultDelivery resultDelivery;
+        private final long maxResultReads;
+        private final OutputFormat outputFormat;
+        private final Map<String, ATypeTag> parameterTypes;
+        private final String workloadClass;
+
+        public Key(String statementsText, ResultSetId resultSetId, ResultDelivery resultDelivery, long maxResultReads,
+                OutputFormat outputFormat, Map<VarIdentifier, IAObject> externalVars, String workloadClass) {
+            this.statementsText = stripComments(statementsText);
+            this.resultSetId = resultSetId;
+            this.resultDelivery = resultDelivery;
+            this.maxResultReads = maxResultReads;
+            this.outputFormat = outputFormat;
+            this.parameterTypes = new HashMap<>();
+            for (Map.Entry<VarIdentifier, IAObject> var : externalVars.entrySet()) {
+                parameterTypes.put(var.getKey().getValue(), var.getValue().getType().getTypeTag());
+            }
+            this.workloadClass = workloadClass;
+        }
+
+        /**
+         * Removes the comments of a statement text and replaces each run of whitespace with a single space. String
+         * literals and quoted identifiers are kept as they are, and so are the comments that start with "/*+", which
+         * hold compiler hints.
+         */
+        static String stripComments(String text) {
+            final int length = text.length();
+            StringBuilder sb = new StringBuilder(length);
+            boolean space = false;
+            int i = 0;
+            while (i < length) {
+                char c = text.charAt(i);
+                int end;
+                if (Character.isWhitespace(c)) {
+                    end = i + 1;
+                    space = true;
+                } else if (text.startsWith("--", i) || text.startsWith("//", i)) {
+                    end = i + 2;
+                    while (end < length && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+                        end++;
+                    }
+                    space = true;
+                } else if (text.startsWith("/*", i) && !text.startsWith("/*+", i)) {
+                    end = skipBlockComment(text, i);
+                    space = true;
+                } else {
+                    if (space && sb.length() > 0) {
+                        sb.append(' ');
+                    }
+                    space = false;
+                    if (c == '\'' || c == '"' || c == '`') {
+                        end = i + 1;
+                        while (end < length && text.charAt(end) != c) {
+                            end += text.charAt(end) == '\\' ? 2 : 1;
+                        }
+                        end = Math.min(end + 1, length);
+                    } else if (c == '/' && text.startsWith("/*+", i)) {
+                        end = skipBlockComment(text, i);
+                    } else {
+                        end = i + 1;
+                    }
+                    sb.append(text, i, end);
+                }
+                i = end;
+            }
+            return sb.toString();
+        }
+
+        /**
+         * @return the end of the block comment that starts at the given position. Block comments can be nested.
+         */
+        private static int skipBlockComment(String text, int start) {
+            int depth = 1;
+            int end = start + 2;
+            while (end < text.length() && depth > 0) {
+                if (text.startsWith("/*", end)) {
+                    depth++;
+                    end += 2;
+                } else if (text.startsWith("*/", end)) {
+                    depth--;
+                    end += 2;
+                } else {
+                    end++;
+                }
+            }
+            return end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return statementsText.equals(other.statementsText) && Objects.equals(resultSetId, other.resultSetId)
+                    && resultDelivery == other.resultDelivery && maxResultReads == other.maxResultReads
+                    && outputFormat == other.outputFormat && parameterTypes.equals(other.parameterTypes)
+                    && Objects.equals(workloadClass, other.workloadClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(statementsText, resultSetId, resultDelivery, maxResultReads, outputFormat,
+                    parameterTypes, workloadClass);
+        }
+    }
+
+    /**
+     * A deployed query job, together with the metadata locks that its compilation acquired. The locks are acquired
+     * again, in the same order and modes, by every execution of the job.
+     */
+    public static final class Entry {
+        private final DeployedJobSpecId deployedJobSpecId;
+        private final List<Pair<IMetadataLock, IMetadataLock.Mode>> locks;
+        private final long metadataVersion;
+        private final long clusterEpoch;
+        private int pins;
+        private boolean evicted;
+
+        public Entry(DeployedJobSpecId deployedJobSpecId, List<Pair<IMetadataLock, IMetadataLock.Mode>> locks,
+                long metadataVersion, long clusterEpoch) {
+            this.deployedJobSpecId = deployedJobSpecId;
+            this.locks = locks;
+            this.metadataVersion = metadataVersion;
+            this.clusterEpoch = clusterEpoch;
+        }
+
+        public DeployedJobSpecId getDeployedJobSpecId() {
+            return deployedJobSpecId;
+        }
+
+        /**
+         * Acquires the metadata locks that the compilation of the job acquired.
+         */
+        public void acquireLocks(LockList lockList) throws AlgebricksException {
+            for (Pair<IMetadataLock, IMetadataLock.Mode> lock : locks) {
+                lockList.add(lock.getRight(), lock.getLeft());
+            }
+        }
+    }
+}
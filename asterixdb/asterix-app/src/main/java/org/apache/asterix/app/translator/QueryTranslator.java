@@ -52,6 +52,7 @@ import org.apache.asterix.app.active.ActiveNotificationHandler;
 import org.apache.asterix.app.active.FeedEventsListener;
 import org.apache.asterix.app.result.ResultHandle;
 import org.apache.asterix.app.result.ResultReader;
+import org.apache.asterix.common.api.Duration;
 import org.apache.asterix.common.api.IMetadataLockManager;
 import org.apache.asterix.common.cluster.IClusterStateManager;
 import org.apache.asterix.common.config.DatasetConfig.DatasetType;
@@ -59,6 +60,7 @@ import org.apache.asterix.common.config.DatasetConfig.ExternalFilePendingOp;
 import org.apache.asterix.common.config.DatasetConfig.IndexType;
 import org.apache.asterix.common.config.DatasetConfig.TransactionState;
 import org.apache.asterix.common.config.GlobalConfig;
+import org.apache.asterix.common.context.CorrelatedPrefixMergePolicyFactory;
 import org.apache.asterix.common.dataflow.ICcApplicationContext;
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.exceptions.AsterixException;
@@ -66,6 +68,8 @@ import org.apache.asterix.common.exceptions.CompilationException;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.exceptions.MetadataException;
 import org.apache.asterix.common.functions.FunctionSignature;
+import org.apache.asterix.common.storage.CompressionSchemes;
+import org.apache.asterix.common.transactions.TxnId;
 import org.apache.asterix.common.utils.JobUtils;
 import org.apache.asterix.common.utils.JobUtils.ProgressState;
 import org.apache.asterix.compiler.provider.ILangCompilationProvider;
@@ -181,6 +185,7 @@ import org.apache.hyracks.algebricks.data.IAWriterFactory;
 import org.apache.hyracks.algebricks.data.IResultSerializerFactoryProvider;
 import org.apache.hyracks.algebricks.runtime.serializer.ResultSerializerFactoryProvider;
 import org.apache.hyracks.algebricks.runtime.writers.PrinterBasedWriterFactory;
+import org.apache.hyracks.algebricks.runtime.writers.RawPrinterBasedWriterFactory;
 import org.apache.hyracks.api.client.IClusterInfoCollector;
 import org.apache.hyracks.api.client.IHyracksClientConnection;
 import org.apache.hyracks.api.dataflow.value.ITypeTraits;
@@ -194,6 +199,8 @@ import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.profiling.IOperatorStats;
+import org.apache.hyracks.api.job.resource.WorkloadClass;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.cc.job.IJobManager;
 import org.apache.hyracks.control.cc.job.JobRun;
@@ -206,6 +213,10 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /*
  * Provides functionality for executing a batch of Query statements (queries included)
  * sequentially.
@@ -244,6 +255,9 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         if (appCtx.getServiceContext().getAppConfig().getBoolean(CCConfig.Option.ENFORCE_FRAME_WRITER_PROTOCOL)) {
             this.jobFlags.add(JobFlag.ENFORCE_CONTRACT);
         }
+        if (sessionConfig.is(SessionConfig.OOB_PROFILE)) {
+            this.jobFlags.add(JobFlag.PROFILE_RUNTIME);
+        }
     }
 
     public SessionOutput getSessionOutput() {
@@ -265,7 +279,9 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             IRequestParameters requestParameters) throws Exception {
         int resultSetIdCounter = 0;
         FileSplit outputFile = null;
-        IAWriterFactory writerFactory = PrinterBasedWriterFactory.INSTANCE;
+        // binary result formats are printed without separators, their values delimit themselves
+        IAWriterFactory writerFactory = sessionConfig.fmt() == SessionConfig.OutputFormat.ARROW
+                ? RawPrinterBasedWriterFactory.INSTANCE : PrinterBasedWriterFactory.INSTANCE;
         IResultSerializerFactoryProvider resultSerializerFactoryProvider = ResultSerializerFactoryProvider.INSTANCE;
         /*
          * Since the system runs a large number of threads, when HTTP requests don't
@@ -276,6 +292,11 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         String threadName = Thread.currentThread().getName();
         Thread.currentThread().setName(QueryTranslator.class.getSimpleName());
         Map<String, String> config = new HashMap<>();
+        final Map<String, String> optionalParams = requestParameters.getOptionalParameters();
+        if (optionalParams != null && optionalParams.containsKey(WorkloadClass.JOB_PROPERTY)) {
+            // the workload class of a request applies to all of its statements unless a SET statement overrides it
+            config.put(WorkloadClass.JOB_PROPERTY, optionalParams.get(WorkloadClass.JOB_PROPERTY));
+        }
         final IHyracksDataset hdc = requestParameters.getHyracksDataset();
         final ResultDelivery resultDelivery = requestParameters.getResultProperties().getDelivery();
         final long maxResultReads = requestParameters.getResultProperties().getMaxReads();
@@ -386,7 +407,7 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                                 resultDelivery == ResultDelivery.ASYNC || resultDelivery == ResultDelivery.DEFERRED);
                         metadataProvider.setMaxResultReads(maxResultReads);
                         handleQuery(metadataProvider, (Query) stmt, hcc, hdc, resultDelivery, outMetadata, stats,
-                                clientContextId, ctx, stmtParams, stmtRewriter);
+                                clientContextId, ctx, stmtParams, stmtRewriter, requestParameters);
                         break;
                     case COMPACT:
                         handleCompactStatement(metadataProvider, stmt, hcc);
@@ -541,6 +562,9 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         String compactionPolicy = dd.getCompactionPolicy();
         Map<String, String> compactionPolicyProperties = dd.getCompactionPolicyProperties();
         boolean defaultCompactionPolicy = compactionPolicy == null;
+        String compressionScheme = CompressionSchemes.validate(dd.getDatasetCompressionScheme());
+        boolean invertedListCompression = dd.isInvertedListCompressed();
+        boolean fullTextTermStatistics = dd.hasFullTextTermStatistics();
         MetadataTransactionContext mdTxnCtx = MetadataManager.INSTANCE.beginTransaction();
         boolean bActiveTxn = true;
         metadataProvider.setMetadataTxnContext(mdTxnCtx);
@@ -613,6 +637,12 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                         compactionPolicy = GlobalConfig.DEFAULT_FILTERED_DATASET_COMPACTION_POLICY_NAME;
                         compactionPolicyProperties = GlobalConfig.DEFAULT_COMPACTION_POLICY_PROPERTIES;
                     }
+                    if (fullTextTermStatistics && (filterField != null
+                            || CorrelatedPrefixMergePolicyFactory.NAME.equals(compactionPolicy))) {
+                        throw new CompilationException(ErrorCode.COMPILATION_ERROR, sourceLoc,
+                                "Full-text term statistics are not supported for a dataset with a filter or a "
+                                        + "correlated merge policy.");
+                    }
                     datasetDetails = new InternalDatasetDetails(InternalDatasetDetails.FileStructure.BTREE,
                             InternalDatasetDetails.PartitioningStrategy.HASH, partitioningExprs, partitioningExprs,
                             keySourceIndicators, partitioningTypes, autogenerated, filterField);
@@ -638,7 +668,8 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             dataset = new Dataset(dataverseName, datasetName, itemTypeDataverseName, itemTypeName,
                     metaItemTypeDataverseName, metaItemTypeName, ngName, compactionPolicy, compactionPolicyProperties,
                     datasetDetails, dd.getHints(), dsType, DatasetIdFactory.generateDatasetId(),
-                    MetadataUtil.PENDING_ADD_OP);
+                    MetadataUtil.PENDING_ADD_OP, 0L, compressionScheme, invertedListCompression,
+                    fullTextTermStatistics);
             MetadataManager.INSTANCE.addDataset(metadataProvider.getMetadataTxnContext(), dataset);
             if (dd.getDatasetType() == DatasetType.INTERNAL) {
                 JobSpecification jobSpec = DatasetUtil.createDatasetJobSpec(dataset, metadataProvider);
@@ -1415,6 +1446,7 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             ds.drop(metadataProvider, mdTxnCtx, jobsToExecute, bActiveTxn, progress, hcc, dropCorrespondingNodeGroup,
                     sourceLoc);
             MetadataManager.INSTANCE.commitTransaction(mdTxnCtx.getValue());
+            metadataProvider.getApplicationContext().getStatisticsManager().drop(ds.getDatasetId());
         } catch (Exception e) {
             if (bActiveTxn.booleanValue()) {
                 abort(e, e, mdTxnCtx.getValue());
@@ -1958,6 +1990,32 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 rewrittenResult.second, stmt == null ? null : stmt.getDatasetName(), sessionOutput, stmt, externalVars);
     }
 
+    /**
+     * Compiles a query for the {@link QueryPlanCache}, with its statement parameters bound at runtime. The query is
+     * compiled again with its parameters bound to constants if it cannot be compiled that way, or if it reads external
+     * datasets, whose versions are locked by each compilation. In both cases its job is not cached.
+     */
+    private JobSpecification rewriteCompileCacheableQuery(IClusterInfoCollector clusterInfoCollector,
+            MetadataProvider metadataProvider, Query query, Map<String, IAObject> stmtParams,
+            IStatementRewriter stmtRewriter) throws AlgebricksException, ACIDException {
+        Map<VarIdentifier, IAObject> externalVars = createExternalVariables(stmtParams, stmtRewriter);
+        Pair<IReturningStatement, Integer> rewrittenResult = apiFramework.reWriteQuery(declaredFunctions,
+                metadataProvider, query, sessionOutput, true, externalVars.keySet());
+        Query rewrittenQuery = (Query) rewrittenResult.first;
+        try {
+            JobSpecification jobSpec = apiFramework.compileQuery(clusterInfoCollector, metadataProvider, rewrittenQuery,
+                    rewrittenResult.second, null, sessionOutput, null, externalVars);
+            if (metadataProvider.getExternalDataLocks() == null) {
+                return jobSpec;
+            }
+        } catch (AlgebricksException e) {
+            LOGGER.log(Level.INFO, "Failed to compile a query with runtime parameters", e);
+        }
+        metadataProvider.setBindParametersAtRuntime(false);
+        return apiFramework.compileQuery(clusterInfoCollector, metadataProvider, rewrittenQuery, rewrittenResult.second,
+                null, sessionOutput, null, externalVars);
+    }
+
     private JobSpecification rewriteCompileInsertUpsert(IClusterInfoCollector clusterInfoCollector,
             MetadataProvider metadataProvider, InsertStatement insertUpsert, Map<String, IAObject> stmtParams,
             IStatementRewriter stmtRewriter) throws AlgebricksException, ACIDException {
@@ -2437,12 +2495,24 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
 
     private interface IStatementCompiler {
         JobSpecification compile() throws AlgebricksException, RemoteException, ACIDException;
+
+        /**
+         * Compiles the statement and starts its job.
+         *
+         * @return the id of the started job, or null if there is no job to run
+         */
+        default JobId run(IHyracksClientConnection hcc, EnumSet<JobFlag> jobFlags) throws Exception {
+            final JobSpecification jobSpec = compile();
+            return jobSpec == null ? null : JobUtils.runJob(hcc, jobSpec, jobFlags, false);
+        }
     }
 
     protected void handleQuery(MetadataProvider metadataProvider, Query query, IHyracksClientConnection hcc,
             IHyracksDataset hdc, ResultDelivery resultDelivery, ResultMetadata outMetadata, Stats stats,
             String clientContextId, IStatementExecutorContext ctx, Map<String, IAObject> stmtParams,
-            IStatementRewriter stmtRewriter) throws Exception {
+            IStatementRewriter stmtRewriter, IRequestParameters requestParameters) throws Exception {
+        final CachedQueryCompiler cachedCompiler = createCachedQueryCompiler(metadataProvider, query, resultDelivery,
+                stmtParams, stmtRewriter, requestParameters);
         final IMetadataLocker locker = new IMetadataLocker() {
             @Override
             public void lock() {
@@ -2453,15 +2523,19 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 metadataProvider.getLocks().unlock();
                 // release external datasets' locks acquired during compilation of the query
                 ExternalDatasetsRegistry.INSTANCE.releaseAcquiredLocks(metadataProvider);
+                if (cachedCompiler != null) {
+                    cachedCompiler.release();
+                }
             }
         };
-        final IStatementCompiler compiler = () -> {
+        final IStatementCompiler queryCompiler = () -> {
             MetadataTransactionContext mdTxnCtx = MetadataManager.INSTANCE.beginTransaction();
             boolean bActiveTxn = true;
             metadataProvider.setMetadataTxnContext(mdTxnCtx);
             try {
-                final JobSpecification jobSpec =
-                        rewriteCompileQuery(hcc, metadataProvider, query, null, stmtParams, stmtRewriter);
+                final JobSpecification jobSpec = metadataProvider.isBindParametersAtRuntime()
+                        ? rewriteCompileCacheableQuery(hcc, metadataProvider, query, stmtParams, stmtRewriter)
+                        : rewriteCompileQuery(hcc, metadataProvider, query, null, stmtParams, stmtRewriter);
                 afterCompile();
                 MetadataManager.INSTANCE.commitTransaction(mdTxnCtx);
                 bActiveTxn = false;
@@ -2474,10 +2548,136 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 throw e;
             }
         };
+        final IStatementCompiler compiler;
+        if (cachedCompiler != null) {
+            cachedCompiler.setCompiler(queryCompiler);
+            compiler = cachedCompiler;
+        } else {
+            compiler = queryCompiler;
+        }
         deliverResult(hcc, hdc, compiler, metadataProvider, locker, resultDelivery, outMetadata, stats, clientContextId,
                 ctx);
     }
 
+    /**
+     * @return a compiler that runs the query through the {@link QueryPlanCache}, or null if the query cannot be
+     *         cached.
+     */
+    private CachedQueryCompiler createCachedQueryCompiler(MetadataProvider metadataProvider, Query query,
+            ResultDelivery resultDelivery, Map<String, IAObject> stmtParams, IStatementRewriter stmtRewriter,
+            IRequestParameters requestParameters) {
+        final String statementsText = requestParameters.getStatement();
+        if (statementsText == null || query.isExplain() || !jobFlags.isEmpty() || !isPlanCacheable(sessionConfig)
+                || metadataProvider.getPropertyValue("output-record-type") != null) {
+            return null;
+        }
+        final QueryPlanCache planCache = getQueryPlanCache();
+        if (planCache == null || !planCache.isEnabled()) {
+            return null;
+        }
+        final Map<VarIdentifier, IAObject> externalVars = createExternalVariables(stmtParams, stmtRewriter);
+        for (IAObject value : externalVars.values()) {
+            // only values of primitive types can be cast from a job parameter
+            ATypeTag typeTag = value.getType().getTypeTag();
+            if (typeTag.isDerivedType() || typeTag == ATypeTag.NULL || typeTag == ATypeTag.MISSING) {
+                return null;
+            }
+        }
+        QueryPlanCache.Key key = new QueryPlanCache.Key(statementsText, metadataProvider.getResultSetId(),
+                resultDelivery, metadataProvider.getMaxResultReads(), sessionConfig.fmt(), externalVars,
+                metadataProvider.getPropertyValue(WorkloadClass.JOB_PROPERTY));
+        return new CachedQueryCompiler(planCache, key, metadataProvider, externalVars);
+    }
+
+    private static boolean isPlanCacheable(SessionConfig conf) {
+        return conf.isExecuteQuery() && conf.isOptimize() && conf.isGenerateJobSpec()
+                && !conf.is(SessionConfig.OOB_EXPR_TREE) && !conf.is(SessionConfig.OOB_REWRITTEN_EXPR_TREE)
+                && !conf.is(SessionConfig.OOB_LOGICAL_PLAN) && !conf.is(SessionConfig.OOB_OPTIMIZED_LOGICAL_PLAN)
+                && !conf.is(SessionConfig.OOB_HYRACKS_JOB) && !conf.is(SessionConfig.FORMAT_ONLY_PHYSICAL_OPS)
+                && !conf.is(SessionConfig.FORMAT_HTML);
+    }
+
+    protected QueryPlanCache getQueryPlanCache() {
+        return (QueryPlanCache) appCtx.getQueryPlanCache();
+    }
+
+    /**
+     * Runs a query through the {@link QueryPlanCache}. A cached job is started with the statement parameters as job
+     * parameters, without compiling the query. A query that is not cached yet is compiled as usual on its first
+     * execution, and compiled for reuse and deployed on its second one.
+     */
+    private class CachedQueryCompiler implements IStatementCompiler {
+        private final QueryPlanCache planCache;
+        private final QueryPlanCache.Key key;
+        private final MetadataProvider metadataProvider;
+        private final Map<VarIdentifier, IAObject> externalVars;
+        private IStatementCompiler compiler;
+        private QueryPlanCache.Entry entry;
+
+        CachedQueryCompiler(QueryPlanCache planCache, QueryPlanCache.Key key, MetadataProvider metadataProvider,
+                Map<VarIdentifier, IAObject> externalVars) {
+            this.planCache = planCache;
+            this.key = key;
+            this.metadataProvider = metadataProvider;
+            this.externalVars = externalVars;
+        }
+
+        void setCompiler(IStatementCompiler compiler) {
+            this.compiler = compiler;
+        }
+
+        @Override
+        public JobSpecification compile() throws AlgebricksException, RemoteException, ACIDException {
+            return compiler.compile();
+        }
+
+        @Override
+        public JobId run(IHyracksClientConnection hcc, EnumSet<JobFlag> jobFlags) throws Exception {
+            final QueryPlanCache.Entry cached = planCache.get(key, MetadataManager.INSTANCE.getVersion());
+            if (cached != null) {
+                entry = cached;
+                entry.acquireLocks(metadataProvider.getLocks());
+                if (planCache.isCurrent(entry, MetadataManager.INSTANCE.getVersion())) {
+                    return startCachedJob(hcc);
+                }
+                // the metadata changed before the locks were acquired
+                metadataProvider.getLocks().reset();
+                release();
+            }
+            if (!planCache.admit(key)) {
+                return IStatementCompiler.super.run(hcc, jobFlags);
+            }
+            final long metadataVersion = MetadataManager.INSTANCE.getVersion();
+            final long clusterEpoch = planCache.getClusterEpoch();
+            metadataProvider.setBindParametersAtRuntime(true);
+            final JobSpecification jobSpec = compile();
+            if (jobSpec == null) {
+                return null;
+            }
+            if (!metadataProvider.isBindParametersAtRuntime()) {
+                // the query was compiled with its parameters bound to constants and its job is not cached
+                planCache.markUncacheable(key);
+                return JobUtils.runJob(hcc, jobSpec, jobFlags, false);
+            }
+            entry = new QueryPlanCache.Entry(hcc.deployJobSpec(jobSpec), metadataProvider.getLocks().getAcquiredLocks(),
+                    metadataVersion, clusterEpoch);
+            planCache.put(key, entry);
+            return startCachedJob(hcc);
+        }
+
+        private JobId startCachedJob(IHyracksClientConnection hcc) throws Exception {
+            final TxnId txnId = metadataProvider.getTxnIdFactory().create();
+            return hcc.startJob(entry.getDeployedJobSpecId(), QueryPlanCache.createJobParameters(txnId, externalVars));
+        }
+
+        void release() {
+            if (entry != null) {
+                planCache.release(entry);
+                entry = null;
+            }
+        }
+    }
+
     private void deliverResult(IHyracksClientConnection hcc, IHyracksDataset hdc, IStatementCompiler compiler,
             MetadataProvider metadataProvider, IMetadataLocker locker, ResultDelivery resultDelivery,
             ResultMetadata outMetadata, Stats stats, String clientContextId, IStatementExecutorContext ctx)
@@ -2495,14 +2695,14 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 }
                 break;
             case IMMEDIATE:
-                createAndRunJob(hcc, jobFlags, null, compiler, locker, resultDelivery, id -> {
+                Mutable<JobId> jobId = new MutableObject<>(JobId.INVALID);
+                createAndRunJob(hcc, jobFlags, jobId, compiler, locker, resultDelivery, id -> {
                     final ResultReader resultReader = new ResultReader(hdc, id, resultSetId);
-                    updateJobStats(id, stats);
-                    // stop buffering and allow for streaming result delivery
-                    sessionOutput.release();
-                    ResultUtil.printResults(appCtx, resultReader, sessionOutput, stats,
+                    // the result printer stops buffering the response once the result is large enough to be streamed
+                    ResultUtil.streamResults(appCtx, resultReader, sessionOutput, stats,
                             metadataProvider.findOutputRecordType());
                 }, clientContextId, ctx);
+                updateJobStats(jobId.getValue(), stats);
                 break;
             case DEFERRED:
                 createAndRunJob(hcc, jobFlags, null, compiler, locker, resultDelivery, id -> {
@@ -2536,6 +2736,33 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             }
         }
         stats.setProcessedObjects(processedObjects);
+        if (jobFlags.contains(JobFlag.PROFILE_RUNTIME)) {
+            stats.setJobProfile(getOperatorProfile(jobProfile));
+        }
+    }
+
+    private static String getOperatorProfile(JobProfile jobProfile) {
+        ObjectMapper om = new ObjectMapper();
+        ObjectNode profile = om.createObjectNode();
+        profile.put("jobId", jobProfile.getJobId().toString());
+        ArrayNode operators = profile.putArray("operators");
+        for (IOperatorStats stats : jobProfile.getAggregatedOperatorStats()) {
+            if (stats.getTimeCounter().get() == 0 && stats.getInputFrameCounter().get() == 0
+                    && stats.getOutputFrameCounter().get() == 0) {
+                // not collected by the profiler, e.g. the processed objects count of an index search
+                continue;
+            }
+            ObjectNode operator = operators.addObject();
+            operator.put("name", stats.getName());
+            operator.put("tuplesIn", stats.getInputTupleCounter().get());
+            operator.put("tuplesOut", stats.getOutputTupleCounter().get());
+            operator.put("framesIn", stats.getInputFrameCounter().get());
+            operator.put("framesOut", stats.getOutputFrameCounter().get());
+            operator.put("time", Duration.formatNanos(stats.getTimeCounter().get()));
+            operator.put("waitTime", Duration.formatNanos(stats.getWaitTimeCounter().get()));
+            operator.put("spilledBytes", stats.getSpilledBytesCounter().get());
+        }
+        return profile.toString();
     }
 
     private void asyncCreateAndRunJob(IHyracksClientConnection hcc, IStatementCompiler compiler, IMetadataLocker locker,
@@ -2585,11 +2812,10 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             String clientContextId, IStatementExecutorContext ctx) throws Exception {
         locker.lock();
         try {
-            final JobSpecification jobSpec = compiler.compile();
-            if (jobSpec == null) {
+            final JobId jobId = compiler.run(hcc, jobFlags);
+            if (jobId == null) {
                 return;
             }
-            final JobId jobId = JobUtils.runJob(hcc, jobSpec, jobFlags, false);
             if (ctx != null && clientContextId != null) {
                 ctx.put(clientContextId, jobId); // Adds the running job into the context.
             }
@@ -2599,6 +2825,14 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             if (ResultDelivery.ASYNC == resultDelivery) {
                 printer.print(jobId);
                 hcc.waitForCompletion(jobId);
+            } else if (ResultDelivery.IMMEDIATE == resultDelivery) {
+                // the result is streamed to the client while the job is running
+                try {
+                    printer.print(jobId);
+                } catch (Exception e) {
+                    abortResultDelivery(hcc, jobId, e);
+                }
+                hcc.waitForCompletion(jobId);
             } else {
                 hcc.waitForCompletion(jobId);
                 printer.print(jobId);
@@ -2612,6 +2846,29 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         }
     }
 
+    /**
+     * Handles a failure to deliver the result of a running job. If the job failed, its failure is thrown rather than
+     * the failure to read its result. Otherwise, the result can no longer be delivered, e.g. because the client went
+     * away, and the job is cancelled.
+     */
+    private static void abortResultDelivery(IHyracksClientConnection hcc, JobId jobId, Exception e) throws Exception {
+        boolean failed;
+        try {
+            failed = hcc.getJobStatus(jobId) == JobStatus.FAILURE;
+            if (!failed) {
+                hcc.cancelJob(jobId);
+            }
+        } catch (Exception cancelFailure) {
+            e.addSuppressed(cancelFailure);
+            throw e;
+        }
+        if (failed) {
+            // throws the failure of the job
+            hcc.waitForCompletion(jobId);
+        }
+        throw e;
+    }
+
     protected void handleCreateNodeGroupStatement(MetadataProvider metadataProvider, Statement stmt) throws Exception {
         NodegroupDecl stmtCreateNodegroup = (NodegroupDecl) stmt;
         SourceLocation sourceLoc = stmtCreateNodegroup.getSourceLocation();
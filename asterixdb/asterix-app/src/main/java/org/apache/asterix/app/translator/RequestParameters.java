@@ -48,10 +48,17 @@ public class RequestParameters implements IRequestParameters {
     private final IStatementExecutor.ResultMetadata outMetadata;
     private final String clientContextId;
     private final Map<String, IAObject> statementParameters;
+    private final String statement;
 
     public RequestParameters(IHyracksDataset hdc, ResultProperties resultProperties, Stats stats,
             IStatementExecutor.ResultMetadata outMetadata, String clientContextId,
             Map<String, String> optionalParameters, Map<String, IAObject> statementParameters) {
+        this(hdc, resultProperties, stats, outMetadata, clientContextId, optionalParameters, statementParameters, null);
+    }
+
+    public RequestParameters(IHyracksDataset hdc, ResultProperties resultProperties, Stats stats,
+            IStatementExecutor.ResultMetadata outMetadata, String clientContextId,
+            Map<String, String> optionalParameters, Map<String, IAObject> statementParameters, String statement) {
         this.hdc = hdc;
         this.resultProperties = resultProperties;
         this.stats = stats;
@@ -59,6 +66,7 @@ public class RequestParameters implements IRequestParameters {
         this.clientContextId = clientContextId;
         this.optionalParameters = optionalParameters;
         this.statementParameters = statementParameters;
+        this.statement = statement;
     }
 
     @Override
@@ -96,6 +104,11 @@ public class RequestParameters implements IRequestParameters {
         return statementParameters;
     }
 
+    @Override
+    public String getStatement() {
+        return statement;
+    }
+
     public static Map<String, byte[]> serializeParameterValues(Map<String, JsonNode> inParams)
             throws HyracksDataException {
         if (inParams == null || inParams.isEmpty()) {
@@ -53,6 +53,7 @@ import org.apache.asterix.app.active.ActiveNotificationHandler;
 import org.apache.asterix.app.cc.CCExtensionManager;
 import org.apache.asterix.app.external.ExternalLibraryUtils;
 import org.apache.asterix.app.replication.NcLifecycleCoordinator;
+import org.apache.asterix.app.translator.QueryPlanCache;
 import org.apache.asterix.common.api.AsterixThreadFactory;
 import org.apache.asterix.common.api.INodeJobTracker;
 import org.apache.asterix.common.cluster.IGlobalRecoveryManager;
@@ -171,6 +172,10 @@ public class CCApplication extends BaseCCApplication {
         final INodeJobTracker nodeJobTracker = appCtx.getNodeJobTracker();
         ccServiceCtx.addJobLifecycleListener(nodeJobTracker);
         ccServiceCtx.addClusterLifecycleListener(nodeJobTracker);
+        final QueryPlanCache queryPlanCache =
+                new QueryPlanCache(getHcc(), appCtx.getCompilerProperties().getPlanCacheSize());
+        appCtx.setQueryPlanCache(queryPlanCache);
+        ccServiceCtx.addClusterLifecycleListener(queryPlanCache);
 
         jobCapacityController = new JobCapacityController(controllerService.getResourceManager());
     }
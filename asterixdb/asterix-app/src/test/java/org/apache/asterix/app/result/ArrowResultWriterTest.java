@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.result;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.dataflow.data.nontagged.printers.ASelfDescribingPrinterFactory;
+import org.apache.asterix.dataflow.data.nontagged.serde.AObjectSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AOrderedList;
+import org.apache.asterix.om.base.ARecord;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.types.AOrderedListType;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.hyracks.algebricks.data.IPrinter;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArrowResultWriterTest {
+
+    private static final int CONTINUATION = 0xFFFFFFFF;
+
+    private final List<ByteArrayOutputStream> streams = new ArrayList<>();
+    private final ArrowResultWriter writer = new ArrowResultWriter(() -> {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        streams.add(stream);
+        return stream;
+    });
+
+    /**
+     * Closed records go through the self-describing printer, as they would on the NCs, and come out as one stream
+     * with a column per field.
+     */
+    @Test
+    public void testRecords() throws Exception {
+        IAType tagsType = new AOrderedListType(BuiltinType.ASTRING, null);
+        ARecordType type = new ARecordType("t", new String[] { "id", "name", "score", "tags" },
+                new IAType[] { BuiltinType.AINT64, BuiltinType.ASTRING, BuiltinType.ADOUBLE, tagsType }, false);
+        // the second record has no score
+        ARecordType noScoreType = new ARecordType("u", new String[] { "id", "name", "tags" },
+                new IAType[] { BuiltinType.AINT64, BuiltinType.ASTRING, tagsType }, false);
+        for (int i = 0; i < 3; i++) {
+            AOrderedList tags = new AOrderedList(Arrays.asList("a" + i, "é\u0000"));
+            if (i == 1) {
+                append(noScoreType,
+                        new ARecord(noScoreType, new IAObject[] { new AInt64(i), new AString("nü" + i), tags }));
+            } else {
+                append(type, new ARecord(type,
+                        new IAObject[] { new AInt64(i), new AString("nü" + i), new ADouble(i / 2.0), tags }));
+            }
+        }
+        writer.close();
+
+        Assert.assertEquals(1, streams.size());
+        ByteBuffer stream = ByteBuffer.wrap(streams.get(0).toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        Table schema = readMessage(stream).table(2);
+        List<String> names = new ArrayList<>();
+        List<Byte> types = new ArrayList<>();
+        int fields = schema.vector(1);
+        for (int i = 0; i < schema.length(fields); i++) {
+            Table field = schema.element(fields, i);
+            names.add(field.string(0));
+            types.add(field.getByte(2));
+            Assert.assertEquals(0, field.length(field.vector(5)));
+        }
+        Assert.assertEquals(Arrays.asList("id", "name", "score", "tags"), names);
+        // int, utf8, floating point, utf8 (json)
+        Assert.assertEquals(Arrays.asList((byte) 2, (byte) 5, (byte) 3, (byte) 5), types);
+        Table tags = schema.element(fields, 3);
+        Assert.assertEquals("arrow.json", tags.element(tags.vector(6), 0).string(1));
+
+        Table message = readMessage(stream);
+        Assert.assertEquals(3, message.getByte(1));
+        Table batch = message.table(2);
+        Assert.assertEquals(3, batch.getLong(0));
+        int bodyStart = stream.position();
+        Assert.assertEquals(0, bodyStart % 8);
+        long[] nodes = batch.structs(1);
+        long[] buffers = batch.structs(2);
+        // (length, null count) per field, only the score has a null
+        Assert.assertArrayEquals(new long[] { 3, 0, 3, 0, 3, 1, 3, 0 }, nodes);
+        // validity and values for id and score, validity, offsets and data for name and tags
+        Assert.assertEquals(2 * 10, buffers.length);
+        for (int i = 0; i < buffers.length; i += 2) {
+            Assert.assertEquals(0, buffers[i] % 8);
+        }
+        Assert.assertEquals(0, buffers[1]);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(i, stream.getLong(bodyStart + (int) buffers[2] + 8 * i));
+        }
+        Assert.assertEquals(Arrays.asList("nü0", "nü1", "nü2"),
+                strings(stream, bodyStart, buffers[6], buffers[8], 3));
+        // score: validity bitmap 0b101
+        Assert.assertEquals(0b101, stream.get(bodyStart + (int) buffers[10]));
+        Assert.assertEquals(1.0, stream.getDouble(bodyStart + (int) buffers[12] + 16), 0);
+        Assert.assertEquals("[ \"a2\", \"é\\u0000\" ]",
+                strings(stream, bodyStart, buffers[16], buffers[18], 3).get(2));
+
+        stream.position(bodyStart + (int) message.getLong(3));
+        Assert.assertEquals(CONTINUATION, stream.getInt());
+        Assert.assertEquals(0, stream.getInt());
+        Assert.assertFalse(stream.hasRemaining());
+    }
+
+    /**
+     * A value that does not fit into the schema of the current stream starts a new one.
+     */
+    @Test
+    public void testSchemaChange() throws Exception {
+        append(BuiltinType.AINT64, new AInt64(1));
+        append(BuiltinType.ANULL, ANull.NULL);
+        append(BuiltinType.ASTRING, new AString("x"));
+        ARecordType type = new ARecordType("t", new String[] { "a" }, new IAType[] { BuiltinType.ASTRING }, false);
+        append(type, new ARecord(type, new IAObject[] { new AString("y") }));
+        writer.close();
+        Assert.assertEquals(2, streams.size());
+        List<String> names = new ArrayList<>();
+        List<Byte> types = new ArrayList<>();
+        for (ByteArrayOutputStream s : streams) {
+            ByteBuffer stream = ByteBuffer.wrap(s.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+            Table schema = readMessage(stream).table(2);
+            Table field = schema.element(schema.vector(1), 0);
+            names.add(field.string(0));
+            types.add(field.getByte(2));
+        }
+        // mixed values within a batch become JSON text
+        Assert.assertEquals(Arrays.asList(ArrowResultWriter.VALUE_COLUMN, "a"), names);
+        Assert.assertEquals(Arrays.asList((byte) 5, (byte) 5), types);
+    }
+
+    @Test
+    public void testNoResults() throws Exception {
+        writer.close();
+        Assert.assertTrue(streams.isEmpty());
+    }
+
+    /**
+     * Serializes the value and prints it with the self-describing printer for its type, as the NCs would.
+     */
+    private void append(IAType type, IAObject value) throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        if (value instanceof ARecord) {
+            new ARecordSerializerDeserializer((ARecordType) type).serialize((ARecord) value, storage.getDataOutput(),
+                    true);
+        } else {
+            AObjectSerializerDeserializer.INSTANCE.serialize(value, storage.getDataOutput());
+        }
+        IPrinter printer = new ASelfDescribingPrinterFactory(type).createPrinter();
+        printer.init();
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        printer.print(storage.getByteArray(), storage.getStartOffset(), storage.getLength(), new PrintStream(printed));
+        writer.append(printed.toByteArray(), 0, printed.size());
+    }
+
+    private static List<String> strings(ByteBuffer stream, int bodyStart, long offsets, long data, int count) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int start = stream.getInt(bodyStart + (int) offsets + 4 * i);
+            int end = stream.getInt(bodyStart + (int) offsets + 4 * i + 4);
+            byte[] bytes = new byte[end - start];
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = stream.get(bodyStart + (int) data + start + j);
+            }
+            values.add(new String(bytes, UTF_8));
+        }
+        return values;
+    }
+
+    /**
+     * Reads an encapsulated message and returns its root table, the stream is left at the start of the body.
+     */
+    private static Table readMessage(ByteBuffer stream) {
+        Assert.assertEquals(CONTINUATION, stream.getInt());
+        int length = stream.getInt();
+        Assert.assertEquals(0, length % 8);
+        int start = stream.position();
+        stream.position(start + length);
+        Table message = new Table(stream, start + stream.getInt(start));
+        // metadata version V5
+        Assert.assertEquals(4, message.getShort(0));
+        return message;
+    }
+
+    /**
+     * Just enough of a flatbuffer reader to check what the encoder wrote.
+     */
+    private static final class Table {
+        private final ByteBuffer bb;
+        private final int pos;
+
+        private Table(ByteBuffer bb, int pos) {
+            Assert.assertEquals(0, pos % 4);
+            this.bb = bb;
+            this.pos = pos;
+        }
+
+        private int field(int id) {
+            int vtable = pos - bb.getInt(pos);
+            int offset = 4 + 2 * id < bb.getShort(vtable) ? bb.getShort(vtable + 4 + 2 * id) : 0;
+            Assert.assertNotEquals(0, offset);
+            Assert.assertTrue(offset < bb.getShort(vtable + 2));
+            return pos + offset;
+        }
+
+        private int deref(int id) {
+            int at = field(id);
+            return at + bb.getInt(at);
+        }
+
+        private byte getByte(int id) {
+            return bb.get(field(id));
+        }
+
+        private short getShort(int id) {
+            return bb.getShort(field(id));
+        }
+
+        private long getLong(int id) {
+            return bb.getLong(field(id));
+        }
+
+        private Table table(int id) {
+            return new Table(bb, deref(id));
+        }
+
+        private String string(int id) {
+            int at = deref(id);
+            byte[] bytes = new byte[bb.getInt(at)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = bb.get(at + 4 + i);
+            }
+            Assert.assertEquals(0, bb.get(at + 4 + bytes.length));
+            return new String(bytes, UTF_8);
+        }
+
+        private int vector(int id) {
+            return deref(id);
+        }
+
+        private int length(int vector) {
+            return bb.getInt(vector);
+        }
+
+        private Table element(int vector, int i) {
+            int at = vector + 4 + 4 * i;
+            return new Table(bb, at + bb.getInt(at));
+        }
+
+        private long[] structs(int id) {
+            int at = deref(id);
+            Assert.assertEquals(0, (at + 4) % 8);
+            long[] values = new long[2 * bb.getInt(at)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = bb.getLong(at + 4 + 8 * i);
+            }
+            return values;
+        }
+    }
+}
@@ -23,6 +23,8 @@ import static org.apache.hyracks.util.StorageUtil.StorageUnit.KILOBYTE;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.asterix.api.http.server.AbstractQueryApiServlet;
 import org.apache.asterix.api.http.server.ResultUtil;
@@ -34,10 +36,17 @@ import org.apache.asterix.translator.IStatementExecutor;
 import org.apache.asterix.translator.SessionConfig;
 import org.apache.asterix.translator.SessionOutput;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.io.ResultFrameTupleAccessor;
 import org.apache.hyracks.util.StorageUtil;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
 
 public class ResultPrinterTest {
 
@@ -83,6 +92,121 @@ public class ResultPrinterTest {
         Assert.assertTrue(exceptionThrown);
     }
 
+    /**
+     * Ensures that a streamed result that fails before it is large enough to be sent leaves no partial result in the
+     * response, only the error.
+     */
+    @Test
+    public void exceptionBeforeStreaming() throws Exception {
+        final HyracksDataException expectedException = new HyracksDataException("Error reading result");
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final PrintWriter out = new PrintWriter(baos, true);
+        final SessionOutput sessionOutput = createSessionOutput(out);
+        final ResultPrinter rs =
+                new ResultPrinter(createAppContext(), sessionOutput, new IStatementExecutor.Stats(), null);
+        final AtomicInteger frames = new AtomicInteger();
+        final ResultReader resultReader = createResultReader(invocation -> {
+            if (frames.getAndIncrement() > 0) {
+                throw expectedException;
+            }
+            return writeRecords((IFrame) invocation.getArguments()[0], 0, 5);
+        });
+        sessionOutput.hold();
+        sessionOutput.out().print("{");
+        try {
+            rs.stream(resultReader);
+            Assert.fail("the failure to read the result should have been thrown");
+        } catch (HyracksDataException e) {
+            ResultUtil.printError(sessionOutput.out(), e, true);
+            printMetrics(sessionOutput.out(), 1);
+        }
+        sessionOutput.out().print("}");
+        sessionOutput.release();
+        out.flush();
+        final String resultStr = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertFalse(resultStr, resultStr.contains(AbstractQueryApiServlet.ResultFields.RESULTS.str()));
+        boolean exceptionThrown = false;
+        try {
+            ResultExtractor.extract(IOUtils.toInputStream(resultStr, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            exceptionThrown = true;
+            Assert.assertTrue(e.getMessage().contains(expectedException.getMessage()));
+        }
+        Assert.assertTrue(exceptionThrown);
+    }
+
+    /**
+     * Ensures that a large streamed result is sent to the client before it has been completely read.
+     */
+    @Test
+    public void streamLargeResult() throws Exception {
+        final int numFrames = 10;
+        final int recordsPerFrame = 20;
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final PrintWriter out = new PrintWriter(baos, true);
+        final SessionOutput sessionOutput = createSessionOutput(out);
+        final IStatementExecutor.Stats stats = new IStatementExecutor.Stats();
+        final ResultPrinter rs = new ResultPrinter(createAppContext(), sessionOutput, stats, null);
+        final AtomicInteger frames = new AtomicInteger();
+        final AtomicBoolean sentBeforeEnd = new AtomicBoolean();
+        final ResultReader resultReader = createResultReader(invocation -> {
+            int frame = frames.getAndIncrement();
+            if (frame == numFrames) {
+                sentBeforeEnd.set(baos.size() > 0);
+                return 0;
+            }
+            return writeRecords((IFrame) invocation.getArguments()[0], frame * recordsPerFrame, recordsPerFrame);
+        });
+        sessionOutput.hold();
+        sessionOutput.out().print("{");
+        rs.stream(resultReader);
+        printMetrics(sessionOutput.out(), 0);
+        sessionOutput.out().print("}");
+        sessionOutput.release();
+        out.flush();
+        Assert.assertTrue(sentBeforeEnd.get());
+        Assert.assertEquals(numFrames * recordsPerFrame, stats.getCount());
+        final String resultStr = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+        final String results =
+                IOUtils.toString(ResultExtractor.extract(IOUtils.toInputStream(resultStr, StandardCharsets.UTF_8)),
+                        StandardCharsets.UTF_8);
+        Assert.assertTrue(results, results.contains(String.valueOf(numFrames * recordsPerFrame - 1)));
+    }
+
+    private static IApplicationContext createAppContext() {
+        final IApplicationContext appCtx = Mockito.mock(IApplicationContext.class);
+        final CompilerProperties compilerProperties = Mockito.mock(CompilerProperties.class);
+        Mockito.when(appCtx.getCompilerProperties()).thenReturn(compilerProperties);
+        Mockito.when(compilerProperties.getFrameSize()).thenReturn(StorageUtil.getIntSizeInBytes(32, KILOBYTE));
+        return appCtx;
+    }
+
+    private static ResultReader createResultReader(Answer<Integer> read) throws HyracksDataException {
+        final ResultReader resultReader = Mockito.mock(ResultReader.class);
+        Mockito.when(resultReader.getFrameTupleAccessor()).thenReturn(new ResultFrameTupleAccessor());
+        Mockito.when(resultReader.read(Mockito.any(IFrame.class))).thenAnswer(read);
+        return resultReader;
+    }
+
+    /**
+     * Writes records of about 1KB to a frame.
+     *
+     * @return the size of the frame
+     */
+    private static int writeRecords(IFrame frame, int start, int count) throws HyracksDataException {
+        final FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        final ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        final String payload = StringUtils.repeat('x', 1000);
+        for (int i = start; i < start + count; i++) {
+            final byte[] record =
+                    ("{ \"id\": " + i + ", \"payload\": \"" + payload + "\" }").getBytes(StandardCharsets.UTF_8);
+            tb.reset();
+            tb.addField(record, 0, record.length);
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        return frame.getFrameSize();
+    }
+
     private static SessionOutput createSessionOutput(PrintWriter resultWriter) {
         SessionOutput.ResultDecorator resultPrefix = ResultUtil.createPreResultDecorator();
         SessionOutput.ResultDecorator resultPostfix = ResultUtil.createPostResultDecorator();
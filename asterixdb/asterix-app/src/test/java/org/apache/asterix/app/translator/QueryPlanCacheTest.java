@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.translator;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.asterix.lang.common.struct.VarIdentifier;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.translator.IStatementExecutor.ResultDelivery;
+import org.apache.asterix.translator.SessionConfig.OutputFormat;
+import org.apache.hyracks.api.client.IHyracksClientConnection;
+import org.apache.hyracks.api.dataset.ResultSetId;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class QueryPlanCacheTest {
+
+    private static final String QUERY = "SELECT VALUE x FROM ds x WHERE x.id = $id;";
+
+    @Test
+    public void admission() {
+        QueryPlanCache cache = new QueryPlanCache(Mockito.mock(IHyracksClientConnection.class), 2);
+        Assert.assertFalse(cache.admit(key(QUERY, new AInt64(1L))));
+        // a second execution with a different value of the same type is admitted
+        Assert.assertTrue(cache.admit(key(QUERY, new AInt64(2L))));
+        // a parameter of a different type needs a different job
+        Assert.assertFalse(cache.admit(key(QUERY, new AString("1"))));
+    }
+
+    @Test
+    public void commentsAreNotPartOfTheKey() {
+        QueryPlanCache cache = new QueryPlanCache(Mockito.mock(IHyracksClientConnection.class), 2);
+        Assert.assertFalse(cache.admit(key("// param id:json=1\n" + QUERY, new AInt64(1L))));
+        Assert.assertTrue(cache.admit(key("-- param id:json=2\r\n" + QUERY + " /* id = 2 */", new AInt64(2L))));
+        Assert.assertEquals(QUERY,
+                QueryPlanCache.Key.stripComments("// id = 1\n/* ids /* nested */ */" + QUERY + "-- id = 1"));
+        Assert.assertEquals("SELECT 1 FROM ds x;", QueryPlanCache.Key.stripComments("SELECT\t1\n  FROM ds x;\n"));
+        // hints, string literals and quoted identifiers are kept
+        String hinted = "SELECT VALUE x FROM ds x, ds y WHERE x.id /*+ indexnl */ = y.id;";
+        Assert.assertEquals(hinted, QueryPlanCache.Key.stripComments(hinted));
+        String literals = "SELECT VALUE 'it\\'s -- no comment' || \"/* \\\" */\" || `a//b` FROM ds x;";
+        Assert.assertEquals(literals, QueryPlanCache.Key.stripComments(literals));
+    }
+
+    @Test
+    public void uncacheableStatements() {
+        QueryPlanCache cache = new QueryPlanCache(Mockito.mock(IHyracksClientConnection.class), 2);
+        QueryPlanCache.Key key = key(QUERY, new AInt64(1L));
+        Assert.assertNull(cache.get(key, 0));
+        Assert.assertFalse(cache.admit(key));
+        Assert.assertTrue(cache.admit(key));
+        cache.markUncacheable(key);
+        // a statement that cannot be cached is not compiled for caching again
+        Assert.assertFalse(cache.admit(key));
+        Assert.assertFalse(cache.admit(key));
+        Assert.assertNull(cache.get(key, 0));
+        Assert.assertFalse(cache.admit(key));
+        // until the metadata changes
+        Assert.assertNull(cache.get(key, 1));
+        Assert.assertFalse(cache.admit(key));
+        Assert.assertTrue(cache.admit(key));
+    }
+
+    @Test
+    public void evictionUndeploysUnpinnedEntries() throws Exception {
+        IHyracksClientConnection hcc = Mockito.mock(IHyracksClientConnection.class);
+        QueryPlanCache cache = new QueryPlanCache(hcc, 1);
+        QueryPlanCache.Entry first = entry(1, 0);
+        cache.put(key("q1", new AInt64(1L)), first);
+        QueryPlanCache.Entry second = entry(2, 0);
+        cache.put(key("q2", new AInt64(1L)), second);
+        Assert.assertNull(cache.get(key("q1", new AInt64(1L)), 0));
+        // the evicted entry is still used by its execution
+        Mockito.verify(hcc, Mockito.never()).undeployJobSpec(first.getDeployedJobSpecId());
+        cache.release(first);
+        Mockito.verify(hcc).undeployJobSpec(first.getDeployedJobSpecId());
+        cache.release(second);
+        Assert.assertSame(second, cache.get(key("q2", new AInt64(5L)), 0));
+        cache.release(second);
+        Mockito.verify(hcc, Mockito.never()).undeployJobSpec(second.getDeployedJobSpecId());
+    }
+
+    @Test
+    public void invalidation() throws Exception {
+        IHyracksClientConnection hcc = Mockito.mock(IHyracksClientConnection.class);
+        QueryPlanCache cache = new QueryPlanCache(hcc, 4);
+        QueryPlanCache.Entry entry = entry(1, 0);
+        cache.put(key(QUERY, new AInt64(1L)), entry);
+        cache.release(entry);
+        // a metadata change invalidates all entries
+        Assert.assertNull(cache.get(key(QUERY, new AInt64(1L)), 1));
+        Mockito.verify(hcc).undeployJobSpec(entry.getDeployedJobSpecId());
+
+        entry = entry(2, 1);
+        cache.put(key(QUERY, new AInt64(1L)), entry);
+        cache.release(entry);
+        cache.notifyNodeFailure(Collections.singletonList("nc1"));
+        Assert.assertFalse(cache.isCurrent(entry, 1));
+        Assert.assertNull(cache.get(key(QUERY, new AInt64(1L)), 1));
+        Mockito.verify(hcc).undeployJobSpec(entry.getDeployedJobSpecId());
+
+        // a job compiled before the cluster changed is not cached
+        QueryPlanCache.Entry stale = entry(3, 1);
+        cache.notifyNodeJoin("nc1", Collections.emptyMap());
+        cache.put(key(QUERY, new AInt64(1L)), stale);
+        Assert.assertNull(cache.get(key(QUERY, new AInt64(1L)), 1));
+        cache.release(stale);
+        Mockito.verify(hcc).undeployJobSpec(stale.getDeployedJobSpecId());
+    }
+
+    private static QueryPlanCache.Key key(String query, IAObject value) {
+        Map<VarIdentifier, IAObject> externalVars = Collections.singletonMap(new VarIdentifier("$id"), value);
+        return new QueryPlanCache.Key(query, new ResultSetId(0), ResultDelivery.IMMEDIATE, 1, OutputFormat.CLEAN_JSON,
+                externalVars, null);
+    }
+
+    private static QueryPlanCache.Entry entry(long id, long metadataVersion) {
+        return new QueryPlanCache.Entry(new DeployedJobSpecId(id), Collections.emptyList(), metadataVersion, 0);
+    }
+}
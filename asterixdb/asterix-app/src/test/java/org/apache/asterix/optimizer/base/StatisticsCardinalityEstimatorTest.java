@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.base;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.config.DatasetConfig.IndexType;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.runtime.utils.StatisticsManager;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.constraints.AlgebricksAbsolutePartitionConstraint;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.functions.IFunctionInfo;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.algebricks.core.algebra.properties.ICardinalityEstimator;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StatisticsCardinalityEstimatorTest {
+
+    private static final int DATASET_ID = 101;
+    private static final String DATAVERSE = "test";
+    private static final String DATASET = "ds";
+    private static final String INDEX = "idx_name";
+    private static final int NUM_RECORDS = 1000;
+    private static final int NUM_DELETED = 10;
+    private static final int NUM_NAMES = 50;
+
+    private final StatisticsCardinalityEstimator estimator = StatisticsCardinalityEstimator.INSTANCE;
+    private final StatisticsManager statisticsManager = new StatisticsManager();
+    private final LogicalVariable pk = new LogicalVariable(1);
+    private final LogicalVariable rec = new LogicalVariable(2);
+    private final LogicalVariable name = new LogicalVariable(3);
+    private final LogicalVariable age = new LogicalVariable(4);
+    private IOptimizationContext context;
+    private DataSourceScanOperator scan;
+    private AssignOperator assign;
+
+    @Before
+    public void setUp() throws Exception {
+        Dataset dataset = mock(Dataset.class);
+        when(dataset.getDatasetType()).thenReturn(DatasetType.INTERNAL);
+        when(dataset.getDatasetId()).thenReturn(DATASET_ID);
+        when(dataset.getDataverseName()).thenReturn(DATAVERSE);
+        when(dataset.getDatasetName()).thenReturn(DATASET);
+        when(dataset.getPrimaryKeys()).thenReturn(Collections.singletonList(Collections.singletonList("id")));
+        DatasetDataSource dataSource = mock(DatasetDataSource.class);
+        when(dataSource.getDataset()).thenReturn(dataset);
+        when(dataSource.getPrimaryKeyVariables(any())).thenReturn(Collections.singletonList(pk));
+        when(dataSource.getDataRecordVariable(any())).thenReturn(rec);
+
+        Index primaryIndex = mock(Index.class);
+        when(primaryIndex.isPrimaryIndex()).thenReturn(true);
+        when(primaryIndex.getIndexName()).thenReturn(DATASET);
+        Index secondaryIndex = mock(Index.class);
+        when(secondaryIndex.getIndexType()).thenReturn(IndexType.BTREE);
+        when(secondaryIndex.getIndexName()).thenReturn(INDEX);
+        when(secondaryIndex.getKeyFieldNames())
+                .thenReturn(Collections.singletonList(Collections.singletonList("name")));
+
+        ICcApplicationContext appCtx = mock(ICcApplicationContext.class);
+        when(appCtx.getStatisticsManager()).thenReturn(statisticsManager);
+        MetadataProvider metadataProvider = mock(MetadataProvider.class);
+        when(metadataProvider.getApplicationContext()).thenReturn(appCtx);
+        when(metadataProvider.getDatasetIndexes(DATAVERSE, DATASET))
+                .thenReturn(Arrays.asList(primaryIndex, secondaryIndex));
+        when(metadataProvider.getClusterLocations())
+                .thenReturn(new AlgebricksAbsolutePartitionConstraint(new String[] { "nc1", "nc1", "nc2", "nc2" }));
+        context = mock(IOptimizationContext.class);
+        doReturn(metadataProvider).when(context).getMetadataProvider();
+
+        scan = new DataSourceScanOperator(Arrays.asList(pk, rec), dataSource);
+        assign = new AssignOperator(Arrays.asList(name, age),
+                Arrays.asList(new MutableObject<>(fieldAccess("name")), new MutableObject<>(fieldAccess("age"))));
+        assign.getInputs().add(new MutableObject<>(scan));
+    }
+
+    @Test
+    public void testWithoutStatistics() throws Exception {
+        Assert.assertEquals(ICardinalityEstimator.UNKNOWN, estimator.getCardinality(scan, context));
+        Assert.assertEquals(ICardinalityEstimator.UNKNOWN, estimator.getCardinality(assign, context));
+        Assert.assertEquals(ICardinalityEstimator.UNKNOWN, estimator.getDistinctValues(pk, scan, context));
+        Assert.assertEquals(ICardinalityEstimator.UNKNOWN,
+                estimator.getCardinality(select(AlgebricksBuiltinFunctions.EQ, pk, new AInt64(5L)), context));
+    }
+
+    @Test
+    public void testScanCardinality() throws Exception {
+        reportStatistics();
+        // deleted records (antimatter tuples) are not counted
+        Assert.assertEquals(NUM_RECORDS - NUM_DELETED, estimator.getCardinality(scan, context));
+        Assert.assertEquals(NUM_RECORDS - NUM_DELETED, estimator.getCardinality(assign, context));
+        Assert.assertEquals(4, estimator.getNumPartitions(context));
+    }
+
+    @Test
+    public void testDistinctValues() throws Exception {
+        reportStatistics();
+        // the distinct values of a primary key are capped by the number of records
+        long pkValues = estimator.getDistinctValues(pk, assign, context);
+        Assert.assertTrue(String.valueOf(pkValues), pkValues <= NUM_RECORDS - NUM_DELETED);
+        Assert.assertEquals(NUM_RECORDS, pkValues, NUM_RECORDS * 0.1);
+        // the distinct values of an indexed field come from the secondary index
+        Assert.assertEquals(NUM_NAMES, estimator.getDistinctValues(name, assign, context), NUM_NAMES * 0.1);
+        // there are no statistics for fields that are not indexed
+        Assert.assertEquals(ICardinalityEstimator.UNKNOWN, estimator.getDistinctValues(age, assign, context));
+    }
+
+    @Test
+    public void testSelectCardinality() throws Exception {
+        reportStatistics();
+        long records = NUM_RECORDS - NUM_DELETED;
+        // an equality on the primary key selects about one record
+        long pkEquality = estimator.getCardinality(select(AlgebricksBuiltinFunctions.EQ, pk, new AInt64(5L)), context);
+        Assert.assertTrue(String.valueOf(pkEquality), pkEquality >= 1 && pkEquality <= 2);
+        // an equality on an indexed field selects records / distinct values
+        long nameEquality =
+                estimator.getCardinality(select(AlgebricksBuiltinFunctions.EQ, name, new AString("n1")), context);
+        Assert.assertEquals((double) records / NUM_NAMES, nameEquality, records / NUM_NAMES * 0.15);
+        // equalities on fields without statistics and ranges use default selectivities
+        Assert.assertEquals((long) Math.ceil(records * 0.1),
+                estimator.getCardinality(select(AlgebricksBuiltinFunctions.EQ, age, new AInt64(30L)), context));
+        Assert.assertEquals((long) Math.ceil(records * (1.0 / 3.0)),
+                estimator.getCardinality(select(AlgebricksBuiltinFunctions.LT, pk, new AInt64(5L)), context));
+    }
+
+    @Test
+    public void testIndexProbeKeys() throws Exception {
+        Assert.assertTrue(estimator.isIndexProbeKey(pk, scan, context));
+        Assert.assertTrue(estimator.isIndexProbeKey(name, assign, context));
+        Assert.assertFalse(estimator.isIndexProbeKey(age, assign, context));
+    }
+
+    private void reportStatistics() {
+        ComponentStatistics primary = new ComponentStatistics(1);
+        ComponentStatistics secondary = new ComponentStatistics(1);
+        byte[][] fieldData = { new byte[Integer.BYTES] };
+        int[] fieldStarts = { 0 };
+        int[] fieldLengths = { Integer.BYTES };
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            IntegerPointable.setInteger(fieldData[0], 0, i);
+            primary.addTuple(fieldData, fieldStarts, fieldLengths);
+            IntegerPointable.setInteger(fieldData[0], 0, i % NUM_NAMES);
+            secondary.addTuple(fieldData, fieldStarts, fieldLengths);
+        }
+        for (int i = 0; i < NUM_DELETED; i++) {
+            primary.addAntimatterTuple();
+        }
+        statisticsManager.update(DATASET_ID, DATASET, 0, new LSMComponentId(1, 1), primary, Collections.emptyList());
+        statisticsManager.update(DATASET_ID, INDEX, 0, new LSMComponentId(1, 1), secondary, Collections.emptyList());
+    }
+
+    private ILogicalOperator select(FunctionIdentifier comparison, LogicalVariable var, IAObject value) {
+        SelectOperator select = new SelectOperator(
+                new MutableObject<>(new ScalarFunctionCallExpression(functionInfo(comparison),
+                        new MutableObject<>(new VariableReferenceExpression(var)),
+                        new MutableObject<>(new ConstantExpression(new AsterixConstantValue(value))))),
+                false, null);
+        select.getInputs().add(new MutableObject<>(assign));
+        return select;
+    }
+
+    private ILogicalExpression fieldAccess(String fieldName) {
+        return new ScalarFunctionCallExpression(
+                BuiltinFunctions.getAsterixFunctionInfo(BuiltinFunctions.FIELD_ACCESS_BY_NAME),
+                new MutableObject<>(new VariableReferenceExpression(rec)),
+                new MutableObject<>(new ConstantExpression(new AsterixConstantValue(new AString(fieldName)))));
+    }
+
+    private static IFunctionInfo functionInfo(FunctionIdentifier fid) {
+        return () -> fid;
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.asterix.common.replication.IReplicationChannel;
 import org.apache.asterix.common.replication.IReplicationManager;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
 import org.apache.asterix.common.storage.IReplicaManager;
+import org.apache.asterix.common.storage.IStatisticsReporter;
 import org.apache.asterix.common.transactions.IRecoveryManagerFactory;
 import org.apache.asterix.common.transactions.ITransactionSubsystem;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
@@ -121,5 +122,7 @@ public interface INcApplicationContext extends IApplicationContext {
 
     IReplicaManager getReplicaManager();
 
+    IStatisticsReporter getStatisticsReporter();
+
     long getMaxTxnId();
 }
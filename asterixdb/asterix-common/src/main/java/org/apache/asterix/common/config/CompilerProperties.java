@@ -46,6 +46,10 @@ public class CompilerProperties extends AbstractProperties {
                 LONG_BYTE_UNIT,
                 StorageUtil.getLongSizeInBytes(32L, MEGABYTE),
                 "The memory budget (in bytes) for an inverted-index-search operator instance in a partition"),
+        COMPILER_WINDOWMEMORY(
+                LONG_BYTE_UNIT,
+                StorageUtil.getLongSizeInBytes(32L, MEGABYTE),
+                "The memory budget (in bytes) for a window operator instance in a partition"),
         COMPILER_FRAMESIZE(
                 INTEGER_BYTE_UNIT,
                 StorageUtil.getIntSizeInBytes(32, KILOBYTE),
@@ -58,6 +62,25 @@ public class CompilerProperties extends AbstractProperties {
                         + "other integer values dictate the number of query execution parallel partitions. The system will "
                         + "fall back to use the number of all available CPU cores in the cluster as the degree of parallelism "
                         + "if the number set by a user is too large or too small"),
+        COMPILER_PLANCACHESIZE(
+                INTEGER,
+                128,
+                "The maximum number of compiled query jobs that are cached and reused by repeated executions of "
+                        + "the same query, with the same or with different parameter values (0 disables the cache)"),
+        COMPILER_SORT_PARALLEL(
+                BOOLEAN,
+                false,
+                "Whether a global sort is executed in parallel by range partitioning its input on the sort keys, "
+                        + "with the ranges computed from a sample of the input"),
+        COMPILER_SORT_SAMPLES(
+                INTEGER,
+                100,
+                "The number of tuples that each partition samples to compute the ranges of a parallel sort"),
+        COMPILER_SORTMERGEJOIN(
+                BOOLEAN,
+                false,
+                "Whether an equi-join is executed as a sort-merge join when both of its inputs are already sorted on "
+                        + "the join keys"),
         COMPILER_STRINGOFFSET(INTEGER, 0, "Position of a first character in a String/Binary (0 or 1)");
 
         private final IOptionType type;
@@ -104,8 +127,16 @@ public class CompilerProperties extends AbstractProperties {
 
     public static final String COMPILER_TEXTSEARCHMEMORY_KEY = Option.COMPILER_TEXTSEARCHMEMORY.ini();
 
+    public static final String COMPILER_WINDOWMEMORY_KEY = Option.COMPILER_WINDOWMEMORY.ini();
+
     public static final String COMPILER_PARALLELISM_KEY = Option.COMPILER_PARALLELISM.ini();
 
+    public static final String COMPILER_SORT_PARALLEL_KEY = Option.COMPILER_SORT_PARALLEL.ini();
+
+    public static final String COMPILER_SORT_SAMPLES_KEY = Option.COMPILER_SORT_SAMPLES.ini();
+
+    public static final String COMPILER_SORTMERGEJOIN_KEY = Option.COMPILER_SORTMERGEJOIN.ini();
+
     public static final int COMPILER_PARALLELISM_AS_STORAGE = 0;
 
     public CompilerProperties(PropertiesAccessor accessor) {
@@ -128,6 +159,10 @@ public class CompilerProperties extends AbstractProperties {
         return accessor.getLong(Option.COMPILER_TEXTSEARCHMEMORY);
     }
 
+    public long getWindowMemorySize() {
+        return accessor.getLong(Option.COMPILER_WINDOWMEMORY);
+    }
+
     public int getFrameSize() {
         return accessor.getInt(Option.COMPILER_FRAMESIZE);
     }
@@ -136,6 +171,22 @@ public class CompilerProperties extends AbstractProperties {
         return accessor.getInt(Option.COMPILER_PARALLELISM);
     }
 
+    public boolean getSortParallel() {
+        return accessor.getBoolean(Option.COMPILER_SORT_PARALLEL);
+    }
+
+    public int getSortSamples() {
+        return accessor.getInt(Option.COMPILER_SORT_SAMPLES);
+    }
+
+    public boolean getSortMergeJoin() {
+        return accessor.getBoolean(Option.COMPILER_SORTMERGEJOIN);
+    }
+
+    public int getPlanCacheSize() {
+        return accessor.getInt(Option.COMPILER_PLANCACHESIZE);
+    }
+
     public int getStringOffset() {
         int value = accessor.getInt(Option.COMPILER_STRINGOFFSET);
         return value > 0 ? 1 : 0;
@@ -43,6 +43,11 @@ public class NodeProperties extends AbstractProperties {
                 appConfig -> FileUtil.joinPath(appConfig.getString(ControllerConfig.Option.DEFAULT_DIR), "txn-log"),
                 "The directory where transaction logs should be stored",
                 "<value of " + ControllerConfig.Option.DEFAULT_DIR.cmdline() + ">/txn-log"),
+        TXN_LOG_STRIPE_DIRS(
+                OptionTypes.STRING_ARRAY,
+                new String[0],
+                "Additional directories, ideally on separate devices, across which the transaction logs are striped. "
+                        + "The directories must not change while transaction log files exist"),
         STARTING_PARTITION_ID(
                 OptionTypes.INTEGER,
                 -1,
@@ -22,6 +22,7 @@ import static org.apache.hyracks.control.common.config.OptionTypes.DOUBLE;
 import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
+import static org.apache.hyracks.control.common.config.OptionTypes.STRING;
 import static org.apache.hyracks.util.StorageUtil.StorageUnit.KILOBYTE;
 
 import java.util.function.Function;
@@ -36,16 +37,29 @@ import org.apache.hyracks.util.StorageUtil;
 
 public class StorageProperties extends AbstractProperties {
 
+    public static final String BUFFER_CACHE_REPLACEMENT_POLICY_CLOCK = "clock";
+    public static final String BUFFER_CACHE_REPLACEMENT_POLICY_2Q = "2q";
+    public static final String IO_SCHEDULER_ASYNC = "async";
+    public static final String IO_SCHEDULER_PRIORITIZED = "prioritized";
+    public static final String MEMORY_COMPONENT_INDEX_BTREE = "btree";
+    public static final String MEMORY_COMPONENT_INDEX_SKIPLIST = "skiplist";
+
     public enum Option implements IOption {
         STORAGE_BUFFERCACHE_PAGESIZE(INTEGER_BYTE_UNIT, StorageUtil.getIntSizeInBytes(128, KILOBYTE)),
         // By default, uses 1/4 of the maximum heap size for read cache, i.e., disk buffer cache.
         STORAGE_BUFFERCACHE_SIZE(LONG_BYTE_UNIT, Runtime.getRuntime().maxMemory() / 4),
         STORAGE_BUFFERCACHE_MAXOPENFILES(INTEGER, Integer.MAX_VALUE),
+        STORAGE_BUFFERCACHE_REPLACEMENTPOLICY(STRING, BUFFER_CACHE_REPLACEMENT_POLICY_CLOCK),
         STORAGE_MEMORYCOMPONENT_GLOBALBUDGET(LONG_BYTE_UNIT, Runtime.getRuntime().maxMemory() / 4),
         STORAGE_MEMORYCOMPONENT_PAGESIZE(INTEGER_BYTE_UNIT, StorageUtil.getIntSizeInBytes(128, KILOBYTE)),
         STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS(INTEGER, 2),
+        STORAGE_MEMORYCOMPONENT_INDEX(STRING, MEMORY_COMPONENT_INDEX_BTREE),
         STORAGE_METADATA_MEMORYCOMPONENT_NUMPAGES(INTEGER, 8),
         STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE(DOUBLE, 0.01d),
+        STORAGE_IO_SCHEDULER(STRING, IO_SCHEDULER_ASYNC),
+        STORAGE_IO_MAXRUNNINGOPERATIONS(INTEGER, 8),
+        STORAGE_IO_MAXRUNNINGMERGES(INTEGER, 4),
+        STORAGE_IO_MERGEWRITERATE(LONG_BYTE_UNIT, 0L),
         STORAGE_MAX_ACTIVE_WRITABLE_DATASETS(INTEGER, 8);
 
         private final IOptionType interpreter;
@@ -58,7 +72,7 @@ public class StorageProperties extends AbstractProperties {
 
         @Override
         public Section section() {
-            if (this == STORAGE_MAX_ACTIVE_WRITABLE_DATASETS) {
+            if (this == STORAGE_MAX_ACTIVE_WRITABLE_DATASETS || this == STORAGE_MEMORYCOMPONENT_INDEX) {
                 return Section.COMMON;
             }
             return Section.NC;
@@ -74,6 +88,9 @@ public class StorageProperties extends AbstractProperties {
                             + " of the buffer cache page size.";
                 case STORAGE_BUFFERCACHE_MAXOPENFILES:
                     return "The maximum number of open files in the buffer cache";
+                case STORAGE_BUFFERCACHE_REPLACEMENTPOLICY:
+                    return "The page replacement policy of the buffer cache: \"clock\", or \"2q\" to keep pages "
+                            + "read by scans and merges from displacing frequently accessed pages";
                 case STORAGE_MEMORYCOMPONENT_GLOBALBUDGET:
                     return "The size of memory allocated to the memory components.  The value should be a multiple "
                             + "of the memory component page size";
@@ -81,10 +98,25 @@ public class StorageProperties extends AbstractProperties {
                     return "The page size in bytes for pages allocated to memory components";
                 case STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS:
                     return "The number of memory components to be used per lsm index";
+                case STORAGE_MEMORYCOMPONENT_INDEX:
+                    return "The structure of the memory components of newly created LSM B-tree indexes: \"btree\", "
+                            + "or \"skiplist\" for latch-free concurrent skip lists";
                 case STORAGE_METADATA_MEMORYCOMPONENT_NUMPAGES:
                     return "The number of pages to allocate for a metadata memory component";
                 case STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE:
                     return "The maximum acceptable false positive rate for bloom filters associated with LSM indexes";
+                case STORAGE_IO_SCHEDULER:
+                    return "The scheduler of LSM flushes and merges: \"async\" to start every operation right away, "
+                            + "or \"prioritized\" to run them within a budget with flushes ahead of merges";
+                case STORAGE_IO_MAXRUNNINGOPERATIONS:
+                    return "The maximum number of flushes and merges running at the same time with the prioritized "
+                            + "IO scheduler";
+                case STORAGE_IO_MAXRUNNINGMERGES:
+                    return "The maximum number of merges running at the same time with the prioritized IO scheduler. "
+                            + "The value should be less than storage.io.maxrunningoperations";
+                case STORAGE_IO_MERGEWRITERATE:
+                    return "The maximum number of bytes per second written by merges with the prioritized IO "
+                            + "scheduler, or 0 for no limit";
                 case STORAGE_MAX_ACTIVE_WRITABLE_DATASETS:
                     return "The maximum number of datasets that can be concurrently modified";
                 default:
@@ -129,6 +161,26 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getInt(Option.STORAGE_BUFFERCACHE_MAXOPENFILES);
     }
 
+    public String getBufferCacheReplacementPolicy() {
+        return accessor.getString(Option.STORAGE_BUFFERCACHE_REPLACEMENTPOLICY);
+    }
+
+    public String getIoScheduler() {
+        return accessor.getString(Option.STORAGE_IO_SCHEDULER);
+    }
+
+    public int getIoMaxRunningOperations() {
+        return accessor.getInt(Option.STORAGE_IO_MAXRUNNINGOPERATIONS);
+    }
+
+    public int getIoMaxRunningMerges() {
+        return accessor.getInt(Option.STORAGE_IO_MAXRUNNINGMERGES);
+    }
+
+    public long getIoMergeWriteRate() {
+        return accessor.getLong(Option.STORAGE_IO_MERGEWRITERATE);
+    }
+
     public int getMemoryComponentPageSize() {
         return accessor.getInt(Option.STORAGE_MEMORYCOMPONENT_PAGESIZE);
     }
@@ -149,6 +201,10 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getInt(Option.STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS);
     }
 
+    public String getMemoryComponentIndex() {
+        return accessor.getString(Option.STORAGE_MEMORYCOMPONENT_INDEX);
+    }
+
     public long getMemoryComponentGlobalBudget() {
         return accessor.getLong(Option.STORAGE_MEMORYCOMPONENT_GLOBALBUDGET);
     }
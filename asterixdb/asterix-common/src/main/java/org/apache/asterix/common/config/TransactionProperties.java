@@ -54,6 +54,12 @@ public class TransactionProperties extends AbstractProperties {
                 120,
                 "The frequency (in seconds) the checkpoint thread should check to see if a checkpoint should be written"),
         TXN_LOG_CHECKPOINT_HISTORY(INTEGER, 0, "The number of checkpoints to keep in the transaction log"),
+        TXN_LOG_GROUPCOMMIT_MAXDELAY(
+                INTEGER,
+                0,
+                "The maximum time (in microseconds) the transaction log waits for more commits before a force, so "
+                        + "that concurrent commits share a single force. The log only waits while forces are shared "
+                        + "by several commits. 0 disables the wait"),
         TXN_LOCK_ESCALATIONTHRESHOLD(
                 INTEGER,
                 1000,
@@ -142,6 +148,14 @@ public class TransactionProperties extends AbstractProperties {
         return accessor.getInt(Option.TXN_LOG_CHECKPOINT_HISTORY);
     }
 
+    public int getLogGroupCommitMaxDelay() {
+        return accessor.getInt(Option.TXN_LOG_GROUPCOMMIT_MAXDELAY);
+    }
+
+    public String[] getLogStripeDirectories(String nodeId) {
+        return accessor.getTransactionLogStripeDirs().get(nodeId);
+    }
+
     public int getEntityToDatasetLockEscalationThreshold() {
         return accessor.getInt(Option.TXN_LOCK_ESCALATIONTHRESHOLD);
     }
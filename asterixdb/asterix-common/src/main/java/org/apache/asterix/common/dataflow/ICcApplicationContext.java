@@ -21,6 +21,7 @@ package org.apache.asterix.common.dataflow;
 import org.apache.asterix.common.api.IApplicationContext;
 import org.apache.asterix.common.api.IMetadataLockManager;
 import org.apache.asterix.common.api.INodeJobTracker;
+import org.apache.asterix.common.api.IQueryPlanCache;
 import org.apache.asterix.common.transactions.ITxnIdFactory;
 import org.apache.asterix.common.cluster.IClusterStateManager;
 import org.apache.asterix.common.cluster.IGlobalRecoveryManager;
@@ -28,6 +29,7 @@ import org.apache.asterix.common.config.ExtensionProperties;
 import org.apache.asterix.common.context.IStorageComponentProvider;
 import org.apache.asterix.common.metadata.IMetadataBootstrap;
 import org.apache.asterix.common.replication.INcLifecycleCoordinator;
+import org.apache.asterix.common.storage.IStatisticsManager;
 import org.apache.asterix.common.transactions.IResourceIdManager;
 import org.apache.hyracks.api.application.ICCServiceContext;
 import org.apache.hyracks.api.job.IJobLifecycleListener;
@@ -127,4 +129,21 @@ public interface ICcApplicationContext extends IApplicationContext {
      * @return the transaction id factory
      */
     ITxnIdFactory getTxnIdFactory();
+
+    /**
+     * @return the statistics manager
+     */
+    IStatisticsManager getStatisticsManager();
+
+    /**
+     * @return the cache of compiled query jobs
+     */
+    IQueryPlanCache getQueryPlanCache();
+
+    /**
+     * Set the cache of compiled query jobs
+     *
+     * @param queryPlanCache
+     */
+    void setQueryPlanCache(IQueryPlanCache queryPlanCache);
 }
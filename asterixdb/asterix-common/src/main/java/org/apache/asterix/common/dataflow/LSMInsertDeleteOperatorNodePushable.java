@@ -19,8 +19,11 @@
 package org.apache.asterix.common.dataflow;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.transactions.IBatchLockOperationCallback;
 import org.apache.asterix.common.transactions.ILogMarkerCallback;
 import org.apache.asterix.common.transactions.PrimaryIndexLogMarkerCallback;
 import org.apache.hyracks.api.comm.VSizeFrame;
@@ -34,24 +37,41 @@ import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
 import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
 import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
 import org.apache.hyracks.dataflow.common.utils.TaskUtil;
+import org.apache.hyracks.storage.am.btree.impls.BatchPredicate;
 import org.apache.hyracks.storage.am.common.api.IModificationOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.api.ITupleFilterFactory;
 import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
 import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeBatchPointSearchCursor;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeOpContext;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.dataflow.LSMIndexInsertUpdateDeleteOperatorNodePushable;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.apache.hyracks.storage.common.MultiComparator;
 
 public class LSMInsertDeleteOperatorNodePushable extends LSMIndexInsertUpdateDeleteOperatorNodePushable {
 
     public static final String KEY_INDEX = "Index";
     private final boolean isPrimary;
     private final SourceLocation sourceLoc;
+    private final int[] fieldPermutation;
     // This class has both lsmIndex and index (in super class) pointing to the same object
     private AbstractLSMIndex lsmIndex;
+    private IBatchLockOperationCallback batchLockCallback;
+    // the lookup of the keys of a frame before the tuples of a primary index insert enter the components
+    private BatchPredicate batchPredicate;
+    private ILSMIndexAccessor batchAccessor;
+    private LSMBTreeBatchPointSearchCursor batchCursor;
+    private LSMBTreeOpContext insertOpCtx;
+    private final List<ILSMComponent> lookedUpComponents = new ArrayList<>();
+    private boolean[] keyAbsent = new boolean[0];
     private int i = 0;
 
     /**
@@ -76,6 +96,7 @@ public class LSMInsertDeleteOperatorNodePushable extends LSMIndexInsertUpdateDel
                 tupleFilterFactory);
         this.isPrimary = isPrimary;
         this.sourceLoc = sourceLoc;
+        this.fieldPermutation = fieldPermutation;
     }
 
     @Override
@@ -93,8 +114,14 @@ public class LSMInsertDeleteOperatorNodePushable extends LSMIndexInsertUpdateDel
             writer.open();
             modCallback =
                     modOpCallbackFactory.createModificationOperationCallback(indexHelper.getResource(), ctx, this);
+            if (isPrimary && modCallback instanceof IBatchLockOperationCallback) {
+                batchLockCallback = (IBatchLockOperationCallback) modCallback;
+            }
             IIndexAccessParameters iap = new IndexAccessParameters(modCallback, NoOpOperationCallback.INSTANCE);
             indexAccessor = lsmIndex.createAccessor(iap);
+            if (isPrimary && op == IndexOperation.INSERT && lsmIndex instanceof LSMBTree) {
+                createBatchLookup();
+            }
             if (tupleFilterFactory != null) {
                 tupleFilter = tupleFilterFactory.createTupleFilter(ctx);
                 frameTuple = new FrameTupleReference();
@@ -116,7 +143,13 @@ public class LSMInsertDeleteOperatorNodePushable extends LSMIndexInsertUpdateDel
         accessor.reset(buffer);
         ILSMIndexAccessor lsmAccessor = (ILSMIndexAccessor) indexAccessor;
         int tupleCount = accessor.getTupleCount();
+        if (batchLockCallback != null) {
+            lockBatch(tupleCount);
+        }
         try {
+            if (batchCursor != null) {
+                lookUpKeys(tupleCount);
+            }
             for (; i < tupleCount; i++, currentTupleIdx++) {
                 if (tupleFilter != null) {
                     frameTuple.reset(accessor, i);
@@ -127,6 +160,9 @@ public class LSMInsertDeleteOperatorNodePushable extends LSMIndexInsertUpdateDel
                 tuple.reset(accessor, i);
                 switch (op) {
                     case INSERT:
+                        if (insertOpCtx != null) {
+                            insertOpCtx.setKeyAbsentComponents(keyAbsent[i] ? lookedUpComponents : null);
+                        }
                         if (i == 0 && isPrimary) {
                             lsmAccessor.insert(tuple);
                         } else {
@@ -154,6 +190,10 @@ public class LSMInsertDeleteOperatorNodePushable extends LSMIndexInsertUpdateDel
             }
         } catch (Exception e) {
             throw HyracksDataException.create(ErrorCode.ERROR_PROCESSING_TUPLE, e, sourceLoc, i);
+        } finally {
+            if (batchLockCallback != null) {
+                batchLockCallback.endBatch();
+            }
         }
 
         writeBuffer.ensureFrameSize(buffer.capacity());
@@ -166,6 +206,58 @@ public class LSMInsertDeleteOperatorNodePushable extends LSMIndexInsertUpdateDel
         i = 0;
     }
 
+    private void createBatchLookup() throws HyracksDataException {
+        LSMBTree btree = (LSMBTree) lsmIndex;
+        int[] keyFields = new int[btree.getComparatorFactories().length];
+        System.arraycopy(fieldPermutation, 0, keyFields, 0, keyFields.length);
+        batchPredicate = new BatchPredicate(keyFields, MultiComparator.create(btree.getComparatorFactories()));
+        // the lookup of a frame has its own accessor, since it searches while the insert accessor is modifying
+        batchAccessor = (ILSMIndexAccessor) btree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        batchCursor = new LSMBTreeBatchPointSearchCursor(((LSMTreeIndexAccessor) batchAccessor).getCtx());
+        insertOpCtx = (LSMBTreeOpContext) ((LSMTreeIndexAccessor) indexAccessor).getCtx();
+    }
+
+    /**
+     * Looks up the keys of the frame in key order with one cursor, before the tuples enter the components one at a
+     * time. The duplicate check of the insert of a key that is not found does not search the looked up disk
+     * components again; a key that is found is checked as usual, since it may have been deleted in the meantime.
+     */
+    private void lookUpKeys(int tupleCount) throws HyracksDataException {
+        if (keyAbsent.length < tupleCount) {
+            keyAbsent = new boolean[tupleCount];
+        }
+        lookedUpComponents.clear();
+        batchPredicate.reset(accessor);
+        batchAccessor.search(batchCursor, batchPredicate);
+        try {
+            batchCursor.getDiskComponents(lookedUpComponents);
+            while (batchCursor.hasNext()) {
+                batchCursor.next();
+                keyAbsent[batchCursor.getKeyIndex()] = !batchCursor.find();
+            }
+        } finally {
+            batchCursor.close();
+        }
+    }
+
+    /**
+     * Locks the keys of the tuples of the frame with one call of the lock manager. If a key cannot be locked, the
+     * keys are locked one at a time by the modification callback, following the deadlock-free locking protocol.
+     */
+    private void lockBatch(int tupleCount) throws HyracksDataException {
+        for (int j = i; j < tupleCount; j++) {
+            if (tupleFilter != null) {
+                frameTuple.reset(accessor, j);
+                if (!tupleFilter.accept(frameTuple)) {
+                    continue;
+                }
+            }
+            tuple.reset(accessor, j);
+            batchLockCallback.addToBatch(tuple);
+        }
+        batchLockCallback.lockBatch();
+    }
+
     /**
      * flushes tuples in a frame from lastFlushedTupleIdx(inclusive) to currentTupleIdx(exclusive)
      */
@@ -187,9 +279,15 @@ public class LSMInsertDeleteOperatorNodePushable extends LSMIndexInsertUpdateDel
     public void close() throws HyracksDataException {
         if (lsmIndex != null) {
             try {
-                indexHelper.close();
+                if (batchCursor != null) {
+                    batchCursor.destroy();
+                }
             } finally {
-                writer.close();
+                try {
+                    indexHelper.close();
+                } finally {
+                    writer.close();
+                }
             }
         }
     }
@@ -20,6 +20,7 @@
 package org.apache.asterix.common.ioopcallbacks;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
@@ -27,6 +28,7 @@ import java.util.Map;
 
 import org.apache.asterix.common.context.DatasetInfo;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
+import org.apache.asterix.common.storage.IStatisticsReporter;
 import org.apache.asterix.common.storage.ResourceReference;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
@@ -45,7 +47,9 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMemoryComponent;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexFileManager;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
 import org.apache.hyracks.storage.am.lsm.common.impls.DiskComponentMetadata;
+import org.apache.hyracks.storage.am.lsm.common.impls.EmptyComponent;
 import org.apache.hyracks.storage.am.lsm.common.impls.FlushOperation;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentId;
 import org.apache.hyracks.storage.am.lsm.common.util.ComponentUtils;
@@ -66,6 +70,7 @@ public class LSMIOOperationCallback implements ILSMIOOperationCallback {
     public static final long INVALID_LSN = -1L;
     private final ArrayBackedValueStorage buffer = new ArrayBackedValueStorage(Long.BYTES);
     private final IIndexCheckpointManagerProvider indexCheckpointManagerProvider;
+    private final IStatisticsReporter statisticsReporter;
     protected final DatasetInfo dsInfo;
     protected final ILSMIndex lsmIndex;
     private long firstLsnForCurrentMemoryComponent = 0L;
@@ -75,9 +80,15 @@ public class LSMIOOperationCallback implements ILSMIOOperationCallback {
 
     public LSMIOOperationCallback(DatasetInfo dsInfo, ILSMIndex lsmIndex, ILSMComponentId nextComponentId,
             IIndexCheckpointManagerProvider indexCheckpointManagerProvider) {
+        this(dsInfo, lsmIndex, nextComponentId, indexCheckpointManagerProvider, null);
+    }
+
+    public LSMIOOperationCallback(DatasetInfo dsInfo, ILSMIndex lsmIndex, ILSMComponentId nextComponentId,
+            IIndexCheckpointManagerProvider indexCheckpointManagerProvider, IStatisticsReporter statisticsReporter) {
         this.dsInfo = dsInfo;
         this.lsmIndex = lsmIndex;
         this.indexCheckpointManagerProvider = indexCheckpointManagerProvider;
+        this.statisticsReporter = statisticsReporter;
         componentIds.add(nextComponentId);
     }
 
@@ -122,6 +133,32 @@ public class LSMIOOperationCallback implements ILSMIOOperationCallback {
                 || operation.getIOOpertionType() == LSMIOOperationType.LOAD) {
             addComponentToCheckpoint(operation);
         }
+        if (statisticsReporter != null && (operation.getIOOpertionType() == LSMIOOperationType.FLUSH
+                || operation.getIOOpertionType() == LSMIOOperationType.MERGE)) {
+            reportStatistics(operation);
+        }
+    }
+
+    private void reportStatistics(ILSMIOOperation operation) throws HyracksDataException {
+        // only the new component is reported, the cluster controller keeps the statistics of the other components
+        ILSMDiskComponent newComponent = operation.getNewComponent();
+        ILSMComponentId newComponentId = null;
+        ComponentStatistics statistics = null;
+        if (newComponent != null && newComponent != EmptyComponent.INSTANCE) {
+            statistics = ComponentStatistics.read(newComponent.getMetadata());
+            newComponentId = statistics != null ? newComponent.getId() : null;
+        }
+        List<ILSMComponentId> replacedComponentIds = new ArrayList<>();
+        if (operation.getIOOpertionType() == LSMIOOperationType.MERGE) {
+            for (ILSMDiskComponent mergedComponent : operation.getAccessor().getOpContext().getComponentsToBeMerged()) {
+                replacedComponentIds.add(mergedComponent.getId());
+            }
+        }
+        if (statistics != null || !replacedComponentIds.isEmpty()) {
+            ResourceReference ref = ResourceReference.of(operation.getTarget().getAbsolutePath());
+            statisticsReporter.report(dsInfo.getDatasetID(), ref.getIndex(), ref.getPartitionNum(), newComponentId,
+                    statistics, replacedComponentIds);
+        }
     }
 
     private void addComponentToCheckpoint(ILSMIOOperation operation) throws HyracksDataException {
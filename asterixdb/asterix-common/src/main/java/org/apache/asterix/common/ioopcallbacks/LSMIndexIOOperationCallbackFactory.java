@@ -23,6 +23,7 @@ import org.apache.asterix.common.api.IDatasetInfoProvider;
 import org.apache.asterix.common.api.ILSMComponentIdGeneratorFactory;
 import org.apache.asterix.common.api.INcApplicationContext;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
+import org.apache.asterix.common.storage.IStatisticsReporter;
 import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentIdGenerator;
@@ -63,10 +64,14 @@ public class LSMIndexIOOperationCallbackFactory implements ILSMIOOperationCallba
         return ((INcApplicationContext) ncCtx.getApplicationContext()).getIndexCheckpointManagerProvider();
     }
 
+    protected IStatisticsReporter getStatisticsReporter() {
+        return ((INcApplicationContext) ncCtx.getApplicationContext()).getStatisticsReporter();
+    }
+
     @Override
     public ILSMIOOperationCallback createIoOpCallback(ILSMIndex index) throws HyracksDataException {
         return new LSMIOOperationCallback(datasetInfoProvider.getDatasetInfo(ncCtx), index,
-                getComponentIdGenerator().getId(), getIndexCheckpointManagerProvider());
+                getComponentIdGenerator().getId(), getIndexCheckpointManagerProvider(), getStatisticsReporter());
     }
 
     @Override
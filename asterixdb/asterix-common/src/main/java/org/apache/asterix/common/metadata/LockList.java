@@ -26,6 +26,7 @@ import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.metadata.IMetadataLock.Mode;
 import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 
 /**
@@ -99,6 +100,17 @@ public class LockList {
         pair.setRight(mode);
     }
 
+    /**
+     * @return the acquired locks and their modes, in acquisition order.
+     */
+    public List<Pair<IMetadataLock, IMetadataLock.Mode>> getAcquiredLocks() {
+        List<Pair<IMetadataLock, IMetadataLock.Mode>> acquired = new ArrayList<>(locks.size());
+        for (MutablePair<IMetadataLock, IMetadataLock.Mode> pair : locks) {
+            acquired.add(Pair.of(pair.getLeft(), pair.getRight()));
+        }
+        return acquired;
+    }
+
     /**
      * Once unlock() is called, no caller can call add(IMetadataLock.Mode mode, IMetadataLock lock),
      * except that reset() is called.
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.storage;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.asterix.common.exceptions.CompilationException;
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.LZ4CompressorDecompressorFactory;
+
+/**
+ * The page compression schemes that can be selected for the disk components of a dataset.
+ */
+public class CompressionSchemes {
+    public static final String NONE = "none";
+    private static final Map<String, ICompressorDecompressorFactory> SCHEMES;
+
+    static {
+        Map<String, ICompressorDecompressorFactory> schemes = new HashMap<>();
+        schemes.put(LZ4CompressorDecompressorFactory.NAME, new LZ4CompressorDecompressorFactory());
+        SCHEMES = Collections.unmodifiableMap(schemes);
+    }
+
+    private CompressionSchemes() {
+    }
+
+    /**
+     * @param scheme
+     *            the name of a compression scheme
+     * @return true if {@code scheme} is null or {@value #NONE}, false otherwise
+     */
+    public static boolean isNone(String scheme) {
+        return scheme == null || NONE.equalsIgnoreCase(scheme);
+    }
+
+    /**
+     * @param scheme
+     *            the name of a compression scheme
+     * @return the compressor/decompressor factory of {@code scheme} or null if no compression is used
+     * @throws CompilationException
+     *             if the scheme is unknown
+     */
+    public static ICompressorDecompressorFactory getFactory(String scheme) throws CompilationException {
+        if (isNone(scheme)) {
+            return null;
+        }
+        ICompressorDecompressorFactory factory = SCHEMES.get(scheme.toLowerCase());
+        if (factory == null) {
+            throw new CompilationException(ErrorCode.UNKNOWN_COMPRESSION_SCHEME, scheme, getSupportedSchemes());
+        }
+        return factory;
+    }
+
+    /**
+     * @param scheme
+     *            the name of a compression scheme as given by the user
+     * @return the normalized name of {@code scheme} or null if no compression is used
+     * @throws CompilationException
+     *             if the scheme is unknown
+     */
+    public static String validate(String scheme) throws CompilationException {
+        return getFactory(scheme) == null ? null : scheme.toLowerCase();
+    }
+
+    private static String getSupportedSchemes() {
+        StringBuilder builder = new StringBuilder(NONE);
+        for (String scheme : SCHEMES.keySet()) {
+            builder.append(", ").append(scheme);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.storage;
+
+import java.util.List;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentId;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+
+/**
+ * Keeps the statistics reported by the node controllers for each disk component of each index partition
+ */
+public interface IStatisticsManager {
+
+    /**
+     * Adds the statistics of a new disk component of an index partition and drops the statistics of the components
+     * it replaces
+     *
+     * @param datasetId
+     *            the dataset id
+     * @param indexName
+     *            the index name
+     * @param partition
+     *            the partition of the index
+     * @param componentId
+     *            the id of the new component or null if there is no new component with statistics
+     * @param statistics
+     *            the statistics of the new component or null if there is no new component with statistics
+     * @param replacedComponentIds
+     *            the ids of the components replaced by the new component (e.g. merged components)
+     */
+    void update(int datasetId, String indexName, int partition, ILSMComponentId componentId,
+            ComponentStatistics statistics, List<ILSMComponentId> replacedComponentIds);
+
+    /**
+     * Gets the statistics of an index across all of its partitions
+     *
+     * @param datasetId
+     *            the dataset id
+     * @param indexName
+     *            the index name
+     * @return the merged statistics or null if no partition has reported statistics yet
+     */
+    ComponentStatistics getStatistics(int datasetId, String indexName);
+
+    /**
+     * Drops the statistics of all the indexes of a dataset
+     *
+     * @param datasetId
+     *            the dataset id
+     */
+    void drop(int datasetId);
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.storage;
+
+import java.util.List;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentId;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+
+/**
+ * Reports the statistics of a local index partition to the cluster controller
+ */
+@FunctionalInterface
+public interface IStatisticsReporter {
+
+    /**
+     * Reports the statistics of a new disk component of an index partition (flush or merge)
+     *
+     * @param datasetId
+     *            the dataset id
+     * @param indexName
+     *            the index name
+     * @param partition
+     *            the partition of the index
+     * @param componentId
+     *            the id of the new component or null if there is no new component with statistics
+     * @param statistics
+     *            the statistics of the new component or null if there is no new component with statistics
+     * @param replacedComponentIds
+     *            the ids of the components replaced by the new component (e.g. merged components)
+     */
+    void report(int datasetId, String indexName, int partition, ILSMComponentId componentId,
+            ComponentStatistics statistics, List<ILSMComponentId> replacedComponentIds);
+}
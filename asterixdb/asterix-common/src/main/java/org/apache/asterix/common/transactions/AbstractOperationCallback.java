@@ -19,6 +19,9 @@
 
 package org.apache.asterix.common.transactions;
 
+import java.util.Arrays;
+
+import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.bloomfilter.impls.MurmurHash128Bit;
 
@@ -32,6 +35,9 @@ public abstract class AbstractOperationCallback {
     protected final ILockManager lockManager;
     protected final long[] longHashes;
     protected final long resourceId;
+    private int[] batchHashes = new int[0];
+    private int batchSize;
+    private boolean batchLocked;
 
     public AbstractOperationCallback(DatasetId datasetId, long resourceId, int[] primaryKeyFields,
             ITransactionContext txnCtx, ILockManager lockManager) {
@@ -48,6 +54,46 @@ public abstract class AbstractOperationCallback {
         return Math.abs((int) longHashes[0]);
     }
 
+    /**
+     * Adds the primary key of the tuple to the keys that are locked by the next call of
+     * {@link #tryLockBatch(byte)}
+     */
+    public void addToBatch(ITupleReference tuple) {
+        if (batchSize == batchHashes.length) {
+            batchHashes = Arrays.copyOf(batchHashes, Math.max(32, batchSize * 2));
+        }
+        batchHashes[batchSize++] = computePrimaryKeyHashValue(tuple, primaryKeyFields);
+    }
+
+    /**
+     * Tries to lock all keys of the batch with one call of the lock manager and clears the batch.
+     *
+     * @return true if all keys were locked, false if no key was locked
+     */
+    protected boolean tryLockBatch(byte lockMode) throws ACIDException {
+        try {
+            batchLocked = lockManager.tryLock(datasetId, batchHashes, batchSize, lockMode, txnCtx);
+            return batchLocked;
+        } finally {
+            batchSize = 0;
+        }
+    }
+
+    /**
+     * @return true if the keys of the current batch are locked already
+     */
+    protected boolean isBatchLocked() {
+        return batchLocked;
+    }
+
+    /**
+     * Ends the current batch, the following operations lock their keys one at a time
+     */
+    public void endBatch() {
+        batchSize = 0;
+        batchLocked = false;
+    }
+
     public void beforeOperation() {
         txnCtx.beforeOperation(resourceId);
     }
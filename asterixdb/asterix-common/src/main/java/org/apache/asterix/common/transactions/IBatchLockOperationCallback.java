@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.transactions;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * An operation callback of a primary index that can lock the keys of a batch of tuples, e.g. of all tuples of a
+ * frame, with one call of the lock manager before the tuples are processed.
+ */
+public interface IBatchLockOperationCallback {
+
+    /**
+     * Adds the primary key of the tuple to the keys of the next batch
+     *
+     * @param tuple
+     */
+    void addToBatch(ITupleReference tuple);
+
+    /**
+     * Tries to lock the keys of the batch without waiting. If the keys are locked, the operations on the tuples of
+     * the batch do not lock their keys again until {@link #endBatch()} is called. Otherwise, no key of the batch is
+     * locked and the operations lock their keys one at a time.
+     *
+     * @return true if the keys of the batch were locked
+     * @throws HyracksDataException
+     */
+    boolean lockBatch() throws HyracksDataException;
+
+    /**
+     * Ends the batch, has to be called once the tuples of the batch are processed
+     */
+    void endBatch();
+}
@@ -97,6 +97,25 @@ public interface ILockManager {
     public boolean tryLock(DatasetId datasetId, int entityHashValue, byte lockMode, ITransactionContext context)
             throws ACIDException;
 
+    /**
+     * Tries to lock a batch of entities of a dataset in one pass without waiting. The entities that share a
+     * latch of the lock manager are locked while holding the latch once. An entity that appears multiple times in
+     * the batch is locked multiple times, i.e. it has to be unlocked as often as it appears.
+     * If one of the locks cannot be granted, the locks that were acquired by this call are released again.
+     *
+     * @param datasetId
+     * @param entityHashValues
+     *            the hash values of the entities, the first count values are sorted in place by the call
+     * @param count
+     *            the number of entities in entityHashValues
+     * @param lockMode
+     * @param txnContext
+     * @return true if all entities were locked, false if none was
+     * @throws ACIDException
+     */
+    public boolean tryLock(DatasetId datasetId, int[] entityHashValues, int count, byte lockMode,
+            ITransactionContext txnContext) throws ACIDException;
+
     /**
      * @param datasetId
      * @param entityHashValue
@@ -19,6 +19,7 @@
 package org.apache.asterix.common.transactions;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.apache.asterix.common.config.TransactionProperties;
 
@@ -32,6 +33,7 @@ public class LogManagerProperties implements Serializable {
     // follow the naming convention <logFilePrefix>_<number> where number starts from 0
     private final String logFilePrefix;
     private final String logDir;
+    private final String[] logStripeDirs;
 
     // number of log pages in the log buffer
     private final int logPageSize;
@@ -39,12 +41,17 @@ public class LogManagerProperties implements Serializable {
     private final int numLogPages;
     // maximum size of each log file
     private final long logPartitionSize;
+    // maximum time (in microseconds) to wait for more commits before a force
+    private final int groupCommitMaxDelay;
 
     public LogManagerProperties(TransactionProperties txnProperties, String nodeId) {
         this.logPageSize = txnProperties.getLogBufferPageSize();
         this.numLogPages = txnProperties.getLogBufferNumPages();
         long logPartitionSize = txnProperties.getLogPartitionSize();
         this.logDir = txnProperties.getLogDirectory(nodeId);
+        String[] stripeDirs = txnProperties.getLogStripeDirectories(nodeId);
+        this.logStripeDirs = stripeDirs == null ? new String[0] : stripeDirs;
+        this.groupCommitMaxDelay = txnProperties.getLogGroupCommitMaxDelay();
         this.logFilePrefix = DEFAULT_LOG_FILE_PREFIX;
         int logBufferSize = logPageSize * numLogPages;
         //make sure that the log partition size is the multiple of log buffer size.
@@ -63,6 +70,17 @@ public class LogManagerProperties implements Serializable {
         return logDir;
     }
 
+    /**
+     * @return the directories, in addition to the log directory, across which the log files are striped
+     */
+    public String[] getLogStripeDirs() {
+        return logStripeDirs;
+    }
+
+    public int getGroupCommitMaxDelay() {
+        return groupCommitMaxDelay;
+    }
+
     public int getLogPageSize() {
         return logPageSize;
     }
@@ -79,6 +97,8 @@ public class LogManagerProperties implements Serializable {
         builder.append("log_page_size : " + logPageSize + lineSeparator);
         builder.append("num_log_pages : " + numLogPages + lineSeparator);
         builder.append("log_partition_size : " + logPartitionSize + lineSeparator);
+        builder.append("log_stripe_dirs : " + Arrays.toString(logStripeDirs) + lineSeparator);
+        builder.append("group_commit_max_delay : " + groupCommitMaxDelay + lineSeparator);
         return builder.toString();
     }
 }
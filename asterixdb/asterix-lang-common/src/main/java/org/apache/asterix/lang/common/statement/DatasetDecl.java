@@ -33,6 +33,7 @@ import org.apache.asterix.lang.common.struct.Identifier;
 import org.apache.asterix.lang.common.util.ExpressionUtils;
 import org.apache.asterix.lang.common.util.MergePolicyUtils;
 import org.apache.asterix.lang.common.visitor.base.ILangVisitor;
+import org.apache.asterix.object.base.AdmBooleanNode;
 import org.apache.asterix.object.base.AdmObjectNode;
 import org.apache.asterix.object.base.AdmStringNode;
 import org.apache.asterix.object.base.IAdmNode;
@@ -40,7 +41,13 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 
 public class DatasetDecl extends AbstractStatement {
-    protected static final String[] WITH_OBJECT_FIELDS = new String[] { MergePolicyUtils.MERGE_POLICY_PARAMETER_NAME };
+    public static final String STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME = "storage-block-compression";
+    public static final String STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME = "scheme";
+    public static final String INVERTED_LIST_COMPRESSION_PARAMETER_NAME = "inverted-list-compression";
+    public static final String FULLTEXT_TERM_STATISTICS_PARAMETER_NAME = "fulltext-term-statistics";
+    protected static final String[] WITH_OBJECT_FIELDS =
+            new String[] { MergePolicyUtils.MERGE_POLICY_PARAMETER_NAME, STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME,
+                    INVERTED_LIST_COMPRESSION_PARAMETER_NAME, FULLTEXT_TERM_STATISTICS_PARAMETER_NAME };
     protected static final Set<String> WITH_OBJECT_FIELDS_SET = new HashSet<>(Arrays.asList(WITH_OBJECT_FIELDS));
 
     protected final Identifier name;
@@ -205,6 +212,61 @@ public class DatasetDecl extends AbstractStatement {
         return MergePolicyUtils.toProperties((AdmObjectNode) mergePolicyParameters);
     }
 
+    public String getDatasetCompressionScheme() throws CompilationException {
+        if (withObjectNode == null) {
+            return null;
+        }
+        IAdmNode compression = validateWithObject(withObjectNode).get(STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME);
+        if (compression == null) {
+            return null;
+        }
+        if (!compression.isObject()) {
+            throw new CompilationException(ErrorCode.WITH_FIELD_MUST_BE_OF_TYPE,
+                    STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME, ATypeTag.OBJECT);
+        }
+        IAdmNode scheme = ((AdmObjectNode) compression).get(STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME);
+        if (scheme == null) {
+            throw new CompilationException(ErrorCode.WITH_FIELD_MUST_CONTAIN_SUB_FIELD,
+                    STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME, STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME);
+        }
+        if (scheme.getType() != ATypeTag.STRING) {
+            throw new CompilationException(ErrorCode.WITH_FIELD_MUST_BE_OF_TYPE,
+                    STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME + '.' + STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME,
+                    ATypeTag.STRING);
+        }
+        return ((AdmStringNode) scheme).get();
+    }
+
+    public boolean isInvertedListCompressed() throws CompilationException {
+        if (withObjectNode == null) {
+            return false;
+        }
+        IAdmNode compression = validateWithObject(withObjectNode).get(INVERTED_LIST_COMPRESSION_PARAMETER_NAME);
+        if (compression == null) {
+            return false;
+        }
+        if (compression.getType() != ATypeTag.BOOLEAN) {
+            throw new CompilationException(ErrorCode.WITH_FIELD_MUST_BE_OF_TYPE,
+                    INVERTED_LIST_COMPRESSION_PARAMETER_NAME, ATypeTag.BOOLEAN);
+        }
+        return ((AdmBooleanNode) compression).get();
+    }
+
+    public boolean hasFullTextTermStatistics() throws CompilationException {
+        if (withObjectNode == null) {
+            return false;
+        }
+        IAdmNode termStatistics = validateWithObject(withObjectNode).get(FULLTEXT_TERM_STATISTICS_PARAMETER_NAME);
+        if (termStatistics == null) {
+            return false;
+        }
+        if (termStatistics.getType() != ATypeTag.BOOLEAN) {
+            throw new CompilationException(ErrorCode.WITH_FIELD_MUST_BE_OF_TYPE,
+                    FULLTEXT_TERM_STATISTICS_PARAMETER_NAME, ATypeTag.BOOLEAN);
+        }
+        return ((AdmBooleanNode) termStatistics).get();
+    }
+
     public Map<String, String> getHints() {
         return hints;
     }
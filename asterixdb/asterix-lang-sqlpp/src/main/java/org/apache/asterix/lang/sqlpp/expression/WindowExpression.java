@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.lang.sqlpp.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.asterix.common.exceptions.CompilationException;
+import org.apache.asterix.common.functions.FunctionSignature;
+import org.apache.asterix.lang.common.base.AbstractExpression;
+import org.apache.asterix.lang.common.base.Expression;
+import org.apache.asterix.lang.common.clause.OrderbyClause;
+import org.apache.asterix.lang.common.visitor.base.ILangVisitor;
+import org.apache.asterix.lang.sqlpp.visitor.base.ISqlppVisitor;
+
+/**
+ * A window function call: {@code function(args) OVER (PARTITION BY ... ORDER BY ... ROWS BETWEEN ... AND ...)}.
+ * The function is not kept as a {@link org.apache.asterix.lang.common.expression.CallExpr} so that rewritings of
+ * regular function calls (e.g., of SQL-92 aggregate functions) do not apply to it.
+ * Frame bounds are row offsets relative to the current row; negative offsets precede the current row.
+ * In a {@code RANGE} frame the bounds are either unbounded or {@code CURRENT ROW} (offset 0), which includes the
+ * peers of the current row, i.e. the rows that are equal to it on the ORDER BY expressions.
+ */
+public class WindowExpression extends AbstractExpression {
+
+    public static final int UNBOUNDED_PRECEDING = Integer.MIN_VALUE;
+    public static final int UNBOUNDED_FOLLOWING = Integer.MAX_VALUE;
+
+    private FunctionSignature functionSignature;
+    private List<Expression> exprList;
+    private List<Expression> partitionList;
+    private List<Expression> orderbyList;
+    private List<OrderbyClause.OrderModifier> orderbyModifierList;
+    private boolean rangeFrame;
+    private int frameStartOffset;
+    private int frameEndOffset;
+
+    public WindowExpression(FunctionSignature functionSignature, List<Expression> exprList,
+            List<Expression> partitionList, List<Expression> orderbyList,
+            List<OrderbyClause.OrderModifier> orderbyModifierList, boolean rangeFrame, int frameStartOffset,
+            int frameEndOffset) {
+        this.functionSignature = functionSignature;
+        this.exprList = new ArrayList<>(exprList);
+        this.partitionList = new ArrayList<>(partitionList);
+        this.orderbyList = new ArrayList<>(orderbyList);
+        this.orderbyModifierList = new ArrayList<>(orderbyModifierList);
+        this.rangeFrame = rangeFrame;
+        this.frameStartOffset = frameStartOffset;
+        this.frameEndOffset = frameEndOffset;
+    }
+
+    @Override
+    public <R, T> R accept(ILangVisitor<R, T> visitor, T arg) throws CompilationException {
+        return ((ISqlppVisitor<R, T>) visitor).visit(this, arg);
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.WINDOW_EXPRESSION;
+    }
+
+    public FunctionSignature getFunctionSignature() {
+        return functionSignature;
+    }
+
+    public void setFunctionSignature(FunctionSignature functionSignature) {
+        this.functionSignature = functionSignature;
+    }
+
+    public List<Expression> getExprList() {
+        return exprList;
+    }
+
+    public void setExprList(List<Expression> exprList) {
+        this.exprList = exprList;
+    }
+
+    public List<Expression> getPartitionList() {
+        return partitionList;
+    }
+
+    public void setPartitionList(List<Expression> partitionList) {
+        this.partitionList = partitionList;
+    }
+
+    public List<Expression> getOrderbyList() {
+        return orderbyList;
+    }
+
+    public void setOrderbyList(List<Expression> orderbyList) {
+        this.orderbyList = orderbyList;
+    }
+
+    public List<OrderbyClause.OrderModifier> getOrderbyModifierList() {
+        return orderbyModifierList;
+    }
+
+    public boolean isRangeFrame() {
+        return rangeFrame;
+    }
+
+    public int getFrameStartOffset() {
+        return frameStartOffset;
+    }
+
+    public int getFrameEndOffset() {
+        return frameEndOffset;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(functionSignature).append(exprList).append(" OVER (");
+        if (!partitionList.isEmpty()) {
+            sb.append("PARTITION BY ").append(partitionList).append(' ');
+        }
+        if (!orderbyList.isEmpty()) {
+            sb.append("ORDER BY ").append(orderbyList).append(orderbyModifierList).append(' ');
+        }
+        sb.append(rangeFrame ? "RANGE BETWEEN " : "ROWS BETWEEN ").append(frameStartOffset).append(" AND ")
+                .append(frameEndOffset).append(')');
+        return sb.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(functionSignature, exprList, partitionList, orderbyList, orderbyModifierList,
+                rangeFrame, frameStartOffset, frameEndOffset);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof WindowExpression)) {
+            return false;
+        }
+        WindowExpression target = (WindowExpression) object;
+        return Objects.equals(functionSignature, target.functionSignature) && Objects.equals(exprList, target.exprList)
+                && Objects.equals(partitionList, target.partitionList)
+                && Objects.equals(orderbyList, target.orderbyList)
+                && Objects.equals(orderbyModifierList, target.orderbyModifierList)
+                && rangeFrame == target.rangeFrame && frameStartOffset == target.frameStartOffset
+                && frameEndOffset == target.frameEndOffset;
+    }
+}
@@ -44,6 +44,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
 import org.apache.asterix.lang.sqlpp.util.SqlppRewriteUtil;
 import org.apache.asterix.lang.sqlpp.visitor.SqlppCloneAndSubstituteVariablesVisitor;
@@ -243,6 +244,23 @@ public class SqlppInlineUdfsVisitor extends AbstractInlineUdfsVisitor
         return inlined || result.first;
     }
 
+
+    @Override
+    public Boolean visit(WindowExpression winExpr, List<FunctionDecl> funcs) throws CompilationException {
+        Pair<Boolean, List<Expression>> inlinedList = inlineUdfsInExprList(winExpr.getExprList(), funcs);
+        boolean inlined = inlinedList.first;
+        winExpr.setExprList(inlinedList.second);
+
+        inlinedList = inlineUdfsInExprList(winExpr.getPartitionList(), funcs);
+        inlined = inlined || inlinedList.first;
+        winExpr.setPartitionList(inlinedList.second);
+
+        inlinedList = inlineUdfsInExprList(winExpr.getOrderbyList(), funcs);
+        inlined = inlined || inlinedList.first;
+        winExpr.setOrderbyList(inlinedList.second);
+        return inlined;
+    }
+
     private Map<Expression, Expression> extractLetBindingVariableExpressionMappings(List<LetClause> letClauses)
             throws CompilationException {
         Map<Expression, Expression> varExprMap = new HashMap<>();
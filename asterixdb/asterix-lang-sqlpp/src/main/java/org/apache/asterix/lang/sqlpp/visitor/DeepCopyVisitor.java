@@ -65,6 +65,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationInput;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
 import org.apache.asterix.lang.sqlpp.visitor.base.AbstractSqlppQueryExpressionVisitor;
@@ -480,6 +481,17 @@ public class DeepCopyVisitor extends AbstractSqlppQueryExpressionVisitor<ILangEx
         return copy;
     }
 
+
+    @Override
+    public ILangExpression visit(WindowExpression winExpr, Void arg) throws CompilationException {
+        WindowExpression copy = new WindowExpression(winExpr.getFunctionSignature(),
+                copyExprList(winExpr.getExprList(), arg), copyExprList(winExpr.getPartitionList(), arg),
+                copyExprList(winExpr.getOrderbyList(), arg), winExpr.getOrderbyModifierList(),
+                winExpr.isRangeFrame(), winExpr.getFrameStartOffset(), winExpr.getFrameEndOffset());
+        copy.setSourceLocation(winExpr.getSourceLocation());
+        return copy;
+    }
+
     private List<Expression> copyExprList(List<Expression> exprs, Void arg) throws CompilationException {
         List<Expression> newExprList = new ArrayList<>();
         for (Expression expr : exprs) {
@@ -47,6 +47,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
 import org.apache.asterix.lang.sqlpp.util.FunctionMapUtil;
 import org.apache.asterix.lang.sqlpp.visitor.base.ISqlppVisitor;
@@ -331,4 +332,30 @@ public class SqlppAstPrintVisitor extends QueryPrintVisitor implements ISqlppVis
         return null;
     }
 
+
+    @Override
+    public Void visit(WindowExpression winExpr, Integer step) throws CompilationException {
+        out.println(skip(step) + "WINDOW " + winExpr.getFunctionSignature().toString() + "[");
+        for (Expression expr : winExpr.getExprList()) {
+            expr.accept(this, step + 1);
+        }
+        out.println(skip(step) + "]");
+        if (!winExpr.getPartitionList().isEmpty()) {
+            out.println(skip(step) + "PARTITION BY");
+            for (Expression expr : winExpr.getPartitionList()) {
+                expr.accept(this, step + 1);
+            }
+        }
+        if (!winExpr.getOrderbyList().isEmpty()) {
+            out.println(skip(step) + "ORDER BY");
+            for (int index = 0; index < winExpr.getOrderbyList().size(); ++index) {
+                winExpr.getOrderbyList().get(index).accept(this, step + 1);
+                out.println(skip(step + 1) + winExpr.getOrderbyModifierList().get(index));
+            }
+        }
+        out.println(skip(step) + (winExpr.isRangeFrame() ? "RANGE" : "ROWS") + " BETWEEN "
+                + winExpr.getFrameStartOffset() + " AND " + winExpr.getFrameEndOffset());
+        return null;
+    }
+
 }
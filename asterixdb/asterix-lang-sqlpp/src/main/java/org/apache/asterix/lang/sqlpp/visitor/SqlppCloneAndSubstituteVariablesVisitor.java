@@ -50,6 +50,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationInput;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
 import org.apache.asterix.lang.sqlpp.visitor.base.ISqlppVisitor;
@@ -411,4 +412,21 @@ public class SqlppCloneAndSubstituteVariablesVisitor extends CloneAndSubstituteV
         newCaseExpr.setSourceLocation(caseExpr.getSourceLocation());
         return new Pair<>(newCaseExpr, env);
     }
+
+
+    @Override
+    public Pair<ILangExpression, VariableSubstitutionEnvironment> visit(WindowExpression winExpr,
+            VariableSubstitutionEnvironment env) throws CompilationException {
+        List<Expression> exprList =
+                VariableCloneAndSubstitutionUtil.visitAndCloneExprList(winExpr.getExprList(), env, this);
+        List<Expression> partitionList =
+                VariableCloneAndSubstitutionUtil.visitAndCloneExprList(winExpr.getPartitionList(), env, this);
+        List<Expression> orderbyList =
+                VariableCloneAndSubstitutionUtil.visitAndCloneExprList(winExpr.getOrderbyList(), env, this);
+        WindowExpression newWinExpr = new WindowExpression(winExpr.getFunctionSignature(), exprList, partitionList,
+                orderbyList, winExpr.getOrderbyModifierList(), winExpr.isRangeFrame(),
+                winExpr.getFrameStartOffset(), winExpr.getFrameEndOffset());
+        newWinExpr.setSourceLocation(winExpr.getSourceLocation());
+        return new Pair<>(newWinExpr, env);
+    }
 }
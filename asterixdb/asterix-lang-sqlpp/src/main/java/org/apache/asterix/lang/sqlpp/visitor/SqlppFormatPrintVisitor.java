@@ -25,6 +25,7 @@ import org.apache.asterix.common.exceptions.CompilationException;
 import org.apache.asterix.lang.common.base.Expression;
 import org.apache.asterix.lang.common.clause.GroupbyClause;
 import org.apache.asterix.lang.common.clause.LetClause;
+import org.apache.asterix.lang.common.clause.OrderbyClause.OrderModifier;
 import org.apache.asterix.lang.common.expression.GbyVariableExpressionPair;
 import org.apache.asterix.lang.common.expression.VariableExpr;
 import org.apache.asterix.lang.common.statement.InsertStatement;
@@ -44,6 +45,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
 import org.apache.asterix.lang.sqlpp.util.SqlppVariableUtil;
 import org.apache.asterix.lang.sqlpp.visitor.base.ISqlppVisitor;
@@ -325,6 +327,51 @@ public class SqlppFormatPrintVisitor extends FormatPrintVisitor implements ISqlp
         return null;
     }
 
+
+    @Override
+    public Void visit(WindowExpression winExpr, Integer step) throws CompilationException {
+        out.print(generateFullName(winExpr.getFunctionSignature().getNamespace(),
+                winExpr.getFunctionSignature().getName()) + "(");
+        printDelimitedExpressions(winExpr.getExprList(), COMMA, step);
+        out.print(") over (");
+        if (!winExpr.getPartitionList().isEmpty()) {
+            out.print("partition by ");
+            printDelimitedExpressions(winExpr.getPartitionList(), COMMA, step);
+            out.print(" ");
+        }
+        List<Expression> orderbyList = winExpr.getOrderbyList();
+        if (!orderbyList.isEmpty()) {
+            out.print("order by ");
+            List<OrderModifier> modifierList = winExpr.getOrderbyModifierList();
+            for (int index = 0; index < orderbyList.size(); ++index) {
+                if (index > 0) {
+                    out.print(COMMA);
+                }
+                orderbyList.get(index).accept(this, step);
+                if (modifierList.get(index) != OrderModifier.ASC) {
+                    out.print(" " + modifierList.get(index).toString().toLowerCase());
+                }
+            }
+            out.print(" ");
+        }
+        out.print((winExpr.isRangeFrame() ? "range" : "rows") + " between "
+                + frameBoundToString(winExpr.getFrameStartOffset()) + " and "
+                + frameBoundToString(winExpr.getFrameEndOffset()) + ")");
+        return null;
+    }
+
+    private static String frameBoundToString(int offset) {
+        if (offset == WindowExpression.UNBOUNDED_PRECEDING) {
+            return "unbounded preceding";
+        } else if (offset == WindowExpression.UNBOUNDED_FOLLOWING) {
+            return "unbounded following";
+        } else if (offset == 0) {
+            return "current row";
+        } else {
+            return Math.abs(offset) + (offset < 0 ? " preceding" : " following");
+        }
+    }
+
     @Override
     public Void visit(VariableExpr v, Integer step) {
         out.print(SqlppVariableUtil.toUserDefinedName(v.getVar().getValue()));
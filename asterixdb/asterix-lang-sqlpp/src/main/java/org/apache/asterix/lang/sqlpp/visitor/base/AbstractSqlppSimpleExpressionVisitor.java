@@ -61,6 +61,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
 
 public class AbstractSqlppSimpleExpressionVisitor
@@ -344,6 +345,15 @@ public class AbstractSqlppSimpleExpressionVisitor
         return caseExpr;
     }
 
+
+    @Override
+    public Expression visit(WindowExpression winExpr, ILangExpression arg) throws CompilationException {
+        winExpr.setExprList(visit(winExpr.getExprList(), arg));
+        winExpr.setPartitionList(visit(winExpr.getPartitionList(), arg));
+        winExpr.setOrderbyList(visit(winExpr.getOrderbyList(), arg));
+        return winExpr;
+    }
+
     @Override
     public Expression visit(InsertStatement insertStatement, ILangExpression arg) throws CompilationException {
         Expression returnExpr = insertStatement.getReturnExpression();
@@ -34,6 +34,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 
 public interface ISqlppVisitor<R, T> extends ILangVisitor<R, T> {
 
@@ -64,4 +65,6 @@ public interface ISqlppVisitor<R, T> extends ILangVisitor<R, T> {
     R visit(HavingClause havingClause, T arg) throws CompilationException;
 
     R visit(CaseExpression caseExpression, T arg) throws CompilationException;
+
+    R visit(WindowExpression winExpr, T arg) throws CompilationException;
 }
@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -95,6 +96,7 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
  */
 public abstract class MetadataManager implements IMetadataManager {
     private final MetadataCache cache = new MetadataCache();
+    private final AtomicLong version = new AtomicLong();
     protected final Collection<IAsterixStateProxy> proxies;
     protected IMetadataNode metadataNode;
     protected boolean rebindMetadataNode = false;
@@ -135,7 +137,16 @@ public abstract class MetadataManager implements IMetadataManager {
     @Override
     public void commitTransaction(MetadataTransactionContext ctx) throws RemoteException, ACIDException {
         metadataNode.commitTransaction(ctx.getTxnId());
+        boolean modified = !ctx.getOpLog().isEmpty();
         cache.commit(ctx);
+        if (modified) {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
     }
 
     @Override
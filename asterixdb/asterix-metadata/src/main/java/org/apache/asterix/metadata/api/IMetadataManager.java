@@ -85,6 +85,15 @@ public interface IMetadataManager extends IMetadataBootstrap {
      */
     void abortTransaction(MetadataTransactionContext ctx) throws ACIDException, RemoteException;
 
+    /**
+     * Returns the metadata version, which changes every time a transaction that modified the metadata commits.
+     * Callers that cache artifacts derived from the metadata (e.g., compiled query plans) compare versions to detect
+     * that the artifacts are stale.
+     *
+     * @return the current metadata version.
+     */
+    long getVersion();
+
     /**
      * Inserts a new dataverse into the metadata.
      *
@@ -162,6 +162,7 @@ public class MetadataProvider implements IMetadataProvider<DataSourceId, String>
     private TxnId txnId;
     private Map<String, Integer> externalDataLocks;
     private boolean blockingOperatorDisabled = false;
+    private boolean bindParametersAtRuntime = false;
 
     public MetadataProvider(ICcApplicationContext appCtx, Dataverse defaultDataverse) {
         this.appCtx = appCtx;
@@ -185,6 +186,18 @@ public class MetadataProvider implements IMetadataProvider<DataSourceId, String>
         return blockingOperatorDisabled;
     }
 
+    /**
+     * Makes the compiled job read the statement parameters from its job parameters instead of embedding their values
+     * as constants, so that the job can be reused with different parameter values.
+     */
+    public void setBindParametersAtRuntime(boolean bindParametersAtRuntime) {
+        this.bindParametersAtRuntime = bindParametersAtRuntime;
+    }
+
+    public boolean isBindParametersAtRuntime() {
+        return bindParametersAtRuntime;
+    }
+
     @Override
     public Map<String, String> getConfig() {
         return config;
@@ -151,6 +151,9 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
     private final String metaTypeDataverseName;
     private final String metaTypeName;
     private final long rebalanceCount;
+    private final String compressionScheme;
+    private final boolean invertedListCompression;
+    private final boolean fullTextTermStatistics;
     private int pendingOp;
 
     /*
@@ -179,13 +182,43 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
         this(dataset.dataverseName, dataset.datasetName, dataset.recordTypeDataverseName, dataset.recordTypeName,
                 dataset.metaTypeDataverseName, dataset.metaTypeName, dataset.nodeGroupName,
                 dataset.compactionPolicyFactory, dataset.compactionPolicyProperties, dataset.datasetDetails,
-                dataset.hints, dataset.datasetType, dataset.datasetId, dataset.pendingOp, dataset.rebalanceCount);
+                dataset.hints, dataset.datasetType, dataset.datasetId, dataset.pendingOp, dataset.rebalanceCount,
+                dataset.compressionScheme, dataset.invertedListCompression, dataset.fullTextTermStatistics);
     }
 
     public Dataset(String dataverseName, String datasetName, String itemTypeDataverseName, String itemTypeName,
             String metaItemTypeDataverseName, String metaItemTypeName, String nodeGroupName, String compactionPolicy,
             Map<String, String> compactionPolicyProperties, IDatasetDetails datasetDetails, Map<String, String> hints,
             DatasetType datasetType, int datasetId, int pendingOp, long rebalanceCount) {
+        this(dataverseName, datasetName, itemTypeDataverseName, itemTypeName, metaItemTypeDataverseName,
+                metaItemTypeName, nodeGroupName, compactionPolicy, compactionPolicyProperties, datasetDetails, hints,
+                datasetType, datasetId, pendingOp, rebalanceCount, null);
+    }
+
+    public Dataset(String dataverseName, String datasetName, String itemTypeDataverseName, String itemTypeName,
+            String metaItemTypeDataverseName, String metaItemTypeName, String nodeGroupName, String compactionPolicy,
+            Map<String, String> compactionPolicyProperties, IDatasetDetails datasetDetails, Map<String, String> hints,
+            DatasetType datasetType, int datasetId, int pendingOp, long rebalanceCount, String compressionScheme) {
+        this(dataverseName, datasetName, itemTypeDataverseName, itemTypeName, metaItemTypeDataverseName,
+                metaItemTypeName, nodeGroupName, compactionPolicy, compactionPolicyProperties, datasetDetails, hints,
+                datasetType, datasetId, pendingOp, rebalanceCount, compressionScheme, false);
+    }
+
+    public Dataset(String dataverseName, String datasetName, String itemTypeDataverseName, String itemTypeName,
+            String metaItemTypeDataverseName, String metaItemTypeName, String nodeGroupName, String compactionPolicy,
+            Map<String, String> compactionPolicyProperties, IDatasetDetails datasetDetails, Map<String, String> hints,
+            DatasetType datasetType, int datasetId, int pendingOp, long rebalanceCount, String compressionScheme,
+            boolean invertedListCompression) {
+        this(dataverseName, datasetName, itemTypeDataverseName, itemTypeName, metaItemTypeDataverseName,
+                metaItemTypeName, nodeGroupName, compactionPolicy, compactionPolicyProperties, datasetDetails, hints,
+                datasetType, datasetId, pendingOp, rebalanceCount, compressionScheme, invertedListCompression, false);
+    }
+
+    public Dataset(String dataverseName, String datasetName, String itemTypeDataverseName, String itemTypeName,
+            String metaItemTypeDataverseName, String metaItemTypeName, String nodeGroupName, String compactionPolicy,
+            Map<String, String> compactionPolicyProperties, IDatasetDetails datasetDetails, Map<String, String> hints,
+            DatasetType datasetType, int datasetId, int pendingOp, long rebalanceCount, String compressionScheme,
+            boolean invertedListCompression, boolean fullTextTermStatistics) {
         this.dataverseName = dataverseName;
         this.datasetName = datasetName;
         this.recordTypeName = itemTypeName;
@@ -201,6 +234,9 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
         this.pendingOp = pendingOp;
         this.hints = hints;
         this.rebalanceCount = rebalanceCount;
+        this.compressionScheme = compressionScheme;
+        this.invertedListCompression = invertedListCompression;
+        this.fullTextTermStatistics = fullTextTermStatistics;
     }
 
     @Override
@@ -265,6 +301,28 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
         return rebalanceCount;
     }
 
+    /**
+     * @return the name of the page compression scheme of the dataset's disk components or null if none
+     */
+    public String getCompressionScheme() {
+        return compressionScheme;
+    }
+
+    /**
+     * @return true if the inverted lists of the dataset's inverted indexes are stored compressed
+     */
+    public boolean isInvertedListCompressed() {
+        return invertedListCompression;
+    }
+
+    /**
+     * @return true if the dataset's full-text indexes keep the term frequencies and document lengths that rank the
+     *         results of their searches
+     */
+    public boolean hasFullTextTermStatistics() {
+        return fullTextTermStatistics;
+    }
+
     public boolean hasMetaPart() {
         return metaTypeDataverseName != null && metaTypeName != null;
     }
@@ -840,7 +898,8 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
         return new Dataset(this.dataverseName, this.datasetName, this.recordTypeDataverseName, this.recordTypeName,
                 this.metaTypeDataverseName, this.metaTypeName, targetNodeGroupName, this.compactionPolicyFactory,
                 this.compactionPolicyProperties, this.datasetDetails, this.hints, this.datasetType,
-                DatasetIdFactory.generateAlternatingDatasetId(this.datasetId), this.pendingOp, this.rebalanceCount + 1);
+                DatasetIdFactory.generateAlternatingDatasetId(this.datasetId), this.pendingOp, this.rebalanceCount + 1,
+                this.compressionScheme, this.invertedListCompression, this.fullTextTermStatistics);
     }
 
     // Gets an array of partition numbers for this dataset.
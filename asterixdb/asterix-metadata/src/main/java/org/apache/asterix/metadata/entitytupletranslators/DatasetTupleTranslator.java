@@ -78,6 +78,9 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
     // Payload field containing serialized Dataset.
     public static final int DATASET_PAYLOAD_TUPLE_FIELD_INDEX = 2;
     private static final String REBALANCE_ID_FIELD_NAME = "rebalanceCount";
+    private static final String COMPRESSION_SCHEME_FIELD_NAME = "BlockLevelStorageCompressionScheme";
+    private static final String INVERTED_LIST_COMPRESSION_FIELD_NAME = "InvertedListCompression";
+    private static final String FULLTEXT_TERM_STATISTICS_FIELD_NAME = "FullTextTermStatistics";
 
     @SuppressWarnings("unchecked")
     protected final ISerializerDeserializer<ARecord> recordSerDes =
@@ -261,9 +264,25 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
         long rebalanceCount = rebalanceCountIndex >= 0
                 ? ((AInt64) datasetRecord.getValueByPos(rebalanceCountIndex)).getLongValue() : 0;
 
+        // Read the compression scheme if there is one.
+        int compressionSchemeIndex = datasetRecord.getType().getFieldIndex(COMPRESSION_SCHEME_FIELD_NAME);
+        String compressionScheme = compressionSchemeIndex >= 0
+                ? ((AString) datasetRecord.getValueByPos(compressionSchemeIndex)).getStringValue() : null;
+
+        // Read the inverted list compression flag if there is one.
+        int invertedListCompressionIndex = datasetRecord.getType().getFieldIndex(INVERTED_LIST_COMPRESSION_FIELD_NAME);
+        boolean invertedListCompression = invertedListCompressionIndex >= 0
+                && ((ABoolean) datasetRecord.getValueByPos(invertedListCompressionIndex)).getBoolean();
+
+        // Read the full-text term statistics flag if there is one.
+        int fullTextTermStatisticsIndex = datasetRecord.getType().getFieldIndex(FULLTEXT_TERM_STATISTICS_FIELD_NAME);
+        boolean fullTextTermStatistics = fullTextTermStatisticsIndex >= 0
+                && ((ABoolean) datasetRecord.getValueByPos(fullTextTermStatisticsIndex)).getBoolean();
+
         return new Dataset(dataverseName, datasetName, typeDataverseName, typeName, metaTypeDataverseName, metaTypeName,
                 nodeGroupName, compactionPolicy, compactionPolicyProperties, datasetDetails, hints, datasetType,
-                datasetId, pendingOp, rebalanceCount);
+                datasetId, pendingOp, rebalanceCount, compressionScheme, invertedListCompression,
+                fullTextTermStatistics);
     }
 
     @Override
@@ -423,6 +442,34 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
             aBigIntSerde.serialize(aBigInt, fieldValue.getDataOutput());
             recordBuilder.addField(fieldName, fieldValue);
         }
+        if (dataset.getCompressionScheme() != null) {
+            // Adds the field BlockLevelStorageCompressionScheme.
+            fieldName.reset();
+            aString.setValue(COMPRESSION_SCHEME_FIELD_NAME);
+            stringSerde.serialize(aString, fieldName.getDataOutput());
+            fieldValue.reset();
+            aString.setValue(dataset.getCompressionScheme());
+            stringSerde.serialize(aString, fieldValue.getDataOutput());
+            recordBuilder.addField(fieldName, fieldValue);
+        }
+        if (dataset.isInvertedListCompressed()) {
+            // Adds the field InvertedListCompression.
+            fieldName.reset();
+            aString.setValue(INVERTED_LIST_COMPRESSION_FIELD_NAME);
+            stringSerde.serialize(aString, fieldName.getDataOutput());
+            fieldValue.reset();
+            booleanSerde.serialize(ABoolean.TRUE, fieldValue.getDataOutput());
+            recordBuilder.addField(fieldName, fieldValue);
+        }
+        if (dataset.hasFullTextTermStatistics()) {
+            // Adds the field FullTextTermStatistics.
+            fieldName.reset();
+            aString.setValue(FULLTEXT_TERM_STATISTICS_FIELD_NAME);
+            stringSerde.serialize(aString, fieldName.getDataOutput());
+            fieldValue.reset();
+            booleanSerde.serialize(ABoolean.TRUE, fieldValue.getDataOutput());
+            recordBuilder.addField(fieldName, fieldValue);
+        }
     }
 
     protected void writeDatasetDetailsRecordType(IARecordBuilder recordBuilder, Dataset dataset, DataOutput dataOutput)
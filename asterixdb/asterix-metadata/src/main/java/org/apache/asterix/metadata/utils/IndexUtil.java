@@ -67,6 +67,15 @@ public class IndexUtil {
                 id.getPrimaryKeyType(), false, false, true, dataset.getPendingOp());
     }
 
+    /**
+     * @return true if the index is a full-text index whose inverted-list elements end with the term frequency and the
+     *         document length, which rank its searches
+     */
+    public static boolean hasTermStatistics(Dataset dataset, Index index) {
+        return dataset.hasFullTextTermStatistics()
+                && index.getIndexType() == DatasetConfig.IndexType.SINGLE_PARTITION_WORD_INVIX;
+    }
+
     public static int[] getBtreeFieldsIfFiltered(Dataset dataset, Index index) throws AlgebricksException {
         if (index.isPrimaryIndex()) {
             return DatasetUtil.createBTreeFieldsWhenThereisAFilter(dataset);
@@ -18,6 +18,7 @@
  */
 package org.apache.asterix.metadata.utils;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +42,7 @@ import org.apache.hyracks.algebricks.common.utils.Pair;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.dataflow.value.ITypeTraits;
 import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
 import org.apache.hyracks.data.std.primitive.ShortPointable;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManagerFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallbackFactory;
@@ -49,6 +51,7 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMOperationTrackerFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.dataflow.LSMInvertedIndexLocalResourceFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexUtils;
 import org.apache.hyracks.storage.common.IResourceFactory;
 import org.apache.hyracks.storage.common.IStorageManager;
 
@@ -111,9 +114,10 @@ public class InvertedIndexResourceFactoryProvider implements IResourceFactoryPro
         ILSMIOOperationSchedulerProvider ioSchedulerProvider =
                 storageComponentProvider.getIoOperationSchedulerProvider();
         double bloomFilterFalsePositiveRate = mdProvider.getStorageProperties().getBloomFilterFalsePositiveRate();
-        ITypeTraits[] typeTraits = getInvListTypeTraits(mdProvider, dataset, recordType, metaType);
+        boolean termStatistics = IndexUtil.hasTermStatistics(dataset, index);
+        ITypeTraits[] typeTraits = getInvListTypeTraits(mdProvider, dataset, recordType, metaType, termStatistics);
         IBinaryComparatorFactory[] cmpFactories =
-                getInvListComparatorFactories(mdProvider, dataset, recordType, metaType);
+                getInvListComparatorFactories(mdProvider, dataset, recordType, metaType, termStatistics);
         ITypeTraits[] tokenTypeTraits = getTokenTypeTraits(dataset, index, recordType, metaType);
         IBinaryComparatorFactory[] tokenCmpFactories =
                 getTokenComparatorFactories(dataset, index, recordType, metaType);
@@ -123,22 +127,39 @@ public class InvertedIndexResourceFactoryProvider implements IResourceFactoryPro
                 metadataPageManagerFactory, vbcProvider, ioSchedulerProvider, mergePolicyFactory, mergePolicyProperties,
                 true, tokenTypeTraits, tokenCmpFactories, tokenizerFactory, isPartitioned, invertedIndexFields,
                 secondaryFilterFieldsForNonBulkLoadOps, invertedIndexFieldsForNonBulkLoadOps,
-                bloomFilterFalsePositiveRate);
+                bloomFilterFalsePositiveRate, dataset.isInvertedListCompressed(), termStatistics);
     }
 
     private static ITypeTraits[] getInvListTypeTraits(MetadataProvider metadataProvider, Dataset dataset,
-            ARecordType recordType, ARecordType metaType) throws AlgebricksException {
+            ARecordType recordType, ARecordType metaType, boolean termStatistics) throws AlgebricksException {
         ITypeTraits[] primaryTypeTraits = dataset.getPrimaryTypeTraits(metadataProvider, recordType, metaType);
-        ITypeTraits[] typeTraits = new ITypeTraits[primaryTypeTraits.length - 1];
-        for (int i = 0; i < typeTraits.length; i++) {
+        int numPrimaryKeys = primaryTypeTraits.length - 1;
+        ITypeTraits[] typeTraits = new ITypeTraits[termStatistics
+                ? numPrimaryKeys + InvertedIndexUtils.NUM_TERM_STATISTICS_FIELDS : numPrimaryKeys];
+        for (int i = 0; i < numPrimaryKeys; i++) {
             typeTraits[i] = primaryTypeTraits[i];
         }
+        // The term frequency and the document length are hardcoded to be integers *without* an Asterix type tag.
+        for (int i = numPrimaryKeys; i < typeTraits.length; i++) {
+            typeTraits[i] = IntegerPointable.TYPE_TRAITS;
+        }
         return typeTraits;
     }
 
     private static IBinaryComparatorFactory[] getInvListComparatorFactories(MetadataProvider metadataProvider,
-            Dataset dataset, ARecordType recordType, ARecordType metaType) throws AlgebricksException {
-        return dataset.getPrimaryComparatorFactories(metadataProvider, recordType, metaType);
+            Dataset dataset, ARecordType recordType, ARecordType metaType, boolean termStatistics)
+            throws AlgebricksException {
+        IBinaryComparatorFactory[] primaryCmpFactories =
+                dataset.getPrimaryComparatorFactories(metadataProvider, recordType, metaType);
+        if (!termStatistics) {
+            return primaryCmpFactories;
+        }
+        IBinaryComparatorFactory[] cmpFactories = Arrays.copyOf(primaryCmpFactories,
+                primaryCmpFactories.length + InvertedIndexUtils.NUM_TERM_STATISTICS_FIELDS);
+        for (int i = primaryCmpFactories.length; i < cmpFactories.length; i++) {
+            cmpFactories[i] = PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY);
+        }
+        return cmpFactories;
     }
 
     private static ITypeTraits[] getTokenTypeTraits(Dataset dataset, Index index, ARecordType recordType,
@@ -48,7 +48,9 @@ import org.apache.hyracks.api.dataflow.value.ITypeTraits;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
 import org.apache.hyracks.data.std.primitive.ShortPointable;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
 import org.apache.hyracks.dataflow.common.data.marshalling.ShortSerializerDeserializer;
 import org.apache.hyracks.dataflow.std.base.AbstractOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.base.AbstractSingleActivityOperatorDescriptor;
@@ -58,6 +60,7 @@ import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory
 import org.apache.hyracks.storage.am.common.dataflow.IndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.dataflow.BinaryTokenizerOperatorDescriptor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexUtils;
 
 public class SecondaryInvertedIndexOperationsHelper extends SecondaryTreeIndexOperationsHelper {
 
@@ -71,6 +74,9 @@ public class SecondaryInvertedIndexOperationsHelper extends SecondaryTreeIndexOp
     private IBinaryComparatorFactory[] tokenKeyPairComparatorFactories;
     private RecordDescriptor tokenKeyPairRecDesc;
     private boolean isPartitioned;
+    // Whether the tokens are followed by their term frequencies and the document lengths, i.e. represent
+    // <token, primary keys, term frequency, document length>.
+    private boolean termStatistics;
     private int[] invertedIndexFields;
     private int[] invertedIndexFieldsForNonBulkLoadOps;
     private int[] secondaryFilterFieldsForNonBulkLoadOps;
@@ -101,6 +107,7 @@ public class SecondaryInvertedIndexOperationsHelper extends SecondaryTreeIndexOp
         } else {
             isPartitioned = false;
         }
+        termStatistics = IndexUtil.hasTermStatistics(dataset, index);
         // Prepare record descriptor used in the assign op, and the optional
         // select op.
         secondaryFieldAccessEvalFactories = new IScalarEvaluatorFactory[numSecondaryKeys + numFilterFields];
@@ -162,9 +169,10 @@ public class SecondaryInvertedIndexOperationsHelper extends SecondaryTreeIndexOp
         // For tokenization, sorting and loading.
         // One token (+ optional partitioning field) + primary keys.
         numTokenKeyPairFields = (!isPartitioned) ? 1 + numPrimaryKeys : 2 + numPrimaryKeys;
+        int numTermStatisticsFields = termStatistics ? InvertedIndexUtils.NUM_TERM_STATISTICS_FIELDS : 0;
         ISerializerDeserializer[] tokenKeyPairFields =
-                new ISerializerDeserializer[numTokenKeyPairFields + numFilterFields];
-        ITypeTraits[] tokenKeyPairTypeTraits = new ITypeTraits[numTokenKeyPairFields];
+                new ISerializerDeserializer[numTokenKeyPairFields + numFilterFields + numTermStatisticsFields];
+        ITypeTraits[] tokenKeyPairTypeTraits = new ITypeTraits[numTokenKeyPairFields + numTermStatisticsFields];
         tokenKeyPairComparatorFactories = new IBinaryComparatorFactory[numTokenKeyPairFields];
         tokenKeyPairFields[0] = serdeProvider.getSerializerDeserializer(secondaryKeyType);
         tokenKeyPairTypeTraits[0] = tokenTypeTraits[0];
@@ -184,6 +192,11 @@ public class SecondaryInvertedIndexOperationsHelper extends SecondaryTreeIndexOp
         if (numFilterFields > 0) {
             tokenKeyPairFields[numPrimaryKeys + pkOff] = secondaryRecFields[numPrimaryKeys + numSecondaryKeys];
         }
+        // The term frequency and the document length are hardcoded to be integers *without* an Asterix type tag.
+        for (int i = numTokenKeyPairFields; i < tokenKeyPairTypeTraits.length; i++) {
+            tokenKeyPairFields[i] = IntegerSerializerDeserializer.INSTANCE;
+            tokenKeyPairTypeTraits[i] = IntegerPointable.TYPE_TRAITS;
+        }
         tokenKeyPairRecDesc = new RecordDescriptor(tokenKeyPairFields, tokenKeyPairTypeTraits);
         if (filterFieldName != null) {
             invertedIndexFields = new int[numTokenKeyPairFields];
@@ -274,7 +287,7 @@ public class SecondaryInvertedIndexOperationsHelper extends SecondaryTreeIndexOp
         }
         BinaryTokenizerOperatorDescriptor tokenizerOp =
                 new BinaryTokenizerOperatorDescriptor(spec, tokenKeyPairRecDesc, tokenizerFactory, docField,
-                        primaryKeyFields, isPartitioned, false, false, MissingWriterFactory.INSTANCE);
+                        primaryKeyFields, isPartitioned, false, false, MissingWriterFactory.INSTANCE, termStatistics);
         tokenizerOp.setSourceLocation(sourceLoc);
         AlgebricksPartitionConstraintHelper.setPartitionConstraintInJobSpec(spec, tokenizerOp,
                 primaryPartitionConstraint);
@@ -297,7 +310,8 @@ public class SecondaryInvertedIndexOperationsHelper extends SecondaryTreeIndexOp
 
     private AbstractSingleActivityOperatorDescriptor createInvertedIndexBulkLoadOp(JobSpecification spec)
             throws AlgebricksException {
-        int[] fieldPermutation = new int[numTokenKeyPairFields + numFilterFields];
+        int[] fieldPermutation = new int[numTokenKeyPairFields + numFilterFields
+                + (termStatistics ? InvertedIndexUtils.NUM_TERM_STATISTICS_FIELDS : 0)];
         for (int i = 0; i < fieldPermutation.length; i++) {
             fieldPermutation[i] = i;
         }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.printers;
+
+import java.io.PrintStream;
+
+import org.apache.asterix.om.pointables.PointableAllocator;
+import org.apache.asterix.om.pointables.base.DefaultOpenFieldType;
+import org.apache.asterix.om.pointables.base.IVisitablePointable;
+import org.apache.asterix.om.pointables.cast.ACastVisitor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.hyracks.algebricks.common.utils.Triple;
+import org.apache.hyracks.algebricks.data.IPrinter;
+import org.apache.hyracks.algebricks.data.IPrinterFactory;
+
+/**
+ * Prints a value as serialized ADM that can be read without knowing its static type. Flat values are already
+ * self-describing and are copied as they are, objects and collections are cast to their fully open counterparts
+ * (recursively), so that all their fields and items carry their own type tags.
+ */
+public class ASelfDescribingPrinterFactory implements IPrinterFactory {
+
+    private static final long serialVersionUID = 1L;
+    private final IAType type;
+
+    public ASelfDescribingPrinterFactory(IAType type) {
+        this.type = type;
+    }
+
+    @Override
+    public IPrinter createPrinter() {
+        final IAType actualType =
+                type != null && type.getTypeTag() == ATypeTag.UNION ? ((AUnionType) type).getActualType() : type;
+        final IAType openType = actualType == null ? null
+                : DefaultOpenFieldType.getDefaultOpenFieldType(actualType.getTypeTag());
+        if (openType == null) {
+            return (b, s, l, ps) -> ps.write(b, s, l);
+        }
+        final byte typeTag = actualType.getTypeTag().serialize();
+        final PointableAllocator allocator = new PointableAllocator();
+        final IVisitablePointable input = allocator.allocateFieldValue(actualType);
+        final IVisitablePointable result = allocator.allocateFieldValue(openType);
+        final ACastVisitor castVisitor = new ACastVisitor();
+        final Triple<IVisitablePointable, IAType, Boolean> arg = new Triple<>(result, openType, Boolean.FALSE);
+
+        return (byte[] b, int s, int l, PrintStream ps) -> {
+            if (b[s] != typeTag) {
+                // null or missing
+                ps.write(b, s, l);
+                return;
+            }
+            input.set(b, s, l);
+            input.accept(castVisitor, arg);
+            ps.write(result.getByteArray(), result.getStartOffset(), result.getLength());
+        };
+    }
+}
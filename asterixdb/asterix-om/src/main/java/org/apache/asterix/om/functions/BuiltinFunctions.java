@@ -587,6 +587,9 @@ public class BuiltinFunctions {
     // full-text without any option provided
     public static final FunctionIdentifier FULLTEXT_CONTAINS_WO_OPTION =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "ftcontains", 2);
+    // the score of a document in a ranked full-text search
+    public static final FunctionIdentifier FULLTEXT_SCORE =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "ftscore", 2);
 
     // tokenizers:
     public static final FunctionIdentifier WORD_TOKENS =
@@ -605,6 +608,14 @@ public class BuiltinFunctions {
     public static final FunctionIdentifier TID = new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "tid", 0);
     public static final FunctionIdentifier GTID = new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "gtid", 0);
 
+    // window functions
+    public static final FunctionIdentifier ROW_NUMBER =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "row_number", 0);
+    public static final FunctionIdentifier RANK =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "rank", FunctionIdentifier.VARARGS);
+    public static final FunctionIdentifier DENSE_RANK =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "dense_rank", FunctionIdentifier.VARARGS);
+
     // constructors:
     public static final FunctionIdentifier BOOLEAN_CONSTRUCTOR =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "boolean", 1);
@@ -1356,6 +1367,7 @@ public class BuiltinFunctions {
         // Full-text function
         addFunction(FULLTEXT_CONTAINS, FullTextContainsResultTypeComputer.INSTANCE, true);
         addFunction(FULLTEXT_CONTAINS_WO_OPTION, FullTextContainsResultTypeComputer.INSTANCE, true);
+        addFunction(FULLTEXT_SCORE, ADoubleTypeComputer.INSTANCE, true);
 
         // Spatial functions
         addFunction(SPATIAL_AREA, ADoubleTypeComputer.INSTANCE, true);
@@ -1446,6 +1458,9 @@ public class BuiltinFunctions {
         addPrivateFunction(CAST_TYPE_LAX, CastTypeLaxComputer.INSTANCE, true);
 
         addFunction(TID, AInt64TypeComputer.INSTANCE, true);
+        addFunction(ROW_NUMBER, AInt64TypeComputer.INSTANCE, true);
+        addFunction(RANK, AInt64TypeComputer.INSTANCE, true);
+        addFunction(DENSE_RANK, AInt64TypeComputer.INSTANCE, true);
         addFunction(TIME_CONSTRUCTOR, ATimeTypeComputer.INSTANCE, true);
         addPrivateFunction(TYPE_OF, null, true);
         addPrivateFunction(UNORDERED_LIST_CONSTRUCTOR, UnorderedListConstructorTypeComputer.INSTANCE, true);
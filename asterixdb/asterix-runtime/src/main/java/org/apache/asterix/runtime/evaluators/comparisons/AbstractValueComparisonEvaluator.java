@@ -19,6 +19,9 @@
 
 package org.apache.asterix.runtime.evaluators.comparisons;
 
+import org.apache.asterix.dataflow.data.nontagged.serde.ADoubleSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt32SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt64SerializerDeserializer;
 import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
 import org.apache.asterix.om.base.ABoolean;
 import org.apache.asterix.om.base.ANull;
@@ -26,25 +29,33 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.runtime.exceptions.UnsupportedTypeException;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchArgumentEvaluator;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.data.std.api.IPointable;
 
-public abstract class AbstractValueComparisonEvaluator extends AbstractComparisonEvaluator {
+public abstract class AbstractValueComparisonEvaluator extends AbstractComparisonEvaluator
+        implements IBatchPredicateEvaluator {
     @SuppressWarnings("unchecked")
     protected ISerializerDeserializer<ABoolean> serde =
             SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABOOLEAN);
     @SuppressWarnings("unchecked")
     protected ISerializerDeserializer<ANull> nullSerde =
             SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANULL);
+    private final BatchArgumentEvaluator batchLeft;
+    private final BatchArgumentEvaluator batchRight;
 
     public AbstractValueComparisonEvaluator(IScalarEvaluatorFactory evalLeftFactory,
             IScalarEvaluatorFactory evalRightFactory, IHyracksTaskContext ctx, SourceLocation sourceLoc)
             throws HyracksDataException {
         super(evalLeftFactory, evalRightFactory, ctx, sourceLoc);
+        batchLeft = new BatchArgumentEvaluator(evalLeftFactory, evalLeft);
+        batchRight = new BatchArgumentEvaluator(evalRightFactory, evalRight);
     }
 
     @Override
@@ -70,6 +81,51 @@ public abstract class AbstractValueComparisonEvaluator extends AbstractCompariso
         result.set(resultStorage);
     }
 
+    @Override
+    public int select(IFrameTupleAccessor accessor, int[] selection, int selectionSize) throws HyracksDataException {
+        // Each argument is evaluated on the whole selection first, then the values are compared pairwise.
+        batchLeft.evaluate(accessor, selection, selectionSize);
+        batchRight.evaluate(accessor, selection, selectionSize);
+        int selected = 0;
+        for (int i = 0; i < selectionSize; i++) {
+            batchLeft.getValue(i, argLeft);
+            batchRight.getValue(i, argRight);
+            argLeft.getValue(outLeft);
+            argRight.getValue(outRight);
+            if (isSatisfied()) {
+                selection[selected++] = selection[i];
+            }
+        }
+        return selected;
+    }
+
+    // Returns true iff evaluateImpl() would produce TRUE, without materializing the boolean result.
+    private boolean isSatisfied() throws HyracksDataException {
+        byte leftTag = argLeft.getTag();
+        if (leftTag == argRight.getTag()) {
+            // Fast paths for the most common comparisons of two values of the same numeric type.
+            byte[] leftBytes = outLeft.getByteArray();
+            int leftOffset = outLeft.getStartOffset();
+            byte[] rightBytes = outRight.getByteArray();
+            int rightOffset = outRight.getStartOffset();
+            if (leftTag == ATypeTag.SERIALIZED_INT64_TYPE_TAG) {
+                return getComparisonResult(Long.compare(AInt64SerializerDeserializer.getLong(leftBytes, leftOffset),
+                        AInt64SerializerDeserializer.getLong(rightBytes, rightOffset)));
+            } else if (leftTag == ATypeTag.SERIALIZED_INT32_TYPE_TAG) {
+                return getComparisonResult(Integer.compare(AInt32SerializerDeserializer.getInt(leftBytes, leftOffset),
+                        AInt32SerializerDeserializer.getInt(rightBytes, rightOffset)));
+            } else if (leftTag == ATypeTag.SERIALIZED_DOUBLE_TYPE_TAG) {
+                return getComparisonResult(
+                        Double.compare(ADoubleSerializerDeserializer.getDouble(leftBytes, leftOffset),
+                                ADoubleSerializerDeserializer.getDouble(rightBytes, rightOffset)));
+            }
+        }
+        if (isTotallyOrderable()) {
+            checkTotallyOrderable();
+        }
+        return comparabilityCheck() && getComparisonResult(compare());
+    }
+
     protected abstract boolean isTotallyOrderable();
 
     protected abstract boolean getComparisonResult(int r);
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.comparisons;
+
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * The evaluator factory of the value comparison functions (=, !=, <, <=, >, >=), whose evaluators can be used both
+ * tuple-at-a-time and as batch predicates.
+ */
+public abstract class ValueComparisonEvaluatorFactory
+        implements IScalarEvaluatorFactory, IBatchPredicateEvaluatorFactory {
+    private static final long serialVersionUID = 1L;
+
+    // The evaluator is a subclass of AbstractValueComparisonEvaluator. This is not part of the signature of
+    // createScalarEvaluator since the evaluator generator replaces that class by its generated version.
+    @Override
+    public IBatchPredicateEvaluator createBatchPredicateEvaluator(IHyracksTaskContext ctx) throws HyracksDataException {
+        return (IBatchPredicateEvaluator) createScalarEvaluator(ctx);
+    }
+}
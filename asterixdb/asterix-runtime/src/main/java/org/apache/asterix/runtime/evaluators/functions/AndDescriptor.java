@@ -21,6 +21,7 @@ package org.apache.asterix.runtime.evaluators.functions;
 import java.io.DataOutput;
 
 import org.apache.asterix.dataflow.data.nontagged.serde.ABooleanSerializerDeserializer;
+import org.apache.asterix.formats.nontagged.BinaryBooleanInspector;
 import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
 import org.apache.asterix.om.base.ABoolean;
 import org.apache.asterix.om.base.AMissing;
@@ -33,8 +34,13 @@ import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.runtime.evaluators.base.AbstractScalarFunctionDynamicDescriptor;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.TupleAtATimePredicateEvaluator;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -59,7 +65,7 @@ public class AndDescriptor extends AbstractScalarFunctionDynamicDescriptor {
 
     @Override
     public IScalarEvaluatorFactory createEvaluatorFactory(final IScalarEvaluatorFactory[] args) {
-        return new IScalarEvaluatorFactory() {
+        return new AndEvaluatorFactory(args) {
             private static final long serialVersionUID = 1L;
 
             @Override
@@ -134,4 +140,39 @@ public class AndDescriptor extends AbstractScalarFunctionDynamicDescriptor {
             }
         };
     }
+
+    /**
+     * As a batch predicate, a conjunction applies its arguments one after another, each on the tuples that satisfied
+     * all the previous ones.
+     */
+    private abstract static class AndEvaluatorFactory
+            implements IScalarEvaluatorFactory, IBatchPredicateEvaluatorFactory {
+        private static final long serialVersionUID = 1L;
+        private final IScalarEvaluatorFactory[] args;
+
+        AndEvaluatorFactory(IScalarEvaluatorFactory[] args) {
+            this.args = args;
+        }
+
+        @Override
+        public IBatchPredicateEvaluator createBatchPredicateEvaluator(IHyracksTaskContext ctx)
+                throws HyracksDataException {
+            IBinaryBooleanInspector bbi = BinaryBooleanInspector.FACTORY.createBinaryBooleanInspector(ctx);
+            final IBatchPredicateEvaluator[] conjuncts = new IBatchPredicateEvaluator[args.length];
+            for (int i = 0; i < conjuncts.length; i++) {
+                conjuncts[i] = TupleAtATimePredicateEvaluator.create(args[i], bbi, ctx);
+            }
+            return new IBatchPredicateEvaluator() {
+                @Override
+                public int select(IFrameTupleAccessor accessor, int[] selection, int selectionSize)
+                        throws HyracksDataException {
+                    int selected = selectionSize;
+                    for (int i = 0; i < conjuncts.length && selected > 0; i++) {
+                        selected = conjuncts[i].select(accessor, selection, selected);
+                    }
+                    return selected;
+                }
+            };
+        }
+    }
 }
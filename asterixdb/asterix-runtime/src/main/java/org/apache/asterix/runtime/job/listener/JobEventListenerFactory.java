@@ -40,7 +40,7 @@ public class JobEventListenerFactory implements IJobEventListenerFactory {
     private final boolean transactionalWrite;
 
     //To enable new Asterix TxnId for separate deployed job spec invocations
-    private static final byte[] TRANSACTION_ID_PARAMETER_NAME = "TxnIdParameter".getBytes();
+    public static final byte[] TRANSACTION_ID_PARAMETER_NAME = "TxnIdParameter".getBytes();
 
     public JobEventListenerFactory(TxnId txnId, boolean transactionalWrite) {
         this.txnId = txnId;
@@ -62,7 +62,7 @@ public class JobEventListenerFactory implements IJobEventListenerFactory {
         String AsterixTransactionIdString = new String(jobParameterByteStore
                 .getParameterValue(TRANSACTION_ID_PARAMETER_NAME, 0, TRANSACTION_ID_PARAMETER_NAME.length));
         if (AsterixTransactionIdString.length() > 0) {
-            this.txnId = new TxnId(Integer.parseInt(AsterixTransactionIdString));
+            this.txnId = new TxnId(Long.parseLong(AsterixTransactionIdString));
         }
     }
 
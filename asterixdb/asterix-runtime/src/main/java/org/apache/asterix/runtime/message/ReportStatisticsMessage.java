@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.asterix.common.messaging.api.ICcAddressedMessage;
+import org.apache.asterix.common.messaging.api.INCMessageBroker;
+import org.apache.asterix.common.storage.IStatisticsReporter;
+import org.apache.hyracks.api.application.INCServiceContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentId;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentId;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class ReportStatisticsMessage implements ICcAddressedMessage {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final int datasetId;
+    private final String indexName;
+    private final int partition;
+    // min and max id of the new component, null if there is no new component with statistics
+    private final long[] componentId;
+    private final byte[] statistics;
+    // min and max ids of the replaced components
+    private final long[] replacedComponentIds;
+
+    public ReportStatisticsMessage(int datasetId, String indexName, int partition, long[] componentId,
+            byte[] statistics, long[] replacedComponentIds) {
+        this.datasetId = datasetId;
+        this.indexName = indexName;
+        this.partition = partition;
+        this.componentId = componentId;
+        this.statistics = statistics;
+        this.replacedComponentIds = replacedComponentIds;
+    }
+
+    @Override
+    public void handle(ICcApplicationContext appCtx) throws HyracksDataException, InterruptedException {
+        List<ILSMComponentId> replaced = new ArrayList<>(replacedComponentIds.length / 2);
+        for (int i = 0; i < replacedComponentIds.length; i += 2) {
+            replaced.add(new LSMComponentId(replacedComponentIds[i], replacedComponentIds[i + 1]));
+        }
+        appCtx.getStatisticsManager().update(datasetId, indexName, partition,
+                componentId == null ? null : new LSMComponentId(componentId[0], componentId[1]),
+                statistics == null ? null : ComponentStatistics.fromBytes(statistics, 0), replaced);
+    }
+
+    /**
+     * Creates a reporter which sends the statistics of the local index partitions to the primary cluster controller.
+     * Statistics are only used for query optimization and reporting them is best effort.
+     */
+    public static IStatisticsReporter createReporter(INCServiceContext ncServiceContext) {
+        return (datasetId, indexName, partition, componentId, componentStatistics, replacedComponentIds) -> {
+            try {
+                long[] replaced = new long[replacedComponentIds.size() * 2];
+                for (int i = 0; i < replacedComponentIds.size(); i++) {
+                    replaced[2 * i] = ((LSMComponentId) replacedComponentIds.get(i)).getMinId();
+                    replaced[2 * i + 1] = ((LSMComponentId) replacedComponentIds.get(i)).getMaxId();
+                }
+                ReportStatisticsMessage message = new ReportStatisticsMessage(datasetId, indexName, partition,
+                        componentId == null ? null
+                                : new long[] { ((LSMComponentId) componentId).getMinId(),
+                                        ((LSMComponentId) componentId).getMaxId() },
+                        componentStatistics == null ? null : componentStatistics.toBytes(), replaced);
+                ((INCMessageBroker) ncServiceContext.getMessageBroker()).sendMessageToPrimaryCC(message);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARN, "Unable to report statistics of index " + indexName, e);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return ReportStatisticsMessage.class.getSimpleName() + " {datasetId: " + datasetId + ", index: " + indexName
+                + ", partition: " + partition + "}";
+    }
+}
@@ -52,15 +52,17 @@ import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
 import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.common.utils.TaskUtil;
-import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.impls.BatchPredicate;
 import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
 import org.apache.hyracks.storage.am.common.api.IModificationOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.api.ITreeIndex;
 import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
 import org.apache.hyracks.storage.am.common.tuples.PermutingFrameTupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeBatchPointSearchCursor;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameTupleProcessor;
@@ -69,7 +71,6 @@ import org.apache.hyracks.storage.am.lsm.common.dataflow.LSMIndexInsertUpdateDel
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
-import org.apache.hyracks.storage.common.IIndexCursor;
 import org.apache.hyracks.storage.common.MultiComparator;
 import org.apache.hyracks.util.trace.ITracer;
 import org.apache.hyracks.util.trace.ITracer.Scope;
@@ -88,10 +89,13 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
     private final IMissingWriter missingWriter;
     private ArrayTupleBuilder tb;
     private DataOutput dos;
-    private RangePredicate searchPred;
-    private IIndexCursor cursor;
+    private final int[] keyFields;
+    private BatchPredicate batchPredicate;
+    private ILSMIndexAccessor batchAccessor;
+    private LSMBTreeBatchPointSearchCursor batchCursor;
     private ITupleReference prevTuple;
     private final int numOfPrimaryKeys;
+    private final boolean hasSecondaries;
     boolean isFiltered = false;
     private final ArrayTupleReference prevTupleWithFilter = new ArrayTupleReference();
     private ArrayTupleBuilder prevRecWithPKWithFilterValue;
@@ -125,12 +129,13 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         this.searchCallbackFactory = searchCallbackFactory;
         this.numOfPrimaryKeys = numOfPrimaryKeys;
         this.frameOpCallbackFactory = frameOpCallbackFactory;
+        this.hasSecondaries = hasSecondaries;
         missingWriter = missingWriterFactory.createMissingWriter();
-        int[] searchKeyPermutations = new int[numOfPrimaryKeys];
-        for (int i = 0; i < searchKeyPermutations.length; i++) {
-            searchKeyPermutations[i] = fieldPermutation[i];
+        keyFields = new int[numOfPrimaryKeys];
+        for (int i = 0; i < keyFields.length; i++) {
+            keyFields[i] = fieldPermutation[i];
         }
-        key.setFieldPermutation(searchKeyPermutations);
+        key.setFieldPermutation(keyFields);
         hasMeta = (fieldPermutation.length > numOfPrimaryKeys + 1) && (filterFieldIndex < 0
                 || (filterFieldIndex >= 0 && (fieldPermutation.length > numOfPrimaryKeys + 2)));
         this.metaFieldIndex = numOfPrimaryKeys + 1;
@@ -146,51 +151,12 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         processor = new IFrameTupleProcessor() {
             @Override
             public void process(ITupleReference tuple, int index) throws HyracksDataException {
-                try {
-                    tb.reset();
-                    boolean recordWasInserted = false;
-                    boolean recordWasDeleted = false;
-                    boolean isDelete = isDeleteOperation(tuple, numOfPrimaryKeys);
-                    resetSearchPredicate(index);
-                    if (isFiltered || isDelete || hasSecondaries) {
-                        lsmAccessor.search(cursor, searchPred);
-                        try {
-                            if (cursor.hasNext()) {
-                                cursor.next();
-                                prevTuple = cursor.getTuple();
-                                appendFilterToPrevTuple();
-                                appendPrevRecord();
-                                appendPreviousMeta();
-                                appendFilterToOutput();
-                            } else {
-                                appendPreviousTupleAsMissing();
-                            }
-                        } finally {
-                            cursor.close(); // end the search
-                        }
-                    } else {
-                        searchCallback.before(key); // lock
-                        appendPreviousTupleAsMissing();
-                    }
-                    if (isDelete && prevTuple != null) {
-                        // Only delete if it is a delete and not upsert
-                        // And previous tuple with the same key was found
-                        abstractModCallback.setOp(Operation.DELETE);
-                        lsmAccessor.forceDelete(tuple);
-                        recordWasDeleted = true;
-                    } else if (!isDelete) {
-                        abstractModCallback.setOp(Operation.UPSERT);
-                        lsmAccessor.forceUpsert(tuple);
-                        recordWasInserted = true;
-                    }
-                    if (isFiltered && prevTuple != null) {
-                        // need to update the filter of the new component with the previous value
-                        lsmAccessor.updateFilter(prevTuple);
-                    }
-                    writeOutput(index, recordWasInserted, recordWasDeleted);
-                } catch (Exception e) {
-                    throw HyracksDataException.create(e);
+                if (index == 0) {
+                    startFrame();
                 }
+                // the tuples are processed in the order of their keys, so that the lookups move forward
+                batchCursor.next();
+                processTuple(batchCursor.getKeyIndex());
             }
 
             @Override
@@ -200,13 +166,71 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
 
             @Override
             public void finish() throws HyracksDataException {
-                lsmAccessor.getCtx().setOperation(IndexOperation.UPSERT);
+                try {
+                    searchCallback.endBatch();
+                    batchCursor.close();
+                } finally {
+                    lsmAccessor.getCtx().setOperation(IndexOperation.UPSERT);
+                }
             }
         };
         tracer = ctx.getJobletContext().getServiceContext().getTracer();
         traceCategory = tracer.getRegistry().get(TraceUtils.LATENCY);
     }
 
+    private void startFrame() throws HyracksDataException {
+        batchPredicate.reset(accessor);
+        // the keys of the frame are locked with one call of the lock manager. If a key cannot be locked, the keys
+        // are locked one at a time while the frame is processed.
+        for (int i = 0; i < accessor.getTupleCount(); i++) {
+            key.reset(accessor, i);
+            searchCallback.addToBatch(key);
+        }
+        searchCallback.lockBatch();
+        // the mutable component has been entered for the frame already, so every modification of the frame is
+        // visible to the lookups of the cursor
+        batchAccessor.search(batchCursor, batchPredicate);
+    }
+
+    private void processTuple(int index) throws HyracksDataException {
+        try {
+            tuple.reset(accessor, index);
+            tb.reset();
+            boolean recordWasInserted = false;
+            boolean recordWasDeleted = false;
+            boolean isDelete = isDeleteOperation(tuple, numOfPrimaryKeys);
+            key.reset(accessor, index);
+            searchCallback.before(key); // lock
+            if ((isFiltered || isDelete || hasSecondaries) && batchCursor.find()) {
+                prevTuple = batchCursor.getTuple();
+                appendFilterToPrevTuple();
+                appendPrevRecord();
+                appendPreviousMeta();
+                appendFilterToOutput();
+            } else {
+                appendPreviousTupleAsMissing();
+            }
+            if (isDelete && prevTuple != null) {
+                // Only delete if it is a delete and not upsert
+                // And previous tuple with the same key was found
+                abstractModCallback.setOp(Operation.DELETE);
+                lsmAccessor.forceDelete(tuple);
+                recordWasDeleted = true;
+            } else if (!isDelete) {
+                abstractModCallback.setOp(Operation.UPSERT);
+                lsmAccessor.forceUpsert(tuple);
+                recordWasInserted = true;
+            }
+            if (isFiltered && prevTuple != null) {
+                // need to update the filter of the new component with the previous value
+                lsmAccessor.updateFilter(prevTuple);
+            }
+            writeOutput(index, recordWasInserted, recordWasDeleted);
+        } catch (Exception e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
     // we have the permutation which has [pk locations, record location, optional:filter-location]
     // the index -> we don't need anymore data?
     // we need to use the primary index opTracker and secondary indexes callbacks for insert/delete since the lock would
@@ -232,7 +256,8 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
                 throw HyracksDataException.create(e);
             }
             missingTupleBuilder.addFieldEndOffset();
-            searchPred = createSearchPredicate();
+            keySearchCmp = BTreeUtils.getSearchMultiComparator(((ITreeIndex) index).getComparatorFactories(), key);
+            batchPredicate = new BatchPredicate(keyFields, keySearchCmp);
             tb = new ArrayTupleBuilder(recordDesc.getFieldCount());
             dos = tb.getDataOutput();
             appender = new FrameTupleAppender(new VSizeFrame(ctx), true);
@@ -244,7 +269,9 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
             IIndexAccessParameters iap = new IndexAccessParameters(abstractModCallback, searchCallback);
             indexAccessor = index.createAccessor(iap);
             lsmAccessor = (LSMTreeIndexAccessor) indexAccessor;
-            cursor = indexAccessor.createSearchCursor(false);
+            // the lookups of a frame use their own accessor, since their search lasts for the whole frame
+            batchAccessor = (ILSMIndexAccessor) index.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+            batchCursor = new LSMBTreeBatchPointSearchCursor(((LSMTreeIndexAccessor) batchAccessor).getCtx());
             frameTuple = new FrameTupleReference();
             INcApplicationContext appCtx =
                     (INcApplicationContext) ctx.getJobletContext().getServiceContext().getApplicationContext();
@@ -270,11 +297,6 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         }
     }
 
-    private void resetSearchPredicate(int tupleIndex) {
-        key.reset(accessor, tupleIndex);
-        searchPred.reset(key, key, true, true, keySearchCmp, keySearchCmp);
-    }
-
     private void writeOutput(int tupleIndex, boolean recordWasInserted, boolean recordWasDeleted) throws IOException {
         if (recordWasInserted || recordWasDeleted) {
             frameTuple.reset(accessor, tupleIndex);
@@ -378,16 +400,11 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         }
     }
 
-    private RangePredicate createSearchPredicate() {
-        keySearchCmp = BTreeUtils.getSearchMultiComparator(((ITreeIndex) index).getComparatorFactories(), key);
-        return new RangePredicate(key, key, true, true, keySearchCmp, keySearchCmp, null, null);
-    }
-
     @Override
     public void close() throws HyracksDataException {
         traceLastRecordIn();
         Throwable failure = CleanupUtils.close(frameOpCallback, null);
-        failure = CleanupUtils.destroy(failure, cursor);
+        failure = CleanupUtils.destroy(failure, batchCursor);
         failure = CleanupUtils.close(writer, failure);
         failure = CleanupUtils.close(indexHelper, failure);
         if (failure != null) {
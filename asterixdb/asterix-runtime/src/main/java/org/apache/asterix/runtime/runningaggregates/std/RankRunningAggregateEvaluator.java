@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.runningaggregates.std;
+
+import org.apache.asterix.formats.nontagged.BinaryComparatorFactoryProvider;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AMutableInt64;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * Computes the rank of each row within a window partition. The arguments are the window's ORDER BY keys;
+ * rows with equal keys (peers) receive the same rank. A dense rank increases by one between peer groups,
+ * while a regular rank skips over the number of peers in the preceding group.
+ */
+class RankRunningAggregateEvaluator implements IRunningAggregateEvaluator {
+
+    private final IScalarEvaluator[] args;
+    private final IPointable[] argValues;
+    private final ArrayBackedValueStorage[] prevValues;
+    private final IBinaryComparator cmp = BinaryComparatorFactoryProvider.INSTANCE
+            .getBinaryComparatorFactory(BuiltinType.ANY, true).createBinaryComparator();
+    private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
+    @SuppressWarnings("unchecked")
+    private final ISerializerDeserializer<AInt64> serde =
+            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.AINT64);
+    private final AMutableInt64 aInt64 = new AMutableInt64(0);
+    private final boolean dense;
+    private long rank;
+    private long groupSize;
+    private boolean first;
+
+    RankRunningAggregateEvaluator(IScalarEvaluatorFactory[] argFactories, IHyracksTaskContext ctx, boolean dense)
+            throws HyracksDataException {
+        args = new IScalarEvaluator[argFactories.length];
+        argValues = new IPointable[argFactories.length];
+        prevValues = new ArrayBackedValueStorage[argFactories.length];
+        for (int i = 0; i < argFactories.length; i++) {
+            args[i] = argFactories[i].createScalarEvaluator(ctx);
+            argValues[i] = new VoidPointable();
+            prevValues[i] = new ArrayBackedValueStorage();
+        }
+        this.dense = dense;
+    }
+
+    @Override
+    public void init() throws HyracksDataException {
+        rank = 0;
+        groupSize = 1;
+        first = true;
+    }
+
+    @Override
+    public void step(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+        for (int i = 0; i < args.length; i++) {
+            args[i].evaluate(tuple, argValues[i]);
+        }
+        if (first || !samePeerGroup()) {
+            rank += dense ? 1 : groupSize;
+            groupSize = 1;
+            for (int i = 0; i < args.length; i++) {
+                prevValues[i].assign(argValues[i]);
+            }
+            first = false;
+        } else {
+            groupSize++;
+        }
+        resultStorage.reset();
+        aInt64.setValue(rank);
+        serde.serialize(aInt64, resultStorage.getDataOutput());
+        result.set(resultStorage);
+    }
+
+    private boolean samePeerGroup() throws HyracksDataException {
+        for (int i = 0; i < args.length; i++) {
+            IPointable v = argValues[i];
+            ArrayBackedValueStorage p = prevValues[i];
+            if (cmp.compare(v.getByteArray(), v.getStartOffset(), v.getLength(), p.getByteArray(), p.getStartOffset(),
+                    p.getLength()) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
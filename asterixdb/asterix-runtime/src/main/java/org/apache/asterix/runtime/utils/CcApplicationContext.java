@@ -24,6 +24,7 @@ import java.util.function.Supplier;
 import org.apache.asterix.common.api.ICoordinationService;
 import org.apache.asterix.common.api.IMetadataLockManager;
 import org.apache.asterix.common.api.INodeJobTracker;
+import org.apache.asterix.common.api.IQueryPlanCache;
 import org.apache.asterix.common.transactions.ITxnIdFactory;
 import org.apache.asterix.common.cluster.IClusterStateManager;
 import org.apache.asterix.common.cluster.IGlobalRecoveryManager;
@@ -44,6 +45,7 @@ import org.apache.asterix.common.dataflow.ICcApplicationContext;
 import org.apache.asterix.common.library.ILibraryManager;
 import org.apache.asterix.common.metadata.IMetadataBootstrap;
 import org.apache.asterix.common.replication.INcLifecycleCoordinator;
+import org.apache.asterix.common.storage.IStatisticsManager;
 import org.apache.asterix.common.transactions.IResourceIdManager;
 import org.apache.asterix.runtime.job.listener.NodeJobTracker;
 import org.apache.asterix.runtime.transaction.ResourceIdManager;
@@ -87,6 +89,8 @@ public class CcApplicationContext implements ICcApplicationContext {
     private IClusterStateManager clusterStateManager;
     private final INodeJobTracker nodeJobTracker;
     private final ITxnIdFactory txnIdFactory;
+    private final IStatisticsManager statisticsManager;
+    private IQueryPlanCache queryPlanCache;
 
     public CcApplicationContext(ICCServiceContext ccServiceCtx, IHyracksClientConnection hcc,
             ILibraryManager libraryManager, Supplier<IMetadataBootstrap> metadataBootstrapSupplier,
@@ -121,6 +125,7 @@ public class CcApplicationContext implements ICcApplicationContext {
         this.resourceIdManager = new ResourceIdManager(clusterStateManager);
         nodeJobTracker = new NodeJobTracker();
         txnIdFactory = new BulkTxnIdFactory();
+        statisticsManager = new StatisticsManager();
 
     }
 
@@ -273,4 +278,19 @@ public class CcApplicationContext implements ICcApplicationContext {
     public ITxnIdFactory getTxnIdFactory() {
         return txnIdFactory;
     }
+
+    @Override
+    public IStatisticsManager getStatisticsManager() {
+        return statisticsManager;
+    }
+
+    @Override
+    public IQueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
+    @Override
+    public void setQueryPlanCache(IQueryPlanCache queryPlanCache) {
+        this.queryPlanCache = queryPlanCache;
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.asterix.common.storage.IStatisticsManager;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentId;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+
+public class StatisticsManager implements IStatisticsManager {
+
+    // dataset id -> index name -> partition -> component id -> component statistics
+    private final Map<Integer, Map<String, Map<Integer, Map<ILSMComponentId, ComponentStatistics>>>> statistics =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public void update(int datasetId, String indexName, int partition, ILSMComponentId componentId,
+            ComponentStatistics componentStatistics, List<ILSMComponentId> replacedComponentIds) {
+        Map<ILSMComponentId, ComponentStatistics> partitionStatistics =
+                statistics.computeIfAbsent(datasetId, id -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(indexName, name -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(partition, p -> new HashMap<>());
+        synchronized (partitionStatistics) {
+            // a merged component may have the same id as the last component it replaces
+            for (ILSMComponentId replacedComponentId : replacedComponentIds) {
+                partitionStatistics.remove(replacedComponentId);
+            }
+            if (componentId != null && componentStatistics != null) {
+                partitionStatistics.put(componentId, componentStatistics);
+            }
+        }
+    }
+
+    @Override
+    public ComponentStatistics getStatistics(int datasetId, String indexName) {
+        Map<String, Map<Integer, Map<ILSMComponentId, ComponentStatistics>>> datasetStatistics =
+                statistics.get(datasetId);
+        Map<Integer, Map<ILSMComponentId, ComponentStatistics>> indexStatistics =
+                datasetStatistics == null ? null : datasetStatistics.get(indexName);
+        if (indexStatistics == null) {
+            return null;
+        }
+        ComponentStatistics merged = null;
+        for (Map<ILSMComponentId, ComponentStatistics> partitionStatistics : indexStatistics.values()) {
+            synchronized (partitionStatistics) {
+                for (ComponentStatistics componentStatistics : partitionStatistics.values()) {
+                    if (merged == null) {
+                        merged = new ComponentStatistics(componentStatistics.getNumFields());
+                    }
+                    merged.merge(componentStatistics);
+                }
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void drop(int datasetId) {
+        statistics.remove(datasetId);
+    }
+}
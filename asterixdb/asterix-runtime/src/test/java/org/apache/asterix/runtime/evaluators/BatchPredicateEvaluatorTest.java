@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.DataOutput;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.asterix.formats.nontagged.BinaryBooleanInspector;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AMissing;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.evaluators.base.AbstractScalarFunctionDynamicDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.EqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.GreaterThanOrEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.LessThanDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.NotEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.AndDescriptor;
+import org.apache.asterix.runtime.functions.FunctionCollection;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ColumnAccessEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that evaluating predicates on batches of tuples selects exactly the tuples for which the tuple-at-a-time
+ * evaluators return TRUE.
+ */
+public class BatchPredicateEvaluatorTest {
+
+    private static final int NUM_TUPLES = 500;
+
+    private final IHyracksTaskContext ctx = mock(IHyracksTaskContext.class);
+    private final IBinaryBooleanInspector bbi = BinaryBooleanInspector.FACTORY.createBinaryBooleanInspector(ctx);
+
+    @SuppressWarnings("unchecked")
+    private static byte[] serialize(IAObject value) throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(value.getType()).serialize(value,
+                storage.getDataOutput());
+        return Arrays.copyOf(storage.getByteArray(), storage.getLength());
+    }
+
+    // Field 0 mixes bigints, ints, doubles, nulls and missings; field 1 holds bigints.
+    private static IAObject valueOf(int i) {
+        switch (i % 5) {
+            case 0:
+                return new AInt64(i);
+            case 1:
+                return new AInt32(i);
+            case 2:
+                return new ADouble(i + 0.5);
+            case 3:
+                return ANull.NULL;
+            default:
+                return i % 10 == 4 ? AMissing.MISSING : new AInt64(-i);
+        }
+    }
+
+    private static FrameTupleAccessor createFrame() throws Exception {
+        ISerializerDeserializer[] fields = new ISerializerDeserializer[] {
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY),
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.AINT64) };
+        RecordDescriptor rd = new RecordDescriptor(fields);
+        FixedSizeFrame frame = new FixedSizeFrame(ByteBuffer.allocate(64 * 1024));
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        for (int i = 0; i < NUM_TUPLES; i++) {
+            tb.reset();
+            DataOutput out = tb.getDataOutput();
+            out.write(serialize(valueOf(i)));
+            tb.addFieldEndOffset();
+            out.write(serialize(new AInt64(NUM_TUPLES - i)));
+            tb.addFieldEndOffset();
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        FrameTupleAccessor accessor = new FrameTupleAccessor(rd);
+        accessor.reset(frame.getBuffer());
+        return accessor;
+    }
+
+    private void assertSameSelection(IScalarEvaluatorFactory factory) throws Exception {
+        Assert.assertTrue(factory instanceof IBatchPredicateEvaluatorFactory);
+        FrameTupleAccessor accessor = createFrame();
+
+        IScalarEvaluator eval = factory.createScalarEvaluator(ctx);
+        FrameTupleReference tupleRef = new FrameTupleReference();
+        IPointable result = VoidPointable.FACTORY.createPointable();
+        int[] expected = new int[NUM_TUPLES];
+        int numExpected = 0;
+        for (int t = 0; t < NUM_TUPLES; t++) {
+            tupleRef.reset(accessor, t);
+            eval.evaluate(tupleRef, result);
+            if (bbi.getBooleanValue(result.getByteArray(), result.getStartOffset(), result.getLength())) {
+                expected[numExpected++] = t;
+            }
+        }
+
+        IBatchPredicateEvaluator batchEval =
+                ((IBatchPredicateEvaluatorFactory) factory).createBatchPredicateEvaluator(ctx);
+        int[] selection = new int[NUM_TUPLES];
+        for (int t = 0; t < NUM_TUPLES; t++) {
+            selection[t] = t;
+        }
+        int numSelected = batchEval.select(accessor, selection, NUM_TUPLES);
+        Assert.assertTrue(numSelected > 0);
+        Assert.assertEquals(numExpected, numSelected);
+        for (int i = 0; i < numSelected; i++) {
+            Assert.assertEquals(expected[i], selection[i]);
+        }
+    }
+
+    private static IScalarEvaluatorFactory constant(IAObject value) throws Exception {
+        return new ConstantEvalFactory(serialize(value));
+    }
+
+    @Test
+    public void comparisonWithConstant() throws Exception {
+        assertSameSelection(new LessThanDescriptor().createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), constant(new AInt64(200)) }));
+        assertSameSelection(new EqualsDescriptor().createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), constant(new ADouble(42.5)) }));
+    }
+
+    @Test
+    public void comparisonOfColumns() throws Exception {
+        assertSameSelection(new GreaterThanOrEqualsDescriptor().createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), new ColumnAccessEvalFactory(1) }));
+        assertSameSelection(new NotEqualsDescriptor().createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(1), new ColumnAccessEvalFactory(0) }));
+    }
+
+    // The function collection registers the descriptors rewritten by the evaluator generator, not the ones above.
+    private static IScalarEvaluatorFactory createGenerated(FunctionIdentifier fid, IScalarEvaluatorFactory... args)
+            throws Exception {
+        for (IFunctionDescriptorFactory factory : FunctionCollection.createDefaultFunctionCollection()
+                .getFunctionDescriptorFactories()) {
+            IFunctionDescriptor descriptor = factory.createFunctionDescriptor();
+            if (descriptor.getIdentifier().equals(fid)) {
+                return ((AbstractScalarFunctionDynamicDescriptor) descriptor).createEvaluatorFactory(args);
+            }
+        }
+        throw new IllegalArgumentException(fid.getName());
+    }
+
+    @Test
+    public void generatedComparison() throws Exception {
+        assertSameSelection(
+                createGenerated(BuiltinFunctions.LT, new ColumnAccessEvalFactory(0), constant(new AInt64(200))));
+        assertSameSelection(
+                createGenerated(BuiltinFunctions.EQ, new ColumnAccessEvalFactory(1), new ColumnAccessEvalFactory(0)));
+    }
+
+    // An argument that is neither a field reference nor a constant. Its evaluator reuses one buffer for all results.
+    private static IScalarEvaluatorFactory copyOf(int fieldIndex) {
+        return new IScalarEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public IScalarEvaluator createScalarEvaluator(IHyracksTaskContext ctx) {
+                ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+                IPointable field = VoidPointable.FACTORY.createPointable();
+                return (tuple, result) -> {
+                    field.set(tuple.getFieldData(fieldIndex), tuple.getFieldStart(fieldIndex),
+                            tuple.getFieldLength(fieldIndex));
+                    storage.reset();
+                    storage.append(field);
+                    result.set(storage);
+                };
+            }
+        };
+    }
+
+    @Test
+    public void comparisonOfExpressions() throws Exception {
+        assertSameSelection(new LessThanDescriptor()
+                .createEvaluatorFactory(new IScalarEvaluatorFactory[] { copyOf(0), constant(new AInt64(200)) }));
+        assertSameSelection(new GreaterThanOrEqualsDescriptor()
+                .createEvaluatorFactory(new IScalarEvaluatorFactory[] { copyOf(0), copyOf(1) }));
+    }
+
+    @Test
+    public void conjunction() throws Exception {
+        IScalarEvaluatorFactory lt = new LessThanDescriptor().createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), constant(new AInt32(300)) });
+        IScalarEvaluatorFactory ge = new GreaterThanOrEqualsDescriptor().createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(1), constant(new AInt64(250)) });
+        assertSameSelection(new AndDescriptor().createEvaluatorFactory(new IScalarEvaluatorFactory[] { lt, ge }));
+    }
+}
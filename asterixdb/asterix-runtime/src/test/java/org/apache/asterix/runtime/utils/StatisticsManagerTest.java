@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentId;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StatisticsManagerTest {
+
+    private static final int DATASET_ID = 101;
+    private static final String INDEX = "ds";
+
+    @Test
+    public void testFlushAndMerge() {
+        StatisticsManager manager = new StatisticsManager();
+        Assert.assertNull(manager.getStatistics(DATASET_ID, INDEX));
+
+        LSMComponentId first = new LSMComponentId(1, 1);
+        LSMComponentId second = new LSMComponentId(2, 2);
+        manager.update(DATASET_ID, INDEX, 0, first, createStatistics(0, 1000), Collections.emptyList());
+        manager.update(DATASET_ID, INDEX, 0, second, createStatistics(1000, 2000), Collections.emptyList());
+        manager.update(DATASET_ID, INDEX, 1, first, createStatistics(2000, 2500), Collections.emptyList());
+        ComponentStatistics statistics = manager.getStatistics(DATASET_ID, INDEX);
+        Assert.assertEquals(2500, statistics.getNumTuples());
+        Assert.assertEquals(2500, statistics.getDistinctValues(0), 250);
+
+        // the merged component replaces the statistics of the components it was merged from
+        LSMComponentId merged = new LSMComponentId(1, 2);
+        manager.update(DATASET_ID, INDEX, 0, merged, createStatistics(0, 1500), Arrays.asList(first, second));
+        statistics = manager.getStatistics(DATASET_ID, INDEX);
+        Assert.assertEquals(2000, statistics.getNumTuples());
+        Assert.assertEquals(2000, statistics.getDistinctValues(0), 200);
+
+        // a merge may produce no component at all
+        manager.update(DATASET_ID, INDEX, 0, null, null, Collections.singletonList(merged));
+        Assert.assertEquals(500, manager.getStatistics(DATASET_ID, INDEX).getNumTuples());
+
+        manager.drop(DATASET_ID);
+        Assert.assertNull(manager.getStatistics(DATASET_ID, INDEX));
+    }
+
+    @Test
+    public void testMergedComponentWithSameId() {
+        StatisticsManager manager = new StatisticsManager();
+        LSMComponentId first = new LSMComponentId(1, 1);
+        manager.update(DATASET_ID, INDEX, 0, first, createStatistics(0, 1000), Collections.emptyList());
+        // merging a single component keeps its id
+        manager.update(DATASET_ID, INDEX, 0, new LSMComponentId(1, 1), createStatistics(0, 800),
+                Collections.singletonList(first));
+        Assert.assertEquals(800, manager.getStatistics(DATASET_ID, INDEX).getNumTuples());
+    }
+
+    private static ComponentStatistics createStatistics(int from, int to) {
+        ComponentStatistics statistics = new ComponentStatistics(1);
+        byte[][] fieldData = { new byte[Integer.BYTES] };
+        int[] fieldStarts = { 0 };
+        int[] fieldLengths = { Integer.BYTES };
+        for (int i = from; i < to; i++) {
+            IntegerPointable.setInteger(fieldData[0], 0, i);
+            statistics.addTuple(fieldData, fieldStarts, fieldLengths);
+        }
+        return statistics;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.asterix.transaction.management.opcallbacks;
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.transactions.AbstractOperationCallback;
 import org.apache.asterix.common.transactions.DatasetId;
+import org.apache.asterix.common.transactions.IBatchLockOperationCallback;
 import org.apache.asterix.common.transactions.ILogManager;
 import org.apache.asterix.common.transactions.ILogRecord;
 import org.apache.asterix.common.transactions.ITransactionContext;
@@ -35,7 +36,8 @@ import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.lsm.common.dataflow.LSMIndexInsertUpdateDeleteOperatorNodePushable;
 import org.apache.hyracks.storage.common.ISearchOperationCallback;
 
-public class LockThenSearchOperationCallback extends AbstractOperationCallback implements ISearchOperationCallback {
+public class LockThenSearchOperationCallback extends AbstractOperationCallback
+        implements ISearchOperationCallback, IBatchLockOperationCallback {
 
     /**
      * variables used for deadlock-free locking protocol
@@ -79,6 +81,10 @@ public class LockThenSearchOperationCallback extends AbstractOperationCallback i
     @Override
     public void before(ITupleReference tuple) throws HyracksDataException {
         pkHash = computePrimaryKeyHashValue(tuple, primaryKeyFields);
+        if (isBatchLocked()) {
+            // the key was locked together with the other keys of the batch
+            return;
+        }
         try {
             if (operatorNodePushable != null) {
 
@@ -122,6 +128,15 @@ public class LockThenSearchOperationCallback extends AbstractOperationCallback i
         }
     }
 
+    @Override
+    public boolean lockBatch() throws HyracksDataException {
+        try {
+            return tryLockBatch(LockMode.X);
+        } catch (ACIDException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
     private void logWait() throws ACIDException {
         logManager.log(logRecord);
     }
@@ -22,6 +22,7 @@ package org.apache.asterix.transaction.management.opcallbacks;
 import org.apache.asterix.common.dataflow.LSMInsertDeleteOperatorNodePushable;
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.transactions.DatasetId;
+import org.apache.asterix.common.transactions.IBatchLockOperationCallback;
 import org.apache.asterix.common.transactions.ILockManager;
 import org.apache.asterix.common.transactions.ITransactionContext;
 import org.apache.asterix.common.transactions.ITransactionSubsystem;
@@ -35,7 +36,8 @@ import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
  * Assumes LSM-BTrees as primary indexes.
  * Performs locking on primary keys, and also logs before/after images.
  */
-public class PrimaryIndexModificationOperationCallback extends AbstractIndexModificationOperationCallback {
+public class PrimaryIndexModificationOperationCallback extends AbstractIndexModificationOperationCallback
+        implements IBatchLockOperationCallback {
 
     private final LSMInsertDeleteOperatorNodePushable operatorNodePushable;
 
@@ -49,6 +51,10 @@ public class PrimaryIndexModificationOperationCallback extends AbstractIndexModi
 
     @Override
     public void before(ITupleReference tuple) throws HyracksDataException {
+        if (isBatchLocked()) {
+            // the key was locked together with the other keys of the batch
+            return;
+        }
         int pkHash = computePrimaryKeyHashValue(tuple, primaryKeyFields);
         try {
             if (operatorNodePushable != null) {
@@ -93,6 +99,15 @@ public class PrimaryIndexModificationOperationCallback extends AbstractIndexModi
         }
     }
 
+    @Override
+    public boolean lockBatch() throws HyracksDataException {
+        try {
+            return tryLockBatch(LockMode.X);
+        } catch (ACIDException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
     @Override
     public void found(ITupleReference before, ITupleReference after) throws HyracksDataException {
         try {
@@ -35,6 +35,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import it.unimi.dsi.fastutil.ints.IntArrays;
 import it.unimi.dsi.fastutil.longs.Long2LongMap;
 import it.unimi.dsi.fastutil.longs.Long2LongMaps;
 import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
@@ -428,6 +429,77 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
         }
     }
 
+    @Override
+    public boolean tryLock(DatasetId datasetId, int[] entityHashValues, int count, byte lockMode,
+            ITransactionContext txnContext) throws ACIDException {
+        log("batchTryLock", datasetId.getId(), NIL, lockMode, txnContext);
+        stats.batchTryLock(count);
+        if (count == 0) {
+            return true;
+        }
+
+        final int dsId = datasetId.getId();
+        final long txnId = txnContext.getTxnId().getId();
+        final long jobSlot = findOrAllocJobSlot(txnId);
+        validateJob(txnContext);
+
+        // order the entities by resource group, so that each group is latched once
+        IntArrays.quickSort(entityHashValues, 0, count, (h1, h2) -> {
+            int cmp = Integer.compare(table.index(dsId, h1), table.index(dsId, h2));
+            return cmp != 0 ? cmp : Integer.compare(h1, h2);
+        });
+
+        int locked = 0;
+        boolean granted = true;
+        while (granted && locked < count) {
+            final int groupIndex = table.index(dsId, entityHashValues[locked]);
+            final ResourceGroup group = table.get(groupIndex);
+            group.getLatch();
+            try {
+                do {
+                    granted = tryLockInGroup(group, dsId, entityHashValues[locked], lockMode, jobSlot);
+                    if (granted) {
+                        ++locked;
+                    }
+                } while (granted && locked < count && table.index(dsId, entityHashValues[locked]) == groupIndex);
+            } finally {
+                group.releaseLatch();
+            }
+        }
+
+        if (!granted) {
+            stats.batchTryLockFailed();
+            for (int i = locked - 1; i >= 0; --i) {
+                unlock(dsId, entityHashValues[i], lockMode, jobSlot);
+            }
+            return false;
+        }
+
+        if (CHECK_CONSISTENCY) {
+            assertLocksCanBefoundInJobQueue();
+        }
+        return true;
+    }
+
+    private boolean tryLockInGroup(ResourceGroup group, int dsId, int entityHashValue, byte lockMode, long jobSlot) {
+        final long resSlot = findOrAllocResourceSlot(group, dsId, entityHashValue);
+        final LockAction act = determineLockAction(resSlot, jobSlot, lockMode);
+        switch (act) {
+            case UPD:
+                resArenaMgr.setMaxMode(resSlot, lockMode);
+                //fall-through
+            case GET:
+                // the request slot is only allocated for a granted lock
+                addHolder(allocRequestSlot(resSlot, jobSlot, lockMode), resSlot, jobSlot);
+                return true;
+            case WAIT:
+            case CONV:
+                return false;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
     @Override
     public boolean instantTryLock(DatasetId datasetId, int entityHashValue, byte lockMode,
             ITransactionContext txnContext) throws ACIDException {
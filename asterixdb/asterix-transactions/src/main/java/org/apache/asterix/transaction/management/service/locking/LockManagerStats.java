@@ -33,6 +33,9 @@ final class LockManagerStats {
     private final AtomicLong itlCnt = new AtomicLong();
     private final AtomicLong ulCnt = new AtomicLong();
     private final AtomicLong rlCnt = new AtomicLong();
+    private final AtomicLong btlCnt = new AtomicLong();
+    private final AtomicLong btlEntityCnt = new AtomicLong();
+    private final AtomicLong btlFailCnt = new AtomicLong();
 
     LockManagerStats(int loggingPeriod) {
         this.loggingPeriod = loggingPeriod;
@@ -62,15 +65,26 @@ final class LockManagerStats {
         rlCnt.incrementAndGet();
     }
 
+    final void batchTryLock(int entityCount) {
+        btlCnt.incrementAndGet();
+        btlEntityCnt.addAndGet(entityCount);
+    }
+
+    final void batchTryLockFailed() {
+        btlFailCnt.incrementAndGet();
+    }
+
     final int requestSum() {
         return lCnt.intValue() + ilCnt.intValue() + tlCnt.intValue() + itlCnt.intValue() + ulCnt.intValue()
-                + rlCnt.intValue();
+                + rlCnt.intValue() + btlCnt.intValue();
     }
 
     final StringBuilder append(StringBuilder sb) {
         sb.append("{").append(" lock : ").append(lCnt).append(", instantLock : ").append(ilCnt).append(", tryLock : ")
                 .append(tlCnt).append(", instantTryLock : ").append(itlCnt).append(", unlock : ").append(ulCnt)
-                .append(", releaseLocks : ").append(rlCnt).append(" }");
+                .append(", releaseLocks : ").append(rlCnt).append(", batchTryLock : ").append(btlCnt)
+                .append(", batchTryLockEntities : ").append(btlEntityCnt).append(", batchTryLockFailed : ")
+                .append(btlFailCnt).append(" }");
         return sb;
     }
 
@@ -41,11 +41,15 @@ class ResourceGroupTable {
     }
 
     ResourceGroup get(int dId, int entityHashValue) {
+        return table[index(dId, entityHashValue)];
+    }
+
+    int index(int dId, int entityHashValue) {
         // TODO ensure good properties of hash function
         int h = Math.abs(dId ^ entityHashValue);
         if (h < 0)
             h = 0;
-        return table[h % size];
+        return h % size;
     }
 
     ResourceGroup get(int i) {
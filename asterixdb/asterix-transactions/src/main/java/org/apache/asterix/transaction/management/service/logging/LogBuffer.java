@@ -21,6 +21,7 @@ package org.apache.asterix.transaction.management.service.logging;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.asterix.common.context.PrimaryIndexOperationTracker;
@@ -62,9 +63,19 @@ public class LogBuffer implements ILogBuffer {
     private boolean stop;
     private final MutableTxnId reusableTxnId;
     private final DatasetId reusableDatasetId;
+    private final LogGroupCommit groupCommit;
+    // the number of commit logs appended to and flushed from the buffer
+    private int appendedCommits;
+    private int flushedCommits;
 
     public LogBuffer(ITransactionSubsystem txnSubsystem, int logPageSize, MutableLong flushLSN) {
+        this(txnSubsystem, logPageSize, flushLSN, LogGroupCommit.NONE);
+    }
+
+    public LogBuffer(ITransactionSubsystem txnSubsystem, int logPageSize, MutableLong flushLSN,
+            LogGroupCommit groupCommit) {
         this.txnSubsystem = txnSubsystem;
+        this.groupCommit = groupCommit;
         this.logPageSize = logPageSize;
         this.flushLSN = flushLSN;
         appendBuffer = ByteBuffer.allocate(logPageSize);
@@ -99,6 +110,9 @@ public class LogBuffer implements ILogBuffer {
                 LOGGER.info("append()| appendOffset: " + appendOffset);
             }
             if (logRecord.getLogSource() == LogSource.LOCAL) {
+                if (isCommitLog(logRecord)) {
+                    appendedCommits++;
+                }
                 if (syncPendingNonFlushLog(logRecord)) {
                     logRecord.isFlushed(false);
                     syncCommitQ.add(logRecord);
@@ -118,6 +132,11 @@ public class LogBuffer implements ILogBuffer {
                 || logRecord.getLogType() == LogType.WAIT || logRecord.getLogType() == LogType.WAIT_FOR_FLUSHES;
     }
 
+    private static boolean isCommitLog(ILogRecord logRecord) {
+        return logRecord.getLogType() == LogType.ENTITY_COMMIT || logRecord.getLogType() == LogType.JOB_COMMIT
+                || logRecord.getLogType() == LogType.ABORT;
+    }
+
     private boolean isLocalTransactionLog(ILogRecord logRecord) {
         return logRecord.getLogSource() == LogSource.LOCAL && logRecord.getLogType() != LogType.FLUSH
                 && logRecord.getLogType() != LogType.WAIT && logRecord.getLogType() != LogType.WAIT_FOR_FLUSHES;
@@ -150,6 +169,8 @@ public class LogBuffer implements ILogBuffer {
         full.set(false);
         appendOffset = 0;
         flushOffset = 0;
+        appendedCommits = 0;
+        flushedCommits = 0;
         stop = false;
     }
 
@@ -162,6 +183,7 @@ public class LogBuffer implements ILogBuffer {
         boolean interrupted = false;
         try {
             int endOffset;
+            int commits;
             while (!full.get()) {
                 try {
                     synchronized (this) {
@@ -175,14 +197,22 @@ public class LogBuffer implements ILogBuffer {
                             }
                             wait();
                         }
+                        awaitGroupCommit();
                         endOffset = appendOffset;
+                        commits = appendedCommits - flushedCommits;
+                        flushedCommits = appendedCommits;
                     }
-                    internalFlush(flushOffset, endOffset);
+                    internalFlush(flushOffset, endOffset, commits);
                 } catch (InterruptedException e) {
                     interrupted = true;
                 }
             }
-            internalFlush(flushOffset, appendOffset);
+            synchronized (this) {
+                endOffset = appendOffset;
+                commits = appendedCommits - flushedCommits;
+                flushedCommits = appendedCommits;
+            }
+            internalFlush(flushOffset, endOffset, commits);
         } finally {
             if (interrupted) {
                 Thread.currentThread().interrupt();
@@ -190,12 +220,32 @@ public class LogBuffer implements ILogBuffer {
         }
     }
 
-    private void internalFlush(int beginOffset, int endOffset) {
+    /**
+     * Waits, with the monitor of the buffer held, for more commits to share the next force of the log.
+     */
+    private void awaitGroupCommit() throws InterruptedException {
+        long delay = groupCommit.getDelayNanos();
+        if (delay <= 0 || appendedCommits == flushedCommits) {
+            return;
+        }
+        final long deadline = System.nanoTime() + delay;
+        while (!full.get() && !stop && appendedCommits - flushedCommits < groupCommit.getTargetCommits()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+    }
+
+    private void internalFlush(int beginOffset, int endOffset, int commits) {
         try {
             if (endOffset > beginOffset) {
+                final long startTime = System.nanoTime();
                 flushBuffer.limit(endOffset);
                 fileChannel.write(flushBuffer);
                 fileChannel.force(false);
+                groupCommit.forced(commits, System.nanoTime() - startTime);
                 flushOffset = endOffset;
                 synchronized (flushLSN) {
                     flushLSN.set(flushLSN.get() + (endOffset - beginOffset));
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive group commit of the transaction log. Before forcing the log tail, the log flusher may wait for more
+ * commits to be appended so that they share a single force. It only waits while recent forces were shared by several
+ * commits, i.e., while there are concurrent committers, and never longer than the configured maximum delay or the
+ * average duration of a force. The wait ends early once as many commits as a recent force had are pending.
+ * <p>
+ * The policy is only used by the log flusher thread.
+ */
+public class LogGroupCommit {
+
+    public static final LogGroupCommit NONE = new LogGroupCommit(0);
+    // weight of the latest force in the moving averages
+    private static final double ALPHA = 0.125;
+
+    private final long maxDelayNanos;
+    private double commitsPerForce = 1;
+    private double forceNanos;
+
+    /**
+     * @param maxDelay
+     *            the maximum time (in microseconds) to wait for more commits, or 0 to never wait
+     */
+    public LogGroupCommit(int maxDelay) {
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelay);
+    }
+
+    /**
+     * @return how long to wait for more commits before the next force, or 0 to force right away
+     */
+    public long getDelayNanos() {
+        if (maxDelayNanos == 0 || commitsPerForce < 2) {
+            return 0;
+        }
+        return Math.min(maxDelayNanos, (long) forceNanos);
+    }
+
+    /**
+     * @return the number of pending commits after which the flusher stops waiting
+     */
+    public int getTargetCommits() {
+        return (int) Math.ceil(commitsPerForce);
+    }
+
+    /**
+     * Records a force of the log.
+     *
+     * @param commits
+     *            the number of commits that the force made durable
+     * @param nanos
+     *            the duration of the write and force
+     */
+    public void forced(int commits, long nanos) {
+        if (commits == 0) {
+            return;
+        }
+        commitsPerForce += ALPHA * (commits - commitsPerForce);
+        forceNanos = forceNanos == 0 ? nanos : forceNanos + ALPHA * (nanos - forceNanos);
+    }
+}
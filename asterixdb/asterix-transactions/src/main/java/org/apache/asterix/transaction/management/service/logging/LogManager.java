@@ -72,6 +72,8 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     private final LogManagerProperties logManagerProperties;
     private final int numLogPages;
     private final String logDir;
+    // the log directory followed by the directories across which the log files are striped, if any
+    private final String[] logDirs;
     private final String logFilePrefix;
     private final MutableLong flushLSN;
     private final String nodeId;
@@ -79,6 +81,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     private final int logPageSize;
     private final AtomicLong appendLSN;
     private final long maxLogRecordSize;
+    private final LogGroupCommit groupCommit;
 
     private LinkedBlockingQueue<ILogBuffer> emptyQ;
     private LinkedBlockingQueue<ILogBuffer> flushQ;
@@ -99,6 +102,11 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         logPageSize = logManagerProperties.getLogPageSize();
         numLogPages = logManagerProperties.getNumLogPages();
         logDir = logManagerProperties.getLogDir();
+        String[] logStripeDirs = logManagerProperties.getLogStripeDirs();
+        logDirs = new String[logStripeDirs.length + 1];
+        logDirs[0] = logDir;
+        System.arraycopy(logStripeDirs, 0, logDirs, 1, logStripeDirs.length);
+        groupCommit = new LogGroupCommit(logManagerProperties.getGroupCommitMaxDelay());
         logFilePrefix = logManagerProperties.getLogFilePrefix();
         flushLSN = new MutableLong();
         appendLSN = new AtomicLong();
@@ -113,7 +121,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         flushQ = new LinkedBlockingQueue<>(numLogPages);
         stashQ = new LinkedBlockingQueue<>(numLogPages);
         for (int i = 0; i < numLogPages; i++) {
-            emptyQ.add(new LogBuffer(txnSubsystem, logPageSize, flushLSN));
+            emptyQ.add(new LogBuffer(txnSubsystem, logPageSize, flushLSN, groupCommit));
         }
         appendLSN.set(initializeLogAnchor(nextLogFileId));
         flushLSN.set(appendLSN.get());
@@ -234,7 +242,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         if (largePage) {
             // for now, alloc a new buffer for each large page
             // TODO: pool large pages??
-            appendPage = new LogBuffer(txnSubsystem, logSize, flushLSN);
+            appendPage = new LogBuffer(txnSubsystem, logSize, flushLSN, groupCommit);
         } else {
             appendPage.reset();
         }
@@ -376,22 +384,23 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
                 List<Long> logFileIds = getLogFileIds();
                 if (logFileIds.isEmpty()) {
                     fileId = nextLogFileId;
-                    createFileIfNotExists(getLogFilePath(fileId));
+                    createLogFileIfNotExists(fileId);
                     if (LOGGER.isInfoEnabled()) {
                         LOGGER.info("created a log file: " + getLogFilePath(fileId));
                     }
                 } else {
                     fileId = logFileIds.get(logFileIds.size() - 1);
-                    File logFile = new File(getLogFilePath(fileId));
-                    offset = logFile.length();
+                    offset = getLogFileLength(fileId);
                 }
             } else {
                 fileId = nextLogFileId;
-                createNewDirectory(logDir);
+                for (String dir : logDirs) {
+                    createNewDirectory(dir);
+                }
                 if (LOGGER.isInfoEnabled()) {
                     LOGGER.info("created the log directory: " + logManagerProperties.getLogDir());
                 }
-                createFileIfNotExists(getLogFilePath(fileId));
+                createLogFileIfNotExists(fileId);
                 if (LOGGER.isInfoEnabled()) {
                     LOGGER.info("created a log file: " + getLogFilePath(fileId));
                 }
@@ -435,10 +444,12 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
                     break;
                 }
                 //delete old log file
-                File file = new File(getLogFilePath(id));
-                file.delete();
-                if (LOGGER.isInfoEnabled()) {
-                    LOGGER.info("Deleted log file " + file.getAbsolutePath());
+                for (String dir : logDirs) {
+                    File file = new File(getLogFilePath(dir, id));
+                    file.delete();
+                    if (LOGGER.isInfoEnabled()) {
+                        LOGGER.info("Deleted log file " + file.getAbsolutePath());
+                    }
                 }
             }
         }
@@ -467,12 +478,14 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         List<Long> logFileIds = getLogFileIds();
         if (!logFileIds.isEmpty()) {
             for (Long id : logFileIds) {
-                File file = new File(getLogFilePath(id));
-                LOGGER.info("Deleting log file: " + file.getAbsolutePath());
-                if (!file.delete()) {
-                    throw new IllegalStateException("Failed to delete a file: " + file.getAbsolutePath());
+                for (String dir : logDirs) {
+                    File file = new File(getLogFilePath(dir, id));
+                    LOGGER.info("Deleting log file: " + file.getAbsolutePath());
+                    if (!file.delete() && (dir.equals(logDir) || file.exists())) {
+                        throw new IllegalStateException("Failed to delete a file: " + file.getAbsolutePath());
+                    }
+                    LOGGER.info("log file: " + file.getAbsolutePath() + " was deleted successfully");
                 }
-                LOGGER.info("log file: " + file.getAbsolutePath() + " was deleted successfully");
             }
             return logFileIds.get(logFileIds.size() - 1);
         } else {
@@ -522,7 +535,46 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     }
 
     private String getLogFilePath(long fileId) {
-        return logDir + File.separator + logFilePrefix + "_" + fileId;
+        return getLogFilePath(logDir, fileId);
+    }
+
+    private String getLogFilePath(String dir, long fileId) {
+        return dir + File.separator + getLogFileName(fileId);
+    }
+
+    private String getLogFileName(long fileId) {
+        return logFilePrefix + "_" + fileId;
+    }
+
+    private boolean isStriped() {
+        return logDirs.length > 1;
+    }
+
+    private FileChannel openLogFile(long fileId, String mode) throws IOException {
+        if (isStriped()) {
+            // a stripe per log page, so that a force that covers several pages forces several devices in parallel
+            return StripedLogFileChannel.open(logDirs, getLogFileName(fileId), logPageSize, mode,
+                    txnSubsystem.getApplicationContext().getThreadExecutor());
+        }
+        return new RandomAccessFile(getLogFilePath(fileId), mode).getChannel(); // NOSONAR closed when full
+    }
+
+    private long getLogFileLength(long fileId) throws IOException {
+        if (!isStriped()) {
+            return new File(getLogFilePath(fileId)).length();
+        }
+        try (FileChannel channel = openLogFile(fileId, "rw")) {
+            // drop the stripes that were written after a missing one
+            long length = channel.size();
+            channel.truncate(length);
+            return length;
+        }
+    }
+
+    private void createLogFileIfNotExists(long fileId) throws IOException {
+        for (String dir : logDirs) {
+            createFileIfNotExists(getLogFilePath(dir, fileId));
+        }
     }
 
     private long getLogFileOffset(long lsn) {
@@ -549,20 +601,20 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     private void createNextLogFile() throws IOException {
         final long nextFileBeginLsn = getNextFileFirstLsn();
         final long fileId = getLogFileId(nextFileBeginLsn);
-        final Path nextFilePath = Paths.get(getLogFilePath(fileId));
-        if (nextFilePath.toFile().exists()) {
-            LOGGER.warn("Ignored create log file {} since file already exists", nextFilePath.toString());
-            return;
+        for (String dir : logDirs) {
+            final Path nextFilePath = Paths.get(getLogFilePath(dir, fileId));
+            if (nextFilePath.toFile().exists()) {
+                LOGGER.warn("Ignored create log file {} since file already exists", nextFilePath.toString());
+                continue;
+            }
+            Files.createFile(nextFilePath);
         }
-        Files.createFile(nextFilePath);
     }
 
     private void setLogPosition(long lsn) throws IOException {
         final long fileId = getLogFileId(lsn);
-        final Path targetFilePath = Paths.get(getLogFilePath(fileId));
         final long targetPosition = getLogFileOffset(lsn);
-        final RandomAccessFile raf = new RandomAccessFile(targetFilePath.toFile(), "rw"); // NOSONAR closed when full
-        appendChannel = raf.getChannel();
+        appendChannel = openLogFile(fileId, "rw");
         appendChannel.position(targetPosition);
         currentLogFileId = fileId;
     }
@@ -617,8 +669,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         if (!file.exists()) {
             throw new IOException("Log file with id(" + fileId + ") was not found. Requested LSN: " + LSN);
         }
-        RandomAccessFile raf = new RandomAccessFile(new File(logFilePath), "r");
-        FileChannel newFileChannel = raf.getChannel();
+        FileChannel newFileChannel = openLogFile(fileId, "r");
         TxnLogFile logFile = new TxnLogFile(this, newFileChannel, fileId, fileId * logFileSize);
         return logFile;
     }
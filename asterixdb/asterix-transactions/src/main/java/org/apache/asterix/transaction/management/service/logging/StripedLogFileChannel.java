@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A transaction log file that is striped across several directories, ideally on separate devices. The file is split
+ * into stripes of a fixed size that are assigned to the directories round-robin. Each directory holds the stripes
+ * assigned to it back to back, in a file with the name of the log file.
+ * <p>
+ * The channel exposes the log file as one contiguous file, so LSNs, log readers and recovery are unchanged. Writes
+ * go to the files of the stripes they cover and {@link #force(boolean)} forces the files of the written directories
+ * in parallel. The size of the channel is the longest prefix of the log file whose stripes are all present, so a
+ * crash between the writes of two directories leaves a truncated log rather than a log with a hole.
+ */
+public class StripedLogFileChannel extends FileChannel {
+
+    private final FileChannel[] channels;
+    private final boolean[] written;
+    private final int stripeSize;
+    private final Executor executor;
+    private long position;
+
+    private StripedLogFileChannel(FileChannel[] channels, int stripeSize, Executor executor) {
+        this.channels = channels;
+        this.written = new boolean[channels.length];
+        this.stripeSize = stripeSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Opens a striped log file.
+     *
+     * @param dirs
+     *            the directories of the stripes
+     * @param fileName
+     *            the name of the log file
+     * @param stripeSize
+     *            the size of each stripe in bytes
+     * @param mode
+     *            the access mode, as in {@link RandomAccessFile}
+     * @param executor
+     *            the executor that forces the files of all directories but the first one
+     * @return the opened channel. Missing files are treated as empty when the channel is opened for reading.
+     */
+    public static StripedLogFileChannel open(String[] dirs, String fileName, int stripeSize, String mode,
+            Executor executor) throws IOException {
+        FileChannel[] channels = new FileChannel[dirs.length];
+        try {
+            for (int i = 0; i < dirs.length; i++) {
+                File file = new File(dirs[i], fileName);
+                if ("r".equals(mode) && !file.exists()) {
+                    continue;
+                }
+                channels[i] = new RandomAccessFile(file, mode).getChannel(); // NOSONAR closed with the channel
+            }
+        } catch (IOException e) {
+            closeAll(channels, e);
+            throw e;
+        }
+        return new StripedLogFileChannel(channels, stripeSize, executor);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int read = read(dst, position);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long offset) throws IOException {
+        int total = 0;
+        long current = offset;
+        while (dst.hasRemaining()) {
+            FileChannel channel = channels[getDirectory(current)];
+            if (channel == null) {
+                break;
+            }
+            int length = (int) Math.min(dst.remaining(), stripeSize - current % stripeSize);
+            int limit = dst.limit();
+            dst.limit(dst.position() + length);
+            int read;
+            try {
+                read = channel.read(dst, getDirectoryOffset(current));
+            } finally {
+                dst.limit(limit);
+            }
+            if (read <= 0) {
+                break;
+            }
+            total += read;
+            current += read;
+            if (read < length) {
+                break;
+            }
+        }
+        return total == 0 && dst.hasRemaining() ? -1 : total;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        int written = write(src, position);
+        position += written;
+        return written;
+    }
+
+    @Override
+    public int write(ByteBuffer src, long offset) throws IOException {
+        int total = 0;
+        long current = offset;
+        while (src.hasRemaining()) {
+            int directory = getDirectory(current);
+            int length = (int) Math.min(src.remaining(), stripeSize - current % stripeSize);
+            int limit = src.limit();
+            src.limit(src.position() + length);
+            try {
+                long directoryOffset = getDirectoryOffset(current);
+                while (src.hasRemaining()) {
+                    directoryOffset += channels[directory].write(src, directoryOffset);
+                }
+            } finally {
+                src.limit(limit);
+            }
+            written[directory] = true;
+            total += length;
+            current += length;
+        }
+        return total;
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+        List<FutureTask<Void>> forces = new ArrayList<>();
+        int local = -1;
+        for (int i = 0; i < channels.length; i++) {
+            if (!written[i]) {
+                continue;
+            }
+            written[i] = false;
+            if (local < 0) {
+                local = i;
+            } else {
+                FileChannel channel = channels[i];
+                FutureTask<Void> force = new FutureTask<>(() -> {
+                    channel.force(metaData);
+                    return null;
+                });
+                executor.execute(force);
+                forces.add(force);
+            }
+        }
+        if (local >= 0) {
+            channels[local].force(metaData);
+        }
+        IOException failure = null;
+        boolean interrupted = false;
+        for (FutureTask<Void> force : forces) {
+            while (true) {
+                try {
+                    force.get();
+                    break;
+                } catch (InterruptedException e) { // NOSONAR the interrupt is restored below
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof IOException ? (IOException) e.getCause()
+                                : new IOException(e.getCause());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public FileChannel position(long newPosition) {
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        long[] sizes = new long[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            sizes[i] = channels[i] == null ? 0 : channels[i].size();
+        }
+        long size = 0;
+        while (true) {
+            int directory = getDirectory(size);
+            long available = sizes[directory] - getDirectoryOffset(size);
+            if (available < stripeSize) {
+                return size + Math.max(available, 0);
+            }
+            size += stripeSize;
+        }
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException {
+        long stripes = size / stripeSize;
+        for (int i = 0; i < channels.length; i++) {
+            if (channels[i] == null) {
+                continue;
+            }
+            long directorySize = stripes / channels.length * stripeSize;
+            if (stripes % channels.length > i) {
+                directorySize += stripeSize;
+            } else if (stripes % channels.length == i) {
+                directorySize += size % stripeSize;
+            }
+            channels[i].truncate(directorySize);
+        }
+        position = Math.min(position, size);
+        return this;
+    }
+
+    private int getDirectory(long offset) {
+        return (int) ((offset / stripeSize) % channels.length);
+    }
+
+    private long getDirectoryOffset(long offset) {
+        return offset / stripeSize / channels.length * stripeSize + offset % stripeSize;
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+        closeAll(channels, null);
+    }
+
+    private static void closeAll(FileChannel[] channels, IOException failure) throws IOException {
+        IOException closeFailure = null;
+        for (FileChannel channel : channels) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    if (failure != null) {
+                        failure.addSuppressed(e);
+                    } else if (closeFailure == null) {
+                        closeFailure = e;
+                    } else {
+                        closeFailure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (closeFailure != null) {
+            throw closeFailure;
+        }
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.asterix.transaction.management.service.locking;
+
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+
+import org.apache.asterix.common.transactions.DatasetId;
+import org.apache.asterix.common.transactions.ILockManager;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.transaction.management.service.transaction.AtomicTransactionContext;
+import org.apache.asterix.transaction.management.service.transaction.TransactionManagementConstants.LockManagerConstants.LockMode;
+
+/**
+ * Compares locking the keys of a frame one at a time with locking them in one batch, while many threads lock keys of
+ * the same dataset. Every thread is a transaction that locks frames of random keys and unlocks each key afterwards,
+ * like the commit of the records of the frame does.
+ * Arguments: [numThreads (32)] [framesPerThread (2000)] [keysPerFrame (128)] [numRuns (5)]
+ */
+public class LockManagerPerf {
+
+    private static final DatasetId DATASET_ID = new DatasetId(1);
+    private static final int NUM_KEYS = 1000000;
+
+    public static void main(String[] args) throws Exception {
+        int numThreads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int framesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int keysPerFrame = args.length > 2 ? Integer.parseInt(args[2]) : 128;
+        int numRuns = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        // the first run of each mode is a warm-up run
+        for (int run = 0; run <= numRuns; run++) {
+            long single = runExperiment(false, numThreads, framesPerThread, keysPerFrame, run);
+            long batch = runExperiment(true, numThreads, framesPerThread, keysPerFrame, run);
+            if (run > 0) {
+                System.out.println("RUN " + run + ": single " + single + "ms, batch " + batch + "ms");
+            }
+        }
+    }
+
+    private static long runExperiment(boolean batch, int numThreads, int framesPerThread, int keysPerFrame, int run)
+            throws Exception {
+        ILockManager lockMgr = new ConcurrentLockManager(5000);
+        CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            ITransactionContext txnCtx = new AtomicTransactionContext(new TxnId(t + 1));
+            Random random = new Random(31L * run + t);
+            threads[t] = new Thread(() -> {
+                try {
+                    barrier.await();
+                    lockFrames(lockMgr, txnCtx, random, batch, framesPerThread, keysPerFrame);
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads[t].start();
+        }
+        barrier.await();
+        long start = System.currentTimeMillis();
+        barrier.await();
+        long end = System.currentTimeMillis();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return end - start;
+    }
+
+    private static void lockFrames(ILockManager lockMgr, ITransactionContext txnCtx, Random random, boolean batch,
+            int framesPerThread, int keysPerFrame) throws Exception {
+        int[] keys = new int[keysPerFrame];
+        for (int f = 0; f < framesPerThread; f++) {
+            for (int k = 0; k < keysPerFrame; k++) {
+                keys[k] = random.nextInt(NUM_KEYS);
+            }
+            int locked = 0;
+            if (batch) {
+                if (lockMgr.tryLock(DATASET_ID, keys, keysPerFrame, LockMode.X, txnCtx)) {
+                    locked = keysPerFrame;
+                }
+            } else {
+                while (locked < keysPerFrame && lockMgr.tryLock(DATASET_ID, keys[locked], LockMode.X, txnCtx)) {
+                    locked++;
+                }
+            }
+            for (int k = 0; k < locked; k++) {
+                lockMgr.unlock(DATASET_ID, keys[k], LockMode.X, txnCtx);
+            }
+        }
+        lockMgr.releaseLocks(txnCtx);
+    }
+}
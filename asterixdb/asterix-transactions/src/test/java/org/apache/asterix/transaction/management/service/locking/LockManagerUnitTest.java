@@ -19,6 +19,8 @@
 
 package org.apache.asterix.transaction.management.service.locking;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -120,6 +122,25 @@ public class LockManagerUnitTest {
         reportErrors(execute(reqs));
     }
 
+    @Test
+    public void testBatchTry() throws Exception {
+        int[] batch = { e(3), e(1), e(2), e(1) };
+        assertTrue(lockMgr.tryLock(d(1), batch, batch.length, LockMode.X, j(1)));
+        // the batch of job 2 conflicts on e(2), the lock that was acquired on e(0) is released again
+        int[] conflictingBatch = { e(4), e(2), e(0) };
+        assertFalse(lockMgr.tryLock(d(1), conflictingBatch, conflictingBatch.length, LockMode.X, j(2)));
+        assertTrue(lockMgr.tryLock(d(1), e(0), LockMode.X, j(3)));
+        assertTrue(lockMgr.tryLock(d(1), e(4), LockMode.X, j(3)));
+        // e(1) is twice in the batch and has to be unlocked twice
+        lockMgr.unlock(d(1), e(1), LockMode.X, j(1));
+        assertFalse(lockMgr.tryLock(d(1), new int[] { e(1) }, 1, LockMode.X, j(2)));
+        lockMgr.unlock(d(1), e(1), LockMode.X, j(1));
+        assertTrue(lockMgr.tryLock(d(1), new int[] { e(1) }, 1, LockMode.X, j(2)));
+        lockMgr.releaseLocks(j(1));
+        lockMgr.releaseLocks(j(2));
+        lockMgr.releaseLocks(j(3));
+    }
+
     @Test
     public void testInstantTry() throws Exception {
         List<Request> reqs = new ArrayList<>();
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StripedLogFileChannelTest {
+
+    private static final int STRIPE_SIZE = 16;
+    private static final String FILE_NAME = "transaction_log_0";
+
+    private File root;
+    private String[] dirs;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("striped-log").toFile();
+        dirs = new String[3];
+        for (int i = 0; i < dirs.length; i++) {
+            File dir = new File(root, "dir" + i);
+            Assert.assertTrue(dir.mkdir());
+            dirs[i] = dir.getAbsolutePath();
+        }
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        byte[] data = bytes(200);
+        try (FileChannel channel = open("rw")) {
+            // writes that start and end in the middle of stripes
+            channel.write(ByteBuffer.wrap(data, 0, 7));
+            channel.write(ByteBuffer.wrap(data, 7, 50));
+            channel.write(ByteBuffer.wrap(data, 57, 143));
+            channel.force(false);
+            Assert.assertEquals(200, channel.size());
+        }
+        // each directory holds every third stripe
+        Assert.assertEquals(4 * STRIPE_SIZE + 8, new File(dirs[0], FILE_NAME).length());
+        Assert.assertEquals(4 * STRIPE_SIZE, new File(dirs[1], FILE_NAME).length());
+        Assert.assertEquals(4 * STRIPE_SIZE, new File(dirs[2], FILE_NAME).length());
+        try (FileChannel channel = open("r")) {
+            Assert.assertEquals(200, channel.size());
+            ByteBuffer buffer = ByteBuffer.allocate(300);
+            Assert.assertEquals(200, channel.read(buffer));
+            Assert.assertArrayEquals(data, Arrays.copyOf(buffer.array(), 200));
+            buffer.clear();
+            Assert.assertEquals(-1, channel.read(buffer));
+            channel.position(45);
+            buffer.clear();
+            buffer.limit(10);
+            Assert.assertEquals(10, channel.read(buffer));
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(data[45 + i], buffer.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void missingStripeTruncatesTheLog() throws IOException {
+        byte[] data = bytes(6 * STRIPE_SIZE);
+        try (FileChannel channel = open("rw")) {
+            channel.write(ByteBuffer.wrap(data));
+        }
+        // lose the second stripe of the second directory, i.e., the fifth stripe of the log
+        try (RandomAccessFile file = new RandomAccessFile(new File(dirs[1], FILE_NAME), "rw")) {
+            file.setLength(STRIPE_SIZE + 3);
+        }
+        try (FileChannel channel = open("rw")) {
+            long size = channel.size();
+            Assert.assertEquals(4 * STRIPE_SIZE + 3, size);
+            channel.truncate(size);
+            Assert.assertEquals(size, channel.size());
+            // the sixth stripe is gone
+            Assert.assertEquals(STRIPE_SIZE, new File(dirs[2], FILE_NAME).length());
+            ByteBuffer buffer = ByteBuffer.allocate(data.length);
+            Assert.assertEquals(size, channel.read(buffer));
+        }
+    }
+
+    private FileChannel open(String mode) throws IOException {
+        return StripedLogFileChannel.open(dirs, FILE_NAME, STRIPE_SIZE, mode, executor);
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+}
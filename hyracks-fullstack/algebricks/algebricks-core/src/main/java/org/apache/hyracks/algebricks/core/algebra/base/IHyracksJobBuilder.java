@@ -36,6 +36,19 @@ public interface IHyracksJobBuilder {
 
     public void contributeHyracksOperator(ILogicalOperator op, IOperatorDescriptor opDesc);
 
+    /**
+     * For a logical operator that is implemented by several Hyracks operators: the incoming connector is attached to
+     * inputOpDesc and the outgoing connectors are attached to outputOpDesc.
+     */
+    public void contributeHyracksOperator(ILogicalOperator op, IOperatorDescriptor inputOpDesc,
+            IOperatorDescriptor outputOpDesc);
+
+    /**
+     * connects two Hyracks operators that are contributed by the same logical operator
+     */
+    public void contributeInternalConnector(IConnectorDescriptor conn, IOperatorDescriptor src, int srcOutputIndex,
+            IOperatorDescriptor dest, int destInputIndex, TargetConstraint numberOfTargetPartitions);
+
     public void contributeAlgebricksPartitionConstraint(IOperatorDescriptor opDesc, AlgebricksPartitionConstraint apc);
 
     public void contributeMicroOperator(ILogicalOperator op, IPushRuntimeFactory runtime, RecordDescriptor recDesc);
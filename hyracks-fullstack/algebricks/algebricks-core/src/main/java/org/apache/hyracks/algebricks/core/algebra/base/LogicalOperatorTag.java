@@ -55,4 +55,6 @@ public enum LogicalOperatorTag {
     WRITE,
     WRITE_RESULT,
     INTERSECT,
+    WINDOW,
+    FORWARD,
 }
@@ -62,6 +62,7 @@ public enum PhysicalOperatorTag {
     SINK_WRITE,
     SORT_GROUP_BY,
     SORT_MERGE_EXCHANGE,
+    SORT_MERGE_JOIN,
     SPLIT,
     STABLE_SORT,
     STATS,
@@ -77,4 +78,6 @@ public enum PhysicalOperatorTag {
     UPDATE,
     WRITE_RESULT,
     INTERSECT,
+    WINDOW,
+    FORWARD,
 }
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.operators.logical;
+
+import java.util.List;
+
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder;
+import org.apache.hyracks.algebricks.core.algebra.properties.VariablePropagationPolicy;
+import org.apache.hyracks.algebricks.core.algebra.typing.ITypingContext;
+import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalExpressionReferenceTransform;
+import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalOperatorVisitor;
+
+/**
+ * Computes window functions. The input is split into partitions by the partition expressions and each partition is
+ * ordered by the order expressions. For each input tuple, the operator appends the value of every window function
+ * over the frame of that tuple.
+ * <ul>
+ * <li>A window function that is an aggregate function is evaluated over the rows of the frame, which is given by
+ * offsets relative to the current row (negative offsets precede the current row). In a range frame, a bound at the
+ * current row (offset 0) also takes in the peers of the current row, i.e. the rows that are equal to it on the order
+ * expressions, and all other bounds must be unbounded.</li>
+ * <li>A window function that is a running aggregate function (e.g. a ranking function) is evaluated over the rows of
+ * the partition from its first row up to the current row, regardless of the frame.</li>
+ * </ul>
+ * Partition and order expressions must be variable references, which is why the operator does not allow variables
+ * to be inlined into its expressions.
+ */
+public class WindowOperator extends AbstractAssignOperator {
+
+    /**
+     * Frame start offset of frames that start with the first row of the partition
+     */
+    public static final int UNBOUNDED_PRECEDING = Integer.MIN_VALUE;
+
+    /**
+     * Frame end offset of frames that end with the last row of the partition
+     */
+    public static final int UNBOUNDED_FOLLOWING = Integer.MAX_VALUE;
+
+    private final List<Mutable<ILogicalExpression>> partitionExpressions;
+    private final List<Pair<IOrder, Mutable<ILogicalExpression>>> orderExpressions;
+    private final boolean rangeFrame;
+    private final int frameStartOffset;
+    private final int frameEndOffset;
+
+    public WindowOperator(List<Mutable<ILogicalExpression>> partitionExpressions,
+            List<Pair<IOrder, Mutable<ILogicalExpression>>> orderExpressions, boolean rangeFrame, int frameStartOffset,
+            int frameEndOffset, List<LogicalVariable> variables, List<Mutable<ILogicalExpression>> expressions) {
+        super(variables, expressions);
+        this.partitionExpressions = partitionExpressions;
+        this.orderExpressions = orderExpressions;
+        this.rangeFrame = rangeFrame;
+        this.frameStartOffset = frameStartOffset;
+        this.frameEndOffset = frameEndOffset;
+    }
+
+    public List<Mutable<ILogicalExpression>> getPartitionExpressions() {
+        return partitionExpressions;
+    }
+
+    public List<Pair<IOrder, Mutable<ILogicalExpression>>> getOrderExpressions() {
+        return orderExpressions;
+    }
+
+    public boolean isRangeFrame() {
+        return rangeFrame;
+    }
+
+    public int getFrameStartOffset() {
+        return frameStartOffset;
+    }
+
+    public int getFrameEndOffset() {
+        return frameEndOffset;
+    }
+
+    @Override
+    public LogicalOperatorTag getOperatorTag() {
+        return LogicalOperatorTag.WINDOW;
+    }
+
+    @Override
+    public <R, T> R accept(ILogicalOperatorVisitor<R, T> visitor, T arg) throws AlgebricksException {
+        return visitor.visitWindowOperator(this, arg);
+    }
+
+    @Override
+    public VariablePropagationPolicy getVariablePropagationPolicy() {
+        return new VariablePropagationPolicy() {
+
+            @Override
+            public void propagateVariables(IOperatorSchema target, IOperatorSchema... sources)
+                    throws AlgebricksException {
+                target.addAllVariables(sources[0]);
+                for (LogicalVariable v : variables) {
+                    target.addVariable(v);
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean isMap() {
+        return false;
+    }
+
+    @Override
+    public boolean acceptExpressionTransform(ILogicalExpressionReferenceTransform visitor) throws AlgebricksException {
+        boolean modif = false;
+        for (Mutable<ILogicalExpression> expr : partitionExpressions) {
+            if (visitor.transform(expr)) {
+                modif = true;
+            }
+        }
+        for (Pair<IOrder, Mutable<ILogicalExpression>> p : orderExpressions) {
+            if (visitor.transform(p.second)) {
+                modif = true;
+            }
+        }
+        if (super.acceptExpressionTransform(visitor)) {
+            modif = true;
+        }
+        return modif;
+    }
+
+    @Override
+    public IVariableTypeEnvironment computeOutputTypeEnvironment(ITypingContext ctx) throws AlgebricksException {
+        IVariableTypeEnvironment env = createPropagatingAllInputsTypeEnvironment(ctx);
+        int n = variables.size();
+        for (int i = 0; i < n; i++) {
+            env.setVarType(variables.get(i), ctx.getExpressionTypeComputer().getType(expressions.get(i).getValue(),
+                    ctx.getMetadataProvider(), env));
+        }
+        return env;
+    }
+}
@@ -40,6 +40,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistributeResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ExchangeOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ForwardOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.GroupByOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.IndexInsertDeleteUpsertOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
@@ -65,6 +66,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.TokenizeOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnionAllOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.util.OperatorManipulationUtil;
@@ -263,6 +265,11 @@ public class OperatorDeepCopyVisitor implements ILogicalOperatorVisitor<ILogical
         return new ExchangeOperator();
     }
 
+    @Override
+    public ILogicalOperator visitForwardOperator(ForwardOperator op, Void arg) throws AlgebricksException {
+        return new ForwardOperator();
+    }
+
     @Override
     public ILogicalOperator visitWriteOperator(WriteOperator op, Void arg) throws AlgebricksException {
         ArrayList<Mutable<ILogicalExpression>> newExpressions = new ArrayList<>();
@@ -341,6 +348,18 @@ public class OperatorDeepCopyVisitor implements ILogicalOperatorVisitor<ILogical
         return tokenizeOp;
     }
 
+    @Override
+    public ILogicalOperator visitWindowOperator(WindowOperator op, Void arg) throws AlgebricksException {
+        List<Mutable<ILogicalExpression>> newPartitionExpressions = new ArrayList<>();
+        deepCopyExpressionRefs(newPartitionExpressions, op.getPartitionExpressions());
+        List<LogicalVariable> newList = new ArrayList<>();
+        newList.addAll(op.getVariables());
+        List<Mutable<ILogicalExpression>> newExpressions = new ArrayList<>();
+        deepCopyExpressionRefs(newExpressions, op.getExpressions());
+        return new WindowOperator(newPartitionExpressions, deepCopyOrderAndExpression(op.getOrderExpressions()),
+                op.isRangeFrame(), op.getFrameStartOffset(), op.getFrameEndOffset(), newList, newExpressions);
+    }
+
     @Override
     public ILogicalOperator visitSinkOperator(SinkOperator op, Void arg) throws AlgebricksException {
         return new SinkOperator();
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.operators.physical;
+
+import java.util.List;
+
+import org.apache.hyracks.algebricks.common.constraints.AlgebricksCountPartitionConstraint;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.algebricks.core.algebra.base.IHyracksJobBuilder;
+import org.apache.hyracks.algebricks.core.algebra.base.IHyracksJobBuilder.TargetConstraint;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator.ExecutionMode;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ForwardOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.IOperatorSchema;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPhysicalPropertiesVector;
+import org.apache.hyracks.algebricks.core.algebra.properties.OrderColumn;
+import org.apache.hyracks.algebricks.core.algebra.properties.PhysicalRequirements;
+import org.apache.hyracks.algebricks.core.algebra.properties.StructuralPropertiesVector;
+import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenContext;
+import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenHelper;
+import org.apache.hyracks.algebricks.data.IBinaryComparatorFactoryProvider;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.dataflow.std.connectors.MToNBroadcastConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.misc.ForwardOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.misc.MaterializingSampleOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.sort.RangeMapGeneratorOperatorDescriptor;
+
+/**
+ * This will always be attached to a {@link ForwardOperator} logical operator. The input is materialized and sampled on
+ * each partition, a single range map generator computes the split points from all samples, and the input is then
+ * forwarded to a {@link RangePartitionExchangePOperator} that reads the range map under {@code rangeMapKey}.
+ */
+public class ForwardPOperator extends AbstractPhysicalOperator {
+
+    private final List<OrderColumn> sortColumns;
+    private final String rangeMapKey;
+    private final int sampleSize;
+
+    public ForwardPOperator(List<OrderColumn> sortColumns, String rangeMapKey, int sampleSize) {
+        this.sortColumns = sortColumns;
+        this.rangeMapKey = rangeMapKey;
+        this.sampleSize = sampleSize;
+    }
+
+    @Override
+    public PhysicalOperatorTag getOperatorTag() {
+        return PhysicalOperatorTag.FORWARD;
+    }
+
+    public List<OrderColumn> getSortColumns() {
+        return sortColumns;
+    }
+
+    public String getRangeMapKey() {
+        return rangeMapKey;
+    }
+
+    @Override
+    public boolean isMicroOperator() {
+        return false;
+    }
+
+    @Override
+    public PhysicalRequirements getRequiredPropertiesForChildren(ILogicalOperator op,
+            IPhysicalPropertiesVector reqdByParent, IOptimizationContext context) {
+        return emptyUnaryRequirements();
+    }
+
+    @Override
+    public void computeDeliveredProperties(ILogicalOperator op, IOptimizationContext context)
+            throws AlgebricksException {
+        AbstractLogicalOperator op2 = (AbstractLogicalOperator) op.getInputs().get(0).getValue();
+        deliveredProperties = (StructuralPropertiesVector) op2.getDeliveredPhysicalProperties().clone();
+    }
+
+    @Override
+    public void contributeRuntimeOperator(IHyracksJobBuilder builder, JobGenContext context, ILogicalOperator op,
+            IOperatorSchema propagatedSchema, IOperatorSchema[] inputSchemas, IOperatorSchema outerPlanSchema)
+            throws AlgebricksException {
+        JobSpecification spec = builder.getJobSpec();
+        RecordDescriptor recDescriptor =
+                JobGenHelper.mkRecordDescriptor(context.getTypeEnvironment(op), propagatedSchema, context);
+        int n = sortColumns.size();
+        int[] sortFields = new int[n];
+        IBinaryComparatorFactory[] comps = new IBinaryComparatorFactory[n];
+        IVariableTypeEnvironment env = context.getTypeEnvironment(op);
+        IBinaryComparatorFactoryProvider bcfp = context.getBinaryComparatorFactoryProvider();
+        int i = 0;
+        for (OrderColumn oc : sortColumns) {
+            sortFields[i] = propagatedSchema.findVariable(oc.getColumn());
+            comps[i] = bcfp.getBinaryComparatorFactory(env.getVarType(oc.getColumn()), oc.getOrder() == OrderKind.ASC);
+            i++;
+        }
+        // One split less than the number of partitions that receive the ranges.
+        int numSplits = context.getClusterLocations().getLocations().length - 1;
+
+        MaterializingSampleOperatorDescriptor sampleOpDesc =
+                new MaterializingSampleOperatorDescriptor(spec, recDescriptor, sortFields, sampleSize);
+        RangeMapGeneratorOperatorDescriptor rangeMapOpDesc = new RangeMapGeneratorOperatorDescriptor(spec,
+                sampleOpDesc.getOutputRecordDescriptors()[1], comps, numSplits);
+        ForwardOperatorDescriptor forwardOpDesc = new ForwardOperatorDescriptor(spec, recDescriptor, rangeMapKey);
+        sampleOpDesc.setSourceLocation(op.getSourceLocation());
+        rangeMapOpDesc.setSourceLocation(op.getSourceLocation());
+        forwardOpDesc.setSourceLocation(op.getSourceLocation());
+
+        if (((AbstractLogicalOperator) op).getExecutionMode() == ExecutionMode.UNPARTITIONED) {
+            builder.contributeAlgebricksPartitionConstraint(sampleOpDesc, new AlgebricksCountPartitionConstraint(1));
+        }
+        builder.contributeHyracksOperator(op, sampleOpDesc, forwardOpDesc);
+        builder.contributeInternalConnector(new OneToOneConnectorDescriptor(spec), sampleOpDesc, 0, forwardOpDesc, 0,
+                TargetConstraint.SAME_COUNT);
+        builder.contributeInternalConnector(new MToNBroadcastConnectorDescriptor(spec), sampleOpDesc, 1, rangeMapOpDesc,
+                0, TargetConstraint.ONE);
+        builder.contributeInternalConnector(new MToNBroadcastConnectorDescriptor(spec), rangeMapOpDesc, 0,
+                forwardOpDesc, 1, null);
+        ILogicalOperator src = op.getInputs().get(0).getValue();
+        builder.contributeGraphEdge(src, 0, op, 0);
+    }
+
+    @Override
+    public Pair<int[], int[]> getInputOutputDependencyLabels(ILogicalOperator op) {
+        int[] inputDependencyLabels = new int[] { 0 };
+        int[] outputDependencyLabels = new int[] { 1 };
+        return new Pair<int[], int[]>(inputDependencyLabels, outputDependencyLabels);
+    }
+
+    @Override
+    public boolean expensiveThanMaterialization() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return getOperatorTag().toString() + " " + sortColumns;
+    }
+}
@@ -48,6 +48,7 @@ import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
 import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputerFactory;
 import org.apache.hyracks.api.job.IConnectorDescriptorRegistry;
+import org.apache.hyracks.dataflow.common.data.partition.range.DynamicFieldRangePartitionComputerFactory;
 import org.apache.hyracks.dataflow.common.data.partition.range.FieldRangePartitionComputerFactory;
 import org.apache.hyracks.dataflow.common.data.partition.range.IRangeMap;
 import org.apache.hyracks.dataflow.std.connectors.MToNPartitioningConnectorDescriptor;
@@ -57,6 +58,7 @@ public class RangePartitionExchangePOperator extends AbstractExchangePOperator {
     private List<OrderColumn> partitioningFields;
     private INodeDomain domain;
     private IRangeMap rangeMap;
+    private String rangeMapKey;
 
     public RangePartitionExchangePOperator(List<OrderColumn> partitioningFields, INodeDomain domain,
             IRangeMap rangeMap) {
@@ -65,6 +67,17 @@ public class RangePartitionExchangePOperator extends AbstractExchangePOperator {
         this.rangeMap = rangeMap;
     }
 
+    /**
+     * Creates a range partitioning exchange whose range map is computed at runtime by the {@link ForwardPOperator}
+     * below it and published under {@code rangeMapKey}.
+     */
+    public RangePartitionExchangePOperator(List<OrderColumn> partitioningFields, INodeDomain domain,
+            String rangeMapKey) {
+        this.partitioningFields = partitioningFields;
+        this.domain = domain;
+        this.rangeMapKey = rangeMapKey;
+    }
+
     @Override
     public PhysicalOperatorTag getOperatorTag() {
         return PhysicalOperatorTag.RANGE_PARTITION_EXCHANGE;
@@ -115,14 +128,17 @@ public class RangePartitionExchangePOperator extends AbstractExchangePOperator {
             comps[i] = bcfp.getBinaryComparatorFactory(type, oc.getOrder() == OrderKind.ASC);
             i++;
         }
-        ITuplePartitionComputerFactory tpcf = new FieldRangePartitionComputerFactory(sortFields, comps, rangeMap);
+        ITuplePartitionComputerFactory tpcf =
+                rangeMap != null ? new FieldRangePartitionComputerFactory(sortFields, comps, rangeMap)
+                        : new DynamicFieldRangePartitionComputerFactory(sortFields, comps, rangeMapKey);
         IConnectorDescriptor conn = new MToNPartitioningConnectorDescriptor(spec, tpcf);
         return new Pair<IConnectorDescriptor, TargetConstraint>(conn, null);
     }
 
     @Override
     public String toString() {
-        return getOperatorTag().toString() + " " + partitioningFields + " SPLIT COUNT:" + rangeMap.getSplitCount();
+        String splitCount = rangeMap != null ? " SPLIT COUNT:" + rangeMap.getSplitCount() : "";
+        return getOperatorTag().toString() + " " + partitioningFields + splitCount;
     }
 
 }
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.operators.physical;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.utils.ListSet;
+import org.apache.hyracks.algebricks.core.algebra.base.IHyracksJobBuilder;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AggregateFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IExpressionRuntimeProvider;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.expressions.StatefulFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.IOperatorSchema;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
+import org.apache.hyracks.algebricks.core.algebra.properties.ILocalStructuralProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPartitioningProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPartitioningRequirementsCoordinator;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPhysicalPropertiesVector;
+import org.apache.hyracks.algebricks.core.algebra.properties.LocalOrderProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.OrderColumn;
+import org.apache.hyracks.algebricks.core.algebra.properties.PhysicalRequirements;
+import org.apache.hyracks.algebricks.core.algebra.properties.StructuralPropertiesVector;
+import org.apache.hyracks.algebricks.core.algebra.properties.UnorderedPartitionedProperty;
+import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenContext;
+import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenHelper;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.operators.win.WindowRuntimeFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+
+/**
+ * Evaluates window functions over an input that is partitioned on the window partition columns and locally sorted
+ * on the partition columns followed by the window order columns.
+ */
+public class WindowPOperator extends AbstractPhysicalOperator {
+
+    private final List<LogicalVariable> partitionColumns;
+    private final List<OrderColumn> orderColumns;
+    private final int memSizeInFrames;
+
+    public WindowPOperator(List<LogicalVariable> partitionColumns, List<OrderColumn> orderColumns,
+            int memSizeInFrames) {
+        this.partitionColumns = partitionColumns;
+        this.orderColumns = orderColumns;
+        this.memSizeInFrames = memSizeInFrames;
+    }
+
+    public List<LogicalVariable> getPartitionColumns() {
+        return partitionColumns;
+    }
+
+    public List<OrderColumn> getOrderColumns() {
+        return orderColumns;
+    }
+
+    @Override
+    public PhysicalOperatorTag getOperatorTag() {
+        return PhysicalOperatorTag.WINDOW;
+    }
+
+    @Override
+    public boolean isMicroOperator() {
+        return true;
+    }
+
+    @Override
+    public void computeDeliveredProperties(ILogicalOperator op, IOptimizationContext context) {
+        AbstractLogicalOperator op2 = (AbstractLogicalOperator) op.getInputs().get(0).getValue();
+        deliveredProperties = (StructuralPropertiesVector) op2.getDeliveredPhysicalProperties().clone();
+    }
+
+    @Override
+    public PhysicalRequirements getRequiredPropertiesForChildren(ILogicalOperator op,
+            IPhysicalPropertiesVector reqdByParent, IOptimizationContext context) {
+        IPartitioningProperty pp;
+        switch (op.getExecutionMode()) {
+            case PARTITIONED:
+                pp = partitionColumns.isEmpty() ? IPartitioningProperty.UNPARTITIONED
+                        : new UnorderedPartitionedProperty(new ListSet<>(partitionColumns),
+                                context.getComputationNodeDomain());
+                break;
+            case UNPARTITIONED:
+                pp = IPartitioningProperty.UNPARTITIONED;
+                break;
+            default:
+                pp = null;
+                break;
+        }
+        List<OrderColumn> localOrder = new ArrayList<>(partitionColumns.size() + orderColumns.size());
+        for (LogicalVariable pc : partitionColumns) {
+            localOrder.add(new OrderColumn(pc, OrderKind.ASC));
+        }
+        localOrder.addAll(orderColumns);
+        List<ILocalStructuralProperty> localProps = new ArrayList<>(1);
+        localProps.add(new LocalOrderProperty(localOrder));
+        StructuralPropertiesVector[] pv =
+                new StructuralPropertiesVector[] { new StructuralPropertiesVector(pp, localProps) };
+        return new PhysicalRequirements(pv, IPartitioningRequirementsCoordinator.NO_COORDINATION);
+    }
+
+    @Override
+    public void contributeRuntimeOperator(IHyracksJobBuilder builder, JobGenContext context, ILogicalOperator op,
+            IOperatorSchema opSchema, IOperatorSchema[] inputSchemas, IOperatorSchema outerPlanSchema)
+            throws AlgebricksException {
+        WindowOperator winOp = (WindowOperator) op;
+        int[] partitionColumnsList = JobGenHelper.variablesToFieldIndexes(partitionColumns, inputSchemas[0]);
+        IVariableTypeEnvironment inputTypeEnv = context.getTypeEnvironment(op.getInputs().get(0).getValue());
+        IBinaryComparatorFactory[] partitionComparatorFactories =
+                JobGenHelper.variablesToAscBinaryComparatorFactories(partitionColumns, inputTypeEnv, context);
+        // the order columns are only compared to find the peers of a tuple in range frames
+        int[] orderColumnsList = new int[0];
+        IBinaryComparatorFactory[] orderComparatorFactories = new IBinaryComparatorFactory[0];
+        if (winOp.isRangeFrame()) {
+            List<LogicalVariable> orderVars = new ArrayList<>(orderColumns.size());
+            for (OrderColumn oc : orderColumns) {
+                orderVars.add(oc.getColumn());
+            }
+            orderColumnsList = JobGenHelper.variablesToFieldIndexes(orderVars, inputSchemas[0]);
+            orderComparatorFactories =
+                    JobGenHelper.variablesToAscBinaryComparatorFactories(orderVars, inputTypeEnv, context);
+        }
+
+        List<LogicalVariable> variables = winOp.getVariables();
+        List<Mutable<ILogicalExpression>> expressions = winOp.getExpressions();
+        int n = variables.size();
+        int[] outColumns = new int[n];
+        IAggregateEvaluatorFactory[] aggFuns = new IAggregateEvaluatorFactory[n];
+        IRunningAggregateEvaluatorFactory[] runningAggFuns = new IRunningAggregateEvaluatorFactory[n];
+        IExpressionRuntimeProvider expressionRuntimeProvider = context.getExpressionRuntimeProvider();
+        for (int i = 0; i < n; i++) {
+            outColumns[i] = opSchema.findVariable(variables.get(i));
+            ILogicalExpression expr = expressions.get(i).getValue();
+            if (expr instanceof AggregateFunctionCallExpression) {
+                aggFuns[i] = expressionRuntimeProvider.createAggregateFunctionFactory(
+                        (AggregateFunctionCallExpression) expr, inputTypeEnv, inputSchemas, context);
+            } else if (expr instanceof StatefulFunctionCallExpression) {
+                runningAggFuns[i] = expressionRuntimeProvider.createRunningAggregateFunctionFactory(
+                        (StatefulFunctionCallExpression) expr, inputTypeEnv, inputSchemas, context);
+            } else {
+                throw new AlgebricksException("Unsupported window function: " + expr);
+            }
+        }
+
+        // TODO push projections into the operator
+        int[] projectionList = JobGenHelper.projectAllVariables(opSchema);
+
+        WindowRuntimeFactory runtime = new WindowRuntimeFactory(partitionColumnsList, partitionComparatorFactories,
+                winOp.isRangeFrame(), orderColumnsList, orderComparatorFactories, winOp.getFrameStartOffset(),
+                winOp.getFrameEndOffset(), outColumns, aggFuns, runningAggFuns, memSizeInFrames, projectionList);
+        runtime.setSourceLocation(winOp.getSourceLocation());
+
+        // contribute one Asterix framewriter
+        RecordDescriptor recDesc = JobGenHelper.mkRecordDescriptor(context.getTypeEnvironment(op), opSchema, context);
+        builder.contributeMicroOperator(winOp, runtime, recDesc);
+        // and contribute one edge from its child
+        ILogicalOperator src = winOp.getInputs().get(0).getValue();
+        builder.contributeGraphEdge(src, 0, winOp, 0);
+    }
+
+    @Override
+    public boolean expensiveThanMaterialization() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getOperatorTag().toString() + partitionColumns;
+    }
+}
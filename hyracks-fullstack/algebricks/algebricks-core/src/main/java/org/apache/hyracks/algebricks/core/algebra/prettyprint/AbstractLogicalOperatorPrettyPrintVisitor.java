@@ -25,6 +25,7 @@ import org.apache.hyracks.algebricks.core.algebra.base.ILogicalPlan;
 import org.apache.hyracks.algebricks.core.algebra.base.IPhysicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractOperatorWithNestedPlans;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalExpressionVisitor;
 import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalOperatorVisitor;
 
@@ -84,6 +85,25 @@ public abstract class AbstractLogicalOperatorPrettyPrintVisitor implements ILogi
         }
     }
 
+    protected static String getFrameString(WindowOperator op) {
+        return (op.isRangeFrame() ? "range" : "rows") + " between " + getFrameBoundString(op.getFrameStartOffset())
+                + " and " + getFrameBoundString(op.getFrameEndOffset());
+    }
+
+    private static String getFrameBoundString(int offset) {
+        if (offset == WindowOperator.UNBOUNDED_PRECEDING) {
+            return "unbounded preceding";
+        } else if (offset == WindowOperator.UNBOUNDED_FOLLOWING) {
+            return "unbounded following";
+        } else if (offset < 0) {
+            return -(long) offset + " preceding";
+        } else if (offset > 0) {
+            return offset + " following";
+        } else {
+            return "current row";
+        }
+    }
+
     protected AlgebricksAppendable addIndent(int level) throws AlgebricksException {
         for (int i = 0; i < level; ++i) {
             buffer.append(' ');
@@ -44,6 +44,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistributeResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ExchangeOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ForwardOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.GroupByOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.IndexInsertDeleteUpsertOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
@@ -69,6 +70,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.TokenizeOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnionAllOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteResultOperator;
 
@@ -521,6 +523,12 @@ public class LogicalOperatorPrettyPrintVisitorJson extends AbstractLogicalOperat
         return null;
     }
 
+    @Override
+    public Void visitForwardOperator(ForwardOperator op, Integer indent) throws AlgebricksException {
+        addIndent(indent).append("\"operator\": \"forward\"");
+        return null;
+    }
+
     @Override
     public Void visitScriptOperator(ScriptOperator op, Integer indent) throws AlgebricksException {
         addIndent(indent).append("\"operator\": \"script\"");
@@ -646,6 +654,40 @@ public class LogicalOperatorPrettyPrintVisitorJson extends AbstractLogicalOperat
         return null;
     }
 
+    @Override
+    public Void visitWindowOperator(WindowOperator op, Integer indent) throws AlgebricksException {
+        addIndent(indent).append("\"operator\": \"window\"");
+        variablePrintHelper(op.getVariables(), indent);
+        if (!op.getExpressions().isEmpty()) {
+            addIndent(0).append(",\n");
+            pprintExprList(op.getExpressions(), indent);
+        }
+        if (!op.getPartitionExpressions().isEmpty()) {
+            buffer.append(",\n");
+            addIndent(indent).append("\"partition-by\": \"");
+            boolean first = true;
+            for (Mutable<ILogicalExpression> exprRef : op.getPartitionExpressions()) {
+                if (first) {
+                    first = false;
+                } else {
+                    buffer.append(", ");
+                }
+                buffer.append(exprRef.getValue().accept(exprVisitor, indent).replace('"', ' '));
+            }
+            buffer.append("\"");
+        }
+        for (Pair<OrderOperator.IOrder, Mutable<ILogicalExpression>> p : op.getOrderExpressions()) {
+            buffer.append(",\n");
+            String fst = getOrderString(p.first);
+            addIndent(indent).append("\"first\": " + fst + ",\n");
+            addIndent(indent).append(
+                    "\"second\": \"" + p.second.getValue().accept(exprVisitor, indent).replace('"', ' ') + "\"");
+        }
+        buffer.append(",\n");
+        addIndent(indent).append("\"frame\": \"" + getFrameString(op) + "\"");
+        return null;
+    }
+
     @Override
     public Void visitSinkOperator(SinkOperator op, Integer indent) throws AlgebricksException {
         addIndent(indent).append("\"operator\": \"sink\"");
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.properties;
+
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+
+/**
+ * Estimates the cardinalities used by cost-based rewrite rules.
+ * All the estimates are negative when they are unknown.
+ */
+public interface ICardinalityEstimator {
+
+    long UNKNOWN = -1L;
+
+    /**
+     * @return the estimated number of tuples produced by {@code op}
+     */
+    long getCardinality(ILogicalOperator op, IOptimizationContext context) throws AlgebricksException;
+
+    /**
+     * @return the estimated number of distinct values of {@code var} in the output of {@code op}
+     */
+    long getDistinctValues(LogicalVariable var, ILogicalOperator op, IOptimizationContext context)
+            throws AlgebricksException;
+
+    /**
+     * @return true if the plan rooted at {@code op} can be evaluated by probing an index with values of {@code var}
+     */
+    boolean isIndexProbeKey(LogicalVariable var, ILogicalOperator op, IOptimizationContext context)
+            throws AlgebricksException;
+
+    /**
+     * @return the number of partitions a join is executed on
+     */
+    int getNumPartitions(IOptimizationContext context) throws AlgebricksException;
+}
@@ -27,6 +27,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistributeResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ExchangeOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ForwardOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.GroupByOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.IndexInsertDeleteUpsertOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
@@ -51,6 +52,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.TokenizeOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnionAllOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteResultOperator;
 
@@ -112,6 +114,8 @@ public interface ILogicalOperatorVisitor<R, T> {
 
     public R visitExchangeOperator(ExchangeOperator op, T arg) throws AlgebricksException;
 
+    public R visitForwardOperator(ForwardOperator op, T arg) throws AlgebricksException;
+
     public R visitWriteOperator(WriteOperator op, T arg) throws AlgebricksException;
 
     public R visitDistributeResultOperator(DistributeResultOperator op, T arg) throws AlgebricksException;
@@ -124,4 +128,6 @@ public interface ILogicalOperatorVisitor<R, T> {
 
     public R visitTokenizeOperator(TokenizeOperator op, T arg) throws AlgebricksException;
 
+    public R visitWindowOperator(WindowOperator op, T arg) throws AlgebricksException;
+
 }
@@ -59,6 +59,8 @@ public class JobBuilder implements IHyracksJobBuilder {
     private final Map<ILogicalOperator, Pair<IPushRuntimeFactory, RecordDescriptor>> microOps = new HashMap<>();
     private final Map<IPushRuntimeFactory, ILogicalOperator> revMicroOpMap = new HashMap<>();
     private final Map<ILogicalOperator, IOperatorDescriptor> hyracksOps = new HashMap<>();
+    private final Map<ILogicalOperator, IOperatorDescriptor> hyracksInputOps = new HashMap<>();
+    private final Map<IConnectorDescriptor, TargetConstraint> internalConnectors = new HashMap<>();
     private final Map<ILogicalOperator, AlgebricksPartitionConstraint> pcForMicroOps = new HashMap<>();
 
     private final Map<ILogicalOperator, Integer> algebraicOpBelongingToMetaAsterixOp = new HashMap<>();
@@ -145,6 +147,20 @@ public class JobBuilder implements IHyracksJobBuilder {
         hyracksOps.put(op, opDesc);
     }
 
+    @Override
+    public void contributeHyracksOperator(ILogicalOperator op, IOperatorDescriptor inputOpDesc,
+            IOperatorDescriptor outputOpDesc) {
+        hyracksInputOps.put(op, inputOpDesc);
+        hyracksOps.put(op, outputOpDesc);
+    }
+
+    @Override
+    public void contributeInternalConnector(IConnectorDescriptor conn, IOperatorDescriptor src, int srcOutputIndex,
+            IOperatorDescriptor dest, int destInputIndex, TargetConstraint numberOfTargetPartitions) {
+        jobSpec.connect(conn, src, srcOutputIndex, dest, destInputIndex);
+        internalConnectors.put(conn, numberOfTargetPartitions);
+    }
+
     @Override
     public void contributeAlgebricksPartitionConstraint(IOperatorDescriptor opDesc,
             AlgebricksPartitionConstraint apcArg) {
@@ -287,11 +303,19 @@ public class JobBuilder implements IHyracksJobBuilder {
 
     private Map<IConnectorDescriptor, TargetConstraint> setupConnectors() throws AlgebricksException {
         Map<IConnectorDescriptor, TargetConstraint> tgtConstraints = new HashMap<>();
+        for (Map.Entry<IConnectorDescriptor, TargetConstraint> internalConn : internalConnectors.entrySet()) {
+            if (internalConn.getValue() != null) {
+                tgtConstraints.put(internalConn.getKey(), internalConn.getValue());
+            }
+        }
         for (ILogicalOperator exchg : connectors.keySet()) {
             ILogicalOperator inOp = inEdges.get(exchg).get(0);
             ILogicalOperator outOp = outEdges.get(exchg).get(0);
             IOperatorDescriptor inOpDesc = findOpDescForAlgebraicOp(inOp);
-            IOperatorDescriptor outOpDesc = findOpDescForAlgebraicOp(outOp);
+            IOperatorDescriptor outOpDesc = hyracksInputOps.get(outOp);
+            if (outOpDesc == null) {
+                outOpDesc = findOpDescForAlgebraicOp(outOp);
+            }
             Pair<IConnectorDescriptor, TargetConstraint> connPair = connectors.get(exchg);
             IConnectorDescriptor conn = connPair.first;
             int producerPort = outEdges.get(inOp).indexOf(exchg);
@@ -29,8 +29,12 @@ public class PhysicalOptimizationConfig {
     private static final String MAX_FRAMES_FOR_JOIN_LEFT_INPUT = "MAX_FRAMES_FOR_JOIN_LEFT_INPUT";
     private static final String MAX_FRAMES_FOR_JOIN = "MAX_FRAMES_FOR_JOIN";
     private static final String MAX_FRAMES_FOR_TEXTSEARCH = "MAX_FRAMES_FOR_TEXTSEARCH";
+    private static final String MAX_FRAMES_FOR_WINDOW = "MAX_FRAMES_FOR_WINDOW";
     private static final String FUDGE_FACTOR = "FUDGE_FACTOR";
     private static final String MAX_RECORDS_PER_FRAME = "MAX_RECORDS_PER_FRAME";
+    private static final String SORT_PARALLEL = "SORT_PARALLEL";
+    private static final String SORT_SAMPLES = "SORT_SAMPLES";
+    private static final String SORT_MERGE_JOIN = "SORT_MERGE_JOIN";
 
     private static final String DEFAULT_HASH_GROUP_TABLE_SIZE = "DEFAULT_HASH_GROUP_TABLE_SIZE";
     private static final String DEFAULT_EXTERNAL_GROUP_TABLE_SIZE = "DEFAULT_EXTERNAL_GROUP_TABLE_SIZE";
@@ -119,6 +123,39 @@ public class PhysicalOptimizationConfig {
         setInt(MAX_FRAMES_FOR_TEXTSEARCH, frameLimit);
     }
 
+    public int getMaxFramesForWindow() {
+        int frameSize = getFrameSize();
+        return getInt(MAX_FRAMES_FOR_WINDOW, (int) (((long) 32 * MB) / frameSize));
+    }
+
+    public void setMaxFramesForWindow(int frameLimit) {
+        setInt(MAX_FRAMES_FOR_WINDOW, frameLimit);
+    }
+
+    public boolean getSortParallel() {
+        return getBoolean(SORT_PARALLEL, false);
+    }
+
+    public void setSortParallel(boolean sortParallel) {
+        setBoolean(SORT_PARALLEL, sortParallel);
+    }
+
+    public int getSortSamples() {
+        return getInt(SORT_SAMPLES, 100);
+    }
+
+    public void setSortSamples(int sortSamples) {
+        setInt(SORT_SAMPLES, sortSamples);
+    }
+
+    public boolean getSortMergeJoin() {
+        return getBoolean(SORT_MERGE_JOIN, false);
+    }
+
+    public void setSortMergeJoin(boolean sortMergeJoin) {
+        setBoolean(SORT_MERGE_JOIN, sortMergeJoin);
+    }
+
     public int getHashGroupByTableSize() {
         return getInt(DEFAULT_HASH_GROUP_TABLE_SIZE, 10485767);
     }
@@ -155,6 +192,15 @@ public class PhysicalOptimizationConfig {
             return Integer.parseInt(value);
     }
 
+    private void setBoolean(String property, boolean value) {
+        properties.setProperty(property, Boolean.toString(value));
+    }
+
+    private boolean getBoolean(String property, boolean defaultValue) {
+        String value = properties.getProperty(property);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
     private void setDouble(String property, double value) {
         properties.setProperty(property, Double.toString(value));
     }
@@ -35,6 +35,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistributeResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ExchangeOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ForwardOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.GroupByOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.IndexInsertDeleteUpsertOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
@@ -60,6 +61,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.TokenizeOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnionAllOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalOperatorVisitor;
@@ -366,6 +368,13 @@ public class LogicalOperatorDotVisitor implements ILogicalOperatorVisitor<String
         return stringBuilder.toString();
     }
 
+    @Override
+    public String visitForwardOperator(ForwardOperator op, Void noArgs) throws AlgebricksException {
+        stringBuilder.setLength(0);
+        stringBuilder.append("forward");
+        return stringBuilder.toString();
+    }
+
     @Override
     public String visitScriptOperator(ScriptOperator op, Void noArgs) throws AlgebricksException {
         stringBuilder.setLength(0);
@@ -463,6 +472,25 @@ public class LogicalOperatorDotVisitor implements ILogicalOperatorVisitor<String
         return stringBuilder.toString();
     }
 
+    @Override
+    public String visitWindowOperator(WindowOperator op, Void noArgs) throws AlgebricksException {
+        stringBuilder.setLength(0);
+        stringBuilder.append("window ").append(str(op.getVariables())).append(" <- ");
+        pprintExprList(op.getExpressions());
+        if (!op.getPartitionExpressions().isEmpty()) {
+            stringBuilder.append(" partition ");
+            pprintExprList(op.getPartitionExpressions());
+        }
+        if (!op.getOrderExpressions().isEmpty()) {
+            stringBuilder.append(" order");
+            for (Pair<OrderOperator.IOrder, Mutable<ILogicalExpression>> p : op.getOrderExpressions()) {
+                String fst = getOrderString(p.first);
+                stringBuilder.append(" (").append(fst).append(", ").append(p.second.getValue().toString()).append(")");
+            }
+        }
+        return stringBuilder.toString();
+    }
+
     @Override
     public String visitSinkOperator(SinkOperator op, Void noArgs) throws AlgebricksException {
         stringBuilder.setLength(0);
@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.rewriter.rules;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation;
+import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation.BroadcastSide;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IndexedNLJoinExpressionAnnotation;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.VariableUtilities;
+import org.apache.hyracks.algebricks.core.algebra.properties.ICardinalityEstimator;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+
+/**
+ * Reorders a tree of inner joins using the cardinalities provided by an {@link ICardinalityEstimator}.
+ * The join inputs are enumerated bottom-up (dynamic programming over subsets of the inputs) and every join is
+ * costed as:
+ * <ul>
+ * <li>a hash join, building the right (smaller) input</li>
+ * <li>an indexed nested-loop join when the right input is a single input that can be probed by an index on the join
+ * key. The choice is recorded with an {@link IndexedNLJoinExpressionAnnotation} on the join predicate</li>
+ * <li>a nested-loop join (cartesian product) when the inputs are not connected by a predicate</li>
+ * </ul>
+ * Hash joins whose build input is cheaper to broadcast than to repartition along with the probe input are
+ * annotated with a {@link BroadcastExpressionAnnotation}.
+ * The rule does not apply if the cardinality of any input is unknown or if the join predicates carry user hints.
+ */
+public class CostBasedJoinOrderRule implements IAlgebraicRewriteRule {
+
+    private static final int MAX_JOIN_INPUTS = 10;
+    private static final double DEFAULT_SELECTIVITY = 1.0 / 3.0;
+    private static final double INDEX_PROBE_COST = 10.0;
+
+    private enum JoinMethod {
+        HASH,
+        BROADCAST,
+        INDEX_NESTED_LOOP,
+        NESTED_LOOP
+    }
+
+    private final ICardinalityEstimator estimator;
+
+    public CostBasedJoinOrderRule(ICardinalityEstimator estimator) {
+        this.estimator = estimator;
+    }
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.INNERJOIN || context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        JoinGraph graph = new JoinGraph();
+        String originalShape = graph.flatten(op, context);
+        for (ILogicalOperator join : graph.joins) {
+            context.addToDontApplySet(this, join);
+        }
+        int n = graph.inputs.size();
+        if (n > MAX_JOIN_INPUTS || graph.hasHints() || !graph.estimate(context)) {
+            return false;
+        }
+        graph.enumerate();
+        int all = (1 << n) - 1;
+        if (originalShape.equals(graph.shape(all)) && !graph.addsHints(all)) {
+            return false;
+        }
+        ILogicalOperator newOp = graph.build(all, context);
+        ((AbstractLogicalOperator) newOp).setExecutionMode(((AbstractLogicalOperator) op).getExecutionMode());
+        opRef.setValue(newOp);
+        return true;
+    }
+
+    private class JoinGraph {
+        private final List<ILogicalOperator> joins = new ArrayList<>();
+        private final List<ILogicalOperator> inputs = new ArrayList<>();
+        private final List<Mutable<ILogicalExpression>> conjuncts = new ArrayList<>();
+        private int numPartitions;
+        private int[] masks;
+        private double[] selectivities;
+        // for equi-join predicates: the input of each argument and whether it can be used to probe an index
+        private int[][] equiInputs;
+        private boolean[][] probeKeys;
+        private boolean[] assigned;
+        private double[] cardinalities;
+        private double[] costs;
+        private int[] bestLeft;
+        private JoinMethod[] methods;
+
+        private String flatten(ILogicalOperator op, IOptimizationContext context) {
+            if (op.getOperatorTag() != LogicalOperatorTag.INNERJOIN
+                    || (!joins.isEmpty() && context.checkIfInDontApplySet(CostBasedJoinOrderRule.this, op))) {
+                inputs.add(op);
+                return String.valueOf(inputs.size() - 1);
+            }
+            InnerJoinOperator join = (InnerJoinOperator) op;
+            joins.add(join);
+            ILogicalExpression condition = join.getCondition().getValue();
+            if (!condition.splitIntoConjuncts(conjuncts) && condition != ConstantExpression.TRUE) {
+                conjuncts.add(new MutableObject<>(condition));
+            }
+            String left = flatten(join.getInputs().get(0).getValue(), context);
+            String right = flatten(join.getInputs().get(1).getValue(), context);
+            return "(" + left + "," + right + ")";
+        }
+
+        private boolean hasHints() {
+            for (Mutable<ILogicalExpression> conjunct : conjuncts) {
+                ILogicalExpression expr = conjunct.getValue();
+                if (expr.getExpressionTag() == LogicalExpressionTag.FUNCTION_CALL) {
+                    AbstractFunctionCallExpression fexp = (AbstractFunctionCallExpression) expr;
+                    if (fexp.getAnnotations().containsKey(IndexedNLJoinExpressionAnnotation.INSTANCE) || fexp
+                            .getAnnotations().containsKey(BroadcastExpressionAnnotation.BROADCAST_ANNOTATION_KEY)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean estimate(IOptimizationContext context) throws AlgebricksException {
+            int n = inputs.size();
+            double[] inputCardinalities = new double[n];
+            List<Set<LogicalVariable>> inputVars = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                long cardinality = estimator.getCardinality(inputs.get(i), context);
+                if (cardinality < 0) {
+                    return false;
+                }
+                inputCardinalities[i] = Math.max(cardinality, 1);
+                Set<LogicalVariable> vars = new HashSet<>();
+                VariableUtilities.getLiveVariables(inputs.get(i), vars);
+                inputVars.add(vars);
+            }
+            numPartitions = estimator.getNumPartitions(context);
+            int m = conjuncts.size();
+            masks = new int[m];
+            selectivities = new double[m];
+            equiInputs = new int[m][];
+            probeKeys = new boolean[m][];
+            assigned = new boolean[m];
+            List<LogicalVariable> usedVars = new ArrayList<>();
+            for (int c = 0; c < m; c++) {
+                ILogicalExpression expr = conjuncts.get(c).getValue();
+                usedVars.clear();
+                expr.getUsedVariables(usedVars);
+                for (LogicalVariable var : usedVars) {
+                    int input = findInput(inputVars, var);
+                    if (input >= 0) {
+                        masks[c] |= 1 << input;
+                    }
+                }
+                selectivities[c] = DEFAULT_SELECTIVITY;
+                LogicalVariable[] equiVars = getEquiJoinVariables(expr);
+                if (equiVars == null) {
+                    continue;
+                }
+                int[] ins = { findInput(inputVars, equiVars[0]), findInput(inputVars, equiVars[1]) };
+                if (ins[0] < 0 || ins[1] < 0 || ins[0] == ins[1]) {
+                    continue;
+                }
+                equiInputs[c] = ins;
+                probeKeys[c] = new boolean[2];
+                long[] ndvs = new long[2];
+                for (int i = 0; i < 2; i++) {
+                    ILogicalOperator input = inputs.get(ins[i]);
+                    ndvs[i] = estimator.getDistinctValues(equiVars[i], input, context);
+                    probeKeys[c][i] = estimator.isIndexProbeKey(equiVars[i], input, context);
+                }
+                long ndv = Math.max(ndvs[0], ndvs[1]);
+                if (ndv <= 0) {
+                    ndv = (long) Math.max(inputCardinalities[ins[0]], inputCardinalities[ins[1]]);
+                }
+                selectivities[c] = 1.0 / Math.max(ndv, 1);
+            }
+            cardinalities = new double[1 << n];
+            for (int set = 1; set < cardinalities.length; set++) {
+                double cardinality = 1.0;
+                for (int i = 0; i < n; i++) {
+                    if ((set & (1 << i)) != 0) {
+                        cardinality *= inputCardinalities[i];
+                    }
+                }
+                for (int c = 0; c < m; c++) {
+                    if (masks[c] != 0 && (masks[c] & ~set) == 0) {
+                        cardinality *= selectivities[c];
+                    }
+                }
+                cardinalities[set] = Math.max(cardinality, 1.0);
+            }
+            return true;
+        }
+
+        private int findInput(List<Set<LogicalVariable>> inputVars, LogicalVariable var) {
+            for (int i = 0; i < inputVars.size(); i++) {
+                if (inputVars.get(i).contains(var)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private LogicalVariable[] getEquiJoinVariables(ILogicalExpression expr) {
+            if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+                return null;
+            }
+            AbstractFunctionCallExpression fexp = (AbstractFunctionCallExpression) expr;
+            if (!fexp.getFunctionIdentifier().equals(AlgebricksBuiltinFunctions.EQ)) {
+                return null;
+            }
+            ILogicalExpression arg0 = fexp.getArguments().get(0).getValue();
+            ILogicalExpression arg1 = fexp.getArguments().get(1).getValue();
+            if (arg0.getExpressionTag() != LogicalExpressionTag.VARIABLE
+                    || arg1.getExpressionTag() != LogicalExpressionTag.VARIABLE) {
+                return null;
+            }
+            return new LogicalVariable[] { ((VariableReferenceExpression) arg0).getVariableReference(),
+                    ((VariableReferenceExpression) arg1).getVariableReference() };
+        }
+
+        private void enumerate() {
+            int size = 1 << inputs.size();
+            costs = new double[size];
+            bestLeft = new int[size];
+            methods = new JoinMethod[size];
+            for (int set = 1; set < size; set++) {
+                if (Integer.bitCount(set) == 1) {
+                    continue;
+                }
+                costs[set] = Double.MAX_VALUE;
+                for (int left = (set - 1) & set; left > 0; left = (left - 1) & set) {
+                    int right = set ^ left;
+                    double inputsCost = costs[left] + costs[right];
+                    double cost;
+                    JoinMethod method;
+                    if (!isConnected(left, right)) {
+                        cost = inputsCost + cardinalities[left] * cardinalities[right];
+                        method = JoinMethod.NESTED_LOOP;
+                    } else {
+                        cost = inputsCost + 2 * cardinalities[right] + cardinalities[left] + cardinalities[set];
+                        method = JoinMethod.HASH;
+                        if (canProbeIndex(left, right)) {
+                            double indexCost =
+                                    costs[left] + cardinalities[left] * INDEX_PROBE_COST + cardinalities[set];
+                            if (indexCost < cost) {
+                                cost = indexCost;
+                                method = JoinMethod.INDEX_NESTED_LOOP;
+                            }
+                        }
+                    }
+                    if (cost < costs[set]) {
+                        costs[set] = cost;
+                        bestLeft[set] = left;
+                        methods[set] = method;
+                    }
+                }
+                int right = set ^ bestLeft[set];
+                if (methods[set] == JoinMethod.HASH && numPartitions > 1
+                        && cardinalities[right] * numPartitions < cardinalities[bestLeft[set]] + cardinalities[right]) {
+                    methods[set] = JoinMethod.BROADCAST;
+                }
+            }
+        }
+
+        private boolean isConnected(int left, int right) {
+            for (int mask : masks) {
+                if ((mask & left) != 0 && (mask & right) != 0 && (mask & ~(left | right)) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean canProbeIndex(int left, int right) {
+            if (Integer.bitCount(right) != 1) {
+                return false;
+            }
+            for (int c = 0; c < conjuncts.size(); c++) {
+                if (getProbeKeyArgument(c, left, right) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int getProbeKeyArgument(int c, int left, int right) {
+            int[] ins = equiInputs[c];
+            if (ins == null) {
+                return -1;
+            }
+            for (int i = 0; i < 2; i++) {
+                if ((1 << ins[i]) == right && (left & (1 << ins[1 - i])) != 0 && probeKeys[c][i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private String shape(int set) {
+            if (Integer.bitCount(set) == 1) {
+                return String.valueOf(Integer.numberOfTrailingZeros(set));
+            }
+            return "(" + shape(bestLeft[set]) + "," + shape(set ^ bestLeft[set]) + ")";
+        }
+
+        private boolean addsHints(int set) {
+            if (Integer.bitCount(set) == 1) {
+                return false;
+            }
+            return methods[set] == JoinMethod.BROADCAST || methods[set] == JoinMethod.INDEX_NESTED_LOOP
+                    || addsHints(bestLeft[set]) || addsHints(set ^ bestLeft[set]);
+        }
+
+        private ILogicalOperator build(int set, IOptimizationContext context) throws AlgebricksException {
+            if (Integer.bitCount(set) == 1) {
+                return inputs.get(Integer.numberOfTrailingZeros(set));
+            }
+            int left = bestLeft[set];
+            int right = set ^ left;
+            ILogicalOperator leftOp = build(left, context);
+            ILogicalOperator rightOp = build(right, context);
+            List<Mutable<ILogicalExpression>> joinConjuncts = new ArrayList<>();
+            for (int c = 0; c < conjuncts.size(); c++) {
+                if (!assigned[c] && (masks[c] & ~set) == 0) {
+                    assigned[c] = true;
+                    joinConjuncts.add(conjuncts.get(c));
+                    annotate(c, left, right, methods[set]);
+                }
+            }
+            ILogicalExpression condition;
+            if (joinConjuncts.isEmpty()) {
+                condition = ConstantExpression.TRUE;
+            } else if (joinConjuncts.size() == 1) {
+                condition = joinConjuncts.get(0).getValue();
+            } else {
+                condition = new ScalarFunctionCallExpression(
+                        context.getMetadataProvider().lookupFunction(AlgebricksBuiltinFunctions.AND), joinConjuncts);
+            }
+            InnerJoinOperator join = new InnerJoinOperator(new MutableObject<>(condition), new MutableObject<>(leftOp),
+                    new MutableObject<>(rightOp));
+            join.setSourceLocation(joins.get(0).getSourceLocation());
+            join.setExecutionMode(((AbstractLogicalOperator) joins.get(0)).getExecutionMode());
+            context.computeAndSetTypeEnvironmentForOperator(join);
+            context.addToDontApplySet(CostBasedJoinOrderRule.this, join);
+            return join;
+        }
+
+        private void annotate(int c, int left, int right, JoinMethod method) {
+            AbstractFunctionCallExpression fexp;
+            if (method == JoinMethod.INDEX_NESTED_LOOP) {
+                if (getProbeKeyArgument(c, left, right) < 0) {
+                    return;
+                }
+                fexp = (AbstractFunctionCallExpression) conjuncts.get(c).getValue();
+                fexp.getAnnotations().put(IndexedNLJoinExpressionAnnotation.INSTANCE,
+                        IndexedNLJoinExpressionAnnotation.INSTANCE);
+            } else if (method == JoinMethod.BROADCAST) {
+                int[] ins = equiInputs[c];
+                if (ins == null || (right & (1 << ins[0])) == (right & (1 << ins[1]))) {
+                    return;
+                }
+                fexp = (AbstractFunctionCallExpression) conjuncts.get(c).getValue();
+                BroadcastExpressionAnnotation bcast = new BroadcastExpressionAnnotation();
+                bcast.setObject((right & (1 << ins[0])) != 0 ? BroadcastSide.LEFT : BroadcastSide.RIGHT);
+                fexp.getAnnotations().put(BroadcastExpressionAnnotation.BROADCAST_ANNOTATION_KEY, bcast);
+            }
+        }
+    }
+}
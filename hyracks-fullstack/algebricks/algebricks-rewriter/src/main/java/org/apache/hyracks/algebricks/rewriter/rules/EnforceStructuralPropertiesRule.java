@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.apache.commons.lang3.mutable.Mutable;
 import org.apache.commons.lang3.mutable.MutableObject;
@@ -45,6 +46,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogi
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractOperatorWithNestedPlans;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ExchangeOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ForwardOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.GroupByOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder;
@@ -55,6 +57,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractPre
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractStableSortPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.BroadcastExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.ExternalGroupByPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.ForwardPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionMergeExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.InMemoryStableSortPOperator;
@@ -606,8 +609,11 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
                     break;
                 }
                 case ORDERED_PARTITIONED: {
-                    pop = new RangePartitionExchangePOperator(((OrderedPartitionedProperty) pp).getOrderColumns(),
-                            domain, null);
+                    // The range map is computed at runtime from a sample of the input.
+                    List<OrderColumn> ordCols = ((OrderedPartitionedProperty) pp).getOrderColumns();
+                    String rangeMapKey = UUID.randomUUID().toString();
+                    addForwardOperator(op.getInputs().get(i), ordCols, rangeMapKey, context);
+                    pop = new RangePartitionExchangePOperator(ordCols, domain, rangeMapKey);
                     break;
                 }
                 case BROADCAST: {
@@ -640,6 +646,17 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
         }
     }
 
+    private void addForwardOperator(Mutable<ILogicalOperator> inputRef, List<OrderColumn> sortColumns,
+            String rangeMapKey, IOptimizationContext context) throws AlgebricksException {
+        AbstractLogicalOperator input = (AbstractLogicalOperator) inputRef.getValue();
+        ForwardOperator forward = new ForwardOperator();
+        forward.setSourceLocation(input.getSourceLocation());
+        forward.setPhysicalOperator(
+                new ForwardPOperator(sortColumns, rangeMapKey, physicalOptimizationConfig.getSortSamples()));
+        forward.setExecutionMode(input.getExecutionMode());
+        setNewOp(inputRef, forward, context);
+    }
+
     private boolean allAreOrderProps(List<ILocalStructuralProperty> cldLocals) {
         for (ILocalStructuralProperty lsp : cldLocals) {
             if (lsp.getPropertyType() != PropertyType.LOCAL_ORDER_PROPERTY) {
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.rewriter.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.EquivalenceClass;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.IPhysicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractHashJoinPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractJoinPOperator.JoinPartitioningType;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.SortMergeJoinPOperator;
+import org.apache.hyracks.algebricks.core.algebra.properties.ILocalStructuralProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.ILocalStructuralProperty.PropertyType;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPhysicalPropertiesVector;
+import org.apache.hyracks.algebricks.core.algebra.properties.LocalOrderProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.OrderColumn;
+import org.apache.hyracks.algebricks.core.algebra.properties.PropertiesUtil;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+import org.apache.hyracks.algebricks.core.rewriter.base.PhysicalOptimizationConfig;
+
+/**
+ * Replaces a pairwise-partitioned hash join by a sort-merge join when, after structural properties have been
+ * enforced, both join inputs already deliver an ascending local order on the join keys (e.g., both sides are
+ * primary-index scans joined on their primary keys). The sort-merge join neither builds a hash table nor spills
+ * partitions, and it preserves the order of its first input.
+ * The rule only fires when the sort-merge join is enabled in the {@link PhysicalOptimizationConfig}.
+ * This rule must run after {@link EnforceStructuralPropertiesRule}.
+ */
+public class IntroduceSortMergeJoinRule implements IAlgebraicRewriteRule {
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        return false;
+    }
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        if (!context.getPhysicalOptimizationConfig().getSortMergeJoin()) {
+            return false;
+        }
+        AbstractLogicalOperator op = (AbstractLogicalOperator) opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.INNERJOIN
+                && op.getOperatorTag() != LogicalOperatorTag.LEFTOUTERJOIN) {
+            return false;
+        }
+        IPhysicalOperator physicalOp = op.getPhysicalOperator();
+        if (physicalOp == null || (physicalOp.getOperatorTag() != PhysicalOperatorTag.HYBRID_HASH_JOIN
+                && physicalOp.getOperatorTag() != PhysicalOperatorTag.IN_MEMORY_HASH_JOIN)) {
+            return false;
+        }
+        AbstractHashJoinPOperator hashJoin = (AbstractHashJoinPOperator) physicalOp;
+        if (hashJoin.getPartitioningType() != JoinPartitioningType.PAIRWISE) {
+            return false;
+        }
+        AbstractLogicalOperator left = (AbstractLogicalOperator) op.getInputs().get(0).getValue();
+        AbstractLogicalOperator right = (AbstractLogicalOperator) op.getInputs().get(1).getValue();
+        IPhysicalPropertiesVector leftProps = left.getDeliveredPhysicalProperties();
+        IPhysicalPropertiesVector rightProps = right.getDeliveredPhysicalProperties();
+        if (leftProps == null || rightProps == null || leftProps.getLocalProperties() == null
+                || rightProps.getLocalProperties() == null) {
+            return false;
+        }
+
+        // The key pairs are commutative, so they are matched in the order in which the left input is sorted.
+        List<LogicalVariable> keysLeft = new ArrayList<>();
+        List<LogicalVariable> keysRight = new ArrayList<>();
+        if (!orderKeys(hashJoin, leftProps.getLocalProperties(), context.getEquivalenceClassMap(left), keysLeft,
+                keysRight)) {
+            return false;
+        }
+        if (!PropertiesUtil.matchLocalProperties(ascendingOrderOn(keysLeft), leftProps.getLocalProperties(),
+                context.getEquivalenceClassMap(left), context.getFDList(left))
+                || !PropertiesUtil.matchLocalProperties(ascendingOrderOn(keysRight), rightProps.getLocalProperties(),
+                        context.getEquivalenceClassMap(right), context.getFDList(right))) {
+            return false;
+        }
+
+        op.setPhysicalOperator(new SortMergeJoinPOperator(hashJoin.getKind(), JoinPartitioningType.PAIRWISE, keysLeft,
+                keysRight, context.getPhysicalOptimizationConfig().getMaxFramesForJoin()));
+        op.computeDeliveredPhysicalProperties(context);
+        return true;
+    }
+
+    private static boolean orderKeys(AbstractHashJoinPOperator hashJoin, List<ILocalStructuralProperty> leftLocals,
+            Map<LogicalVariable, EquivalenceClass> eqClasses, List<LogicalVariable> keysLeft,
+            List<LogicalVariable> keysRight) {
+        List<LogicalVariable> hashKeysLeft = hashJoin.getKeysLeftBranch();
+        List<LogicalVariable> hashKeysRight = hashJoin.getKeysRightBranch();
+        for (ILocalStructuralProperty prop : leftLocals) {
+            if (prop.getPropertyType() != PropertyType.LOCAL_ORDER_PROPERTY) {
+                continue;
+            }
+            List<OrderColumn> orderColumns = ((LocalOrderProperty) prop).getOrderColumns();
+            if (orderColumns.size() < hashKeysLeft.size()) {
+                continue;
+            }
+            keysLeft.clear();
+            keysRight.clear();
+            for (int i = 0; i < hashKeysLeft.size(); i++) {
+                OrderColumn oc = orderColumns.get(i);
+                int keyIdx = indexOf(hashKeysLeft, oc.getColumn(), eqClasses);
+                if (oc.getOrder() != OrderKind.ASC || keyIdx < 0 || keysLeft.contains(hashKeysLeft.get(keyIdx))) {
+                    break;
+                }
+                keysLeft.add(hashKeysLeft.get(keyIdx));
+                keysRight.add(hashKeysRight.get(keyIdx));
+            }
+            if (keysLeft.size() == hashKeysLeft.size()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(List<LogicalVariable> keys, LogicalVariable var,
+            Map<LogicalVariable, EquivalenceClass> eqClasses) {
+        EquivalenceClass varClass = eqClasses == null ? null : eqClasses.get(var);
+        for (int i = 0; i < keys.size(); i++) {
+            LogicalVariable key = keys.get(i);
+            if (key == var || (varClass != null && eqClasses.get(key) == varClass)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<ILocalStructuralProperty> ascendingOrderOn(List<LogicalVariable> keys) {
+        List<OrderColumn> orderColumns = new ArrayList<>(keys.size());
+        for (LogicalVariable key : keys) {
+            orderColumns.add(new OrderColumn(key, OrderKind.ASC));
+        }
+        List<ILocalStructuralProperty> localProperties = new ArrayList<>(1);
+        localProperties.add(new LocalOrderProperty(orderColumns));
+        return localProperties;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.rewriter.rules;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.constraints.AlgebricksAbsolutePartitionConstraint;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IndexedNLJoinExpressionAnnotation;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.functions.IFunctionInfo;
+import org.apache.hyracks.algebricks.core.algebra.metadata.IMetadataProvider;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.properties.ICardinalityEstimator;
+import org.apache.hyracks.algebricks.core.rewriter.base.AlgebricksOptimizationContext;
+import org.apache.hyracks.algebricks.core.rewriter.base.PhysicalOptimizationConfig;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CostBasedJoinOrderRuleTest {
+
+    private final TestEstimator estimator = new TestEstimator();
+    private IOptimizationContext context;
+    private int varCounter;
+
+    @Before
+    public void setUp() {
+        context = new AlgebricksOptimizationContext(0, null, null, null, null, null, new PhysicalOptimizationConfig(),
+                new AlgebricksAbsolutePartitionConstraint(new String[] { "nc1" }));
+        IMetadataProvider<?, ?> metadataProvider = mock(IMetadataProvider.class);
+        when(metadataProvider.lookupFunction(AlgebricksBuiltinFunctions.AND))
+                .thenReturn(functionInfo(AlgebricksBuiltinFunctions.AND));
+        context.setMetadataDeclarations(metadataProvider);
+    }
+
+    /**
+     * ((a JOIN b) JOIN c) where b and c are connected by a very selective predicate is reordered to
+     * (a JOIN (b JOIN c)) so that the large join with a gets the small result of b JOIN c as its build input.
+     */
+    @Test
+    public void reordersJoins() throws AlgebricksException {
+        LogicalVariable a = newVar();
+        LogicalVariable b1 = newVar();
+        LogicalVariable b2 = newVar();
+        LogicalVariable c = newVar();
+        ILogicalOperator inputA = input(1_000_000, a);
+        ILogicalOperator inputB = input(1_000_000, b1, b2);
+        ILogicalOperator inputC = input(100, c);
+        estimator.distinctValues.put(a, 1_000_000L);
+        estimator.distinctValues.put(b1, 1_000_000L);
+        estimator.distinctValues.put(b2, 1_000_000L);
+        estimator.distinctValues.put(c, 100L);
+        ILogicalExpression ab = eq(a, b1);
+        ILogicalExpression bc = eq(b2, c);
+        Mutable<ILogicalOperator> root = new MutableObject<>(join(bc, join(ab, inputA, inputB), inputC));
+
+        Assert.assertTrue(new CostBasedJoinOrderRule(estimator).rewritePre(root, context));
+
+        InnerJoinOperator top = (InnerJoinOperator) root.getValue();
+        Assert.assertSame(ab, top.getCondition().getValue());
+        Assert.assertSame(inputA, top.getInputs().get(0).getValue());
+        InnerJoinOperator bottom = (InnerJoinOperator) top.getInputs().get(1).getValue();
+        Assert.assertSame(bc, bottom.getCondition().getValue());
+        Assert.assertSame(inputB, bottom.getInputs().get(0).getValue());
+        Assert.assertSame(inputC, bottom.getInputs().get(1).getValue());
+        assertNoHints(ab);
+        assertNoHints(bc);
+
+        // the new joins are not reordered again
+        Assert.assertFalse(new CostBasedJoinOrderRule(estimator).rewritePre(root, context));
+    }
+
+    /**
+     * A small input joined with a large input whose join key is indexed is evaluated as an indexed nested-loop
+     * join that probes the index of the large input with the tuples of the small input.
+     */
+    @Test
+    public void choosesIndexNestedLoopJoin() throws AlgebricksException {
+        LogicalVariable large = newVar();
+        LogicalVariable small = newVar();
+        ILogicalOperator largeInput = input(1_000_000, large);
+        ILogicalOperator smallInput = input(10, small);
+        estimator.distinctValues.put(large, 1_000_000L);
+        estimator.distinctValues.put(small, 10L);
+        estimator.probeKeys.add(large);
+        ILogicalExpression condition = eq(large, small);
+        Mutable<ILogicalOperator> root = new MutableObject<>(join(condition, largeInput, smallInput));
+
+        Assert.assertTrue(new CostBasedJoinOrderRule(estimator).rewritePre(root, context));
+
+        InnerJoinOperator join = (InnerJoinOperator) root.getValue();
+        Assert.assertSame(smallInput, join.getInputs().get(0).getValue());
+        Assert.assertSame(largeInput, join.getInputs().get(1).getValue());
+        Assert.assertTrue(((AbstractFunctionCallExpression) condition).getAnnotations()
+                .containsKey(IndexedNLJoinExpressionAnnotation.INSTANCE));
+    }
+
+    /**
+     * On more than one partition, a small build input is broadcast rather than repartitioned with the probe input.
+     */
+    @Test
+    public void broadcastsSmallBuildInput() throws AlgebricksException {
+        LogicalVariable large = newVar();
+        LogicalVariable small = newVar();
+        ILogicalOperator largeInput = input(1_000_000, large);
+        ILogicalOperator smallInput = input(10, small);
+        estimator.distinctValues.put(large, 1_000_000L);
+        estimator.distinctValues.put(small, 10L);
+        estimator.numPartitions = 4;
+        ILogicalExpression condition = eq(large, small);
+        Mutable<ILogicalOperator> root = new MutableObject<>(join(condition, largeInput, smallInput));
+
+        Assert.assertTrue(new CostBasedJoinOrderRule(estimator).rewritePre(root, context));
+
+        InnerJoinOperator join = (InnerJoinOperator) root.getValue();
+        Assert.assertSame(largeInput, join.getInputs().get(0).getValue());
+        Assert.assertSame(smallInput, join.getInputs().get(1).getValue());
+        Object bcast = ((AbstractFunctionCallExpression) condition).getAnnotations()
+                .get(BroadcastExpressionAnnotation.BROADCAST_ANNOTATION_KEY);
+        Assert.assertEquals(BroadcastExpressionAnnotation.BroadcastSide.RIGHT,
+                ((BroadcastExpressionAnnotation) bcast).getObject());
+    }
+
+    @Test
+    public void keepsPlanWithoutStatistics() throws AlgebricksException {
+        LogicalVariable a = newVar();
+        LogicalVariable b = newVar();
+        LogicalVariable c = newVar();
+        ILogicalOperator inputA = input(1_000_000, a);
+        ILogicalOperator inputB = input(ICardinalityEstimator.UNKNOWN, b);
+        ILogicalOperator inputC = input(100, c);
+        InnerJoinOperator original = join(eq(b, c), join(eq(a, b), inputA, inputB), inputC);
+        Mutable<ILogicalOperator> root = new MutableObject<>(original);
+
+        Assert.assertFalse(new CostBasedJoinOrderRule(estimator).rewritePre(root, context));
+        Assert.assertSame(original, root.getValue());
+    }
+
+    @Test
+    public void keepsPlanWithJoinHints() throws AlgebricksException {
+        LogicalVariable large = newVar();
+        LogicalVariable small = newVar();
+        ILogicalOperator largeInput = input(1_000_000, large);
+        ILogicalOperator smallInput = input(10, small);
+        estimator.probeKeys.add(large);
+        ILogicalExpression condition = eq(small, large);
+        ((AbstractFunctionCallExpression) condition).getAnnotations().put(
+                BroadcastExpressionAnnotation.BROADCAST_ANNOTATION_KEY, new BroadcastExpressionAnnotation());
+        InnerJoinOperator original = join(condition, largeInput, smallInput);
+        Mutable<ILogicalOperator> root = new MutableObject<>(original);
+
+        Assert.assertFalse(new CostBasedJoinOrderRule(estimator).rewritePre(root, context));
+        Assert.assertSame(original, root.getValue());
+        Assert.assertFalse(((AbstractFunctionCallExpression) condition).getAnnotations()
+                .containsKey(IndexedNLJoinExpressionAnnotation.INSTANCE));
+    }
+
+    private LogicalVariable newVar() {
+        return new LogicalVariable(++varCounter);
+    }
+
+    private ILogicalOperator input(long cardinality, LogicalVariable... vars) {
+        List<LogicalVariable> assignVars = new ArrayList<>();
+        List<Mutable<ILogicalExpression>> assignExprs = new ArrayList<>();
+        for (LogicalVariable var : vars) {
+            assignVars.add(var);
+            assignExprs.add(new MutableObject<>(ConstantExpression.TRUE));
+        }
+        AssignOperator assign = new AssignOperator(assignVars, assignExprs);
+        assign.getInputs().add(new MutableObject<>(new EmptyTupleSourceOperator()));
+        estimator.cardinalities.put(assign, cardinality);
+        return assign;
+    }
+
+    private static InnerJoinOperator join(ILogicalExpression condition, ILogicalOperator left,
+            ILogicalOperator right) {
+        return new InnerJoinOperator(new MutableObject<>(condition), new MutableObject<>(left),
+                new MutableObject<>(right));
+    }
+
+    private static ILogicalExpression eq(LogicalVariable left, LogicalVariable right) {
+        return new ScalarFunctionCallExpression(functionInfo(AlgebricksBuiltinFunctions.EQ),
+                new MutableObject<>(new VariableReferenceExpression(left)),
+                new MutableObject<>(new VariableReferenceExpression(right)));
+    }
+
+    private static IFunctionInfo functionInfo(FunctionIdentifier fid) {
+        return () -> fid;
+    }
+
+    private static void assertNoHints(ILogicalExpression condition) {
+        Map<?, ?> annotations = ((AbstractFunctionCallExpression) condition).getAnnotations();
+        Assert.assertFalse(annotations.containsKey(IndexedNLJoinExpressionAnnotation.INSTANCE));
+        Assert.assertFalse(annotations.containsKey(BroadcastExpressionAnnotation.BROADCAST_ANNOTATION_KEY));
+    }
+
+    private static class TestEstimator implements ICardinalityEstimator {
+        private final Map<ILogicalOperator, Long> cardinalities = new HashMap<>();
+        private final Map<LogicalVariable, Long> distinctValues = new HashMap<>();
+        private final Set<LogicalVariable> probeKeys = new HashSet<>();
+        private int numPartitions = 1;
+
+        @Override
+        public long getCardinality(ILogicalOperator op, IOptimizationContext context) {
+            if (op.getOperatorTag() == LogicalOperatorTag.INNERJOIN) {
+                return UNKNOWN;
+            }
+            return cardinalities.getOrDefault(op, UNKNOWN);
+        }
+
+        @Override
+        public long getDistinctValues(LogicalVariable var, ILogicalOperator op, IOptimizationContext context) {
+            return distinctValues.getOrDefault(var, UNKNOWN);
+        }
+
+        @Override
+        public boolean isIndexProbeKey(LogicalVariable var, ILogicalOperator op, IOptimizationContext context) {
+            return probeKeys.contains(var);
+        }
+
+        @Override
+        public int getNumPartitions(IOptimizationContext context) {
+            return numPartitions;
+        }
+    }
+}
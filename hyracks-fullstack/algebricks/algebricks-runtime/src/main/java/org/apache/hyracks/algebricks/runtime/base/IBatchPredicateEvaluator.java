@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.base;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Evaluates a boolean expression over a batch of tuples of a frame instead of one tuple at a time.
+ * The tuples to evaluate are given by a selection vector, i.e., an array of tuple indexes, which the evaluator
+ * narrows in place to the tuples for which the expression is TRUE (FALSE, NULL and MISSING are all dropped, as a
+ * select operator would do). A conjunction can thus apply its conjuncts one after another on a shrinking selection.
+ */
+public interface IBatchPredicateEvaluator {
+    /**
+     * @param accessor
+     *            the frame that contains the tuples
+     * @param selection
+     *            the indexes of the tuples to evaluate, in increasing order
+     * @param selectionSize
+     *            the number of valid entries in selection
+     * @return the number of tuples that satisfy the predicate; their indexes are moved to the front of selection,
+     *         in their original order.
+     */
+    public int select(IFrameTupleAccessor accessor, int[] selection, int selectionSize) throws HyracksDataException;
+}
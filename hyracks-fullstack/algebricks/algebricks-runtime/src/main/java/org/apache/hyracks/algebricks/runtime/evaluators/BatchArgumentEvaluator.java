@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+
+/**
+ * Evaluates one argument of a batch predicate on all selected tuples of a frame before the predicate looks at any
+ * of them, so that the predicate then runs over a column of argument values.
+ * A field reference is resolved to offsets into the frame without calling an evaluator, and a constant is set once
+ * per batch. Any other expression is evaluated tuple by tuple and its values are copied into a buffer.
+ */
+public class BatchArgumentEvaluator {
+
+    private final IScalarEvaluator eval;
+    private final int fieldIndex;
+    private final byte[] constant;
+    private final ArrayBackedValueStorage values = new ArrayBackedValueStorage();
+    private final FrameTupleReference tupleRef = new FrameTupleReference();
+    private final IPointable result = VoidPointable.FACTORY.createPointable();
+    private byte[] data;
+    private int[] starts = new int[0];
+    private int[] lengths = new int[0];
+
+    /**
+     * @param factory
+     *            the factory of the argument
+     * @param eval
+     *            an evaluator created by {@code factory}
+     */
+    public BatchArgumentEvaluator(IScalarEvaluatorFactory factory, IScalarEvaluator eval) {
+        this.eval = eval;
+        this.fieldIndex = factory instanceof ColumnAccessEvalFactory
+                ? ((ColumnAccessEvalFactory) factory).getFieldIndex() : -1;
+        this.constant = factory instanceof ConstantEvalFactory ? ((ConstantEvalFactory) factory).getValue() : null;
+    }
+
+    /**
+     * Evaluates the argument on the tuples {@code selection[0..selectionSize)} of the frame. The value of the tuple
+     * {@code selection[i]} is then available at position {@code i}.
+     */
+    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int selectionSize)
+            throws HyracksDataException {
+        if (constant != null) {
+            data = constant;
+            return;
+        }
+        if (starts.length < selectionSize) {
+            starts = new int[accessor.getTupleCount()];
+            lengths = new int[starts.length];
+        }
+        if (fieldIndex >= 0) {
+            data = accessor.getBuffer().array();
+            for (int i = 0; i < selectionSize; i++) {
+                int t = selection[i];
+                starts[i] = accessor.getAbsoluteFieldStartOffset(t, fieldIndex);
+                lengths[i] = accessor.getFieldLength(t, fieldIndex);
+            }
+            return;
+        }
+        values.reset();
+        for (int i = 0; i < selectionSize; i++) {
+            tupleRef.reset(accessor, selection[i]);
+            eval.evaluate(tupleRef, result);
+            starts[i] = values.getLength();
+            lengths[i] = result.getLength();
+            values.append(result);
+        }
+        // The buffer may have grown while the values were appended.
+        data = values.getByteArray();
+    }
+
+    public void getValue(int i, IPointable value) {
+        if (constant != null) {
+            value.set(constant, 0, constant.length);
+        } else {
+            value.set(data, starts[i], lengths[i]);
+        }
+    }
+}
@@ -35,6 +35,10 @@ public class ColumnAccessEvalFactory implements IScalarEvaluatorFactory {
         this.fieldIndex = fieldIndex;
     }
 
+    public int getFieldIndex() {
+        return fieldIndex;
+    }
+
     @Override
     public String toString() {
         return "ColumnAccess(" + fieldIndex + ")";
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+
+/**
+ * Evaluates a predicate on a batch of tuples by calling its {@link IScalarEvaluator} on every selected tuple.
+ * It lets batch-capable expressions (e.g. conjunctions) contain arguments that only have a tuple-at-a-time evaluator.
+ */
+public class TupleAtATimePredicateEvaluator implements IBatchPredicateEvaluator {
+
+    private final IScalarEvaluator eval;
+    private final IBinaryBooleanInspector bbi;
+    private final FrameTupleReference tupleRef = new FrameTupleReference();
+    private final IPointable result = VoidPointable.FACTORY.createPointable();
+
+    public TupleAtATimePredicateEvaluator(IScalarEvaluator eval, IBinaryBooleanInspector bbi) {
+        this.eval = eval;
+        this.bbi = bbi;
+    }
+
+    @Override
+    public int select(IFrameTupleAccessor accessor, int[] selection, int selectionSize) throws HyracksDataException {
+        int selected = 0;
+        for (int i = 0; i < selectionSize; i++) {
+            int t = selection[i];
+            tupleRef.reset(accessor, t);
+            eval.evaluate(tupleRef, result);
+            if (bbi.getBooleanValue(result.getByteArray(), result.getStartOffset(), result.getLength())) {
+                selection[selected++] = t;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return the batch evaluator of the factory if it provides one, or a tuple-at-a-time evaluator otherwise.
+     */
+    public static IBatchPredicateEvaluator create(IScalarEvaluatorFactory factory, IBinaryBooleanInspector bbi,
+            IHyracksTaskContext ctx) throws HyracksDataException {
+        if (factory instanceof IBatchPredicateEvaluatorFactory) {
+            return ((IBatchPredicateEvaluatorFactory) factory).createBatchPredicateEvaluator(ctx);
+        }
+        return new TupleAtATimePredicateEvaluator(factory.createScalarEvaluator(ctx), bbi);
+    }
+}
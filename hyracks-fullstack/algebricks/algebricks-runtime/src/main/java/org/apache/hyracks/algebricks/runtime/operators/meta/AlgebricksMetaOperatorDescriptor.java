@@ -99,7 +99,8 @@ public class AlgebricksMetaOperatorDescriptor extends AbstractSingleActivityOper
                     outputArity > 0 ? AlgebricksMetaOperatorDescriptor.this.outRecDescs[0] : null;
             PipelineAssembler pa =
                     new PipelineAssembler(pipeline, inputArity, outputArity, null, pipelineOutputRecordDescriptor);
-            startOfPipeline = pa.assemblePipeline(writer, ctx);
+            startOfPipeline =
+                    pa.assemblePipeline(writer, ctx, AlgebricksMetaOperatorDescriptor.this.getActivityId().toString());
             HyracksDataException exception = null;
             try {
                 startOfPipeline.open();
@@ -139,7 +140,8 @@ public class AlgebricksMetaOperatorDescriptor extends AbstractSingleActivityOper
                             .getInputRecordDescriptor(AlgebricksMetaOperatorDescriptor.this.getActivityId(), 0);
                     PipelineAssembler pa = new PipelineAssembler(pipeline, inputArity, outputArity,
                             pipelineInputRecordDescriptor, pipelineOutputRecordDescriptor);
-                    startOfPipeline = pa.assemblePipeline(writer, ctx);
+                    startOfPipeline = pa.assemblePipeline(writer, ctx,
+                            AlgebricksMetaOperatorDescriptor.this.getActivityId().toString());
                 }
                 opened = true;
                 startOfPipeline.open();
@@ -25,6 +25,7 @@ import org.apache.hyracks.algebricks.runtime.base.AlgebricksPipeline;
 import org.apache.hyracks.algebricks.runtime.base.EnforcePushRuntime;
 import org.apache.hyracks.algebricks.runtime.base.IPushRuntime;
 import org.apache.hyracks.algebricks.runtime.base.IPushRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.base.ProfiledPushRuntime;
 import org.apache.hyracks.api.comm.IFrameWriter;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.EnforceFrameWriter;
@@ -54,8 +55,26 @@ public class PipelineAssembler {
     }
 
     public IFrameWriter assemblePipeline(IFrameWriter writer, IHyracksTaskContext ctx) throws HyracksDataException {
+        return assemblePipeline(writer, ctx, null);
+    }
+
+    /**
+     * Assembles the pipeline and, when the job is profiled, collects the runtime stats of each micro-operator.
+     *
+     * @param writer
+     *            the writer at the end of the pipeline
+     * @param ctx
+     *            the task context
+     * @param profileName
+     *            the prefix of the names of the micro-operator stats, or null if the micro-operators should not be
+     *            profiled
+     * @return the writer at the start of the pipeline
+     */
+    public IFrameWriter assemblePipeline(IFrameWriter writer, IHyracksTaskContext ctx, String profileName)
+            throws HyracksDataException {
         // should enforce protocol
         boolean enforce = ctx.getJobFlags().contains(JobFlag.ENFORCE_CONTRACT);
+        boolean profile = profileName != null && ctx.getJobFlags().contains(JobFlag.PROFILE_RUNTIME);
         // plug the operators
         IFrameWriter start = writer;// this.writer;
         IPushRuntimeFactory[] runtimeFactories = pipeline.getRuntimeFactories();
@@ -69,6 +88,11 @@ public class PipelineAssembler {
                 if (enforce) {
                     newRuntimes[j] = EnforcePushRuntime.enforce(newRuntimes[j]);
                 }
+                if (profile) {
+                    String operatorName = profileName + "." + i + " " + runtimeFactory;
+                    newRuntimes[j] = ProfiledPushRuntime.time(newRuntimes[j],
+                            ctx.getStatsCollector().getOrAddOperatorStats(operatorName));
+                }
                 if (i == runtimeFactories.length - 1) {
                     if (outputArity == 1) {
                         newRuntimes[j].setOutputFrameWriter(0, start, pipelineOutputRecordDescriptor);
@@ -23,6 +23,8 @@ import java.nio.ByteBuffer;
 
 import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
 import org.apache.hyracks.algebricks.data.IBinaryBooleanInspectorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchPredicateEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFieldFramePushRuntime;
@@ -83,6 +85,8 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         return new AbstractOneInputOneOutputOneFieldFramePushRuntime() {
             private IPointable p = VoidPointable.FACTORY.createPointable();
             private IScalarEvaluator eval;
+            private IBatchPredicateEvaluator batchEval;
+            private int[] selection;
             private IMissingWriter missingWriter = null;
             private ArrayTupleBuilder missingTupleBuilder = null;
 
@@ -91,6 +95,9 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
                 if (eval == null) {
                     initAccessAppendFieldRef(ctx);
                     eval = cond.createScalarEvaluator(ctx);
+                    if (cond instanceof IBatchPredicateEvaluatorFactory) {
+                        batchEval = ((IBatchPredicateEvaluatorFactory) cond).createBatchPredicateEvaluator(ctx);
+                    }
                 }
                 writer.open();
 
@@ -117,6 +124,10 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
             public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
                 tAccess.reset(buffer);
                 int nTuple = tAccess.getTupleCount();
+                if (batchEval != null && !retainMissing) {
+                    selectBatch(nTuple);
+                    return;
+                }
                 for (int t = 0; t < nTuple; t++) {
                     tRef.reset(tAccess, t);
                     eval.evaluate(tRef, p);
@@ -140,6 +151,24 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
                 }
             }
 
+            // Evaluates the condition on the whole frame and then appends the qualifying tuples.
+            private void selectBatch(int nTuple) throws HyracksDataException {
+                if (selection == null || selection.length < nTuple) {
+                    selection = new int[nTuple];
+                }
+                for (int t = 0; t < nTuple; t++) {
+                    selection[t] = t;
+                }
+                int nSelected = batchEval.select(tAccess, selection, nTuple);
+                for (int i = 0; i < nSelected; i++) {
+                    if (projectionList != null) {
+                        appendProjectionToFrame(selection[i], projectionList);
+                    } else {
+                        appendTupleToFrame(selection[i]);
+                    }
+                }
+            }
+
             @Override
             public void flush() throws HyracksDataException {
                 appender.flush(writer);
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.operators.win;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+
+/**
+ * Holds the tuples of one window partition and gives random access to them by their position in the partition.
+ * The first frames of a partition are kept in memory; once the memory budget is used up the remaining frames
+ * are written to a workspace file and read back on demand by {@link Cursor}s.
+ */
+class WindowPartitionBuffer {
+
+    private final IHyracksTaskContext ctx;
+    private final RecordDescriptor recordDesc;
+    private final int maxMemFrames;
+
+    // frames kept in memory, reused across partitions
+    private final List<IFrame> memFrames = new ArrayList<>();
+    // the frame that receives tuples once the in-memory frames are used up
+    private final IFrame spillFrame;
+    private final FrameTupleAppender appender;
+    private IFrame appendFrame;
+
+    // number of frames of the current partition that are in memory
+    private int memFrameCount;
+    // number of frames of the current partition that were written to the file
+    private int spilledFrameCount;
+    // tuple count at the end of every complete frame of the current partition
+    private long[] frameEnds = new long[8];
+    private long[] spilledFrameOffsets = new long[8];
+    private int[] spilledFrameSizes = new int[8];
+    private long tupleCount;
+    // incremented for every partition so that cursors drop the frame they have loaded
+    private int generation;
+
+    private FileReference file;
+    private IFileHandle handle;
+    private long fileSize;
+
+    WindowPartitionBuffer(IHyracksTaskContext ctx, RecordDescriptor recordDesc, int memSizeInFrames)
+            throws HyracksDataException {
+        this.ctx = ctx;
+        this.recordDesc = recordDesc;
+        // one frame is reserved for spilling and one for each of the three cursors of the window runtime
+        this.maxMemFrames = Math.max(memSizeInFrames - 4, 1);
+        this.spillFrame = new VSizeFrame(ctx);
+        this.appendFrame = nextMemFrame();
+        this.appender = new FrameTupleAppender(appendFrame, true);
+    }
+
+    long getTupleCount() {
+        return tupleCount;
+    }
+
+    void append(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+        if (!appender.append(accessor, tIndex)) {
+            completeAppendFrame();
+            if (!appender.append(accessor, tIndex)) {
+                throw HyracksDataException.create(ErrorCode.TUPLE_CANNOT_FIT_INTO_EMPTY_FRAME,
+                        accessor.getTupleLength(tIndex));
+            }
+        }
+        tupleCount++;
+    }
+
+    /**
+     * Must be called once all tuples of the partition were appended and before any {@link Cursor} is used.
+     */
+    void seal() throws HyracksDataException {
+        if (appender.getTupleCount() > 0) {
+            completeAppendFrame();
+        }
+    }
+
+    /**
+     * Discards the current partition. The in-memory frames and the workspace file are reused for the next one.
+     */
+    void reset() throws HyracksDataException {
+        for (IFrame memFrame : memFrames) {
+            memFrame.reset();
+        }
+        spillFrame.reset();
+        memFrameCount = 0;
+        spilledFrameCount = 0;
+        tupleCount = 0;
+        fileSize = 0;
+        generation++;
+        appendFrame = memFrames.get(0);
+        appender.reset(appendFrame, true);
+    }
+
+    void close() throws HyracksDataException {
+        if (handle != null) {
+            ctx.getIoManager().close(handle);
+            handle = null;
+        }
+        if (file != null) {
+            file.delete();
+            file = null;
+        }
+    }
+
+    Cursor createCursor() {
+        return new Cursor();
+    }
+
+    private void completeAppendFrame() throws HyracksDataException {
+        int frameCount = memFrameCount + spilledFrameCount;
+        if (frameCount == frameEnds.length) {
+            frameEnds = Arrays.copyOf(frameEnds, frameCount * 2);
+        }
+        frameEnds[frameCount] = tupleCount;
+        if (appendFrame != spillFrame) {
+            memFrameCount++;
+            appendFrame = memFrameCount < maxMemFrames ? nextMemFrame() : spillFrame;
+        } else {
+            spill(appendFrame.getBuffer());
+        }
+        appender.reset(appendFrame, true);
+    }
+
+    private IFrame nextMemFrame() throws HyracksDataException {
+        if (memFrameCount == memFrames.size()) {
+            memFrames.add(new VSizeFrame(ctx));
+        }
+        return memFrames.get(memFrameCount);
+    }
+
+    private void spill(ByteBuffer buffer) throws HyracksDataException {
+        IIOManager ioManager = ctx.getIoManager();
+        if (handle == null) {
+            file = ctx.createManagedWorkspaceFile(WindowPartitionBuffer.class.getSimpleName());
+            handle = ioManager.open(file, IIOManager.FileReadWriteMode.READ_WRITE,
+                    IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        }
+        if (spilledFrameCount == spilledFrameOffsets.length) {
+            spilledFrameOffsets = Arrays.copyOf(spilledFrameOffsets, spilledFrameCount * 2);
+            spilledFrameSizes = Arrays.copyOf(spilledFrameSizes, spilledFrameCount * 2);
+        }
+        buffer.clear();
+        int written = ioManager.syncWrite(handle, fileSize, buffer);
+        spilledFrameOffsets[spilledFrameCount] = fileSize;
+        spilledFrameSizes[spilledFrameCount] = written;
+        spilledFrameCount++;
+        fileSize += written;
+    }
+
+    /**
+     * Positions on tuples of the sealed partition. Moving to a tuple in the current frame is free, moving to a
+     * tuple in another in-memory frame is a buffer switch, and moving to a tuple in a spilled frame reads that
+     * frame into the cursor's own buffer.
+     */
+    class Cursor {
+
+        private final FrameTupleAccessor accessor = new FrameTupleAccessor(recordDesc);
+        private final FrameTupleReference tupleRef = new FrameTupleReference();
+        private IFrame readFrame;
+        private int frameIndex = -1;
+        private int frameGeneration;
+        private long frameStart;
+        private long frameEnd;
+        private int tupleIndex;
+
+        void moveTo(long position) throws HyracksDataException {
+            if (frameIndex < 0 || frameGeneration != generation || position < frameStart || position >= frameEnd) {
+                loadFrame(findFrame(position));
+            }
+            tupleIndex = (int) (position - frameStart);
+            tupleRef.reset(accessor, tupleIndex);
+        }
+
+        IFrameTupleAccessor getAccessor() {
+            return accessor;
+        }
+
+        int getTupleIndex() {
+            return tupleIndex;
+        }
+
+        FrameTupleReference getTuple() {
+            return tupleRef;
+        }
+
+        private int findFrame(long position) {
+            int frameCount = memFrameCount + spilledFrameCount;
+            int idx = Arrays.binarySearch(frameEnds, 0, frameCount, position);
+            // frameEnds holds exclusive ends, so an exact hit belongs to the next frame
+            return idx >= 0 ? idx + 1 : -idx - 1;
+        }
+
+        private void loadFrame(int index) throws HyracksDataException {
+            if (index < memFrameCount) {
+                accessor.reset(memFrames.get(index).getBuffer());
+            } else {
+                int spilledIndex = index - memFrameCount;
+                if (readFrame == null) {
+                    readFrame = new VSizeFrame(ctx);
+                }
+                readFrame.resize(spilledFrameSizes[spilledIndex]);
+                ByteBuffer buffer = readFrame.getBuffer();
+                buffer.clear();
+                ctx.getIoManager().syncRead(handle, spilledFrameOffsets[spilledIndex], buffer);
+                accessor.reset(buffer);
+            }
+            frameIndex = index;
+            frameGeneration = generation;
+            frameStart = index == 0 ? 0 : frameEnds[index - 1];
+            frameEnd = frameEnds[index];
+        }
+    }
+}
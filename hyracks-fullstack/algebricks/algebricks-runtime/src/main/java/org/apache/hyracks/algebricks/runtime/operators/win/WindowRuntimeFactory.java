@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.operators.win;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
+import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+
+/**
+ * Runtime of the window operator. The input must be clustered on the partition columns and, within each
+ * partition, sorted on the window order. The runtime buffers one partition at a time (spilling to disk beyond
+ * {@code memSizeInFrames}) and then emits every tuple of the partition extended with the window function results.
+ * <p>
+ * Window functions are either aggregates evaluated over the frame of each tuple
+ * ({@code aggregates[i] != null}) or running aggregates stepped from the start of the partition up to the
+ * current tuple ({@code runningAggregates[i] != null}). Frames are given as offsets relative to the current tuple.
+ * In a range frame, an offset of 0 stands for the first (frame start) or the last (frame end) peer of the current
+ * tuple, i.e. of the tuples that are equal to it on the order columns. Frames that start at the beginning of the
+ * partition are evaluated incrementally, which relies on
+ * {@link IAggregateEvaluator#finish(IPointable)} leaving the aggregate state intact; all other frames are
+ * recomputed when their bounds change.
+ */
+public class WindowRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int UNBOUNDED_PRECEDING = Integer.MIN_VALUE;
+    public static final int UNBOUNDED_FOLLOWING = Integer.MAX_VALUE;
+
+    private final int[] partitionColumns;
+    private final IBinaryComparatorFactory[] partitionComparatorFactories;
+    private final boolean rangeFrame;
+    private final int[] orderColumns;
+    private final IBinaryComparatorFactory[] orderComparatorFactories;
+    private final int frameStartOffset;
+    private final int frameEndOffset;
+    private final int[] outColumns;
+    private final IAggregateEvaluatorFactory[] aggregates;
+    private final IRunningAggregateEvaluatorFactory[] runningAggregates;
+    private final int memSizeInFrames;
+
+    /**
+     * @param partitionColumns
+     *            columns that identify a partition
+     * @param partitionComparatorFactories
+     *            comparators for the partition columns
+     * @param rangeFrame
+     *            whether the frame is a range frame, whose bounds at the current tuple extend to its peers
+     * @param orderColumns
+     *            columns that identify the peers of a tuple in a range frame
+     * @param orderComparatorFactories
+     *            comparators for the order columns
+     * @param frameStartOffset
+     *            start of the frame relative to the current tuple, or {@link #UNBOUNDED_PRECEDING}
+     * @param frameEndOffset
+     *            end of the frame (inclusive) relative to the current tuple, or {@link #UNBOUNDED_FOLLOWING}
+     * @param outColumns
+     *            a sorted array of columns into which the results are written to
+     * @param aggregates
+     *            frame aggregates, {@code null} at the positions of running aggregates
+     * @param runningAggregates
+     *            running aggregates, {@code null} at the positions of frame aggregates
+     * @param memSizeInFrames
+     *            memory budget for buffering a partition
+     * @param projectionList
+     *            an array of columns to be projected
+     */
+    public WindowRuntimeFactory(int[] partitionColumns, IBinaryComparatorFactory[] partitionComparatorFactories,
+            boolean rangeFrame, int[] orderColumns, IBinaryComparatorFactory[] orderComparatorFactories,
+            int frameStartOffset, int frameEndOffset, int[] outColumns, IAggregateEvaluatorFactory[] aggregates,
+            IRunningAggregateEvaluatorFactory[] runningAggregates, int memSizeInFrames, int[] projectionList) {
+        super(projectionList);
+        this.partitionColumns = partitionColumns;
+        this.partitionComparatorFactories = partitionComparatorFactories;
+        this.rangeFrame = rangeFrame;
+        this.orderColumns = orderColumns;
+        this.orderComparatorFactories = orderComparatorFactories;
+        this.frameStartOffset = frameStartOffset;
+        this.frameEndOffset = frameEndOffset;
+        this.outColumns = outColumns;
+        this.aggregates = aggregates;
+        this.runningAggregates = runningAggregates;
+        this.memSizeInFrames = memSizeInFrames;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("window ").append(Arrays.toString(outColumns)).append(" := [");
+        for (int i = 0; i < outColumns.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(aggregates[i] != null ? aggregates[i] : runningAggregates[i]);
+        }
+        sb.append("] partition ").append(Arrays.toString(partitionColumns));
+        sb.append(rangeFrame ? " range [" : " rows [").append(frameStartOffset).append(", ").append(frameEndOffset)
+                .append("]");
+        return sb.toString();
+    }
+
+    @Override
+    public AbstractOneInputOneOutputOneFramePushRuntime createOneOutputPushRuntime(final IHyracksTaskContext ctx)
+            throws HyracksDataException {
+        final int[] projectionToOutColumns = new int[projectionList.length];
+        for (int j = 0; j < projectionList.length; j++) {
+            projectionToOutColumns[j] = Arrays.binarySearch(outColumns, projectionList[j]);
+        }
+
+        return new AbstractOneInputOneOutputOneFramePushRuntime() {
+            private final IPointable p = VoidPointable.FACTORY.createPointable();
+            private final IAggregateEvaluator[] aggs = new IAggregateEvaluator[outColumns.length];
+            private final IRunningAggregateEvaluator[] raggs = new IRunningAggregateEvaluator[outColumns.length];
+            private final ArrayBackedValueStorage[] results = new ArrayBackedValueStorage[outColumns.length];
+            private final IBinaryComparator[] partitionComparators =
+                    new IBinaryComparator[partitionComparatorFactories.length];
+            private final IBinaryComparator[] orderComparators = new IBinaryComparator[orderComparatorFactories.length];
+            private final ArrayTupleBuilder partitionKey = new ArrayTupleBuilder(partitionColumns.length);
+            private final ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(projectionList.length);
+            private WindowPartitionBuffer partition;
+            private WindowPartitionBuffer.Cursor currentCursor;
+            private WindowPartitionBuffer.Cursor frameCursor;
+            private WindowPartitionBuffer.Cursor peerCursor;
+            private boolean hasAggregates;
+            private boolean first = true;
+            private boolean isOpen = false;
+
+            @Override
+            public void open() throws HyracksDataException {
+                initAccessAppendRef(ctx);
+                if (first) {
+                    first = false;
+                    for (int i = 0; i < outColumns.length; i++) {
+                        if (aggregates[i] != null) {
+                            aggs[i] = aggregates[i].createAggregateEvaluator(ctx);
+                            hasAggregates = true;
+                        } else {
+                            raggs[i] = runningAggregates[i].createRunningAggregateEvaluator(ctx);
+                        }
+                        results[i] = new ArrayBackedValueStorage();
+                    }
+                    for (int i = 0; i < partitionComparatorFactories.length; i++) {
+                        partitionComparators[i] = partitionComparatorFactories[i].createBinaryComparator();
+                    }
+                    for (int i = 0; i < orderComparatorFactories.length; i++) {
+                        orderComparators[i] = orderComparatorFactories[i].createBinaryComparator();
+                    }
+                }
+                partition = new WindowPartitionBuffer(ctx, inputRecordDesc, memSizeInFrames);
+                currentCursor = partition.createCursor();
+                frameCursor = partition.createCursor();
+                peerCursor = partition.createCursor();
+                isOpen = true;
+                writer.open();
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                tAccess.reset(buffer);
+                int nTuple = tAccess.getTupleCount();
+                for (int t = 0; t < nTuple; t++) {
+                    if (partition.getTupleCount() == 0) {
+                        setPartitionKey(tAccess, t);
+                    } else if (!samePartition(tAccess, t)) {
+                        processPartition();
+                        setPartitionKey(tAccess, t);
+                    }
+                    partition.append(tAccess, t);
+                }
+            }
+
+            @Override
+            public void close() throws HyracksDataException {
+                if (isOpen) {
+                    try {
+                        if (!failed) {
+                            processPartition();
+                        }
+                    } catch (Exception e) {
+                        failed = true;
+                        writer.fail();
+                        throw HyracksDataException.create(e);
+                    } finally {
+                        try {
+                            partition.close();
+                        } finally {
+                            super.close();
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void fail() throws HyracksDataException {
+                if (isOpen) {
+                    super.fail();
+                }
+            }
+
+            @Override
+            public void flush() throws HyracksDataException {
+                appender.flush(writer);
+            }
+
+            private void setPartitionKey(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+                partitionKey.reset();
+                for (int column : partitionColumns) {
+                    partitionKey.addField(accessor, tIndex, column);
+                }
+            }
+
+            private boolean samePartition(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+                byte[] keyBytes = partitionKey.getByteArray();
+                int[] keyEnds = partitionKey.getFieldEndOffsets();
+                for (int i = 0; i < partitionColumns.length; i++) {
+                    int keyStart = i == 0 ? 0 : keyEnds[i - 1];
+                    int c = partitionComparators[i].compare(accessor.getBuffer().array(),
+                            accessor.getAbsoluteFieldStartOffset(tIndex, partitionColumns[i]),
+                            accessor.getFieldLength(tIndex, partitionColumns[i]), keyBytes, keyStart,
+                            keyEnds[i] - keyStart);
+                    if (c != 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            private void processPartition() throws HyracksDataException {
+                long n = partition.getTupleCount();
+                if (n == 0) {
+                    return;
+                }
+                partition.seal();
+                boolean cumulative = frameStartOffset == UNBOUNDED_PRECEDING;
+                for (int i = 0; i < outColumns.length; i++) {
+                    if (raggs[i] != null) {
+                        raggs[i].init();
+                    } else if (cumulative) {
+                        aggs[i].init();
+                    }
+                }
+                // frame of the previous tuple, [-1, -2] before the first one
+                long prevLo = -1;
+                long prevHi = -2;
+                // number of tuples stepped into cumulative aggregates
+                long stepped = 0;
+                // peers of the current tuple in a range frame
+                long peerStart = 0;
+                long peerEnd = -1;
+                for (long pos = 0; pos < n; pos++) {
+                    currentCursor.moveTo(pos);
+                    for (int i = 0; i < outColumns.length; i++) {
+                        if (raggs[i] != null) {
+                            raggs[i].step(currentCursor.getTuple(), p);
+                            results[i].assign(p);
+                        }
+                    }
+                    if (hasAggregates) {
+                        if (rangeFrame && pos > peerEnd) {
+                            peerStart = pos;
+                            peerEnd = findLastPeer(pos, n);
+                        }
+                        long lo = frameStartOffset == UNBOUNDED_PRECEDING ? 0
+                                : rangeFrame ? peerStart : Math.max(pos + frameStartOffset, 0);
+                        long hi = frameEndOffset == UNBOUNDED_FOLLOWING ? n - 1
+                                : rangeFrame ? peerEnd : Math.min(pos + frameEndOffset, n - 1);
+                        if (lo != prevLo || hi != prevHi) {
+                            if (cumulative) {
+                                for (; stepped <= hi; stepped++) {
+                                    stepAggregates(stepped);
+                                }
+                            } else {
+                                initAggregates();
+                                for (long r = lo; r <= hi; r++) {
+                                    stepAggregates(r);
+                                }
+                            }
+                            finishAggregates();
+                            prevLo = lo;
+                            prevHi = hi;
+                        }
+                    }
+                    produceTuple(currentCursor.getAccessor(), currentCursor.getTupleIndex());
+                    appendToFrameFromTupleBuilder(tupleBuilder);
+                }
+                partition.reset();
+            }
+
+            /**
+             * @return the position of the last tuple of the partition that is a peer of the current tuple
+             */
+            private long findLastPeer(long pos, long n) throws HyracksDataException {
+                IFrameTupleAccessor accessor = currentCursor.getAccessor();
+                int tIndex = currentCursor.getTupleIndex();
+                long last = pos;
+                while (last + 1 < n) {
+                    peerCursor.moveTo(last + 1);
+                    if (!samePeers(accessor, tIndex, peerCursor.getAccessor(), peerCursor.getTupleIndex())) {
+                        break;
+                    }
+                    last++;
+                }
+                return last;
+            }
+
+            private boolean samePeers(IFrameTupleAccessor accessor1, int tIndex1, IFrameTupleAccessor accessor2,
+                    int tIndex2) throws HyracksDataException {
+                for (int i = 0; i < orderColumns.length; i++) {
+                    int c = orderComparators[i].compare(accessor1.getBuffer().array(),
+                            accessor1.getAbsoluteFieldStartOffset(tIndex1, orderColumns[i]),
+                            accessor1.getFieldLength(tIndex1, orderColumns[i]), accessor2.getBuffer().array(),
+                            accessor2.getAbsoluteFieldStartOffset(tIndex2, orderColumns[i]),
+                            accessor2.getFieldLength(tIndex2, orderColumns[i]));
+                    if (c != 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            private void initAggregates() throws HyracksDataException {
+                for (IAggregateEvaluator agg : aggs) {
+                    if (agg != null) {
+                        agg.init();
+                    }
+                }
+            }
+
+            private void stepAggregates(long pos) throws HyracksDataException {
+                frameCursor.moveTo(pos);
+                for (IAggregateEvaluator agg : aggs) {
+                    if (agg != null) {
+                        agg.step(frameCursor.getTuple());
+                    }
+                }
+            }
+
+            private void finishAggregates() throws HyracksDataException {
+                for (int i = 0; i < aggs.length; i++) {
+                    if (aggs[i] != null) {
+                        aggs[i].finish(p);
+                        results[i].assign(p);
+                    }
+                }
+            }
+
+            private void produceTuple(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+                tupleBuilder.reset();
+                for (int f = 0; f < projectionList.length; f++) {
+                    int k = projectionToOutColumns[f];
+                    if (k >= 0) {
+                        tupleBuilder.addField(results[k].getByteArray(), results[k].getStartOffset(),
+                                results[k].getLength());
+                    } else {
+                        tupleBuilder.addField(accessor, tIndex, projectionList[f]);
+                    }
+                }
+            }
+        };
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.hyracks.api.application;
 
 import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
+import org.apache.hyracks.api.io.IBufferCacheCounters;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
 import org.apache.hyracks.api.resources.memory.IMemoryManager;
@@ -68,6 +69,13 @@ public interface INCServiceContext extends IServiceContext {
      */
     void setStateDumpHandler(IStateDumpHandler handler);
 
+    /**
+     * Set the buffer cache counters to report with the node statistics.
+     *
+     * @param counters
+     */
+    void setBufferCacheCounters(IBufferCacheCounters counters);
+
     /**
      * Set the application MessagingChannelInterfaceFactory
      *
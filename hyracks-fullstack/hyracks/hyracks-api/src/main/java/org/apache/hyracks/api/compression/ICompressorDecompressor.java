@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.compression;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A block codec used to compress and decompress pages.
+ * Implementations are not required to be thread-safe; callers are expected to obtain one instance per thread or
+ * synchronize their usage.
+ */
+public interface ICompressorDecompressor {
+    /**
+     * Computes the maximum number of bytes that a compressed block of {@code uncompressedBufferSize} could take.
+     *
+     * @param uncompressedBufferSize
+     *            the size of the uncompressed block
+     * @return the worst-case size of the compressed block
+     */
+    int computeCompressedBufferSize(int uncompressedBufferSize);
+
+    /**
+     * Compresses the bytes between {@code uBuffer.position()} and {@code uBuffer.limit()} into {@code cBuffer}
+     * starting at {@code cBuffer.position()}. On return, {@code cBuffer.limit()} is set to the end of the
+     * compressed bytes and the position of {@code uBuffer} is left unchanged.
+     *
+     * @param uBuffer
+     *            the uncompressed source
+     * @param cBuffer
+     *            the compressed destination. It must have at least
+     *            {@link #computeCompressedBufferSize(int)} bytes remaining
+     * @return {@code cBuffer}
+     * @throws HyracksDataException
+     */
+    ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) throws HyracksDataException;
+
+    /**
+     * Decompresses the bytes between {@code cBuffer.position()} and {@code cBuffer.limit()} into {@code uBuffer}
+     * starting at {@code uBuffer.position()}. On return, {@code uBuffer.limit()} is set to the end of the
+     * decompressed bytes.
+     *
+     * @param cBuffer
+     *            the compressed source
+     * @param uBuffer
+     *            the uncompressed destination
+     * @return {@code uBuffer}
+     * @throws HyracksDataException
+     *             if the compressed block is corrupted or does not fit in {@code uBuffer}
+     */
+    ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException;
+}
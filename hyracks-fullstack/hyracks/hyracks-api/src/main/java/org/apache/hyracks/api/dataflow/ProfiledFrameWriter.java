@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.dataflow;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.FrameHelper;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.profiling.IOperatorStats;
+import org.apache.hyracks.api.job.profiling.ProfilingScope;
+
+/**
+ * A frame writer that collects the runtime stats of profiled operators. It is used in one of three roles:
+ * <ul>
+ * <li>An input writer wraps the input of an operator. It counts the frames and tuples the operator receives and runs
+ * the operator in a {@link ProfilingScope}, which charges the time the operator spends on them to the operator.</li>
+ * <li>An output writer wraps an output of an operator and counts the frames and tuples the operator sends.</li>
+ * <li>A connector writer wraps the writer of a connector and charges the time spent in the connector to the waiting
+ * time of the operator that sends to it.</li>
+ * </ul>
+ */
+public class ProfiledFrameWriter implements IFrameWriter {
+
+    private enum Role {
+        INPUT,
+        OUTPUT,
+        CONNECTOR
+    }
+
+    private final IFrameWriter writer;
+    private final IOperatorStats stats;
+    private final Role role;
+    private IOperatorStats enclosing;
+
+    protected ProfiledFrameWriter(IFrameWriter writer, IOperatorStats stats) {
+        this(writer, stats, Role.INPUT);
+    }
+
+    private ProfiledFrameWriter(IFrameWriter writer, IOperatorStats stats, Role role) {
+        this.writer = writer;
+        this.stats = stats;
+        this.role = role;
+    }
+
+    /**
+     * @return the stats of the operator, or null for a connector writer
+     */
+    public IOperatorStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void open() throws HyracksDataException {
+        long startTime = enter();
+        try {
+            writer.open();
+        } finally {
+            exit(startTime);
+        }
+    }
+
+    @Override
+    public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        if (role == Role.INPUT) {
+            stats.getInputFrameCounter().update(1);
+            stats.getInputTupleCounter().update(getTupleCount(buffer));
+        } else if (role == Role.OUTPUT) {
+            stats.getOutputFrameCounter().update(1);
+            stats.getOutputTupleCounter().update(getTupleCount(buffer));
+        }
+        long startTime = enter();
+        try {
+            writer.nextFrame(buffer);
+        } finally {
+            exit(startTime);
+        }
+    }
+
+    @Override
+    public void flush() throws HyracksDataException {
+        long startTime = enter();
+        try {
+            writer.flush();
+        } finally {
+            exit(startTime);
+        }
+    }
+
+    @Override
+    public void fail() throws HyracksDataException {
+        long startTime = enter();
+        try {
+            writer.fail();
+        } finally {
+            exit(startTime);
+        }
+    }
+
+    @Override
+    public void close() throws HyracksDataException {
+        long startTime = enter();
+        try {
+            writer.close();
+        } finally {
+            exit(startTime);
+        }
+    }
+
+    private long enter() {
+        switch (role) {
+            case INPUT:
+                enclosing = ProfilingScope.enter(stats);
+                return System.nanoTime();
+            case CONNECTOR:
+                return System.nanoTime();
+            default:
+                return 0;
+        }
+    }
+
+    private void exit(long startTime) {
+        switch (role) {
+            case INPUT:
+                ProfilingScope.exit(stats, enclosing, startTime);
+                enclosing = null;
+                break;
+            case CONNECTOR:
+                ProfilingScope.addWaitTime(startTime);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static int getTupleCount(ByteBuffer buffer) {
+        return buffer.getInt(FrameHelper.getTupleCountOffset(buffer.capacity()));
+    }
+
+    /**
+     * Wraps the input of an operator.
+     */
+    public static IFrameWriter input(IFrameWriter writer, IOperatorStats stats) {
+        return new ProfiledFrameWriter(writer, stats, Role.INPUT);
+    }
+
+    /**
+     * Wraps an output of an operator.
+     */
+    public static IFrameWriter output(IFrameWriter writer, IOperatorStats stats) {
+        return new ProfiledFrameWriter(writer, stats, Role.OUTPUT);
+    }
+
+    /**
+     * Wraps the writer of a connector.
+     */
+    public static IFrameWriter connector(IFrameWriter writer) {
+        return new ProfiledFrameWriter(writer, null, Role.CONNECTOR);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.dataflow;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.profiling.IOperatorStats;
+import org.apache.hyracks.api.job.profiling.ProfilingScope;
+
+/**
+ * An operator node pushable that collects the runtime stats of the operator it wraps, using
+ * {@link ProfiledFrameWriter}s on its inputs and outputs.
+ */
+public class ProfiledOperatorNodePushable implements IOperatorNodePushable {
+
+    private final IOperatorNodePushable op;
+    private final IOperatorStats stats;
+
+    public ProfiledOperatorNodePushable(IOperatorNodePushable op, IOperatorStats stats) {
+        this.op = op;
+        this.stats = stats;
+    }
+
+    @Override
+    public void initialize() throws HyracksDataException {
+        IOperatorStats enclosing = ProfilingScope.enter(stats);
+        long startTime = System.nanoTime();
+        try {
+            op.initialize();
+        } finally {
+            ProfilingScope.exit(stats, enclosing, startTime);
+        }
+    }
+
+    @Override
+    public void deinitialize() throws HyracksDataException {
+        IOperatorStats enclosing = ProfilingScope.enter(stats);
+        long startTime = System.nanoTime();
+        try {
+            op.deinitialize();
+        } finally {
+            ProfilingScope.exit(stats, enclosing, startTime);
+        }
+    }
+
+    @Override
+    public int getInputArity() {
+        return op.getInputArity();
+    }
+
+    @Override
+    public void setOutputFrameWriter(int index, IFrameWriter writer, RecordDescriptor recordDesc)
+            throws HyracksDataException {
+        op.setOutputFrameWriter(index, ProfiledFrameWriter.output(writer, stats), recordDesc);
+    }
+
+    @Override
+    public IFrameWriter getInputFrameWriter(int index) {
+        return ProfiledFrameWriter.input(op.getInputFrameWriter(index), stats);
+    }
+
+    @Override
+    public String getDisplayName() {
+        return op.getDisplayName();
+    }
+}
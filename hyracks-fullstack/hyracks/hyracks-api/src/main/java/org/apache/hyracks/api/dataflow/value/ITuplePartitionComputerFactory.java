@@ -20,6 +20,20 @@ package org.apache.hyracks.api.dataflow.value;
 
 import java.io.Serializable;
 
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+
 public interface ITuplePartitionComputerFactory extends Serializable {
     public ITuplePartitionComputer createPartitioner();
+
+    /**
+     * Creates a partitioner for the given task. Partitioners that depend on state that is only known at runtime
+     * (e.g., a range map computed from a sample of the input) look it up from the task context.
+     *
+     * @param ctx
+     *            the context of the task that partitions the tuples
+     * @return the partitioner
+     */
+    public default ITuplePartitionComputer createPartitioner(IHyracksTaskContext ctx) {
+        return createPartitioner();
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.io;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+
+/**
+ * A reference to a file whose pages are stored compressed.
+ * The compressed pages are appended to the file itself while their offsets and sizes are kept in a separate
+ * Look-Aside File (LAF) that lives next to it and shares its name with the {@link #LAF_SUFFIX} suffix.
+ */
+public class CompressedFileReference extends FileReference {
+    private static final long serialVersionUID = 1L;
+    public static final String LAF_SUFFIX = ".dic";
+
+    private final ICompressorDecompressorFactory compressorDecompressorFactory;
+    private final FileReference lafFileRef;
+
+    public CompressedFileReference(IODeviceHandle dev, String path,
+            ICompressorDecompressorFactory compressorDecompressorFactory) {
+        super(dev, path);
+        this.compressorDecompressorFactory = compressorDecompressorFactory;
+        lafFileRef = new FileReference(dev, path + LAF_SUFFIX);
+    }
+
+    public ICompressorDecompressorFactory getCompressorDecompressorFactory() {
+        return compressorDecompressorFactory;
+    }
+
+    /**
+     * @return the Look-Aside File of this compressed file
+     */
+    public FileReference getLAFFileReference() {
+        return lafFileRef;
+    }
+
+    @Override
+    public boolean delete() {
+        // the look-aside file is meaningless without its data file
+        lafFileRef.delete();
+        return super.delete();
+    }
+
+    /**
+     * @param fileRef
+     *            a file reference
+     * @return a compressed version of {@code fileRef}, or {@code fileRef} itself if no compression factory is given
+     */
+    public static FileReference of(FileReference fileRef, ICompressorDecompressorFactory factory) {
+        if (factory == null || fileRef instanceof CompressedFileReference) {
+            return fileRef;
+        }
+        return new CompressedFileReference(fileRef.getDeviceHandle(), fileRef.getRelativePath(), factory);
+    }
+
+    /**
+     * @param fileName
+     *            a file name
+     * @return true if the file is a Look-Aside File
+     */
+    public static boolean isLAF(String fileName) {
+        return fileName.endsWith(LAF_SUFFIX);
+    }
+}
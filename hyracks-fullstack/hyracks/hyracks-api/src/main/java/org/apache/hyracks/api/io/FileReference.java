@@ -26,7 +26,7 @@ import java.io.Serializable;
  * Used to identify a file in the local Node Controller.
  * Only used for files which are stored inside an IO device.
  */
-public final class FileReference implements Serializable {
+public class FileReference implements Serializable {
     private static final long serialVersionUID = 1L;
     private final File file;
     private final IODeviceHandle dev;
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.io;
+
+/**
+ * Cumulative counters of the disk buffer cache of a node, reported with the node statistics.
+ */
+public interface IBufferCacheCounters {
+
+    /**
+     * @return the number of page pins that found the page in the cache
+     */
+    long getHits();
+
+    /**
+     * @return the number of page pins that had to read the page from disk
+     */
+    long getMisses();
+
+    /**
+     * @return the number of cached pages that were replaced by other pages
+     */
+    long getEvictions();
+}
@@ -41,4 +41,40 @@ public interface IOperatorStats extends IWritable, Serializable {
      * of an operator
      */
     ICounter getTimeCounter();
+
+    /**
+     * @return A counter used to track the number of tuples
+     * an operator received from its inputs
+     */
+    ICounter getInputTupleCounter();
+
+    /**
+     * @return A counter used to track the number of tuples
+     * an operator sent to its outputs
+     */
+    ICounter getOutputTupleCounter();
+
+    /**
+     * @return A counter used to track the number of frames
+     * an operator received from its inputs
+     */
+    ICounter getInputFrameCounter();
+
+    /**
+     * @return A counter used to track the number of frames
+     * an operator sent to its outputs
+     */
+    ICounter getOutputFrameCounter();
+
+    /**
+     * @return A counter used to track the time, in nanoseconds, an operator
+     * spent blocked on the connectors it receives from or sends to
+     */
+    ICounter getWaitTimeCounter();
+
+    /**
+     * @return A counter used to track the number of bytes
+     * an operator spilled to run files
+     */
+    ICounter getSpilledBytesCounter();
 }
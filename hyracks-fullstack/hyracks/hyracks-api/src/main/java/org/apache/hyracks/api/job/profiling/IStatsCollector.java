@@ -19,6 +19,7 @@
 package org.apache.hyracks.api.job.profiling;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.IWritable;
@@ -40,6 +41,18 @@ public interface IStatsCollector extends IWritable, Serializable {
      */
     IOperatorStats getOperatorStats(String operatorName);
 
+    /**
+     * @param operatorName
+     * @return {@link IOperatorStats} for the operator with name <code>operatorName</code>.
+     * The stats are created and added to the collection if they do not exist.
+     */
+    IOperatorStats getOrAddOperatorStats(String operatorName);
+
+    /**
+     * @return all the {@link IOperatorStats} in the collection.
+     */
+    Collection<IOperatorStats> getAllOperatorStats();
+
     /**
      * @return A special {@link IOperatorStats} that has the aggregated stats
      * from all operators in the collection.
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.job.profiling;
+
+/**
+ * Tracks the profiled operator that runs in the current thread. Operators call each other in the same thread, so the
+ * scope of an operator is nested in the scope of the operator that sends it frames. On exit, the time spent in a scope
+ * is charged to its operator and taken off the enclosing operator, so that each operator is only charged the time it
+ * spends in its own code. Work that operators do through shared code, e.g. spilling to run files, is charged to the
+ * current operator.
+ */
+public final class ProfilingScope {
+
+    private static final ThreadLocal<IOperatorStats> CURRENT = new ThreadLocal<>();
+
+    private ProfilingScope() {
+    }
+
+    /**
+     * Makes an operator the current operator of the thread.
+     *
+     * @param stats
+     *            the stats of the operator
+     * @return the stats of the enclosing operator, or null if there is none
+     */
+    public static IOperatorStats enter(IOperatorStats stats) {
+        IOperatorStats enclosing = CURRENT.get();
+        CURRENT.set(stats);
+        return enclosing;
+    }
+
+    /**
+     * Ends the scope of the current operator and makes the enclosing operator current again.
+     *
+     * @param stats
+     *            the stats of the current operator
+     * @param enclosing
+     *            the stats returned by {@link #enter(IOperatorStats)}
+     * @param startTime
+     *            the value of {@link System#nanoTime()} when the scope was entered
+     */
+    public static void exit(IOperatorStats stats, IOperatorStats enclosing, long startTime) {
+        long elapsed = System.nanoTime() - startTime;
+        stats.getTimeCounter().update(elapsed);
+        if (enclosing != null) {
+            enclosing.getTimeCounter().update(-elapsed);
+            CURRENT.set(enclosing);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return the stats of the current operator of the thread, or null if the thread does not run a profiled operator
+     */
+    public static IOperatorStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Charges time that the current operator spent blocked to its waiting time.
+     *
+     * @param startTime
+     *            the value of {@link System#nanoTime()} when the operator started waiting
+     */
+    public static void addWaitTime(long startTime) {
+        IOperatorStats stats = CURRENT.get();
+        if (stats != null) {
+            long elapsed = System.nanoTime() - startTime;
+            stats.getWaitTimeCounter().update(elapsed);
+            stats.getTimeCounter().update(-elapsed);
+        }
+    }
+
+    /**
+     * Charges bytes written to a run file to the current operator.
+     *
+     * @param bytes
+     *            the number of bytes written
+     */
+    public static void addSpilledBytes(long bytes) {
+        IOperatorStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.getSpilledBytesCounter().update(bytes);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.job.resource;
+
+import java.io.Serializable;
+
+import org.apache.hyracks.api.job.JobSpecification;
+
+/**
+ * The class of workload that a job belongs to. Job queues that are aware of workload classes give each class its own
+ * share of the cluster capacity, so that e.g. long running analytical jobs cannot hold up short interactive ones.
+ */
+public enum WorkloadClass {
+    /**
+     * Short, latency sensitive jobs such as dashboard queries.
+     */
+    INTERACTIVE,
+    /**
+     * Throughput oriented jobs such as ad-hoc analytical queries. This is the class of jobs that are not labeled.
+     */
+    BATCH,
+    /**
+     * Long running data ingestion jobs.
+     */
+    INGEST;
+
+    /**
+     * The name of the job property that labels a job with its workload class.
+     */
+    public static final String JOB_PROPERTY = "workload-class";
+
+    /**
+     * @param job,
+     *            the job specification.
+     * @return the workload class that a job is labeled with, or {@link #BATCH} if it is not labeled.
+     */
+    public static WorkloadClass of(JobSpecification job) {
+        Serializable workloadClass = job.getProperty(JOB_PROPERTY);
+        return workloadClass instanceof WorkloadClass ? (WorkloadClass) workloadClass : BATCH;
+    }
+
+    /**
+     * @param name,
+     *            the case-insensitive name of a workload class.
+     * @return the workload class with the given name.
+     * @throws IllegalArgumentException
+     *             when there is no workload class with the given name.
+     */
+    public static WorkloadClass parse(String name) {
+        for (WorkloadClass workloadClass : values()) {
+            if (workloadClass.name().equalsIgnoreCase(name)) {
+                return workloadClass;
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload class: " + name);
+    }
+}
@@ -41,6 +41,8 @@ import org.apache.hyracks.api.dataflow.EnforceFrameWriter;
 import org.apache.hyracks.api.dataflow.IActivity;
 import org.apache.hyracks.api.dataflow.IConnectorDescriptor;
 import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.ProfiledFrameWriter;
+import org.apache.hyracks.api.dataflow.ProfiledOperatorNodePushable;
 import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -60,6 +62,7 @@ public class SuperActivityOperatorNodePushable implements IOperatorNodePushable
     private final IRecordDescriptorProvider recordDescProvider;
     private final int partition;
     private final int nPartitions;
+    private final boolean profile;
     private int inputArity = 0;
 
     public SuperActivityOperatorNodePushable(SuperActivity parent, Map<ActivityId, IActivity> startActivities,
@@ -71,6 +74,7 @@ public class SuperActivityOperatorNodePushable implements IOperatorNodePushable
         this.recordDescProvider = recordDescProvider;
         this.partition = partition;
         this.nPartitions = nPartitions;
+        this.profile = ctx.getJobFlags().contains(JobFlag.PROFILE_RUNTIME);
 
         /*
          * initialize the writer-relationship for the internal DAG of operator
@@ -101,8 +105,7 @@ public class SuperActivityOperatorNodePushable implements IOperatorNodePushable
          * Set up the source operators
          */
         for (Entry<ActivityId, IActivity> entry : startActivities.entrySet()) {
-            IOperatorNodePushable opPushable =
-                    entry.getValue().createPushRuntime(ctx, recordDescProvider, partition, nPartitions);
+            IOperatorNodePushable opPushable = createPushRuntime(entry.getValue());
             operatorNodePushablesBFSOrder.add(opPushable);
             operatorNodePushables.put(entry.getKey(), opPushable);
             inputArity += opPushable.getInputArity();
@@ -128,8 +131,7 @@ public class SuperActivityOperatorNodePushable implements IOperatorNodePushable
             IOperatorNodePushable sourceOp = operatorNodePushables.get(sourceId);
             IOperatorNodePushable destOp = operatorNodePushables.get(destId);
             if (destOp == null) {
-                destOp = channel.getRight().getLeft().createPushRuntime(ctx, recordDescProvider, partition,
-                        nPartitions);
+                destOp = createPushRuntime(channel.getRight().getLeft());
                 operatorNodePushablesBFSOrder.add(destOp);
                 operatorNodePushables.put(destId, destOp);
             }
@@ -158,6 +160,16 @@ public class SuperActivityOperatorNodePushable implements IOperatorNodePushable
         }
     }
 
+    private IOperatorNodePushable createPushRuntime(IActivity activity) throws HyracksDataException {
+        IOperatorNodePushable opPushable = activity.createPushRuntime(ctx, recordDescProvider, partition, nPartitions);
+        if (profile) {
+            String name = activity.getActivityId() + " " + activity.getClass().getSimpleName();
+            opPushable =
+                    new ProfiledOperatorNodePushable(opPushable, ctx.getStatsCollector().getOrAddOperatorStats(name));
+        }
+        return opPushable;
+    }
+
     @Override
     public int getInputArity() {
         return inputArity;
@@ -171,7 +183,8 @@ public class SuperActivityOperatorNodePushable implements IOperatorNodePushable
          */
         Pair<ActivityId, Integer> activityIdOutputIndex = parent.getActivityIdOutputIndex(clusterOutputIndex);
         IOperatorNodePushable opPushable = operatorNodePushables.get(activityIdOutputIndex.getLeft());
-        opPushable.setOutputFrameWriter(activityIdOutputIndex.getRight(), writer, recordDesc);
+        opPushable.setOutputFrameWriter(activityIdOutputIndex.getRight(),
+                profile ? ProfiledFrameWriter.connector(writer) : writer, recordDesc);
     }
 
     @Override
@@ -84,8 +84,11 @@ public class NetworkOutputChannel implements IFrameWriter {
             }
             destBuffer.clear();
             if (destBuffer.capacity() < buffer.remaining()) {
-                destBuffer.put(buffer.array(), buffer.position(), destBuffer.capacity());
-                buffer.position(buffer.position() + destBuffer.capacity());
+                // the buffer might be a read-only or a direct one, so it is not accessed through its array
+                int limit = buffer.limit();
+                buffer.limit(buffer.position() + destBuffer.capacity());
+                destBuffer.put(buffer);
+                buffer.limit(limit);
             } else {
                 destBuffer.put(buffer);
             }
@@ -25,6 +25,8 @@ import java.util.List;
 import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.resource.IReadOnlyClusterCapacity;
+import org.apache.hyracks.control.common.controllers.CCConfig;
 import org.apache.hyracks.control.common.work.IResultCallback;
 
 /**
@@ -125,4 +127,14 @@ public interface IJobManager {
      * @return the maximum number of jobs to queue before rejecting new jobs
      */
     int getJobQueueCapacity();
+
+    /**
+     * @return the configuration of the cluster controller.
+     */
+    CCConfig getCCConfig();
+
+    /**
+     * @return the maximum capacity of the cluster, assuming that there is no running job that occupies capacity.
+     */
+    IReadOnlyClusterCapacity getMaximumClusterCapacity();
 }
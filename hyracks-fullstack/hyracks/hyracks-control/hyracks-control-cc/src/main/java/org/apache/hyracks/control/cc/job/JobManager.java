@@ -38,6 +38,7 @@ import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.api.job.JobStatus;
 import org.apache.hyracks.api.job.resource.IJobCapacityController;
+import org.apache.hyracks.api.job.resource.IReadOnlyClusterCapacity;
 import org.apache.hyracks.api.util.ExceptionUtils;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.cc.NodeControllerState;
@@ -107,8 +108,15 @@ public class JobManager implements IJobManager {
     public void add(JobRun jobRun) throws HyracksException {
         checkJob(jobRun);
         JobSpecification job = jobRun.getJobSpecification();
-        IJobCapacityController.JobSubmissionStatus status = jobCapacityController.allocate(job);
         CCServiceContext serviceCtx = ccs.getContext();
+        if (!jobQueue.canBypass(jobRun)) {
+            // The queue decides when the job runs, even if there is enough capacity for it right now.
+            serviceCtx.notifyJobCreation(jobRun.getJobId(), job);
+            queueJob(jobRun);
+            pickJobsToRun();
+            return;
+        }
+        IJobCapacityController.JobSubmissionStatus status = jobCapacityController.allocate(job);
         serviceCtx.notifyJobCreation(jobRun.getJobId(), job);
         switch (status) {
             case QUEUE:
@@ -298,6 +306,16 @@ public class JobManager implements IJobManager {
         return ccs.getCCConfig().getJobQueueCapacity();
     }
 
+    @Override
+    public CCConfig getCCConfig() {
+        return ccs.getCCConfig();
+    }
+
+    @Override
+    public IReadOnlyClusterCapacity getMaximumClusterCapacity() {
+        return ccs.getResourceManager().getMaximumCapacity();
+    }
+
     private void pickJobsToRun() throws HyracksException {
         List<JobRun> selectedRuns = jobQueue.pull();
         for (JobRun run : selectedRuns) {
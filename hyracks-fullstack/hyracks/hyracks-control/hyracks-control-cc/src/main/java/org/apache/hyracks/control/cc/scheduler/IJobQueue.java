@@ -41,6 +41,18 @@ public interface IJobQueue {
      */
     void add(JobRun run) throws HyracksException;
 
+    /**
+     * Decides whether a newly submitted job can be started right away, without entering the job queue, if its
+     * capacity requirement can be met. Queues that do not order jobs by their submission time have to see all jobs.
+     *
+     * @param run,
+     *            the descriptor of a job.
+     * @return true if the job can bypass the queue, false if it has to be added to the queue.
+     */
+    default boolean canBypass(JobRun run) {
+        return true;
+    }
+
     /**
      * Removes a job with a given jobId from the job queue.
      *
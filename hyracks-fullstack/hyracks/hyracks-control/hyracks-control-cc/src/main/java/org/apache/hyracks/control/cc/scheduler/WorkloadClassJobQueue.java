@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.resource.IClusterCapacity;
+import org.apache.hyracks.api.job.resource.IJobCapacityController;
+import org.apache.hyracks.api.job.resource.IReadOnlyClusterCapacity;
+import org.apache.hyracks.api.job.resource.WorkloadClass;
+import org.apache.hyracks.control.cc.job.IJobManager;
+import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.apache.hyracks.util.annotations.NotThreadSafe;
+import org.apache.hyracks.util.annotations.ThreadSafetyGuaranteedBy;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An implementation of IJobQueue that schedules jobs by their {@link WorkloadClass}:
+ * - the jobs of a workload class may only use up to a configured quota of the cluster memory and cores, so that
+ * e.g. batch jobs always leave some capacity for interactive jobs. A job is never held back by the quota of its
+ * class when no other job of the class is running, though.
+ * - the cluster capacity is shared between the workload classes by their configured weights: the class whose
+ * dominant share of the cluster capacity (the larger of its memory and core shares) is the smallest relative to its
+ * weight gets to start a job first.
+ * - within a workload class, jobs that require less capacity are started before jobs that require more. A job that
+ * has been passed over by {@link #MAX_BYPASSES} later submitted jobs of its class cannot be passed over anymore.
+ * All jobs go through this queue, i.e., a new job is started right away only if this queue picks it.
+ */
+@NotThreadSafe
+@ThreadSafetyGuaranteedBy("JobManager")
+public class WorkloadClassJobQueue implements IJobQueue {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    static final int MAX_BYPASSES = 16;
+
+    private final Map<JobId, QueuedJob> jobListMap = new LinkedHashMap<>();
+    private final Map<WorkloadClass, List<QueuedJob>> classQueues = new EnumMap<>(WorkloadClass.class);
+    private final Map<WorkloadClass, Integer> weights;
+    private final Map<WorkloadClass, Integer> quotas;
+    private final IJobManager jobManager;
+    private final IJobCapacityController jobCapacityController;
+    private final int jobQueueCapacity;
+    private long nextSeq = 0;
+
+    public WorkloadClassJobQueue(IJobManager jobManager, IJobCapacityController jobCapacityController) {
+        this.jobManager = jobManager;
+        this.jobCapacityController = jobCapacityController;
+        this.jobQueueCapacity = jobManager.getJobQueueCapacity();
+        CCConfig ccConfig = jobManager.getCCConfig();
+        this.weights = parseClassValues(ccConfig.getJobQueueWorkloadWeights(), 1, Integer.MAX_VALUE, 1);
+        this.quotas = parseClassValues(ccConfig.getJobQueueWorkloadQuotas(), 1, 100, 100);
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            classQueues.put(workloadClass, new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void add(JobRun run) throws HyracksException {
+        int size = jobListMap.size();
+        if (size >= jobQueueCapacity) {
+            throw HyracksException.create(ErrorCode.JOB_QUEUE_FULL, jobQueueCapacity);
+        }
+        QueuedJob job = new QueuedJob(run, nextSeq++);
+        jobListMap.put(run.getJobId(), job);
+        classQueues.get(job.workloadClass).add(job);
+    }
+
+    @Override
+    public boolean canBypass(JobRun run) {
+        return false;
+    }
+
+    @Override
+    public JobRun remove(JobId jobId) {
+        QueuedJob job = jobListMap.remove(jobId);
+        if (job == null) {
+            return null;
+        }
+        classQueues.get(job.workloadClass).remove(job);
+        return job.run;
+    }
+
+    @Override
+    public JobRun get(JobId jobId) {
+        QueuedJob job = jobListMap.get(jobId);
+        return job == null ? null : job.run;
+    }
+
+    @Override
+    public List<JobRun> pull() {
+        List<JobRun> jobRuns = new ArrayList<>();
+        if (jobListMap.isEmpty()) {
+            return jobRuns;
+        }
+        IReadOnlyClusterCapacity maxCapacity = jobManager.getMaximumClusterCapacity();
+        Map<WorkloadClass, Usage> usages = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            usages.put(workloadClass, new Usage());
+        }
+        for (JobRun run : jobManager.getRunningJobs()) {
+            JobSpecification job = run.getJobSpecification();
+            usages.get(WorkloadClass.of(job)).add(job.getRequiredClusterCapacity());
+        }
+        for (List<QueuedJob> classQueue : classQueues.values()) {
+            classQueue.sort(QueuedJob.ORDER);
+        }
+        // A workload class is blocked once the next job of the class cannot be started.
+        EnumSet<WorkloadClass> blocked = EnumSet.noneOf(WorkloadClass.class);
+        WorkloadClass workloadClass;
+        while ((workloadClass = nextClass(usages, maxCapacity, blocked)) != null) {
+            List<QueuedJob> classQueue = classQueues.get(workloadClass);
+            QueuedJob queuedJob = classQueue.get(0);
+            JobRun run = queuedJob.run;
+            JobSpecification job = run.getJobSpecification();
+            Usage usage = usages.get(workloadClass);
+            if (usage.jobs > 0
+                    && !usage.fits(job.getRequiredClusterCapacity(), maxCapacity, quotas.get(workloadClass))) {
+                blocked.add(workloadClass);
+                continue;
+            }
+            // Cluster maximum capacity can change over time, thus we have to re-check if the job should be rejected
+            // or not.
+            try {
+                IJobCapacityController.JobSubmissionStatus status = jobCapacityController.allocate(job);
+                // Checks if the job can be executed immediately.
+                if (status != IJobCapacityController.JobSubmissionStatus.EXECUTE) {
+                    blocked.add(workloadClass);
+                    continue;
+                }
+                usage.add(job.getRequiredClusterCapacity());
+                jobRuns.add(run);
+                removeStarted(classQueue, queuedJob);
+            } catch (HyracksException exception) {
+                // The required capacity exceeds maximum capacity.
+                List<Exception> exceptions = new ArrayList<>();
+                exceptions.add(exception);
+                removeStarted(classQueue, queuedJob); // Removes the job from the queue.
+                try {
+                    // Fails the job.
+                    jobManager.prepareComplete(run, JobStatus.FAILURE_BEFORE_EXECUTION, exceptions);
+                } catch (HyracksException e) {
+                    LOGGER.log(Level.ERROR, e.getMessage(), e);
+                }
+            }
+        }
+        return jobRuns;
+    }
+
+    @Override
+    public Collection<JobRun> jobs() {
+        List<JobRun> jobRuns = new ArrayList<>(jobListMap.size());
+        for (QueuedJob job : jobListMap.values()) {
+            jobRuns.add(job.run);
+        }
+        return Collections.unmodifiableCollection(jobRuns);
+    }
+
+    @Override
+    public void clear() {
+        jobListMap.clear();
+        for (List<QueuedJob> classQueue : classQueues.values()) {
+            classQueue.clear();
+        }
+    }
+
+    // Picks the workload class that is furthest below its fair share of the cluster capacity and has a job to start.
+    private WorkloadClass nextClass(Map<WorkloadClass, Usage> usages, IReadOnlyClusterCapacity maxCapacity,
+            EnumSet<WorkloadClass> blocked) {
+        WorkloadClass next = null;
+        double nextShare = Double.MAX_VALUE;
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            if (blocked.contains(workloadClass) || classQueues.get(workloadClass).isEmpty()) {
+                continue;
+            }
+            double share = usages.get(workloadClass).dominantShare(maxCapacity) / weights.get(workloadClass);
+            if (share < nextShare) {
+                next = workloadClass;
+                nextShare = share;
+            }
+        }
+        return next;
+    }
+
+    // Removes a job that is not waiting anymore, and charges the jobs it has passed over with a bypass.
+    private void removeStarted(List<QueuedJob> classQueue, QueuedJob started) {
+        jobListMap.remove(started.run.getJobId());
+        classQueue.remove(0);
+        for (QueuedJob job : classQueue) {
+            if (job.seq < started.seq) {
+                job.bypasses++;
+            }
+        }
+    }
+
+    // Parses a list of "class:value" pairs, e.g. "interactive:4,batch:1".
+    static Map<WorkloadClass, Integer> parseClassValues(String values, int min, int max, int defaultValue) {
+        Map<WorkloadClass, Integer> classValues = new EnumMap<>(WorkloadClass.class);
+        for (String pair : values.split(",")) {
+            if (pair.trim().isEmpty()) {
+                continue;
+            }
+            String[] nameAndValue = pair.split(":");
+            if (nameAndValue.length != 2) {
+                throw new IllegalArgumentException("Invalid workload class setting: " + pair);
+            }
+            int value = Integer.parseInt(nameAndValue[1].trim());
+            if (value < min || value > max) {
+                throw new IllegalArgumentException("Invalid workload class setting: " + pair
+                        + " -- value has to be between " + min + " and " + max);
+            }
+            classValues.put(WorkloadClass.parse(nameAndValue[0].trim()), value);
+        }
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            classValues.putIfAbsent(workloadClass, defaultValue);
+        }
+        return classValues;
+    }
+
+    private static class QueuedJob {
+        // Jobs that have been passed over too often first, then smaller jobs first, then older jobs first.
+        private static final Comparator<QueuedJob> ORDER = Comparator
+                .comparing((QueuedJob job) -> job.bypasses < MAX_BYPASSES)
+                .thenComparingLong(job -> job.bypasses < MAX_BYPASSES ? job.memory : 0L)
+                .thenComparingInt(job -> job.bypasses < MAX_BYPASSES ? job.cores : 0).thenComparingLong(job -> job.seq);
+
+        private final JobRun run;
+        private final WorkloadClass workloadClass;
+        private final long memory;
+        private final int cores;
+        private final long seq;
+        private int bypasses;
+
+        QueuedJob(JobRun run, long seq) {
+            JobSpecification job = run.getJobSpecification();
+            IClusterCapacity required = job.getRequiredClusterCapacity();
+            this.run = run;
+            this.workloadClass = WorkloadClass.of(job);
+            this.memory = required.getAggregatedMemoryByteSize();
+            this.cores = required.getAggregatedCores();
+            this.seq = seq;
+        }
+    }
+
+    // The capacity that the running jobs of a workload class use.
+    private static class Usage {
+        private long memory;
+        private long cores;
+        private int jobs;
+
+        void add(IClusterCapacity capacity) {
+            memory += capacity.getAggregatedMemoryByteSize();
+            cores += capacity.getAggregatedCores();
+            jobs++;
+        }
+
+        boolean fits(IClusterCapacity capacity, IReadOnlyClusterCapacity maxCapacity, int quotaPercent) {
+            return (memory + capacity.getAggregatedMemoryByteSize()) * 100 <= maxCapacity.getAggregatedMemoryByteSize()
+                    * quotaPercent
+                    && (cores + capacity.getAggregatedCores()) * 100 <= (long) maxCapacity.getAggregatedCores()
+                            * quotaPercent;
+        }
+
+        double dominantShare(IReadOnlyClusterCapacity maxCapacity) {
+            double memoryShare = share(memory, maxCapacity.getAggregatedMemoryByteSize());
+            double coreShare = share(cores, maxCapacity.getAggregatedCores());
+            return Math.max(memoryShare, coreShare);
+        }
+
+        private static double share(long used, long max) {
+            return max > 0 ? (double) used / max : 0.0;
+        }
+    }
+}
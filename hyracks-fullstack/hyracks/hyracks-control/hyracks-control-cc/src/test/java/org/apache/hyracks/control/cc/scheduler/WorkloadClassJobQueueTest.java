@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.scheduler;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.resource.ClusterCapacity;
+import org.apache.hyracks.api.job.resource.IClusterCapacity;
+import org.apache.hyracks.api.job.resource.IJobCapacityController;
+import org.apache.hyracks.api.job.resource.WorkloadClass;
+import org.apache.hyracks.control.cc.job.IJobManager;
+import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorkloadClassJobQueueTest {
+
+    private static final long MEMORY = 100;
+    private static final int CORES = 100;
+
+    private final List<JobRun> runningJobs = new ArrayList<>();
+    private final CapacityController capacityController = new CapacityController();
+    private WorkloadClassJobQueue jobQueue;
+    private long nextJobId = 0;
+
+    @Before
+    public void setup() throws Exception {
+        CCConfig ccConfig = new CCConfig();
+        ccConfig.getConfigManager().processConfig();
+        IClusterCapacity maxCapacity = new ClusterCapacity();
+        maxCapacity.setAggregatedMemoryByteSize(MEMORY);
+        maxCapacity.setAggregatedCores(CORES);
+        IJobManager jobManager = mock(IJobManager.class);
+        when(jobManager.getJobQueueCapacity()).thenReturn(4096);
+        when(jobManager.getCCConfig()).thenReturn(ccConfig);
+        when(jobManager.getMaximumClusterCapacity()).thenReturn(maxCapacity);
+        when(jobManager.getRunningJobs()).thenReturn(runningJobs);
+        jobQueue = new WorkloadClassJobQueue(jobManager, capacityController);
+    }
+
+    @Test
+    public void testClassQuota() throws HyracksException {
+        // The default quota of batch jobs is 60% of the cluster.
+        for (int i = 0; i < 5; i++) {
+            submit(WorkloadClass.BATCH, 20);
+        }
+        Assert.assertEquals(3, pull().size());
+        Assert.assertEquals(2, jobQueue.jobs().size());
+
+        // The capacity that is left is still available to interactive jobs.
+        JobRun interactive = submit(WorkloadClass.INTERACTIVE, 30);
+        List<JobRun> started = pull();
+        Assert.assertEquals(1, started.size());
+        Assert.assertSame(interactive, started.get(0));
+        Assert.assertEquals(2, jobQueue.jobs().size());
+    }
+
+    @Test
+    public void testQuotaDoesNotBlockSingleJob() throws HyracksException {
+        // A job that requires more than the quota of its class runs if no other job of the class is running.
+        submit(WorkloadClass.INGEST, 50);
+        Assert.assertEquals(1, pull().size());
+        submit(WorkloadClass.INGEST, 10);
+        Assert.assertTrue(pull().isEmpty());
+    }
+
+    @Test
+    public void testShortJobsFirst() throws HyracksException {
+        JobRun batch = submit(WorkloadClass.BATCH, 50);
+        Assert.assertEquals(1, pull().size());
+
+        // Short jobs of a class are started before a long job that is queued ahead of them.
+        JobRun longJob = submit(WorkloadClass.INTERACTIVE, 80);
+        JobRun shortJob1 = submit(WorkloadClass.INTERACTIVE, 10);
+        JobRun shortJob2 = submit(WorkloadClass.INTERACTIVE, 20);
+        List<JobRun> started = pull();
+        Assert.assertEquals(2, started.size());
+        Assert.assertSame(shortJob1, started.get(0));
+        Assert.assertSame(shortJob2, started.get(1));
+        Assert.assertSame(longJob, jobQueue.get(longJob.getJobId()));
+
+        finish(batch);
+        finish(shortJob1);
+        finish(shortJob2);
+        started = pull();
+        Assert.assertEquals(1, started.size());
+        Assert.assertSame(longJob, started.get(0));
+    }
+
+    @Test
+    public void testNoStarvation() throws HyracksException {
+        JobRun batch = submit(WorkloadClass.BATCH, 50);
+        Assert.assertEquals(1, pull().size());
+        JobRun longJob = submit(WorkloadClass.INTERACTIVE, 80);
+
+        // Short jobs pass the long job only so many times.
+        for (int i = 0; i < WorkloadClassJobQueue.MAX_BYPASSES; i++) {
+            JobRun shortJob = submit(WorkloadClass.INTERACTIVE, 10);
+            List<JobRun> started = pull();
+            Assert.assertEquals(1, started.size());
+            Assert.assertSame(shortJob, started.get(0));
+            finish(shortJob);
+        }
+        JobRun shortJob = submit(WorkloadClass.INTERACTIVE, 10);
+        Assert.assertTrue(pull().isEmpty());
+
+        finish(batch);
+        List<JobRun> started = pull();
+        Assert.assertEquals(2, started.size());
+        Assert.assertSame(longJob, started.get(0));
+        Assert.assertSame(shortJob, started.get(1));
+        Assert.assertTrue(jobQueue.jobs().isEmpty());
+    }
+
+    @Test
+    public void testWeightedFairShare() throws HyracksException {
+        // The default weights of interactive and batch jobs are 4 and 1.
+        for (int i = 0; i < 10; i++) {
+            submit(WorkloadClass.BATCH, 10);
+            submit(WorkloadClass.INTERACTIVE, 10);
+        }
+        List<JobRun> started = pull();
+        Assert.assertEquals(10, started.size());
+        int interactive = 0;
+        for (JobRun run : started) {
+            if (WorkloadClass.of(run.getJobSpecification()) == WorkloadClass.INTERACTIVE) {
+                interactive++;
+            }
+        }
+        Assert.assertEquals(8, interactive);
+    }
+
+    @Test
+    public void testRemove() throws HyracksException {
+        JobRun batch = submit(WorkloadClass.BATCH, 100);
+        Assert.assertEquals(1, pull().size());
+        JobRun interactive = submit(WorkloadClass.INTERACTIVE, 10);
+        Assert.assertSame(interactive, jobQueue.remove(interactive.getJobId()));
+        Assert.assertNull(jobQueue.get(interactive.getJobId()));
+        finish(batch);
+        Assert.assertTrue(pull().isEmpty());
+    }
+
+    @Test
+    public void testParseClassValues() {
+        Map<WorkloadClass, Integer> values =
+                WorkloadClassJobQueue.parseClassValues("Interactive:70, batch:20", 1, 100, 100);
+        Assert.assertEquals(70, (int) values.get(WorkloadClass.INTERACTIVE));
+        Assert.assertEquals(20, (int) values.get(WorkloadClass.BATCH));
+        Assert.assertEquals(100, (int) values.get(WorkloadClass.INGEST));
+        for (String invalid : new String[] { "interactive", "interactive:0", "interactive:101", "dashboard:10" }) {
+            try {
+                WorkloadClassJobQueue.parseClassValues(invalid, 1, 100, 100);
+                Assert.fail("expected an error for " + invalid);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    private JobRun submit(WorkloadClass workloadClass, int capacity) throws HyracksException {
+        JobSpecification job = new JobSpecification();
+        IClusterCapacity required = new ClusterCapacity();
+        required.setAggregatedMemoryByteSize(capacity);
+        required.setAggregatedCores(capacity);
+        job.setRequiredClusterCapacity(required);
+        job.setProperty(WorkloadClass.JOB_PROPERTY, workloadClass);
+        JobRun run = mock(JobRun.class);
+        JobId jobId = new JobId(nextJobId++);
+        when(run.getJobId()).thenReturn(jobId);
+        when(run.getJobSpecification()).thenReturn(job);
+        jobQueue.add(run);
+        return run;
+    }
+
+    private List<JobRun> pull() {
+        List<JobRun> started = jobQueue.pull();
+        runningJobs.addAll(started);
+        return started;
+    }
+
+    private void finish(JobRun run) {
+        runningJobs.remove(run);
+        capacityController.release(run.getJobSpecification());
+    }
+
+    private static class CapacityController implements IJobCapacityController {
+        private long memory = MEMORY;
+        private int cores = CORES;
+
+        @Override
+        public JobSubmissionStatus allocate(JobSpecification job) {
+            IClusterCapacity required = job.getRequiredClusterCapacity();
+            if (required.getAggregatedMemoryByteSize() > memory || required.getAggregatedCores() > cores) {
+                return JobSubmissionStatus.QUEUE;
+            }
+            memory -= required.getAggregatedMemoryByteSize();
+            cores -= required.getAggregatedCores();
+            return JobSubmissionStatus.EXECUTE;
+        }
+
+        @Override
+        public void release(JobSpecification job) {
+            IClusterCapacity required = job.getRequiredClusterCapacity();
+            memory += required.getAggregatedMemoryByteSize();
+            cores += required.getAggregatedCores();
+        }
+    }
+}
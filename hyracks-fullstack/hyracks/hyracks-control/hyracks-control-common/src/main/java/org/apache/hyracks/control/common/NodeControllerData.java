@@ -138,6 +138,12 @@ public class NodeControllerData {
 
     private final long[] diskWrites;
 
+    private final long[] bufferCacheHits;
+
+    private final long[] bufferCacheMisses;
+
+    private final long[] bufferCacheEvictions;
+
     private int rrdPtr;
 
     private volatile long lastHeartbeatNanoTime;
@@ -202,6 +208,9 @@ public class NodeControllerData {
 
         diskReads = new long[RRD_SIZE];
         diskWrites = new long[RRD_SIZE];
+        bufferCacheHits = new long[RRD_SIZE];
+        bufferCacheMisses = new long[RRD_SIZE];
+        bufferCacheEvictions = new long[RRD_SIZE];
 
         rrdPtr = 0;
         capacity = reg.getCapacity();
@@ -241,6 +250,9 @@ public class NodeControllerData {
         ipcMessageBytesReceived[rrdPtr] = hbData.ipcMessageBytesReceived;
         diskReads[rrdPtr] = hbData.diskReads;
         diskWrites[rrdPtr] = hbData.diskWrites;
+        bufferCacheHits[rrdPtr] = hbData.bufferCacheHits;
+        bufferCacheMisses[rrdPtr] = hbData.bufferCacheMisses;
+        bufferCacheEvictions[rrdPtr] = hbData.bufferCacheEvictions;
         rrdPtr = (rrdPtr + 1) % RRD_SIZE;
     }
 
@@ -342,6 +354,9 @@ public class NodeControllerData {
             put(o, "ipc-message-bytes-received", ipcMessageBytesReceived);
             put(o, "disk-reads", diskReads);
             put(o, "disk-writes", diskWrites);
+            put(o, "buffer-cache-hits", bufferCacheHits);
+            put(o, "buffer-cache-misses", bufferCacheMisses);
+            put(o, "buffer-cache-evictions", bufferCacheEvictions);
         }
 
         return o;
@@ -69,6 +69,8 @@ public class CCConfig extends ControllerConfig {
         CLUSTER_TOPOLOGY(STRING),
         JOB_QUEUE_CLASS(STRING, "org.apache.hyracks.control.cc.scheduler.FIFOJobQueue"),
         JOB_QUEUE_CAPACITY(INTEGER, 4096),
+        JOB_QUEUE_WORKLOAD_WEIGHTS(STRING, "interactive:4,batch:1,ingest:2"),
+        JOB_QUEUE_WORKLOAD_QUOTAS(STRING, "interactive:100,batch:60,ingest:30"),
         JOB_MANAGER_CLASS(STRING, "org.apache.hyracks.control.cc.job.JobManager"),
         ENFORCE_FRAME_WRITER_PROTOCOL(BOOLEAN, false),
         CORES_MULTIPLIER(INTEGER, 3),
@@ -174,6 +176,12 @@ public class CCConfig extends ControllerConfig {
                     return "Specify the implementation class name for the job queue";
                 case JOB_QUEUE_CAPACITY:
                     return "The maximum number of jobs to queue before rejecting new jobs";
+                case JOB_QUEUE_WORKLOAD_WEIGHTS:
+                    return "The relative weights of the workload classes (interactive, batch, ingest) in the fair "
+                            + "sharing of the cluster capacity by the workload class job queue";
+                case JOB_QUEUE_WORKLOAD_QUOTAS:
+                    return "The maximum percentages of the cluster memory and cores that the jobs of a workload class "
+                            + "(interactive, batch, ingest) may use at the same time with the workload class job queue";
                 case JOB_MANAGER_CLASS:
                     return "Specify the implementation class name for the job manager";
                 case ENFORCE_FRAME_WRITER_PROTOCOL:
@@ -403,6 +411,14 @@ public class CCConfig extends ControllerConfig {
         return getAppConfig().getInt(Option.JOB_QUEUE_CAPACITY);
     }
 
+    public String getJobQueueWorkloadWeights() {
+        return getAppConfig().getString(Option.JOB_QUEUE_WORKLOAD_WEIGHTS);
+    }
+
+    public String getJobQueueWorkloadQuotas() {
+        return getAppConfig().getString(Option.JOB_QUEUE_WORKLOAD_QUOTAS);
+    }
+
     public boolean getEnforceFrameWriterProtocol() {
         return getAppConfig().getBoolean(Option.ENFORCE_FRAME_WRITER_PROTOCOL);
     }
@@ -75,6 +75,8 @@ public class NCConfig extends ControllerConfig {
                 "<value of " + ControllerConfig.Option.DEFAULT_DIR.cmdline() + ">/iodevice"),
         NET_THREAD_COUNT(INTEGER, 1),
         NET_BUFFER_COUNT(INTEGER, 1),
+        @SuppressWarnings("RedundantCast") // not redundant- false positive from IDEA
+        NET_COMPRESSION_FACTORY(STRING, (String) null),
         RESULT_TTL(LONG, 86400000L),
         RESULT_SWEEP_THRESHOLD(LONG, 60000L),
         RESULT_MANAGER_MEMORY(INTEGER_BYTE_UNIT, -1),
@@ -188,6 +190,11 @@ public class NCConfig extends ControllerConfig {
                     return "Number of threads to use for Network I/O";
                 case NET_BUFFER_COUNT:
                     return "Number of network buffers per input/output channel";
+                case NET_COMPRESSION_FACTORY:
+                    return "The class name of the compressor/decompressor factory used to compress the frames "
+                            + "exchanged between Node Controllers (e.g. "
+                            + "org.apache.hyracks.storage.common.compression.LZ4CompressorDecompressorFactory). "
+                            + "All Node Controllers must use the same value. Frames are not compressed when unset";
                 case RESULT_TTL:
                     return "Limits the amount of time results for asynchronous jobs should be retained by the system "
                             + "in milliseconds";
@@ -488,6 +495,14 @@ public class NCConfig extends ControllerConfig {
         configManager.set(nodeId, Option.NET_BUFFER_COUNT, netBufferCount);
     }
 
+    public String getNetCompressionFactory() {
+        return appConfig.getString(Option.NET_COMPRESSION_FACTORY);
+    }
+
+    public void setNetCompressionFactory(String netCompressionFactory) {
+        configManager.set(nodeId, Option.NET_COMPRESSION_FACTORY, netCompressionFactory);
+    }
+
     public long getResultTTL() {
         return appConfig.getLong(Option.RESULT_TTL);
     }
@@ -54,6 +54,9 @@ public class HeartbeatData {
     public long ipcMessageBytesReceived;
     public long diskReads;
     public long diskWrites;
+    public long bufferCacheHits;
+    public long bufferCacheMisses;
+    public long bufferCacheEvictions;
     public int numCores;
 
     public HeartbeatData() {
@@ -78,7 +81,7 @@ public class HeartbeatData {
         netPayloadBytesWritten = dis.readLong();
         netSignalingBytesRead = dis.readLong();
         netSignalingBytesWritten = dis.readLong();
-        netSignalingBytesWritten = dis.readLong();
+        datasetNetPayloadBytesRead = dis.readLong();
         datasetNetPayloadBytesWritten = dis.readLong();
         datasetNetSignalingBytesRead = dis.readLong();
         datasetNetSignalingBytesWritten = dis.readLong();
@@ -88,6 +91,9 @@ public class HeartbeatData {
         ipcMessageBytesReceived = dis.readLong();
         diskReads = dis.readLong();
         diskWrites = dis.readLong();
+        bufferCacheHits = dis.readLong();
+        bufferCacheMisses = dis.readLong();
+        bufferCacheEvictions = dis.readLong();
         numCores = dis.readInt();
 
         int gcCounts = dis.readInt();
@@ -129,6 +135,9 @@ public class HeartbeatData {
         dos.writeLong(ipcMessageBytesReceived);
         dos.writeLong(diskReads);
         dos.writeLong(diskWrites);
+        dos.writeLong(bufferCacheHits);
+        dos.writeLong(bufferCacheMisses);
+        dos.writeLong(bufferCacheEvictions);
         dos.writeInt(numCores);
 
         dos.writeInt(gcCollectionCounts.length);
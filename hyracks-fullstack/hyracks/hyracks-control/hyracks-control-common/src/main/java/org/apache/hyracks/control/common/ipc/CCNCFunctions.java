@@ -149,6 +149,37 @@ public class CCNCFunctions {
             return FunctionId.SEND_APPLICATION_MESSAGE;
         }
 
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            byte[] data = new byte[dis.readInt()];
+            dis.readFully(data);
+            DeploymentId deploymentId = null;
+            if (dis.readBoolean()) {
+                deploymentId = DeploymentId.create(dis);
+            }
+            String nodeId = null;
+            if (dis.readBoolean()) {
+                nodeId = dis.readUTF();
+            }
+            return new SendApplicationMessageFunction(data, deploymentId, nodeId);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            SendApplicationMessageFunction fn = (SendApplicationMessageFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeInt(fn.serializedMessage.length);
+            dos.write(fn.serializedMessage);
+            dos.writeBoolean(fn.deploymentId != null);
+            if (fn.deploymentId != null) {
+                fn.deploymentId.writeFields(dos);
+            }
+            dos.writeBoolean(fn.nodeId != null);
+            if (fn.nodeId != null) {
+                dos.writeUTF(fn.nodeId);
+            }
+        }
     }
 
     public abstract static class Function implements Serializable {
@@ -440,6 +471,29 @@ public class CCNCFunctions {
         public List<JobProfile> getProfiles() {
             return profiles;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            String nodeId = dis.readUTF();
+            int size = dis.readInt();
+            List<JobProfile> profiles = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                profiles.add(JobProfile.create(dis));
+            }
+            return new ReportProfileFunction(nodeId, profiles);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            ReportProfileFunction fn = (ReportProfileFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeUTF(fn.nodeId);
+            dos.writeInt(fn.profiles.size());
+            for (JobProfile profile : fn.profiles) {
+                profile.writeFields(dos);
+            }
+        }
     }
 
     public static class RegisterPartitionProviderFunction extends Function {
@@ -627,6 +681,33 @@ public class CCNCFunctions {
         public NetworkAddress getNetworkAddress() {
             return networkAddress;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = JobId.create(dis);
+            ResultSetId rsId = new ResultSetId(dis.readLong());
+            boolean orderedResult = dis.readBoolean();
+            boolean emptyResult = dis.readBoolean();
+            int partition = dis.readInt();
+            int nPartitions = dis.readInt();
+            NetworkAddress networkAddress = readNetworkAddress(dis);
+            return new RegisterResultPartitionLocationFunction(jobId, rsId, orderedResult, emptyResult, partition,
+                    nPartitions, networkAddress);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            RegisterResultPartitionLocationFunction fn = (RegisterResultPartitionLocationFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            fn.jobId.writeFields(dos);
+            dos.writeLong(fn.rsId.getId());
+            dos.writeBoolean(fn.orderedResult);
+            dos.writeBoolean(fn.emptyResult);
+            dos.writeInt(fn.partition);
+            dos.writeInt(fn.nPartitions);
+            writeNetworkAddress(dos, fn.networkAddress);
+        }
     }
 
     public static class ReportResultPartitionWriteCompletionFunction extends Function {
@@ -660,6 +741,24 @@ public class CCNCFunctions {
         public int getPartition() {
             return partition;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = JobId.create(dis);
+            ResultSetId rsId = new ResultSetId(dis.readLong());
+            int partition = dis.readInt();
+            return new ReportResultPartitionWriteCompletionFunction(jobId, rsId, partition);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            ReportResultPartitionWriteCompletionFunction fn = (ReportResultPartitionWriteCompletionFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            fn.jobId.writeFields(dos);
+            dos.writeLong(fn.rsId.getId());
+            dos.writeInt(fn.partition);
+        }
     }
 
     public static class NodeRegistrationResult extends Function {
@@ -983,6 +1082,29 @@ public class CCNCFunctions {
         public List<TaskAttemptId> getTasks() {
             return tasks;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = JobId.create(dis);
+            int size = dis.readInt();
+            List<TaskAttemptId> tasks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                tasks.add(TaskAttemptId.create(dis));
+            }
+            return new AbortTasksFunction(jobId, tasks);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            AbortTasksFunction fn = (AbortTasksFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            fn.jobId.writeFields(dos);
+            dos.writeInt(fn.tasks.size());
+            for (TaskAttemptId task : fn.tasks) {
+                task.writeFields(dos);
+            }
+        }
     }
 
     public static class CleanupJobletFunction extends Function {
@@ -1443,6 +1565,26 @@ public class CCNCFunctions {
                 case CLEANUP_JOBLET:
                     CleanupJobletFunction.serialize(out, object);
                     return;
+
+                case REPORT_PROFILE:
+                    ReportProfileFunction.serialize(out, object);
+                    return;
+
+                case ABORT_TASKS:
+                    AbortTasksFunction.serialize(out, object);
+                    return;
+
+                case REGISTER_RESULT_PARTITION_LOCATION:
+                    RegisterResultPartitionLocationFunction.serialize(out, object);
+                    return;
+
+                case REPORT_RESULT_PARTITION_WRITE_COMPLETION:
+                    ReportResultPartitionWriteCompletionFunction.serialize(out, object);
+                    return;
+
+                case SEND_APPLICATION_MESSAGE:
+                    SendApplicationMessageFunction.serialize(out, object);
+                    return;
             }
             JavaSerializationBasedPayloadSerializerDeserializer.serialize(out, object);
         }
@@ -1472,6 +1614,21 @@ public class CCNCFunctions {
 
                 case CLEANUP_JOBLET:
                     return CleanupJobletFunction.deserialize(buffer, length);
+
+                case REPORT_PROFILE:
+                    return ReportProfileFunction.deserialize(buffer, length);
+
+                case ABORT_TASKS:
+                    return AbortTasksFunction.deserialize(buffer, length);
+
+                case REGISTER_RESULT_PARTITION_LOCATION:
+                    return RegisterResultPartitionLocationFunction.deserialize(buffer, length);
+
+                case REPORT_RESULT_PARTITION_WRITE_COMPLETION:
+                    return ReportResultPartitionWriteCompletionFunction.deserialize(buffer, length);
+
+                case SEND_APPLICATION_MESSAGE:
+                    return SendApplicationMessageFunction.deserialize(buffer, length);
             }
 
             return javaSerde.deserializeObject(buffer, length);
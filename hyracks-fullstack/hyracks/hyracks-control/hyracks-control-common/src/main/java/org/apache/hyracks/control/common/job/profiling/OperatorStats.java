@@ -31,6 +31,12 @@ public class OperatorStats implements IOperatorStats {
     public final String operatorName;
     public final ICounter tupleCounter;
     public final ICounter timeCounter;
+    public final ICounter inputTupleCounter;
+    public final ICounter outputTupleCounter;
+    public final ICounter inputFrameCounter;
+    public final ICounter outputFrameCounter;
+    public final ICounter waitTimeCounter;
+    public final ICounter spilledBytesCounter;
 
     public OperatorStats(String operatorName) {
         if (operatorName == null || operatorName.isEmpty()) {
@@ -39,6 +45,12 @@ public class OperatorStats implements IOperatorStats {
         this.operatorName = operatorName;
         tupleCounter = new Counter("tupleCounter");
         timeCounter = new Counter("timeCounter");
+        inputTupleCounter = new Counter("inputTupleCounter");
+        outputTupleCounter = new Counter("outputTupleCounter");
+        inputFrameCounter = new Counter("inputFrameCounter");
+        outputFrameCounter = new Counter("outputFrameCounter");
+        waitTimeCounter = new Counter("waitTimeCounter");
+        spilledBytesCounter = new Counter("spilledBytesCounter");
     }
 
     public static IOperatorStats create(DataInput input) throws IOException {
@@ -63,16 +75,75 @@ public class OperatorStats implements IOperatorStats {
         return timeCounter;
     }
 
+    @Override
+    public ICounter getInputTupleCounter() {
+        return inputTupleCounter;
+    }
+
+    @Override
+    public ICounter getOutputTupleCounter() {
+        return outputTupleCounter;
+    }
+
+    @Override
+    public ICounter getInputFrameCounter() {
+        return inputFrameCounter;
+    }
+
+    @Override
+    public ICounter getOutputFrameCounter() {
+        return outputFrameCounter;
+    }
+
+    @Override
+    public ICounter getWaitTimeCounter() {
+        return waitTimeCounter;
+    }
+
+    @Override
+    public ICounter getSpilledBytesCounter() {
+        return spilledBytesCounter;
+    }
+
+    /**
+     * Adds the counters of another operator to the counters of this operator.
+     *
+     * @param other
+     *            the stats to add
+     */
+    public void merge(IOperatorStats other) {
+        tupleCounter.update(other.getTupleCounter().get());
+        timeCounter.update(other.getTimeCounter().get());
+        inputTupleCounter.update(other.getInputTupleCounter().get());
+        outputTupleCounter.update(other.getOutputTupleCounter().get());
+        inputFrameCounter.update(other.getInputFrameCounter().get());
+        outputFrameCounter.update(other.getOutputFrameCounter().get());
+        waitTimeCounter.update(other.getWaitTimeCounter().get());
+        spilledBytesCounter.update(other.getSpilledBytesCounter().get());
+    }
+
     @Override
     public void writeFields(DataOutput output) throws IOException {
         output.writeUTF(operatorName);
         output.writeLong(tupleCounter.get());
         output.writeLong(timeCounter.get());
+        output.writeLong(inputTupleCounter.get());
+        output.writeLong(outputTupleCounter.get());
+        output.writeLong(inputFrameCounter.get());
+        output.writeLong(outputFrameCounter.get());
+        output.writeLong(waitTimeCounter.get());
+        output.writeLong(spilledBytesCounter.get());
     }
 
     @Override
     public void readFields(DataInput input) throws IOException {
         tupleCounter.set(input.readLong());
         timeCounter.set(input.readLong());
+        inputTupleCounter.set(input.readLong());
+        outputTupleCounter.set(input.readLong());
+        inputFrameCounter.set(input.readLong());
+        outputFrameCounter.set(input.readLong());
+        waitTimeCounter.set(input.readLong());
+        spilledBytesCounter.set(input.readLong());
     }
 }
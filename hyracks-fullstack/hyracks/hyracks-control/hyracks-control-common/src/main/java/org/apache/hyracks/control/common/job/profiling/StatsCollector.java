@@ -21,8 +21,10 @@ package org.apache.hyracks.control.common.job.profiling;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.job.profiling.IOperatorStats;
@@ -30,7 +32,7 @@ import org.apache.hyracks.api.job.profiling.IStatsCollector;
 
 public class StatsCollector implements IStatsCollector {
 
-    private final Map<String, IOperatorStats> operatorStatsMap = new HashMap<>();
+    private final Map<String, IOperatorStats> operatorStatsMap = new ConcurrentHashMap<>();
 
     @Override
     public void add(IOperatorStats operatorStats) throws HyracksDataException {
@@ -45,6 +47,16 @@ public class StatsCollector implements IStatsCollector {
         return operatorStatsMap.get(operatorName);
     }
 
+    @Override
+    public IOperatorStats getOrAddOperatorStats(String operatorName) {
+        return operatorStatsMap.computeIfAbsent(operatorName, OperatorStats::new);
+    }
+
+    @Override
+    public Collection<IOperatorStats> getAllOperatorStats() {
+        return Collections.unmodifiableCollection(operatorStatsMap.values());
+    }
+
     public static StatsCollector create(DataInput input) throws IOException {
         StatsCollector statsCollector = new StatsCollector();
         statsCollector.readFields(input);
@@ -53,10 +65,9 @@ public class StatsCollector implements IStatsCollector {
 
     @Override
     public IOperatorStats getAggregatedStats() {
-        IOperatorStats aggregatedStats = new OperatorStats("aggregated");
+        OperatorStats aggregatedStats = new OperatorStats("aggregated");
         for (IOperatorStats stats : operatorStatsMap.values()) {
-            aggregatedStats.getTupleCounter().update(stats.getTupleCounter().get());
-            aggregatedStats.getTimeCounter().update(stats.getTupleCounter().get());
+            aggregatedStats.merge(stats);
         }
         return aggregatedStats;
     }
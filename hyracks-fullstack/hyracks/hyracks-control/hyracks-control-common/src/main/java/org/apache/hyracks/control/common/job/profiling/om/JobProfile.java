@@ -21,11 +21,16 @@ package org.apache.hyracks.control.common.job.profiling.om;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.profiling.IOperatorStats;
+import org.apache.hyracks.control.common.job.profiling.OperatorStats;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -61,6 +66,23 @@ public class JobProfile extends AbstractProfile {
         return jobletProfiles;
     }
 
+    /**
+     * Aggregates the runtime stats of each operator of the job across the tasks that ran the operator.
+     *
+     * @return the aggregated stats of each operator, ordered by operator name
+     */
+    public List<IOperatorStats> getAggregatedOperatorStats() {
+        Map<String, OperatorStats> aggregatedStats = new TreeMap<>();
+        for (JobletProfile jobletProfile : jobletProfiles.values()) {
+            for (TaskProfile taskProfile : jobletProfile.getTaskProfiles().values()) {
+                for (IOperatorStats stats : taskProfile.getStatsCollector().getAllOperatorStats()) {
+                    aggregatedStats.computeIfAbsent(stats.getName(), OperatorStats::new).merge(stats);
+                }
+            }
+        }
+        return new ArrayList<>(aggregatedStats.values());
+    }
+
     @Override
     public ObjectNode toJSON() {
         ObjectMapper om = new ObjectMapper();
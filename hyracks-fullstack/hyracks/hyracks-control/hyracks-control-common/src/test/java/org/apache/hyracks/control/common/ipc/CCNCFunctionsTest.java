@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.common.ipc;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.NetworkAddress;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.TaskAttemptId;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataset.ResultSetId;
+import org.apache.hyracks.api.deployment.DeploymentId;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.control.common.ipc.CCNCFunctions.AbortTasksFunction;
+import org.apache.hyracks.control.common.ipc.CCNCFunctions.RegisterResultPartitionLocationFunction;
+import org.apache.hyracks.control.common.ipc.CCNCFunctions.ReportProfileFunction;
+import org.apache.hyracks.control.common.ipc.CCNCFunctions.ReportResultPartitionWriteCompletionFunction;
+import org.apache.hyracks.control.common.ipc.CCNCFunctions.SendApplicationMessageFunction;
+import org.apache.hyracks.control.common.job.profiling.StatsCollector;
+import org.apache.hyracks.control.common.job.profiling.om.JobProfile;
+import org.apache.hyracks.control.common.job.profiling.om.JobletProfile;
+import org.apache.hyracks.control.common.job.profiling.om.TaskProfile;
+import org.apache.hyracks.ipc.impl.JavaSerializationBasedPayloadSerializerDeserializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CCNCFunctionsTest {
+
+    private final CCNCFunctions.SerializerDeserializer serde = new CCNCFunctions.SerializerDeserializer();
+
+    @Test
+    public void testReportProfile() throws Exception {
+        JobProfile profile = new JobProfile(new JobId(7));
+        JobletProfile joblet = new JobletProfile("nc1");
+        joblet.getCounters().put("joblet-counter", 11L);
+        TaskAttemptId taId = taskAttemptId(3, 1);
+        joblet.getTaskProfiles().put(taId, new TaskProfile(taId, Collections.emptyMap(), new StatsCollector()));
+        profile.getJobletProfiles().put("nc1", joblet);
+
+        ReportProfileFunction fn = roundTrip(new ReportProfileFunction("nc1", Collections.singletonList(profile)));
+        Assert.assertEquals("nc1", fn.getNodeId());
+        Assert.assertEquals(1, fn.getProfiles().size());
+        JobProfile read = fn.getProfiles().get(0);
+        Assert.assertEquals(new JobId(7), read.getJobId());
+        JobletProfile readJoblet = read.getJobletProfiles().get("nc1");
+        Assert.assertEquals(Long.valueOf(11), readJoblet.getCounters().get("joblet-counter"));
+        Assert.assertEquals(taId, readJoblet.getTaskProfiles().get(taId).getTaskId());
+    }
+
+    @Test
+    public void testAbortTasks() throws Exception {
+        List<TaskAttemptId> tasks = Arrays.asList(taskAttemptId(1, 0), taskAttemptId(2, 3));
+        AbortTasksFunction fn = roundTrip(new AbortTasksFunction(new JobId(42), tasks));
+        Assert.assertEquals(new JobId(42), fn.getJobId());
+        Assert.assertEquals(tasks, fn.getTasks());
+    }
+
+    @Test
+    public void testResultPartitionFunctions() throws Exception {
+        RegisterResultPartitionLocationFunction location =
+                roundTrip(new RegisterResultPartitionLocationFunction(new JobId(5), new ResultSetId(9), true, false, 2,
+                        4, new NetworkAddress("10.0.0.1", 19002)));
+        Assert.assertEquals(new JobId(5), location.getJobId());
+        Assert.assertEquals(new ResultSetId(9), location.getResultSetId());
+        Assert.assertTrue(location.getOrderedResult());
+        Assert.assertFalse(location.getEmptyResult());
+        Assert.assertEquals(2, location.getPartition());
+        Assert.assertEquals(4, location.getNPartitions());
+        Assert.assertEquals("10.0.0.1", location.getNetworkAddress().getAddress());
+        Assert.assertEquals(19002, location.getNetworkAddress().getPort());
+
+        ReportResultPartitionWriteCompletionFunction completion =
+                roundTrip(new ReportResultPartitionWriteCompletionFunction(new JobId(5), new ResultSetId(9), 3));
+        Assert.assertEquals(new JobId(5), completion.getJobId());
+        Assert.assertEquals(new ResultSetId(9), completion.getResultSetId());
+        Assert.assertEquals(3, completion.getPartition());
+    }
+
+    @Test
+    public void testSendApplicationMessage() throws Exception {
+        byte[] message = { 1, 2, 3, 4 };
+        SendApplicationMessageFunction fn =
+                roundTrip(new SendApplicationMessageFunction(message, new DeploymentId("d1"), "nc2"));
+        Assert.assertArrayEquals(message, fn.getMessage());
+        Assert.assertEquals(new DeploymentId("d1"), fn.getDeploymentId());
+        Assert.assertEquals("nc2", fn.getNodeId());
+
+        fn = roundTrip(new SendApplicationMessageFunction(message, null, null));
+        Assert.assertArrayEquals(message, fn.getMessage());
+        Assert.assertNull(fn.getDeploymentId());
+        Assert.assertNull(fn.getNodeId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends CCNCFunctions.Function> T roundTrip(T fn) throws Exception {
+        byte[] bytes = serde.serializeObject(fn);
+        byte[] javaBytes = new JavaSerializationBasedPayloadSerializerDeserializer().serializeObject(fn);
+        Assert.assertTrue(fn.getFunctionId() + " encodes to " + bytes.length + " bytes, java serialization to "
+                + javaBytes.length, bytes.length < javaBytes.length);
+        return (T) serde.deserializeObject(ByteBuffer.wrap(bytes), bytes.length);
+    }
+
+    private static TaskAttemptId taskAttemptId(int odId, int partition) {
+        return new TaskAttemptId(new TaskId(new ActivityId(new OperatorDescriptorId(odId), 0), partition), 0);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.common.job.profiling;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.comm.FrameHelper;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.ProfiledFrameWriter;
+import org.apache.hyracks.api.dataflow.TaskAttemptId;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.profiling.IOperatorStats;
+import org.apache.hyracks.api.job.profiling.ProfilingScope;
+import org.apache.hyracks.control.common.job.profiling.om.JobProfile;
+import org.apache.hyracks.control.common.job.profiling.om.JobletProfile;
+import org.apache.hyracks.control.common.job.profiling.om.TaskProfile;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OperatorProfilingTest {
+
+    private static final long PRODUCER_SLEEP_MILLIS = 5;
+    private static final long CONSUMER_SLEEP_MILLIS = 50;
+    private static final long CONNECTOR_SLEEP_MILLIS = 50;
+
+    @Test
+    public void testPipeline() throws Exception {
+        StatsCollector collector = new StatsCollector();
+        IOperatorStats producerStats = collector.getOrAddOperatorStats("producer");
+        IOperatorStats consumerStats = collector.getOrAddOperatorStats("consumer");
+        Assert.assertSame(producerStats, collector.getOrAddOperatorStats("producer"));
+
+        // producer -> consumer -> connector
+        IFrameWriter connector = ProfiledFrameWriter.connector(new SleepingWriter(CONNECTOR_SLEEP_MILLIS, null, 0));
+        IFrameWriter consumer = ProfiledFrameWriter.input(
+                new SleepingWriter(CONSUMER_SLEEP_MILLIS, ProfiledFrameWriter.output(connector, consumerStats), 100),
+                consumerStats);
+        IFrameWriter producer = ProfiledFrameWriter.input(
+                new SleepingWriter(PRODUCER_SLEEP_MILLIS, ProfiledFrameWriter.output(consumer, producerStats), 0),
+                producerStats);
+
+        producer.open();
+        producer.nextFrame(createFrame(3));
+        producer.nextFrame(createFrame(4));
+        producer.close();
+        Assert.assertNull(ProfilingScope.current());
+
+        Assert.assertEquals(2, producerStats.getInputFrameCounter().get());
+        Assert.assertEquals(7, producerStats.getInputTupleCounter().get());
+        Assert.assertEquals(2, producerStats.getOutputFrameCounter().get());
+        Assert.assertEquals(7, producerStats.getOutputTupleCounter().get());
+        Assert.assertEquals(7, consumerStats.getInputTupleCounter().get());
+        Assert.assertEquals(7, consumerStats.getOutputTupleCounter().get());
+
+        // each operator is only charged its own time, the time in the connector is waiting time
+        long producerTime = producerStats.getTimeCounter().get();
+        long consumerTime = consumerStats.getTimeCounter().get();
+        Assert.assertTrue(producerTime >= TimeUnit.MILLISECONDS.toNanos(2 * PRODUCER_SLEEP_MILLIS));
+        Assert.assertTrue(producerTime < TimeUnit.MILLISECONDS.toNanos(CONSUMER_SLEEP_MILLIS));
+        Assert.assertTrue(consumerTime >= TimeUnit.MILLISECONDS.toNanos(2 * CONSUMER_SLEEP_MILLIS));
+        Assert.assertTrue(
+                consumerTime < TimeUnit.MILLISECONDS.toNanos(2 * CONSUMER_SLEEP_MILLIS + CONNECTOR_SLEEP_MILLIS));
+        Assert.assertEquals(0, producerStats.getWaitTimeCounter().get());
+        Assert.assertTrue(
+                consumerStats.getWaitTimeCounter().get() >= TimeUnit.MILLISECONDS.toNanos(2 * CONNECTOR_SLEEP_MILLIS));
+
+        // spilled bytes are charged to the operator that writes them
+        Assert.assertEquals(0, producerStats.getSpilledBytesCounter().get());
+        Assert.assertEquals(200, consumerStats.getSpilledBytesCounter().get());
+    }
+
+    @Test
+    public void testAggregation() throws Exception {
+        JobProfile profile = new JobProfile(new JobId(1));
+        addTaskProfile(profile, "nc1", 0, 10);
+        addTaskProfile(profile, "nc2", 1, 20);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        profile.writeFields(new DataOutputStream(baos));
+        JobProfile read = JobProfile.create(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+
+        List<IOperatorStats> aggregatedStats = read.getAggregatedOperatorStats();
+        Assert.assertEquals(2, aggregatedStats.size());
+        IOperatorStats first = aggregatedStats.get(0);
+        Assert.assertEquals("a", first.getName());
+        Assert.assertEquals(30, first.getInputTupleCounter().get());
+        Assert.assertEquals(60, first.getOutputTupleCounter().get());
+        Assert.assertEquals(3, first.getInputFrameCounter().get());
+        Assert.assertEquals(6, first.getOutputFrameCounter().get());
+        Assert.assertEquals(300, first.getTimeCounter().get());
+        Assert.assertEquals(30, first.getWaitTimeCounter().get());
+        Assert.assertEquals(3000, first.getSpilledBytesCounter().get());
+        Assert.assertEquals("b", aggregatedStats.get(1).getName());
+    }
+
+    private static void addTaskProfile(JobProfile profile, String nodeId, int partition, int value) {
+        StatsCollector collector = new StatsCollector();
+        for (String name : new String[] { "b", "a" }) {
+            IOperatorStats stats = collector.getOrAddOperatorStats(name);
+            stats.getInputTupleCounter().update(value);
+            stats.getOutputTupleCounter().update(2L * value);
+            stats.getInputFrameCounter().update(value / 10);
+            stats.getOutputFrameCounter().update(value / 5);
+            stats.getTimeCounter().update(10L * value);
+            stats.getWaitTimeCounter().update(value);
+            stats.getSpilledBytesCounter().update(100L * value);
+        }
+        TaskAttemptId taId =
+                new TaskAttemptId(new TaskId(new ActivityId(new OperatorDescriptorId(1), 0), partition), 0);
+        JobletProfile joblet = new JobletProfile(nodeId);
+        joblet.getTaskProfiles().put(taId, new TaskProfile(taId, Collections.emptyMap(), collector));
+        profile.getJobletProfiles().put(nodeId, joblet);
+    }
+
+    private static ByteBuffer createFrame(int tupleCount) {
+        ByteBuffer frame = ByteBuffer.allocate(256);
+        frame.putInt(FrameHelper.getTupleCountOffset(frame.capacity()), tupleCount);
+        return frame;
+    }
+
+    private static class SleepingWriter implements IFrameWriter {
+        private final long sleepMillis;
+        private final IFrameWriter writer;
+        private final long spilledBytes;
+
+        SleepingWriter(long sleepMillis, IFrameWriter writer, long spilledBytes) {
+            this.sleepMillis = sleepMillis;
+            this.writer = writer;
+            this.spilledBytes = spilledBytes;
+        }
+
+        @Override
+        public void open() throws HyracksDataException {
+            if (writer != null) {
+                writer.open();
+            }
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw HyracksDataException.create(e);
+            }
+            ProfilingScope.addSpilledBytes(spilledBytes);
+            if (writer != null) {
+                writer.nextFrame(buffer);
+            }
+        }
+
+        @Override
+        public void fail() throws HyracksDataException {
+            if (writer != null) {
+                writer.fail();
+            }
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
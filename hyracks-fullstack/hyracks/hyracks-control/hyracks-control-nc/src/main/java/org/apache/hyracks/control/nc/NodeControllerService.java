@@ -44,7 +44,9 @@ import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.hyracks.api.application.INCApplication;
 import org.apache.hyracks.api.client.NodeControllerInfo;
 import org.apache.hyracks.api.client.NodeStatus;
+import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
 import org.apache.hyracks.api.comm.NetworkAddress;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
 import org.apache.hyracks.api.control.CcId;
 import org.apache.hyracks.api.dataset.IDatasetPartitionManager;
 import org.apache.hyracks.api.deployment.DeploymentId;
@@ -89,6 +91,7 @@ import org.apache.hyracks.ipc.api.IIPCEventListener;
 import org.apache.hyracks.ipc.api.IIPCHandle;
 import org.apache.hyracks.ipc.exceptions.IPCException;
 import org.apache.hyracks.ipc.impl.IPCSystem;
+import org.apache.hyracks.net.protocols.muxdemux.CompressedFullFrameChannelInterfaceFactory;
 import org.apache.hyracks.net.protocols.muxdemux.FullFrameChannelInterfaceFactory;
 import org.apache.hyracks.util.ExitUtil;
 import org.apache.hyracks.util.MaintainedThreadNameExecutorService;
@@ -285,7 +288,7 @@ public class NodeControllerService implements IControllerService {
         partitionManager = new PartitionManager(this);
         netManager = new NetworkManager(ncConfig.getDataListenAddress(), ncConfig.getDataListenPort(), partitionManager,
                 ncConfig.getNetThreadCount(), ncConfig.getNetBufferCount(), ncConfig.getDataPublicAddress(),
-                ncConfig.getDataPublicPort(), FullFrameChannelInterfaceFactory.INSTANCE);
+                ncConfig.getDataPublicPort(), getDataChannelInterfaceFactory(ncConfig));
         netManager.start();
         startApplication();
         init();
@@ -658,6 +661,16 @@ public class NodeControllerService implements IControllerService {
         application.onRegisterNode(ccId);
     }
 
+    private static IChannelInterfaceFactory getDataChannelInterfaceFactory(NCConfig config)
+            throws ClassNotFoundException, IllegalAccessException, InstantiationException {
+        if (config.getNetCompressionFactory() != null) {
+            Class<?> c = Class.forName(config.getNetCompressionFactory());
+            return new CompressedFullFrameChannelInterfaceFactory((ICompressorDecompressorFactory) c.newInstance());
+        } else {
+            return FullFrameChannelInterfaceFactory.INSTANCE;
+        }
+    }
+
     private static INCApplication getApplication(NCConfig config)
             throws ClassNotFoundException, IllegalAccessException, InstantiationException {
         if (config.getAppClass() != null) {
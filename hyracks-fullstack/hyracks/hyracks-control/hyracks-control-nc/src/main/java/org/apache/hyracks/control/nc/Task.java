@@ -41,6 +41,7 @@ import org.apache.hyracks.api.comm.VSizeFrame;
 import org.apache.hyracks.api.context.IHyracksJobletContext;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.ProfiledFrameWriter;
 import org.apache.hyracks.api.dataflow.TaskAttemptId;
 import org.apache.hyracks.api.dataflow.state.IStateObject;
 import org.apache.hyracks.api.dataset.IDatasetPartitionManager;
@@ -52,6 +53,7 @@ import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.io.IWorkspaceFileFactory;
 import org.apache.hyracks.api.job.IOperatorEnvironment;
 import org.apache.hyracks.api.job.JobFlag;
+import org.apache.hyracks.api.job.profiling.IOperatorStats;
 import org.apache.hyracks.api.job.profiling.IStatsCollector;
 import org.apache.hyracks.api.job.profiling.counters.ICounter;
 import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
@@ -386,13 +388,23 @@ public class Task implements IHyracksTaskContext, ICounterContext, Runnable {
                     try {
                         writer.open();
                         VSizeFrame frame = new VSizeFrame(this);
+                        // when the job is profiled, the time spent waiting for input is charged to the consumer
+                        IOperatorStats consumerStats = writer instanceof ProfiledFrameWriter
+                                ? ((ProfiledFrameWriter) writer).getStats() : null;
+                        long waitStart = consumerStats != null ? System.nanoTime() : 0;
                         while (reader.nextFrame(frame)) {
                             if (aborted) {
                                 return;
                             }
+                            if (consumerStats != null) {
+                                consumerStats.getWaitTimeCounter().update(System.nanoTime() - waitStart);
+                            }
                             ByteBuffer buffer = frame.getBuffer();
                             writer.nextFrame(buffer);
                             buffer.compact();
+                            if (consumerStats != null) {
+                                waitStart = System.nanoTime();
+                            }
                         }
                     } catch (Exception e) {
                         try {
@@ -26,6 +26,7 @@ import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.application.IStateDumpHandler;
 import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
 import org.apache.hyracks.api.config.IApplicationConfig;
+import org.apache.hyracks.api.io.IBufferCacheCounters;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
 import org.apache.hyracks.api.resources.memory.IMemoryManager;
 import org.apache.hyracks.api.service.IControllerService;
@@ -45,6 +46,7 @@ public class NCServiceContext extends ServiceContext implements INCServiceContex
     private final IOManager ioManager;
     private final MemoryManager memoryManager;
     private IStateDumpHandler sdh;
+    private IBufferCacheCounters bufferCacheCounters;
     private final NodeControllerService ncs;
     private IChannelInterfaceFactory messagingChannelInterfaceFactory;
     private final ITracer tracer;
@@ -86,6 +88,15 @@ public class NCServiceContext extends ServiceContext implements INCServiceContex
         return sdh;
     }
 
+    @Override
+    public void setBufferCacheCounters(IBufferCacheCounters counters) {
+        this.bufferCacheCounters = counters;
+    }
+
+    public IBufferCacheCounters getBufferCacheCounters() {
+        return bufferCacheCounters;
+    }
+
     @Override
     public IOManager getIoManager() {
         return ioManager;
@@ -19,227 +19,154 @@
 package org.apache.hyracks.control.nc.dataset;
 
 import java.nio.ByteBuffer;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
-import org.apache.hyracks.api.partitions.ResultSetPartitionId;
 
+/**
+ * Manages the memory that is used to keep result partitions until they are read. The memory is allocated off-heap in
+ * pages of a fixed size, lazily and up to the configured budget, and pages are pooled and reused once the result they
+ * were holding is spilled or removed.
+ * <p>
+ * Requesting a page does not take a lock as long as a free page is available or the budget is not exhausted. Otherwise
+ * the oldest page of the least recently used result partition, other than the requesting one, is spilled to disk and
+ * handed over to the requester. The result partitions that hold pages are kept in access order as they are written and
+ * read, so finding the least recently used one does not require sorting them.
+ */
 public class DatasetMemoryManager {
-    private int availableMemory;
-
-    private final Set<Page> availPages;
+    private static final int FRAME_SIZE = 32768;
 
-    private final LeastRecentlyUsedList leastRecentlyUsedList;
+    private final Queue<Page> availPages;
 
-    private final Map<ResultSetPartitionId, PartitionNode> resultPartitionNodesMap;
+    private final AtomicInteger unallocatedPages;
 
-    private final static int FRAME_SIZE = 32768;
+    // the result partitions that hold pages, from the least to the most recently accessed one
+    private final Map<ResultState, Boolean> residentStates;
 
     public DatasetMemoryManager(int availableMemory) {
-        this.availableMemory = availableMemory;
-
-        availPages = new HashSet<Page>();
-
         // Atleast have one page for temporarily storing the results.
-        if (this.availableMemory <= FRAME_SIZE)
-            this.availableMemory = FRAME_SIZE;
-
-        leastRecentlyUsedList = new LeastRecentlyUsedList();
-        resultPartitionNodesMap = new HashMap<ResultSetPartitionId, PartitionNode>();
+        unallocatedPages = new AtomicInteger(Math.max(availableMemory / FRAME_SIZE, 1));
+        availPages = new ConcurrentLinkedQueue<>();
+        residentStates = new LinkedHashMap<>(16, 0.75f, true);
     }
 
-    public synchronized Page requestPage(ResultSetPartitionId resultSetPartitionId, ResultState resultState)
-            throws HyracksDataException {
-        Page page;
-        if (availPages.isEmpty()) {
-            if (availableMemory >= FRAME_SIZE) {
-                /* TODO(madhusudancs): Should we have some way of accounting this memory usage by using Hyrack's allocateFrame()
-                 * instead of direct ByteBuffer.allocate()?
-                 */
-                availPages.add(new Page(ByteBuffer.allocate(FRAME_SIZE)));
-                availableMemory -= FRAME_SIZE;
-                page = getAvailablePage();
-            } else {
-                page = evictPage();
-            }
-        } else {
-            page = getAvailablePage();
+    /**
+     * Requests a page for a result partition. This method must not be called while holding the monitor of a result
+     * state, since it might need to spill the pages of other result states.
+     *
+     * @param resultState
+     *            the result partition that requests the page
+     * @return a cleared page, or null if all the memory is used by the requesting result partition or is pinned by
+     *         readers
+     */
+    public Page requestPage(ResultState resultState) throws HyracksDataException {
+        Page page = allocatePage();
+        if (page == null) {
+            page = evictPage(resultState);
+        }
+        if (page != null) {
+            page.clear();
         }
-
-        page.clear();
-
-        /*
-         * It is extremely important to update the reference after obtaining the page because, in the cases where memory
-         * manager is allocated only one page of memory, the front of the LRU list should not be created by the
-         * update reference call before a page is pushed on to the element of the LRU list. So we first obtain the page,
-         * then make a updateReference call which in turn creates a new node in the LRU list and then add the page to it.
-         */
-        PartitionNode pn = updateReference(resultSetPartitionId, resultState);
-        pn.add(page);
         return page;
     }
 
-    public void pageReferenced(ResultSetPartitionId resultSetPartitionId) {
-        // When a page is referenced the dataset partition writer should already be known, so we pass null.
-        updateReference(resultSetPartitionId, null);
-    }
-
-    public static int getPageSize() {
-        return FRAME_SIZE;
+    /**
+     * Gives back a page that is no longer used by its result partition.
+     */
+    void releasePage(Page page) {
+        availPages.offer(page);
     }
 
-    protected void insertPartitionNode(ResultSetPartitionId resultSetPartitionId, PartitionNode pn) {
-        leastRecentlyUsedList.add(pn);
-        resultPartitionNodesMap.put(resultSetPartitionId, pn);
+    /**
+     * Registers a result partition that holds pages, making it a candidate for eviction. Called while holding the
+     * monitor of the result state.
+     */
+    void pagesAcquired(ResultState resultState) {
+        synchronized (residentStates) {
+            residentStates.put(resultState, Boolean.TRUE);
+        }
     }
 
-    protected PartitionNode updateReference(ResultSetPartitionId resultSetPartitionId, ResultState resultState) {
-        PartitionNode pn = null;
-
-        if (!resultPartitionNodesMap.containsKey(resultSetPartitionId)) {
-            if (resultState != null) {
-                pn = new PartitionNode(resultSetPartitionId, resultState);
-                insertPartitionNode(resultSetPartitionId, pn);
-            }
-            return pn;
-        }
-        synchronized (this) {
-            pn = resultPartitionNodesMap.get(resultSetPartitionId);
-            leastRecentlyUsedList.remove(pn);
-            insertPartitionNode(resultSetPartitionId, pn);
+    /**
+     * Unregisters a result partition that no longer holds pages. Called while holding the monitor of the result state.
+     */
+    void pagesReleased(ResultState resultState) {
+        synchronized (residentStates) {
+            residentStates.remove(resultState);
         }
-
-        return pn;
     }
 
-    protected Page evictPage() throws HyracksDataException {
-        PartitionNode pn = leastRecentlyUsedList.getFirst();
-        ResultState resultState = pn.getResultState();
-        Page page = resultState.returnPage();
-
-        /* If the partition holding the pages breaks the contract by not returning the page or it has no page, just take
-         * away all the pages allocated to it and add to the available pages set.
-         */
-        if (page == null) {
-            availPages.addAll(pn);
-            pn.clear();
-            resultPartitionNodesMap.remove(pn.getResultSetPartitionId());
-            leastRecentlyUsedList.remove(pn);
-
-            /* Based on the assumption that if the dataset partition writer returned a null page, it should be lying about
-             * the number of pages it holds in which case we just evict all the pages it holds and should thus be able to
-             * add all those pages to available set and we have at least one page to allocate back.
-             */
-            page = getAvailablePage();
-        } else {
-            pn.remove(page);
-
-            // If the partition no more holds any pages, remove it from the linked list and the hash map.
-            if (pn.isEmpty()) {
-                resultPartitionNodesMap.remove(pn.getResultSetPartitionId());
-                leastRecentlyUsedList.remove(pn);
-            }
+    /**
+     * Marks a result partition as the most recently used one, if it holds pages. Called while holding the monitor of
+     * the result state.
+     */
+    void stateAccessed(ResultState resultState) {
+        synchronized (residentStates) {
+            // an access ordered map moves the accessed entry to its end
+            residentStates.get(resultState);
         }
-
-        return page;
     }
 
-    protected Page getAvailablePage() {
-        Iterator<Page> iter = availPages.iterator();
-        Page page = iter.next();
-        iter.remove();
-        return page;
+    public static int getPageSize() {
+        return FRAME_SIZE;
     }
 
-    private class LeastRecentlyUsedList {
-        private PartitionNode head;
-
-        private PartitionNode tail;
-
-        public LeastRecentlyUsedList() {
-            head = null;
-            tail = null;
+    private Page allocatePage() {
+        Page page = availPages.poll();
+        if (page != null) {
+            return page;
         }
-
-        public void add(PartitionNode node) {
-            if (head == null) {
-                head = tail = node;
-                return;
+        while (true) {
+            int unallocated = unallocatedPages.get();
+            if (unallocated <= 0) {
+                return null;
             }
-            tail.setNext(node);
-            node.setPrev(tail);
-            tail = node;
-        }
-
-        public void remove(PartitionNode node) {
-            if ((node == head) && (node == tail)) {
-                head = tail = null;
-                return;
-            } else if (node == head) {
-                head = head.getNext();
-                head.setPrev(null);
-                return;
-            } else if (node == tail) {
-                tail = tail.getPrev();
-                tail.setNext(null);
-                return;
-            } else {
-                PartitionNode prev = node.getPrev();
-                PartitionNode next = node.getNext();
-                prev.setNext(next);
-                next.setPrev(prev);
+            if (unallocatedPages.compareAndSet(unallocated, unallocated - 1)) {
+                return new Page(ByteBuffer.allocateDirect(FRAME_SIZE));
             }
         }
-
-        public PartitionNode getFirst() {
-            return head;
-        }
     }
 
-    private class PartitionNode extends HashSet<Page> {
-        private static final long serialVersionUID = 1L;
-
-        private final ResultSetPartitionId resultSetPartitionId;
-
-        private final ResultState resultState;
-
-        private PartitionNode prev;
-
-        private PartitionNode next;
-
-        public PartitionNode(ResultSetPartitionId resultSetPartitionId, ResultState resultState) {
-            this.resultSetPartitionId = resultSetPartitionId;
-            this.resultState = resultState;
-            prev = null;
-            next = null;
-        }
-
-        public ResultSetPartitionId getResultSetPartitionId() {
-            return resultSetPartitionId;
-        }
-
-        public ResultState getResultState() {
-            return resultState;
-        }
-
-        public void setPrev(PartitionNode node) {
-            prev = node;
-        }
-
-        public PartitionNode getPrev() {
-            return prev;
-        }
-
-        public void setNext(PartitionNode node) {
-            next = node;
+    private Page evictPage(ResultState requester) throws HyracksDataException {
+        Set<ResultState> visited = null;
+        ResultState victim = nextVictim(requester, null);
+        while (victim != null) {
+            // the victim is spilled without holding the lock on the resident states, as it takes the victim's monitor
+            Page page = victim.spillPage();
+            if (page == null) {
+                // pages that were pinned while being spilled are given back once they are unpinned
+                page = availPages.poll();
+            }
+            if (page != null) {
+                return page;
+            }
+            if (visited == null) {
+                visited = new HashSet<>();
+            }
+            visited.add(victim);
+            victim = nextVictim(requester, visited);
         }
+        return availPages.poll();
+    }
 
-        public PartitionNode getNext() {
-            return next;
+    /**
+     * @return the least recently used result partition that holds pages, other than the requester and the ones that
+     *         have already been visited, or null if there is none
+     */
+    private ResultState nextVictim(ResultState requester, Set<ResultState> visited) {
+        synchronized (residentStates) {
+            for (ResultState state : residentStates.keySet()) {
+                if (state != requester && (visited == null || !visited.contains(state))) {
+                    return state;
+                }
+            }
+            return null;
         }
     }
 }
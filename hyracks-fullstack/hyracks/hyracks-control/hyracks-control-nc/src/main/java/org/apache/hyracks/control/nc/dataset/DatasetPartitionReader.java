@@ -32,14 +32,12 @@ public class DatasetPartitionReader {
     private static final Logger LOGGER = LogManager.getLogger();
 
     private final DatasetPartitionManager datasetPartitionManager;
-    private final DatasetMemoryManager datasetMemoryManager;
     private final Executor executor;
     private final ResultState resultState;
 
-    public DatasetPartitionReader(DatasetPartitionManager datasetPartitionManager,
-            DatasetMemoryManager datasetMemoryManager, Executor executor, ResultState resultState) {
+    public DatasetPartitionReader(DatasetPartitionManager datasetPartitionManager, Executor executor,
+            ResultState resultState) {
         this.datasetPartitionManager = datasetPartitionManager;
-        this.datasetMemoryManager = datasetMemoryManager;
         this.executor = executor;
         this.resultState = resultState;
     }
@@ -60,22 +58,23 @@ public class DatasetPartitionReader {
         public void run() {
             channel.setFrameSize(resultState.getFrameSize());
             channel.open();
+            boolean opened = false;
             try {
                 resultState.readOpen();
+                opened = true;
                 long offset = 0;
+                // only used for the data that is not held in a single page of the result state
                 final ByteBuffer buffer = ByteBuffer.allocate(resultState.getFrameSize());
                 while (true) {
                     buffer.clear();
-                    final long size = read(offset, buffer);
+                    final long size = resultState.read(offset, buffer, channel);
                     if (size <= 0) {
                         break;
-                    } else if (size < buffer.limit()) {
+                    } else if (size < buffer.capacity()) {
                         throw new IllegalStateException(
-                                "Premature end of file - readSize: " + size + " buffer limit: " + buffer.limit());
+                                "Premature end of file - readSize: " + size + " buffer limit: " + buffer.capacity());
                     }
                     offset += size;
-                    buffer.flip();
-                    channel.nextFrame(buffer);
                 }
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("result reading successful(" + resultState.getResultSetPartitionId() + ")");
@@ -84,19 +83,16 @@ public class DatasetPartitionReader {
                 LOGGER.error(() -> "failed to send result partition " + resultState.getResultSetPartitionId(), e);
                 channel.abort();
             } finally {
-                close();
+                close(opened);
             }
         }
 
-        private long read(long offset, ByteBuffer buffer) throws HyracksDataException {
-            return datasetMemoryManager != null ? resultState.read(datasetMemoryManager, offset, buffer)
-                    : resultState.read(offset, buffer);
-        }
-
-        private void close() {
+        private void close(boolean opened) {
             try {
                 channel.close();
-                resultState.readClose();
+                if (opened) {
+                    resultState.readClose();
+                }
                 if (resultState.isExhausted()) {
                     final ResultSetPartitionId partitionId = resultState.getResultSetPartitionId();
                     datasetPartitionManager.removePartition(partitionId.getJobId(), partitionId.getResultSetId(),
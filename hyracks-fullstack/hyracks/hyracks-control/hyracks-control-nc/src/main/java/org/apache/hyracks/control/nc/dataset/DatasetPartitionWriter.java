@@ -47,8 +47,6 @@ public class DatasetPartitionWriter implements IFrameWriter {
 
     private final int nPartitions;
 
-    private final DatasetMemoryManager datasetMemoryManager;
-
     private final ResultSetPartitionId resultSetPartitionId;
 
     private final ResultState resultState;
@@ -66,11 +64,10 @@ public class DatasetPartitionWriter implements IFrameWriter {
         this.orderedResult = orderedResult;
         this.partition = partition;
         this.nPartitions = nPartitions;
-        this.datasetMemoryManager = datasetMemoryManager;
 
         resultSetPartitionId = new ResultSetPartitionId(jobId, rsId, partition);
         resultState = new ResultState(resultSetPartitionId, asyncMode, ctx.getIoManager(), fileFactory,
-                ctx.getInitialFrameSize(), maxReads);
+                ctx.getInitialFrameSize(), maxReads, datasetMemoryManager);
     }
 
     public ResultState getResultState() {
@@ -89,11 +86,7 @@ public class DatasetPartitionWriter implements IFrameWriter {
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
         registerResultPartitionLocation(false);
-        if (datasetMemoryManager == null) {
-            resultState.write(buffer);
-        } else {
-            resultState.write(datasetMemoryManager, buffer);
-        }
+        resultState.write(buffer);
     }
 
     @Override
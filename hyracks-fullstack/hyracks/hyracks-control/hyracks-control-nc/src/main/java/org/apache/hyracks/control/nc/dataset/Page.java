@@ -20,8 +20,15 @@ package org.apache.hyracks.control.nc.dataset;
 
 import java.nio.ByteBuffer;
 
+/**
+ * A page of result data. Pages are allocated off-heap by the {@link DatasetMemoryManager} and are owned by one
+ * {@link ResultState} at a time. A page that is being sent to a client is pinned and is only given back to the memory
+ * manager once it has been unpinned. All the methods are called while holding the monitor of the owning result state.
+ */
 public class Page {
     private final ByteBuffer buffer;
+    private int pins;
+    private boolean released;
 
     public Page(ByteBuffer buffer) {
         this.buffer = buffer;
@@ -34,4 +41,29 @@ public class Page {
     public ByteBuffer clear() {
         return (ByteBuffer) buffer.clear();
     }
+
+    void pin() {
+        pins++;
+    }
+
+    /**
+     * @return true if the page was released by its owner while it was pinned and can now be reused
+     */
+    boolean unpin() {
+        if (--pins == 0 && released) {
+            released = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marks the page as no longer used by its owner.
+     *
+     * @return true if the page can be reused right away, false if it will be reusable once it is unpinned
+     */
+    boolean release() {
+        released = pins > 0;
+        return !released;
+    }
 }
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.hyracks.api.comm.IFrameWriter;
 import org.apache.hyracks.api.dataflow.state.IStateObject;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
@@ -53,25 +54,37 @@ public class ResultState implements IStateObject {
 
     private final IWorkspaceFileFactory fileFactory;
 
+    private final DatasetMemoryManager datasetMemoryManager;
+
     private final AtomicBoolean eos;
 
     private final AtomicBoolean failed;
 
+    // the pages that hold the result data that follows the data in the file, all of them but the last one are full
     private final List<Page> localPageList;
 
     private FileReference fileRef;
 
     private IFileHandle fileHandle;
 
-    private volatile int referenceCount = 0;
+    private boolean writerOpen;
+
+    private int readerCount;
 
+    // the size of the result data that can be read
     private long size;
 
+    // the size of the result data that precedes the pages
     private long persistentSize;
+
+    // the offset of the result data at the start of the file, the data before it was discarded once sent
+    private long fileStart;
+
     private long remainingReads;
 
     ResultState(ResultSetPartitionId resultSetPartitionId, boolean asyncMode, IIOManager ioManager,
-            IWorkspaceFileFactory fileFactory, int frameSize, long maxReads) {
+            IWorkspaceFileFactory fileFactory, int frameSize, long maxReads,
+            DatasetMemoryManager datasetMemoryManager) {
         if (maxReads <= 0) {
             throw new IllegalArgumentException("maxReads must be > 0");
         }
@@ -80,6 +93,7 @@ public class ResultState implements IStateObject {
         this.ioManager = ioManager;
         this.fileFactory = fileFactory;
         this.frameSize = frameSize;
+        this.datasetMemoryManager = datasetMemoryManager;
         remainingReads = maxReads;
         eos = new AtomicBoolean(false);
         failed = new AtomicBoolean(false);
@@ -92,12 +106,15 @@ public class ResultState implements IStateObject {
     public synchronized void open() {
         size = 0;
         persistentSize = 0;
-        referenceCount = 0;
+        fileStart = 0;
+        writerOpen = true;
+        touch();
     }
 
     public synchronized void close() {
         eos.set(true);
-        closeWriteFileHandle();
+        writerOpen = false;
+        releaseFileHandle();
         notifyAll();
     }
 
@@ -105,61 +122,70 @@ public class ResultState implements IStateObject {
         // Deleting a job is equivalent to aborting the job for all practical purposes, so the same action, needs
         // to be taken when there are more requests to these result states.
         failed.set(true);
-        closeWriteFileHandle();
+        writerOpen = false;
+        releasePages();
+        if (fileHandle != null) {
+            closeFileHandle();
+        }
         if (fileRef != null) {
             fileRef.delete();
             fileRef = null;
         }
     }
 
-    private void closeWriteFileHandle() {
-        if (fileHandle != null) {
-            doCloseFileHandle();
-        }
-    }
-
-    private void doCloseFileHandle() {
-        if (--referenceCount == 0) {
-            // close the file if there is no more reference
-            try {
-                ioManager.close(fileHandle);
-            } catch (IOException e) {
-                // Since file handle could not be closed, just ignore.
+    public void write(ByteBuffer buffer) throws HyracksDataException {
+        if (datasetMemoryManager == null) {
+            synchronized (this) {
+                writeToFile(buffer);
+                size = persistentSize;
+                touch();
+                notifyAll();
             }
-            fileHandle = null;
-        }
-    }
-
-    public synchronized void write(ByteBuffer buffer) throws HyracksDataException {
-        if (fileRef == null) {
-            initWriteFileHandle();
+            return;
         }
-
-        size += ioManager.syncWrite(fileHandle, size, buffer);
-        notifyAll();
-    }
-
-    public synchronized void write(DatasetMemoryManager datasetMemoryManager, ByteBuffer buffer)
-            throws HyracksDataException {
         int srcOffset = 0;
-        Page destPage = null;
-
-        if (!localPageList.isEmpty()) {
-            destPage = localPageList.get(localPageList.size() - 1);
-        }
-
-        while (srcOffset < buffer.limit()) {
-            if ((destPage == null) || (destPage.getBuffer().remaining() <= 0)) {
-                destPage = datasetMemoryManager.requestPage(resultSetPartitionId, this);
-                localPageList.add(destPage);
+        int length = buffer.limit();
+        while (srcOffset < length) {
+            synchronized (this) {
+                if (failed.get()) {
+                    return;
+                }
+                Page destPage = localPageList.isEmpty() ? null : localPageList.get(localPageList.size() - 1);
+                if (destPage != null && destPage.getBuffer().hasRemaining()) {
+                    int srcLength = Math.min(length - srcOffset, destPage.getBuffer().remaining());
+                    destPage.getBuffer().put(slice(buffer, srcOffset, srcLength));
+                    srcOffset += srcLength;
+                    continue;
+                }
+            }
+            // the page is requested without holding the monitor, as other result states might have to be spilled
+            Page page = datasetMemoryManager.requestPage(this);
+            synchronized (this) {
+                if (failed.get()) {
+                    if (page != null) {
+                        datasetMemoryManager.releasePage(page);
+                    }
+                    return;
+                }
+                if (page != null) {
+                    localPageList.add(page);
+                    if (localPageList.size() == 1) {
+                        datasetMemoryManager.pagesAcquired(this);
+                    }
+                } else {
+                    // all the memory is held by this result state or pinned by readers, write through to the file
+                    spillPages();
+                    writeToFile(slice(buffer, srcOffset, length - srcOffset));
+                    srcOffset = length;
+                }
             }
-            int srcLength = Math.min(buffer.limit() - srcOffset, destPage.getBuffer().remaining());
-            destPage.getBuffer().put(buffer.array(), srcOffset, srcLength);
-            srcOffset += srcLength;
-            size += srcLength;
         }
-
-        notifyAll();
+        synchronized (this) {
+            // the data becomes readable once the whole frame has been written
+            size += length;
+            touch();
+            notifyAll();
+        }
     }
 
     public synchronized void readOpen() {
@@ -167,74 +193,71 @@ public class ResultState implements IStateObject {
             throw new IllegalStateException("Result reads exhausted");
         }
         remainingReads--;
+        readerCount++;
     }
 
-    public synchronized void readClose() throws HyracksDataException {
-        if (fileHandle != null) {
-            doCloseFileHandle();
-        }
+    public synchronized void readClose() {
+        readerCount--;
+        releaseFileHandle();
     }
 
-    public synchronized long read(long offset, ByteBuffer buffer) throws HyracksDataException {
-        long readSize = 0;
-
-        while (offset >= size && !eos.get() && !failed.get()) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                throw HyracksDataException.create(e);
+    /**
+     * Sends the result data that starts at the given offset to a frame writer, waiting for the data to be written if
+     * needed. Data that lies within a single page is sent from a read-only view of the page, which stays pinned while
+     * the writer consumes it. Otherwise, the data is copied to the given buffer first.
+     *
+     * @param offset
+     *            the offset of the data in the result
+     * @param buffer
+     *            a buffer whose remaining space is the size of the data to send
+     * @param writer
+     *            the frame writer to send the data to
+     * @return the number of bytes sent, or 0 if the result has been completely read or has failed
+     */
+    public long read(long offset, ByteBuffer buffer, IFrameWriter writer) throws HyracksDataException {
+        Page page = null;
+        ByteBuffer frame;
+        int length;
+        synchronized (this) {
+            while (offset >= size && !eos.get() && !failed.get()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw HyracksDataException.create(e);
+                }
             }
-        }
-        if ((offset >= size && eos.get()) || failed.get()) {
-            return readSize;
-        }
-
-        if (fileHandle == null) {
-            initReadFileHandle();
-        }
-        readSize = ioManager.syncRead(fileHandle, offset, buffer);
-
-        return readSize;
-    }
-
-    public synchronized long read(DatasetMemoryManager datasetMemoryManager, long offset, ByteBuffer buffer)
-            throws HyracksDataException {
-        long readSize = 0;
-        while (offset >= size && !eos.get() && !failed.get()) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                throw HyracksDataException.create(e);
+            if (offset >= size || failed.get()) {
+                return 0;
             }
-        }
-
-        if ((offset >= size && eos.get()) || failed.get()) {
-            return readSize;
-        }
-
-        if (offset < persistentSize) {
-            if (fileHandle == null) {
-                initReadFileHandle();
+            touch();
+            if (remainingReads == 0 && readerCount == 1) {
+                // the result is not read again, so the pages that have been sent can be given back
+                discardPages(offset);
             }
-            readSize = ioManager.syncRead(fileHandle, offset, buffer);
-            if (readSize < 0) {
-                throw new HyracksDataException("Premature end of file");
+            length = (int) Math.min(buffer.remaining(), size - offset);
+            int pageSize = DatasetMemoryManager.getPageSize();
+            long localPageOffset = offset - persistentSize;
+            int pageOffset = (int) (localPageOffset % pageSize);
+            if (localPageOffset >= 0 && pageOffset + length <= pageSize) {
+                page = localPageList.get((int) (localPageOffset / pageSize));
+                page.pin();
+                frame = page.getBuffer().asReadOnlyBuffer();
+                frame.limit(pageOffset + length);
+                frame.position(pageOffset);
+            } else {
+                copy(offset, buffer, length);
+                buffer.flip();
+                frame = buffer;
             }
         }
-
-        if (readSize < buffer.capacity()) {
-            long localPageOffset = offset - persistentSize;
-            int localPageIndex = (int) (localPageOffset / DatasetMemoryManager.getPageSize());
-            int pageOffset = (int) (localPageOffset % DatasetMemoryManager.getPageSize());
-            Page page = getPage(localPageIndex);
-            if (page == null) {
-                return readSize;
+        try {
+            writer.nextFrame(frame);
+        } finally {
+            if (page != null) {
+                unpin(page);
             }
-            readSize += buffer.remaining();
-            buffer.put(page.getBuffer().array(), pageOffset, buffer.remaining());
         }
-        datasetMemoryManager.pageReferenced(resultSetPartitionId);
-        return readSize;
+        return length;
     }
 
     public synchronized void abort() {
@@ -242,24 +265,29 @@ public class ResultState implements IStateObject {
         notifyAll();
     }
 
-    public synchronized Page returnPage() throws HyracksDataException {
-        Page page = removePage();
-
-        // If we do not have any pages to be given back close the write channel since we don't write any more, return null.
-        if (page == null) {
-            ioManager.close(fileHandle);
+    /**
+     * Writes the oldest page of this result state to the file and removes it from the result state.
+     *
+     * @return the page, or null if this result state holds no pages or if the page is pinned by a reader, in which
+     *         case it is given back to the memory manager once it is unpinned
+     */
+    synchronized Page spillPage() throws HyracksDataException {
+        if (localPageList.isEmpty()) {
             return null;
         }
-
-        page.getBuffer().flip();
-
-        if (fileRef == null) {
-            initWriteFileHandle();
+        Page page = localPageList.remove(0);
+        writePage(page);
+        if (localPageList.isEmpty()) {
+            datasetMemoryManager.pagesReleased(this);
         }
+        return page.release() ? page : null;
+    }
 
-        long delta = ioManager.syncWrite(fileHandle, persistentSize, page.getBuffer());
-        persistentSize += delta;
-        return page;
+    /**
+     * @return whether this result state holds pages
+     */
+    synchronized boolean isResident() {
+        return !localPageList.isEmpty();
     }
 
     public synchronized void setEOS(boolean eos) {
@@ -307,54 +335,140 @@ public class ResultState implements IStateObject {
         throw new UnsupportedOperationException();
     }
 
-    private Page getPage(int index) {
-        Page page = null;
-        if (!localPageList.isEmpty()) {
-            page = localPageList.get(index);
+    private void touch() {
+        if (datasetMemoryManager != null && !localPageList.isEmpty()) {
+            datasetMemoryManager.stateAccessed(this);
         }
-        return page;
     }
 
-    private Page removePage() {
-        Page page = null;
-        if (!localPageList.isEmpty()) {
-            page = localPageList.remove(localPageList.size() - 1);
+    private void copy(long offset, ByteBuffer buffer, int length) throws HyracksDataException {
+        int end = buffer.position() + length;
+        // the buffer might have more room than the data that can be read
+        buffer.limit(end);
+        if (offset < fileStart) {
+            throw new HyracksDataException("Result data at offset " + offset + " has been discarded");
+        }
+        if (offset < persistentSize) {
+            int fileLength = (int) Math.min(length, persistentSize - offset);
+            buffer.limit(buffer.position() + fileLength);
+            openFileHandle();
+            try {
+                ioManager.syncRead(fileHandle, offset - fileStart, buffer);
+            } finally {
+                releaseFileHandle();
+            }
+            if (buffer.hasRemaining()) {
+                throw new HyracksDataException("Premature end of file");
+            }
+            offset += fileLength;
+            buffer.limit(end);
+        }
+        int pageSize = DatasetMemoryManager.getPageSize();
+        while (buffer.hasRemaining()) {
+            long localPageOffset = offset - persistentSize;
+            int pageOffset = (int) (localPageOffset % pageSize);
+            int pageLength = Math.min(pageSize - pageOffset, buffer.remaining());
+            Page page = localPageList.get((int) (localPageOffset / pageSize));
+            buffer.put(slice(page.getBuffer(), pageOffset, pageLength));
+            offset += pageLength;
         }
-        return page;
     }
 
-    private void initWriteFileHandle() throws HyracksDataException {
-        if (fileHandle == null) {
-            String fName = FILE_PREFIX + String.valueOf(resultSetPartitionId.getPartition());
-            fileRef = fileFactory.createUnmanagedWorkspaceFile(fName);
-            fileHandle = ioManager.open(fileRef, IIOManager.FileReadWriteMode.READ_WRITE,
-                    IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
-            if (referenceCount != 0) {
-                throw new IllegalStateException("Illegal reference count " + referenceCount);
+    private synchronized void unpin(Page page) {
+        if (page.unpin()) {
+            datasetMemoryManager.releasePage(page);
+        }
+    }
+
+    private void spillPages() throws HyracksDataException {
+        while (!localPageList.isEmpty()) {
+            Page page = localPageList.remove(0);
+            writePage(page);
+            if (page.release()) {
+                datasetMemoryManager.releasePage(page);
             }
-            referenceCount = 1;
-            notifyAll(); // NOSONAR: always called from a synchronized block
         }
+        datasetMemoryManager.pagesReleased(this);
     }
 
-    private void initReadFileHandle() throws HyracksDataException {
-        while (fileRef == null && !failed.get()) {
-            // wait for writer to create the file
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                throw HyracksDataException.create(e);
+    private void discardPages(long offset) {
+        int pageSize = DatasetMemoryManager.getPageSize();
+        // the last page might still be written to, all the others are full
+        while (localPageList.size() > 1 && persistentSize + pageSize <= offset) {
+            Page page = localPageList.remove(0);
+            persistentSize += pageSize;
+            if (page.release()) {
+                datasetMemoryManager.releasePage(page);
             }
         }
-        if (failed.get()) {
+        if (persistentSize <= offset) {
+            // the data in the file has been sent as well, the pages that are spilled later on overwrite it
+            fileStart = persistentSize;
+        }
+    }
+
+    private void releasePages() {
+        if (datasetMemoryManager == null) {
             return;
         }
+        for (Page page : localPageList) {
+            if (page.release()) {
+                datasetMemoryManager.releasePage(page);
+            }
+        }
+        localPageList.clear();
+        datasetMemoryManager.pagesReleased(this);
+    }
+
+    private void writePage(Page page) throws HyracksDataException {
+        ByteBuffer data = page.getBuffer().duplicate();
+        data.flip();
+        writeToFile(data);
+    }
+
+    private void writeToFile(ByteBuffer data) throws HyracksDataException {
+        if (fileRef == null) {
+            String fName = FILE_PREFIX + String.valueOf(resultSetPartitionId.getPartition());
+            fileRef = fileFactory.createUnmanagedWorkspaceFile(fName);
+        }
+        openFileHandle();
+        try {
+            persistentSize += ioManager.syncWrite(fileHandle, persistentSize - fileStart, data);
+        } finally {
+            releaseFileHandle();
+        }
+    }
+
+    private void openFileHandle() throws HyracksDataException {
         if (fileHandle == null) {
-            // fileHandle has been closed by the writer, create it again
-            fileHandle = ioManager.open(fileRef, IIOManager.FileReadWriteMode.READ_ONLY,
+            fileHandle = ioManager.open(fileRef, IIOManager.FileReadWriteMode.READ_WRITE,
                     IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
         }
-        referenceCount++;
+    }
+
+    /**
+     * Closes the file handle unless it is still needed by the writer or by a reader.
+     */
+    private void releaseFileHandle() {
+        if (fileHandle != null && !writerOpen && readerCount == 0) {
+            closeFileHandle();
+        }
+    }
+
+    private void closeFileHandle() {
+        try {
+            ioManager.close(fileHandle);
+        } catch (IOException e) {
+            // Since file handle could not be closed, just ignore.
+        }
+        fileHandle = null;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(offset + length);
+        slice.position(offset);
+        return slice;
     }
 
     @Override
@@ -27,6 +27,7 @@ import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.MemoryUsage;
 import java.util.TimerTask;
 
+import org.apache.hyracks.api.io.IBufferCacheCounters;
 import org.apache.hyracks.control.common.heartbeat.HeartbeatData;
 import org.apache.hyracks.control.nc.NodeControllerService;
 import org.apache.hyracks.control.nc.io.profiling.IIOCounter;
@@ -99,6 +100,13 @@ public class HeartbeatComputeTask extends TimerTask {
 
             hbData.diskReads = ioCounter.getReads();
             hbData.diskWrites = ioCounter.getWrites();
+
+            IBufferCacheCounters bufferCacheCounters = ncs.getContext().getBufferCacheCounters();
+            if (bufferCacheCounters != null) {
+                hbData.bufferCacheHits = bufferCacheCounters.getHits();
+                hbData.bufferCacheMisses = bufferCacheCounters.getMisses();
+                hbData.bufferCacheEvictions = bufferCacheCounters.getEvictions();
+            }
             hbData.numCores = Runtime.getRuntime().availableProcessors();
 
             ncs.getNodeControllerData().notifyHeartbeat(hbData);
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.dataset;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.dataset.ResultSetId;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.api.io.IWorkspaceFileFactory;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.partitions.ResultSetPartitionId;
+import org.apache.hyracks.control.nc.io.DefaultDeviceResolver;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DatasetMemoryManagerTest {
+
+    private static final int PAGE_SIZE = DatasetMemoryManager.getPageSize();
+
+    private final List<ResultState> resultStates = new ArrayList<>();
+    private IOManager ioManager;
+    private IWorkspaceFileFactory fileFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        ioManager = new IOManager(
+                Collections.singletonList(new IODeviceHandle(new File(System.getProperty("java.io.tmpdir")), ".")),
+                new DefaultDeviceResolver());
+        fileFactory = new IWorkspaceFileFactory() {
+            @Override
+            public FileReference createUnmanagedWorkspaceFile(String prefix) throws HyracksDataException {
+                return ioManager.createWorkspaceFile(prefix);
+            }
+
+            @Override
+            public FileReference createManagedWorkspaceFile(String prefix) throws HyracksDataException {
+                return ioManager.createWorkspaceFile(prefix);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (ResultState resultState : resultStates) {
+            resultState.closeAndDelete();
+        }
+        ioManager.close();
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        DatasetMemoryManager memoryManager = new DatasetMemoryManager(3 * PAGE_SIZE);
+        ResultState a = createResultState(memoryManager, 0, Long.MAX_VALUE);
+        ResultState b = createResultState(memoryManager, 1, Long.MAX_VALUE);
+        ResultState c = createResultState(memoryManager, 2, Long.MAX_VALUE);
+        ResultState d = createResultState(memoryManager, 3, Long.MAX_VALUE);
+        write(a, 0, 0, PAGE_SIZE);
+        write(b, 1, 0, PAGE_SIZE);
+        write(c, 2, 0, PAGE_SIZE);
+        a.close();
+        b.close();
+        c.close();
+        // reading the first result makes the second one the least recently used
+        Assert.assertEquals(PAGE_SIZE, readAll(a, 0));
+
+        write(d, 3, 0, PAGE_SIZE);
+        Assert.assertTrue(a.isResident());
+        Assert.assertFalse(b.isResident());
+        Assert.assertTrue(c.isResident());
+        Assert.assertTrue(d.isResident());
+
+        // the requester is never evicted, even if it is the least recently used one
+        write(d, 3, PAGE_SIZE, PAGE_SIZE);
+        d.close();
+        Assert.assertTrue(a.isResident());
+        Assert.assertFalse(c.isResident());
+
+        // the spilled results are read back from their files
+        Assert.assertEquals(PAGE_SIZE, readAll(b, 1));
+        Assert.assertEquals(PAGE_SIZE, readAll(c, 2));
+        Assert.assertEquals(2 * PAGE_SIZE, readAll(d, 3));
+    }
+
+    @Test
+    public void testConcurrentReadAndEvict() throws Exception {
+        int numResults = 8;
+        int numFrames = 200;
+        int frameSize = PAGE_SIZE / 3 + 7;
+        DatasetMemoryManager memoryManager = new DatasetMemoryManager(4 * PAGE_SIZE);
+        List<ResultState> states = new ArrayList<>();
+        for (int i = 0; i < numResults; i++) {
+            // every other result is read only once, so that its pages are discarded as they are sent
+            states.add(createResultState(memoryManager, i, i % 2 == 0 ? 1 : 2));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2 * numResults);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            List<Future<Long>> reads = new ArrayList<>();
+            for (int i = 0; i < numResults; i++) {
+                ResultState state = states.get(i);
+                int seed = i;
+                writes.add(executor.submit(() -> {
+                    for (int j = 0; j < numFrames; j++) {
+                        write(state, seed, (long) j * frameSize, frameSize);
+                    }
+                    state.close();
+                    return null;
+                }));
+                reads.add(executor.submit(() -> readAll(state, seed)));
+            }
+            for (Future<?> write : writes) {
+                write.get(60, TimeUnit.SECONDS);
+            }
+            for (Future<Long> read : reads) {
+                Assert.assertEquals((long) numFrames * frameSize, (long) read.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The pages of a result that is read for the last time are given back once they have been sent. The data that is
+     * spilled after that is written to the start of the file, and the data that was sent cannot be read again.
+     */
+    @Test
+    public void testDiscardSentPages() throws Exception {
+        DatasetMemoryManager memoryManager = new DatasetMemoryManager(4 * PAGE_SIZE);
+        ResultState a = createResultState(memoryManager, 0, 1);
+        ResultState b = createResultState(memoryManager, 1, Long.MAX_VALUE);
+        write(a, 0, 0, 3 * PAGE_SIZE + 100);
+        a.close();
+        a.readOpen();
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE / 2);
+        CheckingWriter writer = new CheckingWriter(0);
+        while (writer.offset < 2 * PAGE_SIZE + PAGE_SIZE / 2) {
+            buffer.clear();
+            a.read(writer.offset, buffer, writer);
+        }
+
+        // the two pages that were sent are free, the third one is spilled to make room for the last page of b
+        write(b, 1, 0, 2 * PAGE_SIZE);
+        Assert.assertTrue(a.isResident());
+        write(b, 1, 2 * PAGE_SIZE, PAGE_SIZE);
+        b.close();
+        Assert.assertTrue(a.isResident());
+
+        long length;
+        do {
+            buffer.clear();
+            length = a.read(writer.offset, buffer, writer);
+        } while (length > 0);
+        Assert.assertEquals(3 * PAGE_SIZE + 100, writer.offset);
+        try {
+            buffer.clear();
+            a.read(0, buffer, writer);
+            Assert.fail("the data that was sent has been discarded");
+        } catch (HyracksDataException e) {
+            // expected
+        }
+        a.readClose();
+        Assert.assertEquals(3 * PAGE_SIZE, readAll(b, 1));
+    }
+
+    private ResultState createResultState(DatasetMemoryManager memoryManager, int partition, long maxReads) {
+        ResultSetPartitionId partitionId = new ResultSetPartitionId(new JobId(0), new ResultSetId(0), partition);
+        ResultState resultState =
+                new ResultState(partitionId, false, ioManager, fileFactory, PAGE_SIZE, maxReads, memoryManager);
+        resultState.open();
+        resultStates.add(resultState);
+        return resultState;
+    }
+
+    /**
+     * Appends a frame that starts at the given offset of a result, the data of a result is determined by its seed.
+     */
+    private static void write(ResultState resultState, int seed, long offset, int length) throws HyracksDataException {
+        ByteBuffer frame = ByteBuffer.allocate(length);
+        for (int i = 0; i < length; i++) {
+            frame.put(valueAt(seed, offset + i));
+        }
+        frame.flip();
+        resultState.write(frame);
+    }
+
+    /**
+     * Reads a result until it has been completely written and checks its data.
+     *
+     * @return the size of the result
+     */
+    private static long readAll(ResultState resultState, int seed) throws HyracksDataException {
+        resultState.readOpen();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE / 2 + 3);
+            CheckingWriter writer = new CheckingWriter(seed);
+            long length;
+            do {
+                buffer.clear();
+                length = resultState.read(writer.offset, buffer, writer);
+            } while (length > 0);
+            return writer.offset;
+        } finally {
+            resultState.readClose();
+        }
+    }
+
+    private static byte valueAt(int seed, long offset) {
+        return (byte) ((offset * 31 + seed) % 251);
+    }
+
+    private static class CheckingWriter implements IFrameWriter {
+        private final int seed;
+        private long offset;
+
+        CheckingWriter(int seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) {
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                Assert.assertEquals(valueAt(seed, offset), buffer.get(i));
+                offset++;
+            }
+        }
+
+        @Override
+        public void fail() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
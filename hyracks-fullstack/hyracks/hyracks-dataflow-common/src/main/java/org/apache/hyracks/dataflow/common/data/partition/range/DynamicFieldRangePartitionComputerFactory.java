@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.data.partition.range;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.utils.TaskUtil;
+
+/**
+ * A range partition computer factory whose range map is not known at compile time. The range map is computed at
+ * runtime (e.g., from a sample of the data) and published in the shared map of the sending task under
+ * {@code rangeMapKey} before the first tuple is partitioned.
+ */
+public class DynamicFieldRangePartitionComputerFactory extends FieldRangePartitionComputerFactory {
+    private static final long serialVersionUID = 1L;
+    private final String rangeMapKey;
+
+    public DynamicFieldRangePartitionComputerFactory(int[] rangeFields, IBinaryComparatorFactory[] comparatorFactories,
+            String rangeMapKey) {
+        super(rangeFields, comparatorFactories, null);
+        this.rangeMapKey = rangeMapKey;
+    }
+
+    @Override
+    public ITuplePartitionComputer createPartitioner() {
+        throw new UnsupportedOperationException("A dynamic range partitioner requires a task context");
+    }
+
+    @Override
+    protected IRangeMap getRangeMap(IHyracksTaskContext ctx) throws HyracksDataException {
+        IRangeMap rangeMap = TaskUtil.get(rangeMapKey, ctx);
+        if (rangeMap == null) {
+            throw HyracksDataException.create(ErrorCode.RANGEMAP_NOT_FOUND, rangeMapKey);
+        }
+        return rangeMap;
+    }
+
+    public String getRangeMapKey() {
+        return rangeMapKey;
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.hyracks.dataflow.common.data.partition.range;
 
 import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
@@ -38,13 +39,29 @@ public class FieldRangePartitionComputerFactory implements ITuplePartitionComput
         this.rangeMap = rangeMap;
     }
 
+    /**
+     * @param ctx
+     *            the task context, or null if the partitioner is created outside of a task
+     * @return the range map used to partition the tuples
+     */
+    protected IRangeMap getRangeMap(IHyracksTaskContext ctx) throws HyracksDataException {
+        return rangeMap;
+    }
+
     @Override
     public ITuplePartitionComputer createPartitioner() {
+        return createPartitioner(null);
+    }
+
+    @Override
+    public ITuplePartitionComputer createPartitioner(IHyracksTaskContext ctx) {
         final IBinaryComparator[] comparators = new IBinaryComparator[comparatorFactories.length];
         for (int i = 0; i < comparatorFactories.length; ++i) {
             comparators[i] = comparatorFactories[i].createBinaryComparator();
         }
         return new ITuplePartitionComputer() {
+            private IRangeMap rangeMap;
+
             @Override
             /**
              * Determine the range partition.
@@ -53,6 +70,9 @@ public class FieldRangePartitionComputerFactory implements ITuplePartitionComput
                 if (nParts == 1) {
                     return 0;
                 }
+                if (rangeMap == null) {
+                    rangeMap = getRangeMap(ctx);
+                }
                 int slotIndex = getRangePartition(accessor, tIndex);
                 // Map range partition to node partitions.
                 double rangesPerPart = 1;
@@ -87,8 +107,8 @@ public class FieldRangePartitionComputerFactory implements ITuplePartitionComput
                     int fStart = accessor.getFieldStartOffset(tIndex, fIdx);
                     int fEnd = accessor.getFieldEndOffset(tIndex, fIdx);
                     c = comparators[f].compare(accessor.getBuffer().array(), startOffset + slotLength + fStart,
-                            fEnd - fStart, rangeMap.getByteArray(fieldIndex, f), rangeMap.getStartOffset(fieldIndex, f),
-                            rangeMap.getLength(fieldIndex, f));
+                            fEnd - fStart, rangeMap.getByteArray(f, fieldIndex), rangeMap.getStartOffset(f, fieldIndex),
+                            rangeMap.getLength(f, fieldIndex));
                     if (c != 0) {
                         return c;
                     }
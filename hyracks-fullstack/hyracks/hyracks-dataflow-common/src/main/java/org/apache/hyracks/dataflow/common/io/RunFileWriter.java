@@ -25,6 +25,7 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IFileHandle;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.job.profiling.ProfilingScope;
 
 public class RunFileWriter implements IFrameWriter {
     private final IIOManager ioManager;
@@ -60,6 +61,7 @@ public class RunFileWriter implements IFrameWriter {
         int writen = ioManager.syncWrite(handle, size, buffer);
         maxOutputFrameSize = Math.max(writen, maxOutputFrameSize);
         size += writen;
+        ProfilingScope.addSpilledBytes(writen);
     }
 
     @Override
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+
+/**
+ * An in-memory Bloom filter over the join keys of the build tuples that a hash join spills to disk.
+ * Probe tuples whose keys are rejected by the filter cannot find a match in a spilled build partition, so an inner
+ * join can drop them instead of writing them to the probe-side run files.
+ * The key hashes are produced by the join's own hash function family (with a dedicated seed) rather than by hashing
+ * raw bytes, so that keys that are equal according to the join comparators always hash to the same bits.
+ * The bit array is only allocated when the first build tuple is added, i.e., when the join starts spilling.
+ */
+public class JoinBloomFilter {
+
+    // The seed given to the hash function family; it is distinct from the seeds used for partitioning.
+    public static final int HASH_SEED = 0x5bd1e995;
+    private static final int NUM_HASHES = 3;
+
+    private final int numBits;
+    private final ITuplePartitionComputer buildHash;
+    private final ITuplePartitionComputer probeHash;
+    private final FrameTupleAccessor accessorBuild;
+    private long[] bits;
+
+    /**
+     * @param sizeInBytes
+     *            the size of the bit array
+     * @param buildHash
+     *            the hash function over the build keys
+     * @param probeHash
+     *            the hash function over the probe keys
+     * @param buildRd
+     *            the record descriptor of the build side
+     */
+    public JoinBloomFilter(int sizeInBytes, ITuplePartitionComputer buildHash, ITuplePartitionComputer probeHash,
+            RecordDescriptor buildRd) {
+        this.numBits = Math.max(Long.SIZE, (sizeInBytes / Long.BYTES) * Long.SIZE);
+        this.buildHash = buildHash;
+        this.probeHash = probeHash;
+        this.accessorBuild = new FrameTupleAccessor(buildRd);
+    }
+
+    public void add(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+        if (bits == null) {
+            bits = new long[numBits / Long.SIZE];
+        }
+        long hash = mix(buildHash.partition(accessor, tIndex, Integer.MAX_VALUE));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numBits);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @return false if the probe tuple is guaranteed not to match any build tuple that was added;
+     *         true otherwise.
+     */
+    public boolean mightContain(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+        if (bits == null) {
+            return false;
+        }
+        long hash = mix(probeHash.partition(accessor, tIndex, Integer.MAX_VALUE));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a writer that adds every tuple of the frames it receives to the filter before passing the frames on.
+     */
+    public IFrameWriter wrap(IFrameWriter writer) {
+        return new IFrameWriter() {
+            @Override
+            public void open() throws HyracksDataException {
+                writer.open();
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                accessorBuild.reset(buffer);
+                int tupleCount = accessorBuild.getTupleCount();
+                for (int i = 0; i < tupleCount; i++) {
+                    add(accessorBuild, i);
+                }
+                writer.nextFrame(buffer);
+            }
+
+            @Override
+            public void fail() throws HyracksDataException {
+                writer.fail();
+            }
+
+            @Override
+            public void close() throws HyracksDataException {
+                writer.close();
+            }
+        };
+    }
+
+    // The finalization step of MurmurHash3, which spreads the partition hash over 64 bits.
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
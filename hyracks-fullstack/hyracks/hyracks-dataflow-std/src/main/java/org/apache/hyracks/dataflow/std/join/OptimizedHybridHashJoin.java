@@ -102,6 +102,8 @@ public class OptimizedHybridHashJoin {
 
     private boolean isReversed; //Added for handling correct calling for predicate-evaluator upon recursive calls that cause role-reversal
 
+    private JoinBloomFilter bloomFilter; //Summarizes the spilled build tuples; null if disabled
+
     // stats information
     private int[] buildPSizeInTups;
     private IFrame reloadBuffer;
@@ -187,7 +189,7 @@ public class OptimizedHybridHashJoin {
 
     private void spillPartition(int pid) throws HyracksDataException {
         RunFileWriter writer = getSpillWriterOrCreateNewOneIfNotExist(pid, SIDE.BUILD);
-        bufferManager.flushPartition(pid, writer);
+        bufferManager.flushPartition(pid, bloomFilter == null ? writer : bloomFilter.wrap(writer));
         bufferManager.clearPartition(pid);
         spilledStatus.set(pid);
     }
@@ -261,7 +263,11 @@ public class OptimizedHybridHashJoin {
             for (int pid = spilledStatus.nextSetBit(0); pid >= 0 && pid < numOfPartitions; pid =
                     spilledStatus.nextSetBit(pid + 1)) {
                 if (bufferManager.getNumTuples(pid) > 0) {
-                    bufferManager.flushPartition(pid, getSpillWriterOrCreateNewOneIfNotExist(pid, whichSide));
+                    IFrameWriter writer = getSpillWriterOrCreateNewOneIfNotExist(pid, whichSide);
+                    if (whichSide == SIDE.BUILD && bloomFilter != null) {
+                        writer = bloomFilter.wrap(writer);
+                    }
+                    bufferManager.flushPartition(pid, writer);
                     bufferManager.clearPartition(pid);
                 }
             }
@@ -506,6 +512,9 @@ public class OptimizedHybridHashJoin {
 
             if (buildPSizeInTups[pid] > 0 || isLeftOuter) { //Tuple has potential match from previous phase
                 if (spilledStatus.get(pid)) { //pid is Spilled
+                    if (!isLeftOuter && bloomFilter != null && !bloomFilter.mightContain(accessorProbe, i)) {
+                        continue; //No spilled build tuple can match, so the tuple does not need to be spilled
+                    }
                     while (!bufferManager.insertTuple(pid, accessorProbe, i, tempPtr)) {
                         int victim = pid;
                         if (bufferManager.getNumTuples(pid) == 0) { // current pid is empty, choose the biggest one
@@ -556,6 +565,8 @@ public class OptimizedHybridHashJoin {
         inMemJoiner = null;
         bufferManager = null;
         bufferManagerForHashTable = null;
+        // the filter memory is released together with the frames, before a spilled partition pair is joined
+        bloomFilter = null;
     }
 
     /**
@@ -609,6 +620,14 @@ public class OptimizedHybridHashJoin {
         return spilledStatus;
     }
 
+    /**
+     * Sets the filter that summarizes the spilled build tuples. For inner joins, probe tuples of spilled partitions
+     * that are rejected by the filter are dropped instead of being spilled. It must be set before the build phase.
+     */
+    public void setBloomFilter(JoinBloomFilter bloomFilter) {
+        this.bloomFilter = bloomFilter;
+    }
+
     public void setIsReversed(boolean b) {
         this.isReversed = b;
     }
@@ -114,6 +114,8 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
 
     private static final long serialVersionUID = 1L;
     private static final double NLJ_SWITCH_THRESHOLD = 0.8;
+    // The Bloom filter over the spilled build keys takes 1/BLOOM_FILTER_MEMORY_RATIO of the join memory frames.
+    private static final int BLOOM_FILTER_MEMORY_RATIO = 32;
 
     private static final String PROBE_REL = "RelR";
     private static final String BUILD_REL = "RelS";
@@ -213,9 +215,29 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
         return numberOfPartitions;
     }
 
+    /*
+     * Creates the filter that lets an inner join drop probe tuples that cannot match any spilled build tuple
+     * before they are written to the probe-side run files. The filter uses frames of the join memory, so that
+     * it is part of the memory that the job requires.
+     */
+    private JoinBloomFilter createBloomFilter(IHyracksTaskContext ctx, int[] probeKeys, int[] buildKeys,
+            RecordDescriptor buildRd, int bloomFilterFrames) {
+        if (bloomFilterFrames == 0) {
+            return null;
+        }
+        int sizeInBytes = bloomFilterFrames * ctx.getInitialFrameSize();
+        return new JoinBloomFilter(sizeInBytes,
+                new FieldHashPartitionComputerFamily(buildKeys, hashFunctionGeneratorFactories)
+                        .createPartitioner(JoinBloomFilter.HASH_SEED),
+                new FieldHashPartitionComputerFamily(probeKeys, hashFunctionGeneratorFactories)
+                        .createPartitioner(JoinBloomFilter.HASH_SEED),
+                buildRd);
+    }
+
     public static class BuildAndPartitionTaskState extends AbstractStateObject {
 
         private int memForJoin;
+        private int bloomFilterFrames;
         private int numOfPartitions;
         private OptimizedHybridHashJoin hybridHJ;
 
@@ -287,12 +309,16 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                     if (memSizeInFrames <= 2) { //Dedicated buffers: One buffer to read and two buffers for output
                         throw new HyracksDataException("Not enough memory is assigend for Hybrid Hash Join.");
                     }
-                    state.memForJoin = memSizeInFrames - 2;
+                    // Left-outer joins do not use the filter. Otherwise, its frames are taken from the join memory.
+                    state.bloomFilterFrames = isLeftOuter ? 0 : (memSizeInFrames - 2) / BLOOM_FILTER_MEMORY_RATIO;
+                    state.memForJoin = memSizeInFrames - 2 - state.bloomFilterFrames;
                     state.numOfPartitions =
                             getNumberOfPartitions(state.memForJoin, inputsize0, fudgeFactor, nPartitions);
                     state.hybridHJ = new OptimizedHybridHashJoin(ctx, state.memForJoin, state.numOfPartitions,
                             PROBE_REL, BUILD_REL, probeKeys, buildKeys, comparators, probeRd, buildRd, probeHpc,
                             buildHpc, predEvaluator, isLeftOuter, nonMatchWriterFactories);
+                    state.hybridHJ.setBloomFilter(
+                            createBloomFilter(ctx, probeKeys, buildKeys, buildRd, state.bloomFilterFrames));
 
                     state.hybridHJ.initBuild();
                     if (LOGGER.isDebugEnabled()) {
@@ -582,6 +608,8 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                             nonMatchWriterFactories); //checked-confirmed
 
                     rHHj.setIsReversed(isReversed);
+                    rHHj.setBloomFilter(
+                            createBloomFilter(ctx, probeKeys, buildKeys, buildRd, state.bloomFilterFrames));
                     try {
                         buildSideReader.open();
                         try {
@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.io.DataOutput;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.FrameHelper;
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IMissingWriter;
+import org.apache.hyracks.api.dataflow.value.IPredicateEvaluator;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.common.io.RunFileReader;
+import org.apache.hyracks.dataflow.common.io.RunFileWriter;
+import org.apache.hyracks.dataflow.std.buffermanager.BufferInfo;
+import org.apache.hyracks.dataflow.std.buffermanager.EnumFreeSlotPolicy;
+import org.apache.hyracks.dataflow.std.buffermanager.FrameFreeSlotPolicyFactory;
+import org.apache.hyracks.dataflow.std.buffermanager.IFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.VariableFrameMemoryManager;
+import org.apache.hyracks.dataflow.std.buffermanager.VariableFramePool;
+
+/**
+ * Joins two inputs that are sorted in ascending order on their join keys.
+ * The right input is cached in memory and only the frames that do not fit in its memory budget spill to a run file.
+ * The cached right input is then read sequentially while the left input is streamed.
+ * The right tuples that have the same key as the current left tuple (the current group) are kept in memory so that
+ * they can be joined with all the left tuples with that key. Groups that do not fit in memory spill to a run file.
+ * Half of the memory that is not used by the output, right input and group overflow frames is given to the group.
+ */
+public class SortMergeJoin {
+    private static final int RESERVED_FRAMES = 3;
+
+    private final IHyracksTaskContext ctx;
+    private final FrameTupleAccessor accessorLeft;
+    private final FrameTupleAccessor accessorRight;
+    private final FrameTupleAccessor accessorGroup;
+    private final int[] keysLeft;
+    private final int[] keysRight;
+    private final IBinaryComparator[] comparators;
+    private final IPredicateEvaluator predEvaluator;
+    private final boolean isLeftOuter;
+    private final ArrayTupleBuilder missingTupleBuilder;
+    private final FrameTupleAppender appender;
+    private final IFrame outBuffer;
+    // the right input: the frames cached in memory followed by the frames spilled to the run file
+    private IFrameBufferManager rightCache;
+    private final BufferInfo rightCacheFrameInfo = new BufferInfo(null, -1, -1);
+    private int rightCacheFrame;
+    private RunFileWriter runFileWriter;
+    private RunFileReader runFileReader;
+    private final IFrame rightBuffer;
+    private int rightTupleIndex;
+    private boolean rightExhausted;
+    private boolean joinStarted;
+    // the current group of right tuples: in-memory frames followed by the frames spilled to the overflow file
+    private final int groupMemoryBudget;
+    private final List<IFrame> groupFrames = new ArrayList<>();
+    private final FrameTupleAppender groupAppender;
+    private int currentGroupFrame;
+    private boolean groupEmpty;
+    private RunFileWriter groupOverflowWriter;
+    private final IFrame overflowBuffer;
+
+    public SortMergeJoin(IHyracksTaskContext ctx, RecordDescriptor leftRd, RecordDescriptor rightRd, int[] keysLeft,
+            int[] keysRight, IBinaryComparator[] comparators, int memSizeInFrames, IPredicateEvaluator predEval,
+            boolean isLeftOuter, IMissingWriter[] missingWriters) throws HyracksDataException {
+        if (memSizeInFrames < RESERVED_FRAMES + 1) {
+            throw new HyracksDataException("Not enough memory is available for Sort Merge Join");
+        }
+        this.ctx = ctx;
+        this.accessorLeft = new FrameTupleAccessor(leftRd);
+        this.accessorRight = new FrameTupleAccessor(rightRd);
+        this.accessorGroup = new FrameTupleAccessor(rightRd);
+        this.keysLeft = keysLeft;
+        this.keysRight = keysRight;
+        this.comparators = comparators;
+        this.predEvaluator = predEval;
+        this.isLeftOuter = isLeftOuter;
+        this.appender = new FrameTupleAppender();
+        this.outBuffer = new VSizeFrame(ctx);
+        this.appender.reset(outBuffer, true);
+        this.rightBuffer = new VSizeFrame(ctx);
+        this.overflowBuffer = new VSizeFrame(ctx);
+        int maxGroupFrames = Math.max(1, (memSizeInFrames - RESERVED_FRAMES) / 2);
+        int rightCacheFrames = memSizeInFrames - RESERVED_FRAMES - maxGroupFrames;
+        this.groupMemoryBudget = maxGroupFrames * ctx.getInitialFrameSize();
+        this.groupAppender = new FrameTupleAppender();
+        groupFrames.add(new VSizeFrame(ctx));
+        groupAppender.reset(groupFrames.get(0), true);
+        groupEmpty = true;
+        if (rightCacheFrames > 0) {
+            rightCache = new VariableFrameMemoryManager(
+                    new VariableFramePool(ctx, rightCacheFrames * ctx.getInitialFrameSize()),
+                    FrameFreeSlotPolicyFactory.createFreeSlotPolicy(EnumFreeSlotPolicy.LAST_FIT, rightCacheFrames));
+        }
+        if (isLeftOuter) {
+            int rightFieldCount = rightRd.getFieldCount();
+            missingTupleBuilder = new ArrayTupleBuilder(rightFieldCount);
+            DataOutput out = missingTupleBuilder.getDataOutput();
+            for (int i = 0; i < rightFieldCount; i++) {
+                missingWriters[i].writeMissing(out);
+                missingTupleBuilder.addFieldEndOffset();
+            }
+        } else {
+            missingTupleBuilder = null;
+        }
+    }
+
+    public void cache(ByteBuffer buffer) throws HyracksDataException {
+        // once a frame has spilled, the following ones spill as well to keep the right input in order
+        if (runFileWriter == null && rightCache != null && rightCache.insertFrame(buffer) >= 0) {
+            return;
+        }
+        if (runFileWriter == null) {
+            runFileWriter = new RunFileWriter(createWorkspaceFile(), ctx.getIoManager());
+            runFileWriter.open();
+        }
+        runFileWriter.nextFrame(buffer);
+    }
+
+    public void closeCache() throws HyracksDataException {
+        if (runFileWriter != null) {
+            runFileWriter.close();
+        }
+    }
+
+    public void join(ByteBuffer leftBuffer, IFrameWriter writer) throws HyracksDataException {
+        if (!joinStarted) {
+            joinStarted = true;
+            rightExhausted = !nextRightFrame();
+        }
+        accessorLeft.reset(leftBuffer);
+        int tupleCount = accessorLeft.getTupleCount();
+        for (int i = 0; i < tupleCount; i++) {
+            if (groupEmpty || compareLeftToGroup(i) != 0) {
+                loadGroup(i);
+            }
+            boolean matchFound = !groupEmpty && joinWithGroup(i, writer);
+            if (!matchFound && isLeftOuter) {
+                FrameUtils.appendConcatToWriter(writer, appender, accessorLeft, i,
+                        missingTupleBuilder.getFieldEndOffsets(), missingTupleBuilder.getByteArray(), 0,
+                        missingTupleBuilder.getSize());
+            }
+        }
+    }
+
+    public void completeJoin(IFrameWriter writer) throws HyracksDataException {
+        appender.write(writer, true);
+    }
+
+    /**
+     * Releases the memory and deletes the run files of the join. It is called both after the join completes and
+     * when it fails, so the run files may still be open for writing.
+     */
+    public void releaseResources() throws HyracksDataException {
+        try {
+            clearGroup();
+        } finally {
+            try {
+                if (runFileReader != null) {
+                    runFileReader.close();
+                    runFileReader = null;
+                } else if (runFileWriter != null) {
+                    runFileWriter.erase();
+                }
+                runFileWriter = null;
+            } finally {
+                if (rightCache != null) {
+                    rightCache.close();
+                    rightCache = null;
+                }
+            }
+        }
+    }
+
+    private void loadGroup(int leftTupleIndex) throws HyracksDataException {
+        clearGroup();
+        // skip the right tuples that are smaller than the left tuple
+        while (!rightExhausted && compareLeftToRight(leftTupleIndex) > 0) {
+            advanceRight();
+        }
+        while (!rightExhausted && compareLeftToRight(leftTupleIndex) == 0) {
+            addToGroup(accessorRight, rightTupleIndex);
+            advanceRight();
+        }
+        if (groupOverflowWriter != null) {
+            groupOverflowWriter.close();
+        }
+    }
+
+    private void addToGroup(IFrameTupleAccessor accessor, int tupleIndex) throws HyracksDataException {
+        groupEmpty = false;
+        if (groupAppender.append(accessor, tupleIndex)) {
+            return;
+        }
+        // a tuple that is larger than a frame is appended to an empty frame, which is enlarged to hold it
+        int requiredSize = FrameHelper.calcAlignedFrameSizeToStore(accessor.getFieldCount(),
+                accessor.getTupleLength(tupleIndex), ctx.getInitialFrameSize());
+        if (getGroupMemorySize() + requiredSize <= groupMemoryBudget) {
+            currentGroupFrame++;
+            if (groupFrames.size() <= currentGroupFrame) {
+                groupFrames.add(new VSizeFrame(ctx));
+            }
+            groupAppender.reset(groupFrames.get(currentGroupFrame), true);
+        } else {
+            // the last in-memory frame is used to stage the tuples of the group that spill
+            if (groupOverflowWriter == null) {
+                groupOverflowWriter = new RunFileWriter(createWorkspaceFile(), ctx.getIoManager());
+                groupOverflowWriter.open();
+            }
+            groupAppender.write(groupOverflowWriter, true);
+        }
+        if (!groupAppender.append(accessor, tupleIndex)) {
+            throw new HyracksDataException("Failed to add a tuple to the sort merge join group");
+        }
+    }
+
+    private int getGroupMemorySize() {
+        int size = 0;
+        for (int i = 0; i <= currentGroupFrame; i++) {
+            size += groupFrames.get(i).getFrameSize();
+        }
+        return size;
+    }
+
+    private void clearGroup() throws HyracksDataException {
+        for (int i = 0; i <= currentGroupFrame; i++) {
+            groupFrames.get(i).reset();
+        }
+        currentGroupFrame = 0;
+        groupAppender.reset(groupFrames.get(0), true);
+        groupEmpty = true;
+        if (groupOverflowWriter != null) {
+            RunFileWriter overflowWriter = groupOverflowWriter;
+            groupOverflowWriter = null;
+            overflowWriter.erase();
+        }
+    }
+
+    private boolean joinWithGroup(int leftTupleIndex, IFrameWriter writer) throws HyracksDataException {
+        boolean matchFound = false;
+        for (int f = 0; f <= currentGroupFrame; f++) {
+            accessorGroup.reset(groupFrames.get(f).getBuffer());
+            matchFound |= joinWithGroupFrame(leftTupleIndex, writer);
+        }
+        if (groupOverflowWriter != null) {
+            RunFileReader overflowReader = groupOverflowWriter.createReader();
+            try {
+                overflowReader.open();
+                while (overflowReader.nextFrame(overflowBuffer)) {
+                    accessorGroup.reset(overflowBuffer.getBuffer());
+                    matchFound |= joinWithGroupFrame(leftTupleIndex, writer);
+                }
+            } finally {
+                overflowReader.close();
+            }
+        }
+        return matchFound;
+    }
+
+    private boolean joinWithGroupFrame(int leftTupleIndex, IFrameWriter writer) throws HyracksDataException {
+        boolean matchFound = false;
+        int tupleCount = accessorGroup.getTupleCount();
+        for (int j = 0; j < tupleCount; j++) {
+            if (predEvaluator == null || predEvaluator.evaluate(accessorLeft, leftTupleIndex, accessorGroup, j)) {
+                matchFound = true;
+                FrameUtils.appendConcatToWriter(writer, appender, accessorLeft, leftTupleIndex, accessorGroup, j);
+            }
+        }
+        return matchFound;
+    }
+
+    private boolean nextRightFrame() throws HyracksDataException {
+        while (rightCache != null && rightCacheFrame < rightCache.getNumFrames()) {
+            rightCache.getFrame(rightCacheFrame++, rightCacheFrameInfo);
+            accessorRight.reset(rightCacheFrameInfo.getBuffer(), rightCacheFrameInfo.getStartOffset(),
+                    rightCacheFrameInfo.getLength());
+            if (accessorRight.getTupleCount() > 0) {
+                rightTupleIndex = 0;
+                return true;
+            }
+        }
+        if (runFileWriter == null) {
+            return false;
+        }
+        if (runFileReader == null) {
+            runFileReader = runFileWriter.createDeleteOnCloseReader();
+            runFileReader.open();
+        }
+        while (runFileReader.nextFrame(rightBuffer)) {
+            accessorRight.reset(rightBuffer.getBuffer());
+            if (accessorRight.getTupleCount() > 0) {
+                rightTupleIndex = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void advanceRight() throws HyracksDataException {
+        if (++rightTupleIndex >= accessorRight.getTupleCount()) {
+            rightExhausted = !nextRightFrame();
+        }
+    }
+
+    private int compareLeftToRight(int leftTupleIndex) throws HyracksDataException {
+        return compare(accessorLeft, leftTupleIndex, accessorRight, rightTupleIndex);
+    }
+
+    private int compareLeftToGroup(int leftTupleIndex) throws HyracksDataException {
+        // all the tuples of the group have the same key, so it's enough to look at the first one
+        accessorGroup.reset(groupFrames.get(0).getBuffer());
+        return compare(accessorLeft, leftTupleIndex, accessorGroup, 0);
+    }
+
+    private int compare(IFrameTupleAccessor left, int leftIndex, IFrameTupleAccessor right, int rightIndex)
+            throws HyracksDataException {
+        for (int k = 0; k < comparators.length; k++) {
+            int leftField = keysLeft[k];
+            int rightField = keysRight[k];
+            int c = comparators[k].compare(left.getBuffer().array(),
+                    left.getAbsoluteFieldStartOffset(leftIndex, leftField), left.getFieldLength(leftIndex, leftField),
+                    right.getBuffer().array(), right.getAbsoluteFieldStartOffset(rightIndex, rightField),
+                    right.getFieldLength(rightIndex, rightField));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private FileReference createWorkspaceFile() throws HyracksDataException {
+        return ctx.getJobletContext().createManagedWorkspaceFile(getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IMissingWriter;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.IPredicateEvaluator;
+import org.apache.hyracks.api.dataflow.value.IPredicateEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.dataflow.std.base.AbstractActivityNode;
+import org.apache.hyracks.dataflow.std.base.AbstractOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractStateObject;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputSinkOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+
+/**
+ * Equi-join of two inputs that are both sorted in ascending order on their join keys.
+ * Input 1 (right) is materialized first and input 0 (left) is then merged with it. The output preserves the order of
+ * the left input.
+ */
+public class SortMergeJoinOperatorDescriptor extends AbstractOperatorDescriptor {
+    private static final int MATERIALIZE_ACTIVITY_ID = 0;
+    private static final int MERGE_JOIN_ACTIVITY_ID = 1;
+
+    private static final long serialVersionUID = 1L;
+    private final int[] keys0;
+    private final int[] keys1;
+    private final IBinaryComparatorFactory[] comparatorFactories;
+    private final IPredicateEvaluatorFactory predEvaluatorFactory;
+    private final int memSizeInFrames;
+    private final boolean isLeftOuter;
+    private final IMissingWriterFactory[] nonMatchWriterFactories;
+
+    public SortMergeJoinOperatorDescriptor(IOperatorDescriptorRegistry spec, int[] keys0, int[] keys1,
+            IBinaryComparatorFactory[] comparatorFactories, RecordDescriptor recordDescriptor, int memSizeInFrames,
+            IPredicateEvaluatorFactory predEvaluatorFactory) {
+        this(spec, keys0, keys1, comparatorFactories, recordDescriptor, memSizeInFrames, predEvaluatorFactory, false,
+                null);
+    }
+
+    public SortMergeJoinOperatorDescriptor(IOperatorDescriptorRegistry spec, int[] keys0, int[] keys1,
+            IBinaryComparatorFactory[] comparatorFactories, RecordDescriptor recordDescriptor, int memSizeInFrames,
+            IPredicateEvaluatorFactory predEvaluatorFactory, boolean isLeftOuter,
+            IMissingWriterFactory[] nonMatchWriterFactories) {
+        super(spec, 2, 1);
+        this.keys0 = keys0;
+        this.keys1 = keys1;
+        this.comparatorFactories = comparatorFactories;
+        this.outRecDescs[0] = recordDescriptor;
+        this.memSizeInFrames = memSizeInFrames;
+        this.predEvaluatorFactory = predEvaluatorFactory;
+        this.isLeftOuter = isLeftOuter;
+        this.nonMatchWriterFactories = nonMatchWriterFactories;
+    }
+
+    @Override
+    public void contributeActivities(IActivityGraphBuilder builder) {
+        ActivityId materializeAid = new ActivityId(getOperatorId(), MATERIALIZE_ACTIVITY_ID);
+        ActivityId mergeJoinAid = new ActivityId(getOperatorId(), MERGE_JOIN_ACTIVITY_ID);
+        MaterializeActivityNode materialize = new MaterializeActivityNode(materializeAid, mergeJoinAid);
+        MergeJoinActivityNode mergeJoin = new MergeJoinActivityNode(mergeJoinAid);
+
+        builder.addActivity(this, materialize);
+        builder.addSourceEdge(1, materialize, 0);
+
+        builder.addActivity(this, mergeJoin);
+        builder.addSourceEdge(0, mergeJoin, 0);
+
+        builder.addTargetEdge(0, mergeJoin, 0);
+        builder.addBlockingEdge(materialize, mergeJoin);
+    }
+
+    public static class MaterializeTaskState extends AbstractStateObject {
+        private SortMergeJoin joiner;
+
+        private MaterializeTaskState(JobId jobId, TaskId taskId) {
+            super(jobId, taskId);
+        }
+    }
+
+    private class MaterializeActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        private final ActivityId mergeJoinAid;
+
+        public MaterializeActivityNode(ActivityId id, ActivityId mergeJoinAid) {
+            super(id);
+            this.mergeJoinAid = mergeJoinAid;
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
+                throws HyracksDataException {
+            final RecordDescriptor rd0 = recordDescProvider.getInputRecordDescriptor(mergeJoinAid, 0);
+            final RecordDescriptor rd1 = recordDescProvider.getInputRecordDescriptor(getActivityId(), 0);
+            final IBinaryComparator[] comparators = new IBinaryComparator[comparatorFactories.length];
+            for (int i = 0; i < comparatorFactories.length; i++) {
+                comparators[i] = comparatorFactories[i].createBinaryComparator();
+            }
+            final IPredicateEvaluator predEvaluator =
+                    predEvaluatorFactory == null ? null : predEvaluatorFactory.createPredicateEvaluator();
+            final IMissingWriter[] nonMatchWriters =
+                    isLeftOuter ? new IMissingWriter[nonMatchWriterFactories.length] : null;
+            if (isLeftOuter) {
+                for (int i = 0; i < nonMatchWriterFactories.length; i++) {
+                    nonMatchWriters[i] = nonMatchWriterFactories[i].createMissingWriter();
+                }
+            }
+
+            return new AbstractUnaryInputSinkOperatorNodePushable() {
+                private MaterializeTaskState state;
+
+                @Override
+                public void open() throws HyracksDataException {
+                    state = new MaterializeTaskState(ctx.getJobletContext().getJobId(),
+                            new TaskId(getActivityId(), partition));
+                    state.joiner = new SortMergeJoin(ctx, rd0, rd1, keys0, keys1, comparators, memSizeInFrames,
+                            predEvaluator, isLeftOuter, nonMatchWriters);
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    state.joiner.cache(buffer);
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    state.joiner.closeCache();
+                    ctx.setStateObject(state);
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                    if (state != null && state.joiner != null) {
+                        state.joiner.releaseResources();
+                    }
+                }
+            };
+        }
+    }
+
+    private class MergeJoinActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        public MergeJoinActivityNode(ActivityId id) {
+            super(id);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions) {
+            return new AbstractUnaryInputUnaryOutputOperatorNodePushable() {
+                private MaterializeTaskState state;
+                private boolean failed = false;
+
+                @Override
+                public void open() throws HyracksDataException {
+                    writer.open();
+                    state = (MaterializeTaskState) ctx.getStateObject(
+                            new TaskId(new ActivityId(getOperatorId(), MATERIALIZE_ACTIVITY_ID), partition));
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    state.joiner.join(buffer, writer);
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    try {
+                        if (!failed) {
+                            state.joiner.completeJoin(writer);
+                        }
+                    } catch (Exception e) {
+                        writer.fail();
+                        throw e;
+                    } finally {
+                        try {
+                            if (state != null) {
+                                state.joiner.releaseResources();
+                            }
+                        } finally {
+                            writer.close();
+                        }
+                    }
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                    failed = true;
+                    writer.fail();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.misc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.data.partition.range.IRangeMap;
+import org.apache.hyracks.dataflow.common.data.partition.range.RangeMap;
+import org.apache.hyracks.dataflow.common.utils.TaskUtil;
+import org.apache.hyracks.dataflow.std.base.AbstractActivityNode;
+import org.apache.hyracks.dataflow.std.base.AbstractOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractStateObject;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputSinkOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+
+/**
+ * Forwards the tuples of input 0 once the split points arriving on input 1 have been received completely.
+ * The split points are turned into a {@link RangeMap} that is published in the shared map of the forwarding task under
+ * {@code rangeMapKey}, where a
+ * {@link org.apache.hyracks.dataflow.common.data.partition.range.DynamicFieldRangePartitionComputerFactory} on the
+ * outgoing connector picks it up.
+ */
+public class ForwardOperatorDescriptor extends AbstractOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    private static final int RANGEMAP_READER_ACTIVITY_ID = 0;
+    private static final int FORWARD_ACTIVITY_ID = 1;
+
+    private final String rangeMapKey;
+
+    public ForwardOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor recordDescriptor,
+            String rangeMapKey) {
+        super(spec, 2, 1);
+        this.rangeMapKey = rangeMapKey;
+        outRecDescs[0] = recordDescriptor;
+    }
+
+    @Override
+    public void contributeActivities(IActivityGraphBuilder builder) {
+        RangeMapReaderActivityNode ra =
+                new RangeMapReaderActivityNode(new ActivityId(odId, RANGEMAP_READER_ACTIVITY_ID));
+        ForwardActivityNode fa = new ForwardActivityNode(new ActivityId(odId, FORWARD_ACTIVITY_ID));
+
+        builder.addActivity(this, ra);
+        builder.addSourceEdge(1, ra, 0);
+
+        builder.addActivity(this, fa);
+        builder.addSourceEdge(0, fa, 0);
+        builder.addTargetEdge(0, fa, 0);
+
+        builder.addBlockingEdge(ra, fa);
+    }
+
+    private static class RangeMapState extends AbstractStateObject {
+        private IRangeMap rangeMap;
+
+        private RangeMapState(JobId jobId, TaskId taskId) {
+            super(jobId, taskId);
+        }
+    }
+
+    private final class RangeMapReaderActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        public RangeMapReaderActivityNode(ActivityId id) {
+            super(id);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions) {
+            final RecordDescriptor splitRecDesc = recordDescProvider.getInputRecordDescriptor(getActivityId(), 0);
+            return new AbstractUnaryInputSinkOperatorNodePushable() {
+                private final FrameTupleAccessor accessor = new FrameTupleAccessor(splitRecDesc);
+                private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                private int[] offsets = new int[0];
+                private int fieldCount;
+
+                @Override
+                public void open() throws HyracksDataException {
+                    fieldCount = splitRecDesc.getFieldCount();
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    accessor.reset(buffer);
+                    byte[] frame = buffer.array();
+                    for (int t = 0, n = accessor.getTupleCount(); t < n; t++) {
+                        int tStart = accessor.getTupleStartOffset(t) + accessor.getFieldSlotsLength();
+                        int last = offsets.length;
+                        offsets = Arrays.copyOf(offsets, last + fieldCount);
+                        for (int f = 0; f < fieldCount; f++) {
+                            int fStart = accessor.getFieldStartOffset(t, f);
+                            int fLength = accessor.getFieldEndOffset(t, f) - fStart;
+                            bytes.write(frame, tStart + fStart, fLength);
+                            offsets[last + f] = bytes.size();
+                        }
+                    }
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    RangeMapState state = new RangeMapState(ctx.getJobletContext().getJobId(),
+                            new TaskId(getActivityId(), partition));
+                    state.rangeMap = new RangeMap(fieldCount, bytes.toByteArray(), offsets);
+                    ctx.setStateObject(state);
+                }
+            };
+        }
+    }
+
+    private final class ForwardActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        public ForwardActivityNode(ActivityId id) {
+            super(id);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions) {
+            return new AbstractUnaryInputUnaryOutputOperatorNodePushable() {
+                @Override
+                public void open() throws HyracksDataException {
+                    RangeMapState state = (RangeMapState) ctx.getStateObject(
+                            new TaskId(new ActivityId(getOperatorId(), RANGEMAP_READER_ACTIVITY_ID), partition));
+                    TaskUtil.put(rangeMapKey, state.rangeMap, ctx);
+                    writer.open();
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    writer.nextFrame(buffer);
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                    writer.fail();
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    writer.close();
+                }
+
+                @Override
+                public void flush() throws HyracksDataException {
+                    writer.flush();
+                }
+            };
+        }
+    }
+}
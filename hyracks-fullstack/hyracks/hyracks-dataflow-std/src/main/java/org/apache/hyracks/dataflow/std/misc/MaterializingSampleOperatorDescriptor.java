@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.misc;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.std.base.AbstractActivityNode;
+import org.apache.hyracks.dataflow.std.base.AbstractOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryOutputSourceOperatorNodePushable;
+
+/**
+ * Materializes its input and draws a uniform random sample of the given fields from it (reservoir sampling).
+ * Output 0 replays the materialized input after the whole input has been consumed. Output 1 emits the sampled
+ * fields of this partition once the input is closed.
+ * Together with {@link org.apache.hyracks.dataflow.std.sort.RangeMapGeneratorOperatorDescriptor} and
+ * {@link ForwardOperatorDescriptor}, it range partitions data whose key distribution is not known in advance.
+ */
+public class MaterializingSampleOperatorDescriptor extends AbstractOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    private static final int SAMPLER_ACTIVITY_ID = 0;
+    private static final int READER_ACTIVITY_ID = 1;
+
+    private final int[] sampleFields;
+    private final int sampleSize;
+
+    public MaterializingSampleOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor recordDescriptor,
+            int[] sampleFields, int sampleSize) {
+        super(spec, 1, 2);
+        this.sampleFields = sampleFields;
+        this.sampleSize = sampleSize;
+        outRecDescs[0] = recordDescriptor;
+        outRecDescs[1] = getSampleRecordDescriptor(recordDescriptor, sampleFields);
+    }
+
+    /**
+     * @return the record descriptor of the sampled tuples, i.e., the projection of the input on the sample fields.
+     */
+    public static RecordDescriptor getSampleRecordDescriptor(RecordDescriptor recordDescriptor, int[] sampleFields) {
+        ISerializerDeserializer[] serdes = new ISerializerDeserializer[sampleFields.length];
+        ITypeTraits[] typeTraits =
+                recordDescriptor.getTypeTraits() == null ? null : new ITypeTraits[sampleFields.length];
+        for (int i = 0; i < sampleFields.length; i++) {
+            serdes[i] = recordDescriptor.getFields()[sampleFields[i]];
+            if (typeTraits != null) {
+                typeTraits[i] = recordDescriptor.getTypeTraits()[sampleFields[i]];
+            }
+        }
+        return new RecordDescriptor(serdes, typeTraits);
+    }
+
+    @Override
+    public void contributeActivities(IActivityGraphBuilder builder) {
+        SamplerActivityNode sa = new SamplerActivityNode(new ActivityId(odId, SAMPLER_ACTIVITY_ID));
+        ReaderActivityNode ra = new ReaderActivityNode(new ActivityId(odId, READER_ACTIVITY_ID));
+
+        builder.addActivity(this, sa);
+        builder.addSourceEdge(0, sa, 0);
+        builder.addTargetEdge(1, sa, 0);
+
+        builder.addActivity(this, ra);
+        builder.addTargetEdge(0, ra, 0);
+
+        builder.addBlockingEdge(sa, ra);
+    }
+
+    private final class SamplerActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        public SamplerActivityNode(ActivityId id) {
+            super(id);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions) {
+            final RecordDescriptor inRecDesc = recordDescProvider.getInputRecordDescriptor(getActivityId(), 0);
+            return new AbstractUnaryInputUnaryOutputOperatorNodePushable() {
+                private final FrameTupleAccessor accessor = new FrameTupleAccessor(inRecDesc);
+                private final ArrayTupleBuilder[] samples = new ArrayTupleBuilder[sampleSize];
+                // A fixed seed per partition keeps the computed ranges reproducible across runs.
+                private final Random random = new Random(partition);
+                private MaterializerTaskState state;
+                private long tupleCount;
+                private boolean failed;
+
+                @Override
+                public void open() throws HyracksDataException {
+                    state = new MaterializerTaskState(ctx.getJobletContext().getJobId(),
+                            new TaskId(getActivityId(), partition));
+                    state.open(ctx);
+                    writer.open();
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    state.appendFrame(buffer);
+                    accessor.reset(buffer);
+                    int tupleCountInFrame = accessor.getTupleCount();
+                    for (int i = 0; i < tupleCountInFrame; i++) {
+                        sample(i);
+                    }
+                }
+
+                private void sample(int tIndex) throws HyracksDataException {
+                    int slot;
+                    if (tupleCount < sampleSize) {
+                        slot = (int) tupleCount;
+                        samples[slot] = new ArrayTupleBuilder(sampleFields.length);
+                    } else {
+                        // Keeps the tuple with probability sampleSize / (tupleCount + 1).
+                        long r = (long) (random.nextDouble() * (tupleCount + 1));
+                        slot = r < sampleSize ? (int) r : -1;
+                    }
+                    tupleCount++;
+                    if (slot < 0) {
+                        return;
+                    }
+                    ArrayTupleBuilder tb = samples[slot];
+                    tb.reset();
+                    for (int f : sampleFields) {
+                        tb.addField(accessor, tIndex, f);
+                    }
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                    failed = true;
+                    writer.fail();
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    try {
+                        state.close();
+                        ctx.setStateObject(state);
+                        if (!failed) {
+                            FrameTupleAppender appender = new FrameTupleAppender(new VSizeFrame(ctx));
+                            int n = (int) Math.min(tupleCount, sampleSize);
+                            for (int i = 0; i < n; i++) {
+                                ArrayTupleBuilder tb = samples[i];
+                                FrameUtils.appendToWriter(writer, appender, tb.getFieldEndOffsets(), tb.getByteArray(),
+                                        0, tb.getSize());
+                            }
+                            appender.write(writer, true);
+                        }
+                    } finally {
+                        writer.close();
+                    }
+                }
+            };
+        }
+    }
+
+    private final class ReaderActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        public ReaderActivityNode(ActivityId id) {
+            super(id);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions) {
+            return new AbstractUnaryOutputSourceOperatorNodePushable() {
+                @Override
+                public void initialize() throws HyracksDataException {
+                    MaterializerTaskState state = (MaterializerTaskState) ctx.getStateObject(
+                            new TaskId(new ActivityId(getOperatorId(), SAMPLER_ACTIVITY_ID), partition));
+                    state.writeOut(writer, new VSizeFrame(ctx), false);
+                }
+            };
+        }
+    }
+}
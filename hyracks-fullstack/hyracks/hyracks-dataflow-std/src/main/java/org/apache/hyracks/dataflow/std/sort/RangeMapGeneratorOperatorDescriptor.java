@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.sort;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.std.base.AbstractSingleActivityOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+
+/**
+ * Computes the split points of a range map from a sample of the sort keys. All sampled tuples are collected, sorted
+ * with the given comparators, and the tuples at the {@code numSplits} quantiles are emitted in ascending order.
+ * The operator is meant to run on a single partition.
+ */
+public class RangeMapGeneratorOperatorDescriptor extends AbstractSingleActivityOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    private final IBinaryComparatorFactory[] comparatorFactories;
+    private final int numSplits;
+
+    public RangeMapGeneratorOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor sampleRecDesc,
+            IBinaryComparatorFactory[] comparatorFactories, int numSplits) {
+        super(spec, 1, 1);
+        this.comparatorFactories = comparatorFactories;
+        this.numSplits = numSplits;
+        outRecDescs[0] = sampleRecDesc;
+    }
+
+    @Override
+    public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+            IRecordDescriptorProvider recordDescProvider, int partition, int nPartitions) throws HyracksDataException {
+        return new AbstractUnaryInputUnaryOutputOperatorNodePushable() {
+            private final FrameTupleAccessor accessor = new FrameTupleAccessor(outRecDescs[0]);
+            private final List<ArrayTupleBuilder> samples = new ArrayList<>();
+            private boolean failed;
+
+            @Override
+            public void open() throws HyracksDataException {
+                writer.open();
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                accessor.reset(buffer);
+                int fieldCount = accessor.getFieldCount();
+                for (int i = 0, n = accessor.getTupleCount(); i < n; i++) {
+                    ArrayTupleBuilder tb = new ArrayTupleBuilder(fieldCount);
+                    for (int f = 0; f < fieldCount; f++) {
+                        tb.addField(accessor, i, f);
+                    }
+                    samples.add(tb);
+                }
+            }
+
+            @Override
+            public void fail() throws HyracksDataException {
+                failed = true;
+                writer.fail();
+            }
+
+            @Override
+            public void close() throws HyracksDataException {
+                try {
+                    if (!failed && !samples.isEmpty()) {
+                        writeSplits();
+                    }
+                } finally {
+                    writer.close();
+                }
+            }
+
+            private void writeSplits() throws HyracksDataException {
+                IBinaryComparator[] comparators = new IBinaryComparator[comparatorFactories.length];
+                for (int i = 0; i < comparators.length; i++) {
+                    comparators[i] = comparatorFactories[i].createBinaryComparator();
+                }
+                ArrayTupleBuilder[] sorted = samples.toArray(new ArrayTupleBuilder[samples.size()]);
+                HyracksDataException[] error = new HyracksDataException[1];
+                Arrays.sort(sorted, (t1, t2) -> {
+                    try {
+                        return compare(comparators, t1, t2);
+                    } catch (HyracksDataException e) {
+                        error[0] = e;
+                        return 0;
+                    }
+                });
+                if (error[0] != null) {
+                    throw error[0];
+                }
+                FrameTupleAppender appender = new FrameTupleAppender(new VSizeFrame(ctx));
+                for (int i = 1; i <= numSplits; i++) {
+                    ArrayTupleBuilder tb = sorted[(int) ((long) i * sorted.length / (numSplits + 1))];
+                    FrameUtils.appendToWriter(writer, appender, tb.getFieldEndOffsets(), tb.getByteArray(), 0,
+                            tb.getSize());
+                }
+                appender.write(writer, true);
+            }
+        };
+    }
+
+    private static int compare(IBinaryComparator[] comparators, ArrayTupleBuilder t1, ArrayTupleBuilder t2)
+            throws HyracksDataException {
+        int[] offsets1 = t1.getFieldEndOffsets();
+        int[] offsets2 = t2.getFieldEndOffsets();
+        for (int f = 0; f < comparators.length; f++) {
+            int start1 = f == 0 ? 0 : offsets1[f - 1];
+            int start2 = f == 0 ? 0 : offsets2[f - 1];
+            int c = comparators[f].compare(t1.getByteArray(), start1, offsets1[f] - start1, t2.getByteArray(), start2,
+                    offsets2[f] - start2);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+}
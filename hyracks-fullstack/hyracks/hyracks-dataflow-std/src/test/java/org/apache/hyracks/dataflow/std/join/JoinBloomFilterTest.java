@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHashFunctionFamily;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFamily;
+import org.junit.Test;
+
+public class JoinBloomFilterTest {
+
+    private static final int FRAME_SIZE = 256 * 1024;
+    private static final int NUM_BUILD_KEYS = 1000;
+    private static final int NUM_PROBE_KEYS = 10000;
+
+    // The build side has the key in field 0, the probe side has it in field 1.
+    private final RecordDescriptor buildRd =
+            new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+    private final RecordDescriptor probeRd = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+    private final IBinaryHashFunctionFamily[] hashFamilies =
+            new IBinaryHashFunctionFamily[] { MurmurHash3BinaryHashFunctionFamily.INSTANCE };
+
+    private JoinBloomFilter createFilter(int sizeInBytes) {
+        return new JoinBloomFilter(sizeInBytes,
+                new FieldHashPartitionComputerFamily(new int[] { 0 }, hashFamilies)
+                        .createPartitioner(JoinBloomFilter.HASH_SEED),
+                new FieldHashPartitionComputerFamily(new int[] { 1 }, hashFamilies)
+                        .createPartitioner(JoinBloomFilter.HASH_SEED),
+                buildRd);
+    }
+
+    private static ByteBuffer createFrame(RecordDescriptor rd, int numTuples) throws HyracksDataException {
+        FixedSizeFrame frame = new FixedSizeFrame(ByteBuffer.allocate(FRAME_SIZE));
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(rd.getFieldCount());
+        for (int i = 0; i < numTuples; i++) {
+            tb.reset();
+            for (int f = 0; f < rd.getFieldCount(); f++) {
+                tb.addField(IntegerSerializerDeserializer.INSTANCE, i);
+            }
+            assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        return frame.getBuffer();
+    }
+
+    @Test
+    public void noFalseNegatives() throws HyracksDataException {
+        JoinBloomFilter filter = createFilter(4096);
+        int[] forwardedFrames = new int[1];
+        IFrameWriter writer = filter.wrap(new IFrameWriter() {
+            @Override
+            public void open() {
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) {
+                forwardedFrames[0]++;
+            }
+
+            @Override
+            public void fail() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        writer.nextFrame(createFrame(buildRd, NUM_BUILD_KEYS));
+        assertEquals(1, forwardedFrames[0]);
+
+        FrameTupleAccessor probeAccessor = new FrameTupleAccessor(probeRd);
+        probeAccessor.reset(createFrame(probeRd, NUM_PROBE_KEYS));
+        int falsePositives = 0;
+        for (int i = 0; i < NUM_PROBE_KEYS; i++) {
+            boolean mightContain = filter.mightContain(probeAccessor, i);
+            if (i < NUM_BUILD_KEYS) {
+                assertTrue("Key " + i + " was added but is rejected", mightContain);
+            } else if (mightContain) {
+                falsePositives++;
+            }
+        }
+        assertTrue("Too many false positives: " + falsePositives, falsePositives < NUM_PROBE_KEYS / 100);
+    }
+
+    @Test
+    public void emptyFilterRejectsAll() throws HyracksDataException {
+        JoinBloomFilter filter = createFilter(4096);
+        FrameTupleAccessor probeAccessor = new FrameTupleAccessor(probeRd);
+        probeAccessor.reset(createFrame(probeRd, NUM_BUILD_KEYS));
+        for (int i = 0; i < NUM_BUILD_KEYS; i++) {
+            assertFalse(filter.mightContain(probeAccessor, i));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.integration;
+
+import java.io.File;
+
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.dataflow.IConnectorDescriptor;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.dataset.ResultSetId;
+import org.apache.hyracks.api.io.FileSplit;
+import org.apache.hyracks.api.io.ManagedFileSplit;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.accessors.PointableBinaryHashFunctionFactory;
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.parsers.IValueParserFactory;
+import org.apache.hyracks.dataflow.common.data.parsers.UTF8StringParserFactory;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFactory;
+import org.apache.hyracks.dataflow.std.connectors.MToNBroadcastConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.connectors.MToNPartitioningConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.file.ConstantFileSplitProvider;
+import org.apache.hyracks.dataflow.std.file.DelimitedDataTupleParserFactory;
+import org.apache.hyracks.dataflow.std.file.FileScanOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.file.IFileSplitProvider;
+import org.apache.hyracks.dataflow.std.join.SortMergeJoinOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.result.ResultWriterOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.sort.InMemorySortOperatorDescriptor;
+import org.apache.hyracks.tests.util.NoopMissingWriterFactory;
+import org.apache.hyracks.tests.util.ResultSerializerFactoryProvider;
+import org.junit.Test;
+
+public class TPCHCustomerOrderSortMergeJoinTest extends AbstractIntegrationTest {
+
+    private static final IBinaryComparatorFactory[] COMPARATOR_FACTORIES =
+            new IBinaryComparatorFactory[] { PointableBinaryComparatorFactory.of(UTF8StringPointable.FACTORY) };
+    private static final IBinaryHashFunctionFactory[] HASH_FUNCTION_FACTORIES =
+            new IBinaryHashFunctionFactory[] { PointableBinaryHashFunctionFactory.of(UTF8StringPointable.FACTORY) };
+
+    private static RecordDescriptor createStringRecordDescriptor(int numFields) {
+        ISerializerDeserializer[] fields = new ISerializerDeserializer[numFields];
+        for (int i = 0; i < numFields; i++) {
+            fields[i] = new UTF8StringSerializerDeserializer();
+        }
+        return new RecordDescriptor(fields);
+    }
+
+    private static IValueParserFactory[] createStringParserFactories(int numFields) {
+        IValueParserFactory[] parserFactories = new IValueParserFactory[numFields];
+        for (int i = 0; i < numFields; i++) {
+            parserFactories[i] = UTF8StringParserFactory.INSTANCE;
+        }
+        return parserFactories;
+    }
+
+    /**
+     * Scans the given table partitions, hash-partitions the records on the key field and sorts every partition on it.
+     */
+    private static IOperatorDescriptor createSortedInput(JobSpecification spec, String table, int numFields,
+            int keyField) {
+        FileSplit[] splits = new FileSplit[] {
+                new ManagedFileSplit(NC1_ID,
+                        "data" + File.separator + "tpch0.001" + File.separator + table + "-part1.tbl"),
+                new ManagedFileSplit(NC2_ID,
+                        "data" + File.separator + "tpch0.001" + File.separator + table + "-part2.tbl") };
+        IFileSplitProvider splitsProvider = new ConstantFileSplitProvider(splits);
+        RecordDescriptor desc = createStringRecordDescriptor(numFields);
+        FileScanOperatorDescriptor scanner = new FileScanOperatorDescriptor(spec, splitsProvider,
+                new DelimitedDataTupleParserFactory(createStringParserFactories(numFields), '|'), desc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, scanner, NC1_ID, NC2_ID);
+
+        InMemorySortOperatorDescriptor sorter =
+                new InMemorySortOperatorDescriptor(spec, new int[] { keyField }, COMPARATOR_FACTORIES, desc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, sorter, NC1_ID, NC2_ID);
+
+        IConnectorDescriptor scanSortConn = new MToNPartitioningConnectorDescriptor(spec,
+                new FieldHashPartitionComputerFactory(new int[] { keyField }, HASH_FUNCTION_FACTORIES));
+        spec.connect(scanSortConn, scanner, 0, sorter, 0);
+        return sorter;
+    }
+
+    private void runJoin(JobSpecification spec, IOperatorDescriptor left, IOperatorDescriptor right,
+            IOperatorDescriptor join) throws Exception {
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, join, NC1_ID, NC2_ID);
+
+        ResultSetId rsId = new ResultSetId(1);
+        spec.addResultSetId(rsId);
+
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, false, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID);
+
+        spec.connect(new OneToOneConnectorDescriptor(spec), left, 0, join, 0);
+        spec.connect(new OneToOneConnectorDescriptor(spec), right, 0, join, 1);
+        spec.connect(new MToNBroadcastConnectorDescriptor(spec), join, 0, printer, 0);
+
+        spec.addRoot(printer);
+        runTest(spec);
+    }
+
+    @Test
+    public void customerOrderCIDJoinMulti() throws Exception {
+        JobSpecification spec = new JobSpecification();
+        IOperatorDescriptor orders = createSortedInput(spec, "orders", 9, 1);
+        IOperatorDescriptor customers = createSortedInput(spec, "customer", 8, 0);
+
+        SortMergeJoinOperatorDescriptor join = new SortMergeJoinOperatorDescriptor(spec, new int[] { 1 },
+                new int[] { 0 }, COMPARATOR_FACTORIES, createStringRecordDescriptor(17), 4, null);
+        runJoin(spec, orders, customers, join);
+    }
+
+    @Test
+    public void customerOrderCIDOuterJoinMulti() throws Exception {
+        JobSpecification spec = new JobSpecification();
+        IOperatorDescriptor customers = createSortedInput(spec, "customer", 8, 0);
+        IOperatorDescriptor orders = createSortedInput(spec, "orders", 9, 1);
+
+        IMissingWriterFactory[] nonMatchWriterFactories = new IMissingWriterFactory[9];
+        for (int j = 0; j < nonMatchWriterFactories.length; j++) {
+            nonMatchWriterFactories[j] = NoopMissingWriterFactory.INSTANCE;
+        }
+        SortMergeJoinOperatorDescriptor join =
+                new SortMergeJoinOperatorDescriptor(spec, new int[] { 0 }, new int[] { 1 }, COMPARATOR_FACTORIES,
+                        createStringRecordDescriptor(17), 4, null, true, nonMatchWriterFactories);
+        runJoin(spec, customers, orders, join);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IMissingWriter;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.std.join.SortMergeJoin;
+import org.apache.hyracks.test.support.TestUtils;
+import org.apache.hyracks.tests.util.NoopMissingWriterFactory;
+import org.junit.Test;
+
+public class SortMergeJoinTest {
+    private static final int FRAME_SIZE = 256;
+    private static final int NUM_KEYS = 100;
+    private static final int GROUP_SIZE = 20;
+    private static final RecordDescriptor RECORD_DESCRIPTOR = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, new UTF8StringSerializerDeserializer() });
+    private static final RecordDescriptor OUTPUT_DESCRIPTOR = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, new UTF8StringSerializerDeserializer(),
+            IntegerSerializerDeserializer.INSTANCE, new UTF8StringSerializerDeserializer() });
+
+    private final IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+
+    /**
+     * The right input is larger than its memory budget and every group is larger than the group memory, so both the
+     * right input and the groups partially spill to run files.
+     */
+    @Test
+    public void testSpilledInnerJoin() throws HyracksDataException {
+        Map<Integer, Integer> matches = new HashMap<>();
+        int missing = join(createKeys(1, 1), createKeys(1, GROUP_SIZE), 6, false, 8, matches);
+        assertEquals(0, missing);
+        assertEquals(NUM_KEYS, matches.size());
+        for (int count : matches.values()) {
+            assertEquals(GROUP_SIZE, count);
+        }
+    }
+
+    /**
+     * The right input and the groups fit in memory.
+     */
+    @Test
+    public void testInMemoryInnerJoin() throws HyracksDataException {
+        Map<Integer, Integer> matches = new HashMap<>();
+        join(createKeys(1, 2), createKeys(1, 3), 256, false, 8, matches);
+        assertEquals(NUM_KEYS, matches.size());
+        for (int count : matches.values()) {
+            assertEquals(2 * 3, count);
+        }
+    }
+
+    @Test
+    public void testLeftOuterJoin() throws HyracksDataException {
+        Map<Integer, Integer> matches = new HashMap<>();
+        int missing = join(createKeys(1, 1), createKeys(2, GROUP_SIZE), 6, true, 8, matches);
+        assertEquals(NUM_KEYS / 2, missing);
+        assertEquals(NUM_KEYS / 2, matches.size());
+        for (Map.Entry<Integer, Integer> match : matches.entrySet()) {
+            assertEquals(0, match.getKey() % 2);
+            assertEquals(GROUP_SIZE, (int) match.getValue());
+        }
+    }
+
+    /**
+     * The right tuples are larger than a frame.
+     */
+    @Test
+    public void testLargeTuples() throws HyracksDataException {
+        Map<Integer, Integer> matches = new HashMap<>();
+        join(createKeys(1, 1), createKeys(1, 4), 6, false, 2 * FRAME_SIZE, matches);
+        assertEquals(NUM_KEYS, matches.size());
+        for (int count : matches.values()) {
+            assertEquals(4, count);
+        }
+    }
+
+    /**
+     * The resources of a join are released when it fails, before or while the right input is cached.
+     */
+    @Test
+    public void testReleaseOnFailure() throws HyracksDataException {
+        SortMergeJoin join = createJoin(6, false);
+        for (ByteBuffer frame : createFrames(createKeys(1, GROUP_SIZE), 8)) {
+            join.cache(frame);
+        }
+        join.releaseResources();
+        join.releaseResources();
+    }
+
+    private int join(int[] leftKeys, int[] rightKeys, int memSizeInFrames, boolean isLeftOuter, int payloadLength,
+            Map<Integer, Integer> matches) throws HyracksDataException {
+        SortMergeJoin join = createJoin(memSizeInFrames, isLeftOuter);
+        try {
+            for (ByteBuffer frame : createFrames(rightKeys, payloadLength)) {
+                join.cache(frame);
+            }
+            join.closeCache();
+            MatchCounter counter = new MatchCounter(matches);
+            for (ByteBuffer frame : createFrames(leftKeys, 8)) {
+                join.join(frame, counter);
+            }
+            join.completeJoin(counter);
+            return counter.missing;
+        } finally {
+            join.releaseResources();
+        }
+    }
+
+    private SortMergeJoin createJoin(int memSizeInFrames, boolean isLeftOuter) throws HyracksDataException {
+        IBinaryComparator[] comparators = new IBinaryComparator[] {
+                PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY).createBinaryComparator() };
+        IMissingWriter[] missingWriters = new IMissingWriter[RECORD_DESCRIPTOR.getFieldCount()];
+        Arrays.fill(missingWriters, NoopMissingWriterFactory.INSTANCE.createMissingWriter());
+        return new SortMergeJoin(ctx, RECORD_DESCRIPTOR, RECORD_DESCRIPTOR, new int[] { 0 }, new int[] { 0 },
+                comparators, memSizeInFrames, null, isLeftOuter, missingWriters);
+    }
+
+    /**
+     * @return the keys 0 to {@link #NUM_KEYS} that are multiples of {@code step}, each repeated {@code repeat} times
+     */
+    private static int[] createKeys(int step, int repeat) {
+        int[] keys = new int[NUM_KEYS / step * repeat];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i / repeat * step;
+        }
+        return keys;
+    }
+
+    private List<ByteBuffer> createFrames(int[] keys, int payloadLength) throws HyracksDataException {
+        List<ByteBuffer> frames = new ArrayList<>();
+        VSizeFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(RECORD_DESCRIPTOR.getFieldCount());
+        char[] payload = new char[payloadLength];
+        for (int key : keys) {
+            Arrays.fill(payload, (char) ('a' + key % 26));
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, key);
+            tb.addField(new UTF8StringSerializerDeserializer(), new String(payload));
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                frames.add(copy(frame.getBuffer()));
+                appender.reset(frame, true);
+                appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+            }
+        }
+        if (appender.getTupleCount() > 0) {
+            frames.add(copy(frame.getBuffer()));
+        }
+        return frames;
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        return ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.capacity()));
+    }
+
+    private static class MatchCounter implements IFrameWriter {
+        private final FrameTupleAccessor accessor = new FrameTupleAccessor(OUTPUT_DESCRIPTOR);
+        private final Map<Integer, Integer> matches;
+        private int missing;
+
+        MatchCounter(Map<Integer, Integer> matches) {
+            this.matches = matches;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) {
+            accessor.reset(buffer);
+            for (int i = 0; i < accessor.getTupleCount(); i++) {
+                int leftKey = IntegerPointable.getInteger(accessor.getBuffer().array(),
+                        accessor.getAbsoluteFieldStartOffset(i, 0));
+                // the missing writer writes two bytes instead of the right key
+                if (accessor.getFieldLength(i, 2) != Integer.BYTES) {
+                    missing++;
+                    continue;
+                }
+                int rightKey = IntegerPointable.getInteger(accessor.getBuffer().array(),
+                        accessor.getAbsoluteFieldStartOffset(i, 2));
+                assertEquals(leftKey, rightKey);
+                matches.merge(leftKey, 1, Integer::sum);
+            }
+        }
+
+        @Override
+        public void fail() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
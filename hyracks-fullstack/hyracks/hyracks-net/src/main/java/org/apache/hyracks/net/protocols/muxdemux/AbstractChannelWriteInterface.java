@@ -68,7 +68,7 @@ public abstract class AbstractChannelWriteInterface implements IChannelWriteInte
         }
     }
 
-    private boolean computeWritability() {
+    protected boolean computeWritability() {
         boolean writableDataPresent = currentWriteBuffer != null || !wiFullQueue.isEmpty();
         if (writableDataPresent) {
             return credits > 0;
@@ -77,6 +77,10 @@ public class ChannelControlBlock implements IChannelControlBlock {
         return wi;
     }
 
+    MuxDemuxPerformanceCounters getPerformanceCounters() {
+        return cSet.getPerformanceCounters();
+    }
+
     synchronized void write(WriterState writerState) throws NetException {
         wi.write(writerState);
     }
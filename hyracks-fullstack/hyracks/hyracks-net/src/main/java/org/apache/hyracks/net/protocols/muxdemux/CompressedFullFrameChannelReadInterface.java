@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.net.protocols.muxdemux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.apache.hyracks.api.comm.IBufferFactory;
+import org.apache.hyracks.api.comm.IChannelControlBlock;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.NetException;
+
+/**
+ * Reads the frames sent by {@link CompressedFullFrameChannelWriteInterface}. Frame payloads are restored into the
+ * read buffers back to back, so the buffers are filled exactly as a {@link FullFrameChannelReadInterface} fills them.
+ */
+public class CompressedFullFrameChannelReadInterface extends AbstractChannelReadInterface {
+
+    private final Deque<ByteBuffer> riEmptyStack;
+    private final IChannelControlBlock ccb;
+    private final ICompressorDecompressor decompressor;
+    private final ByteBuffer header;
+    private ByteBuffer compressedBuffer;
+    private ByteBuffer uncompressedBuffer;
+    private int frameSize;
+    private int rawRemaining;
+    private boolean compressedPending;
+
+    CompressedFullFrameChannelReadInterface(IChannelControlBlock ccb, ICompressorDecompressor decompressor) {
+        this.ccb = ccb;
+        this.decompressor = decompressor;
+        riEmptyStack = new ArrayDeque<>();
+        header = ByteBuffer.allocate(CompressedFullFrameChannelWriteInterface.HEADER_SIZE);
+        compressedBuffer = ByteBuffer.allocate(0);
+        uncompressedBuffer = ByteBuffer.allocate(0);
+        credits = 0;
+
+        emptyBufferAcceptor = buffer -> {
+            int delta = buffer.remaining();
+            synchronized (ccb) {
+                if (ccb.isRemotelyClosed()) {
+                    return;
+                }
+                riEmptyStack.push(buffer);
+            }
+            ccb.addPendingCredits(delta);
+        };
+    }
+
+    @Override
+    public int read(SocketChannel sc, int size) throws IOException, NetException {
+        while (size > 0) {
+            if (rawRemaining > 0) {
+                // uncompressed payloads go straight into the read buffers
+                ensureReadBuffer();
+                int rSize = Math.min(Math.min(size, rawRemaining), currentReadBuffer.remaining());
+                int len = readInto(sc, currentReadBuffer, rSize);
+                size -= len;
+                rawRemaining -= len;
+                if (currentReadBuffer.remaining() <= 0) {
+                    flush();
+                }
+                if (len < rSize) {
+                    return size;
+                }
+            } else if (compressedPending) {
+                int rSize = Math.min(size, compressedBuffer.remaining());
+                size -= readInto(sc, compressedBuffer, rSize);
+                if (compressedBuffer.hasRemaining()) {
+                    return size;
+                }
+                compressedPending = false;
+                compressedBuffer.flip();
+                decompress();
+            } else {
+                int rSize = Math.min(size, header.remaining());
+                size -= readInto(sc, header, rSize);
+                if (header.hasRemaining()) {
+                    return size;
+                }
+                header.flip();
+                frameSize = header.getInt();
+                int payloadSize = header.getInt();
+                header.clear();
+                if (payloadSize < 0 || payloadSize > frameSize) {
+                    throw new NetException("Invalid frame header: frame size " + frameSize + ", payload size "
+                            + payloadSize + " on channel " + ccb.getChannelId());
+                }
+                if (payloadSize == frameSize) {
+                    rawRemaining = frameSize;
+                } else {
+                    if (compressedBuffer.capacity() < payloadSize) {
+                        compressedBuffer = ByteBuffer.allocate(payloadSize);
+                    }
+                    compressedBuffer.clear();
+                    compressedBuffer.limit(payloadSize);
+                    compressedPending = true;
+                }
+            }
+        }
+        return size;
+    }
+
+    private void decompress() throws IOException, NetException {
+        ensureReadBuffer();
+        if (currentReadBuffer.remaining() >= frameSize) {
+            // common case, the frame fits in the current read buffer
+            int start = currentReadBuffer.position();
+            currentReadBuffer.limit(start + frameSize);
+            decompressor.uncompress(compressedBuffer, currentReadBuffer);
+            checkFrameSize(currentReadBuffer.limit() - start);
+            currentReadBuffer.position(currentReadBuffer.limit());
+            currentReadBuffer.limit(currentReadBuffer.capacity());
+            if (currentReadBuffer.remaining() <= 0) {
+                flush();
+            }
+            return;
+        }
+        if (uncompressedBuffer.capacity() < frameSize) {
+            uncompressedBuffer = ByteBuffer.allocate(frameSize);
+        }
+        uncompressedBuffer.clear();
+        uncompressedBuffer.limit(frameSize);
+        decompressor.uncompress(compressedBuffer, uncompressedBuffer);
+        checkFrameSize(uncompressedBuffer.remaining());
+        while (uncompressedBuffer.hasRemaining()) {
+            ensureReadBuffer();
+            int length = Math.min(uncompressedBuffer.remaining(), currentReadBuffer.remaining());
+            ByteBuffer chunk = uncompressedBuffer.duplicate();
+            chunk.limit(chunk.position() + length);
+            currentReadBuffer.put(chunk);
+            uncompressedBuffer.position(uncompressedBuffer.position() + length);
+            if (currentReadBuffer.remaining() <= 0) {
+                flush();
+            }
+        }
+    }
+
+    private void checkFrameSize(int uncompressedSize) throws NetException {
+        if (uncompressedSize != frameSize) {
+            throw new NetException("Corrupted compressed frame: expected " + frameSize + " bytes, found "
+                    + uncompressedSize + " on channel " + ccb.getChannelId());
+        }
+    }
+
+    private void ensureReadBuffer() throws HyracksDataException {
+        if (currentReadBuffer == null) {
+            currentReadBuffer = riEmptyStack.poll();
+            if (currentReadBuffer == null) {
+                currentReadBuffer = bufferFactory.createBuffer();
+            }
+        }
+    }
+
+    private static int readInto(SocketChannel sc, ByteBuffer buffer, int size) throws IOException, NetException {
+        int limit = buffer.limit();
+        buffer.limit(buffer.position() + size);
+        try {
+            int len = sc.read(buffer);
+            if (len < 0) {
+                throw new NetException("Socket Closed");
+            }
+            return len;
+        } finally {
+            buffer.limit(limit);
+        }
+    }
+
+    @Override
+    public void setBufferFactory(IBufferFactory bufferFactory, int limit, int frameSize) {
+        super.setBufferFactory(bufferFactory, limit, frameSize);
+        ccb.addPendingCredits(limit * frameSize);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.net.protocols.muxdemux;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.IBufferFactory;
+import org.apache.hyracks.api.comm.IChannelControlBlock;
+import org.apache.hyracks.api.comm.IConnectionWriterState;
+import org.apache.hyracks.api.comm.MuxDemuxCommand;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.NetException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Sends every full frame as a header followed by a payload. The header holds the frame size and the payload size;
+ * the payload is the compressed frame if it is smaller than the frame, or the frame as is otherwise.
+ * Credits are consumed by frame size, not by payload size, since the reader decompresses into buffers of frame size.
+ * Compression is skipped for a growing number of frames after a run of frames that compress poorly.
+ */
+public class CompressedFullFrameChannelWriteInterface extends AbstractChannelWriteInterface {
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    // frames smaller than this are not worth compressing
+    private static final int MIN_COMPRESSIBLE_SIZE = 256;
+
+    // a frame is sent compressed only if it shrinks to at most 7/8 of its size
+    private static final int MAX_COMPRESSED_EIGHTHS = 7;
+
+    private static final int POOR_FRAMES_BEFORE_SKIP = 4;
+
+    private static final int MIN_SKIPPED_FRAMES = 16;
+
+    private static final int MAX_SKIPPED_FRAMES = 1024;
+
+    private final ICompressorDecompressor compressor;
+
+    private final MuxDemuxPerformanceCounters perfCounters;
+
+    private final ByteBuffer header;
+
+    private ByteBuffer compressedBuffer;
+
+    private ByteBuffer payload;
+
+    private boolean headerSent;
+
+    private int poorFrames;
+
+    private int framesToSkip;
+
+    private int skipLength;
+
+    CompressedFullFrameChannelWriteInterface(IChannelControlBlock ccb, ICompressorDecompressor compressor,
+            MuxDemuxPerformanceCounters perfCounters) {
+        super(ccb);
+        this.compressor = compressor;
+        this.perfCounters = perfCounters;
+        header = ByteBuffer.allocate(HEADER_SIZE);
+        compressedBuffer = ByteBuffer.allocate(0);
+        skipLength = MIN_SKIPPED_FRAMES;
+    }
+
+    @Override
+    public void write(IConnectionWriterState writerState) throws NetException {
+        if (currentWriteBuffer == null) {
+            ByteBuffer frame = wiFullQueue.peek();
+            if (frame != null && credits >= frame.remaining()) {
+                currentWriteBuffer = wiFullQueue.poll();
+                credits -= currentWriteBuffer.remaining();
+                encode(currentWriteBuffer);
+            }
+        }
+        if (currentWriteBuffer != null) {
+            ByteBuffer buffer = headerSent ? payload : header;
+            writerState.getCommand().setChannelId(channelId);
+            writerState.getCommand().setCommandType(MuxDemuxCommand.CommandType.DATA);
+            writerState.getCommand().setData(buffer.remaining());
+            writerState.reset(buffer, buffer.remaining(), ccb);
+        } else if (!wiFullQueue.isEmpty()) {
+            adjustChannelWritability();
+        } else if (ecode >= 0 && !ecodeSent) {
+            writerState.getCommand().setChannelId(channelId);
+            writerState.getCommand().setCommandType(MuxDemuxCommand.CommandType.ERROR);
+            writerState.getCommand().setData(ecode);
+            writerState.reset(null, 0, null);
+            ecodeSent = true;
+            ccb.reportLocalEOS();
+            adjustChannelWritability();
+        } else if (eos && !eosSent) {
+            writerState.getCommand().setChannelId(channelId);
+            writerState.getCommand().setCommandType(MuxDemuxCommand.CommandType.CLOSE_CHANNEL);
+            writerState.getCommand().setData(0);
+            writerState.reset(null, 0, null);
+            eosSent = true;
+            ccb.reportLocalEOS();
+            adjustChannelWritability();
+        }
+    }
+
+    @Override
+    public void writeComplete() {
+        if (!headerSent) {
+            headerSent = true;
+            return;
+        }
+        headerSent = false;
+        payload = null;
+        currentWriteBuffer.clear();
+        eba.accept(currentWriteBuffer);
+        currentWriteBuffer = null;
+        adjustChannelWritability();
+    }
+
+    @Override
+    protected boolean computeWritability() {
+        if (currentWriteBuffer != null) {
+            return true;
+        }
+        ByteBuffer frame = wiFullQueue.peek();
+        if (frame != null) {
+            return credits >= frame.remaining();
+        }
+        return (eos && !eosSent) || (ecode >= 0 && !ecodeSent);
+    }
+
+    @Override
+    public void setBufferFactory(IBufferFactory bufferFactory, int limit, int frameSize) {
+        if (!channelWritabilityState) {
+            ccb.markPendingWrite();
+        }
+        channelWritabilityState = true;
+        if (eos) {
+            if (LOGGER.isWarnEnabled()) {
+                LOGGER.warn("Received duplicate close() on channel: " + channelId);
+            }
+            return;
+        }
+        eos = true;
+    }
+
+    private void encode(ByteBuffer frame) throws NetException {
+        int frameSize = frame.remaining();
+        payload = frame;
+        if (shouldCompress(frameSize)) {
+            int maxSize = compressor.computeCompressedBufferSize(frameSize);
+            if (compressedBuffer.capacity() < maxSize) {
+                compressedBuffer = ByteBuffer.allocate(maxSize);
+            }
+            compressedBuffer.clear();
+            try {
+                compressor.compress(frame, compressedBuffer);
+            } catch (HyracksDataException e) {
+                throw new NetException(e);
+            }
+            int compressedSize = compressedBuffer.remaining();
+            if (compressedSize * 8 <= frameSize * MAX_COMPRESSED_EIGHTHS) {
+                payload = compressedBuffer;
+                poorFrames = 0;
+                skipLength = MIN_SKIPPED_FRAMES;
+                perfCounters.addCompressedFrame(frameSize, compressedSize);
+            } else if (++poorFrames >= POOR_FRAMES_BEFORE_SKIP) {
+                // back off exponentially while the data keeps compressing poorly
+                framesToSkip = skipLength;
+                skipLength = Math.min(skipLength * 2, MAX_SKIPPED_FRAMES);
+                poorFrames = POOR_FRAMES_BEFORE_SKIP - 1;
+            }
+        }
+        if (payload == frame) {
+            perfCounters.addUncompressedFrame();
+        }
+        header.clear();
+        header.putInt(frameSize);
+        header.putInt(payload.remaining());
+        header.flip();
+        headerSent = false;
+    }
+
+    private boolean shouldCompress(int frameSize) {
+        if (frameSize < MIN_COMPRESSIBLE_SIZE) {
+            return false;
+        }
+        if (framesToSkip > 0) {
+            framesToSkip--;
+            return false;
+        }
+        return true;
+    }
+}
@@ -410,6 +410,10 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
         return muxDemux.getChannelInterfaceFactory();
     }
 
+    MuxDemuxPerformanceCounters getPerformanceCounters() {
+        return muxDemux.getPerformanceCounters();
+    }
+
     @ThreadSafetyGuaranteedBy("MultiplexedConnection.this")
     private class EventCounter implements IEventCounter {
         private int counter;
@@ -29,11 +29,23 @@ public class MuxDemuxPerformanceCounters {
 
     private final AtomicLong signalingBytesWritten;
 
+    private final AtomicLong compressedFrames;
+
+    private final AtomicLong uncompressedFrames;
+
+    private final AtomicLong compressionInputBytes;
+
+    private final AtomicLong compressionOutputBytes;
+
     public MuxDemuxPerformanceCounters() {
         payloadBytesRead = new AtomicLong();
         payloadBytesWritten = new AtomicLong();
         signalingBytesRead = new AtomicLong();
         signalingBytesWritten = new AtomicLong();
+        compressedFrames = new AtomicLong();
+        uncompressedFrames = new AtomicLong();
+        compressionInputBytes = new AtomicLong();
+        compressionOutputBytes = new AtomicLong();
     }
 
     public void addPayloadBytesRead(long delta) {
@@ -67,4 +79,43 @@ public class MuxDemuxPerformanceCounters {
     public long getSignalingBytesWritten() {
         return signalingBytesWritten.get();
     }
+
+    public void addCompressedFrame(int inputBytes, int outputBytes) {
+        compressedFrames.incrementAndGet();
+        compressionInputBytes.addAndGet(inputBytes);
+        compressionOutputBytes.addAndGet(outputBytes);
+    }
+
+    /**
+     * @return the number of frames sent compressed by compressing channels
+     */
+    public long getCompressedFrames() {
+        return compressedFrames.get();
+    }
+
+    /**
+     * @return the size of the frames sent compressed, before compression
+     */
+    public long getCompressionInputBytes() {
+        return compressionInputBytes.get();
+    }
+
+    /**
+     * @return the size of the frames sent compressed, after compression
+     */
+    public long getCompressionOutputBytes() {
+        return compressionOutputBytes.get();
+    }
+
+    public void addUncompressedFrame() {
+        uncompressedFrames.incrementAndGet();
+    }
+
+    /**
+     * @return the number of frames that compressing channels sent as is because they were too small, compressed
+     *         poorly or were skipped after a series of poorly compressing frames
+     */
+    public long getUncompressedFrames() {
+        return uncompressedFrames.get();
+    }
 }
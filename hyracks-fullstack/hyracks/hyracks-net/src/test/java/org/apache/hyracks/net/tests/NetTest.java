@@ -26,23 +26,43 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.hyracks.api.comm.IBufferAcceptor;
+import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
 import org.apache.hyracks.api.comm.ICloseableBufferAcceptor;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
+import org.apache.hyracks.net.protocols.muxdemux.CompressedFullFrameChannelInterfaceFactory;
 import org.apache.hyracks.net.protocols.muxdemux.FullFrameChannelInterfaceFactory;
 import org.apache.hyracks.net.protocols.muxdemux.IChannelOpenListener;
 import org.apache.hyracks.net.protocols.muxdemux.MultiplexedConnection;
 import org.apache.hyracks.net.protocols.muxdemux.MuxDemux;
+import org.apache.hyracks.net.protocols.muxdemux.MuxDemuxPerformanceCounters;
 import org.junit.Assert;
 import org.junit.Test;
 
 public class NetTest {
     @Test
     public void test() throws Exception {
+        exchange(FullFrameChannelInterfaceFactory.INSTANCE);
+    }
+
+    @Test
+    public void testCompressed() throws Exception {
+        MuxDemux md1 = exchange(new CompressedFullFrameChannelInterfaceFactory(new ZeroSuppressionFactory()));
+        MuxDemuxPerformanceCounters counters = md1.getPerformanceCounters();
+        // the frames of the positive sequence compress well, those of the negative sequence do not
+        Assert.assertTrue(counters.getCompressedFrames() > 0);
+        Assert.assertTrue(counters.getUncompressedFrames() > 0);
+        Assert.assertTrue(counters.getCompressionOutputBytes() < counters.getCompressionInputBytes());
+    }
+
+    private MuxDemux exchange(IChannelInterfaceFactory channelInterfaceFactory) throws Exception {
         AtomicBoolean failFlag = new AtomicBoolean();
 
-        MuxDemux md1 = createMuxDemux("md1", failFlag);
+        MuxDemux md1 = createMuxDemux("md1", failFlag, channelInterfaceFactory);
         md1.start();
-        MuxDemux md2 = createMuxDemux("md2", failFlag);
+        MuxDemux md2 = createMuxDemux("md2", failFlag, channelInterfaceFactory);
         md2.start();
         InetSocketAddress md2Address = md2.getLocalAddress();
 
@@ -57,6 +77,7 @@ public class NetTest {
         t2.join();
 
         Assert.assertFalse("Failure flag was set to true", failFlag.get());
+        return md1;
     }
 
     private Thread createThread(final MultiplexedConnection md1md2, final int factor) {
@@ -108,7 +129,8 @@ public class NetTest {
 
     }
 
-    private MuxDemux createMuxDemux(final String label, final AtomicBoolean failFlag) {
+    private MuxDemux createMuxDemux(final String label, final AtomicBoolean failFlag,
+            IChannelInterfaceFactory channelInterfaceFactory) {
         IChannelOpenListener md1OpenListener = new IChannelOpenListener() {
             @Override
             public void channelOpened(final ChannelControlBlock channel) {
@@ -161,8 +183,7 @@ public class NetTest {
                 }.start();
             }
         };
-        return new MuxDemux(new InetSocketAddress("127.0.0.1", 0), md1OpenListener, 1, 5,
-                FullFrameChannelInterfaceFactory.INSTANCE);
+        return new MuxDemux(new InetSocketAddress("127.0.0.1", 0), md1OpenListener, 1, 5, channelInterfaceFactory);
     }
 
     private class ChannelIO {
@@ -214,4 +235,59 @@ public class NetTest {
             };
         }
     }
+
+    /**
+     * Encodes every group of 8 bytes as a bitmap of its non-zero bytes followed by these bytes.
+     */
+    private static class ZeroSuppressionFactory implements ICompressorDecompressorFactory {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public ICompressorDecompressor createInstance() {
+            return new ICompressorDecompressor() {
+                @Override
+                public int computeCompressedBufferSize(int uncompressedBufferSize) {
+                    return uncompressedBufferSize + (uncompressedBufferSize + 7) / 8;
+                }
+
+                @Override
+                public ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) {
+                    int op = cBuffer.position();
+                    for (int ip = uBuffer.position(); ip < uBuffer.limit(); ip += 8) {
+                        int maskPos = op++;
+                        int mask = 0;
+                        for (int i = 0; i < 8 && ip + i < uBuffer.limit(); i++) {
+                            byte b = uBuffer.get(ip + i);
+                            if (b != 0) {
+                                mask |= 1 << i;
+                                cBuffer.put(op++, b);
+                            }
+                        }
+                        cBuffer.put(maskPos, (byte) mask);
+                    }
+                    cBuffer.limit(op);
+                    return cBuffer;
+                }
+
+                @Override
+                public ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException {
+                    int op = uBuffer.position();
+                    int ip = cBuffer.position();
+                    while (ip < cBuffer.limit()) {
+                        int mask = cBuffer.get(ip++) & 0xff;
+                        for (int i = 0; i < 8 && op < uBuffer.limit(); i++) {
+                            uBuffer.put(op++, (mask & (1 << i)) != 0 ? cBuffer.get(ip++) : 0);
+                        }
+                    }
+                    uBuffer.limit(op);
+                    return uBuffer;
+                }
+            };
+        }
+
+        @Override
+        public String getName() {
+            return "zero-suppression";
+        }
+    }
 }
@@ -45,6 +45,7 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
     protected final ITreeIndexTupleReference frameTuple;
     protected final boolean exclusiveLatchNodes;
     protected boolean isPageDirty;
+    protected boolean sequentialAccess;
 
     protected IBufferCache bufferCache = null;
     protected int fileId = -1;
@@ -99,6 +100,11 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
         return pageId;
     }
 
+    @Override
+    public void setSequentialAccess(boolean sequentialAccess) {
+        this.sequentialAccess = sequentialAccess;
+    }
+
     protected void fetchNextLeafPage(int nextLeafPage) throws HyracksDataException {
         do {
             ICachedPage nextLeaf = acquirePage(nextLeafPage);
@@ -294,7 +300,8 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
     }
 
     protected ICachedPage acquirePage(int pageId) throws HyracksDataException {
-        ICachedPage nextPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        ICachedPage nextPage =
+                bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false, sequentialAccess);
         if (exclusiveLatchNodes) {
             nextPage.acquireWriteLatch();
         } else {
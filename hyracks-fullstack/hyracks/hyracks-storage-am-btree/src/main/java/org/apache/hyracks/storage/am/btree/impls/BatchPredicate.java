@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.btree.impls;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.tuples.PermutingFrameTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * A predicate for the point lookups of all keys of a frame. The keys are ordered by the key comparator, keys that
+ * are equal keep their order in the frame. A search with this predicate has no low and high key, the keys are
+ * accessed by their position in the key order.
+ */
+public class BatchPredicate extends RangePredicate {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient PermutingFrameTupleReference key;
+    private final transient PermutingFrameTupleReference otherKey;
+    private final MultiComparator keyCmp;
+    private transient IFrameTupleAccessor accessor;
+    private int[] tupleIndexes = new int[0];
+    private int[] buffer = new int[0];
+    private int keyCount;
+
+    public BatchPredicate(int[] keyFields, MultiComparator keyCmp) {
+        super(null, null, true, true, keyCmp, keyCmp);
+        this.keyCmp = keyCmp;
+        key = new PermutingFrameTupleReference(keyFields);
+        otherKey = new PermutingFrameTupleReference(keyFields);
+    }
+
+    /**
+     * Sets the keys of the predicate to the keys of the tuples of the frame
+     */
+    public void reset(IFrameTupleAccessor accessor) throws HyracksDataException {
+        this.accessor = accessor;
+        keyCount = accessor.getTupleCount();
+        if (tupleIndexes.length < keyCount) {
+            tupleIndexes = new int[keyCount];
+            buffer = new int[keyCount];
+        }
+        boolean sorted = true;
+        for (int i = 0; i < keyCount; i++) {
+            tupleIndexes[i] = i;
+            if (sorted && i > 0) {
+                sorted = compare(i - 1, i) <= 0;
+            }
+        }
+        if (!sorted) {
+            sort(0, keyCount);
+        }
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * @return the index in the frame of the tuple with the key at the given position
+     */
+    public int getTupleIndex(int position) {
+        return tupleIndexes[position];
+    }
+
+    /**
+     * @return the key at the given position. The returned reference is reused by the next call.
+     */
+    public ITupleReference getKey(int position) {
+        key.reset(accessor, tupleIndexes[position]);
+        return key;
+    }
+
+    public MultiComparator getKeyComparator() {
+        return keyCmp;
+    }
+
+    // a merge sort, since the order of tuples with equal keys must be kept
+    private void sort(int from, int to) throws HyracksDataException {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(from, mid);
+        sort(mid, to);
+        if (compareTuples(tupleIndexes[mid - 1], tupleIndexes[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(tupleIndexes, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && compareTuples(buffer[left], buffer[right]) <= 0)) {
+                tupleIndexes[i] = buffer[left++];
+            } else {
+                tupleIndexes[i] = buffer[right++];
+            }
+        }
+    }
+
+    private int compare(int position, int otherPosition) throws HyracksDataException {
+        return compareTuples(tupleIndexes[position], tupleIndexes[otherPosition]);
+    }
+
+    private int compareTuples(int tupleIndex, int otherTupleIndex) throws HyracksDataException {
+        key.reset(accessor, tupleIndex);
+        otherKey.reset(accessor, otherTupleIndex);
+        return keyCmp.compare(key, otherKey);
+    }
+}
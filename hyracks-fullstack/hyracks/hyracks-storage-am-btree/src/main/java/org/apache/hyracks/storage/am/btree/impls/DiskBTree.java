@@ -92,7 +92,7 @@ public class DiskBTree extends BTree {
             // we have to search from root to leaf
             ICachedPage rootNode = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), rootPage), false);
             diskCursor.addSearchPage(rootPage);
-            searchDown(rootNode, rootPage, ctx, diskCursor);
+            searchDown(rootNode, rootPage, ctx, diskCursor, false);
         } else {
             // we first check whether the leaf page matches because page may be shifted during cursor.hasNext
             if (ctx.getLeafFrame().getPage() != diskCursor.getPage()) {
@@ -103,7 +103,7 @@ public class DiskBTree extends BTree {
 
             if (fitInPage(ctx.getPred().getLowKey(), ctx.getPred().getLowKeyComparator(), ctx.getLeafFrame())) {
                 // the input still falls into the previous search leaf
-                diskCursor.open(ctx.getCursorInitialState(), searchPred);
+                diskCursor.reopen(ctx.getCursorInitialState(), searchPred);
             } else {
                 // unpin the previous leaf page
                 bufferCache.unpin(ctx.getLeafFrame().getPage());
@@ -112,7 +112,7 @@ public class DiskBTree extends BTree {
                 ICachedPage page = searchUp(ctx, diskCursor);
                 int pageId = diskCursor.getLastSearchPage();
 
-                searchDown(page, pageId, ctx, diskCursor);
+                searchDown(page, pageId, ctx, diskCursor, true);
             }
         }
     }
@@ -153,8 +153,8 @@ public class DiskBTree extends BTree {
         return comparator.compare(key, leftmostTuple) >= 0;
     }
 
-    private void searchDown(ICachedPage page, int pageId, BTreeOpContext ctx, DiskBTreeRangeSearchCursor cursor)
-            throws HyracksDataException {
+    private void searchDown(ICachedPage page, int pageId, BTreeOpContext ctx, DiskBTreeRangeSearchCursor cursor,
+            boolean reopen) throws HyracksDataException {
         ICachedPage currentPage = page;
         ctx.getInteriorFrame().setPage(currentPage);
 
@@ -176,7 +176,11 @@ public class DiskBTree extends BTree {
             ctx.getCursorInitialState().setPage(currentPage);
             ctx.getCursorInitialState().setPageId(childPageId);
             ctx.getLeafFrame().setPage(currentPage);
-            cursor.open(ctx.getCursorInitialState(), ctx.getPred());
+            if (reopen) {
+                cursor.reopen(ctx.getCursorInitialState(), ctx.getPred());
+            } else {
+                cursor.open(ctx.getCursorInitialState(), ctx.getPred());
+            }
         } catch (HyracksDataException e) {
             if (!ctx.isExceptionHandled() && currentPage != null) {
                 bufferCache.unpin(currentPage);
@@ -272,8 +276,8 @@ public class DiskBTree extends BTree {
 
         @Override
         protected ICachedPage acquireNextPage() throws HyracksDataException {
-            ICachedPage nextPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, currentPageId), false);
-            return nextPage;
+            // a disk order scan reads every page of the file once
+            return bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, currentPageId), false, true);
         }
 
     }
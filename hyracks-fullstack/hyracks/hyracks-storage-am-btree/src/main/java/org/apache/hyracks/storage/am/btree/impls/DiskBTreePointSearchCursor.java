@@ -73,4 +73,15 @@ public class DiskBTreePointSearchCursor extends DiskBTreeRangeSearchCursor {
         tupleIndex = getLowKeyIndex();
     }
 
+    /**
+     * @return true if the searched key was not found and is greater than all keys of the tree. A caller that
+     *         searches keys in ascending order does not need to search the tree for the remaining keys.
+     */
+    public boolean isAfterLastKey() throws HyracksDataException {
+        if (tupleIndex >= 0 || frame.getNextLeaf() >= 0) {
+            return false;
+        }
+        return frame.getTupleCount() == 0 || lowKeyCmp.compare(lowKey, frame.getRightmostTuple()) > 0;
+    }
+
 }
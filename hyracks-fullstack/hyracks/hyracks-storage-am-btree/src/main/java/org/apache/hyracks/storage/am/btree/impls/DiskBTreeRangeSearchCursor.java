@@ -24,6 +24,8 @@ import java.util.List;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.ISearchPredicate;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 
@@ -68,6 +70,14 @@ public class DiskBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
         // we allow a disk btree range cursor be stateful, that is, the next search can be based on the previous search
     }
 
+    /**
+     * Positions an opened cursor on the result of a search that started from the pages of its previous search. The
+     * cursor stays opened, so that a sequence of searches with increasing keys can be done without closing it.
+     */
+    void reopen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        doOpen(initialState, searchPred);
+    }
+
     public int numSearchPages() {
         return searchPages.size();
     }
@@ -95,7 +105,7 @@ public class DiskBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
 
     @Override
     protected ICachedPage acquirePage(int pageId) throws HyracksDataException {
-        return bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        return bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false, sequentialAccess);
     }
 
     @Override
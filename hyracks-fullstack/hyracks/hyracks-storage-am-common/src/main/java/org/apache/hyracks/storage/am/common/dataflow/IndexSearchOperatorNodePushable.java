@@ -254,7 +254,7 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
                     tb.addFieldEndOffset();
                 }
             }
-            writeTupleToOutput(tuple);
+            writeSearchResultToOutput(tuple);
             if (appendSearchCallbackProceedResult) {
                 writeSearchCallbackProceedResult(tb,
                         ((ILSMIndexCursor) cursor).getSearchOperationCallbackProceedResult());
@@ -343,6 +343,13 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
         writer.fail();
     }
 
+    /**
+     * Writes the fields of a tuple found by the search.
+     */
+    protected void writeSearchResultToOutput(ITupleReference tuple) throws IOException {
+        writeTupleToOutput(tuple);
+    }
+
     private void writeTupleToOutput(ITupleReference tuple) throws IOException {
         try {
             for (int i = 0; i < tuple.getFieldCount(); i++) {
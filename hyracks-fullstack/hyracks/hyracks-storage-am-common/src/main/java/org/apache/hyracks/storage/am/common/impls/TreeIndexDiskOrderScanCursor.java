@@ -151,7 +151,8 @@ public class TreeIndexDiskOrderScanCursor extends EnforcedIndexCursor implements
     }
 
     protected ICachedPage acquireNextPage() throws HyracksDataException {
-        ICachedPage nextPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, currentPageId), false);
+        // a disk order scan reads every page of the file once
+        ICachedPage nextPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, currentPageId), false, true);
         nextPage.acquireReadLatch();
         return nextPage;
     }
@@ -43,6 +43,7 @@ import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
 import org.apache.hyracks.storage.am.lsm.common.api.AbstractLSMWithBloomFilterDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.IComponentFilterHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilterFrameFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponentBulkLoader;
@@ -96,6 +97,29 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
             ILSMIOOperationCallbackFactory ioOpCallbackFactory, boolean needKeyDupCheck, int[] btreeFields,
             int[] filterFields, boolean durable, boolean updateAware, ITracer tracer) throws HyracksDataException {
+        this(ioManager, virtualBufferCaches, interiorFrameFactory, insertLeafFrameFactory, deleteLeafFrameFactory,
+                diskBufferCache, fileManager, componentFactory, bulkLoadComponentFactory, filterHelper,
+                filterFrameFactory, filterManager, bloomFilterFalsePositiveRate, fieldCount, cmpFactories, mergePolicy,
+                opTracker, ioScheduler, ioOpCallbackFactory, needKeyDupCheck, btreeFields, filterFields, durable,
+                updateAware, tracer, false);
+    }
+
+    /**
+     * @param skipListMemoryComponent
+     *            whether the memory components are kept in latch-free skip lists ({@link SkipListBTree}) rather
+     *            than in B-trees.
+     */
+    public LSMBTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
+            ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory insertLeafFrameFactory,
+            ITreeIndexFrameFactory deleteLeafFrameFactory, IBufferCache diskBufferCache,
+            ILSMIndexFileManager fileManager, ILSMDiskComponentFactory componentFactory,
+            ILSMDiskComponentFactory bulkLoadComponentFactory, IComponentFilterHelper filterHelper,
+            ILSMComponentFilterFrameFactory filterFrameFactory, LSMComponentFilterManager filterManager,
+            double bloomFilterFalsePositiveRate, int fieldCount, IBinaryComparatorFactory[] cmpFactories,
+            ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
+            ILSMIOOperationCallbackFactory ioOpCallbackFactory, boolean needKeyDupCheck, int[] btreeFields,
+            int[] filterFields, boolean durable, boolean updateAware, ITracer tracer, boolean skipListMemoryComponent)
+            throws HyracksDataException {
         super(ioManager, virtualBufferCaches, diskBufferCache, fileManager, bloomFilterFalsePositiveRate, mergePolicy,
                 opTracker, ioScheduler, ioOpCallbackFactory, componentFactory, bulkLoadComponentFactory,
                 filterFrameFactory, filterManager, filterFields, durable, filterHelper, btreeFields, tracer);
@@ -105,11 +129,14 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         this.updateAware = updateAware;
         int i = 0;
         for (IVirtualBufferCache virtualBufferCache : virtualBufferCaches) {
-            LSMBTreeMemoryComponent mutableComponent = new LSMBTreeMemoryComponent(this,
-                    new BTree(virtualBufferCache, new VirtualFreePageManager(virtualBufferCache), interiorFrameFactory,
-                            insertLeafFrameFactory, cmpFactories, fieldCount,
-                            ioManager.resolveAbsolutePath(fileManager.getBaseDir() + "_virtual_" + i)),
-                    virtualBufferCache, filterHelper == null ? null : filterHelper.createFilter());
+            FileReference virtualFile = ioManager.resolveAbsolutePath(fileManager.getBaseDir() + "_virtual_" + i);
+            BTree memBTree = skipListMemoryComponent
+                    ? new SkipListBTree(virtualBufferCache, interiorFrameFactory, insertLeafFrameFactory, cmpFactories,
+                            fieldCount, virtualFile)
+                    : new BTree(virtualBufferCache, new VirtualFreePageManager(virtualBufferCache),
+                            interiorFrameFactory, insertLeafFrameFactory, cmpFactories, fieldCount, virtualFile);
+            LSMBTreeMemoryComponent mutableComponent = new LSMBTreeMemoryComponent(this, memBTree, virtualBufferCache,
+                    filterHelper == null ? null : filterHelper.createFilter());
             memoryComponents.add(mutableComponent);
             ++i;
         }
@@ -205,6 +232,15 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             // the key was not in the inmemory component, so check the disk
             // components
 
+            if (ctx.getKeyAbsentComponents() != null) {
+                if (searchNotLookedUpComponents(ctx, searchCursor, predicate)) {
+                    throw HyracksDataException.create(ErrorCode.DUPLICATE_KEY);
+                }
+                ctx.getCurrentMutableBTreeAccessor().upsertIfConditionElseInsert(tuple,
+                        AntimatterAwareTupleAcceptor.INSTANCE);
+                return true;
+            }
+
             // This is a hack to avoid searching the current active mutable component twice. It is critical to add it back once the search is over.
             ILSMComponent firstComponent = ctx.getComponentHolder().remove(0);
             search(ctx, searchCursor, predicate);
@@ -222,6 +258,34 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         return true;
     }
 
+    /**
+     * Searches the key of an insert in the components other than the current mutable component and the disk
+     * components in which a lookup of the keys of a batch did not find the key. The components that became disk
+     * components after the lookup are searched, since they may have the key of a concurrent insert.
+     */
+    private boolean searchNotLookedUpComponents(LSMBTreeOpContext ctx, LSMBTreePointSearchCursor searchCursor,
+            RangePredicate predicate) throws HyracksDataException {
+        List<ILSMComponent> operationalComponents = ctx.getComponentHolder();
+        List<ILSMComponent> searchComponents = ctx.getInsertSearchComponents();
+        searchComponents.clear();
+        for (int i = 1; i < operationalComponents.size(); i++) {
+            ILSMComponent component = operationalComponents.get(i);
+            if (component.getType() == LSMComponentType.MEMORY || !ctx.getKeyAbsentComponents().contains(component)) {
+                searchComponents.add(component);
+            }
+        }
+        if (searchComponents.isEmpty()) {
+            return false;
+        }
+        ctx.getSearchInitialState().reset(predicate, searchComponents);
+        searchCursor.open(ctx.getSearchInitialState(), predicate);
+        try {
+            return searchCursor.hasNext();
+        } finally {
+            searchCursor.close();
+        }
+    }
+
     @Override
     public void search(ILSMIndexOperationContext ictx, IIndexCursor cursor, ISearchPredicate pred)
             throws HyracksDataException {
@@ -474,6 +538,7 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             returnDeletedTuples = true;
         }
         LSMBTreeRangeSearchCursor cursor = new LSMBTreeRangeSearchCursor(opCtx, returnDeletedTuples);
+        cursor.setSequentialAccess(true);
         return new LSMBTreeMergeOperation(accessor, cursor, mergeFileRefs.getInsertIndexFileReference(),
                 mergeFileRefs.getBloomFilterFileReference(), callback, getIndexIdentifier());
     }
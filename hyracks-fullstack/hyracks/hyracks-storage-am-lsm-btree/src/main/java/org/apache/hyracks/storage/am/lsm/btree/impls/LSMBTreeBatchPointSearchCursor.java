@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.btree.impls;
+
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.util.CleanupUtils;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
+import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
+import org.apache.hyracks.storage.am.btree.impls.BatchPredicate;
+import org.apache.hyracks.storage.am.btree.impls.DiskBTreePointSearchCursor;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.api.ILSMIndexCursor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+import org.apache.hyracks.storage.common.EnforcedIndexCursor;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+
+/**
+ * A cursor that looks up all keys of a {@link BatchPredicate}, one key after the other in key order.
+ * {@link #next()} moves the cursor to the next key and {@link #find()} looks it up.
+ * <p>
+ * Memory components are searched for every key, so that a lookup sees the modifications that were done after the
+ * cursor was opened. Disk components are immutable: they are searched with stateful cursors that stay on the leaf
+ * of the previous key and only traverse the tree when a key is not in that leaf, and they are only searched if
+ * their Bloom filter contains the key and if they have keys greater or equal to the key.
+ * <p>
+ * The cursor does not call the search callback, the keys must be locked by the caller before they are looked up.
+ */
+public class LSMBTreeBatchPointSearchCursor extends EnforcedIndexCursor implements ILSMIndexCursor {
+
+    private final ILSMIndexOperationContext opCtx;
+    private final RangePredicate keyPredicate = new RangePredicate(null, null, true, true, null, null);
+    private final long[] hashes = BloomFilter.createHashArray();
+    private BatchPredicate predicate;
+    private ILSMHarness lsmHarness;
+    private List<ILSMComponent> operationalComponents;
+    private int numBTrees;
+    private BTreeAccessor[] btreeAccessors;
+    private ITreeIndexCursor[] btreeCursors;
+    private BloomFilter[] bloomFilters;
+    // disk components whose keys are all less than the key of the current position
+    private boolean[] exhausted;
+    private ArrayTupleBuilder memoryTupleBuilder;
+    private final ArrayTupleReference memoryTuple = new ArrayTupleReference();
+    private int position;
+    private ITupleReference foundTuple;
+    private int foundIn = -1;
+
+    public LSMBTreeBatchPointSearchCursor(ILSMIndexOperationContext opCtx) {
+        this.opCtx = opCtx;
+    }
+
+    @Override
+    public void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        LSMBTreeCursorInitialState lsmInitialState = (LSMBTreeCursorInitialState) initialState;
+        operationalComponents = lsmInitialState.getOperationalComponents();
+        lsmHarness = lsmInitialState.getLSMHarness();
+        predicate = (BatchPredicate) searchPred;
+        keyPredicate.setLowKeyComparator(predicate.getKeyComparator());
+        keyPredicate.setHighKeyComparator(predicate.getKeyComparator());
+        numBTrees = operationalComponents.size();
+        if (btreeCursors != null && btreeCursors.length != numBTrees) {
+            Throwable failure = CleanupUtils.destroy(null, btreeCursors);
+            btreeCursors = null;
+            failure = CleanupUtils.destroy(failure, btreeAccessors);
+            btreeAccessors = null;
+            if (failure != null) {
+                throw HyracksDataException.create(failure);
+            }
+        }
+        if (btreeCursors == null) {
+            btreeCursors = new ITreeIndexCursor[numBTrees];
+            btreeAccessors = new BTreeAccessor[numBTrees];
+            bloomFilters = new BloomFilter[numBTrees];
+            exhausted = new boolean[numBTrees];
+        }
+        for (int i = 0; i < numBTrees; i++) {
+            ILSMComponent component = operationalComponents.get(i);
+            BTree btree = (BTree) component.getIndex();
+            if (component.getType() == LSMComponentType.MEMORY) {
+                if (bloomFilters[i] != null) {
+                    destroyAndNullifyCursorAtIndex(i);
+                }
+            } else {
+                if (bloomFilters[i] == null) {
+                    destroyAndNullifyCursorAtIndex(i);
+                }
+                bloomFilters[i] = ((LSMBTreeWithBloomFilterDiskComponent) component).getBloomFilter();
+            }
+            if (btreeAccessors[i] == null) {
+                btreeAccessors[i] = btree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+                btreeCursors[i] = btreeAccessors[i].createPointCursor(false);
+            } else {
+                btreeAccessors[i].reset(btree, NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
+                btreeCursors[i].close();
+            }
+            exhausted[i] = false;
+        }
+        position = -1;
+        foundTuple = null;
+        foundIn = -1;
+    }
+
+    private void destroyAndNullifyCursorAtIndex(int i) throws HyracksDataException {
+        // component at location i was a disk component before, and is now a memory component, or vise versa
+        bloomFilters[i] = null;
+        Throwable failure = CleanupUtils.destroy(null, btreeCursors[i]);
+        btreeCursors[i] = null;
+        failure = CleanupUtils.destroy(failure, btreeAccessors[i]);
+        btreeAccessors[i] = null;
+        if (failure != null) {
+            throw HyracksDataException.create(failure);
+        }
+    }
+
+    @Override
+    public boolean doHasNext() throws HyracksDataException {
+        return position + 1 < predicate.getKeyCount();
+    }
+
+    @Override
+    public void doNext() throws HyracksDataException {
+        position++;
+        foundTuple = null;
+        foundIn = -1;
+    }
+
+    /**
+     * Adds the disk components that the cursor searches to the given list.
+     */
+    public void getDiskComponents(List<ILSMComponent> diskComponents) {
+        for (int i = 0; i < numBTrees; i++) {
+            if (bloomFilters[i] != null) {
+                diskComponents.add(operationalComponents.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return the index in the frame of the tuple with the key at the current position
+     */
+    public int getKeyIndex() {
+        return predicate.getTupleIndex(position);
+    }
+
+    /**
+     * Looks up the key at the current position. If the key is found, the tuple is returned by {@link #getTuple()}
+     * until the cursor moves to the next key.
+     *
+     * @return true if the index has a tuple with the key, false if not or if the latest tuple is an antimatter tuple
+     */
+    public boolean find() throws HyracksDataException {
+        ITupleReference key = predicate.getKey(position);
+        keyPredicate.setLowKey(key, true);
+        keyPredicate.setHighKey(key, true);
+        for (int i = 0; i < numBTrees; i++) {
+            if (bloomFilters[i] == null) {
+                if (findInMemoryComponent(i)) {
+                    return foundTuple != null;
+                }
+            } else if (!exhausted[i] && bloomFilters[i].contains(key, hashes)) {
+                // the cursor of a disk component stays open, the next search starts from the current leaf
+                btreeAccessors[i].search(btreeCursors[i], keyPredicate);
+                if (btreeCursors[i].hasNext()) {
+                    btreeCursors[i].next();
+                    ITupleReference tuple = btreeCursors[i].getTuple();
+                    if (!((ILSMTreeTupleReference) tuple).isAntimatter()) {
+                        foundTuple = tuple;
+                        foundIn = i;
+                    }
+                    return foundTuple != null;
+                }
+                // the keys of the batch are ascending, the component has no greater keys
+                exhausted[i] = ((DiskBTreePointSearchCursor) btreeCursors[i]).isAfterLastKey();
+            }
+        }
+        return false;
+    }
+
+    private boolean findInMemoryComponent(int i) throws HyracksDataException {
+        // the tuple is copied, since a memory component can be modified as soon as the leaf is unlatched
+        btreeAccessors[i].search(btreeCursors[i], keyPredicate);
+        try {
+            if (!btreeCursors[i].hasNext()) {
+                return false;
+            }
+            btreeCursors[i].next();
+            ITupleReference tuple = btreeCursors[i].getTuple();
+            if (!((ILSMTreeTupleReference) tuple).isAntimatter()) {
+                if (memoryTupleBuilder == null) {
+                    memoryTupleBuilder = new ArrayTupleBuilder(tuple.getFieldCount());
+                }
+                TupleUtils.copyTuple(memoryTupleBuilder, tuple, tuple.getFieldCount());
+                memoryTuple.reset(memoryTupleBuilder.getFieldEndOffsets(), memoryTupleBuilder.getByteArray());
+                foundTuple = memoryTuple;
+                foundIn = i;
+            }
+            return true;
+        } finally {
+            btreeCursors[i].close();
+        }
+    }
+
+    @Override
+    public void doClose() throws HyracksDataException {
+        try {
+            closeCursors();
+            foundTuple = null;
+            foundIn = -1;
+        } finally {
+            if (lsmHarness != null) {
+                lsmHarness.endSearch(opCtx);
+            }
+        }
+    }
+
+    private void closeCursors() throws HyracksDataException {
+        if (btreeCursors != null) {
+            for (int i = 0; i < numBTrees; ++i) {
+                if (btreeCursors[i] != null) {
+                    btreeCursors[i].close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void doDestroy() throws HyracksDataException {
+        if (btreeCursors != null) {
+            for (int i = 0; i < numBTrees; ++i) {
+                if (btreeCursors[i] != null) {
+                    btreeCursors[i].destroy();
+                }
+            }
+        }
+    }
+
+    @Override
+    public ITupleReference doGetTuple() {
+        return foundTuple;
+    }
+
+    @Override
+    public ITupleReference getFilterMinTuple() {
+        ILSMComponentFilter filter = getFilter();
+        return filter == null ? null : filter.getMinTuple();
+    }
+
+    @Override
+    public ITupleReference getFilterMaxTuple() {
+        ILSMComponentFilter filter = getFilter();
+        return filter == null ? null : filter.getMaxTuple();
+    }
+
+    private ILSMComponentFilter getFilter() {
+        return foundIn < 0 ? null : operationalComponents.get(foundIn).getLSMComponentFilter();
+    }
+
+    @Override
+    public boolean getSearchOperationCallbackProceedResult() {
+        return false;
+    }
+}
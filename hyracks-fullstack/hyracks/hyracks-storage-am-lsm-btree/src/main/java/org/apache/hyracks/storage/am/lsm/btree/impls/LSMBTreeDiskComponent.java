@@ -21,14 +21,22 @@ package org.apache.hyracks.storage.am.lsm.btree.impls;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.apache.hyracks.api.io.CompressedFileReference;
+import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManager;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+import org.apache.hyracks.storage.am.lsm.common.impls.IChainedComponentBulkLoader;
+import org.apache.hyracks.storage.am.lsm.common.impls.StatisticsBulkLoader;
 
 public class LSMBTreeDiskComponent extends AbstractLSMDiskComponent {
+    // statistics are only kept for the leading key fields to bound the size of the component metadata
+    static final int MAX_STATISTICS_FIELDS = 4;
     protected final DiskBTree btree;
 
     public LSMBTreeDiskComponent(AbstractLSMIndex lsmIndex, DiskBTree btree, ILSMComponentFilter filter) {
@@ -61,17 +69,36 @@ public class LSMBTreeDiskComponent extends AbstractLSMDiskComponent {
         return getFiles(btree);
     }
 
+    @Override
+    protected IChainedComponentBulkLoader createStatisticsBulkLoader() {
+        return createStatisticsBulkLoader(this, btree);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + ":" + btree.getFileReference().getRelativePath();
     }
 
+    static IChainedComponentBulkLoader createStatisticsBulkLoader(ILSMDiskComponent component, BTree btree) {
+        int numFields = Math.min(btree.getComparatorFactories().length, MAX_STATISTICS_FIELDS);
+        // the statistics share the metadata page with the component id and the filter, skip them on small pages
+        if (ComponentStatistics.getSerializedSize(numFields) > btree.getBufferCache().getPageSize() / 2) {
+            return null;
+        }
+        return new StatisticsBulkLoader(component, numFields);
+    }
+
     static IMetadataPageManager getMetadataPageManager(BTree btree) {
         return (IMetadataPageManager) btree.getPageManager();
     }
 
     static long getComponentSize(BTree btree) {
-        return btree.getFileReference().getFile().length();
+        FileReference fileRef = btree.getFileReference();
+        long size = fileRef.getFile().length();
+        if (fileRef instanceof CompressedFileReference) {
+            size += ((CompressedFileReference) fileRef).getLAFFileReference().getFile().length();
+        }
+        return size;
     }
 
     static int getFileReferenceCount(BTree btree) {
@@ -80,7 +107,11 @@ public class LSMBTreeDiskComponent extends AbstractLSMDiskComponent {
 
     static Set<String> getFiles(BTree btree) {
         Set<String> files = new HashSet<>();
-        files.add(btree.getFileReference().getFile().getAbsolutePath());
+        FileReference fileRef = btree.getFileReference();
+        files.add(fileRef.getFile().getAbsolutePath());
+        if (fileRef instanceof CompressedFileReference) {
+            files.add(((CompressedFileReference) fileRef).getLAFFileReference().getFile().getAbsolutePath());
+        }
         return files;
     }
 }
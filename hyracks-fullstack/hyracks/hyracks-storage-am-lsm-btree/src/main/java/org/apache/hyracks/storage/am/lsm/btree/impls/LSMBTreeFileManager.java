@@ -28,8 +28,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.CompressedFileReference;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.util.IoUtil;
@@ -47,7 +49,13 @@ public class LSMBTreeFileManager extends AbstractLSMIndexFileManager {
 
     public LSMBTreeFileManager(IIOManager ioManager, FileReference file,
             TreeIndexFactory<? extends ITreeIndex> btreeFactory, boolean hasBloomFilter) {
-        super(ioManager, file, null);
+        this(ioManager, file, btreeFactory, hasBloomFilter, null);
+    }
+
+    public LSMBTreeFileManager(IIOManager ioManager, FileReference file,
+            TreeIndexFactory<? extends ITreeIndex> btreeFactory, boolean hasBloomFilter,
+            ICompressorDecompressorFactory compressorDecompressorFactory) {
+        super(ioManager, file, null, compressorDecompressorFactory);
         this.btreeFactory = btreeFactory;
         this.hasBloomFilter = hasBloomFilter;
     }
@@ -57,8 +65,8 @@ public class LSMBTreeFileManager extends AbstractLSMIndexFileManager {
         String ts = getCurrentTimestamp();
         String baseName = ts + DELIMITER + ts;
         // Begin timestamp and end timestamp are identical since it is a flush
-        return new LSMComponentFileReferences(baseDir.getChild(baseName + DELIMITER + BTREE_SUFFIX), null,
-                hasBloomFilter ? baseDir.getChild(baseName + DELIMITER + BLOOM_FILTER_SUFFIX) : null);
+        return new LSMComponentFileReferences(getCompressedFileReferenceIfAny(baseName + DELIMITER + BTREE_SUFFIX),
+                null, hasBloomFilter ? baseDir.getChild(baseName + DELIMITER + BLOOM_FILTER_SUFFIX) : null);
     }
 
     @Override
@@ -69,8 +77,8 @@ public class LSMBTreeFileManager extends AbstractLSMIndexFileManager {
 
         String baseName = firstTimestampRange[0] + DELIMITER + lastTimestampRange[1];
         // Get the range of timestamps by taking the earliest and the latest timestamps
-        return new LSMComponentFileReferences(baseDir.getChild(baseName + DELIMITER + BTREE_SUFFIX), null,
-                hasBloomFilter ? baseDir.getChild(baseName + DELIMITER + BLOOM_FILTER_SUFFIX) : null);
+        return new LSMComponentFileReferences(getCompressedFileReferenceIfAny(baseName + DELIMITER + BTREE_SUFFIX),
+                null, hasBloomFilter ? baseDir.getChild(baseName + DELIMITER + BLOOM_FILTER_SUFFIX) : null);
     }
 
     @Override
@@ -148,7 +156,7 @@ public class LSMBTreeFileManager extends AbstractLSMIndexFileManager {
                     && (!hasBloomFilter || (currentBloomFilter.interval[0].compareTo(lastBloomFilter.interval[0]) >= 0
                             && currentBloomFilter.interval[1].compareTo(lastBloomFilter.interval[1]) <= 0))) {
                 // Invalid files are completely contained in last interval.
-                IoUtil.delete(new File(currentBTree.fullPath));
+                delete(currentBTree.fileRef);
                 if (hasBloomFilter) {
                     IoUtil.delete(new File(currentBloomFilter.fullPath));
                 }
@@ -188,8 +196,8 @@ public class LSMBTreeFileManager extends AbstractLSMIndexFileManager {
         IoUtil.create(baseDir.getChild(TXN_PREFIX + ts));
         String baseName = ts + DELIMITER + ts;
         // Begin timestamp and end timestamp are identical since it is a transaction
-        return new LSMComponentFileReferences(baseDir.getChild(baseName + DELIMITER + BTREE_SUFFIX), null,
-                baseDir.getChild(baseName + DELIMITER + BLOOM_FILTER_SUFFIX));
+        return new LSMComponentFileReferences(getCompressedFileReferenceIfAny(baseName + DELIMITER + BTREE_SUFFIX),
+                null, baseDir.getChild(baseName + DELIMITER + BLOOM_FILTER_SUFFIX));
     }
 
     @Override
@@ -212,7 +220,10 @@ public class LSMBTreeFileManager extends AbstractLSMIndexFileManager {
         FileReference bloomFilterFileRef = null;
         for (String fileName : files) {
             if (fileName.endsWith(BTREE_SUFFIX)) {
-                bTreeFileRef = baseDir.getChild(fileName);
+                bTreeFileRef = getCompressedFileReferenceIfAny(fileName);
+            } else if (CompressedFileReference.isLAF(fileName)) {
+                // belongs to the compressed btree file
+                continue;
             } else if (fileName.endsWith(BLOOM_FILTER_SUFFIX)) {
                 bloomFilterFileRef = baseDir.getChild(fileName);
             } else {
@@ -19,6 +19,7 @@
 
 package org.apache.hyracks.storage.am.lsm.btree.impls;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
@@ -34,6 +35,7 @@ import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
 import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
 import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
 import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMHarness;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMemoryComponent;
@@ -60,11 +62,13 @@ public final class LSMBTreeOpContext extends AbstractLSMIndexOperationContext {
     private final BTreeRangeSearchCursor memCursor;
     private final LSMBTreeCursorInitialState searchInitialState;
     private final LSMBTreePointSearchCursor insertSearchCursor;
+    private final List<ILSMComponent> insertSearchComponents = new ArrayList<>();
     /*
      * Mutables
      */
     private BTree.BTreeAccessor currentMutableBTreeAccessor;
     private BTreeOpContext currentMutableBTreeOpCtx;
+    private List<ILSMComponent> keyAbsentComponents;
     private boolean destroyed = false;
 
     public LSMBTreeOpContext(ILSMIndex index, List<ILSMMemoryComponent> mutableComponents,
@@ -106,7 +110,8 @@ public final class LSMBTreeOpContext extends AbstractLSMIndexOperationContext {
             deleteLeafFrame.setMultiComparator(getCmp());
         }
         searchPredicate = new RangePredicate(null, null, true, true, getCmp(), getCmp());
-        memCursor = (insertLeafFrame != null) ? new BTreeRangeSearchCursor(insertLeafFrame, false) : null;
+        // the memory cursor is created by an accessor since the memory component may not be a paged B-tree
+        memCursor = (insertLeafFrame != null) ? mutableBTreeAccessors[0].createSearchCursor(false) : null;
         searchInitialState = new LSMBTreeCursorInitialState(insertLeafFrameFactory, getCmp(), bloomFilterCmp,
                 lsmHarness, null, searchCallback, null);
         insertSearchCursor = new LSMBTreePointSearchCursor(this);
@@ -163,6 +168,25 @@ public final class LSMBTreeOpContext extends AbstractLSMIndexOperationContext {
         return insertSearchCursor;
     }
 
+    /**
+     * @return the list of the components that the duplicate check of an insert searches, reused by every insert
+     */
+    public List<ILSMComponent> getInsertSearchComponents() {
+        return insertSearchComponents;
+    }
+
+    /**
+     * Sets the disk components that a lookup of the keys of a batch found not to have the key of the next insert.
+     * The duplicate check of the insert does not search them again. Null if the key was not looked up or was found.
+     */
+    public void setKeyAbsentComponents(List<ILSMComponent> keyAbsentComponents) {
+        this.keyAbsentComponents = keyAbsentComponents;
+    }
+
+    public List<ILSMComponent> getKeyAbsentComponents() {
+        return keyAbsentComponents;
+    }
+
     public BTreeRangeSearchCursor getMemCursor() {
         return memCursor;
     }
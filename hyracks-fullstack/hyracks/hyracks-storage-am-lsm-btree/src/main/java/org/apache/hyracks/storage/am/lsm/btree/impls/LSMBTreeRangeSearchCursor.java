@@ -232,8 +232,17 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
                     copyTuple.reset(switchComponentTupleBuilders[i].getFieldEndOffsets(),
                             switchComponentTupleBuilders[i].getByteArray());
                     reusablePred.setLowKey(copyTuple, true);
-                    rangeCursors[i].close();
-                    btreeAccessors[i].reset(btree, NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
+                    if (destroyIncompatible(component, i)) {
+                        // the memory component is not necessarily a paged B-tree, so its accessor and cursor
+                        // cannot be reused for the disk component
+                        btreeAccessors[i] = btree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+                        rangeCursors[i] = btreeAccessors[i].createSearchCursor(false);
+                        rangeCursors[i].setSequentialAccess(sequentialAccess);
+                        isMemoryComponent[i] = component.getType() == LSMComponentType.MEMORY;
+                    } else {
+                        rangeCursors[i].close();
+                        btreeAccessors[i].reset(btree, NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
+                    }
                     btreeAccessors[i].search(rangeCursors[i], reusablePred);
                     pushIntoQueueFromCursorAndReplaceThisElement(switchedElements[i]);
                 }
@@ -378,6 +387,7 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
                 rangeCursors[i].close();
             }
             isMemoryComponent[i] = component.getType() == LSMComponentType.MEMORY;
+            rangeCursors[i].setSequentialAccess(sequentialAccess);
         }
         IndexCursorUtils.open(btreeAccessors, rangeCursors, searchPred);
         try {
@@ -52,6 +52,8 @@ public class LSMBTreeSearchCursor extends EnforcedIndexCursor implements ILSMInd
         RangePredicate btreePred = (RangePredicate) searchPred;
         currentCursor = lsmInitialState.isDiskComponentScan() ? scanCursor
                 : btreePred.isPointPredicate(lsmInitialState.getOriginalKeyComparator()) ? pointCursor : rangeCursor;
+        // a range search without bounds scans the whole index
+        rangeCursor.setSequentialAccess(btreePred.getLowKey() == null && btreePred.getHighKey() == null);
         currentCursor.open(lsmInitialState, searchPred);
     }
 
@@ -25,6 +25,7 @@ import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
 import org.apache.hyracks.storage.am.lsm.common.api.AbstractLSMWithBloomFilterDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.impls.IChainedComponentBulkLoader;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 
 public class LSMBTreeWithBloomFilterDiskComponent extends AbstractLSMWithBloomFilterDiskComponent {
@@ -70,6 +71,11 @@ public class LSMBTreeWithBloomFilterDiskComponent extends AbstractLSMWithBloomFi
         return LSMBTreeDiskComponent.getFileReferenceCount(btree);
     }
 
+    @Override
+    protected IChainedComponentBulkLoader createStatisticsBulkLoader() {
+        return LSMBTreeDiskComponent.createStatisticsBulkLoader(this, btree);
+    }
+
     @Override
     public BTree getMetadataHolder() {
         return btree;
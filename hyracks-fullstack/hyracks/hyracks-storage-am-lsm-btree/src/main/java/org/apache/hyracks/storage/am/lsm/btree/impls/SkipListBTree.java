@@ -0,0 +1,584 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.impls;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.api.ITupleAcceptor;
+import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.storage.am.btree.impls.BTreeCursorInitialState;
+import org.apache.hyracks.storage.am.btree.impls.BTreeOpContext;
+import org.apache.hyracks.storage.am.btree.impls.BTreeRangeSearchCursor;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.impls.UnconditionalTupleAcceptor;
+import org.apache.hyracks.storage.am.common.api.IBTreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleWriter;
+import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.hyracks.storage.am.lsm.common.freepage.VirtualFreePageManager;
+import org.apache.hyracks.storage.common.EnforcedIndexCursor;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.IModificationOperationCallback;
+import org.apache.hyracks.storage.common.ISearchOperationCallback;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * An in-memory component index that keeps its entries in a {@link ConcurrentSkipListMap} instead of latched B-tree
+ * pages. Writers and readers never latch: inserts, upserts and deletes are compare-and-set operations on the skip
+ * list, and searches iterate over it without blocking concurrent modifications.
+ * <p>
+ * Tuples are serialized with the tuple writer of the leaf frame that the caller selected, so that antimatter and
+ * updated tuples look exactly as they do in a memory B-tree. They are appended to arena pages that are allocated from
+ * the virtual buffer cache of the component, which keeps the component within its memory budget and lets the cache
+ * report when the component is full. A tuple is never modified once it is published; a newer version of a key is
+ * appended to the arena and swapped into the skip list. The skip list nodes themselves are on-heap.
+ * <p>
+ * The class extends {@link BTree} so that it can be used wherever the LSM B-tree expects its memory component index,
+ * and it reuses the B-tree lifecycle for the virtual file of the component. Its accessors only accept the cursors
+ * that they create.
+ */
+public class SkipListBTree extends BTree {
+
+    private final ConcurrentSkipListMap<Object, Long> entries;
+    private final ThreadLocal<ComparatorState> comparatorState;
+    private final Object arenaLock = new Object();
+    private final AtomicLong arenaTail = new AtomicLong();
+    private volatile ICachedPage[] arenaPages = new ICachedPage[0];
+
+    public SkipListBTree(IVirtualBufferCache virtualBufferCache, ITreeIndexFrameFactory interiorFrameFactory,
+            ITreeIndexFrameFactory leafFrameFactory, IBinaryComparatorFactory[] cmpFactories, int fieldCount,
+            FileReference file) {
+        super(virtualBufferCache, new VirtualFreePageManager(virtualBufferCache), interiorFrameFactory,
+                leafFrameFactory, cmpFactories, fieldCount, file);
+        this.comparatorState = ThreadLocal.withInitial(ComparatorState::new);
+        this.entries = new ConcurrentSkipListMap<>(this::compareKeys);
+    }
+
+    @Override
+    public synchronized void activate() throws HyracksDataException {
+        super.activate();
+        resetArena();
+    }
+
+    @Override
+    public synchronized void deactivate() throws HyracksDataException {
+        resetArena();
+        super.deactivate();
+    }
+
+    @Override
+    public synchronized void clear() throws HyracksDataException {
+        super.clear();
+        resetArena();
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    @Override
+    public SkipListAccessor createAccessor(IIndexAccessParameters iap) {
+        return new SkipListAccessor(this, iap.getModificationCallback(), iap.getSearchOperationCallback());
+    }
+
+    private void resetArena() throws HyracksDataException {
+        entries.clear();
+        ICachedPage[] pages = arenaPages;
+        arenaPages = new ICachedPage[0];
+        arenaTail.set(address(0, bufferCache.getPageSize()));
+        for (ICachedPage page : pages) {
+            bufferCache.unpin(page);
+        }
+    }
+
+    /**
+     * Reserves space for a tuple in the arena. Tuples are bump-allocated in the current page with a compare-and-set;
+     * only moving to a new page takes the arena lock. A tuple that does not fit a page gets a large page of its own.
+     */
+    private long allocate(int size, BTreeOpContext ctx) throws HyracksDataException {
+        int pageSize = bufferCache.getPageSize();
+        if (size > pageSize) {
+            synchronized (arenaLock) {
+                return address(addArenaPage((size + pageSize - 1) / pageSize, ctx), 0);
+            }
+        }
+        while (true) {
+            long tail = arenaTail.get();
+            if (offset(tail) + size <= pageSize) {
+                if (arenaTail.compareAndSet(tail, tail + size)) {
+                    return tail;
+                }
+                continue;
+            }
+            synchronized (arenaLock) {
+                if (arenaTail.get() == tail) {
+                    int pageIndex = addArenaPage(1, ctx);
+                    arenaTail.set(address(pageIndex, size));
+                    return address(pageIndex, 0);
+                }
+            }
+        }
+    }
+
+    private int addArenaPage(int multiplier, BTreeOpContext ctx) throws HyracksDataException {
+        int pageId = freePageManager.takePage(ctx.getMetaFrame());
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), pageId), true);
+        bufferCache.resizePage(page, multiplier, ctx);
+        ICachedPage[] pages = Arrays.copyOf(arenaPages, arenaPages.length + 1);
+        pages[pages.length - 1] = page;
+        arenaPages = pages;
+        return pages.length - 1;
+    }
+
+    private void resolve(long address, ITreeIndexTupleReference tuple) {
+        tuple.resetByTupleOffset(arenaPages[pageIndex(address)].getBuffer().array(), offset(address));
+    }
+
+    private static long address(int pageIndex, int offset) {
+        return ((long) pageIndex << 32) | offset;
+    }
+
+    private static int pageIndex(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    /**
+     * Orders the keys of the skip list. A stored key is the arena address of the first version of its tuple, a
+     * search key is a {@link Bound}. The skip list never compares two bounds.
+     */
+    private int compareKeys(Object a, Object b) {
+        try {
+            if (a instanceof Bound) {
+                return ((Bound) a).compareTo(resolveForCompare(b, 1));
+            } else if (b instanceof Bound) {
+                return -((Bound) b).compareTo(resolveForCompare(a, 0));
+            }
+            ComparatorState state = comparatorState.get();
+            return state.cmp.compare(resolveForCompare(a, 0), resolveForCompare(b, 1));
+        } catch (HyracksDataException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ITupleReference resolveForCompare(Object key, int slot) {
+        ITreeIndexTupleReference tuple = comparatorState.get().tuples[slot];
+        resolve((Long) key, tuple);
+        return tuple;
+    }
+
+    private static HyracksDataException unwrap(UncheckedIOException e) {
+        return HyracksDataException.create(e.getCause());
+    }
+
+    private class ComparatorState {
+        private final MultiComparator cmp = MultiComparator.create(cmpFactories);
+        private final ITreeIndexTupleReference[] tuples = { leafFrameFactory.createFrame().createTupleReference(),
+                leafFrameFactory.createFrame().createTupleReference() };
+    }
+
+    /**
+     * A search key of the skip list. A bias of zero matches the entry with an equal key; a negative (positive) bias
+     * places the bound right before (after) all entries with an equal key prefix.
+     */
+    private static final class Bound {
+        private ITupleReference key;
+        private MultiComparator cmp;
+        private int bias;
+
+        private Bound reset(ITupleReference key, MultiComparator cmp, int bias) {
+            this.key = key;
+            this.cmp = cmp;
+            this.bias = bias;
+            return this;
+        }
+
+        private int compareTo(ITupleReference tuple) throws HyracksDataException {
+            int c = cmp.compare(key, tuple);
+            return c != 0 ? c : bias;
+        }
+    }
+
+    public class SkipListAccessor extends BTreeAccessor {
+        private final Bound bound = new Bound();
+        private final ITreeIndexTupleReference beforeTuple;
+
+        public SkipListAccessor(SkipListBTree btree, IModificationOperationCallback modificationCallback,
+                ISearchOperationCallback searchCallback) {
+            super(btree, modificationCallback, searchCallback);
+            beforeTuple = btree.getLeafFrameFactory().createFrame().createTupleReference();
+        }
+
+        private SkipListBTree index() {
+            return (SkipListBTree) btree;
+        }
+
+        @Override
+        public void insert(ITupleReference tuple) throws HyracksDataException {
+            ctx.setOperation(IndexOperation.INSERT);
+            modify(tuple, UnconditionalTupleAcceptor.INSTANCE);
+        }
+
+        @Override
+        public void update(ITupleReference tuple) throws HyracksDataException {
+            ctx.setOperation(IndexOperation.UPDATE);
+            modify(tuple, UnconditionalTupleAcceptor.INSTANCE);
+        }
+
+        @Override
+        public void delete(ITupleReference tuple) throws HyracksDataException {
+            ctx.setOperation(IndexOperation.DELETE);
+            modify(tuple, UnconditionalTupleAcceptor.INSTANCE);
+        }
+
+        @Override
+        public void upsertIfConditionElseInsert(ITupleReference tuple, ITupleAcceptor acceptor)
+                throws HyracksDataException {
+            ctx.setOperation(IndexOperation.UPSERT);
+            ctx.setAcceptor(acceptor);
+            modify(tuple, acceptor);
+        }
+
+        /**
+         * Applies a modification with the semantics of the B-tree leaf operations. The current version of the key is
+         * read, the new version is written to the arena, and the skip list entry is swapped only if the key still
+         * maps to the version that was read; otherwise the modification is retried.
+         */
+        private void modify(ITupleReference tuple, ITupleAcceptor acceptor) throws HyracksDataException {
+            SkipListBTree index = index();
+            IndexOperation op = ctx.getOperation();
+            ctx.getModificationCallback().before(tuple);
+            Bound key = bound.reset(tuple, ctx.getCmp(), 0);
+            try {
+                while (true) {
+                    Long current = index.entries.get(key);
+                    ITupleReference before = null;
+                    if (current != null) {
+                        index.resolve(current, beforeTuple);
+                        before = beforeTuple;
+                    }
+                    boolean exists = before != null;
+                    if (op == IndexOperation.INSERT && exists) {
+                        throw HyracksDataException.create(ErrorCode.DUPLICATE_KEY);
+                    }
+                    if ((op == IndexOperation.UPDATE || op == IndexOperation.DELETE) && !exists) {
+                        throw HyracksDataException.create(ErrorCode.UPDATE_OR_DELETE_NON_EXISTENT_KEY);
+                    }
+                    if (op == IndexOperation.UPSERT && exists && !acceptor.accept(before)) {
+                        throw HyracksDataException.create(ErrorCode.DUPLICATE_KEY);
+                    }
+                    if (op == IndexOperation.DELETE) {
+                        if (index.entries.remove(key, current)) {
+                            ctx.getModificationCallback().found(before, tuple);
+                            return;
+                        }
+                        continue;
+                    }
+                    long address = write(index, tuple, exists && !((IBTreeIndexTupleReference) before).isUpdated());
+                    boolean published = exists ? index.entries.replace(key, current, address)
+                            : index.entries.putIfAbsent(address, address) == null;
+                    if (published) {
+                        ctx.getModificationCallback().found(before, tuple);
+                        return;
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw unwrap(e);
+            }
+        }
+
+        private long write(SkipListBTree index, ITupleReference tuple, boolean updated) throws HyracksDataException {
+            ITreeIndexTupleWriter writer = ctx.getLeafFrame().getTupleWriter();
+            writer.setUpdated(updated);
+            try {
+                int size = writer.bytesRequired(tuple);
+                long address = index.allocate(size, ctx);
+                writer.writeTuple(tuple, index.arenaPages[pageIndex(address)].getBuffer().array(), offset(address));
+                return address;
+            } finally {
+                writer.setUpdated(false);
+            }
+        }
+
+        @Override
+        public BTreeRangeSearchCursor createSearchCursor(boolean exclusive) {
+            IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) btree.getLeafFrameFactory().createFrame();
+            return new SkipListSearchCursor(leafFrame);
+        }
+
+        @Override
+        public ITreeIndexCursor createCountingSearchCursor() {
+            return new SkipListCountingCursor();
+        }
+
+        @Override
+        public void search(IIndexCursor cursor, ISearchPredicate searchPred) throws HyracksDataException {
+            ctx.setOperation(IndexOperation.SEARCH);
+            RangePredicate pred = (RangePredicate) searchPred;
+            if (pred.getLowKeyComparator() == null) {
+                pred.setLowKeyComparator(ctx.getCmp());
+            }
+            if (pred.getHighKeyComparator() == null) {
+                pred.setHighKeyComparator(ctx.getCmp());
+            }
+            BTreeCursorInitialState initialState = ctx.getCursorInitialState();
+            initialState.setSearchOperationCallback(ctx.getSearchCallback());
+            initialState.setOriginialKeyComparator(ctx.getCmp());
+            initialState.setPage(null);
+            if (cursor instanceof SkipListCountingCursor) {
+                ((SkipListCountingCursor) cursor).index = index();
+            } else {
+                ((SkipListSearchCursor) cursor).index = index();
+            }
+            cursor.open(initialState, pred);
+        }
+
+        @Override
+        public ITreeIndexCursor createDiskOrderScanCursor() {
+            throw new UnsupportedOperationException("Disk order scan is not supported by in-memory skip lists");
+        }
+
+        @Override
+        public void diskOrderScan(ITreeIndexCursor cursor) throws HyracksDataException {
+            throw new UnsupportedOperationException("Disk order scan is not supported by in-memory skip lists");
+        }
+    }
+
+    /**
+     * A range cursor over the skip list. The returned tuples point into the arena and stay valid until the component
+     * is reset, but a cursor only guarantees the validity of its current tuple, like the B-tree cursors.
+     */
+    private static class SkipListSearchCursor extends BTreeRangeSearchCursor {
+        private final Bound lowBound = new Bound();
+        private final Bound reconcileBound = new Bound();
+        private SkipListBTree index;
+        private Iterator<Map.Entry<Object, Long>> iterator;
+        private boolean hasCurrent;
+
+        SkipListSearchCursor(IBTreeLeafFrame frame) {
+            super(frame, false);
+        }
+
+        @Override
+        public void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+            searchCb = initialState.getSearchOperationCallback();
+            originalKeyCmp = initialState.getOriginalKeyComparator();
+            pred = (RangePredicate) searchPred;
+            lowKeyCmp = pred.getLowKeyComparator();
+            highKeyCmp = pred.getHighKeyComparator();
+            lowKey = pred.getLowKey();
+            highKey = pred.getHighKey();
+            try {
+                if (lowKey == null) {
+                    iterator = index.entries.entrySet().iterator();
+                } else {
+                    Bound bound = lowBound.reset(lowKey, lowKeyCmp, pred.isLowKeyInclusive() ? -1 : 1);
+                    iterator = index.entries.tailMap(bound, true).entrySet().iterator();
+                }
+            } catch (UncheckedIOException e) {
+                throw unwrap(e);
+            }
+            hasCurrent = false;
+        }
+
+        @Override
+        public boolean doHasNext() throws HyracksDataException {
+            if (hasCurrent) {
+                return true;
+            }
+            try {
+                while (iterator.hasNext()) {
+                    index.resolve(iterator.next().getValue(), frameTuple);
+                    if (highKey != null) {
+                        int c = highKeyCmp.compare(highKey, frameTuple);
+                        if (c < 0 || c == 0 && !pred.isHighKeyInclusive()) {
+                            return false;
+                        }
+                    }
+                    if (!searchCb.proceed(frameTuple) && !reconcile()) {
+                        continue;
+                    }
+                    hasCurrent = true;
+                    return true;
+                }
+            } catch (UncheckedIOException e) {
+                throw unwrap(e);
+            }
+            return false;
+        }
+
+        /**
+         * Waits for the key of the current tuple without holding anything and reads its latest version.
+         *
+         * @return false if the key was deleted in the meantime
+         */
+        private boolean reconcile() throws HyracksDataException {
+            if (tupleBuilder == null) {
+                tupleBuilder = new ArrayTupleBuilder(originalKeyCmp.getKeyFieldCount());
+            }
+            TupleUtils.copyTuple(tupleBuilder, frameTuple, originalKeyCmp.getKeyFieldCount());
+            reconciliationTuple.reset(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray());
+            searchCb.reconcile(reconciliationTuple);
+            Long latest = index.entries.get(reconcileBound.reset(reconciliationTuple, originalKeyCmp, 0));
+            if (latest == null) {
+                searchCb.cancel(reconciliationTuple);
+                return false;
+            }
+            index.resolve(latest, frameTuple);
+            return true;
+        }
+
+        @Override
+        public void doNext() throws HyracksDataException {
+            hasCurrent = false;
+        }
+
+        @Override
+        public void doClose() throws HyracksDataException {
+            iterator = null;
+            hasCurrent = false;
+            pred = null;
+        }
+
+        @Override
+        public int getTupleOffset() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Counts the entries in the range of a predicate, for sizing the Bloom filter of a flushed component.
+     */
+    private static class SkipListCountingCursor extends EnforcedIndexCursor implements ITreeIndexCursor {
+        private final Bound lowBound = new Bound();
+        private final byte[] countBuf = new byte[4];
+        private final ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(1);
+        private final ArrayTupleReference countTuple = new ArrayTupleReference();
+        private SkipListBTree index;
+        private ITreeIndexTupleReference tuple;
+        private RangePredicate pred;
+        private int count = -1;
+
+        @Override
+        public void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) {
+            pred = (RangePredicate) searchPred;
+            count = -1;
+        }
+
+        @Override
+        public boolean doHasNext() throws HyracksDataException {
+            if (count >= 0) {
+                return false;
+            }
+            try {
+                count = pred.getLowKey() == null && pred.getHighKey() == null ? index.entries.size() : countRange();
+            } catch (UncheckedIOException e) {
+                throw unwrap(e);
+            }
+            return true;
+        }
+
+        private int countRange() throws HyracksDataException {
+            Map<Object, Long> range = pred.getLowKey() == null ? index.entries
+                    : index.entries.tailMap(lowBound.reset(pred.getLowKey(), pred.getLowKeyComparator(),
+                            pred.isLowKeyInclusive() ? -1 : 1), true);
+            if (tuple == null) {
+                tuple = index.getLeafFrameFactory().createFrame().createTupleReference();
+            }
+            int n = 0;
+            for (Long address : range.values()) {
+                if (pred.getHighKey() != null) {
+                    index.resolve(address, tuple);
+                    int c = pred.getHighKeyComparator().compare(pred.getHighKey(), tuple);
+                    if (c < 0 || c == 0 && !pred.isHighKeyInclusive()) {
+                        break;
+                    }
+                }
+                n++;
+            }
+            return n;
+        }
+
+        @Override
+        public void doNext() throws HyracksDataException {
+            IntegerPointable.setInteger(countBuf, 0, count);
+            tupleBuilder.reset();
+            tupleBuilder.addField(countBuf, 0, 4);
+            countTuple.reset(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray());
+        }
+
+        @Override
+        public void doClose() {
+            count = -1;
+            pred = null;
+        }
+
+        @Override
+        public void doDestroy() {
+            doClose();
+        }
+
+        @Override
+        public ITupleReference doGetTuple() {
+            return countTuple;
+        }
+
+        @Override
+        public void setBufferCache(IBufferCache bufferCache) {
+            // no pages to read
+        }
+
+        @Override
+        public void setFileId(int fileId) {
+            // no pages to read
+        }
+
+        @Override
+        public boolean isExclusiveLatchNodes() {
+            return false;
+        }
+    }
+}
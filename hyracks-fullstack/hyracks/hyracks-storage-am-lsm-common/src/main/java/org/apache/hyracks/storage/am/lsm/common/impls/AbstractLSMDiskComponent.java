@@ -240,9 +240,25 @@ public abstract class AbstractLSMDiskComponent extends AbstractLSMComponent impl
                 ? createMergeIndexBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex)
                 : createIndexBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex);
         chainedBulkLoader.addBulkLoader(indexBulkloader);
+        if (operation.getIOOpertionType() == LSMIOOperationType.FLUSH
+                || operation.getIOOpertionType() == LSMIOOperationType.MERGE) {
+            IChainedComponentBulkLoader statisticsBulkLoader = createStatisticsBulkLoader();
+            if (statisticsBulkLoader != null) {
+                chainedBulkLoader.addBulkLoader(statisticsBulkLoader);
+            }
+        }
         return chainedBulkLoader;
     }
 
+    /**
+     * Allows sub-classes to gather {@link ComponentStatistics} during flushes and merges
+     *
+     * @return the statistics bulkloader or null if the component does not keep statistics
+     */
+    protected IChainedComponentBulkLoader createStatisticsBulkLoader() {
+        return null;
+    }
+
     @Override
     public String toString() {
         return "{\"class\":" + getClass().getSimpleName() + "\", \"index\":" + getIndex().toString() + "}";
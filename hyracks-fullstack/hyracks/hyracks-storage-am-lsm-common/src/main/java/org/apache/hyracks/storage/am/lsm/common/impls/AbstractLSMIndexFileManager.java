@@ -31,8 +31,10 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.CompressedFileReference;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.util.IoUtil;
@@ -42,6 +44,7 @@ import org.apache.hyracks.storage.am.common.api.ITreeIndexMetadataFrame;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexFileManager;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.compression.file.CompressedFileManager;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 
 public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManager {
@@ -92,13 +95,22 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
     protected final Format formatter = new SimpleDateFormat(COMPONENT_TIMESTAMP_FORMAT);
     protected final Comparator<ComparableFileName> recencyCmp = new RecencyComparator();
     protected final TreeIndexFactory<? extends ITreeIndex> treeFactory;
+    // null if the disk components pages are stored uncompressed
+    protected final ICompressorDecompressorFactory compressorDecompressorFactory;
     private String prevTimestamp = null;
 
     public AbstractLSMIndexFileManager(IIOManager ioManager, FileReference file,
             TreeIndexFactory<? extends ITreeIndex> treeFactory) {
+        this(ioManager, file, treeFactory, null);
+    }
+
+    public AbstractLSMIndexFileManager(IIOManager ioManager, FileReference file,
+            TreeIndexFactory<? extends ITreeIndex> treeFactory,
+            ICompressorDecompressorFactory compressorDecompressorFactory) {
         this.ioManager = ioManager;
         this.baseDir = file;
         this.treeFactory = treeFactory;
+        this.compressorDecompressorFactory = compressorDecompressorFactory;
     }
 
     protected TreeIndexState isValidTreeIndex(ITreeIndex treeIndex) throws HyracksDataException {
@@ -136,11 +148,11 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
             throws HyracksDataException {
         String[] files = listDirFiles(baseDir, filter);
         for (String fileName : files) {
-            FileReference fileRef = baseDir.getChild(fileName);
             if (treeFactory == null) {
-                allFiles.add(new ComparableFileName(fileRef));
+                allFiles.add(new ComparableFileName(baseDir.getChild(fileName)));
                 continue;
             }
+            FileReference fileRef = getCompressedFileReferenceIfAny(fileName);
             TreeIndexState idxState = isValidTreeIndex(treeFactory.createIndexInstance(fileRef));
             if (idxState == TreeIndexState.VALID) {
                 allFiles.add(new ComparableFileName(fileRef));
@@ -184,6 +196,26 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
         }
     }
 
+    /**
+     * @param name
+     *            the name of a tree index file of a disk component
+     * @return a {@link CompressedFileReference} if the disk components of this index are compressed,
+     *         or a regular file reference otherwise
+     */
+    protected FileReference getCompressedFileReferenceIfAny(String name) {
+        return CompressedFileReference.of(baseDir.getChild(name), compressorDecompressorFactory);
+    }
+
+    /**
+     * Deletes a disk component file along with its look-aside file if it is compressed
+     */
+    protected static void delete(FileReference fileRef) throws HyracksDataException {
+        IoUtil.delete(fileRef);
+        if (fileRef instanceof CompressedFileReference) {
+            CompressedFileManager.delete((CompressedFileReference) fileRef);
+        }
+    }
+
     @Override
     public void createDirs() throws HyracksDataException {
         if (baseDir.getFile().exists()) {
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+
+/**
+ * Base class of the merge policies that shape disk components by the size ratio between them. Subclasses choose which
+ * consecutive components to merge. This class handles full merges and flow control. Components larger than
+ * max-mergable-component-size are never merged again, which bounds the cost of a single merge.
+ */
+public abstract class AbstractSizeRatioMergePolicy implements ILSMMergePolicy {
+    public static final String FAN_OUT = "fan-out";
+    public static final String MAX_MERGABLE_COMPONENT_SIZE = "max-mergable-component-size";
+    public static final String MAX_TOLERANCE_COMPONENT_COUNT = "max-tolerance-component-count";
+
+    protected int fanOut;
+    protected long maxMergableComponentSize;
+    protected int maxToleranceComponentCount;
+
+    @Override
+    public void diskComponentAdded(final ILSMIndex index, boolean fullMergeIsRequested) throws HyracksDataException {
+        List<ILSMDiskComponent> immutableComponents = new ArrayList<>(index.getDiskComponents());
+        if (!areComponentsReadableUnwritable(immutableComponents)) {
+            return;
+        }
+        if (fullMergeIsRequested) {
+            index.createAccessor(NoOpIndexAccessParameters.INSTANCE).scheduleFullMerge();
+            return;
+        }
+        scheduleMerge(index, immutableComponents, false);
+    }
+
+    @Override
+    public void configure(Map<String, String> properties) {
+        fanOut = Integer.parseInt(properties.get(FAN_OUT));
+        if (fanOut < 2) {
+            throw new IllegalArgumentException("Invalid " + FAN_OUT + ": " + fanOut + " (must be at least 2)");
+        }
+        maxMergableComponentSize = Long.parseLong(properties.get(MAX_MERGABLE_COMPONENT_SIZE));
+        maxToleranceComponentCount = Integer.parseInt(properties.get(MAX_TOLERANCE_COMPONENT_COUNT));
+    }
+
+    @Override
+    public boolean isMergeLagging(ILSMIndex index) throws HyracksDataException {
+        // see PrefixMergePolicy.isMergeLagging() for the rationale behind this code.
+        List<ILSMDiskComponent> immutableComponents = new ArrayList<>(index.getDiskComponents());
+        int mergableComponentCount = 0;
+        for (ILSMDiskComponent component : immutableComponents) {
+            if (isMergable(component)) {
+                mergableComponentCount++;
+            }
+        }
+        if (mergableComponentCount < maxToleranceComponentCount) {
+            return false;
+        }
+        if (isMergeOngoing(immutableComponents)) {
+            return true;
+        }
+        // no merge is running to catch up, so schedule one even if the size ratios don't call for it. Otherwise,
+        // all flush operations will be hung.
+        return scheduleMerge(index, immutableComponents, true);
+    }
+
+    /**
+     * Picks the components to merge.
+     *
+     * @param immutableComponents
+     *            the disk components of the index, ordered from the newest to the oldest
+     * @return consecutive components to merge, in the same order, or null if no merge is needed
+     */
+    protected abstract List<ILSMDiskComponent> getMergableComponents(List<ILSMDiskComponent> immutableComponents);
+
+    protected boolean isMergable(ILSMDiskComponent component) {
+        return component.getState() == ComponentState.READABLE_UNWRITABLE
+                && component.getComponentSize() <= maxMergableComponentSize;
+    }
+
+    private boolean scheduleMerge(ILSMIndex index, List<ILSMDiskComponent> immutableComponents, boolean force)
+            throws HyracksDataException {
+        List<ILSMDiskComponent> mergableComponents = getMergableComponents(immutableComponents);
+        if (mergableComponents == null && force) {
+            mergableComponents = getNewestMergableComponents(immutableComponents);
+        }
+        if (mergableComponents == null) {
+            return false;
+        }
+        index.createAccessor(NoOpIndexAccessParameters.INSTANCE).scheduleMerge(mergableComponents);
+        return true;
+    }
+
+    /**
+     * @return the newest run of at least two consecutive mergable components, or null if there is none
+     */
+    private List<ILSMDiskComponent> getNewestMergableComponents(List<ILSMDiskComponent> immutableComponents) {
+        int start = 0;
+        int numComponents = immutableComponents.size();
+        while (start < numComponents) {
+            int end = start;
+            while (end < numComponents && isMergable(immutableComponents.get(end))) {
+                end++;
+            }
+            if (end - start >= 2) {
+                return immutableComponents.subList(start, end);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static boolean areComponentsReadableUnwritable(List<ILSMDiskComponent> immutableComponents) {
+        for (ILSMDiskComponent c : immutableComponents) {
+            if (c.getState() != ComponentState.READABLE_UNWRITABLE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isMergeOngoing(List<ILSMDiskComponent> immutableComponents) {
+        for (ILSMDiskComponent c : immutableComponents) {
+            if (c.getState() == ComponentState.READABLE_MERGING) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
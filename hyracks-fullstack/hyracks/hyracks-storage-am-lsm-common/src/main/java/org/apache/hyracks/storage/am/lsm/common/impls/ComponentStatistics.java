@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.common.freepage.MutableArrayValueReference;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+import org.apache.hyracks.storage.am.lsm.common.util.HyperLogLogSketch;
+
+/**
+ * Statistics of the tuples of a disk component: the number of tuples and anti-matter tuples and a distinct value
+ * sketch for each of the leading fields. They are gathered while a flush or a merge bulk loads the component and are
+ * stored in the component's metadata.
+ */
+public class ComponentStatistics {
+
+    public static final MutableArrayValueReference STATISTICS_KEY =
+            new MutableArrayValueReference("ComponentStatistics".getBytes());
+
+    private long numTuples;
+    private long numAntimatterTuples;
+    private final HyperLogLogSketch[] sketches;
+
+    public ComponentStatistics(int numFields) {
+        this(0L, 0L, new HyperLogLogSketch[numFields]);
+        for (int i = 0; i < numFields; i++) {
+            sketches[i] = new HyperLogLogSketch();
+        }
+    }
+
+    private ComponentStatistics(long numTuples, long numAntimatterTuples, HyperLogLogSketch[] sketches) {
+        this.numTuples = numTuples;
+        this.numAntimatterTuples = numAntimatterTuples;
+        this.sketches = sketches;
+    }
+
+    public void addTuple(byte[][] fieldData, int[] fieldStarts, int[] fieldLengths) {
+        numTuples++;
+        for (int i = 0; i < sketches.length; i++) {
+            sketches[i].add(fieldData[i], fieldStarts[i], fieldLengths[i]);
+        }
+    }
+
+    public void addAntimatterTuple() {
+        numAntimatterTuples++;
+    }
+
+    /**
+     * Adds the statistics of another component of the same index to these statistics.
+     */
+    public void merge(ComponentStatistics other) {
+        numTuples += other.numTuples;
+        numAntimatterTuples += other.numAntimatterTuples;
+        for (int i = 0; i < Math.min(sketches.length, other.sketches.length); i++) {
+            sketches[i].merge(other.sketches[i]);
+        }
+    }
+
+    public long getNumTuples() {
+        return numTuples;
+    }
+
+    public long getNumAntimatterTuples() {
+        return numAntimatterTuples;
+    }
+
+    public int getNumFields() {
+        return sketches.length;
+    }
+
+    /**
+     * @return the estimated number of distinct values of a field, capped by the number of tuples
+     */
+    public long getDistinctValues(int field) {
+        return Math.min(sketches[field].estimate(), numTuples);
+    }
+
+    /**
+     * @return the number of bytes that the statistics of the given number of fields take in the component metadata
+     */
+    public static int getSerializedSize(int numFields) {
+        return Long.BYTES + Long.BYTES + Integer.BYTES
+                + numFields * (Integer.BYTES + (1 << HyperLogLogSketch.DEFAULT_PRECISION));
+    }
+
+    public byte[] toBytes() throws HyracksDataException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(numTuples);
+            out.writeLong(numAntimatterTuples);
+            out.writeInt(sketches.length);
+            for (HyperLogLogSketch sketch : sketches) {
+                out.writeInt(sketch.getPrecision());
+                out.write(sketch.getRegisters());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    public static ComponentStatistics fromBytes(byte[] bytes, int offset) {
+        int pos = offset;
+        long numTuples = LongPointable.getLong(bytes, pos);
+        pos += Long.BYTES;
+        long numAntimatterTuples = LongPointable.getLong(bytes, pos);
+        pos += Long.BYTES;
+        HyperLogLogSketch[] sketches = new HyperLogLogSketch[IntegerPointable.getInteger(bytes, pos)];
+        pos += Integer.BYTES;
+        for (int i = 0; i < sketches.length; i++) {
+            int precision = IntegerPointable.getInteger(bytes, pos);
+            pos += Integer.BYTES;
+            sketches[i] = HyperLogLogSketch.wrap(precision, bytes, pos);
+            pos += 1 << precision;
+        }
+        return new ComponentStatistics(numTuples, numAntimatterTuples, sketches);
+    }
+
+    /**
+     * Reads the statistics of a disk component
+     *
+     * @return the statistics or null if the component has none, e.g., because it was bulk loaded
+     */
+    public static ComponentStatistics read(IComponentMetadata metadata) throws HyracksDataException {
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        metadata.get(STATISTICS_KEY, value);
+        return value.getLength() == 0 ? null : fromBytes(value.getByteArray(), value.getStartOffset());
+    }
+
+    public void write(IComponentMetadata metadata) throws HyracksDataException {
+        metadata.put(STATISTICS_KEY, new MutableArrayValueReference(toBytes()));
+    }
+}
@@ -54,6 +54,7 @@ public abstract class LSMIndexSearchCursor extends EnforcedIndexCursor implement
     protected ILSMHarness lsmHarness;
     protected boolean switchPossible = true;
     protected int hasNextCallCount = 0;
+    protected boolean sequentialAccess = false;
 
     protected List<ILSMComponent> operationalComponents;
 
@@ -71,6 +72,11 @@ public abstract class LSMIndexSearchCursor extends EnforcedIndexCursor implement
         return opCtx;
     }
 
+    @Override
+    public void setSequentialAccess(boolean sequentialAccess) {
+        this.sequentialAccess = sequentialAccess;
+    }
+
     public void initPriorityQueue() throws HyracksDataException {
         int pqInitSize = (rangeCursors.length > 0) ? rangeCursors.length : 1;
         if (outputPriorityQueue == null) {
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.List;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+
+/**
+ * A leveled merge policy: a component is merged into the next older one until that one is at least fan-out times
+ * larger, so each level keeps a single component whose size grows by fan-out from one level to the next. Readers
+ * visit only log_fan-out of the data size components, while records are rewritten about fan-out times per level.
+ * Since disk components cover the whole key space, a level is merged as a whole rather than by key range.
+ */
+public class LeveledMergePolicy extends AbstractSizeRatioMergePolicy {
+
+    @Override
+    protected List<ILSMDiskComponent> getMergableComponents(List<ILSMDiskComponent> immutableComponents) {
+        // merge the newest pair that breaks the size ratio, so that fresh flushes are absorbed first
+        for (int i = 0; i + 1 < immutableComponents.size(); i++) {
+            ILSMDiskComponent newer = immutableComponents.get(i);
+            ILSMDiskComponent older = immutableComponents.get(i + 1);
+            if (isMergable(newer) && isMergable(older)
+                    && older.getComponentSize() < (double) fanOut * newer.getComponentSize()) {
+                return immutableComponents.subList(i, i + 2);
+            }
+        }
+        return null;
+    }
+}
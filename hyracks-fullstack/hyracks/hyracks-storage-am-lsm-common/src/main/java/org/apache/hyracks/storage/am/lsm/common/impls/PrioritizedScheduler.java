@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationFailedCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
+import org.apache.hyracks.storage.common.buffercache.IPageWriteThrottle;
+import org.apache.hyracks.storage.common.buffercache.ThreadPageWriteThrottle;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An asynchronous scheduler that runs IO operations within a global budget instead of handing every merge to its own
+ * thread. Pending operations are started in priority order: flushes first, since writers block on full memory
+ * components, then merges from the smallest to the largest input. Merges can never take more than
+ * {@code maxRunningMerges} of the {@code maxRunningOperations} slots, so some slots are always left for flushes, and
+ * the pages they write can be charged against a shared {@link IPageWriteThrottle} to cap their bandwidth.
+ * Like the {@link AsynchronousScheduler}, flushes of the same index run one at a time in the order they were
+ * scheduled.
+ */
+public class PrioritizedScheduler implements ILSMIOOperationScheduler, Closeable {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final Comparator<PendingOperation> PRIORITY_ORDER =
+            Comparator.comparing((PendingOperation op) -> op.operation.getIOOpertionType() != LSMIOOperationType.FLUSH)
+                    .thenComparingLong(op -> op.size).thenComparingLong(op -> op.sequence);
+
+    private final ExecutorService executor;
+    private final IIoOperationFailedCallback failureCallback;
+    private final int maxRunningOperations;
+    private final int maxRunningMerges;
+    private final IPageWriteThrottle mergeThrottle;
+    private final PriorityQueue<PendingOperation> pendingOperations = new PriorityQueue<>(PRIORITY_ORDER);
+    private final Map<String, ILSMIOOperation> runningFlushOperations = new HashMap<>();
+    private final Map<String, Deque<ILSMIOOperation>> waitingFlushOperations = new HashMap<>();
+    private final Map<String, Throwable> failedGroups = new HashMap<>();
+    private long sequence = 0;
+    private int runningOperations = 0;
+    private int runningMerges = 0;
+
+    /**
+     * @param threadFactory
+     *            the factory of the threads running the operations
+     * @param failureCallback
+     *            the callback to notify of failed operations
+     * @param maxRunningOperations
+     *            the maximum number of operations running at the same time
+     * @param maxRunningMerges
+     *            the maximum number of merges running at the same time, which must be less than
+     *            {@code maxRunningOperations}
+     * @param mergeThrottle
+     *            the throttle of the pages written by merges, or null to write them at full speed
+     */
+    public PrioritizedScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback failureCallback,
+            int maxRunningOperations, int maxRunningMerges, IPageWriteThrottle mergeThrottle) {
+        if (maxRunningMerges < 1 || maxRunningMerges >= maxRunningOperations) {
+            throw new IllegalArgumentException("Invalid IO scheduler budget: " + maxRunningMerges
+                    + " running merges out of " + maxRunningOperations + " running operations");
+        }
+        // idle threads are reclaimed; the budget, not the pool, bounds the number of running operations
+        executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                threadFactory);
+        this.failureCallback = failureCallback;
+        this.maxRunningOperations = maxRunningOperations;
+        this.maxRunningMerges = maxRunningMerges;
+        this.mergeThrottle = mergeThrottle;
+    }
+
+    @Override
+    public void scheduleOperation(ILSMIOOperation operation) {
+        switch (operation.getIOOpertionType()) {
+            case FLUSH:
+                scheduleFlush(operation);
+                break;
+            case MERGE:
+                synchronized (this) {
+                    pendingOperations.offer(new PendingOperation(operation, getInputSize(operation), sequence++));
+                    dispatch();
+                }
+                break;
+            case NOOP:
+                return;
+            default:
+                // this should never happen
+                // just guard here to avoid silent failures in case of future extensions
+                throw new IllegalArgumentException("Unknown operation type " + operation.getIOOpertionType());
+        }
+    }
+
+    private synchronized void scheduleFlush(ILSMIOOperation operation) {
+        String id = operation.getIndexIdentifier();
+        if (failedGroups.containsKey(id)) {
+            // Group failure. Fail the operation right away
+            operation.setStatus(LSMIOOperationStatus.FAILURE);
+            operation.setFailure(
+                    new RuntimeException("Operation group " + id + " has permanently failed", failedGroups.get(id)));
+            operation.complete();
+            return;
+        }
+        if (runningFlushOperations.containsKey(id)) {
+            waitingFlushOperations.computeIfAbsent(id, k -> new ArrayDeque<>()).offer(operation);
+        } else {
+            runningFlushOperations.put(id, operation);
+            pendingOperations.offer(new PendingOperation(operation, 0, sequence++));
+            dispatch();
+        }
+    }
+
+    private void dispatch() {
+        while (!pendingOperations.isEmpty() && runningOperations < maxRunningOperations) {
+            ILSMIOOperation operation = pendingOperations.peek().operation;
+            boolean isMerge = operation.getIOOpertionType() == LSMIOOperationType.MERGE;
+            if (isMerge && runningMerges >= maxRunningMerges) {
+                // flushes are ordered first, so everything left is a merge
+                return;
+            }
+            pendingOperations.poll();
+            runningOperations++;
+            if (isMerge) {
+                runningMerges++;
+            }
+            executor.execute(() -> run(operation));
+        }
+    }
+
+    private void run(ILSMIOOperation operation) {
+        boolean isMerge = operation.getIOOpertionType() == LSMIOOperationType.MERGE;
+        try {
+            if (isMerge && mergeThrottle != null) {
+                ThreadPageWriteThrottle.set(mergeThrottle);
+            }
+            operation.call();
+        } catch (Throwable th) { // NOSONAR Must catch all
+            LOGGER.log(Level.ERROR, "IO Operation failed", th);
+            operation.setFailure(th);
+        } finally {
+            ThreadPageWriteThrottle.clear();
+        }
+        try {
+            afterRun(operation);
+        } catch (Throwable th) { // NOSONAR Must catch all
+            failureCallback.schedulerFailed(this, th);
+            executor.shutdown();
+        }
+    }
+
+    private void afterRun(ILSMIOOperation operation) {
+        boolean failed = operation.getStatus() == LSMIOOperationStatus.FAILURE;
+        if (failed) {
+            failureCallback.operationFailed(operation, operation.getFailure());
+        }
+        operation.complete();
+        synchronized (this) {
+            runningOperations--;
+            if (operation.getIOOpertionType() == LSMIOOperationType.MERGE) {
+                runningMerges--;
+            } else {
+                String id = operation.getIndexIdentifier();
+                runningFlushOperations.remove(id);
+                if (failed) {
+                    // Doesn't make sense to process further flush requests... Mark the operation group permanently
+                    // failed and fail other scheduled operations
+                    failedGroups.put(id, operation.getFailure());
+                    failWaitingFlushes(id, operation.getFailure());
+                } else {
+                    Deque<ILSMIOOperation> waiting = waitingFlushOperations.get(id);
+                    ILSMIOOperation next = waiting == null ? null : waiting.poll();
+                    if (next != null) {
+                        runningFlushOperations.put(id, next);
+                        pendingOperations.offer(new PendingOperation(next, 0, sequence++));
+                    } else {
+                        waitingFlushOperations.remove(id);
+                    }
+                }
+            }
+            dispatch();
+        }
+    }
+
+    private void failWaitingFlushes(String id, Throwable failure) {
+        Deque<ILSMIOOperation> ops = waitingFlushOperations.remove(id);
+        if (ops == null) {
+            return;
+        }
+        ILSMIOOperation next = ops.poll();
+        while (next != null) {
+            next.setFailure(new RuntimeException("Operation group " + id + " has permanently failed", failure));
+            next.setStatus(LSMIOOperationStatus.FAILURE);
+            next.complete();
+            next = ops.poll();
+        }
+    }
+
+    private static long getInputSize(ILSMIOOperation operation) {
+        long size = 0;
+        for (ILSMComponent component : operation.getAccessor().getOpContext().getComponentHolder()) {
+            if (component instanceof ILSMDiskComponent) {
+                size += ((ILSMDiskComponent) component).getComponentSize();
+            }
+        }
+        return size;
+    }
+
+    public synchronized int getNumPendingOperations() {
+        return pendingOperations.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+    }
+
+    private static class PendingOperation {
+        private final ILSMIOOperation operation;
+        private final long size;
+        private final long sequence;
+
+        private PendingOperation(ILSMIOOperation operation, long size, long sequence) {
+            this.operation = operation;
+            this.size = size;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+
+/**
+ * Gathers the {@link ComponentStatistics} of a component while it is being bulk loaded and stores them in the
+ * component's metadata when the bulk load ends. Must come after the index bulk loader in the chain.
+ */
+public class StatisticsBulkLoader implements IChainedComponentBulkLoader {
+
+    private final ILSMDiskComponent component;
+    private final ComponentStatistics statistics;
+    private final byte[][] fieldData;
+    private final int[] fieldStarts;
+    private final int[] fieldLengths;
+
+    public StatisticsBulkLoader(ILSMDiskComponent component, int numFields) {
+        this.component = component;
+        this.statistics = new ComponentStatistics(numFields);
+        this.fieldData = new byte[numFields][];
+        this.fieldStarts = new int[numFields];
+        this.fieldLengths = new int[numFields];
+    }
+
+    @Override
+    public ITupleReference add(ITupleReference tuple) throws HyracksDataException {
+        if (tuple instanceof ILSMTreeTupleReference && ((ILSMTreeTupleReference) tuple).isAntimatter()) {
+            statistics.addAntimatterTuple();
+            return tuple;
+        }
+        for (int i = 0; i < fieldData.length; i++) {
+            fieldData[i] = tuple.getFieldData(i);
+            fieldStarts[i] = tuple.getFieldStart(i);
+            fieldLengths[i] = tuple.getFieldLength(i);
+        }
+        statistics.addTuple(fieldData, fieldStarts, fieldLengths);
+        return tuple;
+    }
+
+    @Override
+    public ITupleReference delete(ITupleReference tuple) throws HyracksDataException {
+        statistics.addAntimatterTuple();
+        return tuple;
+    }
+
+    @Override
+    public void end() throws HyracksDataException {
+        if (statistics.getNumTuples() > 0 || statistics.getNumAntimatterTuples() > 0) {
+            statistics.write(component.getMetadata());
+        }
+    }
+
+    @Override
+    public void abort() throws HyracksDataException {
+        //Noop
+    }
+
+    @Override
+    public void cleanupArtifacts() throws HyracksDataException {
+        //Noop
+    }
+}
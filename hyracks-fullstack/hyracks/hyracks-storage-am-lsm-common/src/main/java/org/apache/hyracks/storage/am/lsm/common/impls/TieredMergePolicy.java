@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.List;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+
+/**
+ * A size-tiered merge policy: once fan-out consecutive components of about the same size exist, they are merged
+ * into one component of the next tier. Each record is rewritten once per tier, so write amplification grows with
+ * log_fan-out of the data size, at the price of up to fan-out - 1 components per tier for readers to visit.
+ * Components are in the same tier when the largest is less than fan-out times the smallest.
+ */
+public class TieredMergePolicy extends AbstractSizeRatioMergePolicy {
+
+    @Override
+    protected List<ILSMDiskComponent> getMergableComponents(List<ILSMDiskComponent> immutableComponents) {
+        // look from the newest (smallest) tier first so that cheap merges are not held back by expensive ones
+        int numComponents = immutableComponents.size();
+        for (int start = 0; start + fanOut <= numComponents; start++) {
+            long minSize = Long.MAX_VALUE;
+            long maxSize = 0;
+            int end = start;
+            for (; end < start + fanOut; end++) {
+                ILSMDiskComponent component = immutableComponents.get(end);
+                if (!isMergable(component)) {
+                    break;
+                }
+                minSize = Math.min(minSize, component.getComponentSize());
+                maxSize = Math.max(maxSize, component.getComponentSize());
+            }
+            if (end == start + fanOut && maxSize < (double) fanOut * minSize) {
+                return immutableComponents.subList(start, end);
+            }
+        }
+        return null;
+    }
+}
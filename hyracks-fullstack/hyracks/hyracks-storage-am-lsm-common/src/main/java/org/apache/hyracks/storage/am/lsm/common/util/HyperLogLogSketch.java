@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.util;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHash;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct binary values it has seen.
+ * Sketches with the same precision can be merged, e.g., to combine the sketches of several disk components.
+ */
+public class HyperLogLogSketch {
+
+    public static final int DEFAULT_PRECISION = 10;
+    private static final int SEED_HIGH = 0x3c074a61;
+    private static final int SEED_LOW = 0x7fa1c7e5;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLogSketch() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLogSketch(int precision) {
+        this(precision, new byte[1 << precision]);
+    }
+
+    private HyperLogLogSketch(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    public void add(byte[] bytes, int offset, int length) {
+        long hash = ((long) MurmurHash3BinaryHash.hash(bytes, offset, length, SEED_HIGH) << 32)
+                | (MurmurHash3BinaryHash.hash(bytes, offset, length, SEED_LOW) & 0xffffffffL);
+        int register = (int) (hash >>> (Long.SIZE - precision));
+        long remaining = hash << precision;
+        byte rank = (byte) (remaining == 0 ? Long.SIZE - precision + 1 : Long.numberOfLeadingZeros(remaining) + 1);
+        if (registers[register] < rank) {
+            registers[register] = rank;
+        }
+    }
+
+    public void merge(HyperLogLogSketch other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(
+                    "Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : registers) {
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // small range correction: linear counting
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    public static HyperLogLogSketch wrap(int precision, byte[] bytes, int offset) {
+        return new HyperLogLogSketch(precision, Arrays.copyOfRange(bytes, offset, offset + (1 << precision)));
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.hyracks.storage.am.lsm.invertedindex.api;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexSearchPredicate;
 import org.apache.hyracks.storage.common.IIndexAccessor;
 import org.apache.hyracks.storage.common.IIndexCursor;
 import org.apache.hyracks.storage.common.ISearchPredicate;
@@ -34,4 +35,10 @@ public interface IInvertedIndexAccessor extends IIndexAccessor {
     public IIndexCursor createRangeSearchCursor() throws HyracksDataException;
 
     public void rangeSearch(IIndexCursor cursor, ISearchPredicate searchPred) throws HyracksDataException;
+
+    /**
+     * Adds the number of documents of the index that contain each token of the query to the ranking statistics of
+     * the given predicate.
+     */
+    public void addDocumentFrequencies(InvertedIndexSearchPredicate searchPred) throws HyracksDataException;
 }
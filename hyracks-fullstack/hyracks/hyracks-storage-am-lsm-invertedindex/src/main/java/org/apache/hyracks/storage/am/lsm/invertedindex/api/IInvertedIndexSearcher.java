@@ -44,6 +44,13 @@ public interface IInvertedIndexSearcher {
      */
     public boolean continueSearch() throws HyracksDataException;
 
+    /**
+     * Adds the number of elements of the inverted list of each token of the query to the ranking statistics of the
+     * search predicate.
+     */
+    public void addDocumentFrequencies(InvertedIndexSearchPredicate searchPred, IIndexOperationContext ictx)
+            throws HyracksDataException;
+
     public boolean hasNext() throws HyracksDataException;
 
     public void next() throws HyracksDataException;
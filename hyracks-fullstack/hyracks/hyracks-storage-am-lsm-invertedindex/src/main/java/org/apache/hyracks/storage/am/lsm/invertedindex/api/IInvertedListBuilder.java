@@ -33,4 +33,8 @@ public interface IInvertedListBuilder {
     public int getListSize();
 
     public int getPos();
+
+    // returns true if the elements are delta-encoded by a CompressedInvertedListBuilder
+    // and have to be read by the compressed inverted list cursors
+    public boolean isCompressed();
 }
@@ -52,9 +52,22 @@ public class BinaryTokenizerOperatorDescriptor extends AbstractSingleActivityOpe
 
     private final IMissingWriterFactory missingWriterFactory;
 
+    // Indicates whether each distinct token of a document is written once, followed by its term frequency and the
+    // document length as the last two fields, for an inverted index with term statistics. The token is then
+    // written first.
+    private final boolean writeTermStatistics;
+
     public BinaryTokenizerOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor recDesc,
             IBinaryTokenizerFactory tokenizerFactory, int docField, int[] keyFields, boolean addNumTokensKey,
             boolean writeKeyFieldsFirst, boolean writeMissing, IMissingWriterFactory missingWriterFactory) {
+        this(spec, recDesc, tokenizerFactory, docField, keyFields, addNumTokensKey, writeKeyFieldsFirst, writeMissing,
+                missingWriterFactory, false);
+    }
+
+    public BinaryTokenizerOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor recDesc,
+            IBinaryTokenizerFactory tokenizerFactory, int docField, int[] keyFields, boolean addNumTokensKey,
+            boolean writeKeyFieldsFirst, boolean writeMissing, IMissingWriterFactory missingWriterFactory,
+            boolean writeTermStatistics) {
         super(spec, 1, 1);
         this.tokenizerFactory = tokenizerFactory;
         this.docField = docField;
@@ -64,6 +77,7 @@ public class BinaryTokenizerOperatorDescriptor extends AbstractSingleActivityOpe
         this.writeKeyFieldsFirst = writeKeyFieldsFirst;
         this.writeMissing = writeMissing;
         this.missingWriterFactory = missingWriterFactory;
+        this.writeTermStatistics = writeTermStatistics;
     }
 
     @Override
@@ -72,6 +86,6 @@ public class BinaryTokenizerOperatorDescriptor extends AbstractSingleActivityOpe
         return new BinaryTokenizerOperatorNodePushable(ctx,
                 recordDescProvider.getInputRecordDescriptor(getActivityId(), 0), outRecDescs[0],
                 tokenizerFactory.createTokenizer(), docField, keyFields, addNumTokensKey, writeKeyFieldsFirst,
-                writeMissing, missingWriterFactory);
+                writeMissing, missingWriterFactory, writeTermStatistics);
     }
 }
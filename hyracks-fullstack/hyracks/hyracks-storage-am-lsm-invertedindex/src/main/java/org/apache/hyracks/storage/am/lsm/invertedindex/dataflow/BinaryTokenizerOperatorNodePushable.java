@@ -38,6 +38,7 @@ import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizer;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IToken;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.TermFrequencyCounter;
 
 public class BinaryTokenizerOperatorNodePushable extends AbstractUnaryInputUnaryOutputOperatorNodePushable {
 
@@ -52,6 +53,8 @@ public class BinaryTokenizerOperatorNodePushable extends AbstractUnaryInputUnary
     private final boolean writeMissing;
     private final IMissingWriter missingWriter;
     private final FrameTupleReference tuple = new FrameTupleReference();
+    // Counts the distinct tokens of a document if the term statistics are written
+    private final TermFrequencyCounter termFrequencyCounter;
 
     private FrameTupleAccessor accessor;
     private ArrayTupleBuilder builder;
@@ -62,6 +65,14 @@ public class BinaryTokenizerOperatorNodePushable extends AbstractUnaryInputUnary
             RecordDescriptor outputRecDesc, IBinaryTokenizer tokenizer, int docField, int[] keyFields,
             boolean addNumTokensKey, boolean writeKeyFieldsFirst, boolean writeMissing,
             IMissingWriterFactory missingWriterFactory) {
+        this(ctx, inputRecDesc, outputRecDesc, tokenizer, docField, keyFields, addNumTokensKey, writeKeyFieldsFirst,
+                writeMissing, missingWriterFactory, false);
+    }
+
+    public BinaryTokenizerOperatorNodePushable(IHyracksTaskContext ctx, RecordDescriptor inputRecDesc,
+            RecordDescriptor outputRecDesc, IBinaryTokenizer tokenizer, int docField, int[] keyFields,
+            boolean addNumTokensKey, boolean writeKeyFieldsFirst, boolean writeMissing,
+            IMissingWriterFactory missingWriterFactory, boolean writeTermStatistics) {
         this.ctx = ctx;
         this.tokenizer = tokenizer;
         this.docField = docField;
@@ -72,6 +83,7 @@ public class BinaryTokenizerOperatorNodePushable extends AbstractUnaryInputUnary
         this.writeKeyFieldsFirst = writeKeyFieldsFirst;
         this.writeMissing = writeMissing;
         this.missingWriter = missingWriterFactory.createMissingWriter();
+        this.termFrequencyCounter = writeTermStatistics ? new TermFrequencyCounter() : null;
     }
 
     @Override
@@ -96,6 +108,10 @@ public class BinaryTokenizerOperatorNodePushable extends AbstractUnaryInputUnary
             if (!isDocFieldMissing(tuple)) {
                 tokenizer.reset(tuple.getFieldData(docField), tuple.getFieldStart(docField),
                         tuple.getFieldLength(docField));
+                if (termFrequencyCounter != null) {
+                    writeTermStatisticsTuples(i);
+                    continue;
+                }
                 if (addNumTokensKey) {
                     // Get the total number of tokens.
                     numTokens = tokenizer.getTokensCount();
@@ -166,10 +182,52 @@ public class BinaryTokenizerOperatorNodePushable extends AbstractUnaryInputUnary
             }
         }
 
+        // A missing document has no tokens.
+        if (termFrequencyCounter != null) {
+            try {
+                builder.getDataOutput().writeInt(0);
+                builder.addFieldEndOffset();
+                builder.getDataOutput().writeInt(0);
+                builder.addFieldEndOffset();
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+        }
         FrameUtils.appendToWriter(writer, appender, builder.getFieldEndOffsets(), builder.getByteArray(), 0,
                 builder.getSize());
     }
 
+    /**
+     * Writes one tuple per distinct token of the document:
+     * token, number of tokens (if a partitioned index), keyfield1 ... n, term frequency, document length
+     */
+    private void writeTermStatisticsTuples(int fieldIdx) throws HyracksDataException {
+        termFrequencyCounter.count(tokenizer);
+        int documentLength = termFrequencyCounter.getDocumentLength();
+        while (termFrequencyCounter.hasNext()) {
+            termFrequencyCounter.next();
+            builder.reset();
+            try {
+                builder.addField(termFrequencyCounter.getTokenData(), 0, termFrequencyCounter.getTokenLength());
+                if (addNumTokensKey) {
+                    builder.getDataOutput().writeShort(documentLength);
+                    builder.addFieldEndOffset();
+                }
+                for (int k = 0; k < keyFields.length; k++) {
+                    builder.addField(accessor, fieldIdx, keyFields[k]);
+                }
+                builder.getDataOutput().writeInt(termFrequencyCounter.getTermFrequency());
+                builder.addFieldEndOffset();
+                builder.getDataOutput().writeInt(documentLength);
+                builder.addFieldEndOffset();
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            FrameUtils.appendToWriter(writer, appender, builder.getFieldEndOffsets(), builder.getByteArray(), 0,
+                    builder.getSize());
+        }
+    }
+
     @Override
     public void close() throws HyracksDataException {
         try {
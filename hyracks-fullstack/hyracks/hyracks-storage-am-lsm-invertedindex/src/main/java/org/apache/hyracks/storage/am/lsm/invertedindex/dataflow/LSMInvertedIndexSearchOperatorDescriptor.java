@@ -31,6 +31,7 @@ import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearchModifier;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearchModifierFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IScoreWriterFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
 
 public class LSMInvertedIndexSearchOperatorDescriptor extends AbstractSingleActivityOperatorDescriptor {
@@ -51,6 +52,10 @@ public class LSMInvertedIndexSearchOperatorDescriptor extends AbstractSingleActi
     private final int numOfFields;
     // the maximum number of frames that this inverted-index-search can use
     private final int frameLimit;
+    // the number of the best-scored results of a ranked search, 0 if the search is not ranked
+    private final int topK;
+    // writes the scores of a ranked search, null if they are written as raw doubles
+    private final IScoreWriterFactory scoreWriterFactory;
 
     public LSMInvertedIndexSearchOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor outRecDesc,
             int queryField, IIndexDataflowHelperFactory indexHelperFactory,
@@ -59,6 +64,39 @@ public class LSMInvertedIndexSearchOperatorDescriptor extends AbstractSingleActi
             ISearchOperationCallbackFactory searchCallbackFactory, int[] minFilterFieldIndexes,
             int[] maxFilterFieldIndexes, boolean isFullTextSearchQuery, int numOfFields, boolean appendIndexFilter,
             int frameLimit) {
+        this(spec, outRecDesc, queryField, indexHelperFactory, queryTokenizerFactory, searchModifierFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, minFilterFieldIndexes,
+                maxFilterFieldIndexes, isFullTextSearchQuery, numOfFields, appendIndexFilter, frameLimit, 0);
+    }
+
+    /**
+     * @param topK
+     *            the number of the best-scored documents that a ranked search outputs, each one followed by its score,
+     *            or 0 for an unranked search
+     */
+    public LSMInvertedIndexSearchOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor outRecDesc,
+            int queryField, IIndexDataflowHelperFactory indexHelperFactory,
+            IBinaryTokenizerFactory queryTokenizerFactory, IInvertedIndexSearchModifierFactory searchModifierFactory,
+            boolean retainInput, boolean retainMissing, IMissingWriterFactory missingWriterFactory,
+            ISearchOperationCallbackFactory searchCallbackFactory, int[] minFilterFieldIndexes,
+            int[] maxFilterFieldIndexes, boolean isFullTextSearchQuery, int numOfFields, boolean appendIndexFilter,
+            int frameLimit, int topK) {
+        this(spec, outRecDesc, queryField, indexHelperFactory, queryTokenizerFactory, searchModifierFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, minFilterFieldIndexes,
+                maxFilterFieldIndexes, isFullTextSearchQuery, numOfFields, appendIndexFilter, frameLimit, topK, null);
+    }
+
+    /**
+     * @param scoreWriterFactory
+     *            creates the writer of the scores of a ranked search, or null to write them as raw doubles
+     */
+    public LSMInvertedIndexSearchOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor outRecDesc,
+            int queryField, IIndexDataflowHelperFactory indexHelperFactory,
+            IBinaryTokenizerFactory queryTokenizerFactory, IInvertedIndexSearchModifierFactory searchModifierFactory,
+            boolean retainInput, boolean retainMissing, IMissingWriterFactory missingWriterFactory,
+            ISearchOperationCallbackFactory searchCallbackFactory, int[] minFilterFieldIndexes,
+            int[] maxFilterFieldIndexes, boolean isFullTextSearchQuery, int numOfFields, boolean appendIndexFilter,
+            int frameLimit, int topK, IScoreWriterFactory scoreWriterFactory) {
         super(spec, 1, 1);
         this.indexHelperFactory = indexHelperFactory;
         this.queryTokenizerFactory = queryTokenizerFactory;
@@ -75,6 +113,8 @@ public class LSMInvertedIndexSearchOperatorDescriptor extends AbstractSingleActi
         this.numOfFields = numOfFields;
         this.outRecDescs[0] = outRecDesc;
         this.frameLimit = frameLimit;
+        this.topK = topK;
+        this.scoreWriterFactory = scoreWriterFactory;
     }
 
     @Override
@@ -85,6 +125,7 @@ public class LSMInvertedIndexSearchOperatorDescriptor extends AbstractSingleActi
                 recordDescProvider.getInputRecordDescriptor(getActivityId(), 0), partition, minFilterFieldIndexes,
                 maxFilterFieldIndexes, indexHelperFactory, retainInput, retainMissing, missingWriterFactory,
                 searchCallbackFactory, searchModifier, queryTokenizerFactory, queryField, isFullTextSearchQuery,
-                numOfFields, appendIndexFilter, frameLimit);
+                numOfFields, appendIndexFilter, frameLimit, topK,
+                scoreWriterFactory != null ? scoreWriterFactory.createScoreWriter() : null);
     }
 }
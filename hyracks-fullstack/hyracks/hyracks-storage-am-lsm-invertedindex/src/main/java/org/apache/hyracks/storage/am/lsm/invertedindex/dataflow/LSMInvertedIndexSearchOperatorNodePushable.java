@@ -19,12 +19,16 @@
 
 package org.apache.hyracks.storage.am.lsm.invertedindex.dataflow;
 
+import java.io.IOException;
+
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
 import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.common.utils.TaskUtil;
 import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
 import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
@@ -34,6 +38,7 @@ import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.common.dataflow.IndexSearchOperatorNodePushable;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearchModifier;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IScoreWriter;
 import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexSearchPredicate;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
@@ -51,6 +56,10 @@ public class LSMInvertedIndexSearchOperatorNodePushable extends IndexSearchOpera
     // Budget-constrained buffer manager for conducting the search operation
     protected final ISimpleFrameBufferManager bufferManagerForSearch;
     protected final IDeallocatableFramePool framePool;
+    // The number of the best-scored results of a ranked search, 0 if the search is not ranked
+    protected final int topK;
+    // Writes the scores of a ranked search, null if they are written as raw doubles
+    protected final IScoreWriter scoreWriter;
 
     public LSMInvertedIndexSearchOperatorNodePushable(IHyracksTaskContext ctx, RecordDescriptor inputRecDesc,
             int partition, int[] minFilterFieldIndexes, int[] maxFilterFieldIndexes,
@@ -59,6 +68,32 @@ public class LSMInvertedIndexSearchOperatorNodePushable extends IndexSearchOpera
             IInvertedIndexSearchModifier searchModifier, IBinaryTokenizerFactory binaryTokenizerFactory,
             int queryFieldIndex, boolean isFullTextSearchQuery, int numOfFields, boolean appendIndexFilter,
             int frameLimit) throws HyracksDataException {
+        this(ctx, inputRecDesc, partition, minFilterFieldIndexes, maxFilterFieldIndexes, indexHelperFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, searchModifier,
+                binaryTokenizerFactory, queryFieldIndex, isFullTextSearchQuery, numOfFields, appendIndexFilter,
+                frameLimit, 0);
+    }
+
+    public LSMInvertedIndexSearchOperatorNodePushable(IHyracksTaskContext ctx, RecordDescriptor inputRecDesc,
+            int partition, int[] minFilterFieldIndexes, int[] maxFilterFieldIndexes,
+            IIndexDataflowHelperFactory indexHelperFactory, boolean retainInput, boolean retainMissing,
+            IMissingWriterFactory missingWriterFactory, ISearchOperationCallbackFactory searchCallbackFactory,
+            IInvertedIndexSearchModifier searchModifier, IBinaryTokenizerFactory binaryTokenizerFactory,
+            int queryFieldIndex, boolean isFullTextSearchQuery, int numOfFields, boolean appendIndexFilter,
+            int frameLimit, int topK) throws HyracksDataException {
+        this(ctx, inputRecDesc, partition, minFilterFieldIndexes, maxFilterFieldIndexes, indexHelperFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, searchModifier,
+                binaryTokenizerFactory, queryFieldIndex, isFullTextSearchQuery, numOfFields, appendIndexFilter,
+                frameLimit, topK, null);
+    }
+
+    public LSMInvertedIndexSearchOperatorNodePushable(IHyracksTaskContext ctx, RecordDescriptor inputRecDesc,
+            int partition, int[] minFilterFieldIndexes, int[] maxFilterFieldIndexes,
+            IIndexDataflowHelperFactory indexHelperFactory, boolean retainInput, boolean retainMissing,
+            IMissingWriterFactory missingWriterFactory, ISearchOperationCallbackFactory searchCallbackFactory,
+            IInvertedIndexSearchModifier searchModifier, IBinaryTokenizerFactory binaryTokenizerFactory,
+            int queryFieldIndex, boolean isFullTextSearchQuery, int numOfFields, boolean appendIndexFilter,
+            int frameLimit, int topK, IScoreWriter scoreWriter) throws HyracksDataException {
         super(ctx, inputRecDesc, partition, minFilterFieldIndexes, maxFilterFieldIndexes, indexHelperFactory,
                 retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, appendIndexFilter);
         this.searchModifier = searchModifier;
@@ -70,6 +105,8 @@ public class LSMInvertedIndexSearchOperatorNodePushable extends IndexSearchOpera
             this.frameTuple = new FrameTupleReference();
         }
         this.numOfFields = numOfFields;
+        this.topK = topK;
+        this.scoreWriter = scoreWriter;
         // Intermediate and final search result will use this buffer manager to get frames.
         this.framePool = new DeallocatableFramePool(ctx, frameLimit * ctx.getInitialFrameSize());
         this.bufferManagerForSearch = new FramePoolBackedFrameBufferManager(framePool);
@@ -90,6 +127,7 @@ public class LSMInvertedIndexSearchOperatorNodePushable extends IndexSearchOpera
         invIndexSearchPred.setQueryTuple(frameTuple);
         invIndexSearchPred.setQueryFieldIndex(queryFieldIndex);
         invIndexSearchPred.setIsFullTextSearchQuery(isFullTextSearchQuery);
+        invIndexSearchPred.setTopK(topK);
         if (minFilterKey != null) {
             minFilterKey.reset(accessor, tupleIndex);
         }
@@ -98,6 +136,23 @@ public class LSMInvertedIndexSearchOperatorNodePushable extends IndexSearchOpera
         }
     }
 
+    @Override
+    protected void writeSearchResultToOutput(ITupleReference tuple) throws IOException {
+        if (topK == 0 || scoreWriter == null) {
+            super.writeSearchResultToOutput(tuple);
+            return;
+        }
+        // A ranked search appends the score to the fields of each document.
+        int scoreField = tuple.getFieldCount() - 1;
+        for (int i = 0; i < scoreField; i++) {
+            dos.write(tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i));
+            tb.addFieldEndOffset();
+        }
+        scoreWriter.writeScore(
+                DoublePointable.getDouble(tuple.getFieldData(scoreField), tuple.getFieldStart(scoreField)), dos);
+        tb.addFieldEndOffset();
+    }
+
     @Override
     protected int getFieldCount() {
         return numOfFields;
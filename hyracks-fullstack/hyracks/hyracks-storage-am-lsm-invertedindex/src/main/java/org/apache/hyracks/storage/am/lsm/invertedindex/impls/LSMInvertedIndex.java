@@ -89,6 +89,8 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
     protected final IBinaryComparatorFactory[] tokenCmpFactories;
     private final int[] filterFieldsForNonBulkLoadOps;
     private final int[] invertedIndexFieldsForNonBulkLoadOps;
+    // The inverted-list elements end with the term frequency and the document length.
+    protected final boolean termStatistics;
 
     public LSMInvertedIndex(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
             ILSMDiskComponentFactory componentFactory, IComponentFilterHelper filterHelper,
@@ -100,6 +102,24 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
             ILSMIOOperationScheduler ioScheduler, ILSMIOOperationCallbackFactory ioOpCallbackFactory,
             int[] invertedIndexFields, int[] filterFields, int[] filterFieldsForNonBulkLoadOps,
             int[] invertedIndexFieldsForNonBulkLoadOps, boolean durable, ITracer tracer) throws HyracksDataException {
+        this(ioManager, virtualBufferCaches, componentFactory, filterHelper, filterFrameFactory, filterManager,
+                bloomFilterFalsePositiveRate, diskBufferCache, fileManager, invListTypeTraits, invListCmpFactories,
+                tokenTypeTraits, tokenCmpFactories, tokenizerFactory, mergePolicy, opTracker, ioScheduler,
+                ioOpCallbackFactory, invertedIndexFields, filterFields, filterFieldsForNonBulkLoadOps,
+                invertedIndexFieldsForNonBulkLoadOps, durable, tracer, false);
+    }
+
+    public LSMInvertedIndex(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
+            ILSMDiskComponentFactory componentFactory, IComponentFilterHelper filterHelper,
+            ILSMComponentFilterFrameFactory filterFrameFactory, LSMComponentFilterManager filterManager,
+            double bloomFilterFalsePositiveRate, IBufferCache diskBufferCache, ILSMIndexFileManager fileManager,
+            ITypeTraits[] invListTypeTraits, IBinaryComparatorFactory[] invListCmpFactories,
+            ITypeTraits[] tokenTypeTraits, IBinaryComparatorFactory[] tokenCmpFactories,
+            IBinaryTokenizerFactory tokenizerFactory, ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker,
+            ILSMIOOperationScheduler ioScheduler, ILSMIOOperationCallbackFactory ioOpCallbackFactory,
+            int[] invertedIndexFields, int[] filterFields, int[] filterFieldsForNonBulkLoadOps,
+            int[] invertedIndexFieldsForNonBulkLoadOps, boolean durable, ITracer tracer, boolean termStatistics)
+            throws HyracksDataException {
         super(ioManager, virtualBufferCaches, diskBufferCache, fileManager, bloomFilterFalsePositiveRate, mergePolicy,
                 opTracker, ioScheduler, ioOpCallbackFactory, componentFactory, componentFactory, filterFrameFactory,
                 filterManager, filterFields, durable, filterHelper, invertedIndexFields, tracer);
@@ -110,13 +130,16 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
         this.tokenCmpFactories = tokenCmpFactories;
         this.filterFieldsForNonBulkLoadOps = filterFieldsForNonBulkLoadOps;
         this.invertedIndexFieldsForNonBulkLoadOps = invertedIndexFieldsForNonBulkLoadOps;
+        this.termStatistics = termStatistics;
+        ITypeTraits[] documentTypeTraits = InvertedIndexUtils.getDocumentTypeTraits(invListTypeTraits, termStatistics);
+        IBinaryComparatorFactory[] documentCmpFactories = getDocumentCmpFactories();
         int i = 0;
         for (IVirtualBufferCache virtualBufferCache : virtualBufferCaches) {
             InMemoryInvertedIndex memInvIndex =
                     createInMemoryInvertedIndex(virtualBufferCache, new VirtualFreePageManager(virtualBufferCache), i);
             BTree deleteKeysBTree =
                     BTreeUtils.createBTree(virtualBufferCache, new VirtualFreePageManager(virtualBufferCache),
-                            invListTypeTraits, invListCmpFactories, BTreeLeafFrameType.REGULAR_NSM,
+                            documentTypeTraits, documentCmpFactories, BTreeLeafFrameType.REGULAR_NSM,
                             ioManager.resolveAbsolutePath(fileManager.getBaseDir() + "_virtual_del_" + i), false);
             LSMInvertedIndexMemoryComponent mutableComponent = new LSMInvertedIndexMemoryComponent(this, memInvIndex,
                     deleteKeysBTree, virtualBufferCache, filterHelper == null ? null : filterHelper.createFilter());
@@ -223,7 +246,7 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
             ArrayList<IIndexAccessor> deletedKeysBTreeAccessors, List<ILSMComponent> operationalComponents) {
         ICursorInitialState initState;
         PermutingTupleReference keysOnlyTuple = createKeysOnlyTupleReference();
-        MultiComparator keyCmp = MultiComparator.create(invListCmpFactories);
+        MultiComparator keyCmp = MultiComparator.create(getDocumentCmpFactories());
 
         // TODO: This check is not pretty, but it does the job. Come up with something more OO in the future.
         // Distinguish between regular searches and range searches (mostly used in merges).
@@ -252,10 +275,11 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
      * fields.
      */
     private PermutingTupleReference createKeysOnlyTupleReference() {
-        // Project away token fields.
-        int[] keyFieldPermutation = new int[invListTypeTraits.length];
+        // Project away token fields and term statistics.
+        int numKeyFields = InvertedIndexUtils.getNumDocumentFields(invListTypeTraits.length, termStatistics);
+        int[] keyFieldPermutation = new int[numKeyFields];
         int numTokenFields = tokenTypeTraits.length;
-        for (int i = 0; i < invListTypeTraits.length; i++) {
+        for (int i = 0; i < numKeyFields; i++) {
             keyFieldPermutation[i] = numTokenFields + i;
         }
         return new PermutingTupleReference(keyFieldPermutation);
@@ -427,7 +451,7 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
             VirtualFreePageManager virtualFreePageManager, int id) throws HyracksDataException {
         return InvertedIndexUtils.createInMemoryBTreeInvertedindex(virtualBufferCache, virtualFreePageManager,
                 invListTypeTraits, invListCmpFactories, tokenTypeTraits, tokenCmpFactories, tokenizerFactory,
-                ioManager.resolveAbsolutePath(fileManager.getBaseDir() + "_virtual_vocab_" + id));
+                ioManager.resolveAbsolutePath(fileManager.getBaseDir() + "_virtual_vocab_" + id), termStatistics);
     }
 
     @Override
@@ -465,6 +489,21 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
         return tokenizerFactory;
     }
 
+    /**
+     * @return whether the inverted-list elements end with the term frequency and the document length of a ranked
+     *         search
+     */
+    public boolean hasTermStatistics() {
+        return termStatistics;
+    }
+
+    /**
+     * @return the comparators of the fields that identify a document, which are the keys of the deleted-keys BTrees
+     */
+    public IBinaryComparatorFactory[] getDocumentCmpFactories() {
+        return InvertedIndexUtils.getDocumentCmpFactories(invListCmpFactories, termStatistics);
+    }
+
     @Override
     public boolean isPrimaryIndex() {
         return false;
@@ -35,6 +35,7 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
 import org.apache.hyracks.storage.am.lsm.common.api.LSMOperationType;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.InvertedListCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexSearchPredicate;
 import org.apache.hyracks.storage.common.IIndexCursor;
 import org.apache.hyracks.storage.common.ISearchPredicate;
 
@@ -186,6 +187,12 @@ public class LSMInvertedIndexAccessor implements ILSMIndexAccessor, IInvertedInd
         throw new UnsupportedOperationException("Cannot open inverted list cursor on lsm inverted index.");
     }
 
+    @Override
+    public void addDocumentFrequencies(InvertedIndexSearchPredicate searchPred) throws HyracksDataException {
+        throw new UnsupportedOperationException(
+                "Document frequencies are gathered per component of lsm inverted index.");
+    }
+
     @Override
     public void updateMeta(IValueReference key, IValueReference value) throws HyracksDataException {
         // a hack because delete only gets the memory component
@@ -27,11 +27,14 @@ import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManager;
 import org.apache.hyracks.storage.am.lsm.common.api.AbstractLSMWithBuddyDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.impls.ChainedLSMDiskComponentBulkLoader;
 import org.apache.hyracks.storage.am.lsm.common.impls.IChainedComponentBulkLoader;
 import org.apache.hyracks.storage.am.lsm.common.impls.IndexWithBuddyBulkLoader;
 import org.apache.hyracks.storage.am.lsm.common.util.ComponentUtils;
 import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.OnDiskInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexDocumentStatistics;
 import org.apache.hyracks.storage.common.IIndexBulkLoader;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 
@@ -40,6 +43,7 @@ public class LSMInvertedIndexDiskComponent extends AbstractLSMWithBuddyDiskCompo
     private final OnDiskInvertedIndex invIndex;
     private final BTree deletedKeysBTree;
     private final BloomFilter bloomFilter;
+    private volatile InvertedIndexDocumentStatistics documentStatistics;
 
     public LSMInvertedIndexDiskComponent(AbstractLSMIndex lsmIndex, OnDiskInvertedIndex invIndex,
             BTree deletedKeysBTree, BloomFilter bloomFilter, ILSMComponentFilter filter) {
@@ -122,4 +126,27 @@ public class LSMInvertedIndexDiskComponent extends AbstractLSMWithBuddyDiskCompo
                 getBuddyIndex().createBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex);
         return new IndexWithBuddyBulkLoader(indexBulkLoader, buddyBulkLoader);
     }
+
+    @Override
+    public ChainedLSMDiskComponentBulkLoader createBulkLoader(ILSMIOOperation operation, float fillFactor,
+            boolean verifyInput, long numElementsHint, boolean checkIfEmptyIndex, boolean withFilter,
+            boolean cleanupEmptyComponent) throws HyracksDataException {
+        ChainedLSMDiskComponentBulkLoader chainedBulkLoader = super.createBulkLoader(operation, fillFactor, verifyInput,
+                numElementsHint, checkIfEmptyIndex, withFilter, cleanupEmptyComponent);
+        if (((LSMInvertedIndex) getLsmIndex()).hasTermStatistics()) {
+            chainedBulkLoader.addBulkLoader(new TermStatisticsBulkLoader(this));
+        }
+        return chainedBulkLoader;
+    }
+
+    /**
+     * @return the statistics of the documents of a component with term statistics, which are written once by its
+     *         bulk load
+     */
+    public InvertedIndexDocumentStatistics getDocumentStatistics() throws HyracksDataException {
+        if (documentStatistics == null) {
+            documentStatistics = InvertedIndexDocumentStatistics.read(getMetadata());
+        }
+        return documentStatistics;
+    }
 }
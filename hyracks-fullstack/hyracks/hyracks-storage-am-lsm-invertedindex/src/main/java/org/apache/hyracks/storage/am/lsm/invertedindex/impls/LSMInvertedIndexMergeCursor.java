@@ -130,7 +130,10 @@ public class LSMInvertedIndexMergeCursor extends EnforcedIndexCursor implements
                 }
             }
         }
-        deletedKeyBTreeSearchPred = new RangePredicate(null, null, true, true, keyCmp, keyCmp);
+        // The deleted-keys BTrees only keep the fields that identify the documents.
+        MultiComparator documentCmp =
+                MultiComparator.create(((LSMInvertedIndex) opCtx.getIndex()).getDocumentCmpFactories());
+        deletedKeyBTreeSearchPred = new RangePredicate(null, null, true, true, documentCmp, documentCmp);
         initPriorityQueues();
     }
 
@@ -18,18 +18,31 @@
  */
 package org.apache.hyracks.storage.am.lsm.invertedindex.impls;
 
+import java.util.Arrays;
 import java.util.List;
 
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
 import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
 import org.apache.hyracks.storage.am.common.api.ILSMIndexCursor;
+import org.apache.hyracks.storage.am.common.tuples.PermutingTupleReference;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMHarness;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListElementFilter;
+import org.apache.hyracks.storage.am.lsm.invertedindex.inmemory.InMemoryInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.FixedSizeTupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexRankingStatistics;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexSearchPredicate;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.ScoreHeap;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexDocumentStatistics;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexUtils;
 import org.apache.hyracks.storage.common.EnforcedIndexCursor;
 import org.apache.hyracks.storage.common.ICursorInitialState;
 import org.apache.hyracks.storage.common.IIndexAccessor;
@@ -41,6 +54,11 @@ import org.apache.hyracks.storage.common.MultiComparator;
 /**
  * Searches the components one-by-one, completely consuming a cursor before moving on to the next one.
  * Therefore, the are no guarantees about sort order of the results.
+ *
+ * A ranked search scores the elements of all components by the statistics of the whole index, i.e. the number of
+ * documents, their average length and the document frequencies of the query tokens summed up over the components.
+ * Each component rejects its deleted elements before they can take a place among the topK elements, and the results
+ * of the components are merged into the topK elements of the index, sorted by descending scores.
  */
 public class LSMInvertedIndexSearchCursor extends EnforcedIndexCursor implements ILSMIndexCursor {
 
@@ -67,6 +85,21 @@ public class LSMInvertedIndexSearchCursor extends EnforcedIndexCursor implements
 
     private final long[] hashes = BloomFilter.createHashArray();
 
+    // Projects the elements of an index with term statistics to their documents
+    private PermutingTupleReference documentTuple;
+
+    // For a ranked search
+    private boolean isRankedSearch;
+    private boolean isRankedSearchDone;
+    private final InvertedIndexRankingStatistics rankingStatistics = new InvertedIndexRankingStatistics();
+    private final IInvertedListElementFilter deletedElementFilter = element -> !isDeleted(element);
+    private final ScoreHeap rankedResultHeap = new ScoreHeap();
+    private FixedSizeTupleReference rankedResultTuple;
+    private int documentSize;
+    private byte[] rankedResults = new byte[0];
+    private int numRankedResults;
+    private int rankedResultIndex;
+
     @Override
     public void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
         LSMInvertedIndexSearchCursorInitialState lsmInitState = (LSMInvertedIndexSearchCursorInitialState) initialState;
@@ -96,6 +129,96 @@ public class LSMInvertedIndexSearchCursor extends EnforcedIndexCursor implements
 
         MultiComparator keyCmp = lsmInitState.getKeyComparator();
         keySearchPred = new RangePredicate(null, null, true, true, keyCmp, keyCmp);
+
+        LSMInvertedIndex lsmIndex = (LSMInvertedIndex) opCtx.getIndex();
+        ITypeTraits[] documentTypeTraits =
+                InvertedIndexUtils.getDocumentTypeTraits(lsmIndex.getInvListTypeTraits(), lsmIndex.hasTermStatistics());
+        isRankedSearch = ((InvertedIndexSearchPredicate) searchPred).getTopK() > 0;
+        isRankedSearchDone = false;
+        if (isRankedSearch && rankedResultTuple == null) {
+            ITypeTraits[] resultTypeTraits = Arrays.copyOf(documentTypeTraits, documentTypeTraits.length + 1);
+            resultTypeTraits[documentTypeTraits.length] = DoublePointable.TYPE_TRAITS;
+            rankedResultTuple = new FixedSizeTupleReference(resultTypeTraits);
+            documentSize = 0;
+            for (ITypeTraits typeTraits : documentTypeTraits) {
+                documentSize += typeTraits.getFixedLength();
+            }
+        }
+        if (!isRankedSearch && lsmIndex.hasTermStatistics() && documentTuple == null) {
+            int[] documentFields = new int[documentTypeTraits.length];
+            for (int i = 0; i < documentFields.length; i++) {
+                documentFields[i] = i;
+            }
+            documentTuple = new PermutingTupleReference(documentFields);
+        }
+    }
+
+    /**
+     * Gathers the ranking statistics of all components, searches the components with them from the newest to the
+     * oldest one and keeps the topK documents with the highest scores.
+     */
+    private void searchRanked() throws HyracksDataException {
+        InvertedIndexSearchPredicate invSearchPred = (InvertedIndexSearchPredicate) searchPred;
+        LSMInvertedIndex lsmIndex = (LSMInvertedIndex) opCtx.getIndex();
+        rankingStatistics.reset(lsmIndex.hasTermStatistics());
+        invSearchPred.setRankingStatistics(rankingStatistics);
+        try {
+            for (int i = 0; i < operationalComponents.size(); i++) {
+                ILSMComponent component = operationalComponents.get(i);
+                if (lsmIndex.hasTermStatistics()) {
+                    InvertedIndexDocumentStatistics documentStatistics = component.getType() == LSMComponentType.MEMORY
+                            ? ((InMemoryInvertedIndex) component.getIndex()).getDocumentStatistics()
+                            : ((LSMInvertedIndexDiskComponent) component).getDocumentStatistics();
+                    rankingStatistics.addDocuments(documentStatistics.getNumDocuments(),
+                            documentStatistics.getNumTokens());
+                }
+                ((IInvertedIndexAccessor) indexAccessors.get(i)).addDocumentFrequencies(invSearchPred);
+            }
+
+            rankedResultHeap.reset(invSearchPred.getTopK(), documentSize);
+            for (accessorIndex = 0; accessorIndex < indexAccessors.size(); accessorIndex++) {
+                // The newest component has no newer deletes, and an element of an older component has to reach the
+                // lowest score of the topK elements found so far.
+                invSearchPred.setElementFilter(accessorIndex > 0 ? deletedElementFilter : null);
+                invSearchPred.setScoreThreshold(
+                        rankedResultHeap.isFull() ? rankedResultHeap.getMinScore() : Double.NEGATIVE_INFINITY);
+                currentAccessor = indexAccessors.get(accessorIndex);
+                currentCursor = currentAccessor.createSearchCursor(false);
+                try {
+                    currentAccessor.search(currentCursor, invSearchPred);
+                    while (currentCursor.hasNext()) {
+                        currentCursor.next();
+                        ITupleReference tuple = currentCursor.getTuple();
+                        int scoreField = tuple.getFieldCount() - 1;
+                        double score = DoublePointable.getDouble(tuple.getFieldData(scoreField),
+                                tuple.getFieldStart(scoreField));
+                        if (rankedResultHeap.accepts(score)) {
+                            rankedResultHeap.offer(score, tuple.getFieldData(0), tuple.getFieldStart(0));
+                        }
+                    }
+                } finally {
+                    currentCursor.close();
+                    currentCursor = null;
+                }
+            }
+        } finally {
+            invSearchPred.setRankingStatistics(null);
+            invSearchPred.setElementFilter(null);
+            invSearchPred.setScoreThreshold(Double.NEGATIVE_INFINITY);
+        }
+
+        int resultSize = documentSize + Double.BYTES;
+        numRankedResults = rankedResultHeap.size();
+        if (rankedResults.length < numRankedResults * resultSize) {
+            rankedResults = new byte[numRankedResults * resultSize];
+        }
+        // Removes the lowest score first, so the results are written from the back.
+        for (int i = numRankedResults - 1; i >= 0; i--) {
+            int off = i * resultSize;
+            DoublePointable.setDouble(rankedResults, off + documentSize, rankedResultHeap.getMinScore());
+            rankedResultHeap.removeMin(rankedResults, off);
+        }
+        rankedResultIndex = 0;
     }
 
     protected boolean isDeleted(ITupleReference key) throws HyracksDataException {
@@ -145,6 +268,13 @@ public class LSMInvertedIndexSearchCursor extends EnforcedIndexCursor implements
 
     @Override
     public boolean doHasNext() throws HyracksDataException {
+        if (isRankedSearch) {
+            if (!isRankedSearchDone) {
+                searchRanked();
+                isRankedSearchDone = true;
+            }
+            return rankedResultIndex < numRankedResults;
+        }
         if (!tupleConsumed) {
             return true;
         }
@@ -172,6 +302,11 @@ public class LSMInvertedIndexSearchCursor extends EnforcedIndexCursor implements
 
     @Override
     public void doNext() throws HyracksDataException {
+        if (isRankedSearch) {
+            rankedResultTuple.reset(rankedResults, rankedResultIndex * (documentSize + Double.BYTES));
+            rankedResultIndex++;
+            return;
+        }
         // Mark the tuple as consumed, so hasNext() can move on.
         tupleConsumed = true;
     }
@@ -189,6 +324,9 @@ public class LSMInvertedIndexSearchCursor extends EnforcedIndexCursor implements
                 currentCursor = null;
             }
             accessorIndex = 0;
+            isRankedSearchDone = false;
+            numRankedResults = 0;
+            rankedResultIndex = 0;
         } finally {
             if (harness != null) {
                 harness.endSearch(opCtx);
@@ -198,6 +336,13 @@ public class LSMInvertedIndexSearchCursor extends EnforcedIndexCursor implements
 
     @Override
     public ITupleReference doGetTuple() {
+        if (isRankedSearch) {
+            return rankedResultTuple;
+        }
+        if (documentTuple != null) {
+            documentTuple.reset(currentCursor.getTuple());
+            return documentTuple;
+        }
         return currentCursor.getTuple();
     }
 
@@ -214,7 +359,8 @@ public class LSMInvertedIndexSearchCursor extends EnforcedIndexCursor implements
     }
 
     private ILSMComponentFilter getComponentFilter() {
-        if (accessorIndex < 0) {
+        // The results of a ranked search come from all components.
+        if (accessorIndex < 0 || isRankedSearch) {
             return null;
         }
         return operationalComponents.get(accessorIndex).getLSMComponentFilter();
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.impls;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.impls.IChainedComponentBulkLoader;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexDocumentStatistics;
+
+/**
+ * Gathers the {@link InvertedIndexDocumentStatistics} of an inverted index component with term statistics while it
+ * is being bulk loaded and stores them in the component's metadata when the bulk load ends.
+ */
+public class TermStatisticsBulkLoader implements IChainedComponentBulkLoader {
+
+    private final ILSMDiskComponent component;
+    private final InvertedIndexDocumentStatistics statistics = new InvertedIndexDocumentStatistics();
+
+    public TermStatisticsBulkLoader(ILSMDiskComponent component) {
+        this.component = component;
+    }
+
+    @Override
+    public ITupleReference add(ITupleReference tuple) throws HyracksDataException {
+        statistics.addElement(tuple);
+        return tuple;
+    }
+
+    @Override
+    public ITupleReference delete(ITupleReference tuple) throws HyracksDataException {
+        // Deleted keys refer to the documents of older components, which keep counting them until they are merged.
+        return tuple;
+    }
+
+    @Override
+    public void end() throws HyracksDataException {
+        statistics.write(component.getMetadata());
+    }
+
+    @Override
+    public void abort() throws HyracksDataException {
+        //Noop
+    }
+
+    @Override
+    public void cleanupArtifacts() throws HyracksDataException {
+        //Noop
+    }
+}
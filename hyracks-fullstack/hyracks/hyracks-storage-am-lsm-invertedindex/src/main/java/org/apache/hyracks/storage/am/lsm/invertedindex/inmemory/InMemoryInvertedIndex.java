@@ -36,6 +36,7 @@ import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInPlaceInvertedIndex;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.InvertedListCursor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexDocumentStatistics;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
 import org.apache.hyracks.storage.common.IIndexBulkLoader;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
@@ -52,10 +53,24 @@ public class InMemoryInvertedIndex implements IInPlaceInvertedIndex {
     protected final ITypeTraits[] btreeTypeTraits;
     protected final IBinaryComparatorFactory[] btreeCmpFactories;
 
+    // The inverted-list elements end with the term frequency and the document length.
+    protected final boolean termStatistics;
+    protected final InvertedIndexDocumentStatistics documentStatistics = new InvertedIndexDocumentStatistics();
+
     public InMemoryInvertedIndex(IBufferCache virtualBufferCache, IPageManager virtualFreePageManager,
             ITypeTraits[] invListTypeTraits, IBinaryComparatorFactory[] invListCmpFactories,
             ITypeTraits[] tokenTypeTraits, IBinaryComparatorFactory[] tokenCmpFactories,
             IBinaryTokenizerFactory tokenizerFactory, FileReference btreeFileRef) throws HyracksDataException {
+        this(virtualBufferCache, virtualFreePageManager, invListTypeTraits, invListCmpFactories, tokenTypeTraits,
+                tokenCmpFactories, tokenizerFactory, btreeFileRef, false);
+    }
+
+    public InMemoryInvertedIndex(IBufferCache virtualBufferCache, IPageManager virtualFreePageManager,
+            ITypeTraits[] invListTypeTraits, IBinaryComparatorFactory[] invListCmpFactories,
+            ITypeTraits[] tokenTypeTraits, IBinaryComparatorFactory[] tokenCmpFactories,
+            IBinaryTokenizerFactory tokenizerFactory, FileReference btreeFileRef, boolean termStatistics)
+            throws HyracksDataException {
+        this.termStatistics = termStatistics;
         this.tokenTypeTraits = tokenTypeTraits;
         this.tokenCmpFactories = tokenCmpFactories;
         this.invListTypeTraits = invListTypeTraits;
@@ -90,6 +105,7 @@ public class InMemoryInvertedIndex implements IInPlaceInvertedIndex {
     @Override
     public void clear() throws HyracksDataException {
         btree.clear();
+        documentStatistics.reset();
     }
 
     @Override
@@ -116,6 +132,9 @@ public class InMemoryInvertedIndex implements IInPlaceInvertedIndex {
             ITupleReference insertTuple = ctx.getTupleIter().getTuple();
             try {
                 btreeAccessor.insert(insertTuple);
+                if (termStatistics) {
+                    documentStatistics.addElement(insertTuple);
+                }
             } catch (HyracksDataException e) {
                 if (e.getErrorCode() != ErrorCode.DUPLICATE_KEY) {
                     // This exception may be caused by duplicate tokens in the same insert "document".
@@ -136,6 +155,9 @@ public class InMemoryInvertedIndex implements IInPlaceInvertedIndex {
             ITupleReference deleteTuple = ctx.getTupleIter().getTuple();
             try {
                 btreeAccessor.delete(deleteTuple);
+                if (termStatistics) {
+                    documentStatistics.removeElement(deleteTuple);
+                }
             } catch (HyracksDataException e) {
                 if (e.getErrorCode() != ErrorCode.UPDATE_OR_DELETE_NON_EXISTENT_KEY) {
                     // Ignore this exception, since a document may have duplicate tokens.
@@ -178,7 +200,7 @@ public class InMemoryInvertedIndex implements IInPlaceInvertedIndex {
     @Override
     public InMemoryInvertedIndexAccessor createAccessor(IIndexAccessParameters iap) throws HyracksDataException {
         return new InMemoryInvertedIndexAccessor(this,
-                new InMemoryInvertedIndexOpContext(btree, tokenCmpFactories, tokenizerFactory),
+                new InMemoryInvertedIndexOpContext(btree, tokenCmpFactories, tokenizerFactory, termStatistics),
                 (IHyracksTaskContext) iap.getParameters().get(HyracksConstants.HYRACKS_TASK_CONTEXT));
     }
 
@@ -191,6 +213,17 @@ public class InMemoryInvertedIndex implements IInPlaceInvertedIndex {
         return btree;
     }
 
+    public boolean hasTermStatistics() {
+        return termStatistics;
+    }
+
+    /**
+     * @return the statistics of the documents of an index with term statistics
+     */
+    public InvertedIndexDocumentStatistics getDocumentStatistics() {
+        return documentStatistics;
+    }
+
     @Override
     public IBinaryComparatorFactory[] getInvListCmpFactories() {
         return invListCmpFactories;
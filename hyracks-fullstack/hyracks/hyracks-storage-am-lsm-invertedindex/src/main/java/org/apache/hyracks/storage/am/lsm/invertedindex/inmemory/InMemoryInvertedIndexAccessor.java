@@ -84,6 +84,14 @@ public class InMemoryInvertedIndexAccessor implements IInvertedIndexAccessor {
         searcher.search(cursor, (InvertedIndexSearchPredicate) searchPred, opCtx);
     }
 
+    @Override
+    public void addDocumentFrequencies(InvertedIndexSearchPredicate searchPred) throws HyracksDataException {
+        if (searcher == null) {
+            searcher = createSearcher();
+        }
+        searcher.addDocumentFrequencies(searchPred, opCtx);
+    }
+
     @Override
     public InvertedListCursor createInvertedListCursor() {
         return index.createInvertedListCursor(ctx);
@@ -30,11 +30,13 @@ import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizer;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexTokenizingTupleIterator;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.TermStatisticsTokenizingTupleIterator;
 import org.apache.hyracks.storage.common.MultiComparator;
 
 public class InMemoryInvertedIndexOpContext implements IIndexOperationContext {
     protected final BTree btree;
     protected final IBinaryComparatorFactory[] tokenCmpFactories;
+    protected final boolean termStatistics;
     private IndexOperation op;
 
     // Needed for search operations,
@@ -51,7 +53,13 @@ public class InMemoryInvertedIndexOpContext implements IIndexOperationContext {
 
     InMemoryInvertedIndexOpContext(BTree btree, IBinaryComparatorFactory[] tokenCmpFactories,
             IBinaryTokenizerFactory tokenizerFactory) {
+        this(btree, tokenCmpFactories, tokenizerFactory, false);
+    }
+
+    InMemoryInvertedIndexOpContext(BTree btree, IBinaryComparatorFactory[] tokenCmpFactories,
+            IBinaryTokenizerFactory tokenizerFactory, boolean termStatistics) {
         this.btree = btree;
+        this.termStatistics = termStatistics;
         this.tokenCmpFactories = tokenCmpFactories;
         this.tokenizerFactory = tokenizerFactory;
     }
@@ -94,8 +102,13 @@ public class InMemoryInvertedIndexOpContext implements IIndexOperationContext {
 
     protected void setTokenizingTupleIterator() {
         IBinaryTokenizer tokenizer = getTokenizerFactory().createTokenizer();
-        tupleIter = new InvertedIndexTokenizingTupleIterator(tokenCmpFactories.length,
-                btree.getFieldCount() - tokenCmpFactories.length, tokenizer);
+        if (termStatistics) {
+            tupleIter = new TermStatisticsTokenizingTupleIterator(tokenCmpFactories.length,
+                    btree.getFieldCount() - tokenCmpFactories.length, tokenizer, false);
+        } else {
+            tupleIter = new InvertedIndexTokenizingTupleIterator(tokenCmpFactories.length,
+                    btree.getFieldCount() - tokenCmpFactories.length, tokenizer);
+        }
     }
 
     public InvertedIndexTokenizingTupleIterator getTupleIter() {
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListBuilder;
+
+/**
+ * Builds inverted lists of fixed-size elements that are stored delta-encoded. An inverted list has one segment on
+ * every page it spans, the elements of a segment are stored in blocks of at most {@link #BLOCK_SIZE} elements:
+ *
+ * <pre>
+ * segment: [number of elements (int)] [block] [block] ...
+ * block:   [length of the block after the length field (int)] [first element] [encoded element] ...
+ * </pre>
+ *
+ * The first element of a block is stored as is, so that a reader can skip a whole block by comparing a key with the
+ * first element of the next block. Every other element is encoded relative to its predecessor: if the leading bytes
+ * of both elements are the same, the difference of the last (up to 8) bytes is stored as a zig-zag encoded
+ * variable-length integer that is shifted to the left by one bit. Otherwise, a single byte 1 is followed by the
+ * element as is. For ascending integer primary keys, most elements take one or two bytes.
+ *
+ * @see CompressedInvertedListCursor
+ * @see CompressedInvertedListScanCursor
+ */
+public class CompressedInvertedListBuilder implements IInvertedListBuilder {
+    public static final int BLOCK_SIZE = 128;
+    static final int SEGMENT_HEADER_SIZE = Integer.BYTES;
+    static final int BLOCK_HEADER_SIZE = Integer.BYTES;
+    static final int ESCAPE = 1;
+    // the longest encoding of an element relative to its predecessor
+    private static final int MAX_VARINT_SIZE = 9;
+
+    private final int elementSize;
+    private final int lowSize;
+    private final byte[] element;
+    private final byte[] prevElement;
+    private final byte[] encoded;
+    private int listSize = 0;
+
+    private byte[] targetBuf;
+    private int pos;
+    // the start of the segment of the current list on the target buffer, -1 if there is none yet
+    private int segmentStart = -1;
+    private int segmentSize;
+    private int blockStart;
+    private int blockSize;
+
+    public CompressedInvertedListBuilder(ITypeTraits[] invListFields) {
+        int tmp = 0;
+        for (int i = 0; i < invListFields.length; i++) {
+            tmp += invListFields[i].getFixedLength();
+        }
+        elementSize = tmp;
+        lowSize = getLowSize(elementSize);
+        element = new byte[elementSize];
+        prevElement = new byte[elementSize];
+        encoded = new byte[Math.max(MAX_VARINT_SIZE, 1 + elementSize)];
+    }
+
+    @Override
+    public boolean startNewList(ITupleReference tuple, int numTokenFields) {
+        // the list starts at the current position, once its first element is appended
+        if (pos + SEGMENT_HEADER_SIZE + BLOCK_HEADER_SIZE + elementSize > targetBuf.length) {
+            return false;
+        }
+        listSize = 0;
+        segmentStart = -1;
+        return true;
+    }
+
+    @Override
+    public boolean appendElement(ITupleReference tuple, int numTokenFields, int numElementFields) {
+        int off = 0;
+        for (int i = 0; i < numElementFields; i++) {
+            int field = numTokenFields + i;
+            System.arraycopy(tuple.getFieldData(field), tuple.getFieldStart(field), element, off,
+                    tuple.getFieldLength(field));
+            off += tuple.getFieldLength(field);
+        }
+
+        if (segmentStart < 0) {
+            if (pos + SEGMENT_HEADER_SIZE + BLOCK_HEADER_SIZE + elementSize > targetBuf.length) {
+                return false;
+            }
+            segmentStart = pos;
+            segmentSize = 0;
+            pos += SEGMENT_HEADER_SIZE;
+            startBlock();
+        } else if (blockSize == BLOCK_SIZE) {
+            if (pos + BLOCK_HEADER_SIZE + elementSize > targetBuf.length) {
+                return false;
+            }
+            startBlock();
+        } else {
+            int length = encode();
+            if (pos + length > targetBuf.length) {
+                return false;
+            }
+            System.arraycopy(encoded, 0, targetBuf, pos, length);
+            pos += length;
+            blockSize++;
+        }
+
+        segmentSize++;
+        IntegerPointable.setInteger(targetBuf, segmentStart, segmentSize);
+        IntegerPointable.setInteger(targetBuf, blockStart, pos - blockStart - BLOCK_HEADER_SIZE);
+        System.arraycopy(element, 0, prevElement, 0, elementSize);
+        listSize++;
+        return true;
+    }
+
+    private void startBlock() {
+        blockStart = pos;
+        pos += BLOCK_HEADER_SIZE;
+        System.arraycopy(element, 0, targetBuf, pos, elementSize);
+        pos += elementSize;
+        blockSize = 1;
+    }
+
+    /**
+     * Encodes the current element relative to the previous element into the encoded buffer.
+     *
+     * @return the length of the encoding
+     */
+    private int encode() {
+        int highSize = elementSize - lowSize;
+        boolean sameHigh = true;
+        for (int i = 0; i < highSize && sameHigh; i++) {
+            sameHigh = element[i] == prevElement[i];
+        }
+        if (sameHigh) {
+            long diff = getLow(element, 0, elementSize, lowSize) - getLow(prevElement, 0, elementSize, lowSize);
+            // sign-extends the difference of the low bytes
+            int shift = Long.SIZE - lowSize * Byte.SIZE;
+            diff = (diff << shift) >> shift;
+            long zigZag = (diff << 1) ^ (diff >> (Long.SIZE - 1));
+            if ((zigZag >>> (Long.SIZE - 2)) == 0) {
+                return putVarLong(encoded, 0, zigZag << 1);
+            }
+        }
+        encoded[0] = ESCAPE;
+        System.arraycopy(element, 0, encoded, 1, elementSize);
+        return 1 + elementSize;
+    }
+
+    @Override
+    public void setTargetBuffer(byte[] targetBuf, int startPos) {
+        this.targetBuf = targetBuf;
+        this.pos = startPos;
+        // the list continues in a new segment on the new page
+        this.segmentStart = -1;
+    }
+
+    @Override
+    public int getListSize() {
+        return listSize;
+    }
+
+    @Override
+    public int getPos() {
+        return pos;
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return true;
+    }
+
+    static int getLowSize(int elementSize) {
+        return Math.min(Long.BYTES, elementSize);
+    }
+
+    /**
+     * @return the last lowSize bytes of the element that starts at off as big-endian number
+     */
+    static long getLow(byte[] bytes, int off, int elementSize, int lowSize) {
+        long value = 0;
+        for (int i = off + elementSize - lowSize; i < off + elementSize; i++) {
+            value = (value << Byte.SIZE) | (bytes[i] & 0xff);
+        }
+        return value;
+    }
+
+    /**
+     * Sets the last lowSize bytes of the element that starts at off to the lowest bytes of the value.
+     */
+    static void setLow(byte[] bytes, int off, int elementSize, int lowSize, long value) {
+        for (int i = off + elementSize - 1; i >= off + elementSize - lowSize; i--) {
+            bytes[i] = (byte) value;
+            value >>>= Byte.SIZE;
+        }
+    }
+
+    static int putVarLong(byte[] bytes, int off, long value) {
+        int i = off;
+        while ((value & ~0x7fL) != 0) {
+            bytes[i++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[i++] = (byte) value;
+        return i - off;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TaskUtil;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.InvertedListCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * A cursor that traverses an inverted list that was built by a {@link CompressedInvertedListBuilder}.
+ * The pages of the list are copied one at a time into a single frame of the working memory. Since the elements are
+ * delta-encoded, the list is only read forward: {@link #containsKey(ITupleReference, MultiComparator)} expects
+ * ascending search tuples and skips the blocks of a page whose elements are all less than the search tuple.
+ */
+public class CompressedInvertedListCursor extends InvertedListCursor {
+
+    private final IBufferCache bufferCache;
+    private final int fileId;
+    private final ITypeTraits[] invListFields;
+    private final CompressedInvertedListSegmentReader reader;
+    // the whole range of the given inverted list
+    private int startPageId;
+    private int endPageId;
+    private int startOff;
+    private int numElements;
+    // the page in the buffer and the number of elements on the pages before it
+    private int currentPageId;
+    private int numElementsBeforePage;
+    // buffer manager to conform to the memory budget
+    private final ISimpleFrameBufferManager bufferManagerForSearch;
+    private ByteBuffer buffer;
+
+    public CompressedInvertedListCursor(IBufferCache bufferCache, int fileId, ITypeTraits[] invListFields,
+            IHyracksTaskContext ctx) throws HyracksDataException {
+        this.bufferCache = bufferCache;
+        this.fileId = fileId;
+        this.invListFields = invListFields;
+        this.reader = new CompressedInvertedListSegmentReader(invListFields);
+        if (ctx == null) {
+            throw HyracksDataException.create(ErrorCode.CANNOT_CONTINUE_TEXT_SEARCH_HYRACKS_TASK_IS_NULL);
+        }
+        this.bufferManagerForSearch = TaskUtil.get(HyracksConstants.INVERTED_INDEX_SEARCH_FRAME_MANAGER, ctx);
+        if (bufferManagerForSearch == null) {
+            throw HyracksDataException.create(ErrorCode.CANNOT_CONTINUE_TEXT_SEARCH_BUFFER_MANAGER_IS_NULL);
+        }
+    }
+
+    @Override
+    public boolean doHasNext() {
+        return numElementsBeforePage + reader.getIndex() + 1 < numElements;
+    }
+
+    @Override
+    public void doNext() throws HyracksDataException {
+        if (!reader.hasNext()) {
+            loadPages();
+        }
+        reader.next();
+    }
+
+    /**
+     * Acquires the frame that the pages of the list are copied to.
+     */
+    @Override
+    public void prepareLoadPages() throws HyracksDataException {
+        if (buffer == null) {
+            buffer = bufferManagerForSearch.acquireFrame(bufferCache.getPageSize());
+            if (buffer == null) {
+                throw HyracksDataException.create(ErrorCode.NOT_ENOUGH_BUDGET_FOR_TEXTSEARCH,
+                        CompressedInvertedListCursor.class.getName());
+            }
+        }
+    }
+
+    /**
+     * Copies the next page of the inverted list into the working memory.
+     */
+    @Override
+    public void loadPages() throws HyracksDataException {
+        if (numElements == 0 || currentPageId == endPageId) {
+            return;
+        }
+        currentPageId++;
+        numElementsBeforePage += reader.getSegmentSize();
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, currentPageId), false);
+        try {
+            System.arraycopy(page.getBuffer().array(), 0, buffer.array(), 0, bufferCache.getPageSize());
+        } finally {
+            bufferCache.unpin(page);
+        }
+        reader.reset(buffer.array(), currentPageId == startPageId ? startOff : 0);
+    }
+
+    /**
+     * Releases the frame of this cursor to the buffer manager.
+     */
+    @Override
+    public void unloadPages() throws HyracksDataException {
+        if (buffer != null) {
+            bufferManagerForSearch.releaseFrame(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Checks whether the given tuple exists on this inverted list. The search tuples of consecutive calls have to be
+     * ascending.
+     */
+    @Override
+    public boolean containsKey(ITupleReference searchTuple, MultiComparator invListCmp) throws HyracksDataException {
+        if (numElements == 0) {
+            return false;
+        }
+        while (!reader.moveTo(searchTuple, invListCmp)) {
+            if (currentPageId == endPageId) {
+                return false;
+            }
+            loadPages();
+        }
+        return invListCmp.compare(searchTuple, reader.getTuple()) == 0;
+    }
+
+    @Override
+    protected void setInvListInfo(int startPageId, int endPageId, int startOff, int numElements)
+            throws HyracksDataException {
+        this.startPageId = startPageId;
+        this.endPageId = endPageId;
+        this.startOff = startOff;
+        this.numElements = numElements;
+        // Deducts 1 since the startPage would be set to currentPageId + 1 in loadPages().
+        this.currentPageId = startPageId - 1;
+        this.numElementsBeforePage = 0;
+        reader.clear();
+    }
+
+    @Override
+    public int compareTo(InvertedListCursor invListCursor) {
+        try {
+            return numElements - invListCursor.size();
+        } catch (HyracksDataException hde) {
+            throw new IllegalStateException(hde);
+        }
+    }
+
+    @Override
+    public int size() {
+        return numElements;
+    }
+
+    @Override
+    public ITupleReference doGetTuple() {
+        return reader.getTuple();
+    }
+
+    @Override
+    public void doClose() throws HyracksDataException {
+        unloadPages();
+    }
+
+    @Override
+    public void doDestroy() throws HyracksDataException {
+        unloadPages();
+    }
+
+    /**
+     * Prints the contents of the current inverted list (a debugging method). The list is decoded from the buffer
+     * cache, the position of the cursor is not changed.
+     */
+    @SuppressWarnings("rawtypes")
+    @Override
+    public String printInvList(ISerializerDeserializer[] serdes) throws HyracksDataException {
+        StringBuilder strBuilder = new StringBuilder();
+        CompressedInvertedListSegmentReader listReader = new CompressedInvertedListSegmentReader(invListFields);
+        for (int pageId = startPageId; numElements > 0 && pageId <= endPageId; pageId++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+            try {
+                listReader.reset(page.getBuffer().array(), pageId == startPageId ? startOff : 0);
+                while (listReader.hasNext()) {
+                    listReader.next();
+                    appendElement(strBuilder, listReader.getTuple(), serdes);
+                    strBuilder.append(" ");
+                }
+            } finally {
+                bufferCache.unpin(page);
+            }
+        }
+        return strBuilder.toString();
+    }
+
+    /**
+     * Prints the current element (a debugging method).
+     */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public String printCurrentElement(ISerializerDeserializer[] serdes) throws HyracksDataException {
+        StringBuilder strBuilder = new StringBuilder();
+        appendElement(strBuilder, reader.getTuple(), serdes);
+        return strBuilder.toString();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void appendElement(StringBuilder strBuilder, ITupleReference tuple, ISerializerDeserializer[] serdes)
+            throws HyracksDataException {
+        for (int i = 0; i < tuple.getFieldCount(); i++) {
+            ByteArrayInputStream inStream =
+                    new ByteArrayInputStream(tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i));
+            DataInput dataIn = new DataInputStream(inStream);
+            Object o = serdes[i].deserialize(dataIn);
+            strBuilder.append(o.toString());
+            if (i + 1 < tuple.getFieldCount()) {
+                strBuilder.append(",");
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.InvertedListCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * A scan cursor for inverted lists that were built by a {@link CompressedInvertedListBuilder}. Like
+ * {@link FixedSizeElementInvertedListScanCursor}, it pins one page at a time and only supports the scan operation,
+ * e.g. to read the inverted lists of a storage component that is merged.
+ */
+public class CompressedInvertedListScanCursor extends InvertedListCursor {
+
+    protected final IBufferCache bufferCache;
+    protected final int fileId;
+    protected final CompressedInvertedListSegmentReader reader;
+    protected int currentPageId;
+    protected int numElementsRead;
+
+    protected int startPageId;
+    protected int endPageId;
+    protected int startOff;
+    protected int numElements;
+
+    protected ICachedPage page;
+
+    protected boolean pinned;
+    protected int pinnedPageId = -1;
+
+    public CompressedInvertedListScanCursor(IBufferCache bufferCache, int fileId, ITypeTraits[] invListFields)
+            throws HyracksDataException {
+        this.bufferCache = bufferCache;
+        this.fileId = fileId;
+        this.reader = new CompressedInvertedListSegmentReader(invListFields);
+        this.pinned = false;
+    }
+
+    @Override
+    public boolean doHasNext() {
+        return numElementsRead < numElements;
+    }
+
+    @Override
+    public void doNext() throws HyracksDataException {
+        if (!reader.hasNext()) {
+            // Read the next page.
+            loadPages();
+        }
+        reader.next();
+        numElementsRead++;
+    }
+
+    @Override
+    public void prepareLoadPages() throws HyracksDataException {
+        // No-op for this cursor since it only loads one page to the buffer cache at a time.
+    }
+
+    /**
+     * Loads one page from the inverted list into the buffer cache.
+     */
+    @Override
+    public void loadPages() throws HyracksDataException {
+        if (numElements == 0 || currentPageId == endPageId) {
+            // inverted list exhausted, return
+            return;
+        }
+        currentPageId++;
+        if (!pinned || pinnedPageId != currentPageId) {
+            unloadPages();
+            page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, currentPageId), false);
+            pinnedPageId = currentPageId;
+            pinned = true;
+        }
+        reader.reset(page.getBuffer().array(), currentPageId == startPageId ? startOff : 0);
+    }
+
+    @Override
+    public void unloadPages() throws HyracksDataException {
+        if (pinned) {
+            bufferCache.unpin(page);
+            pinned = false;
+        }
+    }
+
+    @Override
+    protected void setInvListInfo(int startPageId, int endPageId, int startOff, int numElements)
+            throws HyracksDataException {
+        this.startPageId = startPageId;
+        this.endPageId = endPageId;
+        this.startOff = startOff;
+        this.numElements = numElements;
+        this.numElementsRead = 0;
+        // Deducts 1 since the startPage would be set to currentPageId + 1 in loadPages().
+        this.currentPageId = startPageId - 1;
+        reader.clear();
+    }
+
+    @Override
+    public int compareTo(InvertedListCursor invListCursor) {
+        try {
+            return numElements - invListCursor.size();
+        } catch (HyracksDataException hde) {
+            throw new IllegalStateException(hde);
+        }
+    }
+
+    @Override
+    public int size() {
+        return numElements;
+    }
+
+    @Override
+    public ITupleReference doGetTuple() {
+        return reader.getTuple();
+    }
+
+    @Override
+    public void doClose() throws HyracksDataException {
+        // No op
+        // We allow the inverted list cursor to hold at most one page to avoid
+        // unnecessary pins
+    }
+
+    @Override
+    public void doDestroy() throws HyracksDataException {
+        unloadPages();
+    }
+
+    @Override
+    public boolean containsKey(ITupleReference searchTuple, MultiComparator invListCmp) throws HyracksDataException {
+        // This method is designed for a random search.
+        return false;
+    }
+
+    @Override
+    public String printInvList(ISerializerDeserializer[] serdes) throws HyracksDataException {
+        return null;
+    }
+
+    @Override
+    public String printCurrentElement(ISerializerDeserializer[] serdes) throws HyracksDataException {
+        return null;
+    }
+
+}
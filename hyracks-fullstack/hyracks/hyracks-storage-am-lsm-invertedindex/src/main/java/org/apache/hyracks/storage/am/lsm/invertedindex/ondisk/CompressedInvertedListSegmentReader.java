@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedInvertedListBuilder.BLOCK_HEADER_SIZE;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedInvertedListBuilder.BLOCK_SIZE;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedInvertedListBuilder.ESCAPE;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedInvertedListBuilder.SEGMENT_HEADER_SIZE;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * Decodes the segment of a compressed inverted list on one page, see {@link CompressedInvertedListBuilder} for the
+ * format. The current element is decoded in place, i.e. the tuple returned by {@link #getTuple()} changes when the
+ * reader moves.
+ */
+class CompressedInvertedListSegmentReader {
+    private final int elementSize;
+    private final int lowSize;
+    private final byte[] element;
+    private final FixedSizeTupleReference tuple;
+    // the first element of the next block, to decide whether the block can be skipped
+    private final FixedSizeTupleReference nextBlockTuple;
+
+    private byte[] data;
+    private int segmentSize;
+    // the index of the current element in the segment, -1 before the first element
+    private int index;
+    // the position of the next encoded element
+    private int pos;
+    // the start of the next block and the index of its first element
+    private int nextBlockStart;
+    private int nextBlockIndex;
+
+    CompressedInvertedListSegmentReader(ITypeTraits[] invListFields) {
+        int tmp = 0;
+        for (int i = 0; i < invListFields.length; i++) {
+            tmp += invListFields[i].getFixedLength();
+        }
+        elementSize = tmp;
+        lowSize = CompressedInvertedListBuilder.getLowSize(elementSize);
+        element = new byte[elementSize];
+        tuple = new FixedSizeTupleReference(invListFields);
+        tuple.reset(element, 0);
+        nextBlockTuple = new FixedSizeTupleReference(invListFields);
+    }
+
+    /**
+     * Positions the reader before the first element of the segment that starts at the given offset.
+     */
+    void reset(byte[] data, int segmentStart) {
+        this.data = data;
+        segmentSize = IntegerPointable.getInteger(data, segmentStart);
+        index = -1;
+        pos = segmentStart + SEGMENT_HEADER_SIZE;
+        nextBlockStart = pos;
+        nextBlockIndex = 0;
+    }
+
+    /**
+     * Positions the reader on an empty segment.
+     */
+    void clear() {
+        data = null;
+        segmentSize = 0;
+        index = -1;
+    }
+
+    int getSegmentSize() {
+        return segmentSize;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    boolean hasNext() {
+        return index + 1 < segmentSize;
+    }
+
+    void next() {
+        if (pos == nextBlockStart) {
+            int blockLength = IntegerPointable.getInteger(data, pos);
+            pos += BLOCK_HEADER_SIZE;
+            System.arraycopy(data, pos, element, 0, elementSize);
+            pos += elementSize;
+            nextBlockStart = pos - elementSize + blockLength;
+            nextBlockIndex = index + 1 + BLOCK_SIZE;
+        } else {
+            decode();
+        }
+        index++;
+    }
+
+    private void decode() {
+        long code = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos++];
+            code |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        if (code == ESCAPE) {
+            System.arraycopy(data, pos, element, 0, elementSize);
+            pos += elementSize;
+        } else {
+            long zigZag = code >>> 1;
+            long diff = (zigZag >>> 1) ^ -(zigZag & 1);
+            long low = CompressedInvertedListBuilder.getLow(element, 0, elementSize, lowSize);
+            CompressedInvertedListBuilder.setLow(element, 0, elementSize, lowSize, low + diff);
+        }
+    }
+
+    /**
+     * Moves the reader to the first element that is greater than or equal to the search tuple. Blocks are skipped
+     * as long as the first element of the next block is not greater than the search tuple, only the remaining
+     * elements are decoded.
+     *
+     * @return true if the reader is on an element that is greater than or equal to the search tuple, false if all
+     *         remaining elements of the segment are less than the search tuple
+     */
+    boolean moveTo(ITupleReference searchTuple, MultiComparator invListCmp) throws HyracksDataException {
+        if (index >= 0 && invListCmp.compare(searchTuple, tuple) <= 0) {
+            return true;
+        }
+        while (nextBlockIndex < segmentSize) {
+            nextBlockTuple.reset(data, nextBlockStart + BLOCK_HEADER_SIZE);
+            if (invListCmp.compare(searchTuple, nextBlockTuple) < 0) {
+                break;
+            }
+            pos = nextBlockStart;
+            index = nextBlockIndex - 1;
+            next();
+        }
+        while (index < 0 || invListCmp.compare(searchTuple, tuple) > 0) {
+            if (!hasNext()) {
+                return false;
+            }
+            next();
+        }
+        return true;
+    }
+
+    FixedSizeTupleReference getTuple() {
+        return tuple;
+    }
+}
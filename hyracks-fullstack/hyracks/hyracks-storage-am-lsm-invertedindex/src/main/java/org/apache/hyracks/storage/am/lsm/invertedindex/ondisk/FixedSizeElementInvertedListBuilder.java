@@ -54,10 +54,12 @@ public class FixedSizeElementInvertedListBuilder implements IInvertedListBuilder
             return false;
         }
 
+        int off = pos;
         for (int i = 0; i < numElementFields; i++) {
             int field = numTokenFields + i;
-            System.arraycopy(tuple.getFieldData(field), tuple.getFieldStart(field), targetBuf, pos,
+            System.arraycopy(tuple.getFieldData(field), tuple.getFieldStart(field), targetBuf, off,
                     tuple.getFieldLength(field));
+            off += tuple.getFieldLength(field);
         }
 
         listSize++;
@@ -81,4 +83,9 @@ public class FixedSizeElementInvertedListBuilder implements IInvertedListBuilder
     public int getPos() {
         return pos;
     }
+
+    @Override
+    public boolean isCompressed() {
+        return false;
+    }
 }
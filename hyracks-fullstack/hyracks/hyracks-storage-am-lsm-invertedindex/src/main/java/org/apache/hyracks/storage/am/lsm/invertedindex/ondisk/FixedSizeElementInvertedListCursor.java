@@ -222,8 +222,8 @@ public class FixedSizeElementInvertedListCursor extends InvertedListCursor {
             tmpBuffer = page.getBuffer();
 
             // Copies the entire content of the page to the current buffer in the working memory.
-            System.arraycopy(tmpBuffer.array(), 0, buffers.get(currentBufferIdx).array(), 0,
-                    buffers.get(currentBufferIdx).capacity());
+            // The buffer manager may return a buffer that is larger than a page.
+            System.arraycopy(tmpBuffer.array(), 0, buffers.get(currentBufferIdx).array(), 0, bufferCache.getPageSize());
             buffers.get(currentBufferIdx).position(buffers.get(currentBufferIdx).capacity());
 
             currentBufferIdx++;
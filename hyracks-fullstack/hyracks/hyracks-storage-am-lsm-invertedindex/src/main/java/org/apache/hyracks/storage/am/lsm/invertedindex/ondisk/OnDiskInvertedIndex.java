@@ -185,11 +185,17 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
 
     @Override
     public InvertedListCursor createInvertedListCursor(IHyracksTaskContext ctx) throws HyracksDataException {
+        if (invListBuilder.isCompressed()) {
+            return new CompressedInvertedListCursor(bufferCache, fileId, invListTypeTraits, ctx);
+        }
         return new FixedSizeElementInvertedListCursor(bufferCache, fileId, invListTypeTraits, ctx);
     }
 
     @Override
     public InvertedListCursor createInvertedListRangeSearchCursor() throws HyracksDataException {
+        if (invListBuilder.isCompressed()) {
+            return new CompressedInvertedListScanCursor(bufferCache, fileId, invListTypeTraits);
+        }
         return new FixedSizeElementInvertedListScanCursor(bufferCache, fileId, invListTypeTraits);
     }
 
@@ -493,6 +499,14 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
             searcher.search(cursor, (InvertedIndexSearchPredicate) searchPred, opCtx);
         }
 
+        @Override
+        public void addDocumentFrequencies(InvertedIndexSearchPredicate searchPred) throws HyracksDataException {
+            if (searcher == null) {
+                searcher = new TOccurrenceSearcher(index, ctx);
+            }
+            searcher.addDocumentFrequencies(searchPred, opCtx);
+        }
+
         @Override
         public InvertedListCursor createInvertedListCursor() throws HyracksDataException {
             return index.createInvertedListCursor(ctx);
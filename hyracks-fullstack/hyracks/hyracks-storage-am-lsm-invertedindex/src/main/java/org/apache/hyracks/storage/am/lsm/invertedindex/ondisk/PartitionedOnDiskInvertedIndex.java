@@ -74,6 +74,14 @@ public class PartitionedOnDiskInvertedIndex extends OnDiskInvertedIndex implemen
             }
             searcher.search(cursor, (InvertedIndexSearchPredicate) searchPred, opCtx);
         }
+
+        @Override
+        public void addDocumentFrequencies(InvertedIndexSearchPredicate searchPred) throws HyracksDataException {
+            if (searcher == null) {
+                searcher = new PartitionedTOccurrenceSearcher(index, ctx);
+            }
+            searcher.addDocumentFrequencies(searchPred, opCtx);
+        }
     }
 
     @Override
@@ -27,6 +27,7 @@ import org.apache.hyracks.api.comm.IFrame;
 import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -40,6 +41,7 @@ import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerD
 import org.apache.hyracks.dataflow.common.utils.TaskUtil;
 import org.apache.hyracks.dataflow.std.buffermanager.BufferManagerBackedVSizeFrame;
 import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.apache.hyracks.storage.am.common.api.IIndexOperationContext;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInPlaceInvertedIndex;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearcher;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IObjectFactory;
@@ -92,6 +94,15 @@ public abstract class AbstractTOccurrenceSearcher implements IInvertedIndexSearc
     protected final IFrameTupleAccessor searchResultFta;
     protected FixedSizeTupleReference searchResultTuple;
 
+    // For a ranked search. The merger is only created for the first ranked search to save its frames otherwise.
+    protected RankedInvertedListMerger rankedInvListMerger;
+    protected boolean isRankedResult;
+    protected int rankedResultIndex;
+    protected FixedSizeTupleReference rankedResultTuple;
+    protected ITypeTraits[] rankedResultTypeTraits;
+    // The inverse document frequencies of the lists of a ranked search
+    protected double[] idfs = new double[0];
+
     public AbstractTOccurrenceSearcher(IInPlaceInvertedIndex invIndex, IHyracksTaskContext ctx)
             throws HyracksDataException {
         this.invIndex = invIndex;
@@ -219,8 +230,13 @@ public abstract class AbstractTOccurrenceSearcher implements IInvertedIndexSearc
         // Case 1: fetching a tuple from an inverted list cursor
         if (isSingleInvertedList) {
             singleInvListCursor.next();
+        } else if (isRankedResult) {
+            // Case 2: fetching a tuple from the result of a ranked search
+            rankedResultTuple.reset(rankedInvListMerger.getResults(),
+                    rankedResultIndex * rankedInvListMerger.getResultElementSize());
+            rankedResultIndex++;
         } else {
-            // Case 2: fetching a tuple from the output frame of a final search result
+            // Case 3: fetching a tuple from the output frame of a final search result
             searchResultTuple.reset(searchResultFta.getBuffer().array(),
                     searchResultFta.getTupleStartOffset(searchResultTupleIndex));
             searchResultTupleIndex++;
@@ -232,7 +248,11 @@ public abstract class AbstractTOccurrenceSearcher implements IInvertedIndexSearc
         if (isSingleInvertedList) {
             return singleInvListCursor.hasNext();
         }
-        // Case #2: ouput buffer from a final search result
+        // Case #2: result of a ranked search
+        if (isRankedResult) {
+            return rankedResultIndex < rankedInvListMerger.getNumResults();
+        }
+        // Case #3: ouput buffer from a final search result
         return searchResultTupleIndex < searchResultFta.getTupleCount();
     }
 
@@ -245,7 +265,7 @@ public abstract class AbstractTOccurrenceSearcher implements IInvertedIndexSearc
                 singleInvListCursor.close();
             }
             singleInvListCursor = null;
-        } else {
+        } else if (!isRankedResult) {
             finalSearchResult.resetBuffer();
             searchResultTupleIndex = 0;
         }
@@ -268,12 +288,17 @@ public abstract class AbstractTOccurrenceSearcher implements IInvertedIndexSearc
 
         // Releases the frames of the two intermediate search result.
         invListMerger.close();
+        if (rankedInvListMerger != null) {
+            rankedInvListMerger.close();
+        }
     }
 
     @Override
     public ITupleReference getTuple() {
         if (isSingleInvertedList) {
             return singleInvListCursor.getTuple();
+        } else if (isRankedResult) {
+            return rankedResultTuple;
         }
         return searchResultTuple;
     }
@@ -287,9 +312,78 @@ public abstract class AbstractTOccurrenceSearcher implements IInvertedIndexSearc
         ((BufferManagerBackedVSizeFrame) queryTokenFrame).acquireFrame();
         isFinishedSearch = false;
         isSingleInvertedList = false;
+        isRankedResult = false;
+        rankedResultIndex = 0;
         searchResultFta.reset(finalSearchResult.getNextFrame());
         searchResultTupleIndex = 0;
         singleInvListCursor = null;
     }
 
+    @Override
+    public void addDocumentFrequencies(InvertedIndexSearchPredicate searchPred, IIndexOperationContext ictx)
+            throws HyracksDataException {
+        ((BufferManagerBackedVSizeFrame) queryTokenFrame).acquireFrame();
+        try {
+            tokenizeQuery(searchPred);
+            InvertedIndexRankingStatistics rankingStatistics = searchPred.getRankingStatistics();
+            int numQueryTokens = queryTokenAppender.getTupleCount();
+            for (int i = 0; i < numQueryTokens; i++) {
+                searchKey.reset(queryTokenAppender, i);
+                rankingStatistics.addDocumentFrequency(i, countDocuments(ictx));
+            }
+        } finally {
+            // The components of an LSM index gather their document frequencies before any of them is searched, so
+            // the searcher releases its frames until its search.
+            destroy();
+        }
+    }
+
+    /**
+     * @return the number of elements of the inverted list, or all partitions of the list, of the current search key
+     */
+    protected abstract long countDocuments(IIndexOperationContext ictx) throws HyracksDataException;
+
+    /**
+     * Ensures that the array of the inverse document frequencies can keep the given number of lists.
+     */
+    protected void ensureIdfsCapacity(int numInvLists) {
+        if (idfs.length < numInvLists) {
+            idfs = new double[numInvLists];
+        }
+    }
+
+    /**
+     * Merges the lists of a ranked search and lets the result cursor fetch its result.
+     */
+    protected void mergeRanked(List<InvertedListCursor> invListCursors, InvertedIndexSearchPredicate searchPred)
+            throws HyracksDataException {
+        try {
+            rankedInvListMerger.merge(invListCursors, idfs, occurrenceThreshold, searchPred);
+        } finally {
+            rankedInvListMerger.close();
+        }
+        // A result of an index with term statistics only keeps the documents of its elements.
+        ITypeTraits[] resultTypeTraits = rankedInvListMerger.getResultTypeTraits();
+        if (resultTypeTraits != rankedResultTypeTraits) {
+            rankedResultTypeTraits = resultTypeTraits;
+            rankedResultTuple = new FixedSizeTupleReference(resultTypeTraits);
+        }
+        isRankedResult = true;
+        isFinishedSearch = true;
+    }
+
+    /**
+     * Prepares a ranked search. This releases the frames of the final search result and the intermediate search
+     * results that a ranked search doesn't use, creates the merger for the first ranked search and allocates its
+     * buffer frames.
+     */
+    protected void prepareRankedSearch() throws HyracksDataException {
+        invListMerger.close();
+        finalSearchResult.close();
+        if (rankedInvListMerger == null) {
+            rankedInvListMerger = new RankedInvertedListMerger(ctx, invIndex, bufferManager);
+        }
+        rankedInvListMerger.prepareMerge();
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.search;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.FixedSizeFrameTupleAppender;
+
+/**
+ * Disk-based or in-memory based storage for intermediate results of ranked inverted-index searches.
+ * In addition to the occurrence count, each element keeps the score that it has accumulated so far.
+ */
+public class InvertedIndexRankedSearchResult extends InvertedIndexSearchResult {
+    // The size of the score field for each element. Currently, we use a double value.
+    protected static final int ELEMENT_SCORE_SIZE = 8;
+
+    public InvertedIndexRankedSearchResult(ITypeTraits[] invListFields, IHyracksTaskContext ctx,
+            ISimpleFrameBufferManager bufferManager) throws HyracksDataException {
+        super(invListFields, ctx, bufferManager);
+    }
+
+    /**
+     * Initializes the element type in the search result: the element, its occurrence count and its score.
+     */
+    @Override
+    protected void initTypeTraits(ITypeTraits[] invListFields) {
+        typeTraits = new ITypeTraits[invListFields.length + 2];
+        int tmp = 0;
+        for (int i = 0; i < invListFields.length; i++) {
+            typeTraits[i] = invListFields[i];
+            tmp += invListFields[i].getFixedLength();
+        }
+        invListElementSize = tmp;
+        typeTraits[invListFields.length] = IntegerPointable.TYPE_TRAITS;
+        typeTraits[invListFields.length + 1] = DoublePointable.TYPE_TRAITS;
+    }
+
+    /**
+     * Appends an element, its count and its score to the current frame of this result.
+     */
+    public boolean append(ITupleReference invListElement, int count, double score) throws HyracksDataException {
+        ByteBuffer currentBuffer;
+        // Moves to the next page if the current page is full.
+        if (!appender.hasSpace()) {
+            currentWriterBufIdx++;
+            if (isInMemoryOpMode) {
+                currentBuffer = buffers.get(currentWriterBufIdx);
+            } else {
+                searchResultWriter.nextFrame(ioBuffer);
+                currentBuffer = ioBuffer;
+            }
+            appender.reset(currentBuffer);
+        }
+        if (!appender.append(invListElement.getFieldData(0), invListElement.getFieldStart(0), invListElementSize)
+                || !appender.append(count) || !appender.append(Double.doubleToLongBits(score))) {
+            throw HyracksDataException.create(ErrorCode.CANNOT_ADD_ELEMENT_TO_INVERTED_INDEX_SEARCH_RESULT);
+        }
+        appender.incrementTupleCount(1);
+        numResults++;
+        return true;
+    }
+
+    /**
+     * An element of a ranked search result always needs a score.
+     */
+    @Override
+    public boolean append(ITupleReference invListElement, int count) throws HyracksDataException {
+        throw new UnsupportedOperationException("An element of a ranked search result needs a score.");
+    }
+
+    @Override
+    protected void calculateNumElementPerPage() {
+        int frameSize = ctx.getInitialFrameSize();
+        frameSize = frameSize - FixedSizeFrameTupleAppender.MINFRAME_COUNT_SIZE
+                - FixedSizeFrameTupleAppender.TUPLE_COUNT_SIZE;
+        numPossibleElementPerPage =
+                (int) Math.floor((double) frameSize / (invListElementSize + ELEMENT_COUNT_SIZE + ELEMENT_SCORE_SIZE));
+    }
+}
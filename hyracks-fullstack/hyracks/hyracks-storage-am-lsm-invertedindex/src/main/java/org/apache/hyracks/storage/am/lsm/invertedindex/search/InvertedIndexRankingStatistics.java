@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.search;
+
+import java.util.Arrays;
+
+/**
+ * The statistics that a ranked search scores the elements by: the number of documents, the average document length
+ * and the number of documents that contain each query token. An LSM inverted index gathers them over all of its
+ * components before it searches them, so the components are scored alike.
+ */
+public class InvertedIndexRankingStatistics {
+    private boolean termStatistics;
+    private double numDocuments;
+    private long numTokens;
+    // The document frequencies of the query tokens, in the order of the tokens of the query
+    private long[] documentFrequencies = new long[0];
+    private int numQueryTokens;
+
+    /**
+     * Clears the statistics.
+     *
+     * @param termStatistics
+     *            whether the elements keep their term frequencies and document lengths. Otherwise, the number of
+     *            documents is estimated by the sum of the document frequencies of the query tokens.
+     */
+    public void reset(boolean termStatistics) {
+        this.termStatistics = termStatistics;
+        numDocuments = 0;
+        numTokens = 0L;
+        numQueryTokens = 0;
+    }
+
+    public boolean hasTermStatistics() {
+        return termStatistics;
+    }
+
+    /**
+     * Adds documents that keep term statistics.
+     *
+     * @param numDocuments
+     *            the number of documents
+     * @param numTokens
+     *            the total number of their tokens
+     */
+    public void addDocuments(double numDocuments, long numTokens) {
+        this.numDocuments += numDocuments;
+        this.numTokens += numTokens;
+    }
+
+    /**
+     * Adds documents that contain the query token at the given position.
+     */
+    public void addDocumentFrequency(int queryToken, long documentFrequency) {
+        if (queryToken >= documentFrequencies.length) {
+            documentFrequencies = Arrays.copyOf(documentFrequencies, queryToken + 1);
+        }
+        while (numQueryTokens <= queryToken) {
+            documentFrequencies[numQueryTokens++] = 0L;
+        }
+        documentFrequencies[queryToken] += documentFrequency;
+    }
+
+    public long getDocumentFrequency(int queryToken) {
+        return queryToken < numQueryTokens ? documentFrequencies[queryToken] : 0L;
+    }
+
+    public double getNumDocuments() {
+        if (termStatistics) {
+            return numDocuments;
+        }
+        long sum = 0L;
+        for (int i = 0; i < numQueryTokens; i++) {
+            sum += documentFrequencies[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the average number of tokens of the documents, one if there are none
+     */
+    public double getAverageDocumentLength() {
+        return numDocuments > 0 && numTokens > 0 ? numTokens / numDocuments : 1.0;
+    }
+}
@@ -22,6 +22,7 @@ package org.apache.hyracks.storage.am.lsm.invertedindex.search;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.common.impls.AbstractSearchPredicate;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearchModifier;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListElementFilter;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizer;
 import org.apache.hyracks.storage.common.MultiComparator;
 
@@ -35,6 +36,14 @@ public class InvertedIndexSearchPredicate extends AbstractSearchPredicate {
     // Keeps the information whether the given query is a full-text search or not.
     // We need to have this information to stop the search process since we don't allow a phrase search yet.
     private boolean isFullTextSearchQuery;
+    // The number of the best-scored results of a ranked search, 0 if the search is not ranked.
+    private int topK;
+    // The statistics that a ranked search scores the elements by, null if they are taken from the searched index only.
+    private transient InvertedIndexRankingStatistics rankingStatistics;
+    // Rejects the elements that must not be a part of the result of a ranked search, e.g. deleted ones.
+    private transient IInvertedListElementFilter elementFilter;
+    // The score that an element of a ranked search has to reach, e.g. the k-th score of the indexes searched before.
+    private double scoreThreshold = Double.NEGATIVE_INFINITY;
 
     public InvertedIndexSearchPredicate(IBinaryTokenizer queryTokenizer, IInvertedIndexSearchModifier searchModifier) {
         this.queryTokenizer = queryTokenizer;
@@ -66,6 +75,42 @@ public class InvertedIndexSearchPredicate extends AbstractSearchPredicate {
         return isFullTextSearchQuery;
     }
 
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Sets the statistics that a ranked search scores the elements by. A search without them scores the elements by
+     * the statistics of the searched index only.
+     */
+    public void setRankingStatistics(InvertedIndexRankingStatistics rankingStatistics) {
+        this.rankingStatistics = rankingStatistics;
+    }
+
+    public InvertedIndexRankingStatistics getRankingStatistics() {
+        return rankingStatistics;
+    }
+
+    public void setElementFilter(IInvertedListElementFilter elementFilter) {
+        this.elementFilter = elementFilter;
+    }
+
+    public IInvertedListElementFilter getElementFilter() {
+        return elementFilter;
+    }
+
+    public void setScoreThreshold(double scoreThreshold) {
+        this.scoreThreshold = scoreThreshold;
+    }
+
+    public double getScoreThreshold() {
+        return scoreThreshold;
+    }
+
     public void setQueryFieldIndex(int queryFieldIndex) {
         this.queryFieldIndex = queryFieldIndex;
     }
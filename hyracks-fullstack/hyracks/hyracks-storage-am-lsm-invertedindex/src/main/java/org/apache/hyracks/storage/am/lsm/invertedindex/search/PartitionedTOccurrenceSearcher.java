@@ -20,6 +20,7 @@
 package org.apache.hyracks.storage.am.lsm.invertedindex.search;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.hyracks.api.context.IHyracksTaskContext;
@@ -49,6 +50,9 @@ public class PartitionedTOccurrenceSearcher extends AbstractTOccurrenceSearcher
     protected final ConcatenatingTupleReference fullLowSearchKey = new ConcatenatingTupleReference(2);
     protected final ConcatenatingTupleReference fullHighSearchKey = new ConcatenatingTupleReference(2);
     protected final InvertedListPartitions partitions = new InvertedListPartitions();
+    // For a ranked search: the partitions of the list of one token and the lists of all tokens to merge
+    protected final InvertedListPartitions tokenPartitions = new InvertedListPartitions();
+    protected final ArrayList<InvertedListCursor> rankedInvListCursors = new ArrayList<>();
 
     // To keep the current state of this search
     protected int curPartIdx;
@@ -119,6 +123,11 @@ public class PartitionedTOccurrenceSearcher extends AbstractTOccurrenceSearcher
         if (occurrenceThreshold <= 0) {
             throw HyracksDataException.create(ErrorCode.OCCURRENCE_THRESHOLD_PANIC_EXCEPTION);
         }
+        if (searchPred.getTopK() > 0) {
+            searchRanked(searchPred, ictx, numQueryTokens, numTokensLowerBound, numTokensUpperBound);
+            resultCursor.open(null, searchPred);
+            return;
+        }
 
         short maxCountPossible = numQueryTokens;
         invListCursorCache.reset();
@@ -201,6 +210,87 @@ public class PartitionedTOccurrenceSearcher extends AbstractTOccurrenceSearcher
         return;
     }
 
+    /**
+     * Conducts a ranked search. The partitions of a list are disjoint, so each of them is merged as a list of its own
+     * that is weighted by the inverse document frequency of the whole list. The document frequency of a token counts
+     * the elements of all partitions, also the ones outside the bounds of the number of tokens that are searched.
+     */
+    private void searchRanked(InvertedIndexSearchPredicate searchPred, IIndexOperationContext ictx,
+            short numQueryTokens, short numTokensLowerBound, short numTokensUpperBound) throws HyracksDataException {
+        prepareRankedSearch();
+        IPartitionedInvertedIndex partInvIndex = (IPartitionedInvertedIndex) invIndex;
+        long[] documentFrequencies = new long[numQueryTokens];
+        // The lists of the i-th token are the ones from tokenListStarts[i] to tokenListStarts[i + 1] (exclusive).
+        int[] tokenListStarts = new int[numQueryTokens + 1];
+        long numDocuments = 0L;
+        rankedInvListCursors.clear();
+        invListCursorCache.reset();
+        for (int i = 0; i < numQueryTokens; i++) {
+            tokenListStarts[i] = rankedInvListCursors.size();
+            searchKey.reset(queryTokenAppender, i);
+            tokenPartitions.reset((short) -1, (short) -1);
+            if (!partInvIndex.openInvertedListPartitionCursors(this, ictx, (short) -1, (short) -1, tokenPartitions)) {
+                continue;
+            }
+            List<InvertedListCursor>[] tokenCursors = tokenPartitions.getPartitions();
+            for (int j = tokenPartitions.getMinValidPartitionIndex(); j <= tokenPartitions
+                    .getMaxValidPartitionIndex(); j++) {
+                if (tokenCursors[j] == null) {
+                    continue;
+                }
+                boolean isWithinBounds = (numTokensLowerBound < 0 || j >= numTokensLowerBound)
+                        && (numTokensUpperBound < 0 || j <= numTokensUpperBound);
+                for (InvertedListCursor cursor : tokenCursors[j]) {
+                    documentFrequencies[i] += cursor.size();
+                    if (isWithinBounds) {
+                        rankedInvListCursors.add(cursor);
+                    } else {
+                        cursor.close();
+                    }
+                }
+            }
+            numDocuments += documentFrequencies[i];
+        }
+        tokenListStarts[numQueryTokens] = rankedInvListCursors.size();
+
+        InvertedIndexRankingStatistics rankingStatistics = searchPred.getRankingStatistics();
+        ensureIdfsCapacity(rankedInvListCursors.size());
+        for (int i = 0; i < numQueryTokens; i++) {
+            double idf = rankingStatistics != null
+                    ? RankedInvertedListMerger.computeIdf(rankingStatistics.getNumDocuments(),
+                            rankingStatistics.getDocumentFrequency(i))
+                    : RankedInvertedListMerger.computeIdf(numDocuments, documentFrequencies[i]);
+            for (int j = tokenListStarts[i]; j < tokenListStarts[i + 1]; j++) {
+                idfs[j] = idf;
+            }
+        }
+        mergeRanked(rankedInvListCursors, searchPred);
+    }
+
+    @Override
+    protected long countDocuments(IIndexOperationContext ictx) throws HyracksDataException {
+        IPartitionedInvertedIndex partInvIndex = (IPartitionedInvertedIndex) invIndex;
+        long documentFrequency = 0L;
+        invListCursorCache.reset();
+        tokenPartitions.reset((short) -1, (short) -1);
+        if (partInvIndex.isEmpty() || !partInvIndex.openInvertedListPartitionCursors(this, ictx, (short) -1, (short) -1,
+                tokenPartitions)) {
+            return documentFrequency;
+        }
+        List<InvertedListCursor>[] tokenCursors = tokenPartitions.getPartitions();
+        for (int i = tokenPartitions.getMinValidPartitionIndex(); i <= tokenPartitions
+                .getMaxValidPartitionIndex(); i++) {
+            if (tokenCursors[i] == null) {
+                continue;
+            }
+            for (InvertedListCursor cursor : tokenCursors[i]) {
+                documentFrequency += cursor.size();
+                cursor.close();
+            }
+        }
+        return documentFrequency;
+    }
+
     /**
      * Continues a search process in case of the following two cases:
      * #1. If it was paused because the output buffer of the final result was full.
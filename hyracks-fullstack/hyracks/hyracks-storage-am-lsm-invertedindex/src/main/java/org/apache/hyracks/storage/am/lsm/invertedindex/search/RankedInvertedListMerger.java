@@ -0,0 +1,501 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.search;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListElementFilter;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.InvertedListCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.FixedSizeFrameTupleAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.FixedSizeTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * Conducts a ranked merge among all inverted list cursors and generates the k elements with the highest scores.
+ * The score of an element is the sum of the BM25 weights that the lists that contain it give it:
+ * idf * tf * (k1 + 1) / (tf + k1 * (1 - b + b * dl / avgdl)), where idf is the inverse document frequency of the token
+ * of the list, tf is the number of occurrences of the token in the document of the element, dl is the length of the
+ * document and avgdl is the average length of the documents. The caller computes the idfs, see
+ * {@link InvertedIndexRankingStatistics}.
+ *
+ * The term frequency and the document length are the last two fields of an element if the elements keep term
+ * statistics, see {@link InvertedIndexRankingStatistics#hasTermStatistics()}. The other fields then identify the
+ * document of the element, and a result only keeps them. Otherwise, every element is scored with a term frequency of
+ * one and an average document length, so the weight of a list is the inverse document frequency of its token.
+ *
+ * The lists are merged term-at-a-time from the highest to the lowest idf and the scores are accumulated in an
+ * intermediate search result. After each list, the k-th highest accumulated score is a
+ * lower bound of the final k-th score (MaxScore). Once the sum of the highest weights of the remaining lists doesn't
+ * exceed it, the remaining lists cannot introduce a new element into the result and they are only probed for the
+ * accumulated elements. Accumulated elements that cannot reach it anymore are dropped. A caller that merges several
+ * indexes can pass the k-th score that it has found so far as the initial threshold, and an element filter that
+ * rejects the elements that must not be a part of the answer, e.g. deleted ones, before they can raise the threshold.
+ *
+ * Only the final k elements are kept on the heap, the intermediate results conform to the memory budget of the
+ * buffer manager like the ones of {@link InvertedListMerger}.
+ */
+public class RankedInvertedListMerger {
+    // The saturation of the term frequency and the strength of the document length normalization of BM25
+    public static final double K1 = 1.2;
+    public static final double B = 0.75;
+
+    protected final MultiComparator invListCmp;
+    // Compares the documents of elements that keep term statistics, null if the elements are too small to keep them
+    protected final MultiComparator documentCmp;
+    protected final int termFrequencyField;
+    protected final int documentLengthField;
+    // The type traits of a result element with the whole inverted list element or with its document only
+    protected final ITypeTraits[] resultTypeTraits;
+    protected final ITypeTraits[] documentResultTypeTraits;
+    protected final int invListElementSize;
+    protected final int documentSize;
+    protected InvertedIndexRankedSearchResult prevSearchResult;
+    protected InvertedIndexRankedSearchResult newSearchResult;
+
+    // To read the previous search result
+    protected FixedSizeFrameTupleAccessor prevResultFrameTupleAcc;
+    protected FixedSizeTupleReference prevResultTuple;
+    protected int prevResultTidx;
+    protected int prevResultFrameTupleCount;
+    protected int prevBufIdx;
+    protected int maxPrevBufIdx;
+
+    // The k highest scores of the current list, used to compute the score threshold.
+    protected final ScoreHeap thresholdHeap = new ScoreHeap();
+    // The k elements with the highest scores
+    protected final ScoreHeap resultHeap = new ScoreHeap();
+    protected double scoreThreshold;
+    protected int numInvLists;
+    protected int occurrenceThreshold;
+    // Identifies the same element on different lists
+    protected MultiComparator elementCmp;
+    protected boolean hasTermStatistics;
+    protected double averageDocumentLength;
+    protected IInvertedListElementFilter elementFilter;
+
+    // The final result sorted by descending scores
+    protected byte[] results = new byte[0];
+    protected int numResults;
+    protected int resultElementSize;
+
+    public RankedInvertedListMerger(IHyracksTaskContext ctx, IInvertedIndex invIndex,
+            ISimpleFrameBufferManager bufferManager) throws HyracksDataException {
+        this.invListCmp = MultiComparator.create(invIndex.getInvListCmpFactories());
+        ITypeTraits[] invListFields = invIndex.getInvListTypeTraits();
+        this.resultTypeTraits = new ITypeTraits[invListFields.length + 1];
+        int tmp = 0;
+        for (int i = 0; i < invListFields.length; i++) {
+            resultTypeTraits[i] = invListFields[i];
+            tmp += invListFields[i].getFixedLength();
+        }
+        this.resultTypeTraits[invListFields.length] = DoublePointable.TYPE_TRAITS;
+        this.termFrequencyField = invListFields.length - 2;
+        this.documentLengthField = invListFields.length - 1;
+        if (termFrequencyField > 0 && invListFields[termFrequencyField].getFixedLength() == Integer.BYTES
+                && invListFields[documentLengthField].getFixedLength() == Integer.BYTES) {
+            this.documentCmp = MultiComparator.create(invIndex.getInvListCmpFactories(), 0, termFrequencyField);
+            this.documentResultTypeTraits = new ITypeTraits[termFrequencyField + 1];
+            System.arraycopy(invListFields, 0, documentResultTypeTraits, 0, termFrequencyField);
+            this.documentResultTypeTraits[termFrequencyField] = DoublePointable.TYPE_TRAITS;
+            this.documentSize = tmp - 2 * Integer.BYTES;
+        } else {
+            this.documentCmp = null;
+            this.documentResultTypeTraits = null;
+            this.documentSize = tmp;
+        }
+        this.invListElementSize = tmp;
+        this.resultElementSize = tmp + Double.BYTES;
+        this.prevSearchResult = new InvertedIndexRankedSearchResult(invListFields, ctx, bufferManager);
+        this.newSearchResult = new InvertedIndexRankedSearchResult(invListFields, ctx, bufferManager);
+    }
+
+    /**
+     * Computes the BM25 inverse document frequency of a token.
+     *
+     * @param numDocuments
+     *            the number of documents
+     * @param documentFrequency
+     *            the number of documents that contain the token
+     */
+    public static double computeIdf(double numDocuments, long documentFrequency) {
+        // The statistics of an LSM index can count fewer documents than a list while its deletes aren't merged yet.
+        double n = Math.max(numDocuments, documentFrequency);
+        return Math.log(1.0 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * Computes the BM25 weight of a token for a document.
+     *
+     * @param idf
+     *            the inverse document frequency of the token
+     * @param termFrequency
+     *            the number of occurrences of the token in the document
+     * @param documentLength
+     *            the number of tokens of the document
+     * @param averageDocumentLength
+     *            the average number of tokens of the documents
+     */
+    public static double computeWeight(double idf, int termFrequency, int documentLength,
+            double averageDocumentLength) {
+        return idf * termFrequency * (K1 + 1)
+                / (termFrequency + K1 * (1 - B + B * documentLength / averageDocumentLength));
+    }
+
+    /**
+     * Merges the given lists and keeps the topK elements of the predicate that occur on at least occurrenceThreshold
+     * lists and have the highest scores. The result can be read with {@link #getNumResults()} and
+     * {@link #getResults()}.
+     *
+     * @param idfs
+     *            the inverse document frequencies of the tokens of the lists
+     * @param searchPred
+     *            provides the topK, the ranking statistics, the element filter and the initial score threshold
+     */
+    public void merge(List<InvertedListCursor> invListCursors, double[] idfs, int occurrenceThreshold,
+            InvertedIndexSearchPredicate searchPred) throws HyracksDataException {
+        InvertedIndexRankingStatistics rankingStatistics = searchPred.getRankingStatistics();
+        boolean hasTermStatistics = rankingStatistics != null && rankingStatistics.hasTermStatistics();
+        if (hasTermStatistics && documentCmp == null) {
+            throw new IllegalArgumentException("The inverted list elements don't keep term statistics");
+        }
+        int topK = searchPred.getTopK();
+        numInvLists = invListCursors.size();
+        this.occurrenceThreshold = occurrenceThreshold;
+        this.hasTermStatistics = hasTermStatistics;
+        this.averageDocumentLength = hasTermStatistics ? rankingStatistics.getAverageDocumentLength() : 1.0;
+        this.elementFilter = searchPred.getElementFilter();
+        elementCmp = hasTermStatistics ? documentCmp : invListCmp;
+        resultElementSize = (hasTermStatistics ? documentSize : invListElementSize) + Double.BYTES;
+        numResults = 0;
+        scoreThreshold = searchPred.getScoreThreshold();
+        prevSearchResult.reset();
+        newSearchResult.reset();
+
+        // Merges the lists from the highest to the lowest idf.
+        int[] order = sortByIdf(idfs, numInvLists);
+        // The sum of the highest weights of the list and all following lists, i.e. the highest score that an element
+        // that is not accumulated yet can reach. The weight of a list approaches idf * (k1 + 1) as the term
+        // frequency grows.
+        double[] remainingWeights = new double[numInvLists + 1];
+        for (int i = numInvLists - 1; i >= 0; i--) {
+            double idf = idfs[order[i]];
+            remainingWeights[i] = remainingWeights[i + 1] + (hasTermStatistics ? idf * (K1 + 1) : idf);
+        }
+
+        for (int i = 0; i < numInvLists; i++) {
+            // Sets the previous search result and the new (current) search result that will be written.
+            InvertedIndexRankedSearchResult swapTemp = prevSearchResult;
+            prevSearchResult = newSearchResult;
+            newSearchResult = swapTemp;
+            newSearchResult.reset();
+            thresholdHeap.reset(topK, 0);
+
+            InvertedListCursor invListCursor = invListCursors.get(order[i]);
+            double idf = idfs[order[i]];
+            int numRemainingLists = numInvLists - i - 1;
+            // Can an element that is not accumulated yet still be a part of the answer?
+            boolean addNewElements = numRemainingLists + 1 >= occurrenceThreshold
+                    && (!thresholdHeapFilled() || remainingWeights[i] >= scoreThreshold);
+            try {
+                invListCursor.prepareLoadPages();
+                invListCursor.loadPages();
+                int numInvListElements = invListCursor.size();
+                int currentNumResults = prevSearchResult.getNumResults();
+                newSearchResult.prepareWrite(newSearchResult
+                        .getExpectedNumPages(currentNumResults + (addNewElements ? numInvListElements : 0)));
+                openPrevResult();
+                // Should we binary search the list or should we sort-merge it? Probing a list only tells whether it
+                // contains an element, so the term frequencies of the elements require a scan.
+                if (!addNewElements && !hasTermStatistics
+                        && currentNumResults * Math.log(numInvListElements) < currentNumResults + numInvListElements) {
+                    mergeListProbe(invListCursor, idf, remainingWeights[i + 1], numRemainingLists);
+                } else {
+                    mergeListScan(invListCursor, idf, remainingWeights[i + 1], numRemainingLists, addNewElements);
+                }
+                prevSearchResult.closeResultRead(false);
+                newSearchResult.finalizeWrite();
+            } finally {
+                try {
+                    invListCursor.unloadPages();
+                } finally {
+                    invListCursor.close();
+                }
+            }
+            if (thresholdHeap.isFull()) {
+                scoreThreshold = Math.max(scoreThreshold, thresholdHeap.getMinScore());
+            }
+        }
+
+        generateResults(topK);
+    }
+
+    /**
+     * @return the positions of the given idfs sorted by descending idfs
+     */
+    private static int[] sortByIdf(double[] idfs, int numInvLists) {
+        Integer[] order = new Integer[numInvLists];
+        for (int i = 0; i < numInvLists; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(idfs[b], idfs[a]));
+        int[] result = new int[numInvLists];
+        for (int i = 0; i < numInvLists; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    /**
+     * Probes the given list for each accumulated element.
+     */
+    protected void mergeListProbe(InvertedListCursor invListCursor, double weight, double remainingWeight,
+            int numRemainingLists) throws HyracksDataException {
+        if (invListCursor.hasNext()) {
+            invListCursor.next();
+        }
+        while (nextPrevResult()) {
+            int count = getCount(prevResultTuple);
+            double score = getScore(prevResultTuple);
+            if (invListCursor.containsKey(prevResultTuple, invListCmp)) {
+                append(prevResultTuple, count + 1, score + weight, remainingWeight, numRemainingLists);
+            } else {
+                append(prevResultTuple, count, score, remainingWeight, numRemainingLists);
+            }
+        }
+    }
+
+    /**
+     * Scans the given list and the accumulated elements at the same time.
+     */
+    protected void mergeListScan(InvertedListCursor invListCursor, double idf, double remainingWeight,
+            int numRemainingLists, boolean addNewElements) throws HyracksDataException {
+        boolean hasInvListTuple = advanceList(invListCursor);
+        boolean hasPrevResultTuple = nextPrevResult();
+        while (hasPrevResultTuple || (hasInvListTuple && addNewElements)) {
+            int cmp;
+            if (!hasInvListTuple) {
+                cmp = 1;
+            } else if (!hasPrevResultTuple) {
+                cmp = -1;
+            } else {
+                cmp = elementCmp.compare(invListCursor.getTuple(), prevResultTuple);
+            }
+            if (cmp == 0) {
+                // Found the accumulated element on the current list.
+                append(prevResultTuple, getCount(prevResultTuple) + 1,
+                        getScore(prevResultTuple) + getWeight(invListCursor.getTuple(), idf), remainingWeight,
+                        numRemainingLists);
+                hasInvListTuple = advanceList(invListCursor);
+                hasPrevResultTuple = nextPrevResult();
+            } else if (cmp < 0) {
+                // Found a new element on the current list.
+                if (addNewElements) {
+                    append(invListCursor.getTuple(), 1, getWeight(invListCursor.getTuple(), idf), remainingWeight,
+                            numRemainingLists);
+                }
+                hasInvListTuple = advanceList(invListCursor);
+            } else {
+                // The accumulated element doesn't occur on the current list.
+                append(prevResultTuple, getCount(prevResultTuple), getScore(prevResultTuple), remainingWeight,
+                        numRemainingLists);
+                hasPrevResultTuple = nextPrevResult();
+            }
+        }
+    }
+
+    /**
+     * @return the weight that the current list with the given inverse document frequency gives its element
+     */
+    protected double getWeight(ITupleReference element, double idf) {
+        if (!hasTermStatistics) {
+            return idf;
+        }
+        int termFrequency = IntegerPointable.getInteger(element.getFieldData(termFrequencyField),
+                element.getFieldStart(termFrequencyField));
+        int documentLength = IntegerPointable.getInteger(element.getFieldData(documentLengthField),
+                element.getFieldStart(documentLengthField));
+        return computeWeight(idf, termFrequency, documentLength, averageDocumentLength);
+    }
+
+    /**
+     * Appends the element to the new search result if it can still be a part of the answer.
+     */
+    protected void append(ITupleReference element, int count, double score, double remainingWeight,
+            int numRemainingLists) throws HyracksDataException {
+        if (count + numRemainingLists < occurrenceThreshold) {
+            return;
+        }
+        if (thresholdHeapFilled() && score + remainingWeight < scoreThreshold) {
+            return;
+        }
+        // The accumulated score is a lower bound of the final score of the element.
+        boolean raisesThreshold = count >= occurrenceThreshold && thresholdHeap.accepts(score);
+        if (raisesThreshold && elementFilter != null && !elementFilter.accept(element)) {
+            // A rejected element can neither be a part of the answer nor raise the score threshold.
+            return;
+        }
+        newSearchResult.append(element, count, score);
+        if (raisesThreshold) {
+            thresholdHeap.offer(score, null, 0);
+        }
+    }
+
+    /**
+     * Selects the elements with the highest scores from the last search result and sorts them.
+     */
+    protected void generateResults(int topK) throws HyracksDataException {
+        // A result element with term statistics only keeps its document, the prefix of the inverted list element.
+        int resultElementPrefixSize = resultElementSize - Double.BYTES;
+        resultHeap.reset(topK, resultElementPrefixSize);
+        prevSearchResult.reset();
+        InvertedIndexRankedSearchResult swapTemp = prevSearchResult;
+        prevSearchResult = newSearchResult;
+        newSearchResult = swapTemp;
+        openPrevResult();
+        while (nextPrevResult()) {
+            double score = getScore(prevResultTuple);
+            if (getCount(prevResultTuple) >= occurrenceThreshold && resultHeap.accepts(score)
+                    && (elementFilter == null || elementFilter.accept(prevResultTuple))) {
+                resultHeap.offer(score, prevResultTuple.getFieldData(0), prevResultTuple.getFieldStart(0));
+            }
+        }
+        prevSearchResult.closeResultRead(false);
+        prevSearchResult.reset();
+
+        numResults = resultHeap.size();
+        if (results.length < numResults * resultElementSize) {
+            results = new byte[numResults * resultElementSize];
+        }
+        // Removes the lowest score first, so the results are written from the back.
+        for (int i = numResults - 1; i >= 0; i--) {
+            int off = i * resultElementSize;
+            DoublePointable.setDouble(results, off + resultElementPrefixSize, resultHeap.getMinScore());
+            resultHeap.removeMin(results, off);
+        }
+    }
+
+    private boolean thresholdHeapFilled() {
+        return scoreThreshold != Double.NEGATIVE_INFINITY;
+    }
+
+    private boolean advanceList(InvertedListCursor invListCursor) throws HyracksDataException {
+        if (invListCursor.hasNext()) {
+            invListCursor.next();
+            return true;
+        }
+        return false;
+    }
+
+    private void openPrevResult() throws HyracksDataException {
+        prevResultFrameTupleAcc = prevSearchResult.getAccessor();
+        prevResultTuple = prevSearchResult.getTuple();
+        prevResultTidx = -1;
+        prevResultFrameTupleCount = 0;
+        prevBufIdx = -1;
+        maxPrevBufIdx = prevSearchResult.getNumResults() == 0 ? -1 : prevSearchResult.getCurrentBufferIndex();
+        prevSearchResult.prepareResultRead();
+    }
+
+    /**
+     * Moves to the next element of the previous search result.
+     *
+     * @return false if all elements have been read
+     */
+    private boolean nextPrevResult() throws HyracksDataException {
+        prevResultTidx++;
+        while (prevResultTidx >= prevResultFrameTupleCount) {
+            if (prevBufIdx >= maxPrevBufIdx) {
+                return false;
+            }
+            prevBufIdx++;
+            ByteBuffer buffer = prevSearchResult.getNextFrame();
+            if (buffer == null) {
+                return false;
+            }
+            prevResultFrameTupleAcc.reset(buffer);
+            prevResultFrameTupleCount = prevResultFrameTupleAcc.getTupleCount();
+            prevResultTidx = 0;
+        }
+        prevResultTuple.reset(prevResultFrameTupleAcc.getBuffer().array(),
+                prevResultFrameTupleAcc.getTupleStartOffset(prevResultTidx));
+        return true;
+    }
+
+    private static int getCount(FixedSizeTupleReference resultTuple) {
+        return IntegerPointable.getInteger(resultTuple.getFieldData(0),
+                resultTuple.getFieldStart(resultTuple.getFieldCount() - 2));
+    }
+
+    private static double getScore(FixedSizeTupleReference resultTuple) {
+        return DoublePointable.getDouble(resultTuple.getFieldData(0),
+                resultTuple.getFieldStart(resultTuple.getFieldCount() - 1));
+    }
+
+    /**
+     * @return the type traits of a result element of the last merge: the inverted list fields, or only the fields of
+     *         the document if the elements keep term statistics, and the score
+     */
+    public ITypeTraits[] getResultTypeTraits() {
+        return hasTermStatistics ? documentResultTypeTraits : resultTypeTraits;
+    }
+
+    public int getNumResults() {
+        return numResults;
+    }
+
+    /**
+     * @return the result elements, each one followed by its score, sorted by descending scores
+     */
+    public byte[] getResults() {
+        return results;
+    }
+
+    public int getResultElementSize() {
+        return resultElementSize;
+    }
+
+    /**
+     * Prepares the merge process. This mainly allocates buffers for the two intermediate search results.
+     */
+    public void prepareMerge() throws HyracksDataException {
+        prevSearchResult.prepareIOBuffer();
+        newSearchResult.prepareIOBuffer();
+    }
+
+    /**
+     * Cleans every stuff.
+     */
+    public void close() throws HyracksDataException {
+        try {
+            prevSearchResult.close();
+        } finally {
+            newSearchResult.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.search;
+
+/**
+ * A min-heap of at most k scores that optionally keeps an element of a fixed size per score.
+ */
+public class ScoreHeap {
+    private double[] scores = new double[0];
+    private int[] slots = new int[0];
+    private byte[] elements = new byte[0];
+    private int capacity;
+    private int elementSize;
+    private int size;
+
+    public void reset(int capacity, int elementSize) {
+        this.capacity = capacity;
+        this.elementSize = elementSize;
+        this.size = 0;
+        if (scores.length < capacity) {
+            scores = new double[capacity];
+            slots = new int[capacity];
+        }
+        if (elements.length < capacity * elementSize) {
+            elements = new byte[capacity * elementSize];
+        }
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = i;
+        }
+    }
+
+    /**
+     * @return whether the heap would keep the given score
+     */
+    public boolean accepts(double score) {
+        return size < capacity || (capacity > 0 && score > scores[0]);
+    }
+
+    public boolean isFull() {
+        return size > 0 && size == capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getMinScore() {
+        return scores[0];
+    }
+
+    /**
+     * Adds the score (and its element) if the heap is not full or if it replaces the lowest score.
+     */
+    public void offer(double score, byte[] data, int off) {
+        if (size < capacity) {
+            scores[size] = score;
+            copyElement(data, off, slots[size]);
+            size++;
+            siftUp(size - 1);
+        } else if (capacity > 0 && score > scores[0]) {
+            scores[0] = score;
+            copyElement(data, off, slots[0]);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Removes the lowest score and copies its element to the given position.
+     */
+    public void removeMin(byte[] target, int off) {
+        System.arraycopy(elements, slots[0] * elementSize, target, off, elementSize);
+        size--;
+        swap(0, size);
+        siftDown(0);
+    }
+
+    private void copyElement(byte[] data, int off, int slot) {
+        if (elementSize > 0) {
+            System.arraycopy(data, off, elements, slot * elementSize, elementSize);
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        double tmpScore = scores[i];
+        scores[i] = scores[j];
+        scores[j] = tmpScore;
+        int tmpSlot = slots[i];
+        slots[i] = slots[j];
+        slots[j] = tmpSlot;
+    }
+}
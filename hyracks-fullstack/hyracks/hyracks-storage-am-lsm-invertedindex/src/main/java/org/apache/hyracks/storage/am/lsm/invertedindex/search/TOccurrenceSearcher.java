@@ -64,9 +64,14 @@ public class TOccurrenceSearcher extends AbstractTOccurrenceSearcher {
         }
         int numPrefixLists = searchModifier.getNumPrefixLists(occurrenceThreshold, invListCursors.size());
 
+        // For a ranked search, only the topK elements with the highest scores will be the final answer.
         // For a single inverted list case, we don't need to call merge() method since elements from a single inverted
         // list cursor will be the final answer.
-        if (numQueryTokens == 1 && occurrenceThreshold == 1) {
+        if (searchPred.getTopK() > 0) {
+            prepareRankedSearch();
+            computeIdfs(searchPred);
+            mergeRanked(invListCursors, searchPred);
+        } else if (numQueryTokens == 1 && occurrenceThreshold == 1) {
             singleInvListCursor = invListCursors.get(0);
             singleInvListCursor.prepareLoadPages();
             singleInvListCursor.loadPages();
@@ -89,6 +94,41 @@ public class TOccurrenceSearcher extends AbstractTOccurrenceSearcher {
         resultCursor.open(null, searchPred);
     }
 
+    /**
+     * Computes the inverse document frequencies of the lists from the given ranking statistics or, if there are none,
+     * from the lists themselves.
+     */
+    private void computeIdfs(InvertedIndexSearchPredicate searchPred) throws HyracksDataException {
+        int numInvLists = invListCursors.size();
+        ensureIdfsCapacity(numInvLists);
+        InvertedIndexRankingStatistics rankingStatistics = searchPred.getRankingStatistics();
+        double numDocuments = 0;
+        if (rankingStatistics != null) {
+            numDocuments = rankingStatistics.getNumDocuments();
+        } else {
+            for (int i = 0; i < numInvLists; i++) {
+                numDocuments += invListCursors.get(i).size();
+            }
+        }
+        for (int i = 0; i < numInvLists; i++) {
+            long documentFrequency = rankingStatistics != null ? rankingStatistics.getDocumentFrequency(i)
+                    : invListCursors.get(i).size();
+            idfs[i] = RankedInvertedListMerger.computeIdf(numDocuments, documentFrequency);
+        }
+    }
+
+    @Override
+    protected long countDocuments(IIndexOperationContext ictx) throws HyracksDataException {
+        invListCursorCache.reset();
+        InvertedListCursor invListCursor = invListCursorCache.getNext();
+        invIndex.openInvertedListCursor(invListCursor, searchKey, ictx);
+        try {
+            return invListCursor.size();
+        } finally {
+            invListCursor.close();
+        }
+    }
+
     /**
      * Continues a search process if it was paused because the output buffer (one frame) of the final result was full.
      * This method should not be called for a single inverted list case since there cannot be multiple inverted list
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.util;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.freepage.MutableArrayValueReference;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+
+/**
+ * The number of documents and the total number of their tokens in an inverted index with term statistics, from which
+ * a ranked search derives the number of documents and the average document length of BM25.
+ *
+ * The statistics are gathered from the inverted-list elements: an element whose document has dl tokens and contains
+ * the token of its list tf times adds tf / dl documents and tf tokens. The elements of a document thus add up to one
+ * document and its length, no matter how often the document is inserted or deleted, e.g. when an insert ignores
+ * elements that already exist.
+ */
+public class InvertedIndexDocumentStatistics {
+
+    public static final MutableArrayValueReference DOCUMENT_STATISTICS_KEY =
+            new MutableArrayValueReference("InvertedIndexDocumentStatistics".getBytes());
+
+    private double numDocuments;
+    private long numTokens;
+
+    public InvertedIndexDocumentStatistics() {
+        this(0, 0L);
+    }
+
+    private InvertedIndexDocumentStatistics(double numDocuments, long numTokens) {
+        this.numDocuments = numDocuments;
+        this.numTokens = numTokens;
+    }
+
+    /**
+     * Adds an inverted-list element whose last two fields are its term frequency and its document length.
+     */
+    public synchronized void addElement(ITupleReference element) {
+        int termFrequency = getTermFrequency(element);
+        numDocuments += (double) termFrequency / getDocumentLength(element);
+        numTokens += termFrequency;
+    }
+
+    /**
+     * Removes an inverted-list element that has been added before.
+     */
+    public synchronized void removeElement(ITupleReference element) {
+        int termFrequency = getTermFrequency(element);
+        numDocuments -= (double) termFrequency / getDocumentLength(element);
+        numTokens -= termFrequency;
+    }
+
+    public synchronized void reset() {
+        numDocuments = 0;
+        numTokens = 0L;
+    }
+
+    /**
+     * @return the number of documents, a fraction of a document while it is partly inserted or deleted
+     */
+    public synchronized double getNumDocuments() {
+        return numDocuments;
+    }
+
+    /**
+     * @return the total number of tokens of the documents
+     */
+    public synchronized long getNumTokens() {
+        return numTokens;
+    }
+
+    public static int getTermFrequency(ITupleReference element) {
+        int field = element.getFieldCount() - InvertedIndexUtils.NUM_TERM_STATISTICS_FIELDS;
+        return IntegerPointable.getInteger(element.getFieldData(field), element.getFieldStart(field));
+    }
+
+    public static int getDocumentLength(ITupleReference element) {
+        int field = element.getFieldCount() - 1;
+        return IntegerPointable.getInteger(element.getFieldData(field), element.getFieldStart(field));
+    }
+
+    /**
+     * Reads the statistics of a disk component
+     *
+     * @return the statistics, empty ones if the component has none
+     */
+    public static InvertedIndexDocumentStatistics read(IComponentMetadata metadata) throws HyracksDataException {
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        metadata.get(DOCUMENT_STATISTICS_KEY, value);
+        if (value.getLength() == 0) {
+            return new InvertedIndexDocumentStatistics();
+        }
+        return new InvertedIndexDocumentStatistics(
+                DoublePointable.getDouble(value.getByteArray(), value.getStartOffset()),
+                LongPointable.getLong(value.getByteArray(), value.getStartOffset() + Double.BYTES));
+    }
+
+    public synchronized void write(IComponentMetadata metadata) throws HyracksDataException {
+        byte[] bytes = new byte[Double.BYTES + Long.BYTES];
+        DoublePointable.setDouble(bytes, 0, numDocuments);
+        LongPointable.setLong(bytes, Double.BYTES, numTokens);
+        metadata.put(DOCUMENT_STATISTICS_KEY, new MutableArrayValueReference(bytes));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hyracks.data.std.util.GrowableArray;
+import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizer;
+
+/**
+ * Counts the occurrences of the distinct tokens of a document, i.e. the term frequencies that an inverted index with
+ * term statistics keeps next to each inverted-list element, and the number of tokens of the document.
+ */
+public class TermFrequencyCounter {
+    // The distinct tokens of the document and their frequencies, in the order of their first occurrences.
+    private final Map<ByteBuffer, Integer> termFrequencies = new LinkedHashMap<>();
+    private final GrowableArray tokenData = new GrowableArray();
+    private Iterator<Map.Entry<ByteBuffer, Integer>> termIter;
+    private Map.Entry<ByteBuffer, Integer> currentTerm;
+    private int documentLength;
+
+    /**
+     * Consumes all tokens of the given tokenizer, which must have been reset to the document.
+     */
+    public void count(IBinaryTokenizer tokenizer) {
+        termFrequencies.clear();
+        documentLength = 0;
+        while (tokenizer.hasNext()) {
+            tokenizer.next();
+            tokenData.reset();
+            try {
+                tokenizer.getToken().serializeToken(tokenData);
+            } catch (IOException e) {
+                // The token is serialized into memory.
+                throw new IllegalStateException(e);
+            }
+            ByteBuffer token = ByteBuffer.wrap(Arrays.copyOf(tokenData.getByteArray(), tokenData.getLength()));
+            termFrequencies.merge(token, 1, Integer::sum);
+            documentLength++;
+        }
+        termIter = termFrequencies.entrySet().iterator();
+        currentTerm = null;
+    }
+
+    public boolean hasNext() {
+        return termIter.hasNext();
+    }
+
+    /**
+     * Moves to the next distinct token.
+     */
+    public void next() {
+        currentTerm = termIter.next();
+    }
+
+    /**
+     * @return the serialized current token
+     */
+    public byte[] getTokenData() {
+        return currentTerm.getKey().array();
+    }
+
+    public int getTokenLength() {
+        return currentTerm.getKey().capacity();
+    }
+
+    /**
+     * @return the number of occurrences of the current token in the document
+     */
+    public int getTermFrequency() {
+        return currentTerm.getValue();
+    }
+
+    /**
+     * @return the number of tokens of the document
+     */
+    public int getDocumentLength() {
+        return documentLength;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.invertedindex.util;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.ShortSerializerDeserializer;
+import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizer;
+
+/**
+ * Generates one tuple per distinct token of a document. The inverted-list element of a tuple is followed by the
+ * number of occurrences of the token in the document and the number of tokens of the document, the term statistics
+ * of a ranked search. A partitioned index also gets the number of tokens after the token.
+ */
+public class TermStatisticsTokenizingTupleIterator extends InvertedIndexTokenizingTupleIterator {
+    private final TermFrequencyCounter termFrequencyCounter = new TermFrequencyCounter();
+    private final boolean writeNumTokens;
+
+    public TermStatisticsTokenizingTupleIterator(int tokensFieldCount, int invListFieldCount,
+            IBinaryTokenizer tokenizer, boolean writeNumTokens) {
+        super(tokensFieldCount, invListFieldCount, tokenizer);
+        this.writeNumTokens = writeNumTokens;
+    }
+
+    @Override
+    public void reset(ITupleReference inputTuple) {
+        super.reset(inputTuple);
+        termFrequencyCounter.count(tokenizer);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return termFrequencyCounter.hasNext();
+    }
+
+    @Override
+    public void next() throws HyracksDataException {
+        termFrequencyCounter.next();
+        tupleBuilder.reset();
+        tupleBuilder.addField(termFrequencyCounter.getTokenData(), 0, termFrequencyCounter.getTokenLength());
+        if (writeNumTokens) {
+            tupleBuilder.addField(ShortSerializerDeserializer.INSTANCE, getNumTokens());
+        }
+        // Add the fields that identify the document.
+        for (int i = 0; i < invListFieldCount - InvertedIndexUtils.NUM_TERM_STATISTICS_FIELDS; i++) {
+            tupleBuilder.addField(inputTuple.getFieldData(i + 1), inputTuple.getFieldStart(i + 1),
+                    inputTuple.getFieldLength(i + 1));
+        }
+        tupleBuilder.addField(IntegerSerializerDeserializer.INSTANCE, termFrequencyCounter.getTermFrequency());
+        tupleBuilder.addField(IntegerSerializerDeserializer.INSTANCE, termFrequencyCounter.getDocumentLength());
+        tupleReference.reset(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray());
+    }
+
+    /**
+     * @return the number of tokens of the document, the partition of a partitioned index
+     */
+    public short getNumTokens() {
+        return (short) termFrequencyCounter.getDocumentLength();
+    }
+}
@@ -95,4 +95,16 @@ public interface IIndexCursor extends IDestroyable {
      * @return the tuple pointed to by the cursor
      */
     ITupleReference getTuple();
+
+    /**
+     * Hints whether the cursor is used for a sequential pass over the index, such as a full scan or a merge. The
+     * pages that the cursor reads sequentially are then cached as probationary pages, so that they do not displace
+     * frequently accessed pages from the buffer cache. Must be called before the cursor is opened.
+     *
+     * @param sequentialAccess
+     *            whether the cursor reads the index sequentially
+     */
+    default void setSequentialAccess(boolean sequentialAccess) {
+        // by default, cursors ignore the hint
+    }
 }
@@ -59,6 +59,7 @@ public class AsyncFIFOPageQueueManager implements Runnable {
 
         @Override
         public void put(ICachedPage page) throws HyracksDataException {
+            ThreadPageWriteThrottle.beforeWrite(page.getBuffer().capacity());
             try {
                 if (!poisoned.get()) {
                     queue.put(page);
@@ -34,24 +34,29 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.CompressedFileReference;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IBufferCacheCounters;
 import org.apache.hyracks.api.io.IFileHandle;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
 import org.apache.hyracks.api.replication.IIOReplicationManager;
 import org.apache.hyracks.api.util.IoUtil;
+import org.apache.hyracks.storage.common.compression.file.CompressedFileManager;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 import org.apache.hyracks.storage.common.file.IFileMapManager;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
+public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, IBufferCacheCounters {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int MAP_FACTOR = 3;
@@ -75,6 +80,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     private final Map<Integer, BufferedFileHandle> fileInfoMap;
     private final AsyncFIFOPageQueueManager fifoWriter;
     private final Queue<BufferCacheHeaderHelper> headerPageCache = new ConcurrentLinkedQueue<>();
+    private final Queue<ByteBuffer> compressedPageCache = new ConcurrentLinkedQueue<>();
 
     //DEBUG
     private static final Level fileOpsLevel = Level.DEBUG;
@@ -86,6 +92,9 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     private IIOReplicationManager ioReplicationManager;
     private final List<ICachedPageInternal> cachedPages = new ArrayList<>();
     private final AtomicLong masterPinCount = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
     private boolean closed;
 
@@ -143,6 +152,21 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         return pageReplacementStrategy.getMaxAllowedNumPages();
     }
 
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
     private void pinSanityCheck(long dpid) throws HyracksDataException {
         if (closed) {
             throw new HyracksDataException("pin called on a closed cache");
@@ -163,6 +187,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
 
     @Override
     public ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException {
+        return pin(dpid, newPage, false);
+    }
+
+    @Override
+    public ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
         // Calling the pinSanityCheck should be used only for debugging, since
         // the synchronized block over the fileInfoMap is a hot spot.
         if (DEBUG) {
@@ -186,6 +215,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             // disk.
             synchronized (cPage) {
                 if (!cPage.valid) {
+                    misses.increment();
                     try {
                         tryRead(cPage);
                         cPage.valid = true;
@@ -197,12 +227,18 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                             unpin(cPage);
                         }
                     }
+                } else {
+                    hits.increment();
                 }
             }
         } else {
             cPage.valid = true;
         }
-        pageReplacementStrategy.notifyCachePageAccess(cPage);
+        if (sequential) {
+            pageReplacementStrategy.notifyCachePageSequentialAccess(cPage);
+        } else {
+            pageReplacementStrategy.notifyCachePageAccess(cPage);
+        }
         if (DEBUG) {
             pinnedPageOwner.put(cPage, Thread.currentThread().getStackTrace());
         }
@@ -348,6 +384,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                 if (cPage != null) {
                     return cPage;
                 }
+                evictions.increment();
                 victim.reset(dpid);
             } finally {
                 bucket.bucketLock.unlock();
@@ -397,6 +434,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                     }
                     victimPrev.next = victim.next;
                 }
+                evictions.increment();
                 victim.reset(dpid);
                 victim.next = bucket.cachedPage;
                 bucket.cachedPage = victim;
@@ -543,6 +581,10 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     private void read(CachedPage cPage) throws HyracksDataException {
         BufferedFileHandle fInfo = getFileInfo(cPage);
         cPage.buffer.clear();
+        if (fInfo.isCompressed()) {
+            readCompressed(cPage, fInfo);
+            return;
+        }
         BufferCacheHeaderHelper header = checkoutHeaderHelper();
         try {
             long bytesRead = ioManager.syncRead(fInfo.getFileHandle(),
@@ -568,6 +610,50 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         }
     }
 
+    private void readCompressed(CachedPage cPage, BufferedFileHandle fInfo) throws HyracksDataException {
+        CompressedFileManager compressedFileManager = fInfo.getCompressedFileManager();
+        int pageId = BufferedFileHandle.getPageId(cPage.dpid);
+        long[] location = new long[2];
+        if (!compressedFileManager.getPageLocation(pageId, location)) {
+            // same as reading beyond the end of an uncompressed file
+            return;
+        }
+        long offset = location[0];
+        int compressedSize = (int) location[1];
+        ByteBuffer cBuffer = checkoutCompressedBuffer(compressedSize);
+        ICompressorDecompressor decompressor = compressedFileManager.checkoutCompressorDecompressor();
+        try {
+            cBuffer.limit(compressedSize);
+            long bytesRead = ioManager.syncRead(fInfo.getFileHandle(), offset, cBuffer);
+            if (bytesRead != compressedSize) {
+                throw new HyracksDataException("Failed to read a complete compressed page: " + bytesRead);
+            }
+            int totalPages = cBuffer.getInt(BufferCacheHeaderHelper.FRAME_MULTIPLIER_OFF);
+            cPage.setFrameSizeMultiplier(totalPages);
+            cPage.setExtraBlockPageId(cBuffer.getInt(BufferCacheHeaderHelper.EXTRA_BLOCK_PAGE_ID_OFF));
+            if (totalPages > 1) {
+                pageReplacementStrategy.fixupCapacityOnLargeRead(cPage);
+            }
+            int uncompressedSize = totalPages * pageSize;
+            cBuffer.position(RESERVED_HEADER_BYTES);
+            ByteBuffer uBuffer = cPage.buffer.duplicate();
+            uBuffer.clear();
+            if (compressedSize - RESERVED_HEADER_BYTES == uncompressedSize) {
+                // the page was not compressible and was stored as is
+                uBuffer.put(cBuffer);
+            } else {
+                decompressor.uncompress(cBuffer, uBuffer);
+                if (uBuffer.limit() != uncompressedSize) {
+                    throw new HyracksDataException("Unexpected uncompressed page size: " + uBuffer.limit()
+                            + ", expected: " + uncompressedSize);
+                }
+            }
+        } finally {
+            compressedFileManager.returnCompressorDecompressor(decompressor);
+            returnCompressedBuffer(cBuffer);
+        }
+    }
+
     private long getOffsetForPage(long pageId) {
         return pageId * getPageSizeWithHeader();
     }
@@ -605,6 +691,19 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         headerPageCache.offer(buffer);
     }
 
+    private ByteBuffer checkoutCompressedBuffer(int size) {
+        ByteBuffer buffer = compressedPageCache.poll();
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, RESERVED_HEADER_BYTES + pageSize));
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private void returnCompressedBuffer(ByteBuffer buffer) {
+        compressedPageCache.offer(buffer);
+    }
+
     void write(CachedPage cPage) throws HyracksDataException {
         BufferedFileHandle fInfo = getFileInfo(cPage);
         // synchronize on fInfo to prevent the file handle from being deleted until the page is written.
@@ -612,6 +711,10 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             if (fInfo.fileHasBeenDeleted()) {
                 return;
             }
+            if (fInfo.isCompressed()) {
+                writeCompressed(cPage, fInfo);
+                return;
+            }
             ByteBuffer buf = cPage.buffer.duplicate();
             final int totalPages = cPage.getFrameSizeMultiplier();
             final int extraBlockPageId = cPage.getExtraBlockPageId();
@@ -641,6 +744,48 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         }
     }
 
+    /**
+     * Compresses the page (including its extra block pages, if any) as a single block, writes it to a free slot of
+     * the page or appends it to the data file, and then records its location in the look-aside file. Pages that do
+     * not compress are stored as is.
+     * The caller must hold the file handle monitor.
+     */
+    private void writeCompressed(CachedPage cPage, BufferedFileHandle fInfo) throws HyracksDataException {
+        CompressedFileManager compressedFileManager = fInfo.getCompressedFileManager();
+        ICompressorDecompressor compressor = compressedFileManager.checkoutCompressorDecompressor();
+        final int totalPages = cPage.getFrameSizeMultiplier();
+        final int uncompressedSize = totalPages * pageSize;
+        final int maxCompressedSize = compressor.computeCompressedBufferSize(uncompressedSize);
+        ByteBuffer cBuffer = checkoutCompressedBuffer(RESERVED_HEADER_BYTES + maxCompressedSize);
+        try {
+            ByteBuffer uBuffer = cPage.buffer.duplicate();
+            uBuffer.position(0);
+            uBuffer.limit(uncompressedSize);
+            cBuffer.putInt(BufferCacheHeaderHelper.FRAME_MULTIPLIER_OFF, totalPages);
+            cBuffer.putInt(BufferCacheHeaderHelper.EXTRA_BLOCK_PAGE_ID_OFF, cPage.getExtraBlockPageId());
+            cBuffer.position(RESERVED_HEADER_BYTES);
+            compressor.compress(uBuffer, cBuffer);
+            if (cBuffer.limit() - RESERVED_HEADER_BYTES >= uncompressedSize) {
+                cBuffer.limit(cBuffer.capacity());
+                cBuffer.position(RESERVED_HEADER_BYTES);
+                cBuffer.put(uBuffer);
+                cBuffer.flip();
+            }
+            cBuffer.position(0);
+            final int compressedSize = cBuffer.limit();
+            final int pageId = BufferedFileHandle.getPageId(cPage.dpid);
+            final long offset = compressedFileManager.allocate(pageId, compressedSize);
+            long bytesWritten = ioManager.syncWrite(fInfo.getFileHandle(), offset, cBuffer);
+            if (bytesWritten != compressedSize) {
+                throw new HyracksDataException("Failed to write completely: " + bytesWritten);
+            }
+            compressedFileManager.setPageLocation(pageId, offset, compressedSize);
+        } finally {
+            compressedFileManager.returnCompressorDecompressor(compressor);
+            returnCompressedBuffer(cBuffer);
+        }
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
         if (closed) {
@@ -790,7 +935,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             fileInfoMap.forEach((key, value) -> {
                 try {
                     sweepAndFlush(key, true);
-                    ioManager.close(value.getFileHandle());
+                    closeFileHandle(value);
                 } catch (HyracksDataException e) {
                     if (LOGGER.isWarnEnabled()) {
                         LOGGER.log(Level.WARN, "Error flushing file id: " + key, e);
@@ -808,13 +953,16 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         }
         IoUtil.create(fileRef);
         try {
+            if (fileRef instanceof CompressedFileReference) {
+                CompressedFileManager.create((CompressedFileReference) fileRef);
+            }
             synchronized (fileInfoMap) {
                 return fileMapManager.registerFile(fileRef);
             }
         } catch (Exception e) {
             // If file registration failed for any reason, we need to undo the file creation
             try {
-                IoUtil.delete(fileRef);
+                deleteFromDisk(fileRef);
             } catch (Exception deleteException) {
                 e.addSuppressed(deleteException);
             }
@@ -859,6 +1007,17 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                         FileReference fileRef = fileMapManager.lookupFileName(fileId);
                         IFileHandle fh = ioManager.open(fileRef, IIOManager.FileReadWriteMode.READ_WRITE,
                                 IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+                        if (fileRef instanceof CompressedFileReference) {
+                            CompressedFileManager compressedFileManager =
+                                    new CompressedFileManager(ioManager, (CompressedFileReference) fileRef);
+                            try {
+                                compressedFileManager.open(ioManager.getSize(fh));
+                            } catch (Exception e) {
+                                ioManager.close(fh);
+                                throw e;
+                            }
+                            fInfo.setCompressedFileManager(compressedFileManager);
+                        }
                         fInfo.setFileHandle(fh);
                     }
                 }
@@ -885,7 +1044,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                         }
                         int entryFileId = entry.getKey();
                         sweepAndFlush(entryFileId, true);
-                        ioManager.close(entry.getValue().getFileHandle());
+                        closeFileHandle(entry.getValue());
                         fileInfoMap.remove(entryFileId);
                         unreferencedFileFound = true;
                         // for-each iterator is invalid because we changed
@@ -991,6 +1150,9 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             fInfo = fileInfoMap.get(fileId);
         }
         ioManager.sync(fInfo.getFileHandle(), metadata);
+        if (fInfo.isCompressed()) {
+            fInfo.getCompressedFileManager().force(metadata);
+        }
     }
 
     @Override
@@ -1006,7 +1168,24 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         if (mapped) {
             deleteFile(fileId);
         } else {
-            IoUtil.delete(fileRef);
+            deleteFromDisk(fileRef);
+        }
+    }
+
+    private static void deleteFromDisk(FileReference fileRef) throws HyracksDataException {
+        IoUtil.delete(fileRef);
+        if (fileRef instanceof CompressedFileReference) {
+            CompressedFileManager.delete((CompressedFileReference) fileRef);
+        }
+    }
+
+    private void closeFileHandle(BufferedFileHandle fInfo) throws HyracksDataException {
+        try {
+            ioManager.close(fInfo.getFileHandle());
+        } finally {
+            if (fInfo.isCompressed()) {
+                fInfo.getCompressedFileManager().close();
+            }
         }
     }
 
@@ -1033,11 +1212,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             } finally {
                 try {
                     synchronized (fInfo) {
-                        ioManager.close(fInfo.getFileHandle());
+                        closeFileHandle(fInfo);
                         fInfo.markAsDeleted();
                     }
                 } finally {
-                    IoUtil.delete(fileRef);
+                    deleteFromDisk(fileRef);
                 }
             }
         }
@@ -1171,6 +1350,9 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             if (fInfo == null) {
                 throw new HyracksDataException("No such file mapped for fileId:" + fileId);
             }
+            if (fInfo.isCompressed()) {
+                return fInfo.getCompressedFileManager().getNumPages();
+            }
             if (DEBUG) {
                 assert ioManager.getSize(fInfo.getFileHandle()) % getPageSizeWithHeader() == 0;
             }
@@ -1440,14 +1622,14 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             synchronized (fileInfoMap) {
                 fileMapManager.unregisterFile(fileId);
             }
-            ioManager.close(fh.getFileHandle());
+            closeFileHandle(fh);
         }
 
     }
 
     static class BufferCacheHeaderHelper {
-        private static final int FRAME_MULTIPLIER_OFF = 0;
-        private static final int EXTRA_BLOCK_PAGE_ID_OFF = FRAME_MULTIPLIER_OFF + 4; // 4
+        static final int FRAME_MULTIPLIER_OFF = 0;
+        static final int EXTRA_BLOCK_PAGE_ID_OFF = FRAME_MULTIPLIER_OFF + 4; // 4
 
         private final ByteBuffer buf;
         private final ByteBuffer[] array;
@@ -75,6 +75,12 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         getPerPageObject(cPage).set(true);
     }
 
+    @Override
+    public void notifyCachePageSequentialAccess(ICachedPageInternal cPage) {
+        // the clock does not distinguish sequential accesses from random ones
+        notifyCachePageAccess(cPage);
+    }
+
     @Override
     public ICachedPageInternal findVictim() {
         return findVictim(1);
@@ -112,17 +118,13 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
             if (cPage != null) {
                 /*
                  * We do two things here:
-                 * 1. If the page has been accessed, then we skip it -- The CAS would return
-                 * false if the current value is false which makes the page a possible candidate
-                 * for replacement.
+                 * 1. We ask the policy whether the page can be replaced now, which also ages
+                 * the page if it cannot.
                  * 2. We check with the buffer manager if it feels it's a good idea to use this
                  * page as a victim.
                  */
-                AtomicBoolean accessedFlag = getPerPageObject(cPage);
-                if (!accessedFlag.compareAndSet(true, false)) {
-                    if (cPage.isGoodVictim()) {
-                        return cPage;
-                    }
+                if (isVictimCandidate(cPage) && cPage.isGoodVictim()) {
+                    return cPage;
                 }
             }
             if (clockPtr < lastClockPtr) {
@@ -144,6 +146,18 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         }
     }
 
+    /**
+     * Called by the clock hand for each page it passes. If the page has been accessed, then we skip it -- The CAS
+     * would return false if the current value is false which makes the page a possible candidate for replacement.
+     *
+     * @param cPage
+     *            the page under the clock hand
+     * @return true if the page can be replaced now, false if it gets another chance
+     */
+    protected boolean isVictimCandidate(ICachedPageInternal cPage) {
+        return !getPerPageObject(cPage).compareAndSet(true, false);
+    }
+
     @Override
     public int getNumPages() {
         return numPages.get();
@@ -83,6 +83,13 @@ public class DebugBufferCache implements IBufferCache {
         return page;
     }
 
+    @Override
+    public ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(dpid, newPage, sequential);
+        pinCount.addAndGet(1);
+        return page;
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
         bufferCache.unpin(page);
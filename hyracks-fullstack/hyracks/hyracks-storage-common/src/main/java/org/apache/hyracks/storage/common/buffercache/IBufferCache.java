@@ -103,6 +103,24 @@ public interface IBufferCache {
      */
     ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException;
 
+    /**
+     * Pin the page so it can't be evicted from the buffer cache, hinting whether the page is pinned as part of a
+     * sequential pass, such as a scan or a merge. The page replacement strategy can use the hint to keep pages that
+     * are read sequentially from displacing frequently accessed pages.
+     *
+     * @param dpid
+     *            page id is a unique id that is a combination of file id and page id
+     * @param newPage
+     *            whether this page is expected to be new.
+     * @param sequential
+     *            whether the page is pinned as part of a sequential pass
+     * @return the pinned page
+     * @throws HyracksDataException
+     */
+    default ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
+        return pin(dpid, newPage);
+    }
+
     /**
      * Unpin a pinned page so its buffer can be recycled
      *
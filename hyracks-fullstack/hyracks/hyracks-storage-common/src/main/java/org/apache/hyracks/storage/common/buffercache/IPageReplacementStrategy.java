@@ -31,6 +31,12 @@ public interface IPageReplacementStrategy {
 
     public void notifyCachePageAccess(ICachedPageInternal cPage);
 
+    /**
+     * Notifies the strategy of an access that is part of a sequential pass, such as a scan or a merge, which is
+     * not expected to access the page again soon.
+     */
+    public void notifyCachePageSequentialAccess(ICachedPageInternal cPage);
+
     public void adviseWontNeed(ICachedPageInternal cPage);
 
     public ICachedPageInternal findVictim();
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Associates an {@link IPageWriteThrottle} with the current thread. Every page the thread puts in an
+ * {@link IFIFOPageQueue} is charged against that throttle, which lets IO schedulers limit the write bandwidth of
+ * background operations without involving the bulk loaders that produce the pages.
+ */
+public final class ThreadPageWriteThrottle {
+    private static final ThreadLocal<IPageWriteThrottle> THROTTLE = new ThreadLocal<>();
+
+    private ThreadPageWriteThrottle() {
+    }
+
+    public static void set(IPageWriteThrottle throttle) {
+        THROTTLE.set(throttle);
+    }
+
+    public static void clear() {
+        THROTTLE.remove();
+    }
+
+    public static void beforeWrite(int bytes) throws HyracksDataException {
+        IPageWriteThrottle throttle = THROTTLE.get();
+        if (throttle != null) {
+            throttle.beforeWrite(bytes);
+        }
+    }
+}
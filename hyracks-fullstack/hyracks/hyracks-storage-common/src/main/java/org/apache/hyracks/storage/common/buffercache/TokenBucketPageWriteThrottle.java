@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A token bucket that limits writes to a sustained number of bytes per second while allowing bursts of up to the
+ * bucket capacity. A write larger than the available tokens puts the bucket in debt and the writer sleeps until the
+ * debt is paid off, so concurrent writers sharing the bucket are served in the order they arrived.
+ */
+public class TokenBucketPageWriteThrottle implements IPageWriteThrottle {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long bytesPerSecond;
+    private final long capacity;
+    private long available;
+    private long lastRefillTime;
+
+    public TokenBucketPageWriteThrottle(long bytesPerSecond, long capacity) {
+        if (bytesPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid write rate (" + bytesPerSecond + " bytes/s) or burst size (" + capacity + " bytes)");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+        this.capacity = capacity;
+        available = capacity;
+        lastRefillTime = System.nanoTime();
+    }
+
+    @Override
+    public void beforeWrite(int bytes) throws HyracksDataException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            available -= bytes;
+            waitNanos = available >= 0 ? 0 : (long) (-available * NANOS_PER_SECOND / bytesPerSecond);
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw HyracksDataException.create(e);
+            }
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long tokens = (long) ((now - lastRefillTime) / NANOS_PER_SECOND * bytesPerSecond);
+        if (tokens > 0) {
+            available = Math.min(capacity, available + tokens);
+            lastRefillTime = now;
+        }
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+}
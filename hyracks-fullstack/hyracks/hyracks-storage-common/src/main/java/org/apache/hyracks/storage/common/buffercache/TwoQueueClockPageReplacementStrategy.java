@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A scan resistant variant of the clock that approximates the 2Q policy. A page that is read into the cache starts
+ * in a probationary state and is promoted to the protected state only when it is accessed again. Sequential
+ * accesses, such as scans and merges, never promote a page. The clock hand replaces probationary pages, and only
+ * ages protected pages, as long as the protected pages do not take more than {@link #MAX_PROTECTED_RATIO} of the
+ * cache. Hence, a large scan cycles through the probationary pages and does not flush out frequently accessed pages,
+ * such as the interior pages of indexes.
+ */
+public class TwoQueueClockPageReplacementStrategy extends ClockPageReplacementStrategy {
+    public static final double MAX_PROTECTED_RATIO = 0.75;
+
+    // the page was just read into the cache and has not been accessed since
+    private static final int NEW = -1;
+    // the page has been accessed once, or has been demoted from the protected state
+    private static final int PROBATIONARY = 0;
+    // the page has been accessed more than once, but not since the last time the clock hand passed it
+    private static final int PROTECTED = 1;
+    // the page has been accessed more than once, including since the last time the clock hand passed it
+    private static final int PROTECTED_REFERENCED = 2;
+
+    private final int maxProtectedPages;
+    private final AtomicInteger numProtectedPages = new AtomicInteger();
+    // the number of pages the clock hand passed since it last found a replaceable page
+    private final AtomicInteger numPagesWithoutVictim = new AtomicInteger();
+
+    public TwoQueueClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize, int maxAllowedNumPages) {
+        super(allocator, pageSize, maxAllowedNumPages);
+        maxProtectedPages = (int) (maxAllowedNumPages * MAX_PROTECTED_RATIO);
+    }
+
+    @Override
+    public Object createPerPageStrategyObject(int cpid) {
+        return new AtomicInteger(NEW);
+    }
+
+    @Override
+    public void notifyCachePageReset(ICachedPageInternal cPage) {
+        setState(cPage, NEW);
+    }
+
+    @Override
+    public void notifyCachePageAccess(ICachedPageInternal cPage) {
+        AtomicInteger state = getPageState(cPage);
+        int current;
+        int next;
+        do {
+            current = state.get();
+            // the first access is the one that brought the page into the cache
+            next = current == NEW ? PROBATIONARY : PROTECTED_REFERENCED;
+        } while (current != next && !state.compareAndSet(current, next));
+        if (current < PROTECTED && next >= PROTECTED) {
+            numProtectedPages.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void notifyCachePageSequentialAccess(ICachedPageInternal cPage) {
+        getPageState(cPage).compareAndSet(NEW, PROBATIONARY);
+    }
+
+    @Override
+    public void adviseWontNeed(ICachedPageInternal cPage) {
+        setState(cPage, PROBATIONARY);
+    }
+
+    @Override
+    protected boolean isVictimCandidate(ICachedPageInternal cPage) {
+        AtomicInteger state = getPageState(cPage);
+        int current = state.get();
+        if (current < PROTECTED) {
+            if (cPage.isGoodVictim()) {
+                numPagesWithoutVictim.set(0);
+                return true;
+            }
+        } else if (current == PROTECTED_REFERENCED) {
+            state.compareAndSet(PROTECTED_REFERENCED, PROTECTED);
+        } else if ((numProtectedPages.get() > maxProtectedPages || numPagesWithoutVictim.get() > getNumPages())
+                && state.compareAndSet(PROTECTED, PROBATIONARY)) {
+            // demote the page if there are too many protected pages, or if all of the probationary pages are in use
+            numProtectedPages.decrementAndGet();
+        }
+        numPagesWithoutVictim.incrementAndGet();
+        return false;
+    }
+
+    public int getNumProtectedPages() {
+        return numProtectedPages.get();
+    }
+
+    private void setState(ICachedPageInternal cPage, int newState) {
+        if (getPageState(cPage).getAndSet(newState) >= PROTECTED) {
+            numProtectedPages.decrementAndGet();
+        }
+    }
+
+    private static AtomicInteger getPageState(ICachedPageInternal cPage) {
+        return (AtomicInteger) cPage.getReplacementStrategyObject();
+    }
+}
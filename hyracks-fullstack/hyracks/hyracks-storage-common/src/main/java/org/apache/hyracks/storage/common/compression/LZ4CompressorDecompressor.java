@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A pure Java implementation of the LZ4 block format.
+ * The compressor uses a single-probe hash table (fast mode), which favors speed over compression ratio.
+ * Instances are not thread-safe as the hash table is reused across calls.
+ */
+public class LZ4CompressorDecompressor implements ICompressorDecompressor {
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_DISTANCE = (1 << 16) - 1;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int ML_BITS = 4;
+    private static final int ML_MASK = (1 << ML_BITS) - 1;
+    private static final int RUN_MASK = ML_MASK;
+    private static final int HASH_LOG = 12;
+    private static final int HASH_MULTIPLIER = -1640531535;
+
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    @Override
+    public int computeCompressedBufferSize(int uncompressedBufferSize) {
+        return uncompressedBufferSize + uncompressedBufferSize / 255 + 16;
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) throws HyracksDataException {
+        final int srcStart = uBuffer.position();
+        final int srcEnd = uBuffer.limit();
+        final int dstStart = cBuffer.position();
+        if (cBuffer.capacity() - dstStart < computeCompressedBufferSize(srcEnd - srcStart)) {
+            throw new HyracksDataException("Insufficient space to compress " + (srcEnd - srcStart) + " bytes");
+        }
+        int op = dstStart;
+        int anchor = srcStart;
+        if (srcEnd - srcStart > MF_LIMIT) {
+            final int mfLimit = srcEnd - MF_LIMIT;
+            final int matchLimit = srcEnd - LAST_LITERALS;
+            Arrays.fill(hashTable, -1);
+            hashTable[hash(uBuffer.getInt(srcStart))] = srcStart;
+            int ip = srcStart + 1;
+            while (ip < mfLimit) {
+                final int sequence = uBuffer.getInt(ip);
+                final int h = hash(sequence);
+                int ref = hashTable[h];
+                hashTable[h] = ip;
+                if (ref < 0 || ip - ref > MAX_DISTANCE || uBuffer.getInt(ref) != sequence) {
+                    ip++;
+                    continue;
+                }
+                // extend the match backwards over pending literals
+                while (ip > anchor && ref > srcStart && uBuffer.get(ip - 1) == uBuffer.get(ref - 1)) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit
+                        && uBuffer.get(ip + matchLength) == uBuffer.get(ref + matchLength)) {
+                    matchLength++;
+                }
+                final int tokenPos = op++;
+                final int literalLength = ip - anchor;
+                int token;
+                if (literalLength >= RUN_MASK) {
+                    token = RUN_MASK << ML_BITS;
+                    op = writeLength(cBuffer, op, literalLength - RUN_MASK);
+                } else {
+                    token = literalLength << ML_BITS;
+                }
+                op = copy(uBuffer, anchor, cBuffer, op, literalLength);
+                final int offset = ip - ref;
+                cBuffer.put(op++, (byte) offset);
+                cBuffer.put(op++, (byte) (offset >>> 8));
+                final int extraMatchLength = matchLength - MIN_MATCH;
+                if (extraMatchLength >= ML_MASK) {
+                    token |= ML_MASK;
+                    op = writeLength(cBuffer, op, extraMatchLength - ML_MASK);
+                } else {
+                    token |= extraMatchLength;
+                }
+                cBuffer.put(tokenPos, (byte) token);
+                ip += matchLength;
+                anchor = ip;
+                if (ip < mfLimit) {
+                    hashTable[hash(uBuffer.getInt(ip - 2))] = ip - 2;
+                }
+            }
+        }
+        // last literals
+        final int literalLength = srcEnd - anchor;
+        if (literalLength >= RUN_MASK) {
+            cBuffer.put(op++, (byte) (RUN_MASK << ML_BITS));
+            op = writeLength(cBuffer, op, literalLength - RUN_MASK);
+        } else {
+            cBuffer.put(op++, (byte) (literalLength << ML_BITS));
+        }
+        op = copy(uBuffer, anchor, cBuffer, op, literalLength);
+        cBuffer.limit(op);
+        return cBuffer;
+    }
+
+    @Override
+    public ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException {
+        final int srcEnd = cBuffer.limit();
+        final int dstStart = uBuffer.position();
+        final int dstEnd = uBuffer.limit();
+        int ip = cBuffer.position();
+        int op = dstStart;
+        while (ip < srcEnd) {
+            final int token = cBuffer.get(ip++) & 0xFF;
+            int literalLength = token >>> ML_BITS;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    ensure(ip < srcEnd);
+                    b = cBuffer.get(ip++) & 0xFF;
+                    literalLength += b;
+                } while (b == 0xFF);
+            }
+            ensure(ip + literalLength <= srcEnd && op + literalLength <= dstEnd);
+            op = copy(cBuffer, ip, uBuffer, op, literalLength);
+            ip += literalLength;
+            if (ip == srcEnd) {
+                // the last sequence only contains literals
+                break;
+            }
+            ensure(ip + 2 <= srcEnd);
+            final int offset = (cBuffer.get(ip) & 0xFF) | ((cBuffer.get(ip + 1) & 0xFF) << 8);
+            ip += 2;
+            ensure(offset > 0 && op - offset >= dstStart);
+            int matchLength = token & ML_MASK;
+            if (matchLength == ML_MASK) {
+                int b;
+                do {
+                    ensure(ip < srcEnd);
+                    b = cBuffer.get(ip++) & 0xFF;
+                    matchLength += b;
+                } while (b == 0xFF);
+            }
+            matchLength += MIN_MATCH;
+            ensure(op + matchLength <= dstEnd);
+            // byte by byte as the source and the destination may overlap
+            for (int ref = op - offset, end = op + matchLength; op < end; op++, ref++) {
+                uBuffer.put(op, uBuffer.get(ref));
+            }
+        }
+        uBuffer.limit(op);
+        return uBuffer;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * HASH_MULTIPLIER) >>> (Integer.SIZE - HASH_LOG);
+    }
+
+    private static int writeLength(ByteBuffer dst, int op, int length) {
+        int remaining = length;
+        while (remaining >= 0xFF) {
+            dst.put(op++, (byte) 0xFF);
+            remaining -= 0xFF;
+        }
+        dst.put(op++, (byte) remaining);
+        return op;
+    }
+
+    private static int copy(ByteBuffer src, int srcPos, ByteBuffer dst, int dstPos, int length) {
+        if (src.hasArray() && dst.hasArray()) {
+            System.arraycopy(src.array(), src.arrayOffset() + srcPos, dst.array(), dst.arrayOffset() + dstPos, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                dst.put(dstPos + i, src.get(srcPos + i));
+            }
+        }
+        return dstPos + length;
+    }
+
+    private static void ensure(boolean condition) throws HyracksDataException {
+        if (!condition) {
+            throw new HyracksDataException("Malformed LZ4 compressed block");
+        }
+    }
+}
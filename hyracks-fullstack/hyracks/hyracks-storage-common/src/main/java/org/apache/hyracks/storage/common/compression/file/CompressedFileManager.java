@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression.file;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.CompressedFileReference;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.util.IoUtil;
+
+/**
+ * Keeps track of where the compressed pages of a {@link CompressedFileReference} are stored.
+ * Compressed pages are appended to the data file and their (offset, size) pairs are stored in the Look-Aside File
+ * (LAF) at the page id position. The LAF is loaded in memory when the file is opened and every entry update is
+ * written through so that the LAF is durable once the file is forced.
+ * A rewritten page is never written over the version that the LAF points to. Its new version goes to a spare slot
+ * of the page or to the end of the data file, and only then the LAF entry is updated, so that a crash in between
+ * leaves the LAF pointing to the complete previous version. The slot of the previous version becomes the spare slot
+ * of the page, which is reused only after the LAF entry that replaced it was forced.
+ */
+public class CompressedFileManager {
+    private static final int ENTRY_FIELDS = 4;
+    private static final int OFFSET = 0;
+    private static final int SIZE = 1;
+    private static final int SPARE_OFFSET = 2;
+    private static final int SPARE_SIZE = 3;
+    private static final int ENTRY_SIZE = Long.BYTES * ENTRY_FIELDS;
+    private static final int INITIAL_NUM_ENTRIES = 32;
+
+    private final IIOManager ioManager;
+    private final CompressedFileReference fileRef;
+    private final ICompressorDecompressorFactory compressorDecompressorFactory;
+    private final Queue<ICompressorDecompressor> compressorDecompressors = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer entryBuffer = ByteBuffer.allocate(ENTRY_SIZE);
+    // the pages whose spare slots may still be referenced by the LAF on disk
+    private final BitSet unforcedSpares = new BitSet();
+    private IFileHandle lafHandle;
+    private long[] entries;
+    private int numPages;
+    private long nextOffset;
+
+    public CompressedFileManager(IIOManager ioManager, CompressedFileReference fileRef) {
+        this.ioManager = ioManager;
+        this.fileRef = fileRef;
+        this.compressorDecompressorFactory = fileRef.getCompressorDecompressorFactory();
+    }
+
+    /**
+     * Create the Look-Aside File of a new compressed file
+     */
+    public static void create(CompressedFileReference fileRef) throws HyracksDataException {
+        IoUtil.create(fileRef.getLAFFileReference());
+    }
+
+    /**
+     * Delete the Look-Aside File of a compressed file if it exists
+     */
+    public static void delete(CompressedFileReference fileRef) throws HyracksDataException {
+        if (fileRef.getLAFFileReference().getFile().exists()) {
+            IoUtil.delete(fileRef.getLAFFileReference());
+        }
+    }
+
+    /**
+     * Open the Look-Aside File and load its entries
+     *
+     * @param dataFileSize
+     *            the current size of the data file. New pages are appended after it.
+     */
+    public synchronized void open(long dataFileSize) throws HyracksDataException {
+        lafHandle = ioManager.open(fileRef.getLAFFileReference(), IIOManager.FileReadWriteMode.READ_WRITE,
+                IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        final long lafSize = ioManager.getSize(lafHandle);
+        numPages = (int) (lafSize / ENTRY_SIZE);
+        entries = new long[Math.max(INITIAL_NUM_ENTRIES, numPages) * ENTRY_FIELDS];
+        if (numPages > 0) {
+            ByteBuffer lafBuffer = ByteBuffer.allocate(numPages * ENTRY_SIZE);
+            if (ioManager.syncRead(lafHandle, 0, lafBuffer) != lafBuffer.capacity()) {
+                throw new HyracksDataException("Failed to read the look-aside file of " + fileRef);
+            }
+            lafBuffer.flip();
+            lafBuffer.asLongBuffer().get(entries, 0, numPages * ENTRY_FIELDS);
+        }
+        // the LAF on disk no longer references the spare slots it stores
+        unforcedSpares.clear();
+        nextOffset = dataFileSize;
+    }
+
+    public synchronized void close() throws HyracksDataException {
+        if (lafHandle != null) {
+            ioManager.close(lafHandle);
+            lafHandle = null;
+        }
+    }
+
+    public synchronized void force(boolean metadata) throws HyracksDataException {
+        if (lafHandle == null) {
+            throw new HyracksDataException("The look-aside file of " + fileRef + " is not open");
+        }
+        ioManager.sync(lafHandle, metadata);
+        unforcedSpares.clear();
+    }
+
+    /**
+     * Reserve space in the data file for a compressed page. A page that was written before (e.g. a metadata page)
+     * is written to its spare slot if the slot is free and the page fits in it, otherwise space is reserved at the
+     * end of the data file. The slot that the LAF points to is never returned.
+     *
+     * @param pageId
+     *            the id of the page
+     * @param size
+     *            the compressed page size including its header
+     * @return the offset at which the compressed page should be written
+     */
+    public synchronized long allocate(int pageId, int size) {
+        if (pageId < numPages && !unforcedSpares.get(pageId) && entries[pageId * ENTRY_FIELDS + SPARE_SIZE] >= size) {
+            return entries[pageId * ENTRY_FIELDS + SPARE_OFFSET];
+        }
+        long offset = nextOffset;
+        nextOffset += size;
+        return offset;
+    }
+
+    /**
+     * Record the location of a written compressed page. If the page was written before, the new location replaces
+     * the old one and the slot of the old version becomes the spare slot of the page. A spare slot that was not
+     * reused is not reclaimed.
+     */
+    public synchronized void setPageLocation(int pageId, long offset, int size) throws HyracksDataException {
+        if (pageId >= numPages) {
+            if ((pageId + 1) * ENTRY_FIELDS > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(entries.length * 2, (pageId + 1) * ENTRY_FIELDS));
+            }
+            numPages = pageId + 1;
+        }
+        final int entry = pageId * ENTRY_FIELDS;
+        if (entries[entry + SIZE] > 0) {
+            entries[entry + SPARE_OFFSET] = entries[entry + OFFSET];
+            entries[entry + SPARE_SIZE] = entries[entry + SIZE];
+            unforcedSpares.set(pageId);
+        }
+        entries[entry + OFFSET] = offset;
+        entries[entry + SIZE] = size;
+        entryBuffer.clear();
+        entryBuffer.asLongBuffer().put(entries, entry, ENTRY_FIELDS);
+        ioManager.syncWrite(lafHandle, (long) pageId * ENTRY_SIZE, entryBuffer);
+    }
+
+    /**
+     * Get the offset and the size of a compressed page at once, so that they belong to the same version of the page
+     *
+     * @param pageId
+     *            the id of the page
+     * @param location
+     *            receives the offset of the page in the data file and its compressed size
+     * @return false if the page was never written
+     */
+    public synchronized boolean getPageLocation(int pageId, long[] location) {
+        if (pageId >= numPages || entries[pageId * ENTRY_FIELDS + SIZE] == 0) {
+            return false;
+        }
+        location[0] = entries[pageId * ENTRY_FIELDS + OFFSET];
+        location[1] = entries[pageId * ENTRY_FIELDS + SIZE];
+        return true;
+    }
+
+    /**
+     * @return the number of pages in the file as seen by its uncompressed (logical) layout
+     */
+    public synchronized int getNumPages() {
+        return numPages;
+    }
+
+    public ICompressorDecompressor checkoutCompressorDecompressor() {
+        ICompressorDecompressor compressorDecompressor = compressorDecompressors.poll();
+        return compressorDecompressor != null ? compressorDecompressor : compressorDecompressorFactory.createInstance();
+    }
+
+    public void returnCompressorDecompressor(ICompressorDecompressor compressorDecompressor) {
+        compressorDecompressors.offer(compressorDecompressor);
+    }
+
+    public CompressedFileReference getFileReference() {
+        return fileRef;
+    }
+}
@@ -21,11 +21,13 @@ package org.apache.hyracks.storage.common.file;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.storage.common.compression.file.CompressedFileManager;
 
 public class BufferedFileHandle {
     private final int fileId;
     private IFileHandle handle;
     private final AtomicInteger refCount;
+    private CompressedFileManager compressedFileManager;
 
     public BufferedFileHandle(int fileId, IFileHandle handle) {
         this.fileId = fileId;
@@ -45,6 +47,21 @@ public class BufferedFileHandle {
         return handle;
     }
 
+    public void setCompressedFileManager(CompressedFileManager compressedFileManager) {
+        this.compressedFileManager = compressedFileManager;
+    }
+
+    /**
+     * @return the manager of the compressed pages locations or null if the file is not compressed
+     */
+    public CompressedFileManager getCompressedFileManager() {
+        return compressedFileManager;
+    }
+
+    public boolean isCompressed() {
+        return compressedFileManager != null;
+    }
+
     public void markAsDeleted() {
         handle = null;
     }
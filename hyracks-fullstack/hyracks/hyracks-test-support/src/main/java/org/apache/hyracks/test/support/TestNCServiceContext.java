@@ -25,6 +25,7 @@ import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.application.IStateDumpHandler;
 import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
 import org.apache.hyracks.api.config.IApplicationConfig;
+import org.apache.hyracks.api.io.IBufferCacheCounters;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.job.IJobSerializerDeserializerContainer;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
@@ -133,6 +134,10 @@ public class TestNCServiceContext implements INCServiceContext {
     public void setStateDumpHandler(IStateDumpHandler handler) {
     }
 
+    @Override
+    public void setBufferCacheCounters(IBufferCacheCounters counters) {
+    }
+
     @Override
     public IControllerService getControllerService() {
         return null;
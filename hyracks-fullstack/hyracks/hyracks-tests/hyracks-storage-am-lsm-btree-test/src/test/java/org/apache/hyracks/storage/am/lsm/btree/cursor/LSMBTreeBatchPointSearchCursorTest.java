@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.cursor;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.BatchPredicate;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.LSMBTreeExamplesTest;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeBatchPointSearchCursor;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeOpContext;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LSMBTreeBatchPointSearchCursorTest {
+    private static final int FIELD_COUNT = 2;
+    private static final ITypeTraits[] TYPE_TRAITS = { IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES =
+            { PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY) };
+    private static final int[] BLOOM_FILTER_KEY_FIELDS = { 0 };
+    @SuppressWarnings("rawtypes")
+    private static final RecordDescriptor KEY_RECORD_DESCRIPTOR =
+            new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+    private static final int NUM_KEYS = 3000;
+    private static final int NUM_DISK_COMPONENTS = 3;
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final Random random = new Random(17);
+    private final Set<Integer> expectedKeys = new HashSet<>();
+    private LSMBTree lsmBtree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        lsmBtree = LSMBTreeExamplesTest.createTreeIndex(harness, TYPE_TRAITS, CMP_FACTORIES, BLOOM_FILTER_KEY_FIELDS,
+                null, null, null, null);
+        lsmBtree.create();
+        lsmBtree.activate();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        try {
+            lsmBtree.deactivate();
+            lsmBtree.destroy();
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void testLookupAcrossComponents() throws Exception {
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(FIELD_COUNT);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        // every disk component has a range of even keys, the memory component deletes some of them
+        int keysPerComponent = NUM_KEYS / NUM_DISK_COMPONENTS;
+        for (int c = 0; c < NUM_DISK_COMPONENTS; c++) {
+            for (int i = c * keysPerComponent; i < (c + 1) * keysPerComponent; i += 2) {
+                TupleUtils.createIntegerTuple(tb, tuple, i, c);
+                accessor.insert(tuple);
+                expectedKeys.add(i);
+            }
+            flush(accessor);
+        }
+        for (int i = 0; i < NUM_KEYS; i += 10) {
+            TupleUtils.createIntegerTuple(tb, tuple, i, -1);
+            accessor.delete(tuple);
+            expectedKeys.remove(i);
+        }
+
+        // a frame of unordered keys with duplicates and keys outside of all components
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            keys.add(random.nextInt(NUM_KEYS + 100) - 50);
+        }
+        keys.addAll(keys.subList(0, 20));
+        Collections.shuffle(keys, random);
+        BatchPredicate predicate = createPredicate(keys);
+        LSMBTreeBatchPointSearchCursor cursor =
+                new LSMBTreeBatchPointSearchCursor(((LSMTreeIndexAccessor) accessor).getCtx());
+        accessor.search(cursor, predicate);
+        try {
+            int previousKey = Integer.MIN_VALUE;
+            int numKeys = 0;
+            while (cursor.hasNext()) {
+                cursor.next();
+                int key = keys.get(cursor.getKeyIndex());
+                Assert.assertTrue(key >= previousKey);
+                previousKey = key;
+                boolean found = cursor.find();
+                Assert.assertEquals("key " + key, expectedKeys.contains(key), found);
+                if (found) {
+                    ITupleReference result = cursor.getTuple();
+                    Assert.assertEquals(key,
+                            IntegerPointable.getInteger(result.getFieldData(0), result.getFieldStart(0)));
+                    Assert.assertEquals(key / keysPerComponent,
+                            IntegerPointable.getInteger(result.getFieldData(1), result.getFieldStart(1)));
+                }
+                numKeys++;
+            }
+            Assert.assertEquals(keys.size(), numKeys);
+        } finally {
+            cursor.close();
+            cursor.destroy();
+            accessor.destroy();
+        }
+    }
+
+    @Test
+    public void testInsertAfterLookup() throws Exception {
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        LSMBTreeOpContext opCtx = (LSMBTreeOpContext) ((LSMTreeIndexAccessor) accessor).getCtx();
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(FIELD_COUNT);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        for (int i = 0; i < 10; i += 2) {
+            TupleUtils.createIntegerTuple(tb, tuple, i, 0);
+            accessor.insert(tuple);
+        }
+        flush(accessor);
+
+        List<Integer> keys = Arrays.asList(5, 3, 4);
+        boolean[] found = new boolean[keys.size()];
+        List<ILSMComponent> lookedUpComponents = new ArrayList<>();
+        LSMBTreeBatchPointSearchCursor cursor =
+                new LSMBTreeBatchPointSearchCursor(((LSMTreeIndexAccessor) accessor).getCtx());
+        accessor.search(cursor, createPredicate(keys));
+        try {
+            cursor.getDiskComponents(lookedUpComponents);
+            while (cursor.hasNext()) {
+                cursor.next();
+                found[cursor.getKeyIndex()] = cursor.find();
+            }
+        } finally {
+            cursor.close();
+            cursor.destroy();
+        }
+        Assert.assertEquals(1, lookedUpComponents.size());
+        Assert.assertArrayEquals(new boolean[] { false, false, true }, found);
+
+        // key 5 is inserted after the lookup and flushed to a disk component that was not looked up
+        TupleUtils.createIntegerTuple(tb, tuple, 5, 1);
+        accessor.insert(tuple);
+        flush(accessor);
+        try {
+            TupleUtils.createIntegerTuple(tb, tuple, 3, 2);
+            opCtx.setKeyAbsentComponents(lookedUpComponents);
+            accessor.insert(tuple);
+            TupleUtils.createIntegerTuple(tb, tuple, 5, 2);
+            opCtx.setKeyAbsentComponents(lookedUpComponents);
+            try {
+                accessor.insert(tuple);
+                Assert.fail("a key of a disk component that was not looked up is a duplicate");
+            } catch (HyracksDataException e) {
+                Assert.assertEquals(ErrorCode.DUPLICATE_KEY, e.getErrorCode());
+            }
+            TupleUtils.createIntegerTuple(tb, tuple, 4, 2);
+            opCtx.setKeyAbsentComponents(null);
+            try {
+                accessor.insert(tuple);
+                Assert.fail("a key that was found by the lookup is a duplicate");
+            } catch (HyracksDataException e) {
+                Assert.assertEquals(ErrorCode.DUPLICATE_KEY, e.getErrorCode());
+            }
+        } finally {
+            accessor.destroy();
+        }
+    }
+
+    private static BatchPredicate createPredicate(List<Integer> keys) throws HyracksDataException {
+        FixedSizeFrame frame = new FixedSizeFrame(ByteBuffer.allocate(32768));
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder keyTb = new ArrayTupleBuilder(1);
+        ArrayTupleReference keyTuple = new ArrayTupleReference();
+        for (Integer key : keys) {
+            TupleUtils.createIntegerTuple(keyTb, keyTuple, key);
+            Assert.assertTrue(appender.append(keyTuple));
+        }
+        FrameTupleAccessor fta = new FrameTupleAccessor(KEY_RECORD_DESCRIPTOR);
+        fta.reset(frame.getBuffer());
+
+        MultiComparator keyCmp = BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, keyTuple);
+        BatchPredicate predicate = new BatchPredicate(new int[] { 0 }, keyCmp);
+        predicate.reset(fta);
+        return predicate;
+    }
+
+    private static void flush(ILSMIndexAccessor accessor) throws HyracksDataException, InterruptedException {
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        if (flush.getStatus() == LSMIOOperationStatus.FAILURE) {
+            throw HyracksDataException.create(flush.getFailure());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.storage.am.lsm.common.impls.ComponentStatistics;
+import org.apache.hyracks.storage.am.lsm.common.util.HyperLogLogSketch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ComponentStatisticsTest {
+
+    @Test
+    public void testDistinctValueEstimate() {
+        byte[] value = new byte[Integer.BYTES];
+        for (int distinct : new int[] { 10, 1000, 100000 }) {
+            HyperLogLogSketch sketch = new HyperLogLogSketch();
+            for (int i = 0; i < 3 * distinct; i++) {
+                IntegerPointable.setInteger(value, 0, i % distinct);
+                sketch.add(value, 0, value.length);
+            }
+            // the standard error of a sketch with 1024 registers is about 3%
+            Assert.assertEquals(distinct, sketch.estimate(), distinct * 0.1);
+        }
+    }
+
+    @Test
+    public void testMergeAndSerialize() throws HyracksDataException {
+        ComponentStatistics first = createStatistics(0, 5000);
+        ComponentStatistics second = createStatistics(2500, 7500);
+        second.addAntimatterTuple();
+        first.merge(second);
+        ComponentStatistics read = ComponentStatistics.fromBytes(first.toBytes(), 0);
+        Assert.assertEquals(10000, read.getNumTuples());
+        Assert.assertEquals(1, read.getNumAntimatterTuples());
+        Assert.assertEquals(2, read.getNumFields());
+        Assert.assertEquals(7500, read.getDistinctValues(0), 750);
+        Assert.assertEquals(1, read.getDistinctValues(1));
+    }
+
+    private static ComponentStatistics createStatistics(int from, int to) {
+        ComponentStatistics statistics = new ComponentStatistics(2);
+        byte[][] fieldData = { new byte[Integer.BYTES], new byte[Integer.BYTES] };
+        int[] fieldStarts = { 0, 0 };
+        int[] fieldLengths = { Integer.BYTES, Integer.BYTES };
+        for (int i = from; i < to; i++) {
+            IntegerPointable.setInteger(fieldData[0], 0, i);
+            statistics.addTuple(fieldData, fieldStarts, fieldLengths);
+        }
+        return statistics;
+    }
+}
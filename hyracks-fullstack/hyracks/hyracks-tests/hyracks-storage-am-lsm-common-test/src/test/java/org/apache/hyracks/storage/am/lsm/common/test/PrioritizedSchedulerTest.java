@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationFailedCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.common.impls.PrioritizedScheduler;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class PrioritizedSchedulerTest {
+
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testFlushesBypassRunningMerges() throws Exception {
+        PrioritizedScheduler scheduler = new PrioritizedScheduler(Executors.defaultThreadFactory(),
+                Mockito.mock(IIoOperationFailedCallback.class), 2, 1, null);
+        CountDownLatch releaseMerge = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        scheduler.scheduleOperation(mockMerge("merge", 100, releaseMerge, done));
+        waitFor(() -> started.contains("merge"));
+        scheduler.scheduleOperation(mockFlush("flush", "index", new CountDownLatch(0), done));
+        // the flush completes even though the merge holds its slot
+        waitFor(() -> done.getCount() == 1);
+        Assert.assertEquals(Arrays.asList("merge", "flush"), started);
+        releaseMerge.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        scheduler.close();
+    }
+
+    @Test
+    public void testSmallMergesFirst() throws Exception {
+        PrioritizedScheduler scheduler = new PrioritizedScheduler(Executors.defaultThreadFactory(),
+                Mockito.mock(IIoOperationFailedCallback.class), 2, 1, null);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(0);
+        CountDownLatch done = new CountDownLatch(4);
+        scheduler.scheduleOperation(mockMerge("first", 10, releaseFirst, done));
+        waitFor(() -> started.contains("first"));
+        scheduler.scheduleOperation(mockMerge("large", 1000, release, done));
+        scheduler.scheduleOperation(mockMerge("medium", 100, release, done));
+        scheduler.scheduleOperation(mockMerge("small", 1, release, done));
+        Assert.assertEquals(3, scheduler.getNumPendingOperations());
+        releaseFirst.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("first", "small", "medium", "large"), started);
+        scheduler.close();
+    }
+
+    @Test
+    public void testFlushesOfAnIndexRunInOrder() throws Exception {
+        PrioritizedScheduler scheduler = new PrioritizedScheduler(Executors.defaultThreadFactory(),
+                Mockito.mock(IIoOperationFailedCallback.class), 4, 1, null);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(0);
+        CountDownLatch done = new CountDownLatch(3);
+        scheduler.scheduleOperation(mockFlush("first", "a", releaseFirst, done));
+        scheduler.scheduleOperation(mockFlush("second", "a", release, done));
+        scheduler.scheduleOperation(mockFlush("other", "b", release, done));
+        waitFor(() -> started.contains("other"));
+        Assert.assertFalse(started.contains("second"));
+        releaseFirst.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(started.indexOf("first") < started.indexOf("second"));
+        scheduler.close();
+    }
+
+    @Test
+    public void testInvalidBudget() {
+        try {
+            new PrioritizedScheduler(Executors.defaultThreadFactory(), Mockito.mock(IIoOperationFailedCallback.class),
+                    2, 2, null);
+            Assert.fail("Merges must leave room for flushes");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private ILSMIOOperation mockMerge(String name, long size, CountDownLatch release, CountDownLatch done)
+            throws Exception {
+        ILSMIOOperation op = mockOperation(name, LSMIOOperationType.MERGE, name, release, done);
+        ILSMDiskComponent component = Mockito.mock(ILSMDiskComponent.class);
+        Mockito.when(component.getComponentSize()).thenReturn(size);
+        ILSMIndexOperationContext opCtx = Mockito.mock(ILSMIndexOperationContext.class);
+        Mockito.when(opCtx.getComponentHolder()).thenReturn(Collections.<ILSMComponent> singletonList(component));
+        ILSMIndexAccessor accessor = Mockito.mock(ILSMIndexAccessor.class);
+        Mockito.when(accessor.getOpContext()).thenReturn(opCtx);
+        Mockito.when(op.getAccessor()).thenReturn(accessor);
+        return op;
+    }
+
+    private ILSMIOOperation mockFlush(String name, String index, CountDownLatch release, CountDownLatch done)
+            throws Exception {
+        return mockOperation(name, LSMIOOperationType.FLUSH, index, release, done);
+    }
+
+    private ILSMIOOperation mockOperation(String name, LSMIOOperationType type, String index, CountDownLatch release,
+            CountDownLatch done) throws Exception {
+        ILSMIOOperation op = Mockito.mock(ILSMIOOperation.class);
+        Mockito.when(op.getIOOpertionType()).thenReturn(type);
+        Mockito.when(op.getIndexIdentifier()).thenReturn(index);
+        Mockito.when(op.getStatus()).thenReturn(LSMIOOperationStatus.SUCCESS);
+        Mockito.when(op.call()).then(invocation -> {
+            started.add(name);
+            release.await();
+            return LSMIOOperationStatus.SUCCESS;
+        });
+        Mockito.doAnswer(invocation -> {
+            done.countDown();
+            return null;
+        }).when(op).complete();
+        return op;
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.holds()) {
+            Assert.assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        boolean holds();
+    }
+}
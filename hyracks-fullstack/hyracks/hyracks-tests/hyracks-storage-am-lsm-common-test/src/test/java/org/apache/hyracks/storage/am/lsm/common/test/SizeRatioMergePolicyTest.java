@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractSizeRatioMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.LeveledMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.TieredMergePolicy;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class SizeRatioMergePolicyTest {
+
+    private static final int FAN_OUT = 4;
+
+    private static final long MAX_COMPONENT_SIZE = 100;
+
+    private static final int MAX_COMPONENT_COUNT = 10;
+
+    @Test
+    public void testTieredMergesComponentsOfATier() throws HyracksDataException {
+        List<Long> sizes = flush(new TieredMergePolicy(), 15);
+        // newest first: 15 = 3 * 4 + 3
+        Assert.assertEquals(Arrays.asList(1L, 1L, 1L, 4L, 4L, 4L), sizes);
+        sizes = flush(new TieredMergePolicy(), 16);
+        Assert.assertEquals(Arrays.asList(16L), sizes);
+    }
+
+    @Test
+    public void testTieredIgnoresComponentsOfOtherTiers() throws HyracksDataException {
+        ILSMMergePolicy policy = createPolicy(new TieredMergePolicy());
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 1L, 1L, 4L));
+        policy.diskComponentAdded(mockIndex(policy, sizes), false);
+        Assert.assertEquals(Arrays.asList(1L, 1L, 1L, 4L), sizes);
+    }
+
+    @Test
+    public void testLeveledKeepsTheSizeRatio() throws HyracksDataException {
+        for (int numFlushes = 1; numFlushes < 64; numFlushes++) {
+            List<Long> sizes = flush(new LeveledMergePolicy(), numFlushes);
+            Assert.assertEquals(numFlushes, sizes.stream().mapToLong(Long::longValue).sum());
+            for (int i = 0; i + 1 < sizes.size(); i++) {
+                Assert.assertTrue(sizes.toString(), sizes.get(i + 1) >= FAN_OUT * sizes.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testLargeComponentsAreNotMerged() throws HyracksDataException {
+        ILSMMergePolicy policy = createPolicy(new TieredMergePolicy());
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 1L, 1L, 1L, 101L, 101L, 101L, 101L));
+        policy.diskComponentAdded(mockIndex(policy, sizes), false);
+        Assert.assertEquals(Arrays.asList(4L, 101L, 101L, 101L, 101L), sizes);
+
+        policy = createPolicy(new LeveledMergePolicy());
+        sizes = new ArrayList<>(Arrays.asList(60L, 60L, 101L, 101L));
+        policy.diskComponentAdded(mockIndex(policy, sizes), false);
+        Assert.assertEquals(Arrays.asList(120L, 101L, 101L), sizes);
+    }
+
+    @Test
+    public void testMergeLagging() throws HyracksDataException {
+        ILSMMergePolicy policy = createPolicy(new TieredMergePolicy());
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 5L, 11L, 23L, 47L, 95L));
+        ILSMIndex index = mockIndex(policy, sizes);
+        Assert.assertFalse(policy.isMergeLagging(index));
+        sizes.addAll(0, Arrays.asList(1L, 3L, 7L));
+        index = mockIndex(policy, sizes);
+        // no two consecutive components are in the same tier, but flushes must not wait forever
+        Assert.assertTrue(policy.isMergeLagging(index));
+        Assert.assertTrue(sizes.size() < MAX_COMPONENT_COUNT);
+    }
+
+    private static List<Long> flush(AbstractSizeRatioMergePolicy policy, int numFlushes) throws HyracksDataException {
+        ILSMMergePolicy configured = createPolicy(policy);
+        List<Long> sizes = new ArrayList<>();
+        for (int i = 0; i < numFlushes; i++) {
+            sizes.add(0, 1L);
+            configured.diskComponentAdded(mockIndex(configured, sizes), false);
+        }
+        return sizes;
+    }
+
+    private static ILSMMergePolicy createPolicy(ILSMMergePolicy policy) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(AbstractSizeRatioMergePolicy.FAN_OUT, String.valueOf(FAN_OUT));
+        properties.put(AbstractSizeRatioMergePolicy.MAX_MERGABLE_COMPONENT_SIZE, String.valueOf(MAX_COMPONENT_SIZE));
+        properties.put(AbstractSizeRatioMergePolicy.MAX_TOLERANCE_COMPONENT_COUNT, String.valueOf(MAX_COMPONENT_COUNT));
+        policy.configure(properties);
+        return policy;
+    }
+
+    /**
+     * Creates an index whose merges complete right away and, like the LSM harness, notify the policy of the new
+     * component, so that cascading merges are simulated as well.
+     */
+    private static ILSMIndex mockIndex(ILSMMergePolicy policy, List<Long> componentSizes) throws HyracksDataException {
+        List<ILSMDiskComponent> components = new ArrayList<>();
+        for (Long size : componentSizes) {
+            components.add(mockComponent(size));
+        }
+        ILSMIndex index = Mockito.mock(ILSMIndex.class);
+        Mockito.when(index.getDiskComponents()).thenReturn(components);
+        ILSMIndexAccessor accessor = Mockito.mock(ILSMIndexAccessor.class);
+        Mockito.doAnswer(invocation -> {
+            List<ILSMDiskComponent> mergedComponents = new ArrayList<>(invocation.getArgumentAt(0, List.class));
+            long sum = 0;
+            for (ILSMDiskComponent c : mergedComponents) {
+                sum += c.getComponentSize();
+            }
+            int swapIndex = components.indexOf(mergedComponents.get(0));
+            components.removeAll(mergedComponents);
+            components.add(swapIndex, mockComponent(sum));
+            componentSizes.clear();
+            for (ILSMDiskComponent c : components) {
+                componentSizes.add(c.getComponentSize());
+            }
+            policy.diskComponentAdded(index, false);
+            return null;
+        }).when(accessor).scheduleMerge(Mockito.anyListOf(ILSMDiskComponent.class));
+        Mockito.when(index.createAccessor(Mockito.any(IIndexAccessParameters.class))).thenReturn(accessor);
+        return index;
+    }
+
+    private static ILSMDiskComponent mockComponent(long size) {
+        ILSMDiskComponent component = Mockito.mock(ILSMDiskComponent.class);
+        Mockito.when(component.getComponentSize()).thenReturn(size);
+        Mockito.when(component.getState()).thenReturn(ComponentState.READABLE_UNWRITABLE);
+        return component;
+    }
+}
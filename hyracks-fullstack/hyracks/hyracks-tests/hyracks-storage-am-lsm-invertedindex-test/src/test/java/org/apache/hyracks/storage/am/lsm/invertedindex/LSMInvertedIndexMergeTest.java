@@ -37,7 +37,11 @@ public class LSMInvertedIndexMergeTest extends AbstractInvertedIndexLoadTest {
     private final int maxTreesToMerge = AccessMethodTestsConfig.LSM_INVINDEX_MAX_TREES_TO_MERGE;
 
     public LSMInvertedIndexMergeTest() {
-        super(InvertedIndexType.LSM, false);
+        this(InvertedIndexType.LSM);
+    }
+
+    protected LSMInvertedIndexMergeTest(InvertedIndexType invIndexType) {
+        super(invIndexType, false);
     }
 
     @Override
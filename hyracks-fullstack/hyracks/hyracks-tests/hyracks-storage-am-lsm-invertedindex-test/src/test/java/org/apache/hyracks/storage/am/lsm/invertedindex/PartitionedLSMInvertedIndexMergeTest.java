@@ -38,7 +38,11 @@ public class PartitionedLSMInvertedIndexMergeTest extends AbstractInvertedIndexL
     private final int maxTreesToMerge = AccessMethodTestsConfig.LSM_INVINDEX_MAX_TREES_TO_MERGE;
 
     public PartitionedLSMInvertedIndexMergeTest() {
-        super(InvertedIndexType.PARTITIONED_LSM, false);
+        this(InvertedIndexType.PARTITIONED_LSM);
+    }
+
+    protected PartitionedLSMInvertedIndexMergeTest(InvertedIndexType invIndexType) {
+        super(invIndexType, false);
     }
 
     @Override
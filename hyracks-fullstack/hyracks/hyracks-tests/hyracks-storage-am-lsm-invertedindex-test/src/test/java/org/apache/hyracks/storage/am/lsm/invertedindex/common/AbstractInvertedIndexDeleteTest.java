@@ -43,8 +43,7 @@ public abstract class AbstractInvertedIndexDeleteTest extends AbstractInvertedIn
     protected void runTest(LSMInvertedIndexTestContext testCtx, TupleGenerator tupleGen) throws IOException {
         IIndex invIndex = testCtx.getIndex();
 
-        if ((invIndexType != InvertedIndexType.LSM) && (invIndexType != InvertedIndexType.PARTITIONED_LSM)
-                || !bulkLoad) {
+        if (!invIndexType.isLSM() || !bulkLoad) {
             invIndex.create();
             invIndex.activate();
         }
@@ -53,7 +52,7 @@ public abstract class AbstractInvertedIndexDeleteTest extends AbstractInvertedIn
             // Start generating documents ids from 0 again.
             tupleGen.reset();
             if (bulkLoad) {
-                if ((invIndexType != InvertedIndexType.LSM) && (invIndexType != InvertedIndexType.PARTITIONED_LSM)) {
+                if (!invIndexType.isLSM()) {
                     LSMInvertedIndexTestUtils.bulkLoadInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT, false);
                 } else {
 
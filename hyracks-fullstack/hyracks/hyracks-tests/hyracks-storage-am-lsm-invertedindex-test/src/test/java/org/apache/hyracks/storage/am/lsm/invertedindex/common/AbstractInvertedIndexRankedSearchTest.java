@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.common;
+
+import java.io.IOException;
+import java.util.TreeSet;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.storage.am.common.CheckTuple;
+import org.apache.hyracks.storage.am.common.datagen.DocumentStringFieldValueGenerator;
+import org.apache.hyracks.storage.am.common.datagen.IFieldValueGenerator;
+import org.apache.hyracks.storage.am.common.datagen.SortedIntegerFieldValueGenerator;
+import org.apache.hyracks.storage.am.common.datagen.TupleGenerator;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearchModifier;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.ConjunctiveSearchModifier;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.DisjunctiveSearchModifier;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.JaccardSearchModifier;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestContext;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestContext.InvertedIndexType;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestUtils;
+import org.apache.hyracks.storage.common.IIndex;
+import org.junit.Test;
+
+public abstract class AbstractInvertedIndexRankedSearchTest extends AbstractInvertedIndexTest {
+
+    protected final IInvertedIndexSearchModifier[] RANKED_SEARCH_MODIFIERS = new IInvertedIndexSearchModifier[] {
+            new DisjunctiveSearchModifier(), new ConjunctiveSearchModifier(), new JaccardSearchModifier(0.5f) };
+    protected final int[] TOP_K = new int[] { 1, 10, 1000 };
+    protected final boolean bulkLoad;
+
+    public AbstractInvertedIndexRankedSearchTest(InvertedIndexType invIndexType, boolean bulkLoad) {
+        super(invIndexType);
+        this.bulkLoad = bulkLoad;
+    }
+
+    protected void runTest(LSMInvertedIndexTestContext testCtx, TupleGenerator tupleGen) throws IOException {
+        runTest(testCtx, tupleGen, false);
+    }
+
+    protected void runTest(LSMInvertedIndexTestContext testCtx, TupleGenerator tupleGen, boolean termStatistics)
+            throws IOException {
+        IIndex invIndex = testCtx.getIndex();
+        invIndex.create();
+        invIndex.activate();
+        if (bulkLoad) {
+            LSMInvertedIndexTestUtils.bulkLoadInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT, invIndexType.isLSM());
+        } else {
+            LSMInvertedIndexTestUtils.insertIntoInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT);
+        }
+        invIndex.validate();
+        runRankedSearches(testCtx, tupleGen, termStatistics, testCtx.getCheckTuples());
+
+        // An on-disk inverted index can only be bulk-loaded.
+        if (invIndexType.isLSM() || !bulkLoad) {
+            // A bulk-loaded LSM component keeps counting its deleted documents until it is merged.
+            TreeSet<CheckTuple> statisticsTuples =
+                    bulkLoad ? new TreeSet<>(testCtx.getCheckTuples()) : testCtx.getCheckTuples();
+            LSMInvertedIndexTestUtils.deleteFromInvIndex(testCtx, harness.getRandom(),
+                    testCtx.getDocumentCorpus().size() / 2);
+            if (invIndexType.isLSM()) {
+                LSMInvertedIndexTestUtils.insertIntoInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT / 2);
+                statisticsTuples.addAll(testCtx.getCheckTuples());
+            }
+            invIndex.validate();
+            runRankedSearches(testCtx, tupleGen, termStatistics, statisticsTuples);
+        }
+
+        invIndex.deactivate();
+        invIndex.destroy();
+    }
+
+    private void runRankedSearches(LSMInvertedIndexTestContext testCtx, TupleGenerator tupleGen, boolean termStatistics,
+            TreeSet<CheckTuple> statisticsTuples) throws IOException {
+        for (IInvertedIndexSearchModifier searchModifier : RANKED_SEARCH_MODIFIERS) {
+            for (int topK : TOP_K) {
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Running top " + topK + " searches with: " + searchModifier.toString());
+                }
+                LSMInvertedIndexTestUtils.testIndexRankedSearch(testCtx, tupleGen, harness.getRandom(),
+                        TINY_WORKLOAD_NUM_DOC_QUERIES, TINY_WORKLOAD_NUM_RANDOM_QUERIES, searchModifier, topK,
+                        termStatistics, statisticsTuples);
+            }
+        }
+    }
+
+    @Test
+    public void wordTokensInvIndexTest() throws IOException {
+        LSMInvertedIndexTestContext testCtx =
+                LSMInvertedIndexTestUtils.createWordInvIndexTestContext(harness, invIndexType);
+        runTest(testCtx, LSMInvertedIndexTestUtils.createStringDocumentTupleGen(harness.getRandom()));
+    }
+
+    @Test
+    public void hashedWordTokensInvIndexTest() throws IOException {
+        LSMInvertedIndexTestContext testCtx =
+                LSMInvertedIndexTestUtils.createHashedWordInvIndexTestContext(harness, invIndexType);
+        runTest(testCtx, LSMInvertedIndexTestUtils.createStringDocumentTupleGen(harness.getRandom()));
+    }
+
+    /**
+     * Scores the results by term frequencies and document lengths. Longer documents from a smaller dictionary repeat
+     * their tokens more often.
+     */
+    @Test
+    public void wordTokensWithTermStatisticsInvIndexTest() throws IOException {
+        LSMInvertedIndexTestContext testCtx =
+                LSMInvertedIndexTestUtils.createWordInvIndexWithTermStatisticsTestContext(harness, invIndexType);
+        IFieldValueGenerator[] fieldGens =
+                new IFieldValueGenerator[] { new DocumentStringFieldValueGenerator(2, 40, 500, harness.getRandom()),
+                        new SortedIntegerFieldValueGenerator(0) };
+        ISerializerDeserializer[] fieldSerdes = new ISerializerDeserializer[] { new UTF8StringSerializerDeserializer(),
+                IntegerSerializerDeserializer.INSTANCE };
+        runTest(testCtx, new TupleGenerator(fieldGens, fieldSerdes, 0), true);
+    }
+}
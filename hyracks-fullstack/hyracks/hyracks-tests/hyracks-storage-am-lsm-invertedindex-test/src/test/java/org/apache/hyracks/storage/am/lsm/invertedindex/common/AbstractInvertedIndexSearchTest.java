@@ -53,13 +53,12 @@ public abstract class AbstractInvertedIndexSearchTest extends AbstractInvertedIn
     protected void runTest(LSMInvertedIndexTestContext testCtx, TupleGenerator tupleGen,
             List<IInvertedIndexSearchModifier> searchModifiers) throws IOException {
         IIndex invIndex = testCtx.getIndex();
-        if ((invIndexType != InvertedIndexType.LSM) && (invIndexType != InvertedIndexType.PARTITIONED_LSM)
-                || !bulkLoad) {
+        if (!invIndexType.isLSM() || !bulkLoad) {
             invIndex.create();
             invIndex.activate();
         }
         if (bulkLoad) {
-            if ((invIndexType != InvertedIndexType.LSM) && (invIndexType != InvertedIndexType.PARTITIONED_LSM)) {
+            if (!invIndexType.isLSM()) {
                 LSMInvertedIndexTestUtils.bulkLoadInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT, false);
             } else {
                 LSMInvertedIndexTestUtils.bulkLoadInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT, true);
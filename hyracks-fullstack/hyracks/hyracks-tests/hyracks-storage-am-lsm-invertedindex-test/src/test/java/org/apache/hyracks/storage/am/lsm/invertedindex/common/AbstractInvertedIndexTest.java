@@ -80,12 +80,13 @@ public abstract class AbstractInvertedIndexTest {
         }
         // Validate index and compare against expected index.
         invIndex.validate();
-        if (invIndexType == InvertedIndexType.INMEMORY || invIndexType == InvertedIndexType.ONDISK) {
+        if (invIndexType == InvertedIndexType.INMEMORY || invIndexType == InvertedIndexType.ONDISK
+                || invIndexType == InvertedIndexType.ONDISK_COMPRESSED) {
             // This comparison method exercises different features of these types of inverted indexes.
             LSMInvertedIndexTestUtils.compareActualAndExpectedIndexes(testCtx);
         }
         LSMInvertedIndexTestUtils.compareActualAndExpectedIndexesRangeSearch(testCtx);
-        if (invIndexType == InvertedIndexType.LSM || invIndexType == InvertedIndexType.PARTITIONED_LSM) {
+        if (invIndexType.isLSM()) {
             LSMInvertedIndex lsmIndex = (LSMInvertedIndex) invIndex;
             if (!lsmIndex.isMemoryComponentsAllocated() || lsmIndex.isCurrentMutableComponentEmpty()) {
                 LSMInvertedIndexTestUtils.compareActualAndExpectedIndexesMergeSearch(testCtx);
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedInvertedListBuilderTest {
+
+    private static final int PAGE_SIZE = 4096;
+    private static final ITypeTraits[] FIELDS = { IntegerPointable.TYPE_TRAITS, LongPointable.TYPE_TRAITS };
+    private static final int ELEMENT_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int NUM_ELEMENTS = 10000;
+
+    private final Random rnd = new Random(50);
+
+    /**
+     * Builds an inverted list that spans several pages and contains elements whose first field changes (escaped
+     * elements), small, large and overflowing differences of the second field, and checks that all elements are
+     * decoded and that the search for ascending keys skips to the right elements.
+     */
+    @Test
+    public void buildAndReadTest() throws Exception {
+        List<byte[]> elements = generateElements();
+        List<byte[]> pages = new ArrayList<>();
+        List<Integer> pageStarts = new ArrayList<>();
+        CompressedInvertedListBuilder builder = new CompressedInvertedListBuilder(FIELDS);
+        FixedSizeTupleReference tuple = new FixedSizeTupleReference(FIELDS);
+
+        // the list starts behind a previous list on the first page
+        pages.add(new byte[PAGE_SIZE]);
+        builder.setTargetBuffer(pages.get(0), 100);
+        Assert.assertTrue(builder.startNewList(tuple, 0));
+        pageStarts.add(builder.getPos());
+        for (byte[] element : elements) {
+            tuple.reset(element, 0);
+            if (!builder.appendElement(tuple, 0, FIELDS.length)) {
+                pages.add(new byte[PAGE_SIZE]);
+                builder.setTargetBuffer(pages.get(pages.size() - 1), 0);
+                pageStarts.add(0);
+                Assert.assertTrue(builder.appendElement(tuple, 0, FIELDS.length));
+            }
+        }
+        Assert.assertEquals(NUM_ELEMENTS, builder.getListSize());
+        Assert.assertTrue(pages.size() > 1);
+        Assert.assertTrue(pages.size() < NUM_ELEMENTS * ELEMENT_SIZE / PAGE_SIZE);
+
+        MultiComparator cmp = MultiComparator
+                .create(new IBinaryComparatorFactory[] { PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY),
+                        PointableBinaryComparatorFactory.of(LongPointable.FACTORY) });
+        CompressedInvertedListSegmentReader reader = new CompressedInvertedListSegmentReader(FIELDS);
+        int count = 0;
+        for (int p = 0; p < pages.size(); p++) {
+            reader.reset(pages.get(p), pageStarts.get(p));
+            while (reader.hasNext()) {
+                reader.next();
+                tuple.reset(elements.get(count), 0);
+                Assert.assertEquals("element " + count, 0, cmp.compare(tuple, reader.getTuple()));
+                count++;
+            }
+        }
+        Assert.assertEquals(NUM_ELEMENTS, count);
+
+        // every third element is searched, the others are skipped
+        int p = 0;
+        reader.reset(pages.get(p), pageStarts.get(p));
+        for (int i = 0; i < NUM_ELEMENTS; i += 3) {
+            tuple.reset(elements.get(i), 0);
+            while (!reader.moveTo(tuple, cmp)) {
+                p++;
+                reader.reset(pages.get(p), pageStarts.get(p));
+            }
+            Assert.assertEquals("element " + i, 0, cmp.compare(tuple, reader.getTuple()));
+        }
+    }
+
+    private List<byte[]> generateElements() {
+        List<byte[]> elements = new ArrayList<>();
+        int first = -1;
+        long second = Long.MIN_VALUE + 10;
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            if (i % 1000 == 999) {
+                first++;
+                second = rnd.nextInt(1000) - 500;
+            } else if (i % 500 == 250) {
+                // the difference is too large to be encoded
+                second += (1L << 61) + rnd.nextInt(1000);
+            } else if (i % 10 == 0) {
+                second += rnd.nextInt(1 << 20) + 1;
+            } else {
+                second += rnd.nextInt(20) + 1;
+            }
+            byte[] element = new byte[ELEMENT_SIZE];
+            IntegerPointable.setInteger(element, 0, first);
+            LongPointable.setLong(element, Integer.BYTES, second);
+            elements.add(element);
+        }
+        return elements;
+    }
+}
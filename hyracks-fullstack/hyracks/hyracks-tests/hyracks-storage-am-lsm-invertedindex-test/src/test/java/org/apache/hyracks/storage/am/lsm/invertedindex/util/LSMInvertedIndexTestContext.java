@@ -68,8 +68,22 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
         LSM,
         PARTITIONED_INMEMORY,
         PARTITIONED_ONDISK,
-        PARTITIONED_LSM
-    };
+        PARTITIONED_LSM,
+        ONDISK_COMPRESSED,
+        PARTITIONED_ONDISK_COMPRESSED,
+        LSM_COMPRESSED,
+        PARTITIONED_LSM_COMPRESSED;
+
+        public boolean isLSM() {
+            return this == LSM || this == PARTITIONED_LSM || this == LSM_COMPRESSED
+                    || this == PARTITIONED_LSM_COMPRESSED;
+        }
+
+        public boolean isPartitioned() {
+            return this == PARTITIONED_INMEMORY || this == PARTITIONED_ONDISK || this == PARTITIONED_LSM
+                    || this == PARTITIONED_ONDISK_COMPRESSED || this == PARTITIONED_LSM_COMPRESSED;
+        }
+    }
 
     protected IInvertedIndex invIndex;
     protected IBinaryComparatorFactory[] allCmpFactories;
@@ -130,6 +144,20 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
             InvertedIndexType invIndexType, int[] invertedIndexFields, ITypeTraits[] filterTypeTraits,
             IBinaryComparatorFactory[] filterCmpFactories, int[] filterFields, int[] filterFieldsForNonBulkLoadOps,
             int[] invertedIndexFieldsForNonBulkLoadOps) throws HyracksDataException {
+        return create(harness, fieldSerdes, tokenFieldCount, tokenizerFactory, invIndexType, invertedIndexFields,
+                filterTypeTraits, filterCmpFactories, filterFields, filterFieldsForNonBulkLoadOps,
+                invertedIndexFieldsForNonBulkLoadOps, false);
+    }
+
+    /**
+     * @param termStatistics
+     *            whether the last two inverted-list fields are the term frequency and the document length
+     */
+    public static LSMInvertedIndexTestContext create(LSMInvertedIndexTestHarness harness,
+            ISerializerDeserializer[] fieldSerdes, int tokenFieldCount, IBinaryTokenizerFactory tokenizerFactory,
+            InvertedIndexType invIndexType, int[] invertedIndexFields, ITypeTraits[] filterTypeTraits,
+            IBinaryComparatorFactory[] filterCmpFactories, int[] filterFields, int[] filterFieldsForNonBulkLoadOps,
+            int[] invertedIndexFieldsForNonBulkLoadOps, boolean termStatistics) throws HyracksDataException {
         ITypeTraits[] allTypeTraits = SerdeUtils.serdesToTypeTraits(fieldSerdes);
         IOManager ioManager = harness.getIOManager();
         IBinaryComparatorFactory[] allCmpFactories =
@@ -157,7 +185,7 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
                 invIndex = InvertedIndexUtils.createInMemoryBTreeInvertedindex(harness.getVirtualBufferCaches().get(0),
                         new VirtualFreePageManager(harness.getVirtualBufferCaches().get(0)), invListTypeTraits,
                         invListCmpFactories, tokenTypeTraits, tokenCmpFactories, tokenizerFactory,
-                        ioManager.resolveAbsolutePath(harness.getOnDiskDir()));
+                        ioManager.resolveAbsolutePath(harness.getOnDiskDir()), termStatistics);
                 break;
             }
             case PARTITIONED_INMEMORY: {
@@ -165,7 +193,7 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
                         harness.getVirtualBufferCaches().get(0),
                         new VirtualFreePageManager(harness.getVirtualBufferCaches().get(0)), invListTypeTraits,
                         invListCmpFactories, tokenTypeTraits, tokenCmpFactories, tokenizerFactory,
-                        ioManager.resolveAbsolutePath(harness.getOnDiskDir()));
+                        ioManager.resolveAbsolutePath(harness.getOnDiskDir()), termStatistics);
                 break;
             }
             case ONDISK: {
@@ -174,13 +202,26 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
                         harness.getInvListsFileRef(), harness.getMetadataPageManagerFactory());
                 break;
             }
+            case ONDISK_COMPRESSED: {
+                invIndex = InvertedIndexUtils.createOnDiskInvertedIndex(ioManager, harness.getDiskBufferCache(),
+                        invListTypeTraits, invListCmpFactories, tokenTypeTraits, tokenCmpFactories,
+                        harness.getInvListsFileRef(), harness.getMetadataPageManagerFactory(), true);
+                break;
+            }
             case PARTITIONED_ONDISK: {
                 invIndex = InvertedIndexUtils.createPartitionedOnDiskInvertedIndex(ioManager,
                         harness.getDiskBufferCache(), invListTypeTraits, invListCmpFactories, tokenTypeTraits,
                         tokenCmpFactories, harness.getInvListsFileRef(), harness.getMetadataPageManagerFactory());
                 break;
             }
-            case LSM: {
+            case PARTITIONED_ONDISK_COMPRESSED: {
+                invIndex = InvertedIndexUtils.createPartitionedOnDiskInvertedIndex(ioManager,
+                        harness.getDiskBufferCache(), invListTypeTraits, invListCmpFactories, tokenTypeTraits,
+                        tokenCmpFactories, harness.getInvListsFileRef(), harness.getMetadataPageManagerFactory(), true);
+                break;
+            }
+            case LSM:
+            case LSM_COMPRESSED: {
                 invIndex = InvertedIndexUtils.createLSMInvertedIndex(ioManager, harness.getVirtualBufferCaches(),
                         invListTypeTraits, invListCmpFactories, tokenTypeTraits, tokenCmpFactories, tokenizerFactory,
                         harness.getDiskBufferCache(), harness.getOnDiskDir(), harness.getBoomFilterFalsePositiveRate(),
@@ -189,10 +230,12 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
                         filterCmpFactories, filterFields, filterFieldsForNonBulkLoadOps,
                         invertedIndexFieldsForNonBulkLoadOps, true, harness.getMetadataPageManagerFactory(),
                         new Tracer(LSMInvertedIndexTestContext.class.getSimpleName(),
-                                ITraceCategoryRegistry.CATEGORIES_ALL, new TraceCategoryRegistry()));
+                                ITraceCategoryRegistry.CATEGORIES_ALL, new TraceCategoryRegistry()),
+                        invIndexType == InvertedIndexType.LSM_COMPRESSED, termStatistics);
                 break;
             }
-            case PARTITIONED_LSM: {
+            case PARTITIONED_LSM:
+            case PARTITIONED_LSM_COMPRESSED: {
                 invIndex = InvertedIndexUtils.createPartitionedLSMInvertedIndex(ioManager,
                         harness.getVirtualBufferCaches(), invListTypeTraits, invListCmpFactories, tokenTypeTraits,
                         tokenCmpFactories, tokenizerFactory, harness.getDiskBufferCache(), harness.getOnDiskDir(),
@@ -202,7 +245,8 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
                         filterCmpFactories, filterFields, filterFieldsForNonBulkLoadOps,
                         invertedIndexFieldsForNonBulkLoadOps, true, harness.getMetadataPageManagerFactory(),
                         new Tracer(LSMInvertedIndexTestContext.class.getSimpleName(),
-                                ITraceCategoryRegistry.CATEGORIES_ALL, new TraceCategoryRegistry()));
+                                ITraceCategoryRegistry.CATEGORIES_ALL, new TraceCategoryRegistry()),
+                        invIndexType == InvertedIndexType.PARTITIONED_LSM_COMPRESSED, termStatistics);
                 break;
             }
             default: {
@@ -213,16 +257,25 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
         switch (invIndexType) {
             case INMEMORY:
             case ONDISK:
-            case LSM: {
-                indexTupleIter = new InvertedIndexTokenizingTupleIterator(invIndex.getTokenTypeTraits().length,
-                        invIndex.getInvListTypeTraits().length, tokenizerFactory.createTokenizer());
+            case ONDISK_COMPRESSED:
+            case LSM:
+            case LSM_COMPRESSED: {
+                indexTupleIter = termStatistics
+                        ? new TermStatisticsTokenizingTupleIterator(invIndex.getTokenTypeTraits().length,
+                                invIndex.getInvListTypeTraits().length, tokenizerFactory.createTokenizer(), false)
+                        : new InvertedIndexTokenizingTupleIterator(invIndex.getTokenTypeTraits().length,
+                                invIndex.getInvListTypeTraits().length, tokenizerFactory.createTokenizer());
                 break;
             }
             case PARTITIONED_INMEMORY:
             case PARTITIONED_ONDISK:
-            case PARTITIONED_LSM: {
-                indexTupleIter =
-                        new PartitionedInvertedIndexTokenizingTupleIterator(invIndex.getTokenTypeTraits().length,
+            case PARTITIONED_ONDISK_COMPRESSED:
+            case PARTITIONED_LSM:
+            case PARTITIONED_LSM_COMPRESSED: {
+                indexTupleIter = termStatistics
+                        ? new TermStatisticsTokenizingTupleIterator(invIndex.getTokenTypeTraits().length,
+                                invIndex.getInvListTypeTraits().length, tokenizerFactory.createTokenizer(), true)
+                        : new PartitionedInvertedIndexTokenizingTupleIterator(invIndex.getTokenTypeTraits().length,
                                 invIndex.getInvListTypeTraits().length, tokenizerFactory.createTokenizer());
                 break;
             }
@@ -30,8 +30,10 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.SortedSet;
@@ -56,6 +58,7 @@ import org.apache.hyracks.api.job.profiling.IStatsCollector;
 import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
 import org.apache.hyracks.api.resources.IDeallocatable;
 import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
 import org.apache.hyracks.data.std.primitive.IntegerPointable;
 import org.apache.hyracks.data.std.util.GrowableArray;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
@@ -88,8 +91,11 @@ import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearchM
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.InvertedListCursor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.common.LSMInvertedIndexTestHarness;
 import org.apache.hyracks.storage.am.lsm.invertedindex.impls.LSMInvertedIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.inmemory.InMemoryInvertedIndex;
 import org.apache.hyracks.storage.am.lsm.invertedindex.impls.LSMInvertedIndexMergeCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexRankingStatistics;
 import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexSearchPredicate;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.RankedInvertedListMerger;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.DelimitedUTF8StringBinaryTokenizerFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.HashedUTF8NGramTokenFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.HashedUTF8WordTokenFactory;
@@ -137,14 +143,18 @@ public class LSMInvertedIndexTestUtils {
         switch (invIndexType) {
             case INMEMORY:
             case ONDISK:
-            case LSM: {
+            case ONDISK_COMPRESSED:
+            case LSM:
+            case LSM_COMPRESSED: {
                 fieldSerdes = new ISerializerDeserializer[] { new UTF8StringSerializerDeserializer(),
                         IntegerSerializerDeserializer.INSTANCE };
                 break;
             }
             case PARTITIONED_INMEMORY:
             case PARTITIONED_ONDISK:
-            case PARTITIONED_LSM: {
+            case PARTITIONED_ONDISK_COMPRESSED:
+            case PARTITIONED_LSM:
+            case PARTITIONED_LSM_COMPRESSED: {
                 // Such indexes also include the set-size for partitioning.
                 fieldSerdes = new ISerializerDeserializer[] { new UTF8StringSerializerDeserializer(),
                         ShortSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
@@ -163,14 +173,18 @@ public class LSMInvertedIndexTestUtils {
         switch (invIndexType) {
             case INMEMORY:
             case ONDISK:
-            case LSM: {
+            case ONDISK_COMPRESSED:
+            case LSM:
+            case LSM_COMPRESSED: {
                 fieldSerdes = new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE,
                         IntegerSerializerDeserializer.INSTANCE };
                 break;
             }
             case PARTITIONED_INMEMORY:
             case PARTITIONED_ONDISK:
-            case PARTITIONED_LSM: {
+            case PARTITIONED_ONDISK_COMPRESSED:
+            case PARTITIONED_LSM:
+            case PARTITIONED_LSM_COMPRESSED: {
                 // Such indexes also include the set-size for partitioning.
                 fieldSerdes = new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE,
                         ShortSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
@@ -194,6 +208,23 @@ public class LSMInvertedIndexTestUtils {
         return testCtx;
     }
 
+    /**
+     * Creates the context of a word index whose inverted-list elements keep the term statistics of a ranked search.
+     */
+    public static LSMInvertedIndexTestContext createWordInvIndexWithTermStatisticsTestContext(
+            LSMInvertedIndexTestHarness harness, InvertedIndexType invIndexType) throws HyracksDataException {
+        ISerializerDeserializer[] indexFieldSerdes = getNonHashedIndexFieldSerdes(invIndexType);
+        ISerializerDeserializer[] fieldSerdes = Arrays.copyOf(indexFieldSerdes,
+                indexFieldSerdes.length + InvertedIndexUtils.NUM_TERM_STATISTICS_FIELDS);
+        fieldSerdes[indexFieldSerdes.length] = IntegerSerializerDeserializer.INSTANCE;
+        fieldSerdes[indexFieldSerdes.length + 1] = IntegerSerializerDeserializer.INSTANCE;
+        ITokenFactory tokenFactory = new UTF8WordTokenFactory();
+        IBinaryTokenizerFactory tokenizerFactory =
+                new DelimitedUTF8StringBinaryTokenizerFactory(true, false, tokenFactory);
+        return LSMInvertedIndexTestContext.create(harness, fieldSerdes, indexFieldSerdes.length - 1, tokenizerFactory,
+                invIndexType, null, null, null, null, null, null, true);
+    }
+
     public static LSMInvertedIndexTestContext createHashedWordInvIndexTestContext(LSMInvertedIndexTestHarness harness,
             InvertedIndexType invIndexType) throws IOException, HyracksDataException {
         ISerializerDeserializer[] fieldSerdes = getHashedIndexFieldSerdes(invIndexType);
@@ -350,7 +381,8 @@ public class LSMInvertedIndexTestUtils {
     }
 
     /**
-     * Compares actual and expected indexes by comparing their inverted-lists one by one. Exercises the openInvertedListCursor() method of the inverted-index accessor.
+     * Compares actual and expected indexes by comparing their inverted-lists one by one. Exercises the
+     * openInvertedListCursor() method of the inverted-index accessor.
      */
     @SuppressWarnings("unchecked")
     public static void compareActualAndExpectedIndexes(LSMInvertedIndexTestContext testCtx)
@@ -439,13 +471,17 @@ public class LSMInvertedIndexTestUtils {
         switch (invIndexType) {
             case INMEMORY:
             case ONDISK:
-            case LSM: {
+            case ONDISK_COMPRESSED:
+            case LSM:
+            case LSM_COMPRESSED: {
                 isPartitioned = false;
                 break;
             }
             case PARTITIONED_INMEMORY:
             case PARTITIONED_ONDISK:
-            case PARTITIONED_LSM: {
+            case PARTITIONED_ONDISK_COMPRESSED:
+            case PARTITIONED_LSM:
+            case PARTITIONED_LSM_COMPRESSED: {
                 isPartitioned = true;
                 break;
             }
@@ -561,7 +597,8 @@ public class LSMInvertedIndexTestUtils {
 
         int numQueries = numDocQueries + numRandomQueries;
         for (int i = 0; i < numQueries; i++) {
-            // If number of documents in the corpus is less than numDocQueries, then replace the remaining ones with random queries.
+            // If number of documents in the corpus is less than numDocQueries, then replace the remaining ones with
+            // random queries.
             if (i >= numDocQueries || i >= documentCorpus.size()) {
                 // Generate a random query.
                 ITupleReference randomQuery = tupleGen.next();
@@ -591,7 +628,8 @@ public class LSMInvertedIndexTestUtils {
                 }
                 try {
                     if (!panic) {
-                        // Consume cursor and deserialize results so we can sort them. Some search cursors may not deliver the result sorted (e.g., LSM search cursor).
+                        // Consume cursor and deserialize results so we can sort them. Some search cursors may not
+                        // deliver the result sorted (e.g., LSM search cursor).
                         ArrayList<Integer> actualResults = new ArrayList<>();
                         try {
                             while (resultCursor.hasNext()) {
@@ -643,6 +681,198 @@ public class LSMInvertedIndexTestUtils {
         }
     }
 
+    /**
+     * Runs ranked searches and compares the scores of the results with the scores that are computed from the check
+     * tuples.
+     *
+     * @param termStatistics
+     *            whether the check tuples end with the term statistics of the elements
+     */
+    public static void testIndexRankedSearch(LSMInvertedIndexTestContext testCtx, TupleGenerator tupleGen, Random rnd,
+            int numDocQueries, int numRandomQueries, IInvertedIndexSearchModifier searchModifier, int topK,
+            boolean termStatistics) throws IOException {
+        testIndexRankedSearch(testCtx, tupleGen, rnd, numDocQueries, numRandomQueries, searchModifier, topK,
+                termStatistics, testCtx.getCheckTuples());
+    }
+
+    /**
+     * Runs ranked searches and compares the scores of the results with the scores that are computed from the check
+     * tuples.
+     *
+     * @param termStatistics
+     *            whether the check tuples end with the term statistics of the elements
+     * @param statisticsTuples
+     *            the elements that the index counts in its ranking statistics. The components of an LSM inverted
+     *            index keep counting the documents that are deleted after they were flushed until they are merged.
+     */
+    @SuppressWarnings("unchecked")
+    public static void testIndexRankedSearch(LSMInvertedIndexTestContext testCtx, TupleGenerator tupleGen, Random rnd,
+            int numDocQueries, int numRandomQueries, IInvertedIndexSearchModifier searchModifier, int topK,
+            boolean termStatistics, TreeSet<CheckTuple> statisticsTuples) throws IOException {
+        IInvertedIndex invIndex = testCtx.invIndex;
+        InvertedIndexType invIndexType = testCtx.getInvertedIndexType();
+        IHyracksTaskContext ctx = new HyracksTaskTestContext();
+        IDeallocatableFramePool framePool = new DeallocatableFramePool(ctx,
+                AccessMethodTestsConfig.LSM_INVINDEX_SEARCH_FRAME_LIMIT * ctx.getInitialFrameSize());
+        ISimpleFrameBufferManager bufferManagerForSearch = new FramePoolBackedFrameBufferManager(framePool);
+        TaskUtil.put(HyracksConstants.INVERTED_INDEX_SEARCH_FRAME_MANAGER, bufferManagerForSearch, ctx);
+        IIndexAccessParameters iap =
+                new IndexAccessParameters(NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
+        iap.getParameters().put(HyracksConstants.HYRACKS_TASK_CONTEXT, ctx);
+        IInvertedIndexAccessor accessor = (IInvertedIndexAccessor) invIndex.createAccessor(iap);
+        IBinaryTokenizer tokenizer = testCtx.getTokenizerFactory().createTokenizer();
+        InvertedIndexSearchPredicate searchPred = new InvertedIndexSearchPredicate(tokenizer, searchModifier);
+        searchPred.setTopK(topK);
+        // An LSM inverted index gathers the statistics of its components by itself.
+        InvertedIndexRankingStatistics rankingStatistics = null;
+        if (termStatistics && !invIndexType.isLSM()) {
+            rankingStatistics = new InvertedIndexRankingStatistics();
+            searchPred.setRankingStatistics(rankingStatistics);
+        }
+        int elementField = testCtx.getFieldSerdes().length - 1
+                - (termStatistics ? InvertedIndexUtils.NUM_TERM_STATISTICS_FIELDS : 0);
+        double statisticsNumDocuments = 0;
+        long statisticsNumTokens = 0L;
+        if (termStatistics) {
+            for (CheckTuple checkTuple : statisticsTuples) {
+                int termFrequency = (Integer) checkTuple.getField(elementField + 1);
+                statisticsNumDocuments += (double) termFrequency / (Integer) checkTuple.getField(elementField + 2);
+                statisticsNumTokens += termFrequency;
+            }
+        }
+        double averageDocumentLength = statisticsNumDocuments > 0 && statisticsNumTokens > 0
+                ? statisticsNumTokens / statisticsNumDocuments : 1.0;
+        List<ITupleReference> documentCorpus = testCtx.getDocumentCorpus();
+        int[] fieldPermutation = new int[] { 0 };
+        PermutingTupleReference searchDocument = new PermutingTupleReference(fieldPermutation);
+        GrowableArray tokenData = new GrowableArray();
+
+        int numQueries = numDocQueries + numRandomQueries;
+        for (int i = 0; i < numQueries; i++) {
+            if (i >= numDocQueries || i >= documentCorpus.size()) {
+                searchDocument.reset(tupleGen.next());
+            } else {
+                searchDocument.reset(documentCorpus.get(Math.abs(rnd.nextInt() % documentCorpus.size())));
+            }
+            searchPred.setQueryTuple(searchDocument);
+            searchPred.setQueryFieldIndex(0);
+
+            // Gets the document frequencies of the query tokens from the statistics tuples and the elements that can
+            // be found from the current check tuples.
+            List<SortedSet<CheckTuple>> invLists = new ArrayList<>();
+            List<Integer> documentFrequencies = new ArrayList<>();
+            tokenizer.reset(searchDocument.getFieldData(0), searchDocument.getFieldStart(0),
+                    searchDocument.getFieldLength(0));
+            while (tokenizer.hasNext()) {
+                tokenizer.next();
+                tokenData.reset();
+                tokenizer.getToken().serializeToken(tokenData);
+                DataInput dataIn = new DataInputStream(
+                        new ByteArrayInputStream(tokenData.getByteArray(), 0, tokenData.getLength()));
+                Comparable tokenObj = (Comparable) testCtx.getFieldSerdes()[0].deserialize(dataIn);
+                CheckTuple lowKey = new CheckTuple(1, 1);
+                lowKey.appendField(tokenObj);
+                CheckTuple highKey = new CheckTuple(1, 1);
+                highKey.appendField(tokenObj);
+                invLists.add(OrderedIndexTestUtils.getPrefixExpectedSubset(testCtx.getCheckTuples(), lowKey, highKey));
+                documentFrequencies
+                        .add(OrderedIndexTestUtils.getPrefixExpectedSubset(statisticsTuples, lowKey, highKey).size());
+            }
+            if (invLists.isEmpty()) {
+                continue;
+            }
+            short numQueryTokens = (short) invLists.size();
+            int occurrenceThreshold = searchModifier.getOccurrenceThreshold(numQueryTokens);
+            if (occurrenceThreshold <= 0) {
+                continue;
+            }
+            short numTokensLowerBound = searchModifier.getNumTokensLowerBound(numQueryTokens);
+            short numTokensUpperBound = searchModifier.getNumTokensUpperBound(numQueryTokens);
+            double numDocuments = statisticsNumDocuments;
+            if (!termStatistics) {
+                numDocuments = 0;
+                for (int documentFrequency : documentFrequencies) {
+                    numDocuments += documentFrequency;
+                }
+            }
+
+            // Each inverted list adds its BM25 weight to the score of its elements.
+            Map<Integer, Integer> expectedCounts = new HashMap<>();
+            Map<Integer, Double> expectedScores = new HashMap<>();
+            for (int j = 0; j < invLists.size(); j++) {
+                double idf = RankedInvertedListMerger.computeIdf(numDocuments, documentFrequencies.get(j));
+                for (CheckTuple checkTuple : invLists.get(j)) {
+                    if (invIndexType.isPartitioned()) {
+                        // Only the partitions within the bounds of the number of tokens are searched.
+                        short numTokens = (Short) checkTuple.getField(1);
+                        if ((numTokensLowerBound >= 0 && numTokens < numTokensLowerBound)
+                                || (numTokensUpperBound >= 0 && numTokens > numTokensUpperBound)) {
+                            continue;
+                        }
+                    }
+                    Integer element = (Integer) checkTuple.getField(elementField);
+                    double weight = idf;
+                    if (termStatistics) {
+                        weight = RankedInvertedListMerger.computeWeight(idf,
+                                (Integer) checkTuple.getField(elementField + 1),
+                                (Integer) checkTuple.getField(elementField + 2), averageDocumentLength);
+                    }
+                    expectedCounts.merge(element, 1, Integer::sum);
+                    expectedScores.merge(element, weight, Double::sum);
+                }
+            }
+            List<Double> expectedTopScores = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : expectedCounts.entrySet()) {
+                if (entry.getValue() >= occurrenceThreshold) {
+                    expectedTopScores.add(expectedScores.get(entry.getKey()));
+                }
+            }
+            expectedTopScores.sort(Collections.reverseOrder());
+            expectedTopScores = expectedTopScores.subList(0, Math.min(topK, expectedTopScores.size()));
+
+            if (rankingStatistics != null) {
+                rankingStatistics.reset(true);
+                if (invIndex instanceof InMemoryInvertedIndex) {
+                    InvertedIndexDocumentStatistics documentStatistics =
+                            ((InMemoryInvertedIndex) invIndex).getDocumentStatistics();
+                    rankingStatistics.addDocuments(documentStatistics.getNumDocuments(),
+                            documentStatistics.getNumTokens());
+                } else {
+                    // An on-disk inverted index doesn't keep the statistics of its documents.
+                    rankingStatistics.addDocuments(statisticsNumDocuments, statisticsNumTokens);
+                }
+                accessor.addDocumentFrequencies(searchPred);
+            }
+            IIndexCursor resultCursor = accessor.createSearchCursor(false);
+            try {
+                accessor.search(resultCursor, searchPred);
+                try {
+                    List<Double> actualTopScores = new ArrayList<>();
+                    while (resultCursor.hasNext()) {
+                        resultCursor.next();
+                        ITupleReference resultTuple = resultCursor.getTuple();
+                        int actual =
+                                IntegerPointable.getInteger(resultTuple.getFieldData(0), resultTuple.getFieldStart(0));
+                        double score = DoublePointable.getDouble(resultTuple.getFieldData(0),
+                                resultTuple.getFieldStart(resultTuple.getFieldCount() - 1));
+                        assertTrue("Unexpected result " + actual,
+                                expectedCounts.getOrDefault(actual, 0) >= occurrenceThreshold);
+                        assertEquals("Score of " + actual, expectedScores.get(actual), score, 1e-9);
+                        actualTopScores.add(score);
+                    }
+                    assertEquals(expectedTopScores.size(), actualTopScores.size());
+                    for (int j = 0; j < expectedTopScores.size(); j++) {
+                        assertEquals("Score at rank " + j, expectedTopScores.get(j), actualTopScores.get(j), 1e-9);
+                    }
+                } finally {
+                    resultCursor.close();
+                }
+            } finally {
+                resultCursor.destroy();
+            }
+        }
+    }
+
     // This is just a dummy hyracks context for allocating frames for temporary
     // results during inverted index searches for the test purposes only.
     public static class HyracksTaskTestContext implements IHyracksTaskContext {
@@ -40,10 +40,15 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
 import org.apache.hyracks.storage.common.buffercache.CachedPage;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.TwoQueueClockPageReplacementStrategy;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.FileMapManager;
 import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
 import org.apache.hyracks.test.support.TestUtils;
 import org.apache.logging.log4j.Level;
@@ -443,6 +448,65 @@ public class BufferCacheTest {
         bufferCache.closeFile(fileId);
     }
 
+    @Test
+    public void scanResistantReplacementTest() throws HyracksException {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
+        IBufferCache writeBufferCache =
+                TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        FileReference file = ioManager.resolve(getFileName());
+        int fileId = writeBufferCache.createFile(file);
+        final int numPages = 16;
+        writeBufferCache.openFile(fileId);
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = writeBufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            page.getBuffer().putInt(0, i);
+            writeBufferCache.createFIFOQueue().put(page);
+        }
+        writeBufferCache.finishQueue();
+        writeBufferCache.closeFile(fileId);
+
+        final int bufferCacheNumPages = 4;
+        BufferCache bufferCache =
+                new BufferCache(ioManager,
+                        new TwoQueueClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE,
+                                bufferCacheNumPages),
+                        new DelayPageCleanerPolicy(1000), new FileMapManager(), MAX_OPEN_FILES,
+                        Executors.defaultThreadFactory());
+        try {
+            fileId = bufferCache.openFile(file);
+            // the first two pages are accessed repeatedly, like the interior pages of an index
+            for (int i = 0; i < 2; i++) {
+                readPage(bufferCache, fileId, 0, false);
+                readPage(bufferCache, fileId, 1, false);
+            }
+            // a scan reads the other pages once, through the two remaining pages of the cache
+            for (int i = 2; i < numPages; i++) {
+                readPage(bufferCache, fileId, i, true);
+            }
+            Assert.assertEquals(numPages, bufferCache.getMisses());
+            Assert.assertEquals(numPages - bufferCacheNumPages, bufferCache.getEvictions());
+            // the frequently accessed pages survived the scan
+            readPage(bufferCache, fileId, 0, false);
+            readPage(bufferCache, fileId, 1, false);
+            Assert.assertEquals(numPages, bufferCache.getMisses());
+            Assert.assertEquals(4, bufferCache.getHits());
+            bufferCache.closeFile(fileId);
+        } finally {
+            bufferCache.close();
+        }
+    }
+
+    private static void readPage(IBufferCache bufferCache, int fileId, int pageId, boolean sequential)
+            throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false, sequential);
+        try {
+            Assert.assertEquals(pageId, page.getBuffer().getInt(0));
+        } finally {
+            bufferCache.unpin(page);
+        }
+    }
+
     @AfterClass
     public static void cleanup() throws Exception {
         for (String s : openedFiles) {
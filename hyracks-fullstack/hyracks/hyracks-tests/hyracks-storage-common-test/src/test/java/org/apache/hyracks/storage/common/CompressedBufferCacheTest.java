@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.CompressedFileReference;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.compression.LZ4CompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.file.CompressedFileManager;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedBufferCacheTest {
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 10;
+    private static final int MAX_OPEN_FILES = 20;
+    private static final int NUM_FILE_PAGES = 50;
+    private static final int HYRACKS_FRAME_SIZE = PAGE_SIZE;
+    private final IHyracksTaskContext ctx = TestUtils.create(HYRACKS_FRAME_SIZE);
+
+    /**
+     * Writes more pages than the buffer cache holds to a compressed file, reads them back through a new buffer
+     * cache and rewrites them twice. The first rewrite is appended to the data file, since the pages have no spare
+     * slots yet, and the second rewrite reuses the slots of the first version, so the data file does not grow.
+     */
+    @Test
+    public void writeReadRewriteTest() throws HyracksDataException {
+        IBufferCache bufferCache = createBufferCache();
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        FileReference file = CompressedFileReference.of(ioManager.resolve("compressed-" + System.nanoTime()),
+                new LZ4CompressorDecompressorFactory());
+        int fileId = bufferCache.createFile(file);
+        bufferCache.openFile(fileId);
+        for (int pageId = 0; pageId < NUM_FILE_PAGES; pageId++) {
+            writePage(bufferCache, fileId, pageId);
+        }
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+        long fileSize = file.getFile().length();
+        Assert.assertTrue(((CompressedFileReference) file).getLAFFileReference().getFile().exists());
+        Assert.assertTrue("data file is not compressed: " + fileSize, fileSize < NUM_FILE_PAGES * PAGE_SIZE / 2);
+
+        for (int i = 0; i < 2; i++) {
+            bufferCache = createBufferCache();
+            fileId = bufferCache.openFile(file);
+            for (int pageId = 0; pageId < NUM_FILE_PAGES; pageId++) {
+                checkPage(bufferCache, fileId, pageId);
+                writePage(bufferCache, fileId, pageId);
+            }
+            bufferCache.closeFile(fileId);
+            bufferCache.close();
+            Assert.assertEquals(fileSize * 2, file.getFile().length());
+        }
+
+        bufferCache = createBufferCache();
+        fileId = bufferCache.openFile(file);
+        for (int pageId = 0; pageId < NUM_FILE_PAGES; pageId++) {
+            checkPage(bufferCache, fileId, pageId);
+        }
+        bufferCache.closeFile(fileId);
+        bufferCache.deleteFile(fileId);
+        bufferCache.close();
+        Assert.assertFalse(((CompressedFileReference) file).getLAFFileReference().getFile().exists());
+    }
+
+    /**
+     * Checks that a rewritten page never replaces the version that the look-aside file points to, and that the slot
+     * of the previous version is reused only after the look-aside file was forced, including after a reopen.
+     */
+    @Test
+    public void rewriteOutOfPlaceTest() throws HyracksDataException {
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        CompressedFileReference file = (CompressedFileReference) CompressedFileReference
+                .of(ioManager.resolve("compressed-" + System.nanoTime()), new LZ4CompressorDecompressorFactory());
+        CompressedFileManager.create(file);
+        CompressedFileManager manager = new CompressedFileManager(ioManager, file);
+        long[] location = new long[2];
+        try {
+            manager.open(0);
+            Assert.assertFalse(manager.getPageLocation(0, location));
+            long first = manager.allocate(0, PAGE_SIZE);
+            manager.setPageLocation(0, first, PAGE_SIZE);
+            manager.force(true);
+
+            long second = manager.allocate(0, PAGE_SIZE);
+            Assert.assertNotEquals(first, second);
+            manager.setPageLocation(0, second, PAGE_SIZE);
+            // the look-aside file on disk may still point to the first version
+            long third = manager.allocate(0, PAGE_SIZE);
+            Assert.assertNotEquals(first, third);
+            Assert.assertNotEquals(second, third);
+            manager.setPageLocation(0, third, PAGE_SIZE);
+            manager.force(true);
+
+            Assert.assertEquals(second, manager.allocate(0, PAGE_SIZE));
+            manager.setPageLocation(0, second, PAGE_SIZE);
+            manager.close();
+
+            manager.open(third + PAGE_SIZE);
+            Assert.assertTrue(manager.getPageLocation(0, location));
+            Assert.assertEquals(second, location[0]);
+            Assert.assertEquals(PAGE_SIZE, location[1]);
+            Assert.assertEquals(third, manager.allocate(0, PAGE_SIZE));
+        } finally {
+            manager.close();
+            CompressedFileManager.delete(file);
+        }
+    }
+
+    private IBufferCache createBufferCache() {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
+        return TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+    }
+
+    private static void writePage(IBufferCache bufferCache, int fileId, int pageId) throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), true);
+        page.acquireWriteLatch();
+        try {
+            for (int i = 0; i < PAGE_SIZE / Integer.BYTES; i++) {
+                page.getBuffer().putInt(i * Integer.BYTES, pageId);
+            }
+        } finally {
+            page.releaseWriteLatch(true);
+            bufferCache.unpin(page);
+        }
+    }
+
+    private static void checkPage(IBufferCache bufferCache, int fileId, int pageId) throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        page.acquireReadLatch();
+        try {
+            for (int i = 0; i < PAGE_SIZE / Integer.BYTES; i++) {
+                Assert.assertEquals(pageId, page.getBuffer().getInt(i * Integer.BYTES));
+            }
+        } finally {
+            page.releaseReadLatch();
+            bufferCache.unpin(page);
+        }
+    }
+}
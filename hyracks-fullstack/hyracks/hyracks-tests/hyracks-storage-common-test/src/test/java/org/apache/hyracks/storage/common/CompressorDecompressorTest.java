@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.compression.LZ4CompressorDecompressorFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressorDecompressorTest {
+    private static final int PAGE_SIZE = 32768;
+
+    private final ICompressorDecompressor lz4 = new LZ4CompressorDecompressorFactory().createInstance();
+
+    @Test
+    public void compressibleTest() throws HyracksDataException {
+        ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE / Integer.BYTES; i++) {
+            page.putInt(i % 64);
+        }
+        page.flip();
+        int compressedSize = roundTrip(page);
+        Assert.assertTrue(compressedSize < PAGE_SIZE / 4);
+    }
+
+    @Test
+    public void incompressibleTest() throws HyracksDataException {
+        byte[] bytes = new byte[PAGE_SIZE];
+        new Random(0).nextBytes(bytes);
+        int compressedSize = roundTrip(ByteBuffer.wrap(bytes));
+        Assert.assertTrue(compressedSize <= lz4.computeCompressedBufferSize(PAGE_SIZE));
+    }
+
+    @Test
+    public void emptyTest() throws HyracksDataException {
+        roundTrip(ByteBuffer.allocate(0));
+    }
+
+    private int roundTrip(ByteBuffer uBuffer) throws HyracksDataException {
+        ByteBuffer cBuffer = ByteBuffer.allocate(lz4.computeCompressedBufferSize(uBuffer.remaining()));
+        lz4.compress(uBuffer, cBuffer);
+        int compressedSize = cBuffer.remaining();
+        ByteBuffer result = ByteBuffer.allocate(uBuffer.remaining());
+        lz4.uncompress(cBuffer, result);
+        Assert.assertEquals(uBuffer, result);
+        return compressedSize;
+    }
+}